@@ -23,6 +23,8 @@ public class KVCacheStats {
     private long hitCount;
     private long missCount;
     private double hitRate;
+    private long prefixReusedTokens;
+    private double prefixTokenHitRate;
     private long memoryUsedBytes;
     private long memoryCapacityBytes;
     private double memoryUtilization;
@@ -19,32 +19,78 @@ package ai.kompile.kvcache.service;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Content-hash index for O(1) prefix block matching across requests.
- * Complements the RadixPrefixCache by indexing block content hashes
- * for fast cross-request KV reuse with shared prompts.
+ * Block-level prefix tree for cross-request KV reuse with shared prompts.
+ * <p>
+ * Each full block is keyed by a hash chained to its parent block's hash, so a
+ * block only matches when the entire preceding context matches as well (the
+ * scheme used by vLLM's automatic prefix caching). The chained hashes form a
+ * radix tree with one node per distinct block-aligned prefix; lookup walks it
+ * from the root and returns the longest cached prefix.
+ * <p>
+ * When the index is full, the least recently used leaf is evicted first, so a
+ * shared prefix outlives the branches hanging off it. Blocks pinned by live
+ * sequences (see {@link #pinBlock(int)}) and their ancestors are never evicted.
  */
 @Slf4j
 public class ContentHashPrefixIndex {
 
+    /** Parent id for blocks that start a sequence. */
+    public static final int NO_PARENT = -1;
+
+    private static final long ROOT_HASH = 0x6A09E667F3BCC908L;
+
     public record PrefixMatchResult(int matchedTokens, int[] matchedBlockIds, int[] remainingTokens) {
         public boolean hasMatch() { return matchedTokens > 0; }
     }
 
-    /** hash of block-size token chunk -> list of block IDs containing those tokens */
-    private final ConcurrentHashMap<Long, List<Integer>> hashToBlocks = new ConcurrentHashMap<>();
+    /** One block-aligned prefix; may be backed by several physical blocks holding the same content. */
+    private static final class Node {
+        final long hash;
+        final Node parent;
+        final int[] tokens;
+        final List<Integer> blockIds = new ArrayList<>(1);
+        final List<Node> children = new ArrayList<>(0);
+        int pinCount;
+        long lastAccess;
+
+        Node(long hash, Node parent, int[] tokens) {
+            this.hash = hash;
+            this.parent = parent;
+            this.tokens = tokens;
+        }
+
+        boolean isEvictable() {
+            return children.isEmpty() && pinCount == 0;
+        }
+    }
+
+    /** chained hash -> node */
+    private final Map<Long, Node> nodes = new HashMap<>();
+
+    /** block ID -> node, for chaining, pinning and cleanup on free */
+    private final Map<Integer, Node> blockToNode = new HashMap<>();
+
+    /** block ID -> number of live sequences pinning it */
+    private final Map<Integer, Integer> blockPins = new HashMap<>();
 
-    /** block ID -> hash, for cleanup on free */
-    private final ConcurrentHashMap<Integer, Long> blockToHash = new ConcurrentHashMap<>();
+    /** Unpinned leaves ordered from least to most recently used. */
+    private final TreeSet<Node> evictableLeaves =
+            new TreeSet<>(Comparator.comparingLong((Node n) -> n.lastAccess));
 
     private final int blockSize;
     private final int maxEntries;
+    private long accessClock;
+
     private final AtomicLong totalLookups = new AtomicLong();
     private final AtomicLong totalHits = new AtomicLong();
+    private final AtomicLong totalLookupTokens = new AtomicLong();
+    private final AtomicLong totalReusedTokens = new AtomicLong();
     private final AtomicLong totalBlocksIndexed = new AtomicLong();
+    private final AtomicLong totalEvictions = new AtomicLong();
+    private final AtomicLong totalRejected = new AtomicLong();
 
     public ContentHashPrefixIndex(int blockSize, int maxEntries) {
         this.blockSize = blockSize;
@@ -52,106 +98,310 @@ public class ContentHashPrefixIndex {
         log.info("ContentHashPrefixIndex initialized (blockSize={}, maxEntries={})", blockSize, maxEntries);
     }
 
+    /**
+     * Indexes a block that starts a sequence (no preceding context).
+     */
+    public boolean onBlockFilled(int blockId, int[] tokenIds) {
+        return onBlockFilled(blockId, NO_PARENT, tokenIds);
+    }
+
     /**
      * Called when a block is fully filled with tokens during append.
-     * Indexes the block by its content hash for future lookups.
+     * The block is chained to {@code parentBlockId}, which must already be indexed
+     * unless it is {@link #NO_PARENT}.
+     *
+     * @return true if the block was indexed; false if its parent is unknown or the
+     *         index is full of pinned blocks
      */
-    public void onBlockFilled(int blockId, int[] tokenIds) {
-        if (hashToBlocks.size() >= maxEntries) {
-            // Evict oldest entry (simple FIFO via first key)
-            var firstKey = hashToBlocks.keys().nextElement();
-            List<Integer> removed = hashToBlocks.remove(firstKey);
-            if (removed != null) {
-                for (int bid : removed) blockToHash.remove(bid);
+    public synchronized boolean onBlockFilled(int blockId, int parentBlockId, int[] tokenIds) {
+        if (tokenIds == null || tokenIds.length != blockSize) {
+            return false;
+        }
+        Node parent = null;
+        if (parentBlockId != NO_PARENT) {
+            parent = blockToNode.get(parentBlockId);
+            if (parent == null) {
+                totalRejected.incrementAndGet();
+                return false; // parent evicted or never indexed: this block is unreachable
+            }
+        }
+        if (blockToNode.containsKey(blockId)) {
+            removeBlock(blockId); // block ID reused for new content
+            if (parent != null && blockToNode.get(parentBlockId) != parent) {
+                totalRejected.incrementAndGet();
+                return false;
             }
         }
 
-        long hash = computeHash(tokenIds);
-        hashToBlocks.computeIfAbsent(hash, k -> Collections.synchronizedList(new ArrayList<>())).add(blockId);
-        blockToHash.put(blockId, hash);
+        long hash = chainHash(parent != null ? parent.hash : ROOT_HASH, tokenIds, 0);
+        Node node = nodes.get(hash);
+        if (node != null && (node.parent != parent || !Arrays.equals(node.tokens, tokenIds))) {
+            totalRejected.incrementAndGet();
+            return false; // 64-bit collision with a different prefix
+        }
+        if (node == null) {
+            if (!makeRoom(parent)) {
+                totalRejected.incrementAndGet();
+                return false;
+            }
+            node = new Node(hash, parent, tokenIds.clone());
+            nodes.put(hash, node);
+            if (parent != null) {
+                evictableLeaves.remove(parent);
+                parent.children.add(node);
+            }
+        }
+        node.blockIds.add(blockId);
+        blockToNode.put(blockId, node);
+        touch(node);
         totalBlocksIndexed.incrementAndGet();
+        return true;
     }
 
     /**
-     * Called when a block is freed (sequence freed or evicted).
-     * Removes the block from the index.
+     * Indexes the full blocks of a token sequence, chaining each block to the previous one.
+     *
+     * @return the number of blocks indexed
      */
-    public void onBlockFreed(int blockId) {
-        Long hash = blockToHash.remove(blockId);
-        if (hash != null) {
-            List<Integer> blocks = hashToBlocks.get(hash);
-            if (blocks != null) {
-                blocks.remove(Integer.valueOf(blockId));
-                if (blocks.isEmpty()) {
-                    hashToBlocks.remove(hash);
-                }
+    public synchronized int insert(int[] tokenIds, int[] blockIds) {
+        if (tokenIds == null || blockIds == null) {
+            return 0;
+        }
+        int indexed = 0;
+        int parent = NO_PARENT;
+        for (int i = 0; i < blockIds.length && (i + 1) * blockSize <= tokenIds.length; i++) {
+            int[] blockTokens = Arrays.copyOfRange(tokenIds, i * blockSize, (i + 1) * blockSize);
+            if (!onBlockFilled(blockIds[i], parent, blockTokens)) {
+                break;
             }
+            parent = blockIds[i];
+            indexed++;
+        }
+        return indexed;
+    }
+
+    /**
+     * Called when a block is freed (sequence freed or evicted).
+     * Removes the block from the index; a prefix left without any backing block
+     * is dropped together with its descendants, which can no longer be reached.
+     */
+    public synchronized void onBlockFreed(int blockId) {
+        removeBlock(blockId);
+    }
+
+    /**
+     * Marks a block as in use by a live sequence. Pinned blocks and their
+     * ancestors are not evicted.
+     */
+    public synchronized void pinBlock(int blockId) {
+        Node node = blockToNode.get(blockId);
+        if (node == null) {
+            return;
+        }
+        blockPins.merge(blockId, 1, Integer::sum);
+        evictableLeaves.remove(node);
+        node.pinCount++;
+    }
+
+    /**
+     * Releases one pin taken with {@link #pinBlock(int)}.
+     */
+    public synchronized void unpinBlock(int blockId) {
+        Node node = blockToNode.get(blockId);
+        Integer pins = blockPins.get(blockId);
+        if (node == null || pins == null) {
+            return;
+        }
+        if (pins == 1) {
+            blockPins.remove(blockId);
+        } else {
+            blockPins.put(blockId, pins - 1);
+        }
+        node.pinCount--;
+        if (node.isEvictable()) {
+            evictableLeaves.add(node);
         }
     }
 
     /**
-     * Find cached prefix blocks matching the given token sequence.
-     * Scans through blockSize-aligned chunks looking for hash matches.
+     * Find the longest cached prefix of the given token sequence.
+     * Walks block-aligned chunks down the tree, stopping at the first chunk whose
+     * chained hash is not present.
      */
-    public PrefixMatchResult findCachedPrefix(int[] tokenIds) {
+    public synchronized PrefixMatchResult findCachedPrefix(int[] tokenIds) {
         totalLookups.incrementAndGet();
 
         if (tokenIds == null || tokenIds.length < blockSize) {
+            if (tokenIds != null) totalLookupTokens.addAndGet(tokenIds.length);
             return new PrefixMatchResult(0, new int[0], tokenIds != null ? tokenIds : new int[0]);
         }
+        totalLookupTokens.addAndGet(tokenIds.length);
 
-        List<Integer> matchedBlocks = new ArrayList<>();
-        int matchedTokens = 0;
-
+        List<Node> path = new ArrayList<>();
+        Node current = null;
+        long hash = ROOT_HASH;
         for (int offset = 0; offset + blockSize <= tokenIds.length; offset += blockSize) {
-            int[] chunk = Arrays.copyOfRange(tokenIds, offset, offset + blockSize);
-            long hash = computeHash(chunk);
-            List<Integer> candidates = hashToBlocks.get(hash);
-
-            if (candidates != null && !candidates.isEmpty()) {
-                matchedBlocks.add(candidates.get(0)); // Use first matching block
-                matchedTokens += blockSize;
-            } else {
+            hash = chainHash(hash, tokenIds, offset);
+            Node next = nodes.get(hash);
+            if (next == null || next.parent != current || !matches(next.tokens, tokenIds, offset)) {
                 break; // Prefix must be contiguous
             }
+            path.add(next);
+            current = next;
+        }
+
+        int matchedTokens = path.size() * blockSize;
+        int[] matchedBlocks = new int[path.size()];
+        for (int i = 0; i < path.size(); i++) {
+            Node node = path.get(i);
+            matchedBlocks[i] = node.blockIds.get(0);
+            touch(node); // root-to-leaf, so ancestors stay older than their descendants
         }
 
         if (matchedTokens > 0) {
             totalHits.incrementAndGet();
+            totalReusedTokens.addAndGet(matchedTokens);
         }
 
         int[] remaining = matchedTokens < tokenIds.length
                 ? Arrays.copyOfRange(tokenIds, matchedTokens, tokenIds.length)
                 : new int[0];
 
-        return new PrefixMatchResult(
-                matchedTokens,
-                matchedBlocks.stream().mapToInt(Integer::intValue).toArray(),
-                remaining);
+        return new PrefixMatchResult(matchedTokens, matchedBlocks, remaining);
     }
 
     /**
      * Get statistics for monitoring.
      */
-    public Map<String, Object> getStats() {
+    public synchronized Map<String, Object> getStats() {
         long lookups = totalLookups.get();
         long hits = totalHits.get();
+        long lookupTokens = totalLookupTokens.get();
+        long reusedTokens = totalReusedTokens.get();
         Map<String, Object> stats = new LinkedHashMap<>();
-        stats.put("indexSize", hashToBlocks.size());
+        stats.put("indexSize", nodes.size());
         stats.put("maxEntries", maxEntries);
+        stats.put("indexedBlocks", blockToNode.size());
+        stats.put("pinnedBlocks", blockPins.size());
+        stats.put("evictableLeaves", evictableLeaves.size());
         stats.put("totalBlocksIndexed", totalBlocksIndexed.get());
         stats.put("totalLookups", lookups);
         stats.put("totalHits", hits);
         stats.put("hitRate", lookups > 0 ? (double) hits / lookups : 0.0);
+        stats.put("totalReusedTokens", reusedTokens);
+        stats.put("tokenHitRate", lookupTokens > 0 ? (double) reusedTokens / lookupTokens : 0.0);
+        stats.put("totalEvictions", totalEvictions.get());
+        stats.put("totalRejected", totalRejected.get());
         stats.put("blockSize", blockSize);
         return stats;
     }
 
-    public int size() {
-        return hashToBlocks.size();
+    /**
+     * @return number of distinct cached prefixes (tree nodes)
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    // ==================== internals (callers hold the monitor) ====================
+
+    private boolean makeRoom(Node keep) {
+        if (keep != null) {
+            evictableLeaves.remove(keep);
+            keep.pinCount++; // never evict the parent we are about to extend
+        }
+        try {
+            while (nodes.size() >= maxEntries) {
+                Node victim = evictableLeaves.pollFirst();
+                if (victim == null) {
+                    log.debug("Prefix index full of pinned blocks ({} entries), not indexing new block", nodes.size());
+                    return false;
+                }
+                removeNode(victim);
+                totalEvictions.incrementAndGet();
+            }
+            return true;
+        } finally {
+            if (keep != null) {
+                keep.pinCount--;
+                if (keep.isEvictable()) evictableLeaves.add(keep);
+            }
+        }
+    }
+
+    private void removeBlock(int blockId) {
+        Node node = blockToNode.remove(blockId);
+        if (node == null) {
+            return;
+        }
+        Integer pins = blockPins.remove(blockId);
+        if (pins != null) {
+            evictableLeaves.remove(node);
+            node.pinCount -= pins;
+        }
+        node.blockIds.remove(Integer.valueOf(blockId));
+        if (node.blockIds.isEmpty()) {
+            removeSubtree(node);
+        } else if (node.isEvictable()) {
+            evictableLeaves.add(node);
+        }
+    }
+
+    private void removeSubtree(Node root) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            for (Node child : node.children) {
+                stack.push(child);
+            }
+            node.children.clear();
+            removeNode(node);
+        }
     }
 
-    private long computeHash(int[] tokenIds) {
-        return Arrays.hashCode(tokenIds);
+    /** Unlinks a node whose children have already been removed. */
+    private void removeNode(Node node) {
+        evictableLeaves.remove(node);
+        nodes.remove(node.hash);
+        for (int blockId : node.blockIds) {
+            blockToNode.remove(blockId);
+            blockPins.remove(blockId);
+        }
+        Node parent = node.parent;
+        if (parent != null && parent.children.remove(node) && parent.isEvictable()) {
+            evictableLeaves.add(parent);
+        }
+    }
+
+    private void touch(Node node) {
+        boolean evictable = evictableLeaves.remove(node);
+        node.lastAccess = ++accessClock;
+        if (evictable || node.isEvictable()) {
+            evictableLeaves.add(node);
+        }
+    }
+
+    private boolean matches(int[] blockTokens, int[] tokenIds, int offset) {
+        return Arrays.equals(blockTokens, 0, blockSize, tokenIds, offset, offset + blockSize);
+    }
+
+    private long chainHash(long parentHash, int[] tokenIds, int offset) {
+        long h = parentHash;
+        for (int i = offset; i < offset + blockSize; i++) {
+            h = (h ^ (tokenIds[i] & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 29;
+        }
+        // murmur3 fmix64
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
     }
 }
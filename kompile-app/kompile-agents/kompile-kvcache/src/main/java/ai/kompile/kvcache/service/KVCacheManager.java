@@ -116,6 +116,9 @@ public class KVCacheManager {
         long hits = counters != null ? counters.hits.get() : 0;
         long misses = counters != null ? counters.misses.get() : 0;
         double hitRate = (hits + misses) > 0 ? (double) hits / (hits + misses) : 0.0;
+        long lookupTokens = counters != null ? counters.prefixLookupTokens.get() : 0;
+        long reusedTokens = counters != null ? counters.prefixReusedTokens.get() : 0;
+        double tokenHitRate = lookupTokens > 0 ? (double) reusedTokens / lookupTokens : 0.0;
 
         long memUsed = cache.getMemoryUsageBytes();
         int totalBlocks = cache.getTotalBlocks();
@@ -137,6 +140,8 @@ public class KVCacheManager {
                 .hitCount(hits)
                 .missCount(misses)
                 .hitRate(hitRate)
+                .prefixReusedTokens(reusedTokens)
+                .prefixTokenHitRate(tokenHitRate)
                 .memoryUsedBytes(memUsed)
                 .memoryCapacityBytes(capacityBytes)
                 .memoryUtilization(utilization)
@@ -151,7 +156,7 @@ public class KVCacheManager {
 
     public KVCacheStats getAggregateStats() {
         long totalAppends = 0, totalEvictions = 0, totalFrees = 0;
-        long totalHits = 0, totalMisses = 0;
+        long totalHits = 0, totalMisses = 0, totalReusedTokens = 0;
         long totalMemUsed = 0, totalCapacity = 0;
         int totalSeqs = 0, totalFreeBlocks = 0, totalBlocksAll = 0;
 
@@ -163,6 +168,7 @@ public class KVCacheManager {
             totalFrees += s.getTotalFrees();
             totalHits += s.getHitCount();
             totalMisses += s.getMissCount();
+            totalReusedTokens += s.getPrefixReusedTokens();
             totalMemUsed += s.getMemoryUsedBytes();
             totalCapacity += s.getMemoryCapacityBytes();
             totalSeqs += s.getActiveSequences();
@@ -182,6 +188,7 @@ public class KVCacheManager {
                 .hitCount(totalHits)
                 .missCount(totalMisses)
                 .hitRate(hitRate)
+                .prefixReusedTokens(totalReusedTokens)
                 .memoryUsedBytes(totalMemUsed)
                 .memoryCapacityBytes(totalCapacity)
                 .memoryUtilization(utilization)
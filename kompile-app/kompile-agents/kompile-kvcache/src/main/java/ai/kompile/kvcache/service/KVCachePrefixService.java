@@ -12,7 +12,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -70,13 +69,9 @@ public class KVCachePrefixService {
     public void register(int[] tokenIds, int[] blockIds) {
         prefixCache.register(tokenIds, blockIds);
 
-        // Also index block content hashes for cross-request matching
+        // Also index chained block hashes for cross-request matching
         if (contentHashPrefixIndex != null && tokenIds != null && blockIds != null) {
-            int blockSize = properties.getBlockSize();
-            for (int i = 0; i < blockIds.length && (i + 1) * blockSize <= tokenIds.length; i++) {
-                int[] blockTokens = Arrays.copyOfRange(tokenIds, i * blockSize, (i + 1) * blockSize);
-                contentHashPrefixIndex.onBlockFilled(blockIds[i], blockTokens);
-            }
+            contentHashPrefixIndex.insert(tokenIds, blockIds);
         }
     }
 
@@ -76,6 +76,19 @@ public class KVCacheStatisticsCollector {
         if (c != null) c.misses.incrementAndGet();
     }
 
+    /**
+     * Records a prefix-index lookup: a hit if any tokens were served from cache,
+     * plus the number of tokens looked up and reused for the token-level hit ratio.
+     */
+    public void recordPrefixLookup(String cacheName, int lookupTokens, int reusedTokens) {
+        CacheCounters c = countersByCache.get(cacheName);
+        if (c == null) return;
+        if (reusedTokens > 0) c.hits.incrementAndGet();
+        else c.misses.incrementAndGet();
+        c.prefixLookupTokens.addAndGet(lookupTokens);
+        c.prefixReusedTokens.addAndGet(reusedTokens);
+    }
+
     public CacheCounters getCounters(String cacheName) {
         return countersByCache.get(cacheName);
     }
@@ -154,6 +167,8 @@ public class KVCacheStatisticsCollector {
         public final AtomicLong frees = new AtomicLong();
         public final AtomicLong hits = new AtomicLong();
         public final AtomicLong misses = new AtomicLong();
+        public final AtomicLong prefixLookupTokens = new AtomicLong();
+        public final AtomicLong prefixReusedTokens = new AtomicLong();
         final AtomicLong appendsSinceLastSample = new AtomicLong();
         final AtomicLong evictionsSinceLastSample = new AtomicLong();
     }
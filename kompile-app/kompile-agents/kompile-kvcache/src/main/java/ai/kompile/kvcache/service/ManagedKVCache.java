@@ -44,6 +44,8 @@ public class ManagedKVCache implements AutoCloseable {
 
     // Track tokens appended per sequence for prefix indexing
     private final Map<Integer, java.util.List<int[]>> sequenceTokenHistory = new java.util.concurrent.ConcurrentHashMap<>();
+    // Full blocks indexed so far per sequence, used to chain each block to its predecessor
+    private final Map<Integer, Integer> sequenceBlocksFilled = new java.util.concurrent.ConcurrentHashMap<>();
     private volatile int activeSequenceCount = 0;
 
     public ManagedKVCache(String name, KVCacheConfig config, KVCacheStatisticsCollector statsCollector) {
@@ -139,11 +141,17 @@ public class ManagedKVCache implements AutoCloseable {
                         .flatMapToInt(java.util.Arrays::stream)
                         .toArray();
                 int blocksFilled = totalTokens / blockSize;
+                int priorBlocks = sequenceBlocksFilled.getOrDefault(seqIdx, 0);
                 for (int b = 0; b < blocksFilled; b++) {
                     int[] blockTokens = java.util.Arrays.copyOfRange(allTokens, b * blockSize, (b + 1) * blockSize);
-                    int blockId = seqIdx * 1000 + b; // synthetic block ID
-                    contentHashPrefixIndex.onBlockFilled(blockId, blockTokens);
+                    int blockNum = priorBlocks + b;
+                    int blockId = seqIdx * 1000 + blockNum; // synthetic block ID
+                    int parentId = blockNum == 0 ? ContentHashPrefixIndex.NO_PARENT : blockId - 1;
+                    if (contentHashPrefixIndex.onBlockFilled(blockId, parentId, blockTokens)) {
+                        contentHashPrefixIndex.pinBlock(blockId); // live sequence: not evictable
+                    }
                 }
+                sequenceBlocksFilled.put(seqIdx, priorBlocks + blocksFilled);
                 // Keep remainder
                 int consumed = blocksFilled * blockSize;
                 history.clear();
@@ -154,6 +162,19 @@ public class ManagedKVCache implements AutoCloseable {
         }
     }
 
+    /**
+     * Looks up the longest cached prefix of {@code tokenIds} in the prefix index and
+     * records the hit and reused-token counts for this cache.
+     *
+     * @return the match, or null if prefix indexing is not enabled
+     */
+    public ContentHashPrefixIndex.PrefixMatchResult findCachedPrefix(int[] tokenIds) {
+        if (contentHashPrefixIndex == null) return null;
+        ContentHashPrefixIndex.PrefixMatchResult result = contentHashPrefixIndex.findCachedPrefix(tokenIds);
+        statsCollector.recordPrefixLookup(name, tokenIds != null ? tokenIds.length : 0, result.matchedTokens());
+        return result;
+    }
+
     public void freeSequence(int seqIdx) {
         if (pagedCache != null) pagedCache.freeSequence(seqIdx);
         else if (evictableCache != null) evictableCache.freeSequence(seqIdx);
@@ -167,10 +188,11 @@ public class ManagedKVCache implements AutoCloseable {
 
         // Clean up prefix index entries for this sequence
         if (contentHashPrefixIndex != null) {
-            var history = sequenceTokenHistory.remove(seqIdx);
-            // Free synthetic block IDs (seqIdx * 1000 + blockNum)
-            // We don't track exact block count, so sweep a reasonable range
-            for (int b = 0; b < 256; b++) {
+            sequenceTokenHistory.remove(seqIdx);
+            Integer blocksFilled = sequenceBlocksFilled.remove(seqIdx);
+            // Free in reverse so children go before their parents
+            for (int b = (blocksFilled != null ? blocksFilled : 0) - 1; b >= 0; b--) {
+                contentHashPrefixIndex.unpinBlock(seqIdx * 1000 + b);
                 contentHashPrefixIndex.onBlockFreed(seqIdx * 1000 + b);
             }
         }
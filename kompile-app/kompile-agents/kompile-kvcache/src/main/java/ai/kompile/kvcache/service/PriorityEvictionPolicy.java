@@ -20,20 +20,98 @@ import ai.kompile.kvcache.model.BlockPriority;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.TreeMap;
 
 /**
  * Priority-based eviction policy for KV cache blocks.
  * Blocks with lower priority are evicted first; within the same priority tier,
  * least-recently-accessed blocks are evicted first.
+ * <p>
+ * The ordering is maintained incrementally rather than sorted on demand: each
+ * priority tier keeps an intrusive doubly-linked LRU list (head = oldest), and
+ * the tiers are kept in a {@link TreeMap}. Register, touch and remove are O(1)
+ * plus O(log t) for t distinct tiers, and the next k victims are read off the
+ * list heads in O(k + t).
  */
 @Slf4j
 public class PriorityEvictionPolicy {
 
-    private final ConcurrentHashMap<Integer, BlockPriority> blockPriorities = new ConcurrentHashMap<>();
+    private static final class Node {
+        final int blockId;
+        int priority;
+        long lastAccessedMs;
+        Node prev;
+        Node next;
+        Tier tier;
+
+        Node(int blockId, int priority, long lastAccessedMs) {
+            this.blockId = blockId;
+            this.priority = priority;
+            this.lastAccessedMs = lastAccessedMs;
+        }
+
+        BlockPriority toBlockPriority() {
+            return new BlockPriority(priority, lastAccessedMs);
+        }
+    }
+
+    /** LRU list of one priority tier; head is the next eviction candidate. */
+    private static final class Tier {
+        Node head;
+        Node tail;
+        int size;
+
+        void addLast(Node node) {
+            node.tier = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail != null) tail.next = node;
+            else head = node;
+            tail = node;
+            size++;
+        }
+
+        /**
+         * Inserts keeping the list ordered by last access. Used when a block changes
+         * tier but keeps its access time; scans from the tail, where re-prioritised
+         * blocks usually land.
+         */
+        void insertByAccessTime(Node node) {
+            Node after = tail;
+            while (after != null && after.lastAccessedMs > node.lastAccessedMs) {
+                after = after.prev;
+            }
+            if (after == tail) {
+                addLast(node);
+                return;
+            }
+            node.tier = this;
+            node.prev = after;
+            node.next = after != null ? after.next : head;
+            node.next.prev = node;
+            if (after != null) after.next = node;
+            else head = node;
+            size++;
+        }
+
+        void unlink(Node node) {
+            if (node.prev != null) node.prev.next = node.next;
+            else head = node.next;
+            if (node.next != null) node.next.prev = node.prev;
+            else tail = node.prev;
+            node.prev = null;
+            node.next = null;
+            node.tier = null;
+            size--;
+        }
+    }
+
+    private final Map<Integer, Node> blocks = new HashMap<>();
+    private final TreeMap<Integer, Tier> tiers = new TreeMap<>();
     private final int defaultPriority;
 
     public PriorityEvictionPolicy(int defaultPriority) {
@@ -47,32 +125,58 @@ public class PriorityEvictionPolicy {
     /**
      * Set priority for a sequence/block.
      */
-    public void setPriority(int seqIdx, int priority) {
-        blockPriorities.compute(seqIdx, (k, existing) -> {
-            long lastAccessed = existing != null ? existing.lastAccessedMs() : System.currentTimeMillis();
-            return new BlockPriority(priority, lastAccessed);
-        });
+    public synchronized void setPriority(int seqIdx, int priority) {
+        Node node = blocks.get(seqIdx);
+        if (node == null) {
+            node = new Node(seqIdx, priority, System.currentTimeMillis());
+            blocks.put(seqIdx, node);
+            tier(priority).addLast(node);
+            return;
+        }
+        if (node.priority == priority) {
+            return;
+        }
+        detach(node);
+        node.priority = priority;
+        tier(priority).insertByAccessTime(node);
     }
 
     /**
      * Touch a block to update its last-accessed time.
      */
-    public void touchBlock(int blockId) {
-        blockPriorities.computeIfPresent(blockId, (k, existing) -> existing.touch());
+    public synchronized void touchBlock(int blockId) {
+        Node node = blocks.get(blockId);
+        if (node == null) {
+            return;
+        }
+        node.lastAccessedMs = Math.max(node.lastAccessedMs, System.currentTimeMillis());
+        Tier tier = node.tier;
+        if (tier.tail != node) {
+            tier.unlink(node);
+            tier.addLast(node);
+        }
     }
 
     /**
      * Register a block with default priority.
      */
-    public void registerBlock(int blockId) {
-        blockPriorities.putIfAbsent(blockId, BlockPriority.withPriority(defaultPriority));
+    public synchronized void registerBlock(int blockId) {
+        if (blocks.containsKey(blockId)) {
+            return;
+        }
+        Node node = new Node(blockId, defaultPriority, System.currentTimeMillis());
+        blocks.put(blockId, node);
+        tier(defaultPriority).addLast(node);
     }
 
     /**
      * Remove tracking for a freed block.
      */
-    public void removeBlock(int blockId) {
-        blockPriorities.remove(blockId);
+    public synchronized void removeBlock(int blockId) {
+        Node node = blocks.remove(blockId);
+        if (node != null) {
+            detach(node);
+        }
     }
 
     /**
@@ -82,13 +186,16 @@ public class PriorityEvictionPolicy {
      * @param numBlocksNeeded number of blocks to free
      * @return list of block IDs to evict, in eviction order
      */
-    public List<Integer> getEvictionOrder(int numBlocksNeeded) {
-        List<Map.Entry<Integer, BlockPriority>> entries = new ArrayList<>(blockPriorities.entrySet());
-        entries.sort(Comparator.comparing(Map.Entry::getValue));
-
-        List<Integer> result = new ArrayList<>();
-        for (int i = 0; i < Math.min(numBlocksNeeded, entries.size()); i++) {
-            result.add(entries.get(i).getKey());
+    public synchronized List<Integer> getEvictionOrder(int numBlocksNeeded) {
+        int limit = Math.min(numBlocksNeeded, blocks.size());
+        List<Integer> result = new ArrayList<>(Math.max(limit, 0));
+        for (Tier tier : tiers.values()) {
+            for (Node node = tier.head; node != null && result.size() < limit; node = node.next) {
+                result.add(node.blockId);
+            }
+            if (result.size() >= limit) {
+                break;
+            }
         }
         return result;
     }
@@ -96,49 +203,70 @@ public class PriorityEvictionPolicy {
     /**
      * Get the full eviction order (all blocks, sorted).
      */
-    public List<Integer> getFullEvictionOrder() {
-        return getEvictionOrder(blockPriorities.size());
+    public synchronized List<Integer> getFullEvictionOrder() {
+        return getEvictionOrder(blocks.size());
     }
 
     /**
      * Get priority for a specific block.
      */
-    public BlockPriority getBlockPriority(int blockId) {
-        return blockPriorities.getOrDefault(blockId, BlockPriority.withPriority(defaultPriority));
+    public synchronized BlockPriority getBlockPriority(int blockId) {
+        Node node = blocks.get(blockId);
+        return node != null ? node.toBlockPriority() : BlockPriority.withPriority(defaultPriority);
     }
 
     /**
      * Get the number of tracked blocks.
      */
-    public int size() {
-        return blockPriorities.size();
+    public synchronized int size() {
+        return blocks.size();
     }
 
     /**
      * Get a snapshot of all block priorities for monitoring.
      */
-    public Map<Integer, BlockPriority> getAllPriorities() {
-        return Map.copyOf(blockPriorities);
+    public synchronized Map<Integer, BlockPriority> getAllPriorities() {
+        Map<Integer, BlockPriority> snapshot = new HashMap<>(blocks.size() * 2);
+        for (Node node : blocks.values()) {
+            snapshot.put(node.blockId, node.toBlockPriority());
+        }
+        return Map.copyOf(snapshot);
     }
 
     /**
      * Get counts by priority tier.
      */
-    public Map<String, Long> getTierCounts() {
-        Map<String, Long> counts = new java.util.LinkedHashMap<>();
-        long systemPrompt = blockPriorities.values().stream()
-                .filter(p -> p.priority() >= BlockPriority.SYSTEM_PROMPT).count();
-        long cachedPrefix = blockPriorities.values().stream()
-                .filter(p -> p.priority() >= BlockPriority.CACHED_PREFIX && p.priority() < BlockPriority.SYSTEM_PROMPT).count();
-        long userContext = blockPriorities.values().stream()
-                .filter(p -> p.priority() >= BlockPriority.USER_CONTEXT && p.priority() < BlockPriority.CACHED_PREFIX).count();
-        long evictable = blockPriorities.values().stream()
-                .filter(p -> p.priority() < BlockPriority.USER_CONTEXT).count();
+    public synchronized Map<String, Long> getTierCounts() {
+        long systemPrompt = countInRange(BlockPriority.SYSTEM_PROMPT, Integer.MAX_VALUE);
+        long cachedPrefix = countInRange(BlockPriority.CACHED_PREFIX, BlockPriority.SYSTEM_PROMPT);
+        long userContext = countInRange(BlockPriority.USER_CONTEXT, BlockPriority.CACHED_PREFIX);
+        long evictable = countInRange(Integer.MIN_VALUE, BlockPriority.USER_CONTEXT);
 
+        Map<String, Long> counts = new LinkedHashMap<>();
         counts.put("systemPrompt", systemPrompt);
         counts.put("cachedPrefix", cachedPrefix);
         counts.put("userContext", userContext);
         counts.put("evictable", evictable);
         return counts;
     }
+
+    private long countInRange(int fromInclusive, int toExclusive) {
+        long count = 0;
+        for (Tier tier : tiers.subMap(fromInclusive, true, toExclusive, toExclusive == Integer.MAX_VALUE).values()) {
+            count += tier.size;
+        }
+        return count;
+    }
+
+    private Tier tier(int priority) {
+        return tiers.computeIfAbsent(priority, p -> new Tier());
+    }
+
+    private void detach(Node node) {
+        Tier tier = node.tier;
+        tier.unlink(node);
+        if (tier.size == 0) {
+            tiers.remove(node.priority);
+        }
+    }
 }
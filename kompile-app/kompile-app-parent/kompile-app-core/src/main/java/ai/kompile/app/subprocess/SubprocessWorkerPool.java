@@ -0,0 +1,651 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.app.subprocess;
+
+import ai.kompile.cli.common.util.JsonUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Pool of warm, long-lived subprocess workers keyed by a configuration fingerprint.
+ *
+ * <p>Launching a fresh JVM per job means every job pays for JVM startup, ND4J backend
+ * loading and model/context initialization. A pooled worker pays that once and then
+ * serves jobs back to back. Workers are interchangeable only when they were started
+ * with the same settings, so callers key jobs by a {@link #fingerprint(String...)} of
+ * everything that is fixed at process start (java path, heap, classpath, ND4J config,
+ * model).</p>
+ *
+ * <p>Worker protocol (on top of the usual {@code INGEST_MSG:} stdout messages):</p>
+ * <ol>
+ *   <li>The worker is launched with {@link #WORKER_FLAG} and its first args file.</li>
+ *   <li>After reporting a job as {@code COMPLETED} or {@code FAILED}, it sends a
+ *       {@code WORKER_STATUS} message with workerId {@link #POOL_WORKER_ID} and status
+ *       {@link #STATUS_IDLE} or {@link #STATUS_RECYCLE}.</li>
+ *   <li>When idle it reads the path of the next args file from stdin, one per line.
+ *       On EOF it exits.</li>
+ *   <li>{@link #STATUS_RECYCLE} means its {@link SubprocessMemoryWatchdog} crossed the
+ *       stop watermark; the worker exits and a fresh one is started on demand.</li>
+ * </ol>
+ *
+ * <p>Idle workers are handed out most-recently-used first, so surplus workers age out
+ * and are reaped after the idle TTL by closing their stdin.</p>
+ *
+ * <p>Only graph extraction runs on the pool. An idle worker must hold nothing the parent
+ * reclaims when a job ends, and the other job subprocesses do not fit that:</p>
+ * <ul>
+ *   <li>Ingest and vector population build a Spring context around Lucene writers on the
+ *       shared keyword and vector indexes, and run on a GPU the parent reserves per task
+ *       and releases on exit. A warm worker would keep both past the end of its job.</li>
+ *   <li>Their restart handling reads the exit code (137 for OOM) to retry with a smaller
+ *       batch or a larger heap, which also changes the worker's fingerprint.</li>
+ *   <li>The embedding subprocess is already one long-lived process serving requests over
+ *       its own stdin protocol, so it pays startup once without a pool.</li>
+ * </ul>
+ */
+public class SubprocessWorkerPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubprocessWorkerPool.class);
+    private static final ObjectMapper MAPPER = JsonUtils.standardMapper();
+
+    /** Command-line flag that puts a subprocess main into pooled worker mode */
+    public static final String WORKER_FLAG = "--worker";
+
+    /** {@code WORKER_STATUS.workerId} used for pool control messages */
+    public static final String POOL_WORKER_ID = "pool";
+
+    /** Worker finished its job and is waiting for the next args file */
+    public static final String STATUS_IDLE = "IDLE";
+
+    /** Worker finished its job and is exiting because of memory pressure */
+    public static final String STATUS_RECYCLE = "RECYCLE";
+
+    private static final long EXIT_GRACE_MS = 10_000;
+
+    /**
+     * Starts a worker process whose first job is {@code firstArgsFile}.
+     */
+    @FunctionalInterface
+    public interface WorkerLauncher {
+        Process launch(Path firstArgsFile) throws IOException;
+    }
+
+    /**
+     * Pool counters.
+     *
+     * @param warmHits          jobs dispatched to an already running worker
+     * @param coldStarts        jobs that had to start a new worker
+     * @param meanStartLatencyMs mean time from submit to the job's first message
+     */
+    public record Stats(
+            int liveWorkers,
+            int idleWorkers,
+            int queuedJobs,
+            long jobs,
+            long warmHits,
+            long coldStarts,
+            double hitRate,
+            double meanStartLatencyMs,
+            double meanWarmStartLatencyMs,
+            double meanColdStartLatencyMs,
+            long recycled,
+            long reaped,
+            long crashed
+    ) {}
+
+    private final String name;
+    private final int maxWorkersPerKey;
+    private final long idleTtlNanos;
+
+    private final Object lock = new Object();
+    private final Map<String, Deque<Worker>> idle = new HashMap<>();
+    private final Map<String, Integer> live = new HashMap<>();
+    private final Map<String, Deque<Job>> waiting = new HashMap<>();
+    private final Map<String, Worker> byTask = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reaper;
+    private final AtomicInteger workerIds = new AtomicInteger();
+    private boolean closed;
+
+    private final LongAdder jobs = new LongAdder();
+    private final LongAdder warmHits = new LongAdder();
+    private final LongAdder coldStarts = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+    private final LongAdder reaped = new LongAdder();
+    private final LongAdder crashed = new LongAdder();
+    private final LongAdder warmLatencyNanos = new LongAdder();
+    private final LongAdder warmLatencySamples = new LongAdder();
+    private final LongAdder coldLatencyNanos = new LongAdder();
+    private final LongAdder coldLatencySamples = new LongAdder();
+
+    /**
+     * @param name             prefix for thread names and log lines
+     * @param maxWorkersPerKey upper bound on live workers per fingerprint
+     * @param idleTtlMs        idle time after which a worker is shut down
+     */
+    public SubprocessWorkerPool(String name, int maxWorkersPerKey, long idleTtlMs) {
+        if (maxWorkersPerKey < 1) {
+            throw new IllegalArgumentException("maxWorkersPerKey must be >= 1: " + maxWorkersPerKey);
+        }
+        this.name = name;
+        this.maxWorkersPerKey = maxWorkersPerKey;
+        this.idleTtlNanos = TimeUnit.MILLISECONDS.toNanos(idleTtlMs);
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name + "-pool-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, idleTtlMs / 4);
+        reaper.scheduleWithFixedDelay(this::reapIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hashes the settings a worker was started with into a pool key.
+     */
+    public static String fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Runs a job on a warm worker for {@code fingerprint}, starting one if fewer than
+     * {@code maxWorkersPerKey} are alive, or queueing the job otherwise.
+     *
+     * @param listener receives every protocol message for this job, on the worker's reader thread
+     * @return completes when the worker reports it is done with the job; completes
+     *         exceptionally if the worker dies first or the job is cancelled
+     */
+    public CompletableFuture<Void> submit(String fingerprint, String taskId, Path argsFile,
+                                          WorkerLauncher launcher, Consumer<SubprocessMessage> listener) {
+        return submit(fingerprint, taskId, argsFile, launcher, listener, () -> {});
+    }
+
+    /**
+     * Like {@link #submit(String, String, Path, WorkerLauncher, Consumer)}, also running
+     * {@code onDispatch} once when a worker takes the job, so callers can time the job
+     * from dispatch rather than from the time it spent queued.
+     */
+    public CompletableFuture<Void> submit(String fingerprint, String taskId, Path argsFile,
+                                          WorkerLauncher launcher, Consumer<SubprocessMessage> listener,
+                                          Runnable onDispatch) {
+        Job job = new Job(fingerprint, taskId, argsFile, launcher, listener, onDispatch);
+        jobs.increment();
+        dispatch(job);
+        return job.future;
+    }
+
+    /**
+     * Cancels a queued job, or kills the worker running it.
+     *
+     * @return {@code true} if the job was found
+     */
+    public boolean cancel(String taskId) {
+        synchronized (lock) {
+            for (Deque<Job> queue : waiting.values()) {
+                for (Iterator<Job> it = queue.iterator(); it.hasNext(); ) {
+                    Job job = it.next();
+                    if (job.taskId.equals(taskId)) {
+                        it.remove();
+                        job.future.completeExceptionally(new CancellationException("Cancelled: " + taskId));
+                        return true;
+                    }
+                }
+            }
+        }
+        Worker worker = byTask.get(taskId);
+        if (worker == null) {
+            return false;
+        }
+        logger.info("[{}] Cancelling task {} by killing worker {}", name, taskId, worker.id);
+        worker.cancelled = true;
+        worker.process.destroyForcibly();
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the job is queued or running
+     */
+    public boolean isRunning(String taskId) {
+        if (byTask.containsKey(taskId)) {
+            return true;
+        }
+        synchronized (lock) {
+            return waiting.values().stream().flatMap(Deque::stream).anyMatch(j -> j.taskId.equals(taskId));
+        }
+    }
+
+    public Stats getStats() {
+        int liveWorkers;
+        int idleWorkers;
+        int queued;
+        synchronized (lock) {
+            liveWorkers = live.values().stream().mapToInt(Integer::intValue).sum();
+            idleWorkers = idle.values().stream().mapToInt(Deque::size).sum();
+            queued = waiting.values().stream().mapToInt(Deque::size).sum();
+        }
+        long hits = warmHits.sum();
+        long cold = coldStarts.sum();
+        long warmSamples = warmLatencySamples.sum();
+        long coldSamples = coldLatencySamples.sum();
+        long warmNanos = warmLatencyNanos.sum();
+        long coldNanos = coldLatencyNanos.sum();
+        return new Stats(liveWorkers, idleWorkers, queued, jobs.sum(), hits, cold,
+                hits + cold == 0 ? 0 : (double) hits / (hits + cold),
+                millis(warmNanos + coldNanos, warmSamples + coldSamples),
+                millis(warmNanos, warmSamples),
+                millis(coldNanos, coldSamples),
+                recycled.sum(), reaped.sum(), crashed.sum());
+    }
+
+    private static double millis(long nanos, long samples) {
+        return samples == 0 ? 0 : nanos / 1e6 / samples;
+    }
+
+    // === Dispatch ===
+
+    private void dispatch(Job job) {
+        Worker warm = null;
+        boolean spawn = false;
+        synchronized (lock) {
+            if (closed) {
+                job.future.completeExceptionally(new IllegalStateException(name + " worker pool is closed"));
+                return;
+            }
+            Deque<Worker> idleWorkers = idle.get(job.fingerprint);
+            while (idleWorkers != null && !idleWorkers.isEmpty()) {
+                Worker candidate = idleWorkers.pollFirst();
+                if (candidate.process.isAlive()) {
+                    warm = candidate;
+                    assign(candidate, job);
+                    break;
+                }
+            }
+            if (warm == null) {
+                int count = live.getOrDefault(job.fingerprint, 0);
+                if (count < maxWorkersPerKey) {
+                    live.put(job.fingerprint, count + 1);
+                    spawn = true;
+                } else {
+                    waiting.computeIfAbsent(job.fingerprint, k -> new ArrayDeque<>()).addLast(job);
+                }
+            }
+        }
+        if (warm != null) {
+            warmHits.increment();
+            job.warm = true;
+            job.dispatched();
+            sendArgsFile(warm, job);
+        } else if (spawn) {
+            coldStarts.increment();
+            job.dispatched();
+            spawn(job);
+        }
+    }
+
+    /** Called under {@link #lock}. */
+    private void assign(Worker worker, Job job) {
+        worker.current = job;
+        byTask.put(job.taskId, worker);
+    }
+
+    private void sendArgsFile(Worker worker, Job job) {
+        try {
+            worker.stdin.write(job.argsFile.toString());
+            worker.stdin.newLine();
+            worker.stdin.flush();
+            logger.debug("[{}] Dispatched task {} to warm worker {}", name, job.taskId, worker.id);
+        } catch (IOException e) {
+            // The worker died between going idle and this write; its exit handler fails the job
+            logger.warn("[{}] Failed to dispatch task {} to worker {}: {}", name, job.taskId, worker.id, e.getMessage());
+            worker.process.destroyForcibly();
+        }
+    }
+
+    private void spawn(Job job) {
+        Process process;
+        try {
+            process = job.launcher.launch(job.argsFile);
+        } catch (IOException | RuntimeException e) {
+            logger.error("[{}] Failed to start worker for task {}", name, job.taskId, e);
+            synchronized (lock) {
+                live.merge(job.fingerprint, -1, Integer::sum);
+            }
+            job.future.completeExceptionally(e);
+            pump(job.fingerprint);
+            return;
+        }
+        Worker worker = new Worker(name + "-worker-" + workerIds.incrementAndGet(), job.fingerprint, process);
+        synchronized (lock) {
+            assign(worker, job);
+        }
+        logger.info("[{}] Started worker {} (pid {}) for task {}", name, worker.id, process.pid(), job.taskId);
+        worker.start();
+    }
+
+    /**
+     * Starts a queued job if there is capacity for its fingerprint.
+     */
+    private void pump(String fingerprint) {
+        Job next;
+        synchronized (lock) {
+            Deque<Job> queue = waiting.get(fingerprint);
+            next = queue != null ? queue.pollFirst() : null;
+        }
+        if (next != null) {
+            dispatch(next);
+        }
+    }
+
+    // === Worker events (reader thread) ===
+
+    private void onMessage(Worker worker, SubprocessMessage message) {
+        Job job;
+        synchronized (lock) {
+            job = worker.current;
+        }
+        if (message instanceof SubprocessMessage.WorkerStatus status
+                && POOL_WORKER_ID.equals(status.workerId())) {
+            onJobFinished(worker, job, status.status());
+            return;
+        }
+        if (job == null || !job.taskId.equals(message.taskId())) {
+            return;
+        }
+        if (!job.started) {
+            job.started = true;
+            long latency = System.nanoTime() - job.submittedNanos;
+            (job.warm ? warmLatencyNanos : coldLatencyNanos).add(latency);
+            (job.warm ? warmLatencySamples : coldLatencySamples).increment();
+        }
+        try {
+            job.listener.accept(message);
+        } catch (Exception e) {
+            logger.warn("[{}] Listener for task {} failed: {}", name, job.taskId, e.getMessage());
+        }
+    }
+
+    private void onJobFinished(Worker worker, Job job, String status) {
+        boolean recycle = STATUS_RECYCLE.equals(status);
+        Job next = null;
+        synchronized (lock) {
+            worker.current = null;
+            worker.jobsRun++;
+            worker.lastUsedNanos = System.nanoTime();
+            if (job != null) {
+                byTask.remove(job.taskId, worker);
+            }
+            if (recycle) {
+                worker.retiring = true;
+            } else if (!closed) {
+                Deque<Job> queue = waiting.get(worker.fingerprint);
+                next = queue != null ? queue.pollFirst() : null;
+                if (next != null) {
+                    assign(worker, next);
+                } else {
+                    idle.computeIfAbsent(worker.fingerprint, k -> new ArrayDeque<>()).addFirst(worker);
+                }
+            }
+        }
+        if (job != null) {
+            job.future.complete(null);
+        }
+        if (recycle) {
+            recycled.increment();
+            logger.info("[{}] Worker {} recycling after {} jobs (memory watermark)", name, worker.id, worker.jobsRun);
+            scheduleKill(worker);
+        } else if (next != null) {
+            warmHits.increment();
+            next.warm = true;
+            next.dispatched();
+            sendArgsFile(worker, next);
+        }
+    }
+
+    private void onExit(Worker worker) {
+        int exitCode;
+        try {
+            exitCode = worker.process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exitCode = -1;
+        }
+        Job job;
+        synchronized (lock) {
+            job = worker.current;
+            worker.current = null;
+            Deque<Worker> idleWorkers = idle.get(worker.fingerprint);
+            if (idleWorkers != null) {
+                idleWorkers.remove(worker);
+            }
+            live.merge(worker.fingerprint, -1, Integer::sum);
+        }
+        if (job != null) {
+            byTask.remove(job.taskId, worker);
+            if (worker.cancelled) {
+                job.future.completeExceptionally(new CancellationException("Cancelled: " + job.taskId));
+            } else {
+                crashed.increment();
+                job.future.completeExceptionally(new IOException(
+                        "Worker " + worker.id + " exited with code " + exitCode + " while running " + job.taskId));
+            }
+        } else if (!worker.retiring) {
+            crashed.increment();
+        }
+        logger.info("[{}] Worker {} exited with code {} after {} jobs", name, worker.id, exitCode, worker.jobsRun);
+        pump(worker.fingerprint);
+    }
+
+    // === Idle reaping ===
+
+    private void reapIdle() {
+        List<Worker> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (lock) {
+            for (Deque<Worker> idleWorkers : idle.values()) {
+                for (Iterator<Worker> it = idleWorkers.iterator(); it.hasNext(); ) {
+                    Worker worker = it.next();
+                    if (now - worker.lastUsedNanos >= idleTtlNanos) {
+                        it.remove();
+                        worker.retiring = true;
+                        expired.add(worker);
+                    }
+                }
+            }
+        }
+        for (Worker worker : expired) {
+            reaped.increment();
+            logger.info("[{}] Reaping worker {} after idle TTL ({} jobs served)", name, worker.id, worker.jobsRun);
+            worker.closeStdin();
+            scheduleKill(worker);
+        }
+    }
+
+    private void scheduleKill(Worker worker) {
+        try {
+            reaper.schedule(() -> {
+                if (worker.process.isAlive()) {
+                    worker.process.destroyForcibly();
+                }
+            }, EXIT_GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            worker.process.destroyForcibly();
+        }
+    }
+
+    @Override
+    public void close() {
+        List<Worker> workers = new ArrayList<>();
+        List<Job> queued = new ArrayList<>();
+        synchronized (lock) {
+            closed = true;
+            idle.values().forEach(workers::addAll);
+            idle.clear();
+            waiting.values().forEach(queued::addAll);
+            waiting.clear();
+        }
+        workers.addAll(byTask.values());
+        for (Job job : queued) {
+            job.future.completeExceptionally(new IllegalStateException(name + " worker pool is closed"));
+        }
+        for (Worker worker : workers) {
+            worker.retiring = true;
+            worker.process.destroyForcibly();
+        }
+        reaper.shutdownNow();
+        logger.info("[{}] Worker pool closed: {}", name, getStats());
+    }
+
+    // === Internals ===
+
+    private static final class Job {
+        final String fingerprint;
+        final String taskId;
+        final Path argsFile;
+        final WorkerLauncher launcher;
+        final Consumer<SubprocessMessage> listener;
+        final Runnable onDispatch;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final long submittedNanos = System.nanoTime();
+        volatile boolean warm;
+        volatile boolean started;
+
+        Job(String fingerprint, String taskId, Path argsFile,
+            WorkerLauncher launcher, Consumer<SubprocessMessage> listener, Runnable onDispatch) {
+            this.fingerprint = fingerprint;
+            this.taskId = taskId;
+            this.argsFile = argsFile;
+            this.launcher = launcher;
+            this.listener = listener;
+            this.onDispatch = onDispatch;
+        }
+
+        void dispatched() {
+            try {
+                onDispatch.run();
+            } catch (Exception e) {
+                logger.warn("Dispatch callback for task {} failed: {}", taskId, e.getMessage());
+            }
+        }
+    }
+
+    private final class Worker {
+        final String id;
+        final String fingerprint;
+        final Process process;
+        final BufferedWriter stdin;
+        // Guarded by lock
+        Job current;
+        int jobsRun;
+        long lastUsedNanos = System.nanoTime();
+        volatile boolean retiring;
+        volatile boolean cancelled;
+
+        Worker(String id, String fingerprint, Process process) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+            this.process = process;
+            this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        void start() {
+            Thread stdout = new Thread(this::readStdout, id + "-stdout");
+            stdout.setDaemon(true);
+            stdout.start();
+            Thread stderr = new Thread(this::drainStderr, id + "-stderr");
+            stderr.setDaemon(true);
+            stderr.start();
+        }
+
+        private void readStdout() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith(SubprocessMessage.MESSAGE_PREFIX)) {
+                        continue;
+                    }
+                    try {
+                        SubprocessMessage message = MAPPER.readValue(
+                                line.substring(SubprocessMessage.MESSAGE_PREFIX.length()), SubprocessMessage.class);
+                        onMessage(this, message);
+                    } catch (Exception e) {
+                        logger.debug("[{}] Unparseable message from {}: {}", name, id, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                if (process.isAlive()) {
+                    logger.warn("[{}] Error reading stdout of {}: {}", name, id, e.getMessage());
+                }
+            } finally {
+                onExit(this);
+            }
+        }
+
+        private void drainStderr() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    logger.debug("[{}] {}", id, line);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        void closeStdin() {
+            try {
+                stdin.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -67,6 +67,20 @@ public class CrawlState {
     @Builder.Default
     private Map<String, Long> lastModifiedTimes = new HashMap<>();
 
+    /**
+     * ETag validators of previously fetched web pages (URL -> ETag), sent back
+     * as {@code If-None-Match} so unchanged pages can be answered with 304.
+     */
+    @Builder.Default
+    private Map<String, String> etags = new HashMap<>();
+
+    /**
+     * Depth at which each previously crawled page was found (URL -> depth).
+     * Lets an incremental web re-crawl revisit known pages within the original bounds.
+     */
+    @Builder.Default
+    private Map<String, Integer> urlDepths = new HashMap<>();
+
     /**
      * URLs/paths discovered but not yet visited at the time of checkpoint.
      * Stored as "url::depth" strings to preserve BFS depth information.
@@ -162,6 +162,15 @@ public interface EmbeddingModel extends AutoCloseable {
         return getModelName();
     }
 
+    /**
+     * Gets the instruction prefix the model prepends to texts before tokenization, if any.
+     * Part of the embedding cache key, so vectors computed with different prefixes never mix.
+     * @return The instruction prefix, or an empty string if none is used.
+     */
+    default String getInstructionPrefix() {
+        return "";
+    }
+
     /**
      * Information about the current batch being processed.
      * Provides visibility into the actual tensor shapes AND timing during inference.
@@ -16,6 +16,7 @@
 
 package ai.kompile.core.embeddings;
 
+import ai.kompile.core.rag.retrieval.MetadataFilters;
 import ai.kompile.core.reranking.RerankerConfig;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.springframework.ai.document.Document;
@@ -225,6 +226,38 @@ public interface VectorStore {
         return scored;
     }
 
+    /**
+     * Performs a similarity search restricted to documents whose metadata matches
+     * {@code metadataFilters} (see {@link MetadataFilters}).
+     * <p>
+     * Stores that index metadata should override this to filter inside the k-NN search,
+     * so that {@code k} matching documents come back even when the filter is selective.
+     * The default over-fetches and post-filters, which can return fewer than {@code k}.
+     *
+     * @param queryEmbedding  INDArray of shape [1, embeddingDim] or [embeddingDim]
+     * @param k               The number of most similar documents to retrieve
+     * @param threshold       Minimum similarity score threshold
+     * @param metadataFilters Metadata equality filters; null or empty means no filter
+     * @return A list of ScoredDocuments sorted by score descending
+     */
+    default List<ScoredDocument> similaritySearchWithScores(INDArray queryEmbedding, int k, double threshold,
+                                                            Map<String, Object> metadataFilters) {
+        if (MetadataFilters.isEmpty(metadataFilters)) {
+            return similaritySearchWithScores(queryEmbedding, k, threshold);
+        }
+        List<ScoredDocument> candidates = similaritySearchWithScores(queryEmbedding, k * 4, threshold);
+        List<ScoredDocument> filtered = new ArrayList<>(k);
+        for (ScoredDocument candidate : candidates) {
+            if (MetadataFilters.matches(candidate.getMetadata(), metadataFilters)) {
+                filtered.add(candidate);
+                if (filtered.size() == k) {
+                    break;
+                }
+            }
+        }
+        return filtered;
+    }
+
     /**
      * Performs batch similarity search for multiple queries.
      * <p>
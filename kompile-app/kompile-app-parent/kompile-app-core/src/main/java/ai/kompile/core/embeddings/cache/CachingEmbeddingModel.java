@@ -0,0 +1,235 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.embeddings.cache;
+
+import ai.kompile.core.embeddings.EmbeddingModel;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link EmbeddingModel} decorator that serves {@link #embedBatch(List)} from a
+ * {@link MappedEmbeddingCache} and only forwards cache misses to the wrapped model.
+ *
+ * <p>Keys combine {@link EmbeddingModel#getModelIdentifier()},
+ * {@link EmbeddingModel#getInstructionPrefix()} and the normalized text, so switching
+ * models never returns stale vectors. The INDArray-returning methods are passed through
+ * unchanged.</p>
+ */
+@Slf4j
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final MappedEmbeddingCache cache;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, MappedEmbeddingCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Wraps {@code model} when a cache is available, otherwise returns it unchanged.
+     */
+    public static EmbeddingModel wrap(EmbeddingModel model, MappedEmbeddingCache cache) {
+        if (model == null || cache == null || model instanceof CachingEmbeddingModel) {
+            return model;
+        }
+        return new CachingEmbeddingModel(model, cache);
+    }
+
+    public EmbeddingModel getDelegate() {
+        return delegate;
+    }
+
+    public MappedEmbeddingCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public List<float[]> embedBatch(List<String> texts) {
+        return embedBatchCached(delegate, cache, texts);
+    }
+
+    /**
+     * Resolves {@code texts} against {@code cache}, embeds only the misses with {@code model}
+     * and stores the new vectors. Results are returned in input order. Cached vectors whose
+     * length does not match the model's dimensions are treated as misses.
+     *
+     * @return one vector per text; entries the model failed to embed are returned as the model
+     *         returned them (null or empty). Returns null if the model returned null.
+     */
+    public static List<float[]> embedBatchCached(EmbeddingModel model, MappedEmbeddingCache cache, List<String> texts) {
+        if (texts == null || texts.isEmpty() || cache == null) {
+            return model.embedBatch(texts);
+        }
+        String modelId = model.getModelIdentifier();
+        String prefix = model.getInstructionPrefix();
+        int dimensions = model.dimensions();
+
+        float[][] results = new float[texts.size()][];
+        EmbeddingCacheKey[] keys = new EmbeddingCacheKey[texts.size()];
+        List<String> missTexts = new ArrayList<>();
+        List<Integer> missIndices = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            keys[i] = EmbeddingCacheKey.of(modelId, prefix, texts.get(i));
+            float[] cached = cache.get(keys[i]);
+            if (cached != null && (dimensions <= 0 || cached.length == dimensions)) {
+                results[i] = cached;
+            } else {
+                missTexts.add(texts.get(i));
+                missIndices.add(i);
+            }
+        }
+
+        if (missTexts.size() < texts.size()) {
+            log.debug("Embedding cache served {}/{} texts, computing {} (lifetime hit rate {}%)",
+                    texts.size() - missTexts.size(), texts.size(), missTexts.size(),
+                    String.format("%.1f", cache.getHitRate() * 100.0));
+        }
+
+        if (!missTexts.isEmpty()) {
+            List<float[]> computed = model.embedBatch(missTexts);
+            if (computed == null) {
+                return null;
+            }
+            for (int j = 0; j < missIndices.size() && j < computed.size(); j++) {
+                float[] vector = computed.get(j);
+                int index = missIndices.get(j);
+                results[index] = vector;
+                if (vector != null && vector.length > 0) {
+                    cache.put(keys[index], vector);
+                }
+            }
+        }
+
+        List<float[]> out = new ArrayList<>(texts.size());
+        for (float[] vector : results) {
+            out.add(vector);
+        }
+        return out;
+    }
+
+    // ==================== Delegation ====================
+
+    @Override
+    public INDArray embed(String text) {
+        return delegate.embed(text);
+    }
+
+    @Override
+    public INDArray embed(List<String> texts) {
+        return delegate.embed(texts);
+    }
+
+    @Override
+    public INDArray embedDocuments(List<Document> documents) {
+        return delegate.embedDocuments(documents);
+    }
+
+    @Override
+    public int getOptimalBatchSize() {
+        return delegate.getOptimalBatchSize();
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return delegate.getMaxBatchSize();
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+
+    @Override
+    public String getModelIdentifier() {
+        return delegate.getModelIdentifier();
+    }
+
+    @Override
+    public String getInstructionPrefix() {
+        return delegate.getInstructionPrefix();
+    }
+
+    @Override
+    public BatchInfo getCurrentBatchInfo() {
+        return delegate.getCurrentBatchInfo();
+    }
+
+    @Override
+    public boolean isSingleDspPlan() {
+        return delegate.isSingleDspPlan();
+    }
+
+    @Override
+    public int getDspPlanBatchSize() {
+        return delegate.getDspPlanBatchSize();
+    }
+
+    @Override
+    public int getDimensions() {
+        return delegate.getDimensions();
+    }
+
+    @Override
+    public int getEmbeddingDimension() {
+        return delegate.getEmbeddingDimension();
+    }
+
+    @Override
+    public String getInitializationError() {
+        return delegate.getInitializationError();
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return delegate.isInitialized();
+    }
+
+    @Override
+    public boolean isLoading() {
+        return delegate.isLoading();
+    }
+
+    @Override
+    public String getLoadingPhase() {
+        return delegate.getLoadingPhase();
+    }
+
+    @Override
+    public String getLoadingMessage() {
+        return delegate.getLoadingMessage();
+    }
+
+    @Override
+    public long getLoadingElapsedMs() {
+        return delegate.getLoadingElapsedMs();
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.embeddings.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Content address of an embedding: the first 128 bits of
+ * {@code SHA-256(modelId \0 instructionPrefix \0 normalize(text))}.
+ *
+ * <p>Normalization applies Unicode NFC, trims the text and collapses whitespace runs
+ * to a single space. Tokenizers split on whitespace anyway, so this only widens the
+ * set of inputs that share a vector without changing what the model sees.</p>
+ *
+ * @param hi high 64 bits of the digest
+ * @param lo low 64 bits of the digest
+ */
+public record EmbeddingCacheKey(long hi, long lo) {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    /**
+     * Builds the key for a text embedded by the given model.
+     *
+     * @param modelId           model identifier, e.g. "bge-base-en-v1.5"
+     * @param instructionPrefix instruction prepended by the model before tokenization, may be null
+     * @param text              raw text, may be null
+     */
+    public static EmbeddingCacheKey of(String modelId, String instructionPrefix, String text) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        digest.update(nullToEmpty(modelId).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(nullToEmpty(instructionPrefix).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(normalize(text).getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest();
+        return new EmbeddingCacheKey(readLong(hash, 0), readLong(hash, 8));
+    }
+
+    /**
+     * Normalizes text for content addressing.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String nfc = Normalizer.normalize(text, Normalizer.Form.NFC);
+        return WHITESPACE.matcher(nfc.strip()).replaceAll(" ");
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+}
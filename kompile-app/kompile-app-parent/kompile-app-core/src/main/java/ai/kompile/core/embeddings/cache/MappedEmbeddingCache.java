@@ -0,0 +1,708 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.embeddings.cache;
+
+import ai.kompile.cli.common.KompileHome;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent, content-addressed store of embedding vectors.
+ *
+ * <h2>Layout</h2>
+ * <ul>
+ *   <li><b>Data file</b> - memory-mapped and append-only. A 16-byte header
+ *       ({@code magic, version, writePos}) is followed by records of
+ *       {@code keyHi, keyLo, dim, float[dim]}. {@code writePos} is only advanced after a
+ *       record is fully written, so a crash never exposes a torn record.</li>
+ *   <li><b>Index</b> - off-heap, rebuilt by replaying the data file on open. An
+ *       open-addressing table of entry ids points into a fixed array of 32-byte entries
+ *       ({@code keyHi, keyLo, offset, prev, next}); {@code prev/next} form the LRU list.</li>
+ * </ul>
+ *
+ * <p>The index holds at most {@code maxEntries} keys; inserting beyond that evicts the
+ * least recently used key. Evicted records stay in the file until it fills up, at which
+ * point live records are rewritten oldest-first into a fresh file so a replay restores
+ * the same recency order.</p>
+ *
+ * <h2>Sharing</h2>
+ * <p>Several processes (the app, ingest and vector population subprocesses) open the same
+ * file. Each maps it shared and keeps its own index. Appends take an exclusive lock on the
+ * header region, index whatever other processes appended since the last look, then write
+ * at the shared {@code writePos}. A lookup miss also indexes new records first, so vectors
+ * written by another process are served without reopening. Compaction writes a fresh file,
+ * renames it over the old one and then marks the old one retired; processes still mapping
+ * the old file notice the mark and reopen. Records carry their key, and a read whose
+ * record no longer matches is treated as a miss.</p>
+ *
+ * <p>All operations are synchronized on the instance; instances in one JVM that share a
+ * file also share an append monitor, because file locks are held per process.</p>
+ */
+@Slf4j
+public class MappedEmbeddingCache implements AutoCloseable {
+
+    public static final String DEFAULT_FILE_NAME = "embeddings.cache";
+    public static final int DEFAULT_MAX_ENTRIES = 500_000;
+    public static final long DEFAULT_MAX_FILE_BYTES = 1L << 30;
+
+    private static final int MAGIC = 0x4B454D43; // "KEMC"
+    private static final int RETIRED_MAGIC = 0x4B454D58; // "KEMX", replaced by a compacted file
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int WRITE_POS_OFFSET = 8;
+    private static final int RECORD_HEADER_BYTES = 20;
+
+    private static final int ENTRY_BYTES = 32;
+    private static final int E_KEY_HI = 0;
+    private static final int E_KEY_LO = 8;
+    private static final int E_OFFSET = 16;
+    private static final int E_PREV = 24;
+    private static final int E_NEXT = 28;
+    private static final int NIL = -1;
+    private static final int MAX_ROOM_ATTEMPTS = 2;
+
+    private static final Map<Path, Object> APPEND_MONITORS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final Object appendMonitor;
+    private final int maxEntries;
+    private final long maxFileBytes;
+
+    private FileChannel channel;
+    private MappedByteBuffer data;
+    // End of the records this instance has indexed; the shared end is in the header
+    private long writePos;
+
+    // Off-heap index
+    private final ByteBuffer entries;
+    private final IntBuffer table;
+    private final int tableMask;
+    private int size;
+    private int nextUnusedEntry;
+    private int freeHead = NIL;
+    private int lruHead = NIL; // most recently used
+    private int lruTail = NIL; // least recently used
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+
+    private static volatile MappedEmbeddingCache shared;
+    private static volatile boolean sharedInitialized;
+
+    /**
+     * Opens (or creates) a cache backed by {@code file}.
+     *
+     * @param file         data file path; parent directories are created
+     * @param maxEntries   maximum number of indexed vectors
+     * @param maxFileBytes maximum size of the data file (at most 2 GB)
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedEmbeddingCache(Path file, int maxEntries, long maxFileBytes) throws IOException {
+        this.file = file;
+        this.appendMonitor = APPEND_MONITORS.computeIfAbsent(file.toAbsolutePath().normalize(), p -> new Object());
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxFileBytes = Math.max(HEADER_BYTES + RECORD_HEADER_BYTES, Math.min(maxFileBytes, Integer.MAX_VALUE - 8L));
+
+        this.entries = ByteBuffer.allocateDirect(this.maxEntries * ENTRY_BYTES);
+        int tableSize = Integer.highestOneBit(Math.max(2, this.maxEntries * 2 - 1)) << 1;
+        this.table = ByteBuffer.allocateDirect(tableSize * Integer.BYTES).asIntBuffer();
+        this.tableMask = tableSize - 1;
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        openDataFile();
+        writePos = HEADER_BYTES;
+        catchUp(false);
+        log.info("Embedding cache opened at {}: {} vectors, {} MB used of {} MB",
+                file, size, writePos >> 20, this.maxFileBytes >> 20);
+    }
+
+    /**
+     * Returns the process-wide cache under {@code KompileHome.dataDir()/embedding-cache}, opening it
+     * on first use. Every Kompile process on the machine shares the same file. Returns null when
+     * disabled ({@code -Dkompile.embedding.cache.enabled=false}) or when the file cannot be opened.
+     * <p>
+     * Sizing: {@code -Dkompile.embedding.cache.maxEntries} and {@code -Dkompile.embedding.cache.maxBytes}.
+     */
+    public static MappedEmbeddingCache shared() {
+        if (!sharedInitialized) {
+            synchronized (MappedEmbeddingCache.class) {
+                if (!sharedInitialized) {
+                    shared = openShared();
+                    sharedInitialized = true;
+                }
+            }
+        }
+        return shared;
+    }
+
+    private static MappedEmbeddingCache openShared() {
+        if (!Boolean.parseBoolean(System.getProperty("kompile.embedding.cache.enabled", "true"))) {
+            log.info("Embedding cache disabled by kompile.embedding.cache.enabled=false");
+            return null;
+        }
+        Path path = KompileHome.dataDir().toPath().resolve("embedding-cache").resolve(DEFAULT_FILE_NAME);
+        try {
+            MappedEmbeddingCache cache = new MappedEmbeddingCache(path,
+                    Integer.getInteger("kompile.embedding.cache.maxEntries", DEFAULT_MAX_ENTRIES),
+                    Long.getLong("kompile.embedding.cache.maxBytes", DEFAULT_MAX_FILE_BYTES));
+            Runtime.getRuntime().addShutdownHook(new Thread(cache::close, "embedding-cache-close"));
+            return cache;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Embedding cache unavailable at {}, embedding without a cache: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    // ==================== Public API ====================
+
+    /**
+     * @return a copy of the cached vector, or null on a miss
+     */
+    public synchronized float[] get(EmbeddingCacheKey key) {
+        if (data == null) {
+            return null;
+        }
+        int entry = find(key.hi(), key.lo());
+        if (entry == NIL && refresh()) {
+            entry = find(key.hi(), key.lo());
+        }
+        float[] vector = entry != NIL ? readVector(entry) : null;
+        if (vector == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        moveToHead(entry);
+        return vector;
+    }
+
+    /**
+     * Stores a vector. Vectors are content-addressed, so an existing key is only touched.
+     * Null or empty vectors are ignored.
+     */
+    public synchronized void put(EmbeddingCacheKey key, float[] vector) {
+        if (data == null || vector == null || vector.length == 0) {
+            return;
+        }
+        long recordBytes = RECORD_HEADER_BYTES + (long) vector.length * Float.BYTES;
+        synchronized (appendMonitor) {
+            try {
+                int roomAttempts = 0;
+                while (data != null) {
+                    FileLock lock = channel.lock(0, HEADER_BYTES, false);
+                    try {
+                        if (isRetired()) {
+                            reopen();
+                            continue;
+                        }
+                        catchUp(true);
+                        int existing = find(key.hi(), key.lo());
+                        if (existing != NIL) {
+                            moveToHead(existing);
+                            return;
+                        }
+                        // The shared end can lie past this mapping if another process sized the file larger
+                        if (data.getLong(WRITE_POS_OFFSET) + recordBytes > maxFileBytes) {
+                            if (roomAttempts == MAX_ROOM_ATTEMPTS) {
+                                log.debug("Embedding cache record of {} bytes does not fit, skipping", recordBytes);
+                                return;
+                            }
+                            // Live records alone may not leave room; then drop the oldest quarter too
+                            if (roomAttempts++ > 0) {
+                                int toEvict = Math.max(1, size / 4);
+                                for (int i = 0; i < toEvict && size > 0; i++) {
+                                    evictLru();
+                                }
+                            }
+                            compact();
+                            continue;
+                        }
+                        append(key, vector, recordBytes);
+                        return;
+                    } finally {
+                        if (lock.isValid()) {
+                            lock.release();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Embedding cache write failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void append(EmbeddingCacheKey key, float[] vector, long recordBytes) {
+        if (size >= maxEntries) {
+            evictLru();
+        }
+        long offset = writePos;
+        int pos = (int) offset;
+        data.putLong(pos, key.hi());
+        data.putLong(pos + 8, key.lo());
+        data.putInt(pos + 16, vector.length);
+        data.slice(pos + RECORD_HEADER_BYTES, vector.length * Float.BYTES).asFloatBuffer().put(vector);
+        writePos = offset + recordBytes;
+        data.putLong(WRITE_POS_OFFSET, writePos);
+
+        insert(key.hi(), key.lo(), offset);
+        puts.incrementAndGet();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return hit/miss counters and occupancy for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long h = hits.get();
+        long m = misses.get();
+        stats.put("entries", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("puts", puts.get());
+        stats.put("evictions", evictions.get());
+        stats.put("compactions", compactions.get());
+        stats.put("fileBytesUsed", writePos);
+        stats.put("maxFileBytes", maxFileBytes);
+        return stats;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Flushes written records to disk.
+     */
+    public synchronized void flush() {
+        if (data != null) {
+            data.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (data == null) {
+            return;
+        }
+        try {
+            data.force();
+        } catch (Exception e) {
+            log.debug("Failed to flush embedding cache: {}", e.getMessage());
+        }
+        data = null;
+        closeChannel();
+    }
+
+    // ==================== Data file ====================
+
+    private void openDataFile() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            data = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxFileBytes);
+            synchronized (appendMonitor) {
+                try (FileLock ignored = channel.lock(0, HEADER_BYTES, false)) {
+                    validateHeader();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            data = null;
+            closeChannel();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the file over when it is new or unreadable. Called with the header lock held.
+     */
+    private void validateHeader() throws IOException {
+        int magic = data.getInt(0);
+        if (magic == 0) {
+            writeHeader(data, HEADER_BYTES);
+            return;
+        }
+        if (magic != MAGIC || data.getInt(4) != VERSION) {
+            log.warn("Embedding cache {} has an unknown format, starting empty", file);
+            writeHeader(data, HEADER_BYTES);
+            return;
+        }
+        long sharedPos = data.getLong(WRITE_POS_OFFSET);
+        if (sharedPos < HEADER_BYTES || sharedPos > channel.size()) {
+            log.warn("Embedding cache {} has an invalid write position {}, starting empty", file, sharedPos);
+            writeHeader(data, HEADER_BYTES);
+        }
+    }
+
+    private static void writeHeader(ByteBuffer buffer, long writePos) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(WRITE_POS_OFFSET, writePos);
+    }
+
+    private boolean isRetired() {
+        return data.getInt(0) == RETIRED_MAGIC;
+    }
+
+    /**
+     * Picks up changes made by other processes: reopens a retired file and indexes records
+     * appended since the last look.
+     *
+     * @return true if the index may have changed
+     */
+    private boolean refresh() {
+        if (isRetired()) {
+            try {
+                reopen();
+            } catch (IOException e) {
+                log.warn("Embedding cache {} could not be reopened, disabling it: {}", file, e.getMessage());
+                data = null;
+                return false;
+            }
+            return true;
+        }
+        return catchUp(false);
+    }
+
+    /**
+     * Switches to the file that replaced a retired one and re-indexes it from the start.
+     */
+    private void reopen() throws IOException {
+        data = null;
+        closeChannel();
+        resetIndex();
+        openDataFile();
+        writePos = HEADER_BYTES;
+        catchUp(false);
+    }
+
+    /**
+     * Indexes records between the last indexed position and the shared write position.
+     * Later records win, and replay order doubles as recency order, so the tail of the
+     * file ends up most recently used.
+     *
+     * @param locked whether the header lock is held; only then is a corrupt tail cut off
+     * @return true if any record was indexed
+     */
+    private boolean catchUp(boolean locked) {
+        long end = Math.min(data.getLong(WRITE_POS_OFFSET), maxFileBytes);
+        if (locked && end < writePos) {
+            // Another process cut off a corrupt tail; entries past it fail the key check on read
+            writePos = end;
+        }
+        long pos = writePos;
+        while (pos + RECORD_HEADER_BYTES <= end) {
+            int p = (int) pos;
+            long hi = data.getLong(p);
+            long lo = data.getLong(p + 8);
+            int dim = data.getInt(p + 16);
+            long recordBytes = RECORD_HEADER_BYTES + (long) dim * Float.BYTES;
+            if (dim <= 0 || pos + recordBytes > end) {
+                if (locked) {
+                    log.warn("Embedding cache {} is truncated at offset {}, ignoring the rest", file, pos);
+                    data.putLong(WRITE_POS_OFFSET, pos);
+                }
+                break;
+            }
+            int existing = find(hi, lo);
+            if (existing != NIL) {
+                entries.putLong(existing * ENTRY_BYTES + E_OFFSET, pos);
+                moveToHead(existing);
+            } else {
+                if (size >= maxEntries) {
+                    evictLru();
+                }
+                insert(hi, lo, pos);
+            }
+            pos += recordBytes;
+        }
+        boolean advanced = pos > writePos;
+        writePos = pos;
+        return advanced;
+    }
+
+    /**
+     * Copies live records, least recently used first, into a new file, renames it over the
+     * data file and retires the old one. Called with the header lock held; the lock is lost
+     * with the old channel, so the caller must take it again on the new file.
+     */
+    private void compact() throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+        long newPos = HEADER_BYTES;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, 0, maxFileBytes);
+            int e = lruTail;
+            while (e != NIL) {
+                int newer = entries.getInt(e * ENTRY_BYTES + E_PREV);
+                if (!holdsRecord(e)) {
+                    remove(e);
+                    e = newer;
+                    continue;
+                }
+                long offset = entryOffset(e);
+                int dim = data.getInt((int) offset + 16);
+                int recordBytes = RECORD_HEADER_BYTES + dim * Float.BYTES;
+                target.put((int) newPos, data, (int) offset, recordBytes);
+                entries.putLong(e * ENTRY_BYTES + E_OFFSET, newPos);
+                newPos += recordBytes;
+                e = newer;
+            }
+            writeHeader(target, newPos);
+            target.force();
+        }
+
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Processes still mapping the old file see this and reopen
+        data.putInt(0, RETIRED_MAGIC);
+        data = null;
+        closeChannel();
+        openDataFile();
+        writePos = newPos;
+        compactions.incrementAndGet();
+        log.debug("Embedding cache compacted to {} MB ({} vectors)", writePos >> 20, size);
+    }
+
+    /**
+     * Reads the vector an entry points at, or returns null and drops the entry if the record
+     * there no longer holds its key.
+     */
+    private float[] readVector(int entry) {
+        if (!holdsRecord(entry)) {
+            remove(entry);
+            return null;
+        }
+        int pos = (int) entryOffset(entry);
+        int dim = data.getInt(pos + 16);
+        float[] vector = new float[dim];
+        data.slice(pos + RECORD_HEADER_BYTES, dim * Float.BYTES).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    /**
+     * Whether the record at an entry's offset still carries the entry's key. Fails only
+     * after another process cut off a corrupt tail and reused the space.
+     */
+    private boolean holdsRecord(int entry) {
+        int base = entry * ENTRY_BYTES;
+        long offset = entries.getLong(base + E_OFFSET);
+        if (offset + RECORD_HEADER_BYTES > maxFileBytes) {
+            return false;
+        }
+        int pos = (int) offset;
+        int dim = data.getInt(pos + 16);
+        return data.getLong(pos) == entries.getLong(base + E_KEY_HI)
+                && data.getLong(pos + 8) == entries.getLong(base + E_KEY_LO)
+                && dim > 0 && offset + RECORD_HEADER_BYTES + (long) dim * Float.BYTES <= maxFileBytes;
+    }
+
+    private void closeChannel() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.debug("Failed to close embedding cache file: {}", e.getMessage());
+        }
+        channel = null;
+    }
+
+    // ==================== Off-heap index ====================
+
+    private int slotFor(long hi, long lo) {
+        long h = (hi ^ lo) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & tableMask;
+    }
+
+    private int find(long hi, long lo) {
+        int slot = slotFor(hi, lo);
+        while (true) {
+            int ref = table.get(slot);
+            if (ref == 0) {
+                return NIL;
+            }
+            int e = ref - 1;
+            if (entries.getLong(e * ENTRY_BYTES + E_KEY_HI) == hi && entries.getLong(e * ENTRY_BYTES + E_KEY_LO) == lo) {
+                return e;
+            }
+            slot = (slot + 1) & tableMask;
+        }
+    }
+
+    private void insert(long hi, long lo, long offset) {
+        int e;
+        if (freeHead != NIL) {
+            e = freeHead;
+            freeHead = entries.getInt(e * ENTRY_BYTES + E_NEXT);
+        } else {
+            e = nextUnusedEntry++;
+        }
+        int base = e * ENTRY_BYTES;
+        entries.putLong(base + E_KEY_HI, hi);
+        entries.putLong(base + E_KEY_LO, lo);
+        entries.putLong(base + E_OFFSET, offset);
+        entries.putInt(base + E_PREV, NIL);
+        entries.putInt(base + E_NEXT, NIL);
+        linkAtHead(e);
+
+        int slot = slotFor(hi, lo);
+        while (table.get(slot) != 0) {
+            slot = (slot + 1) & tableMask;
+        }
+        table.put(slot, e + 1);
+        size++;
+    }
+
+    private void evictLru() {
+        if (lruTail != NIL) {
+            remove(lruTail);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(int e) {
+        unlink(e);
+        removeFromTable(e);
+        entries.putInt(e * ENTRY_BYTES + E_NEXT, freeHead);
+        freeHead = e;
+        size--;
+    }
+
+    private void resetIndex() {
+        for (int i = 0; i <= tableMask; i++) {
+            table.put(i, 0);
+        }
+        size = 0;
+        nextUnusedEntry = 0;
+        freeHead = NIL;
+        lruHead = NIL;
+        lruTail = NIL;
+    }
+
+    /**
+     * Linear-probing delete with backward shift, so no tombstones accumulate.
+     */
+    private void removeFromTable(int e) {
+        int base = e * ENTRY_BYTES;
+        int slot = slotFor(entries.getLong(base + E_KEY_HI), entries.getLong(base + E_KEY_LO));
+        while (table.get(slot) != e + 1) {
+            slot = (slot + 1) & tableMask;
+        }
+        int hole = slot;
+        int next = (hole + 1) & tableMask;
+        while (table.get(next) != 0) {
+            int other = table.get(next) - 1;
+            int home = slotFor(entries.getLong(other * ENTRY_BYTES + E_KEY_HI),
+                    entries.getLong(other * ENTRY_BYTES + E_KEY_LO));
+            // Move the entry back if its home slot is not cyclically within (hole, next]
+            boolean inRange = hole <= next ? (home > hole && home <= next) : (home > hole || home <= next);
+            if (!inRange) {
+                table.put(hole, table.get(next));
+                hole = next;
+            }
+            next = (next + 1) & tableMask;
+        }
+        table.put(hole, 0);
+    }
+
+    private long entryOffset(int e) {
+        return entries.getLong(e * ENTRY_BYTES + E_OFFSET);
+    }
+
+    private void moveToHead(int e) {
+        if (e == lruHead) {
+            return;
+        }
+        unlink(e);
+        linkAtHead(e);
+    }
+
+    private void linkAtHead(int e) {
+        int base = e * ENTRY_BYTES;
+        entries.putInt(base + E_PREV, NIL);
+        entries.putInt(base + E_NEXT, lruHead);
+        if (lruHead != NIL) {
+            entries.putInt(lruHead * ENTRY_BYTES + E_PREV, e);
+        }
+        lruHead = e;
+        if (lruTail == NIL) {
+            lruTail = e;
+        }
+    }
+
+    private void unlink(int e) {
+        int base = e * ENTRY_BYTES;
+        int prev = entries.getInt(base + E_PREV);
+        int next = entries.getInt(base + E_NEXT);
+        if (prev != NIL) {
+            entries.putInt(prev * ENTRY_BYTES + E_NEXT, next);
+        } else {
+            lruHead = next;
+        }
+        if (next != NIL) {
+            entries.putInt(next * ENTRY_BYTES + E_PREV, prev);
+        } else {
+            lruTail = prev;
+        }
+        entries.putInt(base + E_PREV, NIL);
+        entries.putInt(base + E_NEXT, NIL);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.filter;
+
+/**
+ * Per-response state of a {@link StreamingFilter}.
+ * <p>
+ * Not thread-safe: deltas must be fed in order from one thread at a time.
+ */
+public interface FilterStream {
+
+    /**
+     * Process the next delta of the response.
+     *
+     * @param delta Newly generated text
+     * @return Text that may be released to the client now (empty if held back)
+     */
+    String onDelta(String delta);
+
+    /**
+     * Signal the end of the response.
+     *
+     * @return Any remaining text to release
+     */
+    String onComplete();
+
+    /**
+     * The result that stopped the stream, if any. Once set, no more text is released
+     * and the caller should cancel generation.
+     *
+     * @return The terminating result, or null while the stream may continue
+     */
+    FilterResult getTermination();
+
+    /**
+     * Stream for a filter that needs the complete response: deltas pass through unchanged
+     * and the filter runs once the stream ends, on {@link FilterContext#getLlmResponse()}.
+     * A termination at that point can only stop what follows, not recall released text.
+     *
+     * @param filter The POST_LLM filter
+     * @param context The filter context of the request
+     * @return The stream
+     */
+    static FilterStream onCompleteResponse(Filter filter, FilterContext context) {
+        return new FilterStream() {
+            private final StringBuilder response = new StringBuilder();
+            private FilterResult termination;
+
+            @Override
+            public String onDelta(String delta) {
+                response.append(delta);
+                return delta;
+            }
+
+            @Override
+            public String onComplete() {
+                context.setLlmResponse(response.toString());
+                FilterResult result = filter.execute(context, FilterPhase.POST_LLM);
+                if (result.isTerminating()) {
+                    termination = result;
+                }
+                return "";
+            }
+
+            @Override
+            public FilterResult getTermination() {
+                return termination;
+            }
+        };
+    }
+}
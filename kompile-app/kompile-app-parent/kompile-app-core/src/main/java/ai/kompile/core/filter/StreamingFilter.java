@@ -0,0 +1,34 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.filter;
+
+/**
+ * A filter that can process the LLM response while it is being streamed.
+ * <p>
+ * Only meaningful in the {@link FilterPhase#POST_LLM} phase. Filters that do not
+ * implement this interface see the complete response once the stream has ended.
+ */
+public interface StreamingFilter extends Filter {
+
+    /**
+     * Start processing one streamed response.
+     *
+     * @param context The filter context of the request
+     * @return The per-response stream
+     */
+    FilterStream openStream(FilterContext context);
+}
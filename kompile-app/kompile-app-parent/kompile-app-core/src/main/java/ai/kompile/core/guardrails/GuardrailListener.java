@@ -0,0 +1,81 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.guardrails;
+
+import java.util.List;
+
+/**
+ * Observer for guardrail evaluation timing, e.g. to feed metrics.
+ * <p>
+ * {@code phase} is {@link #PHASE_INPUT} or {@link #PHASE_OUTPUT}. Per-check outcomes are
+ * {@code passed}, {@code warned}, {@code retry}, {@code blocked}, {@code error},
+ * {@code timeout} or {@code cancelled} (stopped because another guardrail blocked).
+ * Validation outcomes are {@code passed}, {@code warned} or {@code blocked}.
+ */
+public interface GuardrailListener {
+
+    String PHASE_INPUT = "input";
+    String PHASE_OUTPUT = "output";
+
+    /**
+     * Called when a single guardrail check finishes.
+     *
+     * @param phase The validation phase
+     * @param guardrailName The guardrail name
+     * @param outcome The check outcome
+     * @param durationNanos Wall-clock duration of the check
+     */
+    default void onCheck(String phase, String guardrailName, String outcome, long durationNanos) {
+    }
+
+    /**
+     * Called when a whole input or output validation finishes.
+     *
+     * @param phase The validation phase
+     * @param outcome The aggregated outcome
+     * @param durationNanos Wall-clock duration of the validation
+     */
+    default void onValidation(String phase, String outcome, long durationNanos) {
+    }
+
+    /**
+     * Combine several listeners into one.
+     *
+     * @param listeners The listeners to notify, in order
+     * @return A listener that forwards to all of them, or null if there are none
+     */
+    static GuardrailListener composite(List<GuardrailListener> listeners) {
+        if (listeners.isEmpty()) {
+            return null;
+        }
+        if (listeners.size() == 1) {
+            return listeners.get(0);
+        }
+        List<GuardrailListener> copy = List.copyOf(listeners);
+        return new GuardrailListener() {
+            @Override
+            public void onCheck(String phase, String guardrailName, String outcome, long durationNanos) {
+                copy.forEach(l -> l.onCheck(phase, guardrailName, outcome, durationNanos));
+            }
+
+            @Override
+            public void onValidation(String phase, String outcome, long durationNanos) {
+                copy.forEach(l -> l.onValidation(phase, outcome, durationNanos));
+            }
+        };
+    }
+}
@@ -30,6 +30,11 @@ import java.util.Map;
 @Builder
 public class GuardrailResult {
 
+    /**
+     * Metadata key for the rewritten content of a {@link GuardrailAction#MODIFY} result.
+     */
+    public static final String METADATA_MODIFIED_CONTENT = "modifiedContent";
+
     /**
      * Whether the validation passed.
      */
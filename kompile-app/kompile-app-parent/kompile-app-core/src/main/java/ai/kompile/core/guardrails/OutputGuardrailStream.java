@@ -0,0 +1,42 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.guardrails;
+
+/**
+ * Rolling validation state for one streamed response.
+ * <p>
+ * Not thread-safe: deltas must be fed in order from one thread at a time.
+ *
+ * @see StreamingOutputGuardrail
+ */
+public interface OutputGuardrailStream {
+
+    /**
+     * Feed the next delta of the response.
+     *
+     * @param delta Newly generated text
+     * @return The text that may be released now, or a decision to stop the stream
+     */
+    StreamDecision accept(String delta);
+
+    /**
+     * Signal the end of the response.
+     *
+     * @return Any text still held back, and the result for the response as a whole
+     */
+    StreamDecision finish();
+}
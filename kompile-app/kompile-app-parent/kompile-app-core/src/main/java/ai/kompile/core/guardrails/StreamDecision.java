@@ -0,0 +1,70 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.guardrails;
+
+/**
+ * What a streaming output guardrail decided about the text it has seen so far.
+ *
+ * @param text Text that may be released to the client now (possibly rewritten, never null)
+ * @param result The guardrail result, or null while a stream is still undecided
+ */
+public record StreamDecision(String text, GuardrailResult result) {
+
+    public StreamDecision {
+        text = text != null ? text : "";
+    }
+
+    /**
+     * Release text and keep streaming.
+     *
+     * @param text The text to release
+     * @return The decision
+     */
+    public static StreamDecision release(String text) {
+        return new StreamDecision(text, null);
+    }
+
+    /**
+     * Release text and report a result (at the end of the stream).
+     *
+     * @param text The text to release
+     * @param result The result for the response
+     * @return The decision
+     */
+    public static StreamDecision complete(String text, GuardrailResult result) {
+        return new StreamDecision(text, result);
+    }
+
+    /**
+     * Stop the stream; nothing more is released.
+     *
+     * @param result The blocking result
+     * @return The decision
+     */
+    public static StreamDecision stop(GuardrailResult result) {
+        return new StreamDecision("", result);
+    }
+
+    /**
+     * Check whether the stream must stop here.
+     *
+     * @return true if the result blocks the response
+     */
+    public boolean isStopped() {
+        return result != null && !result.isPassed() && result.getAction() == GuardrailAction.BLOCK;
+    }
+}
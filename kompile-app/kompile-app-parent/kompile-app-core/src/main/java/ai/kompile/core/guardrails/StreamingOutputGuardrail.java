@@ -0,0 +1,40 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.guardrails;
+
+import java.util.List;
+
+/**
+ * An output guardrail that can check a response while it is being generated.
+ * <p>
+ * Instead of the complete response, a stream is fed the deltas (tokens, sentences, or
+ * any other chunking) as they arrive. It may hold text back while a match could still
+ * be forming, rewrite text before it is released, and stop the stream as soon as the
+ * response must be blocked, so the caller can cancel generation.
+ */
+public interface StreamingOutputGuardrail extends OutputGuardrail {
+
+    /**
+     * Start checking one streamed response.
+     *
+     * @param originalQuery The user's original query
+     * @param retrievedContext The retrieved context documents (for grounding checks)
+     * @param context Additional context for validation
+     * @return A stream that holds the rolling state for this response
+     */
+    OutputGuardrailStream openStream(String originalQuery, List<String> retrievedContext, GuardrailContext context);
+}
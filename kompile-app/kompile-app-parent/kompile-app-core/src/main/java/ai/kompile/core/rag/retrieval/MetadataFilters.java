@@ -0,0 +1,80 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.core.rag.retrieval;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Evaluates {@link RetrievalOptions#metadataFilters()} against a document's metadata.
+ * <p>
+ * Each filter entry is an equality constraint on one metadata key; a {@link Collection}
+ * value matches any of its elements. Values are compared by their string form, so a
+ * filter of {@code 42} matches metadata {@code "42"}. All entries must match.
+ * <p>
+ * Stores that index metadata push these filters into the search itself; this class is
+ * the reference semantics and the fallback for stores that can only post-filter.
+ */
+public final class MetadataFilters {
+
+    private MetadataFilters() {
+    }
+
+    /**
+     * @return true if {@code filters} is null or empty
+     */
+    public static boolean isEmpty(Map<String, ?> filters) {
+        return filters == null || filters.isEmpty();
+    }
+
+    /**
+     * Checks whether a document's metadata satisfies every filter entry.
+     *
+     * @param metadata The document metadata, may be null
+     * @param filters The filters, may be null or empty
+     * @return true if the document matches
+     */
+    public static boolean matches(Map<String, ?> metadata, Map<String, ?> filters) {
+        if (isEmpty(filters)) {
+            return true;
+        }
+        if (metadata == null) {
+            return false;
+        }
+        for (Map.Entry<String, ?> filter : filters.entrySet()) {
+            Object actual = metadata.get(filter.getKey());
+            if (actual == null || !valueMatches(actual.toString(), filter.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean valueMatches(String actual, Object expected) {
+        if (expected instanceof Collection<?> anyOf) {
+            for (Object candidate : anyOf) {
+                if (candidate != null && actual.equals(candidate.toString())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return Objects.equals(actual, expected != null ? expected.toString() : null);
+    }
+}
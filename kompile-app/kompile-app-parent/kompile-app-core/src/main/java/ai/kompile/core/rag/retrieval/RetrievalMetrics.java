@@ -27,6 +27,8 @@ package ai.kompile.core.rag.retrieval;
  * @param semanticSearchTimeNanos Time spent on semantic search in nanoseconds
  * @param keywordSearchTimeNanos Time spent on keyword search in nanoseconds
  * @param totalTimeNanos Total retrieval time in nanoseconds
+ * @param timeToFusedNanos Time from the start of retrieval until the fused result list was ready
+ * @param timedOutLegs Number of retrieval legs that missed their deadline and were dropped
  */
 public record RetrievalMetrics(
     int semanticHits,
@@ -35,14 +37,25 @@ public record RetrievalMetrics(
     long embeddingTimeNanos,
     long semanticSearchTimeNanos,
     long keywordSearchTimeNanos,
-    long totalTimeNanos
+    long totalTimeNanos,
+    long timeToFusedNanos,
+    int timedOutLegs
 ) {
 
+    /**
+     * Creates metrics without fusion timing, for retrievers that do not fuse legs.
+     */
+    public RetrievalMetrics(int semanticHits, int keywordHits, int duplicatesRemoved, long embeddingTimeNanos,
+                            long semanticSearchTimeNanos, long keywordSearchTimeNanos, long totalTimeNanos) {
+        this(semanticHits, keywordHits, duplicatesRemoved, embeddingTimeNanos,
+                semanticSearchTimeNanos, keywordSearchTimeNanos, totalTimeNanos, 0, 0);
+    }
+
     /**
      * Creates metrics for an empty/failed retrieval.
      */
     public static RetrievalMetrics empty() {
-        return new RetrievalMetrics(0, 0, 0, 0, 0, 0, 0);
+        return new RetrievalMetrics(0, 0, 0, 0, 0, 0, 0, 0, 0);
     }
 
     /**
@@ -80,6 +93,13 @@ public record RetrievalMetrics(
         return totalTimeNanos / 1_000_000.0;
     }
 
+    /**
+     * Returns time to fused results in milliseconds.
+     */
+    public double timeToFusedMs() {
+        return timeToFusedNanos / 1_000_000.0;
+    }
+
     /**
      * Builder for constructing RetrievalMetrics incrementally.
      */
@@ -95,6 +115,8 @@ public record RetrievalMetrics(
         private long semanticSearchTimeNanos = 0;
         private long keywordSearchTimeNanos = 0;
         private long totalTimeNanos = 0;
+        private long timeToFusedNanos = 0;
+        private int timedOutLegs = 0;
 
         public Builder semanticHits(int hits) {
             this.semanticHits = hits;
@@ -131,6 +153,16 @@ public record RetrievalMetrics(
             return this;
         }
 
+        public Builder timeToFusedNanos(long nanos) {
+            this.timeToFusedNanos = nanos;
+            return this;
+        }
+
+        public Builder timedOutLegs(int count) {
+            this.timedOutLegs = count;
+            return this;
+        }
+
         public RetrievalMetrics build() {
             return new RetrievalMetrics(
                 semanticHits,
@@ -139,7 +171,9 @@ public record RetrievalMetrics(
                 embeddingTimeNanos,
                 semanticSearchTimeNanos,
                 keywordSearchTimeNanos,
-                totalTimeNanos
+                totalTimeNanos,
+                timeToFusedNanos,
+                timedOutLegs
             );
         }
     }
@@ -0,0 +1,201 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.core.rag.retrieval;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Combines the ranked result lists of several retrieval legs (e.g. semantic and keyword
+ * search) into a single ranking.
+ * <p>
+ * Raw scores from different legs are not comparable: cosine similarity lives in
+ * {@code [-1, 1]} while BM25 is unbounded. Implementations either ignore the scores and
+ * fuse by rank ({@link #reciprocalRank(int, double...)}) or normalize each leg before
+ * the weighted sum ({@link #minMax(double...)}, {@link #zScore(double...)}).
+ * <p>
+ * Documents are matched across legs by ID; documents without an ID are kept as-is.
+ * Within one leg only the best-ranked occurrence of an ID counts.
+ */
+@FunctionalInterface
+public interface ScoreFusion {
+
+    /** Default RRF rank constant, as in Cormack et al. */
+    int DEFAULT_RRF_K = 60;
+
+    /**
+     * Built-in fusion methods, for selection from configuration.
+     */
+    enum Method {
+        RRF,
+        MIN_MAX,
+        Z_SCORE;
+
+        /**
+         * Parses a method name such as {@code rrf}, {@code min-max} or {@code z_score}.
+         *
+         * @throws IllegalArgumentException if the name is not a known method
+         */
+        public static Method parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    /**
+     * Fuses the legs into one list sorted by fused score, highest first.
+     *
+     * @param legs Result lists, one per leg, each sorted best first. Empty lists are allowed
+     *             (e.g. a leg that timed out).
+     * @return The fused ranking; each document carries its fused score
+     */
+    List<ScoredDocument> fuse(List<List<ScoredDocument>> legs);
+
+    /**
+     * Creates one of the built-in strategies.
+     *
+     * @param method The fusion method
+     * @param rrfK RRF rank constant, only used by {@link Method#RRF}
+     * @param weights Per-leg weights, in leg order; missing weights default to 1
+     */
+    static ScoreFusion of(Method method, int rrfK, double... weights) {
+        return switch (method) {
+            case RRF -> reciprocalRank(rrfK, weights);
+            case MIN_MAX -> minMax(weights);
+            case Z_SCORE -> zScore(weights);
+        };
+    }
+
+    /**
+     * Weighted reciprocal rank fusion: {@code sum(w / (k + rank))} with 1-based ranks.
+     */
+    static ScoreFusion reciprocalRank(int k, double... weights) {
+        if (k < 0) {
+            throw new IllegalArgumentException("RRF k must be >= 0: " + k);
+        }
+        return legs -> Support.combine(legs, weights, leg -> {
+            double[] scores = new double[leg.size()];
+            for (int rank = 0; rank < scores.length; rank++) {
+                scores[rank] = 1.0 / (k + rank + 1);
+            }
+            return scores;
+        });
+    }
+
+    /**
+     * Weighted sum of scores rescaled to {@code [0, 1]} per leg. A leg whose scores are all
+     * equal maps every document to 1.
+     */
+    static ScoreFusion minMax(double... weights) {
+        return legs -> Support.combine(legs, weights, leg -> {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (ScoredDocument doc : leg) {
+                min = Math.min(min, doc.score());
+                max = Math.max(max, doc.score());
+            }
+            double range = max - min;
+            double[] scores = new double[leg.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = range > 0 ? (leg.get(i).score() - min) / range : 1.0;
+            }
+            return scores;
+        });
+    }
+
+    /**
+     * Weighted sum of per-leg z-scores. A leg with zero variance contributes 0.
+     */
+    static ScoreFusion zScore(double... weights) {
+        return legs -> Support.combine(legs, weights, leg -> {
+            double mean = 0;
+            for (ScoredDocument doc : leg) {
+                mean += doc.score();
+            }
+            mean /= leg.size();
+            double variance = 0;
+            for (ScoredDocument doc : leg) {
+                double d = doc.score() - mean;
+                variance += d * d;
+            }
+            double std = Math.sqrt(variance / leg.size());
+            double[] scores = new double[leg.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = std > 0 ? (leg.get(i).score() - mean) / std : 0.0;
+            }
+            return scores;
+        });
+    }
+
+    /**
+     * Shared accumulation for the built-in strategies.
+     */
+    final class Support {
+
+        /** Per-document contributions of one non-empty leg, indexed by rank. */
+        @FunctionalInterface
+        interface LegScorer {
+            double[] score(List<ScoredDocument> leg);
+        }
+
+        private Support() {
+        }
+
+        static List<ScoredDocument> combine(List<List<ScoredDocument>> legs, double[] weights, LegScorer scorer) {
+            Map<String, ScoredDocument> firstSeen = new LinkedHashMap<>();
+            Map<String, Double> fused = new HashMap<>();
+            for (int l = 0; l < legs.size(); l++) {
+                List<ScoredDocument> leg = legs.get(l);
+                if (leg == null || leg.isEmpty()) {
+                    continue;
+                }
+                double weight = l < weights.length ? weights[l] : 1.0;
+                double[] contributions = scorer.score(leg);
+                Set<String> seenInLeg = new HashSet<>();
+                for (int rank = 0; rank < leg.size(); rank++) {
+                    ScoredDocument doc = leg.get(rank);
+                    String id = doc.getId();
+                    if (id == null || id.isBlank()) {
+                        id = UUID.randomUUID().toString();
+                    }
+                    if (!seenInLeg.add(id)) {
+                        continue;
+                    }
+                    firstSeen.putIfAbsent(id, doc);
+                    fused.merge(id, weight * contributions[rank], Double::sum);
+                }
+            }
+
+            List<ScoredDocument> result = new ArrayList<>(firstSeen.size());
+            for (Map.Entry<String, ScoredDocument> entry : firstSeen.entrySet()) {
+                result.add(new ScoredDocument(entry.getValue().document(), fused.get(entry.getKey())));
+            }
+            // Stable sort keeps first-leg order for ties
+            result.sort((a, b) -> Double.compare(b.score(), a.score()));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.reranking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rerank latency bucketed by the number of candidates in the call.
+ * <p>
+ * Cross-encoder cost grows with the candidate count, so a single mean hides whether
+ * slow calls are slow per candidate or just large. Buckets are upper-inclusive:
+ * {@code <=10, <=25, <=50, <=100, <=200, >200}.
+ * <p>
+ * Rerankers record into {@link #shared()}; the metrics module exports it per bucket.
+ */
+public class RerankLatencyStats {
+
+    private static final int[] BUCKET_LIMITS = {10, 25, 50, 100, 200};
+
+    private static final RerankLatencyStats SHARED = new RerankLatencyStats();
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_LIMITS.length + 1);
+    private final AtomicLongArray totalNanos = new AtomicLongArray(BUCKET_LIMITS.length + 1);
+    private final AtomicLongArray maxNanos = new AtomicLongArray(BUCKET_LIMITS.length + 1);
+
+    /**
+     * Latency summary for one candidate-count bucket.
+     *
+     * @param candidates Bucket label, e.g. {@code <=50}
+     * @param count Number of rerank calls in the bucket
+     * @param meanMs Mean call latency in milliseconds
+     * @param maxMs Slowest call in milliseconds
+     */
+    public record Bucket(String candidates, long count, double meanMs, double maxMs) {
+    }
+
+    /**
+     * Returns the process-wide stats that rerankers record into.
+     */
+    public static RerankLatencyStats shared() {
+        return SHARED;
+    }
+
+    /**
+     * Record one rerank call.
+     *
+     * @param candidates Number of candidates passed to the reranker
+     * @param nanos Wall-clock duration of the call
+     */
+    public void record(int candidates, long nanos) {
+        int bucket = bucketOf(candidates);
+        counts.incrementAndGet(bucket);
+        totalNanos.addAndGet(bucket, nanos);
+        maxNanos.accumulateAndGet(bucket, nanos, Math::max);
+    }
+
+    /**
+     * Snapshot of the buckets that have seen at least one call, smallest first.
+     */
+    public List<Bucket> snapshot() {
+        List<Bucket> buckets = new ArrayList<>();
+        for (int i = 0; i <= BUCKET_LIMITS.length; i++) {
+            long count = counts.get(i);
+            if (count == 0) {
+                continue;
+            }
+            buckets.add(new Bucket(label(i), count, totalNanos.get(i) / 1e6 / count, maxNanos.get(i) / 1e6));
+        }
+        return buckets;
+    }
+
+    /**
+     * Number of buckets, including the open-ended last one.
+     */
+    public static int bucketCount() {
+        return BUCKET_LIMITS.length + 1;
+    }
+
+    /**
+     * Label of a bucket, e.g. {@code <=50} or {@code >200}.
+     */
+    public static String label(int bucket) {
+        return bucket < BUCKET_LIMITS.length
+                ? "<=" + BUCKET_LIMITS[bucket]
+                : ">" + BUCKET_LIMITS[BUCKET_LIMITS.length - 1];
+    }
+
+    /**
+     * Number of calls recorded in a bucket.
+     */
+    public long count(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * Summed latency of the calls in a bucket, in nanoseconds.
+     */
+    public long totalNanos(int bucket) {
+        return totalNanos.get(bucket);
+    }
+
+    /**
+     * Slowest call in a bucket, in nanoseconds.
+     */
+    public long maxNanos(int bucket) {
+        return maxNanos.get(bucket);
+    }
+
+    /**
+     * Clear all buckets.
+     */
+    public void reset() {
+        for (int i = 0; i <= BUCKET_LIMITS.length; i++) {
+            counts.set(i, 0);
+            totalNanos.set(i, 0);
+            maxNanos.set(i, 0);
+        }
+    }
+
+    private static int bucketOf(int candidates) {
+        for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+            if (candidates <= BUCKET_LIMITS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_LIMITS.length;
+    }
+}
@@ -63,6 +63,13 @@ public class RerankerConfig {
 
     // MMR parameters
     private float lambda = 0.5f;                // MMR lambda: 1.0 = pure relevance, 0.0 = pure diversity
+    private boolean mmrUseVectors = true;       // MMR: compare stored dense vectors when available, else term overlap
+
+    // Cross-encoder parameters
+    private int crossEncoderTokenBudget = 8192; // Padded tokens per inference batch (batch size x longest pair)
+    private int crossEncoderMaxBatchSize = 32;  // Upper bound on pairs per inference batch
+    private RerankerType cascadeStage = RerankerType.NONE; // Cheap first stage before the cross-encoder (NONE = retrieval score)
+    private int cascadeKeep = -1;               // Candidates kept by the first stage (-1 = no cascade)
 
     // Additional options
     private int topK = -1;                      // Limit reranking to top-k docs (-1 = all)
@@ -273,11 +280,71 @@ public class RerankerConfig {
         return this;
     }
 
+    public RerankerConfig setMmrUseVectors(boolean mmrUseVectors) {
+        this.mmrUseVectors = mmrUseVectors;
+        return this;
+    }
+
+    public RerankerConfig setCrossEncoderTokenBudget(int crossEncoderTokenBudget) {
+        this.crossEncoderTokenBudget = crossEncoderTokenBudget;
+        return this;
+    }
+
+    public RerankerConfig setCrossEncoderMaxBatchSize(int crossEncoderMaxBatchSize) {
+        this.crossEncoderMaxBatchSize = crossEncoderMaxBatchSize;
+        return this;
+    }
+
+    public RerankerConfig setCascadeStage(RerankerType cascadeStage) {
+        this.cascadeStage = cascadeStage;
+        return this;
+    }
+
+    public RerankerConfig setCascadeKeep(int cascadeKeep) {
+        this.cascadeKeep = cascadeKeep;
+        return this;
+    }
+
     public RerankerConfig setTopK(int topK) {
         this.topK = topK;
         return this;
     }
 
+    /**
+     * Create an independent copy of this config, e.g. to derive the config of a cascade stage.
+     */
+    public RerankerConfig copy() {
+        RerankerConfig copy = new RerankerConfig();
+        copy.type = type;
+        copy.enabled = enabled;
+        copy.fbDocs = fbDocs;
+        copy.fbTerms = fbTerms;
+        copy.originalQueryWeight = originalQueryWeight;
+        copy.filterTerms = filterTerms;
+        copy.outputQuery = outputQuery;
+        copy.k1 = k1;
+        copy.b = b;
+        copy.newTermWeight = newTermWeight;
+        copy.alpha = alpha;
+        copy.beta = beta;
+        copy.gamma = gamma;
+        copy.useNegative = useNegative;
+        copy.r = r;
+        copy.n = n;
+        copy.axiomBeta = axiomBeta;
+        copy.deterministic = deterministic;
+        copy.seed = seed;
+        copy.rrfK = rrfK;
+        copy.lambda = lambda;
+        copy.mmrUseVectors = mmrUseVectors;
+        copy.crossEncoderTokenBudget = crossEncoderTokenBudget;
+        copy.crossEncoderMaxBatchSize = crossEncoderMaxBatchSize;
+        copy.cascadeStage = cascadeStage;
+        copy.cascadeKeep = cascadeKeep;
+        copy.topK = topK;
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "RerankerConfig{" +
@@ -30,6 +30,12 @@ import java.util.Map;
  */
 public class RerankerContext {
 
+    /**
+     * Attribute holding the dense vectors of the documents being reranked, as a
+     * {@code Map<String, float[]>} keyed by document id. Used by vector-based MMR.
+     */
+    public static final String DOCUMENT_VECTORS = "documentVectors";
+
     private static final RerankerContext EMPTY = new RerankerContext(
             Collections.emptyList(),
             Collections.emptyMap(),
@@ -39,6 +39,21 @@ public interface RerankerService {
      */
     List<ScoredDocument> rerank(List<ScoredDocument> documents, String query, RerankerConfig config);
 
+    /**
+     * Rerank with additional context, such as {@link RerankerContext#DOCUMENT_VECTORS}.
+     * The default ignores the context.
+     *
+     * @param documents The initial retrieved documents with scores
+     * @param query The original query text
+     * @param config Configuration for the reranking operation
+     * @param context Additional context for the reranker
+     * @return Reranked documents with updated scores
+     */
+    default List<ScoredDocument> rerank(List<ScoredDocument> documents, String query, RerankerConfig config,
+                                        RerankerContext context) {
+        return rerank(documents, query, config);
+    }
+
     /**
      * Rerank using the default configuration.
      *
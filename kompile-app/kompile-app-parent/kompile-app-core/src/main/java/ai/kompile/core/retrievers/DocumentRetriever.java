@@ -16,7 +16,11 @@
 
 package ai.kompile.core.retrievers;
 
+import ai.kompile.core.rag.retrieval.MetadataFilters;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public interface DocumentRetriever {
     // Option 1: Return simple strings (backward compatibility)
@@ -24,4 +28,25 @@ public interface DocumentRetriever {
 
     // Option 2: Return richer DTOs
     List<RetrievedDoc> retrieveWithDetails(String query, int maxResults);
+
+    /**
+     * Retrieves documents whose metadata matches {@code metadataFilters} (see {@link MetadataFilters}).
+     * Retrievers backed by an index with filterable metadata should override this to filter
+     * inside the search; the default over-fetches and post-filters.
+     */
+    default List<RetrievedDoc> retrieveWithDetails(String query, int maxResults, Map<String, Object> metadataFilters) {
+        if (MetadataFilters.isEmpty(metadataFilters)) {
+            return retrieveWithDetails(query, maxResults);
+        }
+        List<RetrievedDoc> filtered = new ArrayList<>(maxResults);
+        for (RetrievedDoc doc : retrieveWithDetails(query, maxResults * 4)) {
+            if (doc != null && MetadataFilters.matches(doc.getMetadata(), metadataFilters)) {
+                filtered.add(doc);
+                if (filtered.size() == maxResults) {
+                    break;
+                }
+            }
+        }
+        return filtered;
+    }
 }
@@ -0,0 +1,249 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.app.subprocess;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SubprocessWorkerPool}.
+ *
+ * <p>Workers are real child JVMs running {@link FakeWorker} from the test classpath,
+ * which speaks the pooled worker protocol without loading ND4J.</p>
+ */
+@DisplayName("SubprocessWorkerPool")
+class SubprocessWorkerPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SubprocessWorkerPool pool;
+    private int jobCounter;
+
+    @BeforeEach
+    void setUp() {
+        pool = new SubprocessWorkerPool("test", 1, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("sequential jobs reuse one warm worker")
+    void reusesWarmWorker() throws Exception {
+        List<String> pids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            pids.add(run("fp", "ok"));
+        }
+
+        assertEquals(pids.get(0), pids.get(1));
+        assertEquals(pids.get(0), pids.get(2));
+        SubprocessWorkerPool.Stats stats = pool.getStats();
+        assertEquals(3, stats.jobs());
+        assertEquals(1, stats.coldStarts());
+        assertEquals(2, stats.warmHits());
+        assertEquals(2.0 / 3, stats.hitRate(), 1e-9);
+        assertEquals(1, stats.idleWorkers());
+        assertTrue(stats.meanColdStartLatencyMs() > 0);
+    }
+
+    @Test
+    @DisplayName("concurrent jobs beyond the per-key limit queue for the warm worker")
+    void queuesBeyondLimit() throws Exception {
+        List<AtomicReference<String>> pids = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            AtomicReference<String> pid = new AtomicReference<>();
+            pids.add(pid);
+            futures.add(submit("fp", "ok", pid));
+        }
+        for (CompletableFuture<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+
+        for (AtomicReference<String> pid : pids) {
+            assertEquals(pids.get(0).get(), pid.get());
+        }
+        assertEquals(1, pool.getStats().coldStarts());
+        assertEquals(3, pool.getStats().warmHits());
+    }
+
+    @Test
+    @DisplayName("a queued job is dispatched only when the warm worker frees up")
+    void dispatchesQueuedJobWhenWorkerFrees() throws Exception {
+        CompletableFuture<Void> firstDispatched = new CompletableFuture<>();
+        CompletableFuture<Void> secondDispatched = new CompletableFuture<>();
+        CompletableFuture<Void> first = submit("fp", "slow", new AtomicReference<>(), firstDispatched);
+        CompletableFuture<Void> second = submit("fp", "ok", new AtomicReference<>(), secondDispatched);
+
+        assertTrue(firstDispatched.isDone());
+        assertFalse(secondDispatched.isDone());
+        assertEquals(1, pool.getStats().queuedJobs());
+
+        first.get(60, TimeUnit.SECONDS);
+        secondDispatched.get(60, TimeUnit.SECONDS);
+        second.get(60, TimeUnit.SECONDS);
+        assertEquals(1, pool.getStats().warmHits());
+    }
+
+    @Test
+    @DisplayName("different fingerprints get different workers")
+    void separatesFingerprints() throws Exception {
+        assertNotEquals(run("a", "ok"), run("b", "ok"));
+        assertEquals(2, pool.getStats().liveWorkers());
+    }
+
+    @Test
+    @DisplayName("a worker over its memory watermark is recycled")
+    void recyclesOnWatermark() throws Exception {
+        String first = run("fp", "recycle");
+        String second = run("fp", "ok");
+
+        assertNotEquals(first, second);
+        assertEquals(1, pool.getStats().recycled());
+        assertEquals(2, pool.getStats().coldStarts());
+    }
+
+    @Test
+    @DisplayName("a crash fails only the running job")
+    void crashFailsJob() throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> run("fp", "crash"));
+        assertInstanceOf(IOException.class, e.getCause());
+
+        assertNotNull(run("fp", "ok"));
+        assertEquals(1, pool.getStats().crashed());
+    }
+
+    @Test
+    @DisplayName("idle workers are reaped after the TTL")
+    void reapsIdleWorkers() throws Exception {
+        pool.close();
+        pool = new SubprocessWorkerPool("test", 1, 100);
+        run("fp", "ok");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pool.getStats().liveWorkers() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, pool.getStats().liveWorkers());
+        assertEquals(1, pool.getStats().reaped());
+        assertEquals(0, pool.getStats().crashed());
+    }
+
+    @Test
+    @DisplayName("fingerprint is stable and order sensitive")
+    void fingerprint() {
+        assertEquals(SubprocessWorkerPool.fingerprint("java", "4g"), SubprocessWorkerPool.fingerprint("java", "4g"));
+        assertNotEquals(SubprocessWorkerPool.fingerprint("java", "4g"), SubprocessWorkerPool.fingerprint("4g", "java"));
+        assertNotEquals(SubprocessWorkerPool.fingerprint("ab", "c"), SubprocessWorkerPool.fingerprint("a", "bc"));
+    }
+
+    // === Helpers ===
+
+    /**
+     * Runs one job and returns the pid of the worker that ran it.
+     */
+    private String run(String fingerprint, String behavior) throws Exception {
+        AtomicReference<String> pid = new AtomicReference<>();
+        submit(fingerprint, behavior, pid).get(60, TimeUnit.SECONDS);
+        return pid.get();
+    }
+
+    private CompletableFuture<Void> submit(String fingerprint, String behavior, AtomicReference<String> pid)
+            throws IOException {
+        return submit(fingerprint, behavior, pid, new CompletableFuture<>());
+    }
+
+    private CompletableFuture<Void> submit(String fingerprint, String behavior, AtomicReference<String> pid,
+                                           CompletableFuture<Void> dispatched) throws IOException {
+        String taskId = "task-" + (++jobCounter);
+        Path argsFile = tempDir.resolve(taskId + ".txt");
+        Files.writeString(argsFile, taskId + "\n" + behavior);
+        return pool.submit(fingerprint, taskId, argsFile, SubprocessWorkerPoolTest::launch, message -> {
+            if (message instanceof SubprocessMessage.Completed completed) {
+                pid.set(completed.indexPath());
+            }
+        }, () -> dispatched.complete(null));
+    }
+
+    private static Process launch(Path firstArgsFile) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                FakeWorker.class.getName(), SubprocessWorkerPool.WORKER_FLAG, firstArgsFile.toString())
+                .start();
+    }
+
+    /**
+     * Pooled worker stand-in. Each args file holds a task id and a behavior:
+     * {@code ok}, {@code slow} (take a second), {@code recycle} (report the memory
+     * watermark) or {@code crash}.
+     */
+    public static final class FakeWorker {
+        public static void main(String[] args) throws Exception {
+            String pid = String.valueOf(ProcessHandle.current().pid());
+            BufferedReader stdin = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            Path argsFile = Paths.get(args[1]);
+            int jobsRun = 0;
+            while (argsFile != null) {
+                List<String> lines = Files.readAllLines(argsFile);
+                String taskId = lines.get(0);
+                String behavior = lines.get(1);
+                try (SubprocessProgressReporter reporter = new SubprocessProgressReporter(taskId, System.out)) {
+                    reporter.reportProgress("TEST", 0, null, "started");
+                    if ("crash".equals(behavior)) {
+                        System.exit(3);
+                    }
+                    if ("slow".equals(behavior)) {
+                        Thread.sleep(1_000);
+                    }
+                    reporter.reportCompleted(1, 0, 0, 1, 0, 0, pid, Map.of());
+                    boolean recycle = "recycle".equals(behavior);
+                    reporter.reportWorkerStatus(SubprocessWorkerPool.POOL_WORKER_ID, "test",
+                            recycle ? SubprocessWorkerPool.STATUS_RECYCLE : SubprocessWorkerPool.STATUS_IDLE,
+                            ++jobsRun, 0, 0, null);
+                    if (recycle) {
+                        return;
+                    }
+                }
+                String line = stdin.readLine();
+                argsFile = line != null ? Paths.get(line) : null;
+            }
+        }
+    }
+}
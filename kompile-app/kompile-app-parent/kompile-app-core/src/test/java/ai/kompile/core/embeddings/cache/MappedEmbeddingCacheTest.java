@@ -0,0 +1,156 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.embeddings.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link MappedEmbeddingCache} and {@link EmbeddingCacheKey}: content addressing,
+ * persistence across reopen, LRU eviction, compaction when the data file fills up and
+ * sharing one file between instances.
+ */
+class MappedEmbeddingCacheTest {
+
+    private static final long ONE_MB = 1L << 20;
+
+    @Test
+    void keyNormalizesWhitespaceButSeparatesModelsAndPrefixes() {
+        EmbeddingCacheKey a = EmbeddingCacheKey.of("bge", "", "hello   world\n");
+        EmbeddingCacheKey b = EmbeddingCacheKey.of("bge", "", " hello world");
+        assertEquals(a, b);
+        assertNotEquals(a, EmbeddingCacheKey.of("minilm", "", "hello world"));
+        assertNotEquals(a, EmbeddingCacheKey.of("bge", "query: ", "hello world"));
+        assertNotEquals(a, EmbeddingCacheKey.of("bge", "", "Hello world"));
+    }
+
+    @Test
+    void storesAndServesVectors(@TempDir Path dir) throws IOException {
+        try (MappedEmbeddingCache cache = new MappedEmbeddingCache(dir.resolve("e.cache"), 100, ONE_MB)) {
+            EmbeddingCacheKey key = EmbeddingCacheKey.of("m", null, "text");
+            assertNull(cache.get(key));
+
+            cache.put(key, new float[]{1f, 2f, 3f});
+            assertArrayEquals(new float[]{1f, 2f, 3f}, cache.get(key));
+            assertEquals(1, cache.getHits());
+            assertEquals(1, cache.getMisses());
+            assertEquals(0.5, cache.getHitRate(), 1e-9);
+        }
+    }
+
+    @Test
+    void survivesReopen(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("e.cache");
+        try (MappedEmbeddingCache cache = new MappedEmbeddingCache(file, 100, ONE_MB)) {
+            for (int i = 0; i < 10; i++) {
+                cache.put(EmbeddingCacheKey.of("m", null, "t" + i), new float[]{i, i + 1});
+            }
+        }
+        try (MappedEmbeddingCache cache = new MappedEmbeddingCache(file, 100, ONE_MB)) {
+            assertEquals(10, cache.size());
+            assertArrayEquals(new float[]{7f, 8f}, cache.get(EmbeddingCacheKey.of("m", null, "t7")));
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed(@TempDir Path dir) throws IOException {
+        try (MappedEmbeddingCache cache = new MappedEmbeddingCache(dir.resolve("e.cache"), 2, ONE_MB)) {
+            EmbeddingCacheKey a = EmbeddingCacheKey.of("m", null, "a");
+            EmbeddingCacheKey b = EmbeddingCacheKey.of("m", null, "b");
+            EmbeddingCacheKey c = EmbeddingCacheKey.of("m", null, "c");
+            cache.put(a, new float[]{1f});
+            cache.put(b, new float[]{2f});
+            assertNotNull(cache.get(a)); // a becomes most recently used
+            cache.put(c, new float[]{3f});
+
+            assertEquals(2, cache.size());
+            assertNotNull(cache.get(a));
+            assertNull(cache.get(b));
+            assertNotNull(cache.get(c));
+        }
+    }
+
+    @Test
+    void compactsWhenFileIsFull(@TempDir Path dir) throws IOException {
+        // 64 entries max, file holds ~100 records of 16 floats: churn forces compaction
+        long maxBytes = 16 + 100 * (20 + 16 * 4);
+        try (MappedEmbeddingCache cache = new MappedEmbeddingCache(dir.resolve("e.cache"), 64, maxBytes)) {
+            for (int i = 0; i < 500; i++) {
+                float[] v = new float[16];
+                v[0] = i;
+                cache.put(EmbeddingCacheKey.of("m", null, "t" + i), v);
+            }
+            assertEquals(64, cache.size());
+            assertTrue((long) cache.getStats().get("compactions") > 0);
+            assertEquals(499f, cache.get(EmbeddingCacheKey.of("m", null, "t499"))[0]);
+            assertNull(cache.get(EmbeddingCacheKey.of("m", null, "t0")));
+        }
+    }
+
+    @Test
+    void instancesSharingAFileSeeEachOthersWrites(@TempDir Path dir) throws IOException {
+        // Two instances on one file stand in for two processes sharing the cache
+        Path file = dir.resolve("e.cache");
+        try (MappedEmbeddingCache app = new MappedEmbeddingCache(file, 100, ONE_MB);
+             MappedEmbeddingCache ingest = new MappedEmbeddingCache(file, 100, ONE_MB)) {
+            EmbeddingCacheKey a = EmbeddingCacheKey.of("m", null, "a");
+            EmbeddingCacheKey b = EmbeddingCacheKey.of("m", null, "b");
+
+            app.put(a, new float[]{1f});
+            assertArrayEquals(new float[]{1f}, ingest.get(a));
+
+            ingest.put(b, new float[]{2f});
+            app.put(EmbeddingCacheKey.of("m", null, "c"), new float[]{3f});
+            assertArrayEquals(new float[]{2f}, app.get(b));
+            assertArrayEquals(new float[]{3f}, ingest.get(EmbeddingCacheKey.of("m", null, "c")));
+        }
+        try (MappedEmbeddingCache reopened = new MappedEmbeddingCache(file, 100, ONE_MB)) {
+            assertEquals(3, reopened.size());
+        }
+    }
+
+    @Test
+    void compactionByOneInstanceIsPickedUpByTheOther(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("e.cache");
+        long maxBytes = 16 + 100 * (20 + 16 * 4);
+        try (MappedEmbeddingCache writer = new MappedEmbeddingCache(file, 64, maxBytes);
+             MappedEmbeddingCache reader = new MappedEmbeddingCache(file, 64, maxBytes)) {
+            for (int i = 0; i < 300; i++) {
+                float[] v = new float[16];
+                v[0] = i;
+                writer.put(EmbeddingCacheKey.of("m", null, "t" + i), v);
+            }
+            assertTrue((long) writer.getStats().get("compactions") > 0);
+
+            assertEquals(299f, reader.get(EmbeddingCacheKey.of("m", null, "t299"))[0]);
+            float[] v = new float[16];
+            v[0] = -1f;
+            reader.put(EmbeddingCacheKey.of("m", null, "from-reader"), v);
+            assertEquals(-1f, writer.get(EmbeddingCacheKey.of("m", null, "from-reader"))[0]);
+        }
+    }
+}
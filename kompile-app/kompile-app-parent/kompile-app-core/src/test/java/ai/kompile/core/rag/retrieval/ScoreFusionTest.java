@@ -0,0 +1,104 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.core.rag.retrieval;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ScoreFusion}.
+ */
+class ScoreFusionTest {
+
+    @Test
+    void rrfIgnoresRawScoreScales() {
+        // Cosine scores are tiny next to BM25, yet "b" is ranked high by both legs
+        List<ScoredDocument> semantic = List.of(doc("a", 0.91), doc("b", 0.90), doc("c", 0.20));
+        List<ScoredDocument> keyword = List.of(doc("d", 14.0), doc("b", 12.5), doc("e", 1.0));
+
+        List<ScoredDocument> fused = ScoreFusion.reciprocalRank(60).fuse(List.of(semantic, keyword));
+
+        assertEquals(List.of("b", "a", "d", "c", "e"), ids(fused));
+        assertEquals(2.0 / 62, fused.get(0).score(), 1e-12);
+    }
+
+    @Test
+    void weightsFavourOneLeg() {
+        List<ScoredDocument> semantic = List.of(doc("a", 0.9), doc("b", 0.1));
+        List<ScoredDocument> keyword = List.of(doc("b", 10.0), doc("a", 1.0));
+
+        assertEquals("a", ScoreFusion.minMax(2.0, 1.0).fuse(List.of(semantic, keyword)).get(0).getId());
+        assertEquals("b", ScoreFusion.minMax(1.0, 2.0).fuse(List.of(semantic, keyword)).get(0).getId());
+    }
+
+    @Test
+    void minMaxScalesEachLegToUnitRange() {
+        List<ScoredDocument> keyword = List.of(doc("a", 30.0), doc("b", 20.0), doc("c", 10.0));
+
+        List<ScoredDocument> fused = ScoreFusion.minMax().fuse(List.of(List.of(), keyword));
+
+        assertEquals(1.0, fused.get(0).score(), 1e-12);
+        assertEquals(0.5, fused.get(1).score(), 1e-12);
+        assertEquals(0.0, fused.get(2).score(), 1e-12);
+        assertEquals(1.0, ScoreFusion.minMax().fuse(List.of(List.of(doc("x", 3.0), doc("y", 3.0)))).get(1).score());
+    }
+
+    @Test
+    void zScoreCentresEachLeg() {
+        List<ScoredDocument> semantic = List.of(doc("a", 3.0), doc("b", 2.0), doc("c", 1.0));
+
+        List<ScoredDocument> fused = ScoreFusion.zScore().fuse(List.of(semantic));
+
+        double std = Math.sqrt(2.0 / 3);
+        assertEquals(1 / std, fused.get(0).score(), 1e-12);
+        assertEquals(0.0, fused.get(1).score(), 1e-12);
+        assertEquals(-1 / std, fused.get(2).score(), 1e-12);
+    }
+
+    @Test
+    void duplicatesWithinALegCountOnceAtTheirBestRank() {
+        List<ScoredDocument> semantic = List.of(doc("a", 0.9), doc("a", 0.8), doc("b", 0.7));
+
+        List<ScoredDocument> fused = ScoreFusion.reciprocalRank(0).fuse(List.of(semantic));
+
+        assertEquals(List.of("a", "b"), ids(fused));
+        assertEquals(1.0, fused.get(0).score(), 1e-12);
+        assertEquals(1.0 / 3, fused.get(1).score(), 1e-12);
+    }
+
+    @Test
+    void methodParsesConfigNames() {
+        assertEquals(ScoreFusion.Method.RRF, ScoreFusion.Method.parse("rrf"));
+        assertEquals(ScoreFusion.Method.MIN_MAX, ScoreFusion.Method.parse("min-max"));
+        assertEquals(ScoreFusion.Method.Z_SCORE, ScoreFusion.Method.parse(" Z_SCORE "));
+        assertThrows(IllegalArgumentException.class, () -> ScoreFusion.Method.parse("borda"));
+    }
+
+    private static ScoredDocument doc(String id, double score) {
+        return ScoredDocument.of(id, "text " + id, Map.of(), score);
+    }
+
+    private static List<String> ids(List<ScoredDocument> docs) {
+        return docs.stream().map(ScoredDocument::getId).toList();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.core.reranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link RerankLatencyStats}: bucketing by candidate count, the per-bucket
+ * accessors used by the metrics binder, reset and concurrent recording.
+ */
+class RerankLatencyStatsTest {
+
+    @Test
+    void testLatencyIsBucketedByCandidateCount() {
+        RerankLatencyStats stats = new RerankLatencyStats();
+        stats.record(8, 2_000_000);
+        stats.record(10, 4_000_000);
+        stats.record(150, 30_000_000);
+        stats.record(500, 90_000_000);
+
+        List<RerankLatencyStats.Bucket> buckets = stats.snapshot();
+        assertEquals(List.of("<=10", "<=200", ">200"), buckets.stream().map(RerankLatencyStats.Bucket::candidates).toList());
+        assertEquals(2, buckets.get(0).count());
+        assertEquals(3.0, buckets.get(0).meanMs(), 1e-9);
+        assertEquals(4.0, buckets.get(0).maxMs(), 1e-9);
+
+        stats.reset();
+        assertTrue(stats.snapshot().isEmpty());
+    }
+
+    @Test
+    void testBucketBoundsAreUpperInclusive() {
+        RerankLatencyStats stats = new RerankLatencyStats();
+        int[] candidates = {1, 10, 11, 25, 26, 50, 51, 100, 101, 200, 201};
+        for (int count : candidates) {
+            stats.record(count, 1);
+        }
+
+        assertEquals(6, RerankLatencyStats.bucketCount());
+        long[] expected = {2, 2, 2, 2, 2, 1};
+        for (int i = 0; i < RerankLatencyStats.bucketCount(); i++) {
+            assertEquals(expected[i], stats.count(i), RerankLatencyStats.label(i));
+        }
+        assertEquals(List.of("<=10", "<=25", "<=50", "<=100", "<=200", ">200"),
+                stats.snapshot().stream().map(RerankLatencyStats.Bucket::candidates).toList());
+    }
+
+    @Test
+    void testAccessorsExposeRawNanos() {
+        RerankLatencyStats stats = new RerankLatencyStats();
+        stats.record(40, 3_000);
+        stats.record(45, 7_000);
+
+        assertEquals(0, stats.count(0));
+        assertEquals(2, stats.count(2));
+        assertEquals(10_000, stats.totalNanos(2));
+        assertEquals(7_000, stats.maxNanos(2));
+    }
+
+    @Test
+    void testConcurrentRecordsAreNotLost() throws InterruptedException {
+        RerankLatencyStats stats = new RerankLatencyStats();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int nanos = (t + 1) * 1_000;
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    stats.record(20, nanos);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(40_000, stats.count(1));
+        assertEquals(100_000_000L, stats.totalNanos(1));
+        assertEquals(4_000, stats.maxNanos(1));
+    }
+
+    @Test
+    void testSharedInstanceIsProcessWide() {
+        assertSame(RerankLatencyStats.shared(), RerankLatencyStats.shared());
+    }
+}
@@ -17,6 +17,7 @@
 package ai.kompile.app.config;
 
 import ai.kompile.cli.common.util.NativeImageInfo;
+import ai.kompile.app.subprocess.SubprocessWorkerPool;
 import lombok.Getter;
 import lombok.Setter;
 import org.slf4j.Logger;
@@ -368,6 +369,16 @@ public class SubprocessExecutableConfig {
                 "ai.kompile.app.subprocess.GraphSubprocessMain");
     }
 
+    /**
+     * Build the command for launching a pooled graph worker whose first job is {@code argsFile}.
+     */
+    public List<String> buildGraphWorkerCommand(Path argsFile, String heapSize, String javaPath, String classpath) {
+        List<String> command = buildGraphCommand(argsFile, heapSize, javaPath, classpath);
+        // The args file is always the last argument; the worker flag goes right before it
+        command.add(command.size() - 1, SubprocessWorkerPool.WORKER_FLAG);
+        return command;
+    }
+
     /**
      * Build the command for launching a training subprocess.
      */
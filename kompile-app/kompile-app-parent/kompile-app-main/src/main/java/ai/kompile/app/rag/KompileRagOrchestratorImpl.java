@@ -22,6 +22,7 @@ import ai.kompile.core.filter.FilterAction;
 import ai.kompile.core.filter.FilterContext;
 import ai.kompile.core.filter.FilterPhase;
 import ai.kompile.core.filter.FilterResult;
+import ai.kompile.core.filter.FilterStream;
 import ai.kompile.core.llm.ConversationalLanguageModel;
 import ai.kompile.core.llm.LanguageModel;
 import ai.kompile.core.llm.memory.KompileChatMemory;
@@ -46,6 +47,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -366,36 +368,41 @@ public class KompileRagOrchestratorImpl implements ConversationalRagService {
                 BuiltContext builtContext = buildContext(documents, history, userMessage, options);
 
                 // Stream response using ConversationalLanguageModel if available
+                Flux<String> generated;
                 if (conversationalLanguageModel instanceof ai.kompile.core.llm.AbstractConversationalLanguageModel acm) {
                     List<String> contextList = List.of(builtContext.userPromptWithContext());
-                    StringBuilder fullResponse = new StringBuilder();
-
-                    acm.generateStreamingConversationalResponse(conversationId, userMessage, contextList)
-                            .doOnNext(chunk -> {
-                                fullResponse.append(chunk);
-                                sink.next(chunk);
-                            })
-                            .doOnComplete(() -> {
-                                // Update memory with full response
-                                updateConversationMemory(conversationId, userMessage, fullResponse.toString());
-                                sink.complete();
-                            })
-                            .doOnError(sink::error)
-                            .subscribe();
+                    generated = acm.generateStreamingConversationalResponse(conversationId, userMessage, contextList);
                 } else {
                     // Fall back to non-streaming with chunked output
                     String answer = generateResponse(conversationId, builtContext, options);
-                    updateConversationMemory(conversationId, userMessage, answer);
 
                     // Emit in chunks for streaming effect
                     int chunkSize = 50;
+                    List<String> chunks = new ArrayList<>();
                     for (int i = 0; i < answer.length(); i += chunkSize) {
-                        int end = Math.min(i + chunkSize, answer.length());
-                        sink.next(answer.substring(i, end));
+                        chunks.add(answer.substring(i, Math.min(i + chunkSize, answer.length())));
                     }
-                    sink.complete();
+                    generated = Flux.fromIterable(chunks);
                 }
 
+                // Output filters see the deltas as they are generated
+                FilterContext filterContext = FilterContext.forConversation(conversationId, userMessage, history);
+                filterContext.setRetrievedDocuments(documents);
+                StringBuilder fullResponse = new StringBuilder();
+
+                applyOutputFilters(generated, filterContext)
+                        .doOnNext(chunk -> {
+                            fullResponse.append(chunk);
+                            sink.next(chunk);
+                        })
+                        .doOnComplete(() -> {
+                            // Update memory with the response the user received
+                            updateConversationMemory(conversationId, userMessage, fullResponse.toString());
+                            sink.complete();
+                        })
+                        .doOnError(sink::error)
+                        .subscribe();
+
             } catch (Exception e) {
                 log.error("Error in streaming chat: {}", e.getMessage(), e);
                 sink.error(e);
@@ -554,6 +561,42 @@ public class KompileRagOrchestratorImpl implements ConversationalRagService {
     // FILTER CHAIN HELPER METHODS
     // ═══════════════════════════════════════════════════════════════════════════════
 
+    /**
+     * Run the POST_LLM filters over a streamed response.
+     */
+    private Flux<String> applyOutputFilters(Flux<String> deltas, FilterContext filterContext) {
+        if (!isFilterChainEnabled()) {
+            return deltas;
+        }
+        return filterDeltas(deltas, filterChainService.openOutputStream(filterContext));
+    }
+
+    /**
+     * Feed generated deltas through an output filter stream. Text is released as the filters
+     * allow; when one terminates, generation is cancelled and the termination message is
+     * sent as the last chunk.
+     */
+    static Flux<String> filterDeltas(Flux<String> deltas, FilterStream stream) {
+        return deltas
+                .map(stream::onDelta)
+                .takeUntil(released -> stream.getTermination() != null)
+                .concatWith(Mono.fromCallable(() -> stream.getTermination() == null ? stream.onComplete() : null))
+                .concatWith(Mono.fromCallable(() -> terminationNotice(stream.getTermination())))
+                .filter(chunk -> !chunk.isEmpty());
+    }
+
+    private static String terminationNotice(FilterResult termination) {
+        if (termination == null) {
+            return null;
+        }
+        log.info("Output filter stopped streamed response with action={}, status={}, message='{}'",
+                termination.getAction(), termination.getHttpStatusCode(), termination.getMessage());
+        if (termination.getAction() == FilterAction.TERMINATE_SUCCESS || termination.getAction() == FilterAction.TERMINATE_USER_ERROR) {
+            return "\n\n" + (termination.getMessage() != null ? termination.getMessage() : "Response blocked by filter");
+        }
+        return "\n\nAn error occurred processing your request";
+    }
+
     /**
      * Check if the filter chain is enabled and available.
      */
@@ -19,24 +19,42 @@ package ai.kompile.app.rag.retrieval;
 import ai.kompile.core.embeddings.EmbeddingModel;
 import ai.kompile.core.embeddings.ScoredDocument;
 import ai.kompile.core.embeddings.VectorStore;
+import ai.kompile.core.rag.retrieval.MetadataFilters;
 import ai.kompile.core.rag.retrieval.OptimizedRetriever;
 import ai.kompile.core.rag.retrieval.RetrievalMetrics;
 import ai.kompile.core.rag.retrieval.RetrievalOptions;
 import ai.kompile.core.rag.retrieval.RetrievalResult;
+import ai.kompile.core.rag.retrieval.ScoreFusion;
 import ai.kompile.core.retrievers.DocumentRetriever;
 import ai.kompile.core.retrievers.RetrievedDoc;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.springframework.ai.document.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Hybrid document retriever that combines semantic (vector) and keyword (BM25) search.
  * <p>
+ * Both legs run concurrently, each with its own deadline, and their rankings are merged
+ * with a {@link ScoreFusion} strategy (reciprocal rank fusion by default, configurable via
+ * {@code kompile.retrieval.hybrid.*}). A leg that misses its deadline is dropped.
+ * <p>
  * This implementation is optimized for INDArray operations to avoid float[] conversion
  * overhead in the hot path. Embeddings stay as INDArray until the final conversion
  * at the Lucene storage boundary.
@@ -59,7 +77,7 @@ import java.util.*;
  *     └──────────────────┬──────────────────────────────────┘
  *                        │
  *                        ▼
- *                 Deduplicate + Merge
+ *                 Fuse (RRF / min-max / z-score)
  *                        │
  *                        ▼
  *                 RetrievalResult
@@ -73,6 +91,38 @@ public class HybridOptimizedRetriever implements OptimizedRetriever {
     private final VectorStore vectorStore;
     private final DocumentRetriever keywordRetriever;
 
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService legExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "hybrid-retrieval-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${kompile.retrieval.hybrid.fusion:rrf}")
+    private String fusionMethod = "rrf";
+
+    @Value("${kompile.retrieval.hybrid.rrf-k:60}")
+    private int rrfK = ScoreFusion.DEFAULT_RRF_K;
+
+    @Value("${kompile.retrieval.hybrid.semantic-weight:1.0}")
+    private double semanticWeight = 1.0;
+
+    @Value("${kompile.retrieval.hybrid.keyword-weight:1.0}")
+    private double keywordWeight = 1.0;
+
+    /** Deadline for the semantic leg (embedding + vector search), measured from the start of retrieval. */
+    @Setter
+    @Value("${kompile.retrieval.hybrid.semantic-timeout-ms:2000}")
+    private long semanticTimeoutMs = 2000;
+
+    /** Deadline for the keyword leg, measured from the start of retrieval. */
+    @Setter
+    @Value("${kompile.retrieval.hybrid.keyword-timeout-ms:1000}")
+    private long keywordTimeoutMs = 1000;
+
+    private ScoreFusion scoreFusion = ScoreFusion.reciprocalRank(ScoreFusion.DEFAULT_RRF_K);
+    private boolean customScoreFusion;
+
     @Autowired
     public HybridOptimizedRetriever(
             @Autowired(required = false) EmbeddingModel embeddingModel,
@@ -88,6 +138,36 @@ public class HybridOptimizedRetriever implements OptimizedRetriever {
                 keywordRetriever != null ? keywordRetriever.getClass().getSimpleName() : "null");
     }
 
+    /**
+     * Replaces the configured fusion strategy, e.g. with a custom {@link ScoreFusion} bean.
+     */
+    @Autowired(required = false)
+    public void setScoreFusion(ScoreFusion scoreFusion) {
+        this.scoreFusion = scoreFusion;
+        this.customScoreFusion = true;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (customScoreFusion) {
+            log.info("HybridOptimizedRetriever using custom fusion {}", scoreFusion.getClass().getSimpleName());
+            return;
+        }
+        try {
+            scoreFusion = ScoreFusion.of(ScoreFusion.Method.parse(fusionMethod), rrfK, semanticWeight, keywordWeight);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown fusion method '{}', falling back to RRF: {}", fusionMethod, e.getMessage());
+            scoreFusion = ScoreFusion.reciprocalRank(ScoreFusion.DEFAULT_RRF_K, semanticWeight, keywordWeight);
+        }
+        log.info("HybridOptimizedRetriever fusion: {} (weights semantic={}, keyword={}), deadlines semantic={}ms, keyword={}ms",
+                fusionMethod, semanticWeight, keywordWeight, semanticTimeoutMs, keywordTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        legExecutor.shutdownNow();
+    }
+
     @Override
     public RetrievalResult retrieve(String query, RetrievalOptions options) {
         if (query == null || query.isBlank()) {
@@ -98,30 +178,9 @@ public class HybridOptimizedRetriever implements OptimizedRetriever {
         long startTime = System.nanoTime();
         RetrievalMetrics.Builder metricsBuilder = RetrievalMetrics.builder();
 
-        // Generate embedding if semantic search is enabled
-        INDArray queryEmbedding = null;
-        if (options.enableSemanticSearch() && embeddingModel != null) {
-            long embedStart = System.nanoTime();
-            try {
-                queryEmbedding = embeddingModel.embed(query);
-                metricsBuilder.embeddingTimeNanos(System.nanoTime() - embedStart);
-            } catch (Exception e) {
-                log.warn("Error generating query embedding: {}", e.getMessage());
-                metricsBuilder.embeddingTimeNanos(System.nanoTime() - embedStart);
-            }
-        }
-
-        // Perform retrieval with the embedding
-        RetrievalResult result = retrieveInternal(queryEmbedding, query, options, metricsBuilder);
-
-        // Clean up embedding if we created it
-        if (queryEmbedding != null && !queryEmbedding.wasClosed()) {
-            try {
-                queryEmbedding.close();
-            } catch (Exception e) {
-                log.trace("Error closing query embedding: {}", e.getMessage());
-            }
-        }
+        // The semantic leg embeds the query itself so that embedding overlaps with keyword search
+        boolean embedQuery = options.enableSemanticSearch() && embeddingModel != null;
+        RetrievalResult result = retrieveInternal(null, embedQuery, query, options, metricsBuilder, startTime);
 
         metricsBuilder.totalTimeNanos(System.nanoTime() - startTime);
         return new RetrievalResult(result.documents(), metricsBuilder.build());
@@ -137,102 +196,221 @@ public class HybridOptimizedRetriever implements OptimizedRetriever {
         long startTime = System.nanoTime();
         RetrievalMetrics.Builder metricsBuilder = RetrievalMetrics.builder();
 
-        RetrievalResult result = retrieveInternal(queryEmbedding, originalQuery, options, metricsBuilder);
+        RetrievalResult result = retrieveInternal(queryEmbedding, false, originalQuery, options, metricsBuilder, startTime);
 
         metricsBuilder.totalTimeNanos(System.nanoTime() - startTime);
         return new RetrievalResult(result.documents(), metricsBuilder.build());
     }
 
-    private RetrievalResult retrieveInternal(INDArray queryEmbedding, String originalQuery,
-                                              RetrievalOptions options, RetrievalMetrics.Builder metricsBuilder) {
+    /**
+     * Runs the semantic and keyword legs and fuses their rankings.
+     * <p>
+     * When both legs are active they run concurrently, each bounded by its own deadline
+     * from {@code startTime}. A leg that misses its deadline is cancelled and the answer is
+     * built from the other leg. A single active leg runs on the calling thread without a
+     * deadline, since there is nothing to fall back to.
+     * <p>
+     * A cancelled leg is only interrupted and may keep running after this returns, when the
+     * caller is free to close {@code queryEmbedding}. The concurrent semantic leg therefore
+     * searches with its own copy and closes it when done.
+     */
+    private RetrievalResult retrieveInternal(INDArray queryEmbedding, boolean embedQuery, String originalQuery,
+                                              RetrievalOptions options, RetrievalMetrics.Builder metricsBuilder,
+                                              long startTime) {
+
+        boolean semanticActive = options.enableSemanticSearch() && options.semanticK() > 0 && vectorStore != null;
+        boolean keywordActive = options.enableKeywordSearch() && options.keywordK() > 0 && keywordRetriever != null;
+
+        LegResult semantic = null;
+        LegResult keyword = null;
+        int timedOutLegs = 0;
+
+        if (semanticActive && keywordActive) {
+            INDArray legEmbedding = queryEmbedding != null && !queryEmbedding.wasClosed() ? queryEmbedding.dup() : null;
+            // Whichever of the leg and a cancelling caller claims this first owns closing legEmbedding
+            AtomicBoolean legClaimed = new AtomicBoolean();
+            Future<LegResult> semanticFuture = legExecutor.submit(() -> legClaimed.compareAndSet(false, true)
+                    ? semanticLeg(legEmbedding, true, embedQuery, originalQuery, options)
+                    : new LegResult(List.of(), 0, 0));
+            Future<LegResult> keywordFuture = legExecutor.submit(
+                    () -> keywordLeg(originalQuery, options));
+
+            semantic = await("semantic", semanticFuture, startTime, semanticTimeoutMs);
+            keyword = await("keyword", keywordFuture, startTime, keywordTimeoutMs);
+            if (semantic == null && legEmbedding != null && legClaimed.compareAndSet(false, true)) {
+                // Cancelled before it started, so the leg will never close its copy
+                legEmbedding.close();
+            }
+            if (semantic == null) {
+                timedOutLegs++;
+                metricsBuilder.semanticSearchTimeNanos(System.nanoTime() - startTime);
+            }
+            if (keyword == null) {
+                timedOutLegs++;
+                metricsBuilder.keywordSearchTimeNanos(System.nanoTime() - startTime);
+            }
+        } else if (semanticActive) {
+            semantic = semanticLeg(queryEmbedding, false, embedQuery, originalQuery, options);
+        } else if (keywordActive) {
+            keyword = keywordLeg(originalQuery, options);
+        }
 
-        List<ScoredDocument> allResults = new ArrayList<>();
-        int semanticHits = 0;
-        int keywordHits = 0;
+        List<ScoredDocument> semanticResults = semantic != null ? semantic.documents() : List.of();
+        List<ScoredDocument> keywordResults = keyword != null ? keyword.documents() : List.of();
+        if (semantic != null) {
+            metricsBuilder.embeddingTimeNanos(semantic.embeddingTimeNanos());
+            metricsBuilder.semanticSearchTimeNanos(semantic.searchTimeNanos());
+        }
+        if (keyword != null) {
+            metricsBuilder.keywordSearchTimeNanos(keyword.searchTimeNanos());
+        }
+        metricsBuilder.semanticHits(semanticResults.size());
+        metricsBuilder.keywordHits(keywordResults.size());
+        metricsBuilder.timedOutLegs(timedOutLegs);
 
         // ══════════════════════════════════════════════════════════════════════════
-        // SEMANTIC SEARCH (INDArray-native, minimal float[] conversion)
+        // FUSE (rank-based or normalized; raw cosine and BM25 scores are not comparable)
         // ══════════════════════════════════════════════════════════════════════════
-        if (options.enableSemanticSearch() && options.semanticK() > 0 && vectorStore != null) {
-            long semanticStart = System.nanoTime();
-            try {
-                List<ScoredDocument> semanticResults;
+        int beforeDedup = semanticResults.size() + keywordResults.size();
+        List<ScoredDocument> allResults;
+        if (!semanticResults.isEmpty() && !keywordResults.isEmpty()) {
+            allResults = scoreFusion.fuse(List.of(semanticResults, keywordResults));
+        } else {
+            // One leg only: keep its native scores
+            allResults = new ArrayList<>(semanticResults.isEmpty() ? keywordResults : semanticResults);
+            if (options.deduplicateResults() && allResults.size() > 1) {
+                allResults = deduplicateByDocId(allResults);
+            }
+            allResults.sort((a, b) -> Double.compare(b.score(), a.score()));
+        }
+        metricsBuilder.duplicatesRemoved(beforeDedup - allResults.size());
+        metricsBuilder.timeToFusedNanos(System.nanoTime() - startTime);
 
-                if (queryEmbedding != null && !queryEmbedding.isEmpty() && !queryEmbedding.wasClosed()) {
-                    // Use INDArray-native search
-                    semanticResults = vectorStore.similaritySearchWithScores(
-                        queryEmbedding,
-                        options.semanticK(),
-                        options.similarityThreshold()
-                    );
-                } else {
-                    // Fall back to string-based search (will generate embedding internally)
-                    semanticResults = vectorStore.similaritySearchWithScores(
-                        originalQuery,
-                        options.semanticK(),
-                        options.similarityThreshold()
-                    );
-                }
+        log.debug("HybridRetriever: semantic={}, keyword={}, deduped={}, timedOut={}, final={}",
+                semanticResults.size(), keywordResults.size(), beforeDedup - allResults.size(),
+                timedOutLegs, allResults.size());
 
-                allResults.addAll(semanticResults);
-                semanticHits = semanticResults.size();
-                log.debug("Semantic search returned {} results", semanticHits);
+        return RetrievalResult.of(allResults);
+    }
 
+    /**
+     * Semantic leg: optional query embedding followed by INDArray-native vector search.
+     * Errors yield an empty result so the keyword leg can still answer.
+     *
+     * @param ownsEmbedding Whether {@code queryEmbedding} is a copy this leg must close
+     */
+    private LegResult semanticLeg(INDArray queryEmbedding, boolean ownsEmbedding, boolean embedQuery,
+                                  String originalQuery, RetrievalOptions options) {
+        INDArray embedding = queryEmbedding;
+        long embeddingTime = 0;
+        if (embedQuery) {
+            long embedStart = System.nanoTime();
+            try {
+                embedding = embeddingModel.embed(originalQuery);
             } catch (Exception e) {
-                log.warn("Error during semantic search: {}", e.getMessage());
+                log.warn("Error generating query embedding: {}", e.getMessage());
             }
-            metricsBuilder.semanticSearchTimeNanos(System.nanoTime() - semanticStart);
+            embeddingTime = System.nanoTime() - embedStart;
         }
-        metricsBuilder.semanticHits(semanticHits);
 
-        // ══════════════════════════════════════════════════════════════════════════
-        // KEYWORD SEARCH (BM25 via DocumentRetriever)
-        // ══════════════════════════════════════════════════════════════════════════
-        if (options.enableKeywordSearch() && options.keywordK() > 0 && keywordRetriever != null) {
-            long keywordStart = System.nanoTime();
-            try {
-                List<RetrievedDoc> keywordResults = keywordRetriever.retrieveWithDetails(
+        long semanticStart = System.nanoTime();
+        List<ScoredDocument> semanticResults = List.of();
+        try {
+            if (embedding != null && !embedding.isEmpty() && !embedding.wasClosed()) {
+                // Use INDArray-native search; stores with indexed metadata filter inside k-NN
+                semanticResults = MetadataFilters.isEmpty(options.metadataFilters())
+                    ? vectorStore.similaritySearchWithScores(
+                        embedding,
+                        options.semanticK(),
+                        options.similarityThreshold())
+                    : vectorStore.similaritySearchWithScores(
+                        embedding,
+                        options.semanticK(),
+                        options.similarityThreshold(),
+                        options.metadataFilters());
+            } else {
+                // Fall back to string-based search (will generate embedding internally)
+                semanticResults = vectorStore.similaritySearchWithScores(
                     originalQuery,
-                    options.keywordK()
+                    options.semanticK(),
+                    options.similarityThreshold()
                 );
-
-                for (RetrievedDoc doc : keywordResults) {
-                    if (doc != null && doc.getText() != null) {
-                        Document springDoc = new Document(
-                            doc.getId() != null ? doc.getId() : UUID.randomUUID().toString(),
-                            doc.getText(),
-                            doc.getMetadata() != null ? doc.getMetadata() : Map.of()
-                        );
-                        double score = doc.getScore() != null ? doc.getScore() : 0.0;
-                        allResults.add(new ScoredDocument(springDoc, score));
-                        keywordHits++;
-                    }
+                if (!MetadataFilters.isEmpty(options.metadataFilters())) {
+                    semanticResults = semanticResults.stream()
+                        .filter(r -> MetadataFilters.matches(r.getMetadata(), options.metadataFilters()))
+                        .toList();
+                }
+            }
+            log.debug("Semantic search returned {} results", semanticResults.size());
+        } catch (Exception e) {
+            log.warn("Error during semantic search: {}", e.getMessage());
+        } finally {
+            // Clean up the embedding if we created or copied it
+            if ((embedQuery || ownsEmbedding) && embedding != null && !embedding.wasClosed()) {
+                try {
+                    embedding.close();
+                } catch (Exception e) {
+                    log.trace("Error closing query embedding: {}", e.getMessage());
                 }
-                log.debug("Keyword search returned {} results", keywordHits);
-
-            } catch (Exception e) {
-                log.warn("Error during keyword search: {}", e.getMessage());
             }
-            metricsBuilder.keywordSearchTimeNanos(System.nanoTime() - keywordStart);
         }
-        metricsBuilder.keywordHits(keywordHits);
+        return new LegResult(semanticResults, embeddingTime, System.nanoTime() - semanticStart);
+    }
 
-        // ══════════════════════════════════════════════════════════════════════════
-        // DEDUPLICATE (by document ID)
-        // ══════════════════════════════════════════════════════════════════════════
-        int beforeDedup = allResults.size();
-        if (options.deduplicateResults() && allResults.size() > 1) {
-            allResults = deduplicateByDocId(allResults);
-        }
-        metricsBuilder.duplicatesRemoved(beforeDedup - allResults.size());
+    /**
+     * Keyword leg: BM25 via the {@link DocumentRetriever}.
+     */
+    private LegResult keywordLeg(String originalQuery, RetrievalOptions options) {
+        long keywordStart = System.nanoTime();
+        List<ScoredDocument> keywordResults = new ArrayList<>();
+        try {
+            List<RetrievedDoc> retrieved = MetadataFilters.isEmpty(options.metadataFilters())
+                ? keywordRetriever.retrieveWithDetails(originalQuery, options.keywordK())
+                : keywordRetriever.retrieveWithDetails(originalQuery, options.keywordK(), options.metadataFilters());
+
+            for (RetrievedDoc doc : retrieved) {
+                if (doc != null && doc.getText() != null) {
+                    Document springDoc = new Document(
+                        doc.getId() != null ? doc.getId() : UUID.randomUUID().toString(),
+                        doc.getText(),
+                        doc.getMetadata() != null ? doc.getMetadata() : Map.of()
+                    );
+                    double score = doc.getScore() != null ? doc.getScore() : 0.0;
+                    keywordResults.add(new ScoredDocument(springDoc, score));
+                }
+            }
+            log.debug("Keyword search returned {} results", keywordResults.size());
 
-        // Sort by score descending
-        allResults.sort((a, b) -> Double.compare(b.score(), a.score()));
+        } catch (Exception e) {
+            log.warn("Error during keyword search: {}", e.getMessage());
+        }
+        return new LegResult(keywordResults, 0, System.nanoTime() - keywordStart);
+    }
 
-        log.debug("HybridRetriever: semantic={}, keyword={}, deduped={}, final={}",
-                semanticHits, keywordHits, beforeDedup - allResults.size(), allResults.size());
+    /**
+     * Waits for a leg until its deadline.
+     *
+     * @return The leg result, or null if the leg missed its deadline and was cancelled
+     */
+    private LegResult await(String leg, Future<LegResult> future, long startTime, long timeoutMs) {
+        long remaining = startTime + TimeUnit.MILLISECONDS.toNanos(timeoutMs) - System.nanoTime();
+        try {
+            return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("{} search missed its {} ms deadline, continuing without it", leg, timeoutMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Error during {} search: {}", leg, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return new LegResult(List.of(), 0, System.nanoTime() - startTime);
+        }
+    }
 
-        return RetrievalResult.of(allResults);
+    private record LegResult(List<ScoredDocument> documents, long embeddingTimeNanos, long searchTimeNanos) {
     }
 
     /**
@@ -20,6 +20,8 @@ import ai.kompile.app.subprocess.IngestCheckpointService;
 import ai.kompile.app.subprocess.IngestSubprocessMain;
 import ai.kompile.app.subprocess.SubprocessMemoryWatchdog;
 import ai.kompile.core.embeddings.EmbeddingModel;
+import ai.kompile.core.embeddings.cache.CachingEmbeddingModel;
+import ai.kompile.core.embeddings.cache.MappedEmbeddingCache;
 import ai.kompile.core.indexers.IndexerService;
 import ai.kompile.core.retrievers.RetrievedDoc;
 import org.slf4j.Logger;
@@ -74,6 +76,9 @@ public class EmbeddingStage {
     private IngestCheckpointService.CheckpointState resumeState;
     private final Map<String, float[]> cachedEmbeddings;
 
+    // model that embedBatch calls go through; wraps embeddingModel when a persistent cache is set
+    private volatile EmbeddingModel batchEmbeddingModel;
+
     // batch history for UI
     private static final int BATCH_HISTORY_SIZE = 5;
     private final Deque<PipelineProgress.EmbeddingBatchMetrics> batchHistory;
@@ -140,6 +145,7 @@ public class EmbeddingStage {
             PipelineProgressReporter progressReporter) {
         this.pipelineConfig = pipelineConfig;
         this.embeddingModel = embeddingModel;
+        this.batchEmbeddingModel = embeddingModel;
         this.indexerService = indexerService;
         this.chunkQueue = chunkQueue;
         this.embeddingExecutor = embeddingExecutor;
@@ -166,6 +172,14 @@ public class EmbeddingStage {
         this.resumeState = state;
     }
 
+    /**
+     * Set the persistent embedding cache. Chunks whose text was embedded before by the same
+     * model are served from it and never reach the model. May be null to disable.
+     */
+    public void setEmbeddingCache(MappedEmbeddingCache cache) {
+        this.batchEmbeddingModel = CachingEmbeddingModel.wrap(embeddingModel, cache);
+    }
+
     public void cancel() {
         this.cancelled = true;
     }
@@ -1271,6 +1285,7 @@ public class EmbeddingStage {
             final long EMBED_TIMEOUT_MS = timeoutSeconds > 0 ? timeoutSeconds * 1000L : Long.MAX_VALUE;
 
             final List<String> finalTexts = texts;
+            final EmbeddingModel batchModel = batchEmbeddingModel;
             ExecutorService timeoutExecutor =
                 Executors.newSingleThreadExecutor(r -> {
                     Thread t = new Thread(r, "embed-batch-timeout");
@@ -1280,7 +1295,7 @@ public class EmbeddingStage {
 
             try {
                 Future<List<float[]>> embedFuture =
-                    timeoutExecutor.submit(() -> embeddingModel.embedBatch(finalTexts));
+                    timeoutExecutor.submit(() -> batchModel.embedBatch(finalTexts));
 
                 try {
                     embeddings = embedFuture.get(EMBED_TIMEOUT_MS, TimeUnit.MILLISECONDS);
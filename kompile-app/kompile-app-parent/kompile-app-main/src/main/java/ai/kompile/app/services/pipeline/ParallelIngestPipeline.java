@@ -21,6 +21,7 @@ import ai.kompile.app.subprocess.IngestSubprocessMain;
 import ai.kompile.app.subprocess.SubprocessMemoryWatchdog;
 import ai.kompile.app.core.chunking.TextChunker;
 import ai.kompile.core.embeddings.EmbeddingModel;
+import ai.kompile.core.embeddings.cache.MappedEmbeddingCache;
 import ai.kompile.core.indexers.IndexerService;
 import ai.kompile.core.retrievers.RetrievedDoc;
 import org.slf4j.Logger;
@@ -186,6 +187,14 @@ public class ParallelIngestPipeline implements AutoCloseable {
         this.checkpointService = service;
     }
 
+    /**
+     * Override the persistent embedding cache (defaults to {@link MappedEmbeddingCache#shared()}).
+     * Pass null to always recompute embeddings.
+     */
+    public void setEmbeddingCache(MappedEmbeddingCache cache) {
+        embeddingStage.setEmbeddingCache(cache);
+    }
+
     /**
      * Set cached embeddings from a previous run.
      * These embeddings will be used instead of re-computing when processing chunks with matching IDs.
@@ -429,6 +438,11 @@ public class ParallelIngestPipeline implements AutoCloseable {
                 this.workerStatuses,
                 this.progressReporter);
 
+        // Persistent content-addressed cache: unchanged chunks skip the model on re-ingest
+        if (embeddingModel != null && !this.skipEmbedding) {
+            this.embeddingStage.setEmbeddingCache(MappedEmbeddingCache.shared());
+        }
+
         this.indexingStage = new IndexingStage(
                 this.pipelineConfig,
                 indexerService,
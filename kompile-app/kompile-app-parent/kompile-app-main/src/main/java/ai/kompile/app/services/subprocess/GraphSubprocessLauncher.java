@@ -26,6 +26,7 @@ import ai.kompile.app.subprocess.GraphSubprocessArgs;
 import ai.kompile.app.subprocess.SubprocessEnvironmentPropagator;
 import ai.kompile.app.subprocess.SubprocessMessage;
 import ai.kompile.app.subprocess.SubprocessRegistry;
+import ai.kompile.app.subprocess.SubprocessWorkerPool;
 import ai.kompile.core.graphrag.GraphSubprocessDelegate;
 import ai.kompile.core.graphrag.model.Entity;
 import ai.kompile.core.graphrag.model.Graph;
@@ -69,6 +70,12 @@ import java.util.stream.Collectors;
  *   <li>Memory watchdog in subprocess for OOM protection</li>
  *   <li>Results written to output JSON file</li>
  * </ul>
+ *
+ * <p>With {@code kompile.graph.subprocess.pool-size > 0} (default 0, off), jobs run on warm
+ * pooled workers ({@link SubprocessWorkerPool}) instead of a fresh JVM each, so ND4J and the
+ * extraction context are loaded once per worker rather than once per job. Jobs beyond the
+ * pool size queue for a free worker, so a pool smaller than the launcher's 8 concurrent
+ * jobs serializes extraction, and every idle worker keeps its heap until the idle TTL.</p>
  */
 @Service
 public class GraphSubprocessLauncher implements GraphSubprocessDelegate {
@@ -85,6 +92,15 @@ public class GraphSubprocessLauncher implements GraphSubprocessDelegate {
     @Value("${kompile.graph.subprocess.timeout-minutes:60}")
     private int fallbackTimeoutMinutes;
 
+    /** Warm workers per configuration; 0 launches a fresh subprocess per job */
+    @Value("${kompile.graph.subprocess.pool-size:0}")
+    private int poolSize;
+
+    @Value("${kompile.graph.subprocess.pool-idle-ttl-seconds:300}")
+    private long poolIdleTtlSeconds;
+
+    private SubprocessWorkerPool workerPool;
+
     private final SubprocessExecutableConfig execConfig;
     private final ServerPortService serverPortService;
     private final SubprocessConfigService subprocessConfigService;
@@ -323,6 +339,13 @@ public class GraphSubprocessLauncher implements GraphSubprocessDelegate {
             String heapSize = getEffectiveHeapSize();
             String javaPath = getEffectiveJavaPath();
 
+            if (poolSize > 0) {
+                runPooled(taskId, argsFile, outputFile, future,
+                        SubprocessWorkerPool.fingerprint(javaPath, heapSize, classpath, fullArgs.nd4jConfigJson()),
+                        firstArgsFile -> startWorker(firstArgsFile, heapSize, javaPath, classpath));
+                return;
+            }
+
             List<String> command = execConfig.buildGraphCommand(argsFile, heapSize, javaPath, classpath);
             logger.info("Launching graph subprocess for task {}: {}", taskId, String.join(" ", command));
 
@@ -392,6 +415,72 @@ public class GraphSubprocessLauncher implements GraphSubprocessDelegate {
         }
     }
 
+    private void runPooled(String taskId, Path argsFile, Path outputFile,
+                           CompletableFuture<GraphSubprocessArgs.GraphExtractionResult> future,
+                           String fingerprint, SubprocessWorkerPool.WorkerLauncher launcher) throws Exception {
+        SubprocessWorkerPool pool = getWorkerPool();
+        CompletableFuture<Void> dispatched = new CompletableFuture<>();
+        CompletableFuture<Void> done = pool.submit(fingerprint, taskId, argsFile, launcher,
+                message -> handleMessage(taskId, message, future, outputFile),
+                () -> dispatched.complete(null));
+
+        int timeoutMinutes = getEffectiveTimeoutMinutes();
+        try {
+            // Time spent queued for a busy worker does not count against the job timeout
+            CompletableFuture.anyOf(dispatched, done).get();
+            done.get(timeoutMinutes, TimeUnit.MINUTES);
+            if (!future.isDone()) {
+                tryCompleteFromOutputFile(future, outputFile, taskId);
+            }
+        } catch (TimeoutException e) {
+            logger.warn("Pooled graph job timed out after {} minutes for task {}", timeoutMinutes, taskId);
+            pool.cancel(taskId);
+            future.completeExceptionally(new TimeoutException(
+                    "Graph subprocess timed out after " + timeoutMinutes + " minutes"));
+        } catch (ExecutionException e) {
+            if (!future.isDone()) {
+                future.completeExceptionally(e.getCause());
+            }
+        }
+        logger.info("Graph worker pool after task {}: {}", taskId, pool.getStats());
+    }
+
+    private Process startWorker(Path firstArgsFile, String heapSize, String javaPath, String classpath)
+            throws IOException {
+        List<String> command = execConfig.buildGraphWorkerCommand(firstArgsFile, heapSize, javaPath, classpath);
+        logger.info("Launching pooled graph worker: {}", String.join(" ", command));
+
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.redirectErrorStream(false);
+        propagateNd4jEnvironment(pb.environment());
+        Process process = pb.start();
+
+        if (subprocessRegistry != null) {
+            String registryId = "graph-worker-" + process.pid();
+            subprocessRegistry.register(registryId, process, "graph");
+            process.onExit().thenRun(() -> subprocessRegistry.deregister(registryId));
+        }
+        return process;
+    }
+
+    private synchronized SubprocessWorkerPool getWorkerPool() {
+        if (workerPool == null) {
+            workerPool = new SubprocessWorkerPool("graph", poolSize,
+                    TimeUnit.SECONDS.toMillis(poolIdleTtlSeconds));
+            logger.info("Graph worker pool enabled: {} workers per configuration, idle TTL {}s",
+                    poolSize, poolIdleTtlSeconds);
+        }
+        return workerPool;
+    }
+
+    /**
+     * Worker pool counters (hit rate, job start latency, recycles), or {@code null} when
+     * pooling is disabled or no pooled job has run yet.
+     */
+    public synchronized SubprocessWorkerPool.Stats getWorkerPoolStats() {
+        return workerPool != null ? workerPool.getStats() : null;
+    }
+
     private void monitorStdout(String taskId, Process process,
                                 CompletableFuture<GraphSubprocessArgs.GraphExtractionResult> future,
                                 Path outputFile) {
@@ -414,8 +503,16 @@ public class GraphSubprocessLauncher implements GraphSubprocessDelegate {
                                         CompletableFuture<GraphSubprocessArgs.GraphExtractionResult> future,
                                         Path outputFile) {
         try {
-            SubprocessMessage message = MAPPER.readValue(json, SubprocessMessage.class);
+            handleMessage(taskId, MAPPER.readValue(json, SubprocessMessage.class), future, outputFile);
+        } catch (Exception e) {
+            logger.debug("Failed to parse protocol message for task {}: {}", taskId, e.getMessage());
+        }
+    }
 
+    private void handleMessage(String taskId, SubprocessMessage message,
+                               CompletableFuture<GraphSubprocessArgs.GraphExtractionResult> future,
+                               Path outputFile) {
+        try {
             SubprocessMessage.dispatch(message, new SubprocessMessage.Handler() {
                 @Override
                 public void onReady(SubprocessMessage.Ready ready) {
@@ -454,7 +551,7 @@ public class GraphSubprocessLauncher implements GraphSubprocessDelegate {
                 }
             });
         } catch (Exception e) {
-            logger.debug("Failed to parse protocol message for task {}: {}", taskId, e.getMessage());
+            logger.debug("Failed to handle protocol message for task {}: {}", taskId, e.getMessage());
         }
     }
 
@@ -512,6 +609,13 @@ public class GraphSubprocessLauncher implements GraphSubprocessDelegate {
      * Cancel a running graph subprocess.
      */
     public boolean cancel(String taskId) {
+        SubprocessWorkerPool pool;
+        synchronized (this) {
+            pool = workerPool;
+        }
+        if (pool != null && pool.cancel(taskId)) {
+            return true;
+        }
         GraphProcessHandle handle = activeProcesses.get(taskId);
         if (handle != null && handle.process.isAlive()) {
             logger.info("Cancelling graph subprocess for task {}", taskId);
@@ -527,7 +631,12 @@ public class GraphSubprocessLauncher implements GraphSubprocessDelegate {
      */
     public boolean isRunning(String taskId) {
         GraphProcessHandle handle = activeProcesses.get(taskId);
-        return handle != null && handle.process.isAlive();
+        if (handle != null && handle.process.isAlive()) {
+            return true;
+        }
+        synchronized (this) {
+            return workerPool != null && workerPool.isRunning(taskId);
+        }
     }
 
     @PreDestroy
@@ -538,6 +647,11 @@ public class GraphSubprocessLauncher implements GraphSubprocessDelegate {
                 handle.process.destroyForcibly();
             }
         }
+        synchronized (this) {
+            if (workerPool != null) {
+                workerPool.close();
+            }
+        }
         executor.shutdown();
     }
 
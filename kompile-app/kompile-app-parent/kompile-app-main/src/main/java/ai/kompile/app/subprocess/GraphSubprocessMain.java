@@ -37,7 +37,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -61,8 +65,12 @@ import java.util.stream.Collectors;
  *   <li>Reports progress and completion via INGEST_MSG: protocol</li>
  * </ol>
  *
+ * <p>With {@code --worker} the process stays up after the first job and takes further
+ * args files on stdin, keeping ND4J and the Spring context warm between jobs. See
+ * {@link SubprocessWorkerPool} for the protocol.</p>
+ *
  * Usage:
- *   java -cp &lt;classpath&gt; ai.kompile.app.subprocess.GraphSubprocessMain &lt;args-file.json&gt;
+ *   java -cp &lt;classpath&gt; ai.kompile.app.subprocess.GraphSubprocessMain [--worker] &lt;args-file.json&gt;
  */
 public class GraphSubprocessMain {
 
@@ -72,6 +80,8 @@ public class GraphSubprocessMain {
     private static PrintStream originalStdout;
     private static volatile GraphSubprocessArgs currentArgs;
     private static volatile SubprocessMemoryWatchdog memoryWatchdog;
+    private static boolean nd4jInitialized;
+    private static AnnotationConfigApplicationContext sharedContext;
 
     public static GraphSubprocessArgs getCurrentArgs() {
         return currentArgs;
@@ -85,23 +95,112 @@ public class GraphSubprocessMain {
         originalStdout = System.out;
         System.setOut(System.err);
 
+        boolean workerMode = args.length > 0 && SubprocessWorkerPool.WORKER_FLAG.equals(args[0]);
+        int argsIndex = workerMode ? 1 : 0;
+        if (args.length <= argsIndex) {
+            System.err.println("Usage: GraphSubprocessMain [" + SubprocessWorkerPool.WORKER_FLAG + "] <args-file.json>");
+            System.exit(1);
+        }
+
+        Path argsFile = Paths.get(args[argsIndex]);
+        if (!Files.exists(argsFile)) {
+            System.err.println("Args file not found: " + argsFile);
+            System.exit(1);
+        }
+
+        int exitCode;
+        if (workerMode) {
+            exitCode = runWorker(argsFile);
+        } else {
+            try {
+                exitCode = executeJob(argsFile, false);
+            } finally {
+                shutdownRuntime();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Pooled worker mode (see {@link SubprocessWorkerPool}): runs the first job, then keeps
+     * ND4J and the Spring context warm and runs one job per args file path read from stdin
+     * until EOF, or until the memory watchdog asks for the worker to be recycled.
+     */
+    private static int runWorker(Path firstArgsFile) {
+        BufferedReader stdin = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        Path argsFile = firstArgsFile;
+        int jobsRun = 0;
+        try {
+            while (argsFile != null) {
+                int exitCode = executeJob(argsFile, true);
+                jobsRun++;
+                if (exitCode == 137 || exitCode == 130) {
+                    // OOM or interrupted: this JVM is not safe to reuse
+                    return exitCode;
+                }
+
+                boolean recycle = shouldRecycle();
+                reportPoolStatus(jobsRun, recycle);
+                if (recycle) {
+                    logger.info("Memory watermark reached after {} jobs, recycling graph worker", jobsRun);
+                    return 0;
+                }
+
+                argsFile = null;
+                String line;
+                while ((line = stdin.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        argsFile = Paths.get(line.trim());
+                        break;
+                    }
+                }
+            }
+            logger.info("Graph worker released after {} jobs", jobsRun);
+            return 0;
+        } catch (IOException e) {
+            logger.error("Graph worker lost its job channel", e);
+            return 1;
+        } finally {
+            if (sharedContext != null) {
+                sharedContext.close();
+            }
+            shutdownRuntime();
+        }
+    }
+
+    private static boolean shouldRecycle() {
+        SubprocessMemoryWatchdog watchdog = memoryWatchdog;
+        if (watchdog == null) {
+            return false;
+        }
+        watchdog.checkNow();
+        return watchdog.shouldStop() || watchdog.isCriticalMemory();
+    }
+
+    private static void reportPoolStatus(int jobsRun, boolean recycle) {
+        GraphSubprocessArgs args = currentArgs;
+        SubprocessMemoryWatchdog watchdog = memoryWatchdog;
+        try (SubprocessProgressReporter reporter = new SubprocessProgressReporter(
+                args != null ? args.taskId() : "graph-worker", originalStdout)) {
+            reporter.reportWorkerStatus(SubprocessWorkerPool.POOL_WORKER_ID, "graph",
+                    recycle ? SubprocessWorkerPool.STATUS_RECYCLE : SubprocessWorkerPool.STATUS_IDLE,
+                    jobsRun, 0, watchdog != null ? watchdog.getCurrentMemoryPercent() : 0, null);
+        }
+    }
+
+    /**
+     * Runs one extraction job and reports its outcome.
+     *
+     * @param pooled keep the memory watchdog, ND4J and the Spring context alive for the next job
+     * @return the exit code for this job
+     */
+    private static int executeJob(Path argsFile, boolean pooled) {
         int exitCode = 0;
         GraphSubprocessArgs graphArgs = null;
         SubprocessProgressReporter reporter = null;
         HttpIngestCallback httpCallback = null;
 
         try {
-            if (args.length < 1) {
-                System.err.println("Usage: GraphSubprocessMain <args-file.json>");
-                System.exit(1);
-            }
-
-            Path argsFile = Paths.get(args[0]);
-            if (!Files.exists(argsFile)) {
-                System.err.println("Args file not found: " + argsFile);
-                System.exit(1);
-            }
-
             graphArgs = GraphSubprocessArgs.fromFile(argsFile);
             currentArgs = graphArgs;
             logger.info("Loaded graph subprocess args for task: {}", graphArgs.taskId());
@@ -112,31 +211,36 @@ public class GraphSubprocessMain {
                 httpCallback = new HttpIngestCallback(graphArgs.callbackBaseUrl());
             }
 
-            // Initialize memory watchdog
-            memoryWatchdog = new SubprocessMemoryWatchdog(
-                    graphArgs.memoryThresholdPercent(),
-                    graphArgs.memoryCriticalPercent(),
-                    graphArgs.memoryKillThresholdPercent(),
-                    graphArgs.memoryCheckIntervalMs(),
-                    graphArgs.gpuMemoryThresholdPercent(),
-                    graphArgs.gpuMemoryCriticalPercent(),
-                    graphArgs.gpuMemoryKillThresholdPercent(),
-                    graphArgs.offHeapThresholdPercent(),
-                    graphArgs.offHeapCriticalPercent(),
-                    graphArgs.offHeapKillThresholdPercent()
-            );
-            memoryWatchdog.start();
-            logger.info("Memory watchdog started: heap stop={}%, GPU stop={}%, off-heap stop={}%",
-                    graphArgs.memoryThresholdPercent(),
-                    graphArgs.gpuMemoryThresholdPercent(),
-                    graphArgs.offHeapThresholdPercent());
+            // Initialize memory watchdog (once per process)
+            if (memoryWatchdog == null) {
+                memoryWatchdog = new SubprocessMemoryWatchdog(
+                        graphArgs.memoryThresholdPercent(),
+                        graphArgs.memoryCriticalPercent(),
+                        graphArgs.memoryKillThresholdPercent(),
+                        graphArgs.memoryCheckIntervalMs(),
+                        graphArgs.gpuMemoryThresholdPercent(),
+                        graphArgs.gpuMemoryCriticalPercent(),
+                        graphArgs.gpuMemoryKillThresholdPercent(),
+                        graphArgs.offHeapThresholdPercent(),
+                        graphArgs.offHeapCriticalPercent(),
+                        graphArgs.offHeapKillThresholdPercent()
+                );
+                memoryWatchdog.start();
+                logger.info("Memory watchdog started: heap stop={}%, GPU stop={}%, off-heap stop={}%",
+                        graphArgs.memoryThresholdPercent(),
+                        graphArgs.gpuMemoryThresholdPercent(),
+                        graphArgs.offHeapThresholdPercent());
+            }
 
             // Start heartbeat
             reporter.startHeartbeat();
 
-            // Initialize ND4J
-            logger.info("Initializing ND4J environment...");
-            initializeNd4j(graphArgs.nd4jConfigJson());
+            // Initialize ND4J (once per process)
+            if (!nd4jInitialized) {
+                logger.info("Initializing ND4J environment...");
+                initializeNd4j(graphArgs.nd4jConfigJson());
+                nd4jInitialized = true;
+            }
 
             // Notify main app
             if (httpCallback != null) {
@@ -146,12 +250,22 @@ public class GraphSubprocessMain {
             // Report progress: starting extraction
             reporter.reportProgress("GRAPH_EXTRACTION", 0, null, "Starting graph extraction");
 
-            // Create minimal Spring context
-            logger.info("Creating Spring context for graph subprocess...");
             long extractionStart = System.currentTimeMillis();
             GraphSubprocessArgs.GraphExtractionResult result;
 
-            try (AnnotationConfigApplicationContext context = createContext(graphArgs)) {
+            AnnotationConfigApplicationContext context;
+            if (pooled) {
+                if (sharedContext == null) {
+                    logger.info("Creating Spring context for graph worker...");
+                    sharedContext = createContext(graphArgs);
+                }
+                context = sharedContext;
+            } else {
+                logger.info("Creating Spring context for graph subprocess...");
+                context = createContext(graphArgs);
+            }
+
+            try {
                 // Try to get GraphConstructor from context
                 GraphConstructor graphConstructor = null;
                 try {
@@ -170,10 +284,6 @@ public class GraphSubprocessMain {
                 SchemaEnforcementMode enforcementMode = SchemaEnforcementMode.valueOf(
                         graphArgs.schemaEnforcementMode().toUpperCase());
 
-                // Run extraction
-                List<GraphSubprocessArgs.ExtractedEntity> allEntities = new ArrayList<>();
-                List<GraphSubprocessArgs.ExtractedRelationship> allRelationships = new ArrayList<>();
-
                 if (graphConstructor != null) {
                     result = runWithGraphConstructor(
                             graphConstructor, docs, schema, enforcementMode,
@@ -186,6 +296,10 @@ public class GraphSubprocessMain {
                             System.currentTimeMillis() - extractionStart, 0,
                             List.of(), List.of(), Map.of(), Map.of(), Map.of());
                 }
+            } finally {
+                if (!pooled) {
+                    context.close();
+                }
             }
 
             // Write results to output file
@@ -247,16 +361,19 @@ public class GraphSubprocessMain {
             }
 
         } finally {
-            if (memoryWatchdog != null) {
-                memoryWatchdog.stop();
-            }
             if (reporter != null) {
-                reporter.stopHeartbeat();
+                reporter.close();
             }
-            cleanupNd4j();
         }
 
-        System.exit(exitCode);
+        return exitCode;
+    }
+
+    private static void shutdownRuntime() {
+        if (memoryWatchdog != null) {
+            memoryWatchdog.stop();
+        }
+        cleanupNd4j();
     }
 
     private static GraphSubprocessArgs.GraphExtractionResult runWithGraphConstructor(
@@ -0,0 +1,139 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.app.rag;
+
+import ai.kompile.core.filter.FilterResult;
+import ai.kompile.core.filter.FilterStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for how {@link KompileRagOrchestratorImpl#chatStream} runs generated deltas through
+ * the output filters: released text is forwarded, and a termination cancels generation
+ * and ends the response with the termination notice.
+ */
+class KompileRagOrchestratorImplTest {
+
+    @Test
+    void releasedTextIsForwardedAndFlushedOnComplete() {
+        ScriptedStream stream = new ScriptedStream();
+        stream.onComplete = "!";
+
+        List<String> chunks = KompileRagOrchestratorImpl.filterDeltas(Flux.just("a", "b"), stream)
+                .collectList().block();
+
+        assertEquals(List.of("A", "B", "!"), chunks);
+        assertTrue(stream.completed);
+    }
+
+    @Test
+    void heldBackDeltasAreNotSentAsEmptyChunks() {
+        ScriptedStream stream = new ScriptedStream();
+        stream.holdBack = "b";
+
+        List<String> chunks = KompileRagOrchestratorImpl.filterDeltas(Flux.just("a", "b", "c"), stream)
+                .collectList().block();
+
+        assertEquals(List.of("A", "C"), chunks);
+    }
+
+    @Test
+    void terminationCancelsGenerationAndEndsWithTheNotice() {
+        ScriptedStream stream = new ScriptedStream();
+        stream.terminateOn = "stop";
+        stream.termination = FilterResult.terminateUserError("Response blocked: contains PII");
+        List<String> generated = new ArrayList<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<String> deltas = Flux.just("a", "b", "stop", "c", "d")
+                .doOnNext(generated::add)
+                .doOnCancel(() -> cancelled.set(true));
+
+        List<String> chunks = KompileRagOrchestratorImpl.filterDeltas(deltas, stream).collectList().block();
+
+        assertEquals(List.of("A", "B", "\n\nResponse blocked: contains PII"), chunks);
+        assertTrue(cancelled.get(), "generation is cancelled");
+        assertEquals(List.of("a", "b", "stop"), generated);
+        assertFalse(stream.completed, "a terminated stream is not completed");
+    }
+
+    @Test
+    void terminationAtTheEndAppendsTheNotice() {
+        ScriptedStream stream = new ScriptedStream();
+        stream.terminateOnComplete = true;
+        stream.termination = FilterResult.terminateUserError("Not grounded in the sources");
+
+        List<String> chunks = KompileRagOrchestratorImpl.filterDeltas(Flux.just("a", "b"), stream)
+                .collectList().block();
+
+        assertEquals(List.of("A", "B", "\n\nNot grounded in the sources"), chunks);
+    }
+
+    @Test
+    void fatalTerminationDoesNotLeakTheFilterMessage() {
+        ScriptedStream stream = new ScriptedStream();
+        stream.terminateOn = "a";
+        stream.termination = FilterResult.terminateFatalError("Filter 'x' failed: NullPointerException");
+
+        List<String> chunks = KompileRagOrchestratorImpl.filterDeltas(Flux.just("a", "b"), stream)
+                .collectList().block();
+
+        assertEquals(List.of("\n\nAn error occurred processing your request"), chunks);
+    }
+
+    /**
+     * Upper-cases deltas, optionally holding one back or terminating on one or at the end.
+     */
+    private static final class ScriptedStream implements FilterStream {
+        private String holdBack;
+        private String terminateOn;
+        private boolean terminateOnComplete;
+        private FilterResult termination;
+        private String onComplete = "";
+        private boolean completed;
+        private boolean terminated;
+
+        @Override
+        public String onDelta(String delta) {
+            if (delta.equals(terminateOn)) {
+                terminated = true;
+                return "";
+            }
+            return delta.equals(holdBack) ? "" : delta.toUpperCase();
+        }
+
+        @Override
+        public String onComplete() {
+            completed = true;
+            if (terminateOnComplete) {
+                terminated = true;
+                return "";
+            }
+            return onComplete;
+        }
+
+        @Override
+        public FilterResult getTermination() {
+            return terminated ? termination : null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.app.rag.retrieval;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+import ai.kompile.core.embeddings.VectorStore;
+import ai.kompile.core.rag.retrieval.RetrievalOptions;
+import ai.kompile.core.rag.retrieval.RetrievalResult;
+import ai.kompile.core.retrievers.DocumentRetriever;
+import ai.kompile.core.retrievers.RetrievedDoc;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HybridOptimizedRetrieverTest {
+
+    @Mock
+    private VectorStore vectorStore;
+
+    @Mock
+    private DocumentRetriever keywordRetriever;
+
+    private HybridOptimizedRetriever retriever;
+
+    @BeforeEach
+    void setUp() {
+        retriever = new HybridOptimizedRetriever(null, vectorStore, keywordRetriever);
+        retriever.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        retriever.shutdown();
+    }
+
+    @Test
+    void legsRunConcurrentlyAndAreFusedByRank() {
+        when(vectorStore.similaritySearchWithScores(anyString(), anyInt(), anyDouble())).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return List.of(scored("a", 0.91), scored("b", 0.90));
+        });
+        when(keywordRetriever.retrieveWithDetails(anyString(), anyInt())).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return List.of(new RetrievedDoc("c", "text c", Map.of(), 14.0), new RetrievedDoc("b", "text b", Map.of(), 12.0));
+        });
+
+        RetrievalResult result = retriever.retrieve("query", RetrievalOptions.hybrid(5, 5, 0.0));
+
+        assertEquals(List.of("b", "a", "c"), result.documents().stream().map(ScoredDocument::getId).toList());
+        assertEquals(2, result.metrics().semanticHits());
+        assertEquals(2, result.metrics().keywordHits());
+        assertEquals(1, result.metrics().duplicatesRemoved());
+        assertEquals(0, result.metrics().timedOutLegs());
+        assertTrue(result.metrics().semanticSearchTimeMs() >= 300);
+        assertTrue(result.metrics().keywordSearchTimeMs() >= 300);
+        assertTrue(result.metrics().timeToFusedMs() < 550, "legs should overlap, not add up");
+    }
+
+    @Test
+    void slowLegIsDroppedAtItsDeadline() {
+        retriever.setKeywordTimeoutMs(100);
+        when(vectorStore.similaritySearchWithScores(anyString(), anyInt(), anyDouble()))
+                .thenReturn(List.of(scored("a", 0.8), scored("b", 0.6)));
+        when(keywordRetriever.retrieveWithDetails(anyString(), anyInt())).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return List.of(new RetrievedDoc("c", "text c", Map.of(), 14.0));
+        });
+
+        RetrievalResult result = retriever.retrieve("query", RetrievalOptions.hybrid(5, 5, 0.0));
+
+        assertEquals(List.of("a", "b"), result.documents().stream().map(ScoredDocument::getId).toList());
+        assertEquals(0.8, result.documents().get(0).score(), 1e-12, "a lone leg keeps its native scores");
+        assertEquals(1, result.metrics().timedOutLegs());
+        assertEquals(0, result.metrics().keywordHits());
+        assertTrue(result.metrics().timeToFusedMs() < 1_000);
+    }
+
+    @Test
+    void timedOutSemanticLegSearchesItsOwnCopyOfTheEmbedding() throws Exception {
+        retriever.setSemanticTimeoutMs(100);
+        INDArray embedding = Nd4j.create(new float[]{0.6f, 0.8f, 0f});
+        CountDownLatch callerClosed = new CountDownLatch(1);
+        CompletableFuture<INDArray> searched = new CompletableFuture<>();
+        CompletableFuture<float[]> read = new CompletableFuture<>();
+        when(vectorStore.similaritySearchWithScores(any(INDArray.class), anyInt(), anyDouble())).thenAnswer(inv -> {
+            INDArray legEmbedding = inv.getArgument(0);
+            searched.complete(legEmbedding);
+            // Like a native search, ignore the cancelling interrupt and keep reading after the
+            // deadline, once the caller has closed its embedding
+            long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (callerClosed.getCount() > 0 && System.nanoTime() < until) {
+                try {
+                    callerClosed.await(10, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ignored) {
+                }
+            }
+            read.complete(legEmbedding.toFloatVector());
+            return List.of(scored("a", 0.9));
+        });
+        when(keywordRetriever.retrieveWithDetails(anyString(), anyInt()))
+                .thenReturn(List.of(new RetrievedDoc("c", "text c", Map.of(), 14.0)));
+
+        RetrievalResult result = retriever.retrieve(embedding, "query", RetrievalOptions.hybrid(5, 5, 0.0));
+        embedding.close();
+        callerClosed.countDown();
+
+        assertEquals(List.of("c"), result.documents().stream().map(ScoredDocument::getId).toList());
+        assertEquals(1, result.metrics().timedOutLegs());
+        INDArray legEmbedding = searched.get(5, TimeUnit.SECONDS);
+        assertNotSame(embedding, legEmbedding);
+        assertArrayEquals(new float[]{0.6f, 0.8f, 0f}, read.get(5, TimeUnit.SECONDS));
+
+        // The leg closes its copy once it is done with it
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!legEmbedding.wasClosed() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(legEmbedding.wasClosed());
+    }
+
+    @Test
+    void failingLegDegradesToTheOtherLeg() {
+        when(vectorStore.similaritySearchWithScores(anyString(), anyInt(), anyDouble()))
+                .thenThrow(new IllegalStateException("index closed"));
+        when(keywordRetriever.retrieveWithDetails(anyString(), anyInt()))
+                .thenReturn(List.of(new RetrievedDoc("c", "text c", Map.of(), 14.0)));
+
+        RetrievalResult result = retriever.retrieve("query", RetrievalOptions.hybrid(5, 5, 0.0));
+
+        assertEquals(List.of("c"), result.documents().stream().map(ScoredDocument::getId).toList());
+        assertEquals(0, result.metrics().timedOutLegs());
+    }
+
+    @Test
+    void metadataFiltersReachBothLegs() {
+        Map<String, Object> filters = Map.of("source_id", "x");
+        when(vectorStore.similaritySearchWithScores(anyString(), anyInt(), anyDouble())).thenReturn(List.of(
+                ScoredDocument.of("a", "text a", Map.of("source_id", "x"), 0.9),
+                ScoredDocument.of("b", "text b", Map.of("source_id", "y"), 0.8)));
+        when(keywordRetriever.retrieveWithDetails(anyString(), anyInt(), eq(filters)))
+                .thenReturn(List.of(new RetrievedDoc("c", "text c", Map.of("source_id", "x"), 14.0)));
+
+        RetrievalResult result = retriever.retrieve("query",
+                new RetrievalOptions(5, 5, 0.0, true, true, true, filters));
+
+        assertEquals(List.of("a", "c"), result.documents().stream().map(ScoredDocument::getId).toList());
+        verify(keywordRetriever, never()).retrieveWithDetails(anyString(), anyInt());
+    }
+
+    private static ScoredDocument scored(String id, double score) {
+        return ScoredDocument.of(id, "text " + id, Map.of(), score);
+    }
+}
@@ -30,7 +30,7 @@ class WebCrawlJobResumeTest {
             CrawlConfig config = baseConfig("https://example.com");
             WebCrawlJob job = new WebCrawlJob("job-1", config, null);
 
-            assertTrue(job.pendingFrontier.isEmpty());
+            assertTrue(job.frontier.isEmpty());
             assertTrue(job.visitedUrls.isEmpty());
         }
 
@@ -42,8 +42,8 @@ class WebCrawlJobResumeTest {
             // Simulate some visited URLs and pending frontier
             job.visitedUrls.add("https://example.com");
             job.visitedUrls.add("https://example.com/page1");
-            job.pendingFrontier.add(new AbstractMap.SimpleImmutableEntry<>("https://example.com/page2", 1));
-            job.pendingFrontier.add(new AbstractMap.SimpleImmutableEntry<>("https://example.com/page3", 2));
+            job.frontier.add("https://example.com/page2", 1);
+            job.frontier.add("https://example.com/page3", 2);
 
             CrawlState state = job.checkpoint();
 
@@ -82,14 +82,14 @@ class WebCrawlJobResumeTest {
             assertEquals("hash1", job.contentHashes.get("https://example.com"));
 
             // Frontier should be restored with correct depth
-            assertEquals(2, job.pendingFrontier.size());
-            Map.Entry<String, Integer> first = job.pendingFrontier.poll();
-            assertEquals("https://example.com/b", first.getKey());
-            assertEquals(1, first.getValue());
-
-            Map.Entry<String, Integer> second = job.pendingFrontier.poll();
-            assertEquals("https://example.com/c", second.getKey());
-            assertEquals(2, second.getValue());
+            assertEquals(2, job.frontier.pending().size());
+            HostFrontier.Entry first = job.frontier.pending().get(0);
+            assertEquals("https://example.com/b", first.url());
+            assertEquals(1, first.depth());
+
+            HostFrontier.Entry second = job.frontier.pending().get(1);
+            assertEquals("https://example.com/c", second.url());
+            assertEquals(2, second.depth());
         }
 
         @Test
@@ -109,7 +109,7 @@ class WebCrawlJobResumeTest {
             WebCrawlJob job = new WebCrawlJob("job-3", config, null);
 
             // Only 2 valid entries should be restored
-            assertEquals(2, job.pendingFrontier.size());
+            assertEquals(2, job.frontier.pending().size());
         }
 
         @Test
@@ -119,8 +119,8 @@ class WebCrawlJobResumeTest {
             WebCrawlJob job1 = new WebCrawlJob("job-a", config1, null);
             job1.visitedUrls.addAll(Set.of("https://example.com", "https://example.com/1", "https://example.com/2"));
             job1.contentHashes.put("https://example.com", "abc123");
-            job1.pendingFrontier.add(new AbstractMap.SimpleImmutableEntry<>("https://example.com/3", 1));
-            job1.pendingFrontier.add(new AbstractMap.SimpleImmutableEntry<>("https://example.com/4", 2));
+            job1.frontier.add("https://example.com/3", 1);
+            job1.frontier.add("https://example.com/4", 2);
 
             CrawlState checkpoint = job1.checkpoint();
 
@@ -132,7 +132,33 @@ class WebCrawlJobResumeTest {
             // Verify state was fully restored
             assertEquals(3, job2.visitedUrls.size());
             assertEquals("abc123", job2.contentHashes.get("https://example.com"));
-            assertEquals(2, job2.pendingFrontier.size());
+            assertEquals(2, job2.frontier.pending().size());
+        }
+
+        @Test
+        void finishedStateRevisitsKnownPages() {
+            CrawlState prev = CrawlState.builder()
+                    .visitedUrls(Set.of("https://example.com", "https://example.com/a", "https://example.com/b"))
+                    .contentHashes(Map.of("https://example.com", "h0", "https://example.com/a", "h1"))
+                    .etags(Map.of("https://example.com/a", "\"v1\""))
+                    .urlDepths(Map.of("https://example.com/a", 1, "https://example.com", 0))
+                    .build();
+
+            CrawlConfig config = baseConfig("https://example.com");
+            config.setPreviousState(prev);
+
+            WebCrawlJob job = new WebCrawlJob("job-r", config, null);
+
+            // Known pages are queued shallowest first for conditional requests
+            List<HostFrontier.Entry> pending = job.frontier.pending();
+            assertEquals(2, pending.size());
+            assertEquals("https://example.com", pending.get(0).url());
+            assertEquals("https://example.com/a", pending.get(1).url());
+            assertEquals(1, pending.get(1).depth());
+            assertEquals("\"v1\"", job.etags.get("https://example.com/a"));
+
+            // Pages that were only discovered may be found again
+            assertFalse(job.visitedUrls.contains("https://example.com/b"));
         }
 
         @Test
@@ -146,7 +172,7 @@ class WebCrawlJobResumeTest {
 
             assertTrue(job.visitedUrls.isEmpty());
             assertTrue(job.contentHashes.isEmpty());
-            assertTrue(job.pendingFrontier.isEmpty());
+            assertTrue(job.frontier.isEmpty());
         }
     }
 
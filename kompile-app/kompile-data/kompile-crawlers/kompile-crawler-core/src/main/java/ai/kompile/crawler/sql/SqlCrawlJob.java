@@ -28,6 +28,10 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Crawl job state for the SQL database crawler.
  * Tracks processed rows and tables for incremental crawls.
+ *
+ * <p>Tables crawled with a watermark column keep a {@link SqlWatermark} instead of
+ * per-row keys; those are stored under {@value #PROP_WATERMARKS} in the checkpoint
+ * properties.</p>
  */
 public class SqlCrawlJob extends AbstractCrawlJob {
 
@@ -37,6 +41,15 @@ public class SqlCrawlJob extends AbstractCrawlJob {
     /** Table name -> max observed primary key or row count for incremental tracking */
     final Map<String, Long> tableHighWaterMarks = new ConcurrentHashMap<>();
 
+    /** Checkpoint property holding table name -> encoded {@link SqlWatermark} */
+    static final String PROP_WATERMARKS = "sqlWatermarks";
+
+    /** Table name -> watermark of the last fully emitted value */
+    final Map<String, SqlWatermark> watermarks = new ConcurrentHashMap<>();
+
+    /** Serializes listener callbacks and counters across partition readers */
+    final Object emitLock = new Object();
+
     SqlCrawlJob(String jobId, CrawlConfig config, CrawlEventListener listener) {
         super(jobId, config, listener);
 
@@ -48,14 +61,30 @@ public class SqlCrawlJob extends AbstractCrawlJob {
         if (prev != null && prev.getLastModifiedTimes() != null) {
             tableHighWaterMarks.putAll(prev.getLastModifiedTimes());
         }
+        if (prev != null && prev.getProperties() != null
+                && prev.getProperties().get(PROP_WATERMARKS) instanceof Map<?, ?> stored) {
+            stored.forEach((table, encoded) -> {
+                SqlWatermark watermark = SqlWatermark.decode(encoded);
+                if (watermark != null) {
+                    watermarks.put(table.toString(), watermark);
+                }
+            });
+        }
     }
 
     @Override
     public CrawlState checkpoint() {
+        Map<String, Object> encoded = new HashMap<>();
+        watermarks.forEach((table, watermark) -> encoded.put(table, watermark.encode()));
+        Map<String, Object> properties = new HashMap<>();
+        if (!encoded.isEmpty()) {
+            properties.put(PROP_WATERMARKS, encoded);
+        }
         return CrawlState.builder()
                 .timestamp(Instant.now())
                 .visitedUrls(Collections.unmodifiableSet(new HashSet<>(visitedRowKeys)))
                 .lastModifiedTimes(Collections.unmodifiableMap(new HashMap<>(tableHighWaterMarks)))
+                .properties(properties)
                 .build();
     }
 }
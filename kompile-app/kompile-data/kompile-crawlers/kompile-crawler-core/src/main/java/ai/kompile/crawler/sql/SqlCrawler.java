@@ -29,12 +29,22 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.*;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Crawler that discovers and ingests rows from SQL databases via JDBC.
@@ -48,7 +58,9 @@ import java.util.*;
  *
  * <p>Each row is serialized to a temporary JSON file and emitted as a {@link CrawlItem}
  * with {@code SourceType.FILE}, identical to how the remote folder crawler handles
- * downloaded files. This lets the downstream ingest pipeline process them uniformly.</p>
+ * downloaded files. This lets the downstream ingest pipeline process them uniformly.
+ * Rows are streamed from the result set and handed downstream one at a time; nothing
+ * but the bounded table-document sample is held in memory.</p>
  *
  * <p>Connection properties:</p>
  * <ul>
@@ -62,13 +74,31 @@ import java.util.*;
  *   <li>{@code catalogName} — catalog to restrict table discovery (optional)</li>
  *   <li>{@code fetchSize} — JDBC fetch size hint (default: 500)</li>
  *   <li>{@code rowFormat} — output format per row: "json" (default) or "text"</li>
+ *   <li>{@code watermarkColumn} — comma-separated candidate columns (e.g. {@code updated_at,id});
+ *       the first one a table has becomes its watermark (optional)</li>
+ *   <li>{@code partitions} — concurrent key-range readers per table (default: 1)</li>
+ *   <li>{@code partitionMinRows} — smallest table split into partitions (default: 100000)</li>
  * </ul>
  *
+ * <p>With a watermark column, a table's rows are read in watermark order and the crawl records
+ * the highest value fully emitted; the next crawl only reads rows past it, so inserted and
+ * updated rows are picked up without rescanning the table. Rows whose watermark is NULL are
+ * only read on the first crawl. Without one, already-emitted rows are skipped by key.
+ * A row is identified by its primary key. A table without one falls back to the row's position
+ * in a full scan, or, with a watermark, to a hash of the row's content, since an incremental
+ * read starts counting from the first row past the watermark. Identical keyless rows then share
+ * an id, and an updated keyless row gets a new one.</p>
+ *
+ * <p>Partitioned reads need a single integer primary key. The key's MIN/MAX range is split into
+ * contiguous ranges, each read on its own connection; a watermark then only advances once
+ * every range has been read.</p>
+ *
  * <p>Features:</p>
  * <ul>
  *   <li>Automatic table/schema discovery via JDBC metadata</li>
  *   <li>Primary key detection for row identification</li>
- *   <li>Incremental crawling via visited-row tracking</li>
+ *   <li>Incremental crawling via per-table watermarks or visited-row tracking</li>
+ *   <li>Parallel key-range reads of large tables</li>
  *   <li>Configurable fetch size for memory-efficient streaming</li>
  *   <li>Pause/resume/cancel support</li>
  * </ul>
@@ -146,6 +176,11 @@ public class SqlCrawler extends AbstractCrawler {
         String tablesStr = stringProp(props, "tables", null);
         String customQuery = stringProp(props, "query", null);
 
+        // Incremental and parallel table reads
+        List<String> watermarkColumns = listProp(props, "watermarkColumn");
+        int partitions = Math.max(1, intProp(props, "partitions", 1));
+        int partitionMinRows = intProp(props, "partitionMinRows", 100_000);
+
         // Create temp directory for serialized rows
         Path outputDir = Files.createTempDirectory("kompile-sql-crawl-" + job.getJobId());
 
@@ -163,16 +198,7 @@ public class SqlCrawler extends AbstractCrawler {
         Connection conn = null;
         try {
             // Connect
-            if (username != null) {
-                conn = DriverManager.getConnection(jdbcUrl, username, password);
-            } else {
-                conn = DriverManager.getConnection(jdbcUrl);
-            }
-            try {
-                conn.setReadOnly(true);
-            } catch (SQLException e) {
-                log.debug("[{}] Could not set read-only mode: {}", job.getJobId(), e.getMessage());
-            }
+            conn = connect(sqlJob, jdbcUrl, username, password);
 
             String databaseProduct = "unknown";
             try {
@@ -183,10 +209,13 @@ public class SqlCrawler extends AbstractCrawler {
 
             log.info("[{}] Connected to {} database", job.getJobId(), databaseProduct);
 
+            SqlSource source = new SqlSource(jdbcUrl, username, password, fetchSize, rowFormat,
+                    outputDir, databaseProduct);
+
             if (customQuery != null && !customQuery.isBlank()) {
                 // Custom query mode
-                crawlQuery(sqlJob, conn, customQuery, "query", fetchSize, rowFormat,
-                        outputDir, databaseProduct, jdbcUrl);
+                TableScan scan = new TableScan(sqlJob, source, "query", customQuery, List.of(), null, true);
+                scan.finish(streamRows(sqlJob, conn, customQuery, List.of(), scan), true);
             } else {
                 // Table scan mode
                 List<String> tables;
@@ -205,9 +234,7 @@ public class SqlCrawler extends AbstractCrawler {
                     if (sqlJob.shouldStop()) break;
                     if (!sqlJob.checkPauseAndContinue()) break;
 
-                    String query = "SELECT * FROM " + quoteIdentifier(conn, table);
-                    crawlQuery(sqlJob, conn, query, table, fetchSize, rowFormat,
-                            outputDir, databaseProduct, jdbcUrl);
+                    crawlTable(sqlJob, conn, source, table, watermarkColumns, partitions, partitionMinRows);
                 }
             }
         } finally {
@@ -224,145 +251,402 @@ public class SqlCrawler extends AbstractCrawler {
     }
 
     /**
-     * Executes a query and emits each row as a CrawlItem.
+     * Crawls one table. With a watermark column only rows past the stored watermark are read,
+     * in watermark order; with {@code partitions > 1} and a single integer primary key, tables of
+     * at least {@code partitionMinRows} rows are split into key ranges read concurrently.
      */
-    private void crawlQuery(SqlCrawlJob job, Connection conn, String query, String tableName,
-                            int fetchSize, String rowFormat, Path outputDir,
-                            String databaseProduct, String jdbcUrl) throws Exception {
-        CrawlConfig config = job.getConfig();
+    private void crawlTable(SqlCrawlJob job, Connection conn, SqlSource source, String table,
+                            List<String> watermarkCandidates, int partitions, int partitionMinRows)
+            throws Exception {
+        String quotedTable = quoteIdentifier(conn, table);
+        String baseQuery = "SELECT * FROM " + quotedTable;
+        List<String> pkColumns = getPrimaryKeyColumns(conn, table);
+        Map<String, Integer> columnTypes = getColumnTypes(conn, table);
+
+        String watermarkColumn = findColumn(columnTypes, watermarkCandidates);
+        SqlWatermark previous = watermarkColumn != null ? job.watermarks.get(table) : null;
+        if (previous != null && !previous.column().equalsIgnoreCase(watermarkColumn)) {
+            log.info("[{}] Watermark column of '{}' changed from {} to {}, re-reading the table",
+                    job.getJobId(), table, previous.column(), watermarkColumn);
+            previous = null;
+        }
 
-        // Detect primary key columns for the table
-        List<String> pkColumns = List.of();
-        if (!"query".equals(tableName)) {
-            pkColumns = getPrimaryKeyColumns(conn, tableName);
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (previous != null) {
+            conditions.add(quoteIdentifier(conn, watermarkColumn) + " > ?");
+            params.add(previous.value());
         }
 
-        log.info("[{}] Crawling table/query '{}' (PK columns: {})", job.getJobId(), tableName, pkColumns);
+        // Rows already handed downstream are skipped by key only without a watermark: with one,
+        // a row past the watermark is new or updated and must be emitted again.
+        TableScan scan = new TableScan(job, source, table, baseQuery, pkColumns, watermarkColumn, previous == null);
+
+        String partitionKey = pkColumns.size() == 1 ? pkColumns.get(0) : null;
+        if (partitions > 1 && partitionKey != null && isIntegerType(columnTypes, partitionKey)) {
+            String quotedKey = quoteIdentifier(conn, partitionKey);
+            long[] range = keyRange(conn, quotedTable, quotedKey, conditions, params);
+            if (range != null && range[2] >= partitionMinRows) {
+                log.info("[{}] Crawling table '{}' in {} partitions on {} ({} rows, PK columns: {}, watermark: {})",
+                        job.getJobId(), table, partitions, partitionKey, range[2], pkColumns, watermarkColumn);
+                boolean complete = crawlPartitions(job, source, quotedTable, quotedKey, range[0], range[1],
+                        partitions, conditions, params, scan);
+                scan.finish(complete, false);
+                return;
+            }
+        }
 
-        try (Statement stmt = conn.createStatement()) {
-            stmt.setFetchSize(fetchSize);
-            try (ResultSet rs = stmt.executeQuery(query)) {
-                ResultSetMetaData meta = rs.getMetaData();
-                int columnCount = meta.getColumnCount();
-                String[] columnNames = new String[columnCount];
-                for (int i = 0; i < columnCount; i++) {
-                    columnNames[i] = meta.getColumnLabel(i + 1);
+        log.info("[{}] Crawling table '{}' (PK columns: {}, watermark: {})",
+                job.getJobId(), table, pkColumns, watermarkColumn);
+        String query = baseQuery + where(conditions);
+        if (watermarkColumn != null) {
+            query += " ORDER BY " + quoteIdentifier(conn, watermarkColumn);
+        }
+        scan.finish(streamRows(job, conn, query, params, scan), true);
+    }
+
+    /**
+     * Reads {@code [min, max]} of an integer key in contiguous ranges, one connection per range.
+     * The last range is open-ended so rows inserted during the crawl are not lost.
+     *
+     * @return true if every range was read to the end
+     */
+    private boolean crawlPartitions(SqlCrawlJob job, SqlSource source, String quotedTable, String quotedKey,
+                                    long min, long max, int partitions, List<String> conditions,
+                                    List<Object> params, TableScan scan) throws SQLException {
+        BigInteger span = BigInteger.valueOf(max).subtract(BigInteger.valueOf(min)).add(BigInteger.ONE);
+        long width = span.add(BigInteger.valueOf(partitions - 1L))
+                .divide(BigInteger.valueOf(partitions)).max(BigInteger.ONE).longValue();
+
+        List<Callable<Boolean>> readers = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            long lo = min + p * width;
+            if (p > 0 && (lo > max || lo < min)) break;
+            boolean last = p == partitions - 1 || lo + width > max || lo + width < lo;
+            List<String> partConditions = new ArrayList<>();
+            List<Object> partParams = new ArrayList<>();
+            partConditions.add(quotedKey + " >= ?");
+            partParams.add(lo);
+            if (!last) {
+                partConditions.add(quotedKey + " < ?");
+                partParams.add(lo + width);
+            }
+            partConditions.addAll(conditions);
+            partParams.addAll(params);
+            String query = "SELECT * FROM " + quotedTable + where(partConditions);
+            readers.add(() -> {
+                try (Connection conn = connect(job, source.jdbcUrl(), source.username(), source.password())) {
+                    return streamRows(job, conn, query, partParams, scan);
                 }
+            });
+            if (last) break;
+        }
 
-                long rowIndex = 0;
-                int processed = 0;
-                // Buffer a bounded number of rows so the table can also be emitted as a single
-                // content_type=table document (→ one TABLE graph node), alongside per-row docs.
-                List<List<String>> tableRowsBuffer = new ArrayList<>();
-                final int maxTableGraphRows = 1000;
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(readers.size(), r -> {
+            Thread t = new Thread(r, "sql-crawl-" + job.getJobId() + "-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> reader : readers) {
+                futures.add(pool.submit(reader));
+            }
+            boolean complete = true;
+            for (Future<Boolean> future : futures) {
+                try {
+                    complete &= future.get();
+                } catch (ExecutionException e) {
+                    complete = false;
+                    log.warn("[{}] Partition read of {} failed: {}", job.getJobId(), quotedTable,
+                            e.getCause().getMessage());
+                    synchronized (job.emitLock) {
+                        job.recordError(scan.tableName, e.getCause() instanceof Exception cause ? cause : e);
+                    }
+                }
+            }
+            return complete;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
+    /**
+     * Executes a query and emits each row through {@code scan}.
+     *
+     * @return true if the result set was read to the end
+     */
+    private boolean streamRows(SqlCrawlJob job, Connection conn, String query, List<Object> params,
+                               TableScan scan) throws Exception {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setFetchSize(scan.source.fetchSize());
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                scan.describe(rs.getMetaData());
                 while (rs.next()) {
-                    if (job.shouldStop()) break;
-                    if (!job.checkPauseAndContinue()) break;
-
-                    // Extract row data
-                    Map<String, Object> columns = new LinkedHashMap<>();
-                    for (int i = 0; i < columnCount; i++) {
-                        Object value = rs.getObject(i + 1);
-                        columns.put(columnNames[i], value != null ? value : null);
-                    }
+                    if (job.shouldStop()) return false;
+                    if (!job.checkPauseAndContinue()) return false;
+                    if (!scan.emit(rs)) return false;
+                }
+                return true;
+            }
+        }
+    }
 
-                    // Capture row values (bounded) for the aggregated table document.
-                    if (tableRowsBuffer.size() < maxTableGraphRows) {
-                        List<String> rowVals = new ArrayList<>(columnCount);
-                        for (String cn : columnNames) {
-                            Object v = columns.get(cn);
-                            rowVals.add(v != null ? String.valueOf(v) : "");
-                        }
-                        tableRowsBuffer.add(rowVals);
-                    }
+    /**
+     * Rows of one table or custom query on their way to the listener, possibly read by several
+     * partition threads at once. Row files are written outside {@code job.emitLock}; listener
+     * callbacks and counters run under it.
+     */
+    private final class TableScan {
+
+        private static final int MAX_TABLE_GRAPH_ROWS = 1000;
+
+        final SqlCrawlJob job;
+        final SqlSource source;
+        final String tableName;
+        final String query;
+        final List<String> pkColumns;
+        final String watermarkColumn;
+        /** Whether the whole table is read, so the aggregated table document is complete */
+        final boolean fullRead;
+
+        private volatile String[] columnNames;
+        private final AtomicLong rowIndex = new AtomicLong();
+        private int processed;
+        // Buffer a bounded number of rows so the table can also be emitted as a single
+        // content_type=table document (→ one TABLE graph node), alongside per-row docs.
+        private final List<List<String>> tableRowsBuffer = new ArrayList<>();
+
+        // Watermark tracking. In an ordered scan rows sharing the last value may still be unread
+        // when the crawl stops, so only the value before it is safe to resume from.
+        private Object lastValue;
+        private Object safeValue;
+        private Object maxValue;
+
+        TableScan(SqlCrawlJob job, SqlSource source, String tableName, String query,
+                  List<String> pkColumns, String watermarkColumn, boolean fullRead) {
+            this.job = job;
+            this.source = source;
+            this.tableName = tableName;
+            this.query = query;
+            this.pkColumns = pkColumns;
+            this.watermarkColumn = watermarkColumn;
+            this.fullRead = fullRead;
+        }
 
-                    // Build row ID from primary key or row index
-                    String rowId = buildRowId(columns, pkColumns, rowIndex);
-                    String rowKey = tableName + ":" + rowId;
+        synchronized void describe(ResultSetMetaData meta) throws SQLException {
+            if (columnNames != null) return;
+            String[] names = new String[meta.getColumnCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = meta.getColumnLabel(i + 1);
+            }
+            columnNames = names;
+        }
 
-                    // Skip if already visited (incremental)
-                    if (job.visitedRowKeys.contains(rowKey)) {
-                        job.incrementSkipped();
-                        job.getListener().onDocumentSkipped(rowKey, "already processed in previous crawl");
-                        rowIndex++;
-                        continue;
-                    }
+        /**
+         * Emits the current row of {@code rs}.
+         *
+         * @return false if the crawl is stopping
+         */
+        boolean emit(ResultSet rs) throws Exception {
+            String[] names = columnNames;
+            Map<String, Object> columns = new LinkedHashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                columns.put(names[i], rs.getObject(i + 1));
+            }
+            Object watermark = watermarkColumn != null ? SqlWatermark.normalize(rs.getObject(watermarkColumn)) : null;
+            CrawlConfig config = job.getConfig();
+            String rowFormat = source.rowFormat();
+
+            long index = rowIndex.getAndIncrement();
+            bufferTableRow(names, columns);
+
+            // Build row ID from primary key, row content (watermark reads) or row index
+            String rowId = buildRowId(columns, pkColumns, index, watermarkColumn != null);
+            String rowKey = tableName + ":" + rowId;
+
+            // Skip if already visited (incremental)
+            if (watermarkColumn == null && job.visitedRowKeys.contains(rowKey)) {
+                synchronized (job.emitLock) {
+                    job.incrementSkipped();
+                    job.getListener().onDocumentSkipped(rowKey, "already processed in previous crawl");
+                }
+                return true;
+            }
 
-                    // Serialize row to temp file
-                    String content = formatRow(columnNames, columns, rowFormat, tableName, rowId);
-                    String safeFileName = tableName.replaceAll("[^a-zA-Z0-9._-]", "_")
-                            + "_row_" + rowIndex + ("json".equals(rowFormat) ? ".json" : ".txt");
-                    Path rowFile = outputDir.resolve(safeFileName);
-                    Files.writeString(rowFile, content, StandardCharsets.UTF_8);
+            // Serialize row to temp file
+            String content = formatRow(names, columns, rowFormat, tableName, rowId);
+            String safeFileName = tableName.replaceAll("[^a-zA-Z0-9._-]", "_")
+                    + "_row_" + index + ("json".equals(rowFormat) ? ".json" : ".txt");
+            Path rowFile = source.outputDir().resolve(safeFileName);
+            Files.writeString(rowFile, content, StandardCharsets.UTF_8);
+
+            // Build metadata
+            String localPath = rowFile.toAbsolutePath().toString();
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put(GraphConstants.META_SQL_TABLE_NAME, tableName);
+            metadata.put(GraphConstants.META_SQL_ROW_ID, rowId);
+            metadata.put(GraphConstants.META_SQL_ROW_INDEX, index);
+            metadata.put(GraphConstants.META_SQL_COLUMN_COUNT, names.length);
+            metadata.put(GraphConstants.META_SQL_COLUMN_NAMES, String.join(",", names));
+            metadata.put(GraphConstants.META_SQL_JDBC_URL, redactJdbcUrl(source.jdbcUrl()));
+            metadata.put(GraphConstants.META_SQL_DATABASE_PRODUCT, source.databaseProduct());
+            metadata.put(GraphConstants.META_LOADER, "SQL Database Crawler");
+            metadata.put(GraphConstants.META_DOCUMENT_TYPE, "database-row");
+            metadata.put(GraphConstants.META_SOURCE_TYPE, SourceType.SQL.name());
+            metadata.put(GraphConstants.META_SOURCE_PATH, rowKey);
+            metadata.put("crawlJobId", job.getJobId());
+            if (!pkColumns.isEmpty()) {
+                metadata.put(GraphConstants.META_SQL_PRIMARY_KEY, String.join(",", pkColumns));
+            }
+            if (!"query".equals(tableName)) {
+                metadata.put(GraphConstants.META_SQL_QUERY, query);
+            }
 
-                    // Track
+            CrawlItem item = CrawlItem.builder()
+                    .url(localPath)
+                    .parentUrl(tableName)
+                    .depth(0)
+                    .contentType("json".equals(rowFormat) ? "application/json" : "text/plain")
+                    .contentLength((long) content.length())
+                    .discoveredAt(Instant.now())
+                    .sourceDescriptor(DocumentSourceDescriptor.builder()
+                            .type(SourceType.FILE)
+                            .pathOrUrl(localPath)
+                            .sourceId(rowKey)
+                            .originalFileName(safeFileName)
+                            .collectionName(config.getCollectionName())
+                            .build())
+                    .metadata(metadata)
+                    .build();
+
+            synchronized (job.emitLock) {
+                if (job.shouldStop()) return false;
+
+                // Track
+                if (watermarkColumn == null) {
                     job.visitedRowKeys.add(rowKey);
-                    job.tableHighWaterMarks.merge(tableName, rowIndex, Math::max);
-
-                    // Build metadata
-                    String localPath = rowFile.toAbsolutePath().toString();
-                    Map<String, Object> metadata = new LinkedHashMap<>();
-                    metadata.put(GraphConstants.META_SQL_TABLE_NAME, tableName);
-                    metadata.put(GraphConstants.META_SQL_ROW_ID, rowId);
-                    metadata.put(GraphConstants.META_SQL_ROW_INDEX, rowIndex);
-                    metadata.put(GraphConstants.META_SQL_COLUMN_COUNT, columnCount);
-                    metadata.put(GraphConstants.META_SQL_COLUMN_NAMES, String.join(",", columnNames));
-                    metadata.put(GraphConstants.META_SQL_JDBC_URL, redactJdbcUrl(jdbcUrl));
-                    metadata.put(GraphConstants.META_SQL_DATABASE_PRODUCT, databaseProduct);
-                    metadata.put(GraphConstants.META_LOADER, "SQL Database Crawler");
-                    metadata.put(GraphConstants.META_DOCUMENT_TYPE, "database-row");
-                    metadata.put(GraphConstants.META_SOURCE_TYPE, SourceType.SQL.name());
-                    metadata.put(GraphConstants.META_SOURCE_PATH, rowKey);
-                    metadata.put("crawlJobId", job.getJobId());
-                    if (!pkColumns.isEmpty()) {
-                        metadata.put(GraphConstants.META_SQL_PRIMARY_KEY, String.join(",", pkColumns));
-                    }
-                    if (!"query".equals(tableName)) {
-                        metadata.put(GraphConstants.META_SQL_QUERY, query);
-                    }
+                }
+                job.tableHighWaterMarks.merge(tableName, index, Math::max);
+
+                job.incrementDiscovered();
+                job.getListener().onDocumentDiscovered(item);
+                job.incrementProcessed();
+                job.getListener().onDocumentProcessed(item);
 
-                    CrawlItem item = CrawlItem.builder()
-                            .url(localPath)
-                            .parentUrl(tableName)
-                            .depth(0)
-                            .contentType("json".equals(rowFormat) ? "application/json" : "text/plain")
-                            .contentLength((long) content.length())
-                            .discoveredAt(Instant.now())
-                            .sourceDescriptor(DocumentSourceDescriptor.builder()
-                                    .type(SourceType.FILE)
-                                    .pathOrUrl(localPath)
-                                    .sourceId(rowKey)
-                                    .originalFileName(safeFileName)
-                                    .collectionName(config.getCollectionName())
-                                    .build())
-                            .metadata(metadata)
-                            .build();
-
-                    job.incrementDiscovered();
-                    job.getListener().onDocumentDiscovered(item);
-                    job.incrementProcessed();
-                    job.getListener().onDocumentProcessed(item);
-
-                    processed++;
-                    rowIndex++;
-
-                    if (processed % 100 == 0) {
-                        job.getListener().onProgress(job.getProgress());
-                        log.debug("[{}] Processed {} rows from '{}'", job.getJobId(), processed, tableName);
+                if (watermark != null) {
+                    if (!watermark.equals(lastValue)) {
+                        safeValue = lastValue;
+                        lastValue = watermark;
                     }
+                    maxValue = SqlWatermark.max(maxValue, watermark);
                 }
 
-                // Emit the table as a single content_type=table document so it surfaces as one TABLE
-                // graph node (and renders) in the index browser, alongside the per-row documents.
-                if (!tableRowsBuffer.isEmpty() && !job.shouldStop()) {
-                    emitSqlTableSummary(job, tableName, columnNames, tableRowsBuffer, rowIndex,
-                            rowIndex > tableRowsBuffer.size(), outputDir, jdbcUrl, databaseProduct);
+                processed++;
+                if (processed % 100 == 0) {
+                    job.getListener().onProgress(job.getProgress());
+                    log.debug("[{}] Processed {} rows from '{}'", job.getJobId(), processed, tableName);
                 }
+            }
+            return true;
+        }
 
-                log.info("[{}] Table '{}': processed {} rows", job.getJobId(), tableName, processed);
+        private void bufferTableRow(String[] names, Map<String, Object> columns) {
+            synchronized (tableRowsBuffer) {
+                if (tableRowsBuffer.size() >= MAX_TABLE_GRAPH_ROWS) return;
+                List<String> rowVals = new ArrayList<>(names.length);
+                for (String cn : names) {
+                    Object v = columns.get(cn);
+                    rowVals.add(v != null ? String.valueOf(v) : "");
+                }
+                tableRowsBuffer.add(rowVals);
             }
         }
+
+        /**
+         * Advances the table watermark and emits the aggregated table document.
+         *
+         * @param complete whether every row was read
+         * @param ordered  whether rows arrived in watermark order
+         */
+        void finish(boolean complete, boolean ordered) throws IOException {
+            if (watermarkColumn != null) {
+                Object value;
+                synchronized (job.emitLock) {
+                    // Unordered (partitioned) reads only know a safe value once every range is done
+                    value = ordered ? (complete ? lastValue : safeValue) : (complete ? maxValue : null);
+                }
+                if (value != null) {
+                    job.watermarks.put(tableName, new SqlWatermark(watermarkColumn, value));
+                }
+            }
+
+            long totalRows = rowIndex.get();
+            // Emit the table as a single content_type=table document so it surfaces as one TABLE
+            // graph node (and renders) in the index browser, alongside the per-row documents.
+            // Incremental reads only see changed rows, so they leave the previous table document alone.
+            if (fullRead && !tableRowsBuffer.isEmpty() && !job.shouldStop()) {
+                synchronized (job.emitLock) {
+                    emitSqlTableSummary(job, tableName, columnNames, tableRowsBuffer, totalRows,
+                            totalRows > tableRowsBuffer.size(), source.outputDir(), source.jdbcUrl(),
+                            source.databaseProduct());
+                }
+            }
+
+            log.info("[{}] Table '{}': processed {} rows", job.getJobId(), tableName, processed);
+        }
+    }
+
+    /**
+     * Connection settings and output options shared by every reader of one crawl.
+     */
+    private record SqlSource(String jdbcUrl, String username, String password, int fetchSize,
+                             String rowFormat, Path outputDir, String databaseProduct) {
+    }
+
+    private Connection connect(SqlCrawlJob job, String jdbcUrl, String username, String password)
+            throws SQLException {
+        Connection conn = username != null
+                ? DriverManager.getConnection(jdbcUrl, username, password)
+                : DriverManager.getConnection(jdbcUrl);
+        try {
+            conn.setReadOnly(true);
+        } catch (SQLException e) {
+            log.debug("[{}] Could not set read-only mode: {}", job.getJobId(), e.getMessage());
+        }
+        return conn;
+    }
+
+    /**
+     * Returns MIN, MAX and COUNT of an integer key over the rows matching {@code conditions},
+     * or null if there are none.
+     */
+    private long[] keyRange(Connection conn, String quotedTable, String quotedKey,
+                            List<String> conditions, List<Object> params) throws SQLException {
+        String query = "SELECT MIN(" + quotedKey + "), MAX(" + quotedKey + "), COUNT(*) FROM "
+                + quotedTable + where(conditions);
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getObject(1) == null) {
+                    return null;
+                }
+                return new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)};
+            }
+        }
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
     }
 
     /**
@@ -482,11 +766,51 @@ public class SqlCrawler extends AbstractCrawler {
     }
 
     /**
-     * Builds a row identifier from primary key values or falls back to row index.
+     * Gets column name -> {@link Types} code for a table.
      */
-    private String buildRowId(Map<String, Object> columns, List<String> pkColumns, long rowIndex) {
+    private Map<String, Integer> getColumnTypes(Connection conn, String tableName) {
+        Map<String, Integer> types = new LinkedHashMap<>();
+        try {
+            DatabaseMetaData dbMeta = conn.getMetaData();
+            try (ResultSet rs = dbMeta.getColumns(null, null, tableName, "%")) {
+                while (rs.next()) {
+                    types.put(rs.getString("COLUMN_NAME"), rs.getInt("DATA_TYPE"));
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("Could not read columns for table '{}': {}", tableName, e.getMessage());
+        }
+        return types;
+    }
+
+    /**
+     * Returns the table's spelling of the first candidate column it has, or null.
+     */
+    static String findColumn(Map<String, Integer> columnTypes, List<String> candidates) {
+        for (String candidate : candidates) {
+            for (String column : columnTypes.keySet()) {
+                if (column.equalsIgnoreCase(candidate)) {
+                    return column;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isIntegerType(Map<String, Integer> columnTypes, String column) {
+        Integer type = columnTypes.get(column);
+        return type != null && (type == Types.INTEGER || type == Types.BIGINT
+                || type == Types.SMALLINT || type == Types.TINYINT);
+    }
+
+    /**
+     * Builds a row identifier from primary key values. Without a primary key it falls back to
+     * a hash of the row's content when {@code byContent} is set, and to the row index otherwise.
+     */
+    private String buildRowId(Map<String, Object> columns, List<String> pkColumns, long rowIndex,
+                              boolean byContent) {
         if (pkColumns.isEmpty()) {
-            return String.valueOf(rowIndex);
+            return byContent ? contentHash(columns) : String.valueOf(rowIndex);
         }
         StringJoiner joiner = new StringJoiner("_");
         for (String pk : pkColumns) {
@@ -496,6 +820,32 @@ public class SqlCrawler extends AbstractCrawler {
         return joiner.toString();
     }
 
+    /**
+     * First 16 hex digits of the SHA-256 of the row's column names and values.
+     */
+    private static String contentHash(Map<String, Object> columns) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, Object> column : columns.entrySet()) {
+                Object value = column.getValue();
+                String text = value instanceof byte[] bytes ? Base64.getEncoder().encodeToString(bytes)
+                        : value != null ? value.toString() : "\u0000null";
+                digest.update(column.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0x1f);
+                digest.update(text.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0x1e);
+            }
+            byte[] hash = digest.digest();
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Formats a row as either JSON or plain text.
      */
@@ -586,6 +936,15 @@ public class SqlCrawler extends AbstractCrawler {
         return s.isBlank() ? defaultValue : s;
     }
 
+    private static List<String> listProp(Map<String, Object> props, String key) {
+        String v = stringProp(props, key, null);
+        if (v == null) return List.of();
+        return Arrays.stream(v.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
     private static int intProp(Map<String, Object> props, String key, int defaultValue) {
         Object v = props.get(key);
         if (v == null) return defaultValue;
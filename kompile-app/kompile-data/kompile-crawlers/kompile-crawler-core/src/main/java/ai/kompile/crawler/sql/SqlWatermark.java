@@ -0,0 +1,157 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.crawler.sql;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * High watermark of one table: the largest value of its watermark column that has been
+ * fully emitted. The next crawl only reads rows with {@code column > value}.
+ *
+ * <p>Values are normalized to a small set of JDBC-bindable types so they compare and
+ * round-trip through the JSON checkpoint without loss.</p>
+ */
+record SqlWatermark(String column, Object value) {
+
+    private static final String KEY_COLUMN = "column";
+    private static final String KEY_TYPE = "type";
+    private static final String KEY_VALUE = "value";
+
+    /**
+     * Normalizes a JDBC column value to {@link Long}, {@link BigDecimal}, {@link Double},
+     * {@link Timestamp}, {@link java.sql.Date} or {@link String}.
+     *
+     * @return the normalized value, or null for SQL NULL
+     */
+    static Object normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger big) {
+            return big.bitLength() < 64 ? (Object) big.longValue() : new BigDecimal(big);
+        }
+        if (value instanceof BigDecimal dec) {
+            try {
+                return dec.longValueExact();
+            } catch (ArithmeticException e) {
+                return dec;
+            }
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Timestamp || value instanceof java.sql.Date) {
+            return value;
+        }
+        if (value instanceof java.util.Date date) {
+            return new Timestamp(date.getTime());
+        }
+        if (value instanceof LocalDateTime ldt) {
+            return Timestamp.valueOf(ldt);
+        }
+        if (value instanceof OffsetDateTime odt) {
+            return Timestamp.from(odt.toInstant());
+        }
+        if (value instanceof ZonedDateTime zdt) {
+            return Timestamp.from(zdt.toInstant());
+        }
+        if (value instanceof LocalDate ld) {
+            return java.sql.Date.valueOf(ld);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Returns the larger of two normalized values; null counts as smaller than anything.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object max(Object a, Object b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.getClass() == b.getClass() && a instanceof Comparable ca) {
+            return ca.compareTo(b) >= 0 ? a : b;
+        }
+        // Mixed representations of one column (e.g. a driver returning both Long and BigDecimal)
+        if (a instanceof Number na && b instanceof Number nb) {
+            return new BigDecimal(na.toString()).compareTo(new BigDecimal(nb.toString())) >= 0 ? a : b;
+        }
+        return b;
+    }
+
+    /**
+     * Encodes this watermark for {@link ai.kompile.core.crawler.CrawlState#getProperties()}.
+     */
+    Map<String, String> encode() {
+        Map<String, String> encoded = new LinkedHashMap<>();
+        encoded.put(KEY_COLUMN, column);
+        encoded.put(KEY_TYPE, typeOf(value));
+        encoded.put(KEY_VALUE, value.toString());
+        return encoded;
+    }
+
+    /**
+     * Decodes a watermark written by {@link #encode()}.
+     *
+     * @return the watermark, or null if the entry is missing or malformed
+     */
+    static SqlWatermark decode(Object encoded) {
+        if (!(encoded instanceof Map<?, ?> map)) {
+            return null;
+        }
+        Object column = map.get(KEY_COLUMN);
+        Object type = map.get(KEY_TYPE);
+        Object value = map.get(KEY_VALUE);
+        if (column == null || type == null || value == null) {
+            return null;
+        }
+        String text = value.toString();
+        try {
+            Object parsed = switch (type.toString()) {
+                case "long" -> Long.parseLong(text);
+                case "decimal" -> new BigDecimal(text);
+                case "double" -> Double.parseDouble(text);
+                case "timestamp" -> Timestamp.valueOf(text);
+                case "date" -> java.sql.Date.valueOf(text);
+                default -> text;
+            };
+            return new SqlWatermark(column.toString(), parsed);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String typeOf(Object value) {
+        if (value instanceof Long) return "long";
+        if (value instanceof BigDecimal) return "decimal";
+        if (value instanceof Double) return "double";
+        if (value instanceof Timestamp) return "timestamp";
+        if (value instanceof java.sql.Date) return "date";
+        return "string";
+    }
+}
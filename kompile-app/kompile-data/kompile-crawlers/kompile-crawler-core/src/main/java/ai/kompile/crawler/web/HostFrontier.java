@@ -0,0 +1,225 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.crawler.web;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Crawl frontier partitioned by host.
+ *
+ * <p>Each host has its own FIFO queue, at most one request in flight, and a token
+ * bucket that spaces request starts by the configured delay (allowing a short burst
+ * after an idle period). Hosts are independent, so many hosts are fetched in parallel
+ * while each one still sees the polite request rate.</p>
+ *
+ * <p>Workers call {@link #take()} for the next URL whose host is due and
+ * {@link #release(Entry)} once the fetch is done. Thread-safe.</p>
+ */
+final class HostFrontier {
+
+    /** A URL waiting to be fetched. */
+    record Entry(String url, int depth, String host) {
+    }
+
+    private final long intervalNanos;
+    private final double burst;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, HostQueue> hosts = new LinkedHashMap<>();
+    private final PriorityQueue<HostQueue> due = new PriorityQueue<>(Comparator.comparingLong(h -> h.dueAt));
+    private final Set<Entry> inFlight = new LinkedHashSet<>();
+    private int queued;
+    private boolean closed;
+
+    /**
+     * @param delay Minimum spacing between request starts to one host (null or zero = none)
+     * @param burst Requests a host may receive back to back after being idle (at least 1)
+     */
+    HostFrontier(Duration delay, int burst) {
+        this.intervalNanos = delay != null ? Math.max(0, delay.toNanos()) : 0;
+        this.burst = Math.max(1, burst);
+    }
+
+    /**
+     * Queue a URL behind the other URLs of its host.
+     */
+    void add(String url, int depth) {
+        Entry entry = new Entry(url, depth, hostOf(url));
+        lock.lock();
+        try {
+            HostQueue host = hosts.computeIfAbsent(entry.host(), h -> new HostQueue(burst));
+            host.entries.add(entry);
+            queued++;
+            if (!host.busy && !host.scheduled) {
+                schedule(host, System.nanoTime());
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for the next URL whose host is due and mark the host busy.
+     *
+     * @return The entry, or null once the frontier is drained (nothing queued or in
+     *         flight) or {@link #close() closed}
+     */
+    Entry take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!closed) {
+                HostQueue host = due.peek();
+                if (host == null) {
+                    if (inFlight.isEmpty()) {
+                        return null;
+                    }
+                    changed.await();
+                    continue;
+                }
+                long now = System.nanoTime();
+                if (host.dueAt > now) {
+                    changed.awaitNanos(host.dueAt - now);
+                    continue;
+                }
+                due.poll();
+                host.scheduled = false;
+                host.busy = true;
+                host.consumeToken(now, intervalNanos, burst);
+                Entry entry = host.entries.poll();
+                queued--;
+                inFlight.add(entry);
+                return entry;
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finish the fetch of an entry returned by {@link #take()}, making its host
+     * available again once its next token is due.
+     */
+    void release(Entry entry) {
+        lock.lock();
+        try {
+            if (!inFlight.remove(entry)) {
+                return;
+            }
+            HostQueue host = hosts.get(entry.host());
+            host.busy = false;
+            if (!host.entries.isEmpty()) {
+                schedule(host, System.nanoTime());
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop handing out URLs. Queued entries are kept for {@link #pending()}.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Entries in flight followed by queued entries, host by host
+     */
+    List<Entry> pending() {
+        lock.lock();
+        try {
+            List<Entry> pending = new ArrayList<>(inFlight);
+            for (HostQueue host : hosts.values()) {
+                pending.addAll(host.entries);
+            }
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        lock.lock();
+        try {
+            return queued == 0 && inFlight.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule(HostQueue host, long now) {
+        host.dueAt = host.nextTokenAt(now, intervalNanos, burst);
+        host.scheduled = true;
+        due.add(host);
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private static final class HostQueue {
+        final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        double tokens;
+        long refilledAt = System.nanoTime();
+        long dueAt;
+        boolean scheduled;
+        boolean busy;
+
+        HostQueue(double burst) {
+            this.tokens = burst;
+        }
+
+        long nextTokenAt(long now, long intervalNanos, double burst) {
+            refill(now, intervalNanos, burst);
+            return tokens >= 1 ? now : now + (long) Math.ceil((1 - tokens) * intervalNanos);
+        }
+
+        void consumeToken(long now, long intervalNanos, double burst) {
+            refill(now, intervalNanos, burst);
+            tokens = Math.max(0, tokens - 1);
+        }
+
+        private void refill(long now, long intervalNanos, double burst) {
+            if (intervalNanos == 0) {
+                tokens = burst;
+            } else if (now > refilledAt) {
+                tokens = Math.min(burst, tokens + (double) (now - refilledAt) / intervalNanos);
+            }
+            refilledAt = now;
+        }
+    }
+}
@@ -21,12 +21,12 @@ import ai.kompile.crawler.AbstractCrawlJob;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.stream.Collectors;
 
 /**
  * Crawl job state for the web crawler.
- * Tracks visited URLs and maintains the frontier queue state.
+ * Tracks visited URLs, per-URL fetch state for conditional requests,
+ * and the per-host frontier.
  */
 public class WebCrawlJob extends AbstractCrawlJob {
 
@@ -36,51 +36,91 @@ public class WebCrawlJob extends AbstractCrawlJob {
     /** Content hashes for change detection */
     final Map<String, String> contentHashes = new ConcurrentHashMap<>();
 
+    /** ETag validators of fetched pages */
+    final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    /** Last-Modified times (epoch millis) of fetched pages */
+    final Map<String, Long> lastModifiedTimes = new ConcurrentHashMap<>();
+
+    /** Depth at which each fetched page was found */
+    final Map<String, Integer> urlDepths = new ConcurrentHashMap<>();
+
     /**
-     * BFS frontier shared between crawler thread and checkpoint snapshots.
-     * Using ConcurrentLinkedDeque so checkpoint() can safely snapshot
-     * the frontier while the crawler thread is running.
+     * Frontier shared between the crawl workers and checkpoint snapshots.
      */
-    final Deque<Map.Entry<String, Integer>> pendingFrontier = new ConcurrentLinkedDeque<>();
+    final HostFrontier frontier;
+
+    /** Serializes listener callbacks and the document limit check across workers */
+    final Object listenerLock = new Object();
 
     WebCrawlJob(String jobId, CrawlConfig config, CrawlEventListener listener) {
         super(jobId, config, listener);
+        frontier = new HostFrontier(config.getRequestDelay(),
+                WebCrawler.intProp(config, WebCrawler.PROP_HOST_BURST, 1));
 
         // Initialize from previous state if doing incremental crawl
         CrawlState prev = config.getPreviousState();
         if (prev != null) {
-            visitedUrls.addAll(prev.getVisitedUrls());
-            contentHashes.putAll(prev.getContentHashes());
+            contentHashes.putAll(nullToEmpty(prev.getContentHashes()));
+            etags.putAll(nullToEmpty(prev.getEtags()));
+            lastModifiedTimes.putAll(nullToEmpty(prev.getLastModifiedTimes()));
+            urlDepths.putAll(nullToEmpty(prev.getUrlDepths()));
 
-            // Restore pending frontier from checkpoint
-            if (prev.getPendingUrls() != null) {
+            if (prev.getPendingUrls() != null && !prev.getPendingUrls().isEmpty()) {
+                // Resuming an interrupted crawl: skip what was visited, restore the frontier
+                visitedUrls.addAll(prev.getVisitedUrls());
                 for (String encoded : prev.getPendingUrls()) {
                     String[] parts = encoded.split("::", 2);
                     if (parts.length == 2) {
                         try {
-                            pendingFrontier.add(new AbstractMap.SimpleImmutableEntry<>(
-                                    parts[0], Integer.parseInt(parts[1])));
+                            frontier.add(parts[0], Integer.parseInt(parts[1]));
                         } catch (NumberFormatException ignored) {
                             // Skip malformed entries
                         }
                     }
                 }
+            } else {
+                // Re-crawling a finished crawl: revisit known pages with conditional
+                // requests, shallowest first, and follow links only from changed pages
+                urlDepths.entrySet().stream()
+                        .sorted(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                        .forEach(e -> {
+                            visitedUrls.add(e.getKey());
+                            frontier.add(e.getKey(), e.getValue());
+                        });
             }
         }
     }
 
+    /**
+     * Drop the stored fetch state of a page that no longer exists.
+     */
+    void forget(String url) {
+        contentHashes.remove(url);
+        etags.remove(url);
+        lastModifiedTimes.remove(url);
+        urlDepths.remove(url);
+    }
+
     @Override
     public CrawlState checkpoint() {
         // Snapshot the pending frontier as "url::depth" strings
-        List<String> pending = pendingFrontier.stream()
-                .map(e -> e.getKey() + "::" + e.getValue())
+        List<String> pending = frontier.pending().stream()
+                .map(e -> e.url() + "::" + e.depth())
                 .collect(Collectors.toList());
 
         return CrawlState.builder()
                 .timestamp(java.time.Instant.now())
                 .visitedUrls(Collections.unmodifiableSet(new HashSet<>(visitedUrls)))
                 .contentHashes(Collections.unmodifiableMap(new HashMap<>(contentHashes)))
+                .etags(Collections.unmodifiableMap(new HashMap<>(etags)))
+                .lastModifiedTimes(Collections.unmodifiableMap(new HashMap<>(lastModifiedTimes)))
+                .urlDepths(Collections.unmodifiableMap(new HashMap<>(urlDepths)))
                 .pendingUrls(pending)
                 .build();
     }
+
+    private static <K, V> Map<K, V> nullToEmpty(Map<K, V> map) {
+        return map != null ? map : Map.of();
+    }
 }
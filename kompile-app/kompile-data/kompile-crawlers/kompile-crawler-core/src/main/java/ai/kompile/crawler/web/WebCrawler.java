@@ -38,7 +38,15 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 /**
@@ -48,11 +56,12 @@ import java.util.regex.Pattern;
  * <ul>
  *   <li>Breadth-first crawling up to configurable depth</li>
  *   <li>Same-domain restriction (configurable)</li>
- *   <li>Rate limiting between requests</li>
- *   <li>Basic robots.txt compliance</li>
+ *   <li>Concurrent fetching across hosts with a per-host request delay</li>
+ *   <li>Basic robots.txt compliance, per host</li>
  *   <li>URL normalization and deduplication</li>
  *   <li>Include/exclude pattern filtering</li>
- *   <li>Content-hash-based incremental crawling</li>
+ *   <li>Incremental crawling with conditional requests ({@code ETag} /
+ *       {@code Last-Modified}) and content hashes</li>
  *   <li>Pause/resume/cancel support</li>
  * </ul>
  */
@@ -62,6 +71,14 @@ public class WebCrawler extends AbstractCrawler {
     private static final Logger log = LoggerFactory.getLogger(WebCrawler.class);
     private static final int CONNECTION_TIMEOUT_MS = 30_000;
     private static final int MAX_BODY_SIZE = 10 * 1024 * 1024; // 10MB
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    /** Config property: number of pages fetched in parallel across hosts (default: 4) */
+    public static final String PROP_MAX_CONCURRENCY = "maxConcurrency";
+    /** Config property: requests a host may get back to back after being idle (default: 1) */
+    public static final String PROP_HOST_BURST = "hostBurst";
+    private static final int DEFAULT_MAX_CONCURRENCY = 4;
 
     @Override
     public String getId() {
@@ -112,165 +129,282 @@ public class WebCrawler extends AbstractCrawler {
         CrawlConfig config = job.getConfig();
         String seed = config.getSeed();
 
-        URI seedUri = URI.create(seed);
-        String seedDomain = seedUri.getHost();
-        Set<String> disallowedPaths = config.isRespectRobotsTxt()
-                ? fetchRobotsTxt(seedUri, config.getUserAgent())
-                : Collections.emptySet();
-
-        // Compile include/exclude patterns
-        List<Pattern> includes = compilePatterns(config.getIncludePatterns());
-        List<Pattern> excludes = compilePatterns(config.getExcludePatterns());
+        CrawlRun run = new CrawlRun(
+                URI.create(seed).getHost(),
+                compilePatterns(config.getIncludePatterns()),
+                compilePatterns(config.getExcludePatterns()),
+                new ConcurrentHashMap<>());
 
-        // BFS frontier: use the job's shared deque so checkpoints can snapshot it
-        Deque<Map.Entry<String, Integer>> frontier = webJob.pendingFrontier;
-        // Only seed the frontier if it's empty (not resuming from checkpoint)
+        // Only seed the frontier if it's empty (not resuming or revisiting)
         String normalizedSeed = normalizeUrl(seed);
-        if (frontier.isEmpty()) {
-            frontier.add(new AbstractMap.SimpleImmutableEntry<>(normalizedSeed, 0));
+        if (webJob.frontier.isEmpty()) {
+            webJob.frontier.add(normalizedSeed, 0);
         }
         webJob.visitedUrls.add(normalizedSeed);
 
-        while (!frontier.isEmpty()) {
-            if (webJob.shouldStop()) break;
-            if (!webJob.checkPauseAndContinue()) break;
-
-            Map.Entry<String, Integer> entry = frontier.poll();
-            String url = entry.getKey();
-            int depth = entry.getValue();
-            webJob.setCurrentDepth(depth);
-            webJob.setCurrentItem(url);
-
-            // Apply filters
-            if (!matchesPatterns(url, includes, excludes)) {
-                webJob.incrementSkipped();
-                webJob.getListener().onDocumentSkipped(url, "filtered by include/exclude patterns");
-                continue;
+        // Workers pull from the per-host frontier, so hosts are fetched in parallel
+        // while each host's request delay is kept
+        int concurrency = Math.max(1, intProp(config, PROP_MAX_CONCURRENCY, DEFAULT_MAX_CONCURRENCY));
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName("web-crawl-worker-" + t.getId());
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> {
+                    runWorker(webJob, run);
+                    return null;
+                }));
             }
-
-            // Check robots.txt
-            if (isDisallowedByRobots(url, seedUri, disallowedPaths)) {
-                webJob.incrementSkipped();
-                webJob.getListener().onDocumentSkipped(url, "disallowed by robots.txt");
-                continue;
+            for (Future<?> future : futures) {
+                future.get();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            webJob.frontier.close();
+            workers.shutdownNow();
+        }
+    }
 
-            try {
-                // Rate limiting
-                if (config.getRequestDelay() != null && !config.getRequestDelay().isZero()) {
-                    Thread.sleep(config.getRequestDelay().toMillis());
+    private void runWorker(WebCrawlJob job, CrawlRun run) throws InterruptedException {
+        try {
+            while (!job.shouldStop() && job.checkPauseAndContinue()) {
+                HostFrontier.Entry entry = job.frontier.take();
+                if (entry == null) {
+                    break;
                 }
-
-                // Fetch the page
-                Connection.Response response = Jsoup.connect(url)
-                        .userAgent(config.getUserAgent())
-                        .timeout(CONNECTION_TIMEOUT_MS)
-                        .maxBodySize(MAX_BODY_SIZE)
-                        .followRedirects(true)
-                        .ignoreHttpErrors(true)
-                        .execute();
-
-                int statusCode = response.statusCode();
-                if (statusCode >= 400) {
-                    webJob.recordError(url, new RuntimeException("HTTP " + statusCode));
-                    continue;
+                try {
+                    crawlUrl(job, run, entry);
+                } finally {
+                    job.frontier.release(entry);
                 }
+            }
+        } finally {
+            // Wake the other workers so they see the stop condition too
+            job.frontier.close();
+        }
+    }
+
+    private void crawlUrl(WebCrawlJob job, CrawlRun run, HostFrontier.Entry entry) {
+        CrawlConfig config = job.getConfig();
+        String url = entry.url();
+        int depth = entry.depth();
+        job.setCurrentDepth(depth);
+        job.setCurrentItem(url);
+
+        // Apply filters
+        if (!matchesPatterns(url, run.includes(), run.excludes())) {
+            skip(job, url, "filtered by include/exclude patterns");
+            return;
+        }
 
-                String contentType = response.contentType();
-                if (contentType != null && !isAcceptableContentType(contentType, config.getAllowedContentTypes())) {
-                    webJob.incrementSkipped();
-                    webJob.getListener().onDocumentSkipped(url, "content type not accepted: " + contentType);
-                    continue;
+        // Check robots.txt of the URL's host
+        if (config.isRespectRobotsTxt() && isDisallowedByRobots(url, robotsFor(run, url, config.getUserAgent()))) {
+            skip(job, url, "disallowed by robots.txt");
+            return;
+        }
+
+        try {
+            // Conditional request using the validators from the last fetch
+            Connection connection = Jsoup.connect(url)
+                    .userAgent(config.getUserAgent())
+                    .timeout(CONNECTION_TIMEOUT_MS)
+                    .maxBodySize(MAX_BODY_SIZE)
+                    .followRedirects(true)
+                    .ignoreHttpErrors(true);
+            String etag = job.etags.get(url);
+            if (etag != null) {
+                connection.header("If-None-Match", etag);
+            }
+            Long lastModified = job.lastModifiedTimes.get(url);
+            if (lastModified != null) {
+                connection.header("If-Modified-Since", HTTP_DATE.format(Instant.ofEpochMilli(lastModified)));
+            }
+            Connection.Response response = connection.execute();
+
+            int statusCode = response.statusCode();
+            if (statusCode == 304) {
+                skip(job, url, "not modified since last crawl");
+                return;
+            }
+            if (statusCode >= 400) {
+                if (statusCode == 404 || statusCode == 410) {
+                    job.forget(url);
                 }
+                fail(job, url, new RuntimeException("HTTP " + statusCode));
+                return;
+            }
 
-                Document doc = response.parse();
-                String bodyText = doc.body() != null ? doc.body().text() : "";
+            String contentType = response.contentType();
+            if (contentType != null && !isAcceptableContentType(contentType, config.getAllowedContentTypes())) {
+                skip(job, url, "content type not accepted: " + contentType);
+                return;
+            }
+
+            Document doc = response.parse();
+            String bodyText = doc.body() != null ? doc.body().text() : "";
+
+            // Content hash for incremental crawling, for servers without validators
+            String contentHash = computeHash(bodyText);
+            String previousHash = job.contentHashes.get(url);
+            if (previousHash != null && previousHash.equals(contentHash)) {
+                rememberFetch(job, url, depth, contentHash, response);
+                skip(job, url, "content unchanged since last crawl");
+                return;
+            }
 
-                // Content hash for incremental crawling
-                String contentHash = computeHash(bodyText);
-                CrawlState prevState = config.getPreviousState();
-                if (prevState != null && !prevState.hasChanged(url, contentHash)) {
-                    webJob.incrementSkipped();
-                    webJob.getListener().onDocumentSkipped(url, "content unchanged since last crawl");
-                    continue;
+            // Build CrawlItem
+            Map<String, Object> itemMetadata = new LinkedHashMap<>();
+            itemMetadata.put(GraphConstants.META_TITLE, doc.title() != null ? doc.title() : "");
+            itemMetadata.put(GraphConstants.META_SOURCE_PATH, url);
+            itemMetadata.put(GraphConstants.META_FILE_NAME, extractFileName(url));
+            itemMetadata.put(GraphConstants.META_LOADER, "Web Crawler");
+            itemMetadata.put(GraphConstants.META_DOCUMENT_TYPE, "web_page");
+            itemMetadata.put(GraphConstants.META_SOURCE_TYPE, "WEB_CRAWL");
+            itemMetadata.put("depth", depth);
+            itemMetadata.put("crawlJobId", job.getJobId());
+
+            CrawlItem item = CrawlItem.builder()
+                    .url(url)
+                    .parentUrl(depth > 0 ? config.getSeed() : null)
+                    .depth(depth)
+                    .contentHash(contentHash)
+                    .contentType(contentType)
+                    .discoveredAt(Instant.now())
+                    .sourceDescriptor(DocumentSourceDescriptor.builder()
+                            .type(config.getSourceType() != null ? config.getSourceType() : SourceType.WEB_CRAWL)
+                            .pathOrUrl(url)
+                            .sourceId(url)
+                            .originalFileName(extractFileName(url))
+                            .collectionName(config.getCollectionName())
+                            .build())
+                    .metadata(itemMetadata)
+                    .build();
+
+            synchronized (job.listenerLock) {
+                if (job.shouldStop()) {
+                    // Document limit reached by another worker; keep the URL for a resume
+                    job.frontier.add(url, depth);
+                    return;
                 }
-                webJob.contentHashes.put(url, contentHash);
-
-                // Build CrawlItem
-                Map<String, Object> itemMetadata = new LinkedHashMap<>();
-                itemMetadata.put(GraphConstants.META_TITLE, doc.title() != null ? doc.title() : "");
-                itemMetadata.put(GraphConstants.META_SOURCE_PATH, url);
-                itemMetadata.put(GraphConstants.META_FILE_NAME, extractFileName(url));
-                itemMetadata.put(GraphConstants.META_LOADER, "Web Crawler");
-                itemMetadata.put(GraphConstants.META_DOCUMENT_TYPE, "web_page");
-                itemMetadata.put(GraphConstants.META_SOURCE_TYPE, "WEB_CRAWL");
-                itemMetadata.put("depth", depth);
-                itemMetadata.put("crawlJobId", job.getJobId());
-
-                CrawlItem item = CrawlItem.builder()
-                        .url(url)
-                        .parentUrl(depth > 0 ? seed : null)
-                        .depth(depth)
-                        .contentHash(contentHash)
-                        .contentType(contentType)
-                        .discoveredAt(Instant.now())
-                        .sourceDescriptor(DocumentSourceDescriptor.builder()
-                                .type(config.getSourceType() != null ? config.getSourceType() : SourceType.WEB_CRAWL)
-                                .pathOrUrl(url)
-                                .sourceId(url)
-                                .originalFileName(extractFileName(url))
-                                .collectionName(config.getCollectionName())
-                                .build())
-                        .metadata(itemMetadata)
-                        .build();
-
-                webJob.incrementDiscovered();
-                webJob.getListener().onDocumentDiscovered(item);
-                webJob.incrementProcessed();
-                webJob.getListener().onDocumentProcessed(item);
+                job.incrementDiscovered();
+                job.getListener().onDocumentDiscovered(item);
+                job.incrementProcessed();
+                job.getListener().onDocumentProcessed(item);
 
                 // Report progress periodically
-                if (webJob.getDiscoveredCount() % 10 == 0) {
-                    webJob.getListener().onProgress(webJob.getProgress());
+                if (job.getDiscoveredCount() % 10 == 0) {
+                    job.getListener().onProgress(job.getProgress());
                 }
-
-                // Extract links for next depth level
-                if (depth < config.getMaxDepth()) {
-                    Elements links = doc.select("a[href]");
-                    for (Element link : links) {
-                        String href = link.absUrl("href");
-                        if (href.isEmpty()) continue;
-
-                        String normalized = normalizeUrl(href);
-                        if (normalized.isEmpty()) continue;
-
-                        // Domain check
-                        if (config.isSameDomainOnly()) {
-                            try {
-                                String linkDomain = URI.create(normalized).getHost();
-                                if (!seedDomain.equalsIgnoreCase(linkDomain)) continue;
-                            } catch (Exception e) {
-                                continue;
-                            }
+            }
+            rememberFetch(job, url, depth, contentHash, response);
+
+            // Extract links for next depth level
+            if (depth < config.getMaxDepth()) {
+                Elements links = doc.select("a[href]");
+                for (Element link : links) {
+                    String href = link.absUrl("href");
+                    if (href.isEmpty()) continue;
+
+                    String normalized = normalizeUrl(href);
+                    if (normalized.isEmpty()) continue;
+
+                    // Domain check
+                    if (config.isSameDomainOnly()) {
+                        try {
+                            String linkDomain = URI.create(normalized).getHost();
+                            if (!run.seedDomain().equalsIgnoreCase(linkDomain)) continue;
+                        } catch (Exception e) {
+                            continue;
                         }
+                    }
 
-                        // Dedup
-                        if (webJob.visitedUrls.add(normalized)) {
-                            frontier.add(new AbstractMap.SimpleImmutableEntry<>(normalized, depth + 1));
-                        }
+                    // Dedup
+                    if (job.visitedUrls.add(normalized)) {
+                        job.frontier.add(normalized, depth + 1);
                     }
                 }
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception e) {
-                log.warn("Error crawling {}: {}", url, e.getMessage());
-                webJob.recordError(url, e);
             }
+
+        } catch (Exception e) {
+            log.warn("Error crawling {}: {}", url, e.getMessage());
+            fail(job, url, e);
+        }
+    }
+
+    /**
+     * Records what the next crawl needs to revisit this page conditionally.
+     */
+    private void rememberFetch(WebCrawlJob job, String url, int depth, String contentHash,
+                               Connection.Response response) {
+        job.contentHashes.put(url, contentHash);
+        job.urlDepths.merge(url, depth, Math::min);
+        String etag = response.header("ETag");
+        if (etag != null && !etag.isBlank()) {
+            job.etags.put(url, etag);
+        } else {
+            job.etags.remove(url);
+        }
+        Long lastModified = parseHttpDate(response.header("Last-Modified"));
+        if (lastModified != null) {
+            job.lastModifiedTimes.put(url, lastModified);
+        } else {
+            job.lastModifiedTimes.remove(url);
+        }
+    }
+
+    private static void skip(WebCrawlJob job, String url, String reason) {
+        synchronized (job.listenerLock) {
+            job.incrementSkipped();
+            job.getListener().onDocumentSkipped(url, reason);
+        }
+    }
+
+    private static void fail(WebCrawlJob job, String url, Exception e) {
+        synchronized (job.listenerLock) {
+            job.recordError(url, e);
         }
     }
 
+    private static Long parseHttpDate(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static int intProp(CrawlConfig config, String key, int defaultValue) {
+        Object v = config.getProperties() != null ? config.getProperties().get(key) : null;
+        if (v == null) return defaultValue;
+        try {
+            return Integer.parseInt(v.toString().trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns the robots.txt rules of the URL's origin, fetching them on first use.
+     */
+    private Set<String> robotsFor(CrawlRun run, String url, String userAgent) {
+        URI uri = URI.create(url);
+        String origin = uri.getScheme() + "://" + uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+        return run.robots().computeIfAbsent(origin, o -> fetchRobotsTxt(uri, userAgent));
+    }
+
+    /**
+     * Per-crawl settings shared by the workers, and the robots.txt rules fetched so far by origin.
+     */
+    private record CrawlRun(String seedDomain, List<Pattern> includes, List<Pattern> excludes,
+                            Map<String, Set<String>> robots) {
+    }
+
     /**
      * Normalizes a URL by removing fragments, normalizing scheme/host case,
      * and removing trailing slashes.
@@ -298,14 +432,14 @@ public class WebCrawler extends AbstractCrawler {
     }
 
     /**
-     * Fetches and parses robots.txt, returning the set of disallowed paths
-     * for the given user agent.
+     * Fetches and parses robots.txt of the URI's host, returning the set of
+     * disallowed paths for the given user agent.
      */
-    private Set<String> fetchRobotsTxt(URI seedUri, String userAgent) {
+    private Set<String> fetchRobotsTxt(URI uri, String userAgent) {
         Set<String> disallowed = new HashSet<>();
         try {
-            String robotsUrl = seedUri.getScheme() + "://" + seedUri.getHost()
-                    + (seedUri.getPort() > 0 ? ":" + seedUri.getPort() : "")
+            String robotsUrl = uri.getScheme() + "://" + uri.getHost()
+                    + (uri.getPort() > 0 ? ":" + uri.getPort() : "")
                     + "/robots.txt";
             URL url = URI.create(robotsUrl).toURL();
             try (BufferedReader reader = new BufferedReader(
@@ -333,7 +467,7 @@ public class WebCrawler extends AbstractCrawler {
         return disallowed;
     }
 
-    private boolean isDisallowedByRobots(String url, URI seedUri, Set<String> disallowedPaths) {
+    private boolean isDisallowedByRobots(String url, Set<String> disallowedPaths) {
         if (disallowedPaths.isEmpty()) return false;
         try {
             String path = URI.create(url).getPath();
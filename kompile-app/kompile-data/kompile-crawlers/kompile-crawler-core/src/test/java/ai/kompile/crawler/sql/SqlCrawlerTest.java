@@ -355,6 +355,159 @@ class SqlCrawlerTest {
         assertEquals(3, skipped.size());
     }
 
+    @Test
+    void testWatermarkCrawlPicksUpInsertedAndUpdatedRows() throws Exception {
+        try (Connection conn = DriverManager.getConnection(jdbcUrl);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE notes (id INTEGER PRIMARY KEY, body TEXT, updated_at TEXT)");
+            stmt.execute("INSERT INTO notes VALUES (1, 'first', '2025-01-01 10:00:00')");
+            stmt.execute("INSERT INTO notes VALUES (2, 'second', '2025-01-01 11:00:00')");
+            stmt.execute("INSERT INTO notes VALUES (3, 'third', '2025-01-01 11:00:00')");
+        }
+        SqlCrawler crawler = new SqlCrawler();
+        Map<String, Object> props = Map.of("tables", "notes", "watermarkColumn", "modified_at,updated_at");
+
+        List<CrawlItem> discovered1 = new CopyOnWriteArrayList<>();
+        CrawlJob job1 = crawler.start(CrawlConfig.builder()
+                .seed(jdbcUrl)
+                .sourceType(SourceType.SQL)
+                .properties(props)
+                .build(), collecting(discovered1, new CopyOnWriteArrayList<>()));
+        job1.getCompletionFuture().get();
+        assertEquals(List.of("1", "2", "3"), rowIds(discovered1));
+
+        CrawlState state = ((SqlCrawlJob) job1).checkpoint();
+        assertTrue(state.getProperties().containsKey(SqlCrawlJob.PROP_WATERMARKS));
+        assertEquals(new SqlWatermark("updated_at", "2025-01-01 11:00:00"),
+                ((SqlCrawlJob) job1).watermarks.get("notes"));
+
+        try (Connection conn = DriverManager.getConnection(jdbcUrl);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE notes SET body = 'second, edited', updated_at = '2025-01-02 09:00:00' WHERE id = 2");
+            stmt.execute("INSERT INTO notes VALUES (4, 'fourth', '2025-01-02 08:00:00')");
+        }
+
+        List<CrawlItem> discovered2 = new CopyOnWriteArrayList<>();
+        List<String> skipped = new CopyOnWriteArrayList<>();
+        CrawlJob job2 = crawler.start(CrawlConfig.builder()
+                .seed(jdbcUrl)
+                .sourceType(SourceType.SQL)
+                .properties(props)
+                .previousState(state)
+                .build(), collecting(discovered2, skipped));
+        job2.getCompletionFuture().get();
+
+        // Only the new and the updated row, in watermark order; no table document for a partial read
+        assertEquals(List.of("4", "2"), rowIds(discovered2));
+        assertEquals(2, discovered2.size());
+        assertTrue(skipped.isEmpty());
+        assertTrue(Files.readString(Path.of(discovered2.get(1).getUrl())).contains("second, edited"));
+        assertEquals("2025-01-02 09:00:00", ((SqlCrawlJob) job2).watermarks.get("notes").value());
+    }
+
+    @Test
+    void testWatermarkCrawlOfTableWithoutPrimaryKeyUsesContentIds() throws Exception {
+        try (Connection conn = DriverManager.getConnection(jdbcUrl);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE log_lines (line TEXT, updated_at TEXT)");
+            stmt.execute("INSERT INTO log_lines VALUES ('boot', '2025-01-01 10:00:00')");
+            stmt.execute("INSERT INTO log_lines VALUES ('ready', '2025-01-01 11:00:00')");
+        }
+        SqlCrawler crawler = new SqlCrawler();
+        Map<String, Object> props = Map.of("tables", "log_lines", "watermarkColumn", "updated_at");
+
+        List<CrawlItem> discovered1 = new CopyOnWriteArrayList<>();
+        CrawlJob job1 = crawler.start(CrawlConfig.builder()
+                .seed(jdbcUrl)
+                .sourceType(SourceType.SQL)
+                .properties(props)
+                .build(), collecting(discovered1, new CopyOnWriteArrayList<>()));
+        job1.getCompletionFuture().get();
+        List<String> firstIds = rowIds(discovered1);
+        assertEquals(2, new HashSet<>(firstIds).size());
+        assertFalse(firstIds.contains("0"), "row ids must not depend on the row's position in the read");
+
+        try (Connection conn = DriverManager.getConnection(jdbcUrl);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO log_lines VALUES ('shutdown', '2025-01-02 08:00:00')");
+        }
+
+        List<CrawlItem> discovered2 = new CopyOnWriteArrayList<>();
+        CrawlJob job2 = crawler.start(CrawlConfig.builder()
+                .seed(jdbcUrl)
+                .sourceType(SourceType.SQL)
+                .properties(props)
+                .previousState(((SqlCrawlJob) job1).checkpoint())
+                .build(), collecting(discovered2, new CopyOnWriteArrayList<>()));
+        job2.getCompletionFuture().get();
+
+        // The only new row must not take over the id of the first row of the previous crawl
+        List<String> secondIds = rowIds(discovered2);
+        assertEquals(1, secondIds.size());
+        assertFalse(firstIds.contains(secondIds.get(0)));
+    }
+
+    @Test
+    void testPartitionedCrawlReadsEveryRowOnce() throws Exception {
+        try (Connection conn = DriverManager.getConnection(jdbcUrl);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE events (id INTEGER PRIMARY KEY, payload TEXT)");
+            for (int i = 1; i <= 103; i++) {
+                stmt.execute("INSERT INTO events VALUES (" + (i * 7) + ", 'event " + i + "')");
+            }
+        }
+        SqlCrawler crawler = new SqlCrawler();
+        Map<String, Object> props = Map.of("tables", "events", "partitions", "4",
+                "partitionMinRows", "50", "watermarkColumn", "id");
+
+        List<CrawlItem> discovered1 = new CopyOnWriteArrayList<>();
+        CrawlJob job1 = crawler.start(CrawlConfig.builder()
+                .seed(jdbcUrl)
+                .sourceType(SourceType.SQL)
+                .properties(props)
+                .build(), collecting(discovered1, new CopyOnWriteArrayList<>()));
+        CrawlSummary summary = job1.getCompletionFuture().get();
+        assertEquals(CrawlStatus.COMPLETED, summary.status());
+
+        List<String> ids = rowIds(discovered1);
+        assertEquals(103, ids.size());
+        assertEquals(103, new HashSet<>(ids).size());
+        assertEquals(721L, ((SqlCrawlJob) job1).watermarks.get("events").value());
+
+        try (Connection conn = DriverManager.getConnection(jdbcUrl);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO events VALUES (1000, 'late event')");
+        }
+
+        List<CrawlItem> discovered2 = new CopyOnWriteArrayList<>();
+        CrawlJob job2 = crawler.start(CrawlConfig.builder()
+                .seed(jdbcUrl)
+                .sourceType(SourceType.SQL)
+                .properties(props)
+                .previousState(((SqlCrawlJob) job1).checkpoint())
+                .build(), collecting(discovered2, new CopyOnWriteArrayList<>()));
+        job2.getCompletionFuture().get();
+        assertEquals(List.of("1000"), rowIds(discovered2));
+    }
+
+    @Test
+    void testWatermarkEncoding() {
+        for (Object value : List.of(42L, new java.math.BigDecimal("12.50"), 0.25,
+                java.sql.Timestamp.valueOf("2025-03-04 05:06:07.123"), java.sql.Date.valueOf("2025-03-04"), "v2")) {
+            SqlWatermark watermark = new SqlWatermark("col", value);
+            assertEquals(watermark, SqlWatermark.decode(new HashMap<>(watermark.encode())));
+        }
+        assertNull(SqlWatermark.decode(Map.of("column", "col", "type", "long", "value", "x")));
+        assertNull(SqlWatermark.decode("not a map"));
+
+        assertEquals(7L, SqlWatermark.normalize(7));
+        assertEquals(7L, SqlWatermark.normalize(new java.math.BigDecimal("7")));
+        assertEquals(java.sql.Timestamp.valueOf("2025-03-04 05:06:07"),
+                SqlWatermark.normalize(java.time.LocalDateTime.of(2025, 3, 4, 5, 6, 7)));
+        assertEquals(9L, SqlWatermark.max(9L, 3L));
+        assertEquals("b", SqlWatermark.max(null, "b"));
+    }
+
     @Test
     void testCheckpointState() {
         CrawlConfig config = CrawlConfig.builder()
@@ -398,4 +551,25 @@ class SqlCrawlerTest {
         assertArrayEquals(new String[]{"id", "name"}, entry.columnNames());
         assertEquals(42, entry.columns().get("id"));
     }
+
+    private static CrawlEventListener collecting(List<CrawlItem> discovered, List<String> skipped) {
+        return new CrawlEventListener() {
+            @Override
+            public void onDocumentDiscovered(CrawlItem item) {
+                discovered.add(item);
+            }
+
+            @Override
+            public void onDocumentSkipped(String url, String reason) {
+                skipped.add(url);
+            }
+        };
+    }
+
+    private static List<String> rowIds(List<CrawlItem> items) {
+        return items.stream()
+                .filter(item -> "database-row".equals(item.getMetadata().get(GraphConstants.META_DOCUMENT_TYPE)))
+                .map(item -> String.valueOf(item.getMetadata().get(GraphConstants.META_SQL_ROW_ID)))
+                .toList();
+    }
 }
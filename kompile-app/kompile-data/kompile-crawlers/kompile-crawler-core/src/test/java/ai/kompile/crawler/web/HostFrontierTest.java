@@ -0,0 +1,119 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.crawler.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HostFrontier")
+class HostFrontierTest {
+
+    @Test
+    @DisplayName("Drains in FIFO order per host and returns null when empty")
+    void drainsInOrder() throws Exception {
+        HostFrontier frontier = new HostFrontier(Duration.ZERO, 1);
+        frontier.add("https://a.com/1", 0);
+        frontier.add("https://a.com/2", 1);
+
+        HostFrontier.Entry first = frontier.take();
+        assertEquals("https://a.com/1", first.url());
+        assertEquals("a.com", first.host());
+        frontier.release(first);
+        HostFrontier.Entry second = frontier.take();
+        assertEquals("https://a.com/2", second.url());
+        assertEquals(1, second.depth());
+        frontier.release(second);
+
+        assertNull(frontier.take());
+        assertTrue(frontier.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Spaces requests to one host by the delay")
+    void spacesRequestsPerHost() throws Exception {
+        HostFrontier frontier = new HostFrontier(Duration.ofMillis(200), 1);
+        frontier.add("https://a.com/1", 0);
+        frontier.add("https://a.com/2", 0);
+
+        long start = System.nanoTime();
+        frontier.release(frontier.take());
+        frontier.release(frontier.take());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs >= 190, "second request came after " + elapsedMs + " ms");
+    }
+
+    @Test
+    @DisplayName("Other hosts are not held up by a host's delay or in-flight request")
+    void hostsAreIndependent() throws Exception {
+        HostFrontier frontier = new HostFrontier(Duration.ofSeconds(30), 1);
+        frontier.add("https://a.com/1", 0);
+        frontier.add("https://a.com/2", 0);
+        frontier.add("https://b.com/1", 0);
+
+        long start = System.nanoTime();
+        HostFrontier.Entry a = frontier.take();
+        HostFrontier.Entry b = frontier.take();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("a.com", a.host());
+        assertEquals("b.com", b.host());
+        assertTrue(elapsedMs < 5_000, "took " + elapsedMs + " ms");
+        assertEquals(3, frontier.pending().size());
+    }
+
+    @Test
+    @DisplayName("Burst allows back-to-back requests after idling")
+    void burstAllowsBackToBack() throws Exception {
+        HostFrontier frontier = new HostFrontier(Duration.ofSeconds(30), 2);
+        frontier.add("https://a.com/1", 0);
+        frontier.add("https://a.com/2", 0);
+
+        frontier.release(frontier.take());
+        HostFrontier.Entry second = frontier.take();
+
+        assertEquals("https://a.com/2", second.url());
+    }
+
+    @Test
+    @DisplayName("Close wakes waiting workers and keeps queued entries")
+    void closeWakesWaiters() throws Exception {
+        HostFrontier frontier = new HostFrontier(Duration.ofSeconds(30), 1);
+        frontier.add("https://a.com/1", 0);
+        frontier.add("https://a.com/2", 0);
+        HostFrontier.Entry first = frontier.take();
+
+        Thread closer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            frontier.close();
+        });
+        closer.start();
+
+        assertNull(frontier.take());
+        frontier.release(first);
+        assertEquals(1, frontier.pending().size());
+        assertEquals("https://a.com/2", frontier.pending().get(0).url());
+    }
+}
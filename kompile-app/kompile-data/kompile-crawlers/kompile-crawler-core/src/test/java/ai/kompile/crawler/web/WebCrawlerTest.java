@@ -16,13 +16,26 @@
 
 package ai.kompile.crawler.web;
 
-import ai.kompile.core.crawler.CrawlConfig;
+import ai.kompile.core.crawler.*;
 import ai.kompile.core.loaders.DocumentSourceDescriptor.SourceType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import java.util.Set;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,12 +43,21 @@ import static org.junit.jupiter.api.Assertions.*;
 class WebCrawlerTest {
 
     private WebCrawler crawler;
+    private TestSite site;
 
     @BeforeEach
     void setUp() {
         crawler = new WebCrawler();
     }
 
+    @AfterEach
+    void tearDown() {
+        if (site != null) {
+            site.close();
+        }
+        crawler.shutdown();
+    }
+
     @Test
     @DisplayName("Supports URL and WEB_CRAWL source types")
     void supportsUrlAndWebCrawlSourceTypes() {
@@ -117,4 +139,225 @@ class WebCrawlerTest {
                 .build();
         assertTrue(config.isRespectRobotsTxt());
     }
+
+    // ── Crawling against a local server ─────────────────────────────────────
+
+    @Test
+    @DisplayName("Crawls linked pages once each with concurrent workers")
+    void crawlsLinkedPages() throws Exception {
+        site = new TestSite();
+        site.page("/", "<a href=\"/a\">a</a> <a href=\"/b\">b</a>");
+        site.page("/a", "<a href=\"/c\">c</a> <a href=\"/\">home</a>");
+        site.page("/b", "B");
+        site.page("/c", "C");
+
+        CrawlResult result = runCrawl(config().build());
+
+        assertEquals(CrawlStatus.COMPLETED, result.summary.status());
+        assertEquals(Set.of(site.url("/"), site.url("/a"), site.url("/b"), site.url("/c")),
+                result.discoveredUrls());
+        assertEquals(4, result.discovered.size());
+        assertEquals(0, result.summary.totalFailed());
+    }
+
+    @Test
+    @DisplayName("Keeps the request delay per host while crawling concurrently")
+    void keepsPerHostDelay() throws Exception {
+        site = new TestSite();
+        site.page("/", "<a href=\"/1\">1</a> <a href=\"/2\">2</a> <a href=\"/3\">3</a>");
+        site.page("/1", "one");
+        site.page("/2", "two");
+        site.page("/3", "three");
+
+        runCrawl(config().requestDelay(Duration.ofMillis(150)).build());
+
+        List<Long> starts = site.requests.stream().map(r -> r.nanos).sorted().toList();
+        assertEquals(4, starts.size());
+        for (int i = 1; i < starts.size(); i++) {
+            long gapMs = (starts.get(i) - starts.get(i - 1)) / 1_000_000;
+            assertTrue(gapMs >= 140, "requests " + (i - 1) + " and " + i + " were " + gapMs + " ms apart");
+        }
+    }
+
+    @Test
+    @DisplayName("Re-crawl sends conditional requests and skips pages that were not modified")
+    void conditionalRecrawl() throws Exception {
+        site = new TestSite();
+        site.page("/", "<a href=\"/a\">a</a>").etag = "\"v1\"";
+        site.page("/a", "A").lastModified = "Tue, 03 Jun 2025 11:05:30 GMT";
+
+        CrawlResult first = runCrawl(config().build());
+        assertEquals(2, first.discovered.size());
+        CrawlState state = first.summary.finalState();
+        assertEquals("\"v1\"", state.getEtags().get(site.url("/")));
+        assertNotNull(state.getLastModifiedTimes().get(site.url("/a")));
+
+        site.requests.clear();
+        CrawlResult second = runCrawl(config().previousState(state).build());
+
+        assertTrue(second.discovered.isEmpty());
+        assertEquals(2, second.skipped.size());
+        assertTrue(second.skipped.values().stream().allMatch(r -> r.contains("not modified")));
+        Map<String, Request> byPath = site.requests.stream().collect(Collectors.toMap(r -> r.path, r -> r));
+        assertEquals("\"v1\"", byPath.get("/").ifNoneMatch);
+        assertEquals("Tue, 03 Jun 2025 11:05:30 GMT", byPath.get("/a").ifModifiedSince);
+        // Validators are carried over to the next crawl
+        assertEquals("\"v1\"", second.summary.finalState().getEtags().get(site.url("/")));
+        assertEquals(Map.of(site.url("/"), 0, site.url("/a"), 1), second.summary.finalState().getUrlDepths());
+    }
+
+    @Test
+    @DisplayName("Re-crawl emits changed pages and skips unchanged content by hash")
+    void recrawlByContentHash() throws Exception {
+        site = new TestSite();
+        site.page("/", "<a href=\"/a\">a</a>");
+        site.page("/a", "old");
+
+        CrawlResult first = runCrawl(config().build());
+        assertEquals(2, first.discovered.size());
+
+        site.page("/a", "new <a href=\"/b\">b</a>");
+        site.page("/b", "B");
+        CrawlResult second = runCrawl(config().previousState(first.summary.finalState()).build());
+
+        assertEquals(Set.of(site.url("/a"), site.url("/b")), second.discoveredUrls());
+        assertEquals("content unchanged since last crawl", second.skipped.get(site.url("/")));
+    }
+
+    @Test
+    @DisplayName("Stops at the document limit with concurrent workers")
+    void stopsAtDocumentLimit() throws Exception {
+        site = new TestSite();
+        StringBuilder links = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            links.append("<a href=\"/p").append(i).append("\">p</a> ");
+            site.page("/p" + i, "page " + i);
+        }
+        site.page("/", links.toString());
+
+        CrawlResult result = runCrawl(config().maxDocuments(5).build());
+
+        assertEquals(5, result.discovered.size());
+        assertFalse(result.summary.finalState().getPendingUrls().isEmpty());
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────────
+
+    private CrawlConfig.CrawlConfigBuilder config() {
+        return CrawlConfig.builder()
+                .seed(site.url("/"))
+                .requestDelay(Duration.ZERO)
+                .respectRobotsTxt(false)
+                .properties(new HashMap<>(Map.of(WebCrawler.PROP_MAX_CONCURRENCY, 4)));
+    }
+
+    private CrawlResult runCrawl(CrawlConfig config) throws InterruptedException {
+        CrawlResult result = new CrawlResult();
+        CountDownLatch completionLatch = new CountDownLatch(1);
+        crawler.start(config, new CrawlEventListener() {
+            @Override
+            public void onDocumentDiscovered(CrawlItem item) {
+                result.discovered.add(item);
+            }
+
+            @Override
+            public void onDocumentSkipped(String url, String reason) {
+                result.skipped.put(url, reason);
+            }
+
+            @Override
+            public void onComplete(CrawlSummary summary) {
+                result.summary = summary;
+                completionLatch.countDown();
+            }
+        });
+        assertTrue(completionLatch.await(30, TimeUnit.SECONDS), "Crawl did not complete within timeout");
+        return result;
+    }
+
+    private static class CrawlResult {
+        final List<CrawlItem> discovered = new CopyOnWriteArrayList<>();
+        final Map<String, String> skipped = new ConcurrentHashMap<>();
+        CrawlSummary summary;
+
+        Set<String> discoveredUrls() {
+            return discovered.stream().map(CrawlItem::getUrl).collect(Collectors.toSet());
+        }
+    }
+
+    private record Request(String path, String ifNoneMatch, String ifModifiedSince, long nanos) {
+    }
+
+    /**
+     * Small site served by the JDK HTTP server, answering conditional requests.
+     */
+    private static class TestSite {
+        final HttpServer server;
+        final Map<String, Page> pages = new ConcurrentHashMap<>();
+        final List<Request> requests = new CopyOnWriteArrayList<>();
+
+        TestSite() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", this::handle);
+            server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+            server.start();
+        }
+
+        Page page(String path, String body) {
+            Page page = new Page("<html><head><title>" + path + "</title></head><body>" + body + "</body></html>");
+            pages.put(path, page);
+            return page;
+        }
+
+        String url(String path) {
+            return WebCrawler.normalizeUrl("http://localhost:" + server.getAddress().getPort() + path);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+            requests.add(new Request(path, ifNoneMatch, ifModifiedSince, System.nanoTime()));
+
+            Page page = pages.get(path);
+            if (page == null) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            boolean notModified = (page.etag != null && page.etag.equals(ifNoneMatch))
+                    || (page.lastModified != null && page.lastModified.equals(ifModifiedSince));
+            if (page.etag != null) {
+                exchange.getResponseHeaders().set("ETag", page.etag);
+            }
+            if (page.lastModified != null) {
+                exchange.getResponseHeaders().set("Last-Modified", page.lastModified);
+            }
+            if (notModified) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = page.html.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        void close() {
+            server.stop(0);
+        }
+    }
+
+    private static class Page {
+        final String html;
+        volatile String etag;
+        volatile String lastModified;
+
+        Page(String html) {
+            this.html = html;
+        }
+    }
 }
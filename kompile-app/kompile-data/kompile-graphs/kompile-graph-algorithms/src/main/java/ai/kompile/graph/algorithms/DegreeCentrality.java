@@ -37,11 +37,17 @@ public final class DegreeCentrality {
             case OUT -> MatrixGraphAlgorithms.DegreeType.OUT;
             case TOTAL -> MatrixGraphAlgorithms.DegreeType.TOTAL;
         };
-        INDArray degrees = MatrixGraphAlgorithms.degrees(view.toAdjacencyMatrix(), matrixType);
-
         Map<String, Double> unsorted = new LinkedHashMap<>(n);
-        for (int i = 0; i < n; i++) {
-            unsorted.put(nodeIds.get(i), degrees.getDouble(i));
+        if (n <= MatrixGraphAlgorithms.denseMaxNodes()) {
+            INDArray degrees = MatrixGraphAlgorithms.degrees(view.toAdjacencyMatrix(), matrixType);
+            for (int i = 0; i < n; i++) {
+                unsorted.put(nodeIds.get(i), degrees.getDouble(i));
+            }
+        } else {
+            double[] degrees = MatrixGraphAlgorithms.degrees(view.sparseAdjacency(), matrixType);
+            for (int i = 0; i < n; i++) {
+                unsorted.put(nodeIds.get(i), degrees[i]);
+            }
         }
         return unsorted.entrySet().stream()
                 .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
@@ -17,7 +17,8 @@ import java.util.Map;
 
 /**
  * PageRank via power iteration. Delegates to {@link MatrixGraphAlgorithms#pageRank}
- * so the ND4J-based implementation is shared with the matrix-graph subsystem.
+ * so the implementation is shared with the matrix-graph subsystem: the ND4J dense path
+ * for small views, the CSR path above {@link MatrixGraphAlgorithms#denseMaxNodes()}.
  */
 public final class PageRankAlgorithm {
 
@@ -35,8 +36,11 @@ public final class PageRankAlgorithm {
                                                 double damping,
                                                 int maxIterations,
                                                 double tolerance) {
-        Map<String, Double> raw = MatrixGraphAlgorithms.pageRank(
-                view.toAdjacencyMatrix(), view.nodeIds(), damping, tolerance, maxIterations);
+        Map<String, Double> raw = view.size() <= MatrixGraphAlgorithms.denseMaxNodes()
+                ? MatrixGraphAlgorithms.pageRank(
+                        view.toAdjacencyMatrix(), view.nodeIds(), damping, tolerance, maxIterations)
+                : MatrixGraphAlgorithms.pageRank(
+                        view.sparseAdjacency(), view.nodeIds(), damping, tolerance, maxIterations);
         return raw.entrySet().stream()
                 .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
                 .collect(LinkedHashMap::new,
@@ -19,15 +19,17 @@ import java.util.Set;
 
 /**
  * Weakly Connected Components. Delegates to {@link MatrixGraphAlgorithms#findConnectedComponents}
- * which runs BFS over the symmetrized adjacency matrix.
+ * which runs BFS over the symmetrized adjacency matrix, or union-find over the CSR
+ * adjacency for views larger than {@link MatrixGraphAlgorithms#denseMaxNodes()}.
  */
 public final class WeaklyConnectedComponents {
 
     private WeaklyConnectedComponents() {}
 
     public static Map<String, Integer> compute(AdjacencyView view) {
-        List<Set<String>> components = MatrixGraphAlgorithms.findConnectedComponents(
-                view.toAdjacencyMatrix(), view.nodeIds());
+        List<Set<String>> components = view.size() <= MatrixGraphAlgorithms.denseMaxNodes()
+                ? MatrixGraphAlgorithms.findConnectedComponents(view.toAdjacencyMatrix(), view.nodeIds())
+                : MatrixGraphAlgorithms.findConnectedComponents(view.sparseAdjacency(), view.nodeIds());
         Map<String, Integer> assignments = new HashMap<>();
         for (int cid = 0; cid < components.size(); cid++) {
             for (String nodeId : components.get(cid)) {
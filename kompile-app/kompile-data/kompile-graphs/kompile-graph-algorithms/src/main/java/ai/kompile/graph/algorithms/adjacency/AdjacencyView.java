@@ -9,6 +9,7 @@
  */
 package ai.kompile.graph.algorithms.adjacency;
 
+import ai.kompile.knowledgegraph.matrix.model.SparseAdjacency;
 import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
@@ -34,6 +35,7 @@ public final class AdjacencyView {
     private final Map<String, List<String>> outNeighbors;
     private final Map<String, List<String>> inNeighbors;
     private final Map<String, Map<String, Double>> outWeights;
+    private volatile SparseAdjacency sparse;
 
     private AdjacencyView(List<String> nodeIds,
                           Map<String, List<String>> outNeighbors,
@@ -130,6 +132,36 @@ public final class AdjacencyView {
         return adj;
     }
 
+    /**
+     * Returns the view as a CSR {@link SparseAdjacency} with the same entries as
+     * {@link #toAdjacencyMatrix()}. Built on first use and cached, since the view is
+     * immutable; preferred over the dense matrix once the view exceeds
+     * {@code MatrixGraphAlgorithms.denseMaxNodes()} nodes.
+     */
+    public SparseAdjacency sparseAdjacency() {
+        SparseAdjacency s = sparse;
+        if (s == null) {
+            synchronized (this) {
+                s = sparse;
+                if (s == null) {
+                    SparseAdjacency.Builder builder = SparseAdjacency.builder(nodeIds.size());
+                    for (Map.Entry<String, Map<String, Double>> row : outWeights.entrySet()) {
+                        Integer i = indexById.get(row.getKey());
+                        if (i == null) continue;
+                        for (Map.Entry<String, Double> e : row.getValue().entrySet()) {
+                            Integer j = indexById.get(e.getKey());
+                            if (j == null) continue;
+                            builder.add(i, j, e.getValue().floatValue());
+                        }
+                    }
+                    s = builder.build();
+                    sparse = s;
+                }
+            }
+        }
+        return s;
+    }
+
     public static final class Builder {
         private final List<String> nodes = new ArrayList<>();
         private final Set<String> nodeSet = new HashSet<>();
@@ -17,6 +17,7 @@ package ai.kompile.knowledgegraph.matrix.algorithms;
 
 import ai.kompile.knowledgegraph.matrix.model.AdjacencyMatrixGraph;
 import ai.kompile.knowledgegraph.matrix.model.MatrixGraphNode;
+import ai.kompile.knowledgegraph.matrix.model.SparseAdjacency;
 import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.api.ndarray.INDArray;
@@ -25,6 +26,8 @@ import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.ops.transforms.Transforms;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Matrix-based graph algorithms using ND4J for efficient computation.
@@ -32,6 +35,12 @@ import java.util.*;
  * This class provides optimized implementations of common graph algorithms
  * using matrix operations, enabling fast computation on large graphs.
  * </p>
+ * <p>
+ * Graphs with more than {@link #denseMaxNodes()} nodes never materialize a dense
+ * {@code [n × n]} matrix: PageRank, HITS, degrees and connected components run as
+ * sparse loops over a {@link SparseAdjacency} (CSR), split by row range across the
+ * common {@link ForkJoinPool}. BFS-based algorithms always use the sparse form.
+ * </p>
  */
 @Slf4j
 public class MatrixGraphAlgorithms {
@@ -51,10 +60,28 @@ public class MatrixGraphAlgorithms {
      */
     public static final int DEFAULT_MAX_ITERATIONS = 100;
 
+    /**
+     * Largest graph (in nodes) for which the dense ND4J path is used. Overridable via
+     * the {@code kompile.graph.denseMaxNodes} system property.
+     */
+    public static final int DEFAULT_DENSE_MAX_NODES = 2048;
+
+    /**
+     * Rows per fork-join leaf task in the sparse kernels.
+     */
+    private static final int ROWS_PER_TASK = 8192;
+
     private MatrixGraphAlgorithms() {
         // Utility class
     }
 
+    /**
+     * @return the node count above which algorithms switch from dense matrices to CSR
+     */
+    public static int denseMaxNodes() {
+        return Integer.getInteger("kompile.graph.denseMaxNodes", DEFAULT_DENSE_MAX_NODES);
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════
     // PAGERANK
     // ═══════════════════════════════════════════════════════════════════════════
@@ -86,6 +113,9 @@ public class MatrixGraphAlgorithms {
         if (n == 0) {
             return Collections.emptyMap();
         }
+        if (n > denseMaxNodes()) {
+            return pageRank(graph.getSparseAdjacency(), nodeIdsOf(graph), dampingFactor, convergence, maxIterations);
+        }
         // getCombinedAdjacencyMatrix() now returns a compact [n×n] matrix built on demand
         // from sparse storage. We own this array and must close it when done.
         INDArray adj = graph.getCombinedAdjacencyMatrix();
@@ -150,6 +180,81 @@ public class MatrixGraphAlgorithms {
         return result;
     }
 
+    /**
+     * Sparse PageRank over a CSR adjacency, numerically equivalent to the dense overload.
+     * Each iteration pulls rank along incoming edges (the CSC view), so every row of the
+     * new rank vector is written by exactly one task and no locking is needed.
+     */
+    public static Map<String, Double> pageRank(SparseAdjacency adj,
+                                                List<String> nodeIds,
+                                                double dampingFactor,
+                                                double convergence,
+                                                int maxIterations) {
+        int n = nodeIds.size();
+        if (n == 0) return Collections.emptyMap();
+
+        SparseAdjacency in = adj.transpose();
+        int[] inOffsets = in.offsets();
+        int[] inSources = in.targets();
+        float[] inWeights = in.weights();
+
+        double[] outWeight = new double[n];
+        forEachRowRange(n, (from, to) -> {
+            for (int i = from; i < to; i++) outWeight[i] = adj.rowWeightSum(i);
+            return 0.0;
+        });
+
+        double[] pr = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        Arrays.fill(pr, 1.0 / n);
+
+        for (int iter = 0; iter < maxIterations; iter++) {
+            double[] rank = pr;
+            double[] newRank = next;
+            // Rank each node passes along per unit of edge weight; dangling nodes spread uniformly.
+            double danglingMass = forEachRowRange(n, (from, to) -> {
+                double dangling = 0;
+                for (int i = from; i < to; i++) {
+                    if (outWeight[i] == 0) {
+                        share[i] = 0;
+                        dangling += rank[i];
+                    } else {
+                        share[i] = rank[i] / outWeight[i];
+                    }
+                }
+                return dangling;
+            });
+            double base = (1 - dampingFactor) / n + dampingFactor * danglingMass / n;
+            double diffSquared = forEachRowRange(n, (from, to) -> {
+                double sq = 0;
+                for (int j = from; j < to; j++) {
+                    double sum = 0;
+                    for (int k = inOffsets[j], end = inOffsets[j + 1]; k < end; k++) {
+                        sum += share[inSources[k]] * inWeights[k];
+                    }
+                    double value = base + dampingFactor * sum;
+                    double d = value - rank[j];
+                    sq += d * d;
+                    newRank[j] = value;
+                }
+                return sq;
+            });
+            next = pr;
+            pr = newRank;
+            if (Math.sqrt(diffSquared) < convergence) {
+                log.debug("Sparse PageRank converged after {} iterations", iter + 1);
+                break;
+            }
+        }
+
+        Map<String, Double> result = new HashMap<>(n);
+        for (int i = 0; i < n; i++) {
+            result.put(nodeIds.get(i), pr[i]);
+        }
+        return result;
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════
     // HITS (Hyperlink-Induced Topic Search)
     // ═══════════════════════════════════════════════════════════════════════════
@@ -182,6 +287,9 @@ public class MatrixGraphAlgorithms {
         if (n == 0) {
             return new HITSResult(Collections.emptyMap(), Collections.emptyMap());
         }
+        if (n > denseMaxNodes()) {
+            return hits(graph.getSparseAdjacency(), nodeIdsOf(graph), convergence, maxIterations);
+        }
 
         // getCombinedAdjacencyMatrix() returns compact [n×n]; owned by this call.
         INDArray adj = graph.getCombinedAdjacencyMatrix();
@@ -238,6 +346,91 @@ public class MatrixGraphAlgorithms {
         }
     }
 
+    /**
+     * Sparse HITS over a CSR adjacency: authorities pull hub scores along incoming edges,
+     * hubs pull authority scores along outgoing edges. Nodes with a null ID are skipped in
+     * the result, as in the dense overload.
+     */
+    public static HITSResult hits(SparseAdjacency adj, List<String> nodeIds, double convergence, int maxIterations) {
+        int n = nodeIds.size();
+        if (n == 0) {
+            return new HITSResult(Collections.emptyMap(), Collections.emptyMap());
+        }
+        SparseAdjacency in = adj.transpose();
+
+        double[] hubs = new double[n];
+        double[] authorities = new double[n];
+        double[] newHubs = new double[n];
+        double[] newAuth = new double[n];
+        Arrays.fill(hubs, 1.0);
+        Arrays.fill(authorities, 1.0);
+
+        for (int iter = 0; iter < maxIterations; iter++) {
+            // Authority update: a = A^T * h
+            double authNorm = Math.sqrt(multiplyInto(in, hubs, newAuth));
+            double authDiff = Math.sqrt(normalizeAndDiff(newAuth, authNorm, authorities));
+
+            // Hub update: h = A * a
+            double hubNorm = Math.sqrt(multiplyInto(adj, newAuth, newHubs));
+            double hubDiff = Math.sqrt(normalizeAndDiff(newHubs, hubNorm, hubs));
+
+            System.arraycopy(newAuth, 0, authorities, 0, n);
+            System.arraycopy(newHubs, 0, hubs, 0, n);
+
+            if (authDiff < convergence && hubDiff < convergence) {
+                log.debug("Sparse HITS converged after {} iterations", iter + 1);
+                break;
+            }
+        }
+
+        Map<String, Double> hubScores = new HashMap<>();
+        Map<String, Double> authorityScores = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            String nodeId = nodeIds.get(i);
+            if (nodeId != null) {
+                hubScores.put(nodeId, hubs[i]);
+                authorityScores.put(nodeId, authorities[i]);
+            }
+        }
+        return new HITSResult(hubScores, authorityScores);
+    }
+
+    /**
+     * {@code out = m · x}; returns the squared L2 norm of {@code out}.
+     */
+    private static double multiplyInto(SparseAdjacency m, double[] x, double[] out) {
+        int[] offsets = m.offsets();
+        int[] cols = m.targets();
+        float[] weights = m.weights();
+        return forEachRowRange(m.size(), (from, to) -> {
+            double sq = 0;
+            for (int i = from; i < to; i++) {
+                double sum = 0;
+                for (int k = offsets[i], end = offsets[i + 1]; k < end; k++) {
+                    sum += weights[k] * x[cols[k]];
+                }
+                out[i] = sum;
+                sq += sum * sum;
+            }
+            return sq;
+        });
+    }
+
+    /**
+     * Divides {@code v} by {@code norm} (if positive); returns the squared L2 distance to {@code previous}.
+     */
+    private static double normalizeAndDiff(double[] v, double norm, double[] previous) {
+        return forEachRowRange(v.length, (from, to) -> {
+            double sq = 0;
+            for (int i = from; i < to; i++) {
+                if (norm > 0) v[i] /= norm;
+                double d = previous[i] - v[i];
+                sq += d * d;
+            }
+            return sq;
+        });
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════
     // SIMILARITY METRICS
     // ═══════════════════════════════════════════════════════════════════════════
@@ -372,6 +565,9 @@ public class MatrixGraphAlgorithms {
     public static List<Set<String>> findConnectedComponents(AdjacencyMatrixGraph graph) {
         int n = graph.getNodeCount();
         if (n == 0) return Collections.emptyList();
+        if (n > denseMaxNodes()) {
+            return findConnectedComponents(graph.getSparseAdjacency(), nodeIdsOf(graph));
+        }
         // compact [n×n] — owned here, closed after use
         INDArray adj = graph.getCombinedAdjacencyMatrix();
         try {
@@ -419,6 +615,54 @@ public class MatrixGraphAlgorithms {
         return components;
     }
 
+    /**
+     * Sparse weakly connected components via union-find over the stored edges with positive
+     * weight. Components are returned in the same order as the dense overload (by their
+     * lowest node index).
+     */
+    public static List<Set<String>> findConnectedComponents(SparseAdjacency adj, List<String> nodeIds) {
+        int n = nodeIds.size();
+        if (n == 0) return Collections.emptyList();
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+        int[] offsets = adj.offsets();
+        int[] targets = adj.targets();
+        float[] weights = adj.weights();
+        for (int i = 0; i < n; i++) {
+            for (int k = offsets[i], end = offsets[i + 1]; k < end; k++) {
+                if (weights[k] + adj.weight(targets[k], i) <= 0) continue;
+                int a = find(parent, i);
+                int b = find(parent, targets[k]);
+                if (a != b) {
+                    // Keep the lower index as root so component order follows the lowest member
+                    if (a < b) parent[b] = a;
+                    else parent[a] = b;
+                }
+            }
+        }
+
+        int[] componentOf = new int[n];
+        List<Set<String>> components = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int root = find(parent, i);
+            if (root == i) {
+                componentOf[i] = components.size();
+                components.add(new HashSet<>());
+            }
+            components.get(componentOf[root]).add(nodeIds.get(i));
+        }
+        return components;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════
     // SHORTEST PATH
     // ═══════════════════════════════════════════════════════════════════════════
@@ -439,8 +683,11 @@ public class MatrixGraphAlgorithms {
         }
 
         int sourceIdx = sourceOpt.get().getMatrixIndex();
-        // compact [n×n] built on demand; closed when BFS is done
-        INDArray adjacency = graph.getCombinedAdjacencyMatrix();
+        // BFS only needs each node's out-edges, so walk CSR rows instead of dense rows
+        SparseAdjacency adjacency = graph.getSparseAdjacency();
+        int[] offsets = adjacency.offsets();
+        int[] targets = adjacency.targets();
+        float[] weights = adjacency.weights();
         Map<Integer, String> indexToId = graph.getIndexToNodeId();
 
         // BFS
@@ -448,22 +695,20 @@ public class MatrixGraphAlgorithms {
         Arrays.fill(distances, -1);
         distances[sourceIdx] = 0;
 
-        Queue<Integer> queue = new LinkedList<>();
-        queue.add(sourceIdx);
-
-        try {
-            while (!queue.isEmpty()) {
-                int current = queue.poll();
-
-                for (int j = 0; j < n; j++) {
-                    if (distances[j] == -1 && adjacency.getDouble(current, j) > 0) {
-                        distances[j] = distances[current] + 1;
-                        queue.add(j);
-                    }
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = sourceIdx;
+
+        while (head < tail) {
+            int current = queue[head++];
+            for (int k = offsets[current], end = offsets[current + 1]; k < end; k++) {
+                int j = targets[k];
+                if (distances[j] == -1 && weights[k] > 0) {
+                    distances[j] = distances[current] + 1;
+                    queue[tail++] = j;
                 }
             }
-        } finally {
-            if (!adjacency.wasClosed()) adjacency.close();
         }
 
         // Convert to map
@@ -491,6 +736,16 @@ public class MatrixGraphAlgorithms {
     public static Map<String, Double> degreeCentrality(AdjacencyMatrixGraph graph) {
         int n = graph.getNodeCount();
         if (n == 0) return Collections.emptyMap();
+        if (n > denseMaxNodes()) {
+            double[] totals = degrees(graph.getSparseAdjacency(), DegreeType.TOTAL_WEIGHTED);
+            double maxDegree = Arrays.stream(totals).max().orElse(0);
+            List<String> nodeIds = nodeIdsOf(graph);
+            Map<String, Double> result = new HashMap<>(n);
+            for (int i = 0; i < n; i++) {
+                result.put(nodeIds.get(i), maxDegree > 0 ? totals[i] / maxDegree : 0.0);
+            }
+            return result;
+        }
         // compact [n×n] — owned here, closed after degree computation
         INDArray adj = graph.getCombinedAdjacencyMatrix();
         try {
@@ -534,6 +789,70 @@ public class MatrixGraphAlgorithms {
         };
     }
 
+    /**
+     * Sparse degree computation with the same semantics as {@link #degrees(INDArray, DegreeType)}.
+     * Entry {@code i} of the returned array is the degree of node {@code i}.
+     */
+    public static double[] degrees(SparseAdjacency adj, DegreeType type) {
+        int n = adj.size();
+        double[] result = new double[n];
+        SparseAdjacency in = adj.transpose();
+        switch (type) {
+            case OUT -> forEachRowRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) result[i] = countPositive(adj, i);
+                return 0.0;
+            });
+            case IN -> forEachRowRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) result[i] = countPositive(in, i);
+                return 0.0;
+            });
+            case TOTAL -> forEachRowRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) result[i] = countSymmetricPositive(adj, in, i);
+                return 0.0;
+            });
+            case TOTAL_WEIGHTED -> forEachRowRange(n, (from, to) -> {
+                for (int i = from; i < to; i++) result[i] = adj.rowWeightSum(i) + in.rowWeightSum(i);
+                return 0.0;
+            });
+        }
+        return result;
+    }
+
+    private static int countPositive(SparseAdjacency m, int row) {
+        float[] weights = m.weights();
+        int count = 0;
+        for (int k = m.offsets()[row], end = m.offsets()[row + 1]; k < end; k++) {
+            if (weights[k] > 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Counts columns {@code j} with {@code A[i,j] + A[j,i] > 0} by merging the sorted
+     * out-row and in-row of {@code i}.
+     */
+    private static int countSymmetricPositive(SparseAdjacency out, SparseAdjacency in, int row) {
+        int[] outCols = out.targets();
+        float[] outW = out.weights();
+        int[] inCols = in.targets();
+        float[] inW = in.weights();
+        int a = out.offsets()[row], aEnd = out.offsets()[row + 1];
+        int b = in.offsets()[row], bEnd = in.offsets()[row + 1];
+        int count = 0;
+        while (a < aEnd || b < bEnd) {
+            double sum;
+            if (b >= bEnd || (a < aEnd && outCols[a] < inCols[b])) {
+                sum = outW[a++];
+            } else if (a >= aEnd || inCols[b] < outCols[a]) {
+                sum = inW[b++];
+            } else {
+                sum = outW[a++] + inW[b++];
+            }
+            if (sum > 0) count++;
+        }
+        return count;
+    }
+
     /**
      * Returns the node IDs of {@code graph} indexed by matrix position.
      */
@@ -567,10 +886,12 @@ public class MatrixGraphAlgorithms {
         List<Integer> nodeIndices = new ArrayList<>(indexToId.keySet());
 
         int actualSamples = Math.min(samples, nodeIndices.size());
+        // Built once and shared by every sampled BFS
+        SparseAdjacency adjacency = graph.getSparseAdjacency();
 
         for (int s = 0; s < actualSamples; s++) {
             int sourceIdx = nodeIndices.get(random.nextInt(nodeIndices.size()));
-            computeBetweennessFromSource(graph, sourceIdx, centrality);
+            computeBetweennessFromSource(adjacency, sourceIdx, centrality);
         }
 
         // Normalize
@@ -587,10 +908,11 @@ public class MatrixGraphAlgorithms {
         return result;
     }
 
-    private static void computeBetweennessFromSource(AdjacencyMatrixGraph graph, int source, double[] centrality) {
-        int n = graph.getNodeCount();
-        // compact [n×n] built on demand; closed after this BFS pass
-        INDArray adjacency = graph.getCombinedAdjacencyMatrix();
+    private static void computeBetweennessFromSource(SparseAdjacency adjacency, int source, double[] centrality) {
+        int n = adjacency.size();
+        int[] offsets = adjacency.offsets();
+        int[] targets = adjacency.targets();
+        float[] weights = adjacency.weights();
 
         int[] distance = new int[n];
         double[] sigma = new double[n];
@@ -608,26 +930,23 @@ public class MatrixGraphAlgorithms {
 
         queue.add(source);
 
-        try {
-            while (!queue.isEmpty()) {
-                int v = queue.poll();
-                stack.push(v);
-
-                for (int w = 0; w < n; w++) {
-                    if (adjacency.getDouble(v, w) > 0) {
-                        if (distance[w] < 0) {
-                            distance[w] = distance[v] + 1;
-                            queue.add(w);
-                        }
-                        if (distance[w] == distance[v] + 1) {
-                            sigma[w] += sigma[v];
-                            predecessors.get(w).add(v);
-                        }
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            stack.push(v);
+
+            for (int k = offsets[v], end = offsets[v + 1]; k < end; k++) {
+                int w = targets[k];
+                if (weights[k] > 0) {
+                    if (distance[w] < 0) {
+                        distance[w] = distance[v] + 1;
+                        queue.add(w);
+                    }
+                    if (distance[w] == distance[v] + 1) {
+                        sigma[w] += sigma[v];
+                        predecessors.get(w).add(v);
                     }
                 }
             }
-        } finally {
-            if (!adjacency.wasClosed()) adjacency.close();
         }
 
         double[] delta = new double[n];
@@ -743,6 +1062,50 @@ public class MatrixGraphAlgorithms {
     // UTILITY METHODS
     // ═══════════════════════════════════════════════════════════════════════════
 
+    /**
+     * Computes one contiguous range of rows and returns a partial result to be summed.
+     */
+    @FunctionalInterface
+    private interface RowRangeKernel {
+        double apply(int from, int to);
+    }
+
+    /**
+     * Runs {@code kernel} over {@code [0, n)} split into row ranges on the common
+     * {@link ForkJoinPool} and returns the sum of the partial results. Small inputs run
+     * inline on the calling thread.
+     */
+    private static double forEachRowRange(int n, RowRangeKernel kernel) {
+        if (n <= ROWS_PER_TASK) {
+            return kernel.apply(0, n);
+        }
+        return ForkJoinPool.commonPool().invoke(new RowRangeTask(kernel, 0, n));
+    }
+
+    private static final class RowRangeTask extends RecursiveTask<Double> {
+        private final RowRangeKernel kernel;
+        private final int from;
+        private final int to;
+
+        RowRangeTask(RowRangeKernel kernel, int from, int to) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                return kernel.apply(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RowRangeTask left = new RowRangeTask(kernel, from, mid);
+            left.fork();
+            double right = new RowRangeTask(kernel, mid, to).compute();
+            return left.join() + right;
+        }
+    }
+
     private static long[] createRange(int n) {
         long[] range = new long[n];
         for (int i = 0; i < n; i++) {
@@ -437,6 +437,27 @@ public class AdjacencyMatrixGraph implements AutoCloseable {
         return combined;
     }
 
+    /**
+     * Builds a {@link SparseAdjacency} (CSR) summing all edge types, equivalent to
+     * {@link #getCombinedAdjacencyMatrix()} but in {@code O(nodes + edges)} memory. This is
+     * what the matrix algorithms use for graphs too large for a dense {@code [n × n]} array.
+     *
+     * @return a newly built snapshot of the current edges
+     */
+    public SparseAdjacency getSparseAdjacency() {
+        int n = getNodeCount();
+        SparseAdjacency.Builder builder = SparseAdjacency.builder(n);
+        for (Map<Integer, Map<Integer, Float>> typeMap : adjacencyData.values()) {
+            for (Map.Entry<Integer, Map<Integer, Float>> rowEntry : typeMap.entrySet()) {
+                int srcIdx = rowEntry.getKey();
+                for (Map.Entry<Integer, Float> colEntry : rowEntry.getValue().entrySet()) {
+                    builder.add(srcIdx, colEntry.getKey(), colEntry.getValue());
+                }
+            }
+        }
+        return builder.build();
+    }
+
     /**
      * Returns the number of edges for a given edge type without any INDArray operation.
      * O(1) — backed by a maintained counter.
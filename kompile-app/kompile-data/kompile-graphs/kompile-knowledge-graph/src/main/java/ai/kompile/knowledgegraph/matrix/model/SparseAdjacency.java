@@ -0,0 +1,221 @@
+/*
+ * Copyright 2025 Kompile Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ai.kompile.knowledgegraph.matrix.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed-sparse-row (CSR) adjacency matrix over primitive arrays.
+ *
+ * <p>Row {@code i} holds the outgoing edges of node {@code i}: its targets are
+ * {@code targets()[offsets()[i] .. offsets()[i + 1])}, in ascending order, with the
+ * matching {@code weights()}. Duplicate {@code (source, target)} pairs are summed at
+ * build time and zero weights are dropped, so the matrix is equivalent to the dense
+ * {@code [n × n]} one produced by {@link AdjacencyMatrixGraph#getCombinedAdjacencyMatrix()}
+ * while taking {@code O(n + edges)} memory.
+ *
+ * <p>{@link #transpose()} returns the CSC view (incoming edges per node) as another CSR
+ * instance; it is built once on first use.
+ */
+public final class SparseAdjacency {
+
+    private final int n;
+    private final int[] offsets;
+    private final int[] targets;
+    private final float[] weights;
+    private volatile SparseAdjacency transposed;
+
+    private SparseAdjacency(int n, int[] offsets, int[] targets, float[] weights) {
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public static Builder builder(int n) {
+        return new Builder(n);
+    }
+
+    /** Number of nodes (rows and columns). */
+    public int size() {
+        return n;
+    }
+
+    /** Number of stored (non-zero) entries. */
+    public int nnz() {
+        return targets.length;
+    }
+
+    /** Row offsets of length {@code n + 1}. Shared, must not be modified. */
+    public int[] offsets() {
+        return offsets;
+    }
+
+    /** Column index of every stored entry, grouped by row. Shared, must not be modified. */
+    public int[] targets() {
+        return targets;
+    }
+
+    /** Weight of every stored entry, parallel to {@link #targets()}. Shared, must not be modified. */
+    public float[] weights() {
+        return weights;
+    }
+
+    public int degree(int row) {
+        return offsets[row + 1] - offsets[row];
+    }
+
+    public double rowWeightSum(int row) {
+        double sum = 0;
+        for (int k = offsets[row], end = offsets[row + 1]; k < end; k++) {
+            sum += weights[k];
+        }
+        return sum;
+    }
+
+    /**
+     * @return the weight of entry {@code (row, col)}, or 0 if absent
+     */
+    public float weight(int row, int col) {
+        int k = Arrays.binarySearch(targets, offsets[row], offsets[row + 1], col);
+        return k >= 0 ? weights[k] : 0f;
+    }
+
+    /**
+     * Returns A<sup>T</sup> in CSR form, i.e. the incoming edges of every node.
+     */
+    public SparseAdjacency transpose() {
+        SparseAdjacency t = transposed;
+        if (t == null) {
+            synchronized (this) {
+                t = transposed;
+                if (t == null) {
+                    t = buildTranspose();
+                    t.transposed = this;
+                    transposed = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    private SparseAdjacency buildTranspose() {
+        int nnz = targets.length;
+        int[] tOffsets = new int[n + 1];
+        for (int k = 0; k < nnz; k++) {
+            tOffsets[targets[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            tOffsets[i + 1] += tOffsets[i];
+        }
+        int[] cursor = Arrays.copyOf(tOffsets, n);
+        int[] tTargets = new int[nnz];
+        float[] tWeights = new float[nnz];
+        // Rows are visited in ascending order, so each transposed row comes out sorted.
+        for (int row = 0; row < n; row++) {
+            for (int k = offsets[row], end = offsets[row + 1]; k < end; k++) {
+                int pos = cursor[targets[k]]++;
+                tTargets[pos] = row;
+                tWeights[pos] = weights[k];
+            }
+        }
+        return new SparseAdjacency(n, tOffsets, tTargets, tWeights);
+    }
+
+    /**
+     * Accumulates edges into growable primitive arrays and assembles the CSR
+     * arrays with a counting sort by source in {@link #build()}.
+     */
+    public static final class Builder {
+        private final int n;
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private float[] weights = new float[16];
+        private int count;
+
+        private Builder(int n) {
+            this.n = n;
+        }
+
+        /**
+         * Adds {@code weight} to entry {@code (source, target)}. Out-of-range
+         * indices are ignored.
+         */
+        public Builder add(int source, int target, float weight) {
+            if (source < 0 || source >= n || target < 0 || target >= n) {
+                return this;
+            }
+            if (count == sources.length) {
+                int capacity = count * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[count] = source;
+            targets[count] = target;
+            weights[count] = weight;
+            count++;
+            return this;
+        }
+
+        public SparseAdjacency build() {
+            int[] offsets = new int[n + 1];
+            for (int e = 0; e < count; e++) {
+                offsets[sources[e] + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            // Bucket by row, packing (target, weight bits) so each row sorts as longs.
+            long[] packed = new long[count];
+            int[] cursor = Arrays.copyOf(offsets, n);
+            for (int e = 0; e < count; e++) {
+                packed[cursor[sources[e]]++] =
+                        ((long) targets[e] << 32) | (Float.floatToRawIntBits(weights[e]) & 0xFFFFFFFFL);
+            }
+
+            // Sort each row, then merge duplicates and drop zeros in place.
+            int[] outTargets = new int[count];
+            float[] outWeights = new float[count];
+            int write = 0;
+            for (int row = 0; row < n; row++) {
+                int start = offsets[row];
+                int end = offsets[row + 1];
+                offsets[row] = write;
+                Arrays.sort(packed, start, end);
+                int k = start;
+                while (k < end) {
+                    int target = (int) (packed[k] >>> 32);
+                    float sum = 0f;
+                    while (k < end && (int) (packed[k] >>> 32) == target) {
+                        sum += Float.intBitsToFloat((int) packed[k]);
+                        k++;
+                    }
+                    if (sum != 0f) {
+                        outTargets[write] = target;
+                        outWeights[write] = sum;
+                        write++;
+                    }
+                }
+            }
+            offsets[n] = write;
+            return new SparseAdjacency(n, offsets,
+                    write == count ? outTargets : Arrays.copyOf(outTargets, write),
+                    write == count ? outWeights : Arrays.copyOf(outWeights, write));
+        }
+    }
+}
@@ -17,6 +17,7 @@ package ai.kompile.knowledgegraph.matrix.algorithms;
 
 import ai.kompile.knowledgegraph.matrix.model.AdjacencyMatrixGraph;
 import ai.kompile.knowledgegraph.matrix.model.MatrixGraphNode;
+import ai.kompile.knowledgegraph.matrix.model.SparseAdjacency;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,9 +25,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.nd4j.linalg.api.ndarray.INDArray;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -350,4 +354,110 @@ class MatrixGraphAlgorithmsTest {
         assertNotNull(bc.get("b"));
         assertNotNull(bc.get("c"));
     }
+
+    // ─── Sparse (CSR) paths ──────────────────────────────────────────────────
+
+    /**
+     * Random directed graph with a few isolated/dangling nodes and parallel edges of
+     * different types, so duplicate summing and the dangling-mass term are exercised.
+     */
+    private List<String> addRandomGraph(int nodes, int edges, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < nodes; i++) {
+            graph.addNode(node("n" + i));
+        }
+        String[] types = {"RELATED_TO", "PART_OF"};
+        for (int e = 0; e < edges; e++) {
+            int from = random.nextInt(nodes - 2);
+            int to = random.nextInt(nodes - 2);
+            graph.addEdge("n" + from, "n" + to, 0.5 + random.nextDouble(), types[e % 2], false);
+        }
+        return MatrixGraphAlgorithms.nodeIdsOf(graph);
+    }
+
+    @Test
+    void sparseAdjacencyMatchesDenseMatrix() {
+        List<String> ids = addRandomGraph(12, 40, 1L);
+        SparseAdjacency sparse = graph.getSparseAdjacency();
+        INDArray dense = graph.getCombinedAdjacencyMatrix();
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                for (int j = 0; j < ids.size(); j++) {
+                    assertEquals(dense.getDouble(i, j), sparse.weight(i, j), 1e-6);
+                    assertEquals(dense.getDouble(j, i), sparse.transpose().weight(i, j), 1e-6);
+                }
+            }
+        } finally {
+            dense.close();
+        }
+    }
+
+    @Test
+    void sparseAdjacencyBuilderSumsDuplicatesAndDropsZeros() {
+        SparseAdjacency adj = SparseAdjacency.builder(3)
+                .add(0, 2, 1f)
+                .add(0, 1, 2f)
+                .add(0, 2, 0.5f)
+                .add(1, 0, 0f)
+                .add(2, 5, 1f) // out of range, ignored
+                .build();
+        assertEquals(2, adj.nnz());
+        assertArrayEquals(new int[]{0, 2, 2, 2}, adj.offsets());
+        assertArrayEquals(new int[]{1, 2}, adj.targets());
+        assertEquals(1.5f, adj.weight(0, 2));
+        assertEquals(0f, adj.weight(1, 0));
+    }
+
+    @Test
+    void sparsePageRankMatchesDense() {
+        List<String> ids = addRandomGraph(20, 50, 2L);
+        Map<String, Double> dense = MatrixGraphAlgorithms.pageRank(graph);
+        Map<String, Double> sparse = MatrixGraphAlgorithms.pageRank(graph.getSparseAdjacency(), ids,
+                MatrixGraphAlgorithms.DEFAULT_DAMPING, MatrixGraphAlgorithms.DEFAULT_CONVERGENCE,
+                MatrixGraphAlgorithms.DEFAULT_MAX_ITERATIONS);
+        assertEquals(dense.keySet(), sparse.keySet());
+        dense.forEach((id, score) -> assertEquals(score, sparse.get(id), 1e-4, id));
+        assertEquals(1.0, sparse.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-4);
+    }
+
+    @Test
+    void sparseHitsMatchesDense() {
+        List<String> ids = addRandomGraph(15, 40, 3L);
+        MatrixGraphAlgorithms.HITSResult dense = MatrixGraphAlgorithms.hits(graph);
+        MatrixGraphAlgorithms.HITSResult sparse = MatrixGraphAlgorithms.hits(graph.getSparseAdjacency(), ids,
+                MatrixGraphAlgorithms.DEFAULT_CONVERGENCE, MatrixGraphAlgorithms.DEFAULT_MAX_ITERATIONS);
+        dense.hubScores().forEach((id, score) -> assertEquals(score, sparse.hubScores().get(id), 1e-4, id));
+        dense.authorityScores().forEach((id, score) ->
+                assertEquals(score, sparse.authorityScores().get(id), 1e-4, id));
+    }
+
+    @Test
+    void sparseDegreesMatchDense() {
+        addRandomGraph(15, 40, 4L);
+        SparseAdjacency sparse = graph.getSparseAdjacency();
+        INDArray adj = graph.getCombinedAdjacencyMatrix();
+        try {
+            for (MatrixGraphAlgorithms.DegreeType type : MatrixGraphAlgorithms.DegreeType.values()) {
+                INDArray dense = MatrixGraphAlgorithms.degrees(adj, type);
+                double[] degrees = MatrixGraphAlgorithms.degrees(sparse, type);
+                for (int i = 0; i < degrees.length; i++) {
+                    assertEquals(dense.getDouble(i), degrees[i], 1e-5, type + " degree of node " + i);
+                }
+            }
+        } finally {
+            adj.close();
+        }
+    }
+
+    @Test
+    void sparseConnectedComponentsMatchDense() {
+        List<String> ids = addRandomGraph(30, 12, 5L);
+        List<Set<String>> dense = MatrixGraphAlgorithms.findConnectedComponents(graph);
+        List<Set<String>> sparse = MatrixGraphAlgorithms.findConnectedComponents(graph.getSparseAdjacency(), ids);
+        assertEquals(dense, sparse);
+
+        Set<String> covered = new HashSet<>();
+        sparse.forEach(covered::addAll);
+        assertEquals(new HashSet<>(ids), covered);
+    }
 }
@@ -26,6 +26,7 @@ import ai.kompile.process.ontology.OntologySchema;
 import ai.kompile.process.ontology.ValidationRule;
 import ai.kompile.process.service.ProcessEngineService;
 import ai.kompile.process.service.SpelEvaluationResult;
+import ai.kompile.process.service.SpelExpressionCache;
 import ai.kompile.process.service.StepExecutionDispatcher;
 import ai.kompile.process.workflow.ProcessDefinition;
 import org.springframework.http.HttpStatus;
@@ -254,9 +255,15 @@ public class ProcessEngineController {
         return ResponseEntity.ok(processEngineService.listActiveRuns());
     }
 
+    /**
+     * Lists workflow runs of any status, oldest first, one page at a time.
+     * {@code GET /api/process/run/all?offset=0&limit=100}
+     */
     @GetMapping("/run/all")
-    public ResponseEntity<List<WorkflowRun>> listAllRuns() {
-        return ResponseEntity.ok(processEngineService.listAllRuns());
+    public ResponseEntity<List<WorkflowRun>> listAllRuns(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "" + ProcessEngineService.DEFAULT_RUN_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(processEngineService.listAllRuns(offset, limit));
     }
 
     @PostMapping("/run/{id}/cancel")
@@ -399,6 +406,15 @@ public class ProcessEngineController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Returns SpEL expression cache hit rate and per-expression evaluation times.
+     * {@code GET /api/process/spel/stats}
+     */
+    @GetMapping("/spel/stats")
+    public ResponseEntity<SpelExpressionCache.Stats> getSpelCacheStats() {
+        return ResponseEntity.ok(processEngineService.getSpelCacheStats());
+    }
+
     // -------------------------------------------------------------------------
     // Ingestion / manifest endpoints
     // -------------------------------------------------------------------------
@@ -161,9 +161,17 @@ public interface ProcessEngineService {
     List<WorkflowRun> listActiveRuns();
 
     /**
-     * Returns all workflow runs regardless of status.
+     * Page size used when a caller does not ask for one.
      */
-    List<WorkflowRun> listAllRuns();
+    int DEFAULT_RUN_PAGE_SIZE = 100;
+
+    /**
+     * Returns one page of workflow runs regardless of status, oldest first.
+     *
+     * @param offset number of runs to skip
+     * @param limit  maximum number of runs to return
+     */
+    List<WorkflowRun> listAllRuns(int offset, int limit);
 
     /**
      * Cancels a running or paused workflow run.
@@ -259,6 +267,12 @@ public interface ProcessEngineService {
      */
     SpelEvaluationResult evaluateSpelExpression(String expression, Map<String, Object> context);
 
+    /**
+     * Returns hit rate and per-expression evaluation times of the SpEL expression cache
+     * shared by controls, gateway conditions and step templates.
+     */
+    SpelExpressionCache.Stats getSpelCacheStats();
+
     // -------------------------------------------------------------------------
     // Ingestion
     // -------------------------------------------------------------------------
@@ -33,6 +33,8 @@ import ai.kompile.process.ontology.FieldDefinition;
 import ai.kompile.process.ontology.FieldType;
 import ai.kompile.process.ontology.OntologySchema;
 import ai.kompile.process.ontology.ValidationRule;
+import ai.kompile.process.store.FileWorkflowRunStore;
+import ai.kompile.process.store.WorkflowRunStore;
 import ai.kompile.process.workflow.ProcessDefinition;
 import ai.kompile.process.workflow.ProcessPhase;
 import ai.kompile.process.workflow.ProcessStatus;
@@ -44,12 +46,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.expression.Expression;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -80,7 +81,8 @@ import java.util.stream.Collectors;
  * <p>State is kept in {@link ConcurrentHashMap}s for fast access. Every mutation is
  * immediately flushed to disk so the full state survives restarts. Versioned artefacts
  * (ontologies and process definitions) are stored as {@code <id>_v<version>.json} files;
- * other entities use {@code <id>.json}.
+ * other entities use {@code <id>.json}. Workflow runs and approval requests live in a
+ * {@link WorkflowRunStore}, by default an event-sourced {@link FileWorkflowRunStore}.
  *
  * <p>The service auto-enables unless the property
  * {@code kompile.process.engine.enabled=false} is explicitly set.
@@ -122,8 +124,6 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
     /** Latest version number per definition ID */
     private final Map<String, Integer> definitionVersions = new ConcurrentHashMap<>();
 
-    /** runId → WorkflowRun */
-    private final Map<String, WorkflowRun> runs = new ConcurrentHashMap<>();
 
     /** controlId → ControlDefinition */
     private final Map<String, ControlDefinition> controls = new ConcurrentHashMap<>();
@@ -131,8 +131,6 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
     /** manifestId → SubmissionManifest */
     private final Map<String, SubmissionManifest> manifests = new ConcurrentHashMap<>();
 
-    /** approvalRequestId → ApprovalRequest */
-    private final Map<String, ApprovalRequest> approvalRequests = new ConcurrentHashMap<>();
 
     /** attestationId → ControlAttestation */
     private final Map<String, ControlAttestation> attestations = new ConcurrentHashMap<>();
@@ -142,7 +140,11 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
     // ---------------------------------------------------------------------------
 
     private final ObjectMapper objectMapper;
-    private final SpelExpressionParser spelParser = new SpelExpressionParser();
+    /** Parsed (and, once hot, compiled) SpEL expressions shared by all runs */
+    private final SpelExpressionCache spelCache = new SpelExpressionCache(SpelExpressionCache.DEFAULT_MAX_ENTRIES);
+
+    /** Store for workflow runs and approval requests. Defaults to a file store under {@code runs/}. */
+    private WorkflowRunStore runStore;
 
     /** Optional dispatcher for TOOL_CALL and HTTP_CALL steps. Null if not wired. */
     private StepExecutionDispatcher stepExecutionDispatcher;
@@ -150,6 +152,11 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
     /** Optional callback for writing execution results to the knowledge graph. */
     private ProcessGraphCallback processGraphCallback;
 
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setWorkflowRunStore(WorkflowRunStore runStore) {
+        this.runStore = runStore;
+    }
+
     @org.springframework.beans.factory.annotation.Autowired(required = false)
     public void setStepExecutionDispatcher(StepExecutionDispatcher dispatcher) {
         this.stepExecutionDispatcher = dispatcher;
@@ -195,10 +202,20 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
             }
         }
 
+        if (runStore == null) {
+            runStore = new FileWorkflowRunStore(runDir, approvalDir, objectMapper);
+        }
         loadAll();
         log.info("ProcessEngineService initialised. ontologies={} definitions={} runs={} controls={} manifests={} approvals={} attestations={}",
-                ontologies.size(), definitions.size(), runs.size(),
-                controls.size(), manifests.size(), approvalRequests.size(), attestations.size());
+                ontologies.size(), definitions.size(), runStore.runCount(),
+                controls.size(), manifests.size(), runStore.approvalCount(), attestations.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (runStore != null) {
+            runStore.close();
+        }
     }
 
     // ---------------------------------------------------------------------------
@@ -440,15 +457,14 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
         // Advance to execute the first step (or pause if it needs approval)
         run = advanceRun(run, def);
 
-        runs.put(runId, run);
-        persistRun(run);
+        runStore.saveRun(run);
         log.info("Started workflow run id={} processDefinitionId={}", runId, processDefinitionId);
         return run;
     }
 
     @Override
     public WorkflowRun getRun(String runId) {
-        WorkflowRun run = runs.get(runId);
+        WorkflowRun run = runStore.getRun(runId);
         if (run == null) {
             throw new IllegalArgumentException("Workflow run not found: " + runId);
         }
@@ -462,16 +478,13 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
 
     @Override
     public List<WorkflowRun> listActiveRuns() {
-        return runs.values().stream()
-                .filter(r -> r.getStatus() == RunStatus.RUNNING
-                          || r.getStatus() == RunStatus.PAUSED_FOR_APPROVAL
-                          || r.getStatus() == RunStatus.PAUSED_FOR_HUMAN)
-                .collect(Collectors.toList());
+        return runStore.findRunsByStatus(
+                List.of(RunStatus.RUNNING, RunStatus.PAUSED_FOR_APPROVAL, RunStatus.PAUSED_FOR_HUMAN));
     }
 
     @Override
-    public List<WorkflowRun> listAllRuns() {
-        return new ArrayList<>(runs.values());
+    public List<WorkflowRun> listAllRuns(int offset, int limit) {
+        return runStore.listRuns(offset, limit);
     }
 
     @Override
@@ -498,8 +511,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
                 .graphNodeIds(run.getGraphNodeIds())
                 .metrics(run.getMetrics())
                 .build();
-        runs.put(cancelled.getId(), cancelled);
-        persistRun(cancelled);
+        runStore.saveRun(cancelled);
 
         // Fire graph callback for cancelled run
         if (processGraphCallback != null) {
@@ -538,8 +550,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
                 .graphNodeIds(run.getGraphNodeIds())
                 .metrics(run.getMetrics())
                 .build();
-        runs.put(updated.getId(), updated);
-        persistRun(updated);
+        runStore.saveRun(updated);
         return updated;
     }
 
@@ -611,8 +622,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
             resumed = advanceRun(resumed, def);
         }
 
-        runs.put(resumed.getId(), resumed);
-        persistRun(resumed);
+        runStore.saveRun(resumed);
         return resumed;
     }
 
@@ -622,15 +632,12 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
 
     @Override
     public List<ApprovalRequest> getPendingApprovals(String assignedTo) {
-        return approvalRequests.values().stream()
-                .filter(r -> r.getStatus() == ApprovalRequestStatus.PENDING)
-                .filter(r -> assignedTo == null || assignedTo.equals(r.getAssignedTo()))
-                .collect(Collectors.toList());
+        return runStore.findPendingApprovals(assignedTo);
     }
 
     @Override
     public ApprovalRequest getApprovalRequest(String requestId) {
-        ApprovalRequest req = approvalRequests.get(requestId);
+        ApprovalRequest req = runStore.getApproval(requestId);
         if (req == null) {
             throw new IllegalArgumentException("Approval request not found: " + requestId);
         }
@@ -660,8 +667,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
                 .evidenceReliedOn(req.getEvidenceReliedOn())
                 .evidenceHashAtCreation(req.getEvidenceHashAtCreation())
                 .build();
-        approvalRequests.put(req.getId(), updatedReq);
-        persistApproval(updatedReq);
+        runStore.saveApproval(updatedReq);
 
         WorkflowRun run = getRun(req.getWorkflowRunId());
 
@@ -697,8 +703,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
                     .evidenceReliedOn(req.getEvidenceReliedOn())
                     .evidenceHashAtCreation(req.getEvidenceHashAtCreation())
                     .build();
-            approvalRequests.put(req.getId(), reDelegated);
-            persistApproval(reDelegated);
+            runStore.saveApproval(reDelegated);
         }
 
         List<StepExecution> updated = run.getStepExecutions() == null
@@ -763,8 +768,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
             }
         }
 
-        runs.put(resumed.getId(), resumed);
-        persistRun(resumed);
+        runStore.saveRun(resumed);
         return resumed;
     }
 
@@ -807,7 +811,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
         persistAttestation(attestation);
 
         // Attach attestation to the run if it exists
-        WorkflowRun run = runs.get(runId);
+        WorkflowRun run = runStore.getRun(runId);
         if (run != null) {
             List<ControlAttestation> results = run.getControlResults() == null
                     ? new ArrayList<>() : new ArrayList<>(run.getControlResults());
@@ -827,8 +831,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
                     .runData(run.getRunData())
                     .metrics(run.getMetrics())
                     .build();
-            runs.put(run.getId(), updated);
-            persistRun(updated);
+            runStore.saveRun(updated);
         }
 
         log.debug("Control evaluated controlId={} runId={} passed={}", controlId, runId, passed);
@@ -837,7 +840,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
 
     @Override
     public List<ControlAttestation> getControlResults(String runId) {
-        WorkflowRun run = runs.get(runId);
+        WorkflowRun run = runStore.getRun(runId);
         if (run == null) {
             throw new IllegalArgumentException("Workflow run not found: " + runId);
         }
@@ -890,14 +893,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
                     .build();
         }
         try {
-            StandardEvaluationContext ctx = new StandardEvaluationContext();
-            if (context != null) {
-                for (Map.Entry<String, Object> entry : context.entrySet()) {
-                    ctx.setVariable(entry.getKey(), entry.getValue());
-                }
-            }
-            Expression expr = spelParser.parseExpression(expression);
-            Object result = expr.getValue(ctx);
+            Object result = spelCache.getValue(expression, spelCache.newContext(context));
             String type = result != null ? result.getClass().getSimpleName() : "null";
             return SpelEvaluationResult.builder()
                     .result(result)
@@ -910,6 +906,11 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
         }
     }
 
+    @Override
+    public SpelExpressionCache.Stats getSpelCacheStats() {
+        return spelCache.getStats();
+    }
+
     // ---------------------------------------------------------------------------
     // Ingestion
     // ---------------------------------------------------------------------------
@@ -1167,8 +1168,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
 
                     // Create an ApprovalRequest
                     ApprovalRequest approvalRequest = createApprovalRequest(run.getId(), stepDef, inputs);
-                    approvalRequests.put(approvalRequest.getId(), approvalRequest);
-                    persistApproval(approvalRequest);
+                    runStore.saveApproval(approvalRequest);
                     pendingApprovals.add(approvalRequest);
 
                     runStatus = RunStatus.PAUSED_FOR_APPROVAL;
@@ -2267,20 +2267,14 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
             return outputs;
         }
 
-        StandardEvaluationContext ctx = new StandardEvaluationContext();
-        if (runData != null) {
-            for (Map.Entry<String, Object> entry : runData.entrySet()) {
-                ctx.setVariable(entry.getKey(), entry.getValue());
-            }
-        }
+        StandardEvaluationContext ctx = spelCache.newContext(runData);
 
         for (Map.Entry<String, String> expr : stepDef.getExecutionExpressions().entrySet()) {
             String outputKey = expr.getKey();
             String expression = expr.getValue();
             if (expression == null || expression.isBlank()) continue;
             try {
-                Expression parsed = spelParser.parseExpression(expression);
-                Object result = parsed.getValue(ctx);
+                Object result = spelCache.getValue(expression, ctx);
                 outputs.put(outputKey, result);
                 // Also make newly computed values available for subsequent expressions in same step
                 ctx.setVariable(outputKey, result);
@@ -2422,10 +2416,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
         Map<String, Object> args = new HashMap<>();
         if (stepDef.getToolArguments() == null) return args;
 
-        StandardEvaluationContext ctx = new StandardEvaluationContext();
-        if (runData != null) {
-            runData.forEach(ctx::setVariable);
-        }
+        StandardEvaluationContext ctx = spelCache.newContext(runData);
 
         for (Map.Entry<String, String> entry : stepDef.getToolArguments().entrySet()) {
             String argName = entry.getKey();
@@ -2435,8 +2426,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
                 // Try to parse as SpEL expression
                 if (expr.startsWith("#") || expr.startsWith("T(") || expr.contains("?")
                         || expr.contains("+") || expr.contains("*")) {
-                    Expression parsed = spelParser.parseExpression(expr);
-                    args.put(argName, parsed.getValue(ctx));
+                    args.put(argName, spelCache.getValue(expr, ctx));
                 } else {
                     // Literal value — pass through
                     args.put(argName, expr);
@@ -2456,14 +2446,10 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
         if (template == null) return null;
         if (!template.contains("#")) return template;
         try {
-            StandardEvaluationContext ctx = new StandardEvaluationContext();
-            if (runData != null) runData.forEach(ctx::setVariable);
-            Expression expr = spelParser.parseExpression("'" + template.replace("'", "\\'") + "'");
             // For simple variable references, just evaluate directly
-            if (template.startsWith("#")) {
-                expr = spelParser.parseExpression(template);
-            }
-            Object result = expr.getValue(ctx);
+            String expr = template.startsWith("#")
+                    ? template : "'" + template.replace("'", "\\'") + "'";
+            Object result = spelCache.getValue(expr, spelCache.newContext(runData));
             return result != null ? result.toString() : template;
         } catch (Exception e) {
             return template;
@@ -2486,12 +2472,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
      * Evaluates a SpEL expression and returns the raw Object result.
      */
     private Object evaluateSpelObject(String expression, Map<String, Object> runData) {
-        StandardEvaluationContext ctx = new StandardEvaluationContext();
-        if (runData != null) {
-            runData.forEach(ctx::setVariable);
-        }
-        Expression expr = spelParser.parseExpression(expression);
-        return expr.getValue(ctx);
+        return spelCache.getValue(expression, spelCache.newContext(runData));
     }
 
     private ApprovalRequest createApprovalRequest(String runId, ProcessStep stepDef,
@@ -2607,14 +2588,7 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
      * @return true if the expression evaluates to Boolean.TRUE, false otherwise
      */
     private boolean evaluateSpelBoolean(String expression, Map<String, Object> data) {
-        StandardEvaluationContext ctx = new StandardEvaluationContext();
-        if (data != null) {
-            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                ctx.setVariable(entry.getKey(), entry.getValue());
-            }
-        }
-        Expression expr = spelParser.parseExpression(expression);
-        Object result = expr.getValue(ctx);
+        Object result = spelCache.getValue(expression, spelCache.newContext(data));
         if (result instanceof Boolean) {
             return (Boolean) result;
         }
@@ -2702,11 +2676,6 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
         writeJson(file, def);
     }
 
-    private void persistRun(WorkflowRun run) {
-        Path file = runDir.resolve(run.getId() + ".json");
-        writeJson(file, run);
-    }
-
     private void persistControl(ControlDefinition control) {
         Path file = controlDir.resolve(control.getId() + ".json");
         writeJson(file, control);
@@ -2717,11 +2686,6 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
         writeJson(file, manifest);
     }
 
-    private void persistApproval(ApprovalRequest request) {
-        Path file = approvalDir.resolve(request.getId() + ".json");
-        writeJson(file, request);
-    }
-
     private void persistAttestation(ControlAttestation attestation) {
         Path file = attestationDir.resolve(attestation.getId() + ".json");
         writeJson(file, attestation);
@@ -2742,10 +2706,8 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
     private void loadAll() {
         loadOntologies();
         loadDefinitions();
-        loadRuns();
         loadControls();
         loadManifests();
-        loadApprovals();
         loadAttestations();
     }
 
@@ -2765,10 +2727,6 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
         });
     }
 
-    private void loadRuns() {
-        loadDirectory(runDir, WorkflowRun.class, (run) -> runs.put(run.getId(), run));
-    }
-
     private void loadControls() {
         loadDirectory(controlDir, ControlDefinition.class, (c) -> controls.put(c.getId(), c));
     }
@@ -2777,10 +2735,6 @@ public class ProcessEngineServiceImpl implements ProcessEngineService {
         loadDirectory(manifestDir, SubmissionManifest.class, (m) -> manifests.put(m.getId(), m));
     }
 
-    private void loadApprovals() {
-        loadDirectory(approvalDir, ApprovalRequest.class, (a) -> approvalRequests.put(a.getId(), a));
-    }
-
     private void loadAttestations() {
         loadDirectory(attestationDir, ControlAttestation.class, (a) -> attestations.put(a.getId(), a));
     }
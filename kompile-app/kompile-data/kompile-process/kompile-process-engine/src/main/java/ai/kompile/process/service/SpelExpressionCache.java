@@ -0,0 +1,213 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.process.service;
+
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectiveConstructorResolver;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.support.StandardTypeConverter;
+import org.springframework.expression.spel.support.StandardTypeLocator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU of parsed SpEL expressions, keyed by expression text, with
+ * per-expression evaluation timing.
+ * <p>
+ * Expressions are parsed in {@link SpelCompilerMode#MIXED}: they start interpreted and
+ * Spring compiles them to bytecode once they have run often enough, falling back to
+ * interpretation if a compiled run fails (e.g. a variable changed type).
+ * <p>
+ * Evaluation contexts from {@link #newContext(Map)} share one set of reflective
+ * accessors and resolvers, so member lookups cached by the first evaluation are reused
+ * by every later one instead of being rebuilt per context.
+ */
+public final class SpelExpressionCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    /**
+     * Evaluation statistics of one cached expression.
+     */
+    public record ExpressionStats(String expression, long evaluations, long failures,
+                                  double meanMicros, double maxMicros) {
+    }
+
+    /**
+     * Cache counters and the cached expressions, slowest total time first.
+     */
+    public record Stats(long hits, long misses, long evictions, int size, double hitRate,
+                        List<ExpressionStats> expressions) {
+    }
+
+    private static final class Entry {
+        final Expression expression;
+        final LongAdder evaluations = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        Entry(Expression expression) {
+            this.expression = expression;
+        }
+
+        void record(long nanos, boolean failed) {
+            evaluations.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (failed) {
+                failures.increment();
+            }
+        }
+    }
+
+    private final int maxEntries;
+    private final SpelExpressionParser parser;
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Shared by every context; all of them are thread-safe and cache member lookups internally
+    private final List<PropertyAccessor> propertyAccessors = List.of(new ReflectivePropertyAccessor());
+    private final List<MethodResolver> methodResolvers = List.of(new ReflectiveMethodResolver());
+    private final List<ConstructorResolver> constructorResolvers = List.of(new ReflectiveConstructorResolver());
+    private final TypeLocator typeLocator;
+    private final TypeConverter typeConverter = new StandardTypeConverter();
+
+    public SpelExpressionCache(int maxEntries) {
+        ClassLoader classLoader = SpelExpressionCache.class.getClassLoader();
+        this.maxEntries = maxEntries;
+        this.parser = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, classLoader));
+        this.typeLocator = new StandardTypeLocator(classLoader);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > SpelExpressionCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed expression, parsing and caching it on first use.
+     *
+     * @throws org.springframework.expression.ParseException if the text is not valid SpEL;
+     *         failures are not cached
+     */
+    public Expression parse(String expressionText) {
+        return entry(expressionText).expression;
+    }
+
+    /**
+     * Evaluates an expression against a context, recording its evaluation time.
+     */
+    public Object getValue(String expressionText, EvaluationContext context) {
+        Entry entry = entry(expressionText);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object value = entry.expression.getValue(context);
+            failed = false;
+            return value;
+        } finally {
+            entry.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Creates an evaluation context exposing {@code variables} as {@code #name}.
+     */
+    public StandardEvaluationContext newContext(Map<String, Object> variables) {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setPropertyAccessors(propertyAccessors);
+        context.setMethodResolvers(methodResolvers);
+        context.setConstructorResolvers(constructorResolvers);
+        context.setTypeLocator(typeLocator);
+        context.setTypeConverter(typeConverter);
+        if (variables != null) {
+            context.setVariables(variables);
+        }
+        return context;
+    }
+
+    private Entry entry(String expressionText) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(expressionText);
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        misses.incrementAndGet();
+        Entry parsed = new Entry(parser.parseExpression(expressionText));
+        synchronized (entries) {
+            // Another thread may have parsed the same text meanwhile; keep the first so its stats survive
+            Entry existing = entries.putIfAbsent(expressionText, parsed);
+            return existing != null ? existing : parsed;
+        }
+    }
+
+    public Stats getStats() {
+        List<ExpressionStats> expressions = new ArrayList<>();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                long evaluations = entry.evaluations.sum();
+                expressions.add(new ExpressionStats(e.getKey(), evaluations, entry.failures.sum(),
+                        evaluations == 0 ? 0.0 : entry.totalNanos.sum() / 1_000.0 / evaluations,
+                        entry.maxNanos.get() / 1_000.0));
+            }
+        }
+        expressions.sort(Comparator.comparingDouble(
+                (ExpressionStats s) -> s.meanMicros() * s.evaluations()).reversed());
+        long h = hits.get();
+        long total = h + misses.get();
+        return new Stats(h, misses.get(), evictions.get(), size,
+                total == 0 ? 0.0 : (double) h / total, expressions);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
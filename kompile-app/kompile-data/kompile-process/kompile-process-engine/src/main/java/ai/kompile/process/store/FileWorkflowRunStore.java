@@ -0,0 +1,665 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.process.store;
+
+import ai.kompile.process.execution.RunStatus;
+import ai.kompile.process.execution.WorkflowRun;
+import ai.kompile.process.hitl.ApprovalRequest;
+import ai.kompile.process.hitl.ApprovalRequestStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File-backed {@link WorkflowRunStore} that keeps an append-only event log per run.
+ *
+ * <p>Layout under the runs directory:</p>
+ * <ul>
+ *   <li>{@code events/<shard>/<runId>.jsonl} — one {@link RunEvent} per saved change,
+ *       holding only the top-level fields that differ from the previous state</li>
+ *   <li>{@code snapshots/<shard>/<runId>.json} — full state every {@code snapshotInterval}
+ *       events and whenever a run reaches a terminal status, with the log offset it covers</li>
+ *   <li>{@code index.jsonl} — append-only run id, status, definition and start time,
+ *       the last line per run winning; compacted on startup</li>
+ * </ul>
+ *
+ * <p>Only the index is read at startup. A run's state is rebuilt on first access from its
+ * snapshot plus the events after it, then kept in a bounded LRU. Status and definition
+ * lookups go through in-memory indexes built from the index file.</p>
+ *
+ * <p>Approval requests are stored one JSON file each, loaded eagerly, and indexed by
+ * status and assignee. Legacy {@code <runId>.json} run files found in the runs directory
+ * are imported as the first event of their run and removed once that event is written.</p>
+ */
+public class FileWorkflowRunStore implements WorkflowRunStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileWorkflowRunStore.class);
+
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 32;
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final Set<RunStatus> TERMINAL =
+            EnumSet.of(RunStatus.COMPLETED, RunStatus.FAILED, RunStatus.CANCELLED);
+    private static final int LOCK_STRIPES = 64;
+
+    /** One line of {@code index.jsonl} */
+    record IndexEntry(String id, RunStatus status, String definitionId, Instant startedAt) {
+    }
+
+    /** Snapshot file contents; {@code offset} is the event log size the state covers */
+    record Snapshot(long seq, long offset, ObjectNode run) {
+    }
+
+    private static final class LoadedRun {
+        final WorkflowRun run;
+        final ObjectNode state;
+        final long seq;
+        final long snapshotSeq;
+
+        LoadedRun(WorkflowRun run, ObjectNode state, long seq, long snapshotSeq) {
+            this.run = run;
+            this.state = state;
+            this.seq = seq;
+            this.snapshotSeq = snapshotSeq;
+        }
+    }
+
+    private final Path eventsDir;
+    private final Path snapshotsDir;
+    private final Path indexFile;
+    private final Path approvalDir;
+    private final ObjectMapper mapper;
+    /** Event and index files hold one JSON document per line */
+    private final ObjectWriter lineWriter;
+    private final int snapshotInterval;
+    private final int cacheSize;
+
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+    private final Map<RunStatus, Set<String>> runsByStatus = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> runsByDefinition = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, LoadedRun> cache;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final Object indexLock = new Object();
+    private BufferedWriter indexWriter;
+
+    private final Map<String, ApprovalRequest> approvals = new ConcurrentHashMap<>();
+    private final Set<String> pendingApprovals = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<String>> pendingByAssignee = new ConcurrentHashMap<>();
+
+    public FileWorkflowRunStore(Path runDir, Path approvalDir, ObjectMapper mapper) {
+        this(runDir, approvalDir, mapper, DEFAULT_SNAPSHOT_INTERVAL, DEFAULT_CACHE_SIZE);
+    }
+
+    public FileWorkflowRunStore(Path runDir, Path approvalDir, ObjectMapper mapper,
+                                int snapshotInterval, int cacheSize) {
+        this.eventsDir = runDir.resolve("events");
+        this.snapshotsDir = runDir.resolve("snapshots");
+        this.indexFile = runDir.resolve("index.jsonl");
+        this.approvalDir = approvalDir;
+        this.mapper = mapper;
+        this.lineWriter = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LoadedRun> eldest) {
+                return size() > FileWorkflowRunStore.this.cacheSize;
+            }
+        };
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        for (RunStatus status : RunStatus.values()) {
+            runsByStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+
+        try {
+            Files.createDirectories(eventsDir);
+            Files.createDirectories(snapshotsDir);
+            Files.createDirectories(approvalDir);
+        } catch (IOException e) {
+            log.error("Failed to create run store directories under {}: {}", runDir, e.getMessage());
+        }
+        readIndex();
+        importLegacyRuns(runDir);
+        loadApprovals();
+    }
+
+    // ---------------------------------------------------------------------------
+    // Runs
+    // ---------------------------------------------------------------------------
+
+    @Override
+    public void saveRun(WorkflowRun run) {
+        try {
+            persistRun(run);
+        } catch (IOException e) {
+            log.error("Failed to persist run {}: {}", run.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Appends the run's changes to its event log and updates the index. If the event cannot
+     * be written the run is still cached so this process sees its latest state, but it is
+     * left out of the index and the failure is rethrown.
+     */
+    private void persistRun(WorkflowRun run) throws IOException {
+        String id = run.getId();
+        synchronized (lockFor(id)) {
+            LoadedRun previous = load(id);
+            ObjectNode state = mapper.valueToTree(run);
+            ObjectNode changes = diff(previous != null ? previous.state : null, state);
+            if (previous != null && changes.isEmpty()) {
+                cachePut(id, new LoadedRun(run, state, previous.seq, previous.snapshotSeq));
+                return;
+            }
+
+            long seq = previous != null ? previous.seq + 1 : 1;
+            String type = previous == null ? RunEvent.CREATED
+                    : changes.has("status") ? RunEvent.STATUS_CHANGED : RunEvent.UPDATED;
+            long snapshotSeq = previous != null ? previous.snapshotSeq : 0;
+            Path eventFile = shardFile(eventsDir, id, ".jsonl");
+            RunEvent event = new RunEvent(seq, Instant.now(), type, run.getStatus(), changes);
+            try {
+                Files.writeString(eventFile, lineWriter.writeValueAsString(event) + "\n", StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                cachePut(id, new LoadedRun(run, state, seq, snapshotSeq));
+                throw e;
+            }
+            boolean terminal = run.getStatus() != null && TERMINAL.contains(run.getStatus());
+            if (seq - snapshotSeq >= snapshotInterval || terminal) {
+                try {
+                    writeSnapshot(id, new Snapshot(seq, Files.size(eventFile), state));
+                    snapshotSeq = seq;
+                } catch (IOException e) {
+                    // The event log alone is enough to rebuild the run
+                    log.warn("Failed to write snapshot of run {}: {}", id, e.getMessage());
+                }
+            }
+            cachePut(id, new LoadedRun(run, state, seq, snapshotSeq));
+            updateIndex(new IndexEntry(id, run.getStatus(), run.getProcessDefinitionId(), run.getStartedAt()));
+        }
+    }
+
+    @Override
+    public WorkflowRun getRun(String runId) {
+        if (runId == null) {
+            return null;
+        }
+        synchronized (lockFor(runId)) {
+            LoadedRun loaded = load(runId);
+            return loaded != null ? loaded.run : null;
+        }
+    }
+
+    @Override
+    public List<WorkflowRun> findRunsByStatus(Collection<RunStatus> statuses) {
+        List<String> ids = new ArrayList<>();
+        for (RunStatus status : statuses) {
+            ids.addAll(runsByStatus.get(status));
+        }
+        return materialize(ids);
+    }
+
+    @Override
+    public List<WorkflowRun> findRunsByDefinition(String processDefinitionId) {
+        Set<String> ids = runsByDefinition.get(processDefinitionId);
+        return ids == null ? new ArrayList<>() : materialize(new ArrayList<>(ids));
+    }
+
+    @Override
+    public List<WorkflowRun> listRuns(int offset, int limit) {
+        List<String> ids = sortByStart(new ArrayList<>(index.keySet()));
+        int from = Math.min(Math.max(0, offset), ids.size());
+        int to = (int) Math.min((long) from + Math.max(0, limit), ids.size());
+        return getRuns(ids.subList(from, to));
+    }
+
+    @Override
+    public int runCount() {
+        return index.size();
+    }
+
+    @Override
+    public List<RunEvent> getRunEvents(String runId) {
+        List<RunEvent> events = new ArrayList<>();
+        Path eventFile = shardPath(eventsDir, runId, ".jsonl");
+        if (!Files.exists(eventFile)) {
+            return events;
+        }
+        synchronized (lockFor(runId)) {
+            try (BufferedReader reader = Files.newBufferedReader(eventFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    RunEvent event = parseEvent(runId, line);
+                    if (event == null) break;
+                    events.add(event);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to read events of run {}: {}", runId, e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    private List<WorkflowRun> materialize(List<String> ids) {
+        return getRuns(sortByStart(ids));
+    }
+
+    /**
+     * Sorts run ids oldest first using the start times held in the index.
+     */
+    private List<String> sortByStart(List<String> ids) {
+        ids.sort(Comparator.comparing((String id) -> {
+            IndexEntry entry = index.get(id);
+            return entry != null && entry.startedAt() != null ? entry.startedAt() : Instant.EPOCH;
+        }).thenComparing(Comparator.naturalOrder()));
+        return ids;
+    }
+
+    private List<WorkflowRun> getRuns(List<String> ids) {
+        List<WorkflowRun> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            WorkflowRun run = getRun(id);
+            if (run != null) {
+                result.add(run);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the run from the cache or rebuilds it from its snapshot and event log.
+     * Must be called with the run's lock held.
+     */
+    private LoadedRun load(String id) {
+        LoadedRun cached;
+        synchronized (cache) {
+            cached = cache.get(id);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        ObjectNode state = null;
+        long seq = 0;
+        long snapshotSeq = 0;
+        long offset = 0;
+        Path snapshotFile = shardPath(snapshotsDir, id, ".json");
+        if (Files.exists(snapshotFile)) {
+            try {
+                Snapshot snapshot = mapper.readValue(snapshotFile.toFile(), Snapshot.class);
+                state = snapshot.run();
+                seq = snapshotSeq = snapshot.seq();
+                offset = snapshot.offset();
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable snapshot of run {}: {}", id, e.getMessage());
+            }
+        }
+
+        Path eventFile = shardPath(eventsDir, id, ".jsonl");
+        if (Files.exists(eventFile)) {
+            if (state == null) {
+                offset = 0;
+            }
+            try (FileChannel channel = FileChannel.open(eventFile, StandardOpenOption.READ)) {
+                channel.position(Math.min(offset, channel.size()));
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    RunEvent event = parseEvent(id, line);
+                    if (event == null) break;
+                    if (event.seq() <= seq) continue;
+                    state = state == null ? event.changes().deepCopy() : apply(state, event.changes());
+                    seq = event.seq();
+                }
+            } catch (IOException e) {
+                log.warn("Failed to read events of run {}: {}", id, e.getMessage());
+            }
+        }
+        if (state == null) {
+            return null;
+        }
+
+        try {
+            WorkflowRun run = mapper.treeToValue(state, WorkflowRun.class);
+            LoadedRun loaded = new LoadedRun(run, state, seq, snapshotSeq);
+            cachePut(id, loaded);
+            // The index line is written after the event, so a crash in between leaves it stale
+            IndexEntry known = index.get(id);
+            if (known == null || known.status() != run.getStatus()) {
+                updateIndex(new IndexEntry(id, run.getStatus(), run.getProcessDefinitionId(), run.getStartedAt()));
+            }
+            return loaded;
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to rebuild run {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private RunEvent parseEvent(String runId, String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return mapper.readValue(line, RunEvent.class);
+        } catch (JsonProcessingException e) {
+            // A torn write at the end of the log; everything before it is intact
+            log.warn("Stopping replay of run {} at an unreadable event: {}", runId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static ObjectNode diff(ObjectNode previous, ObjectNode current) {
+        ObjectNode changes = current.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (previous == null || !field.getValue().equals(previous.get(field.getKey()))) {
+                changes.set(field.getKey(), field.getValue());
+            }
+        }
+        if (previous != null) {
+            Iterator<String> names = previous.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!current.has(name)) {
+                    changes.putNull(name);
+                }
+            }
+        }
+        return changes;
+    }
+
+    private static ObjectNode apply(ObjectNode state, ObjectNode changes) {
+        Iterator<Map.Entry<String, JsonNode>> fields = changes.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                state.remove(field.getKey());
+            } else {
+                state.set(field.getKey(), field.getValue());
+            }
+        }
+        return state;
+    }
+
+    private void writeSnapshot(String id, Snapshot snapshot) throws IOException {
+        Path file = shardFile(snapshotsDir, id, ".json");
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        mapper.writeValue(tmp.toFile(), snapshot);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void cachePut(String id, LoadedRun loaded) {
+        synchronized (cache) {
+            cache.put(id, loaded);
+        }
+    }
+
+    private Object lockFor(String id) {
+        return locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+    }
+
+    /** Spreads runs over 256 subdirectories so no single directory holds every run. */
+    private static Path shardPath(Path root, String id, String suffix) {
+        String shard = String.format("%02x", id.hashCode() & 0xff);
+        return root.resolve(shard).resolve(id + suffix);
+    }
+
+    private static Path shardFile(Path root, String id, String suffix) throws IOException {
+        Path path = shardPath(root, id, suffix);
+        Files.createDirectories(path.getParent());
+        return path;
+    }
+
+    // ---------------------------------------------------------------------------
+    // Run index
+    // ---------------------------------------------------------------------------
+
+    private void updateIndex(IndexEntry entry) {
+        IndexEntry previous = index.put(entry.id(), entry);
+        if (entry.equals(previous)) {
+            return;
+        }
+        indexInMemory(previous, entry);
+        synchronized (indexLock) {
+            try {
+                if (indexWriter == null) {
+                    indexWriter = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                indexWriter.write(lineWriter.writeValueAsString(entry));
+                indexWriter.newLine();
+                indexWriter.flush();
+            } catch (IOException e) {
+                log.error("Failed to append to run index {}: {}", indexFile, e.getMessage());
+            }
+        }
+    }
+
+    private void indexInMemory(IndexEntry previous, IndexEntry entry) {
+        if (previous != null) {
+            if (previous.status() != null) {
+                runsByStatus.get(previous.status()).remove(previous.id());
+            }
+            if (previous.definitionId() != null) {
+                Set<String> ids = runsByDefinition.get(previous.definitionId());
+                if (ids != null) ids.remove(previous.id());
+            }
+        }
+        if (entry.status() != null) {
+            runsByStatus.get(entry.status()).add(entry.id());
+        }
+        if (entry.definitionId() != null) {
+            runsByDefinition.computeIfAbsent(entry.definitionId(), k -> ConcurrentHashMap.newKeySet()).add(entry.id());
+        }
+    }
+
+    private void readIndex() {
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                lines++;
+                try {
+                    IndexEntry entry = mapper.readValue(line, IndexEntry.class);
+                    indexInMemory(index.put(entry.id(), entry), entry);
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable run index line: {}", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to read run index {}: {}", indexFile, e.getMessage());
+            return;
+        }
+        if (lines > index.size()) {
+            compactIndex();
+        }
+    }
+
+    /** Rewrites the index with one line per run. */
+    private void compactIndex() {
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (IndexEntry entry : index.values()) {
+                writer.write(lineWriter.writeValueAsString(entry));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to compact run index {}: {}", indexFile, e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to replace run index {}: {}", indexFile, e.getMessage());
+        }
+    }
+
+    private void importLegacyRuns(Path runDir) {
+        int imported = 0;
+        try (var files = Files.list(runDir)) {
+            for (Path file : (Iterable<Path>) files.filter(p -> p.toString().endsWith(".json"))::iterator) {
+                try {
+                    WorkflowRun run = mapper.readValue(file.toFile(), WorkflowRun.class);
+                    if (run.getId() != null && !index.containsKey(run.getId())) {
+                        // Keep the legacy file unless its event was written
+                        persistRun(run);
+                        imported++;
+                    }
+                    Files.delete(file);
+                } catch (IOException e) {
+                    log.warn("Failed to import legacy run file {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to list run directory {}: {}", runDir, e.getMessage());
+        }
+        if (imported > 0) {
+            log.info("Imported {} legacy workflow run files into the run event store", imported);
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+    // Approvals
+    // ---------------------------------------------------------------------------
+
+    @Override
+    public void saveApproval(ApprovalRequest request) {
+        synchronized (lockFor(request.getId())) {
+            ApprovalRequest previous = approvals.put(request.getId(), request);
+            indexApproval(previous, request);
+        }
+        try {
+            mapper.writeValue(approvalDir.resolve(request.getId() + ".json").toFile(), request);
+        } catch (IOException e) {
+            log.error("Failed to persist approval request {}: {}", request.getId(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ApprovalRequest getApproval(String requestId) {
+        return requestId == null ? null : approvals.get(requestId);
+    }
+
+    @Override
+    public List<ApprovalRequest> findPendingApprovals(String assignedTo) {
+        Set<String> ids = assignedTo == null ? pendingApprovals : pendingByAssignee.get(assignedTo);
+        List<ApprovalRequest> result = new ArrayList<>();
+        if (ids == null) {
+            return result;
+        }
+        for (String id : ids) {
+            ApprovalRequest request = approvals.get(id);
+            if (request != null && request.getStatus() == ApprovalRequestStatus.PENDING) {
+                result.add(request);
+            }
+        }
+        result.sort(Comparator.comparing(ApprovalRequest::getCreatedAt,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    @Override
+    public int approvalCount() {
+        return approvals.size();
+    }
+
+    private void indexApproval(ApprovalRequest previous, ApprovalRequest request) {
+        if (previous != null) {
+            pendingApprovals.remove(previous.getId());
+            if (previous.getAssignedTo() != null) {
+                Set<String> ids = pendingByAssignee.get(previous.getAssignedTo());
+                if (ids != null) ids.remove(previous.getId());
+            }
+        }
+        if (request.getStatus() == ApprovalRequestStatus.PENDING) {
+            pendingApprovals.add(request.getId());
+            if (request.getAssignedTo() != null) {
+                pendingByAssignee.computeIfAbsent(request.getAssignedTo(), k -> ConcurrentHashMap.newKeySet())
+                        .add(request.getId());
+            }
+        }
+    }
+
+    private void loadApprovals() {
+        if (!Files.isDirectory(approvalDir)) return;
+        try (var files = Files.list(approvalDir)) {
+            files.filter(p -> p.toString().endsWith(".json")).forEach(p -> {
+                try {
+                    ApprovalRequest request = mapper.readValue(p.toFile(), ApprovalRequest.class);
+                    indexApproval(approvals.put(request.getId(), request), request);
+                } catch (IOException e) {
+                    log.warn("Failed to load ApprovalRequest from {}: {}", p, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.error("Failed to list directory {}: {}", approvalDir, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (indexLock) {
+            if (indexWriter != null) {
+                try {
+                    indexWriter.close();
+                } catch (IOException e) {
+                    log.debug("Error closing run index: {}", e.getMessage());
+                }
+                indexWriter = null;
+            }
+        }
+    }
+}
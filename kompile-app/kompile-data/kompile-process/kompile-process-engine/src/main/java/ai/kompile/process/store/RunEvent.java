@@ -0,0 +1,40 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.process.store;
+
+import ai.kompile.process.execution.RunStatus;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+
+/**
+ * One entry of a run's append-only event log.
+ *
+ * @param seq     1-based position in the run's log
+ * @param at      when the change was stored
+ * @param type    {@link #CREATED}, {@link #STATUS_CHANGED} or {@link #UPDATED}
+ * @param status  run status after the change
+ * @param changes top-level {@link ai.kompile.process.execution.WorkflowRun} fields that changed,
+ *                as JSON; a null value means the field was cleared
+ */
+public record RunEvent(long seq, Instant at, String type, RunStatus status, ObjectNode changes) {
+
+    public static final String CREATED = "CREATED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String UPDATED = "UPDATED";
+}
@@ -0,0 +1,91 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.process.store;
+
+import ai.kompile.process.execution.RunStatus;
+import ai.kompile.process.execution.WorkflowRun;
+import ai.kompile.process.hitl.ApprovalRequest;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable storage for workflow runs and their approval requests.
+ *
+ * <p>Implementations keep secondary indexes so that status, definition and assignee
+ * lookups do not have to materialize every stored run.</p>
+ */
+public interface WorkflowRunStore extends AutoCloseable {
+
+    /**
+     * Stores the current state of a run, creating it if it is new.
+     */
+    void saveRun(WorkflowRun run);
+
+    /**
+     * @return the run, or null if it does not exist
+     */
+    WorkflowRun getRun(String runId);
+
+    /**
+     * Returns the runs currently in any of the given statuses, oldest first.
+     */
+    List<WorkflowRun> findRunsByStatus(Collection<RunStatus> statuses);
+
+    /**
+     * Returns all runs of a process definition, oldest first.
+     */
+    List<WorkflowRun> findRunsByDefinition(String processDefinitionId);
+
+    /**
+     * Returns one page of stored runs, oldest first. Only the runs on the page are
+     * materialized.
+     *
+     * @param offset number of runs to skip
+     * @param limit  maximum number of runs to return
+     */
+    List<WorkflowRun> listRuns(int offset, int limit);
+
+    int runCount();
+
+    /**
+     * Returns the recorded state changes of a run in order, or an empty list if the
+     * store does not keep history.
+     */
+    List<RunEvent> getRunEvents(String runId);
+
+    void saveApproval(ApprovalRequest request);
+
+    /**
+     * @return the approval request, or null if it does not exist
+     */
+    ApprovalRequest getApproval(String requestId);
+
+    /**
+     * Returns pending approval requests, optionally restricted to one assignee.
+     *
+     * @param assignedTo the assignee, or null for all pending requests
+     */
+    List<ApprovalRequest> findPendingApprovals(String assignedTo);
+
+    int approvalCount();
+
+    @Override
+    default void close() {
+    }
+}
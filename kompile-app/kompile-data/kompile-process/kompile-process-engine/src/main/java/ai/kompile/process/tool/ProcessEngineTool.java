@@ -111,7 +111,7 @@ public class ProcessEngineTool {
 
     public record CancelRunInput(String runId) {}
 
-    public record ListAllRunsInput() {}
+    public record ListAllRunsInput(Integer offset, Integer limit) {}
 
     public record CompleteHumanStepInput(
             String runId,
@@ -630,12 +630,16 @@ public class ProcessEngineTool {
     }
 
     @Tool(name = "process_list_all_runs",
-          description = "Lists all workflow runs regardless of status (RUNNING, COMPLETED, CANCELLED, etc.). " +
-                  "Returns run IDs, statuses, process definition IDs, and timestamps.")
+          description = "Lists workflow runs regardless of status (RUNNING, COMPLETED, CANCELLED, etc.), oldest first. " +
+                  "Returns run IDs, statuses, process definition IDs, and timestamps. " +
+                  "offset: number of runs to skip (default 0). " +
+                  "limit: maximum number of runs to return (default 100).")
     public Map<String, Object> listAllRuns(ListAllRunsInput input) {
         Map<String, Object> result = new LinkedHashMap<>();
         try {
-            List<WorkflowRun> runs = processEngineService.listAllRuns();
+            int offset = input.offset() != null ? input.offset() : 0;
+            int limit = input.limit() != null ? input.limit() : ProcessEngineService.DEFAULT_RUN_PAGE_SIZE;
+            List<WorkflowRun> runs = processEngineService.listAllRuns(offset, limit);
             List<Map<String, Object>> items = runs.stream().map(run -> {
                 Map<String, Object> item = new LinkedHashMap<>();
                 item.put("runId", run.getId());
@@ -648,6 +652,7 @@ public class ProcessEngineTool {
             }).collect(Collectors.toList());
             result.put("runs", items);
             result.put("count", items.size());
+            result.put("offset", offset);
             result.put("status", "success");
         } catch (Exception e) {
             log.error("Error listing all workflow runs", e);
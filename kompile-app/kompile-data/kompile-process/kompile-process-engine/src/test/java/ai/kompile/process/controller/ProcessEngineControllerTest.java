@@ -359,13 +359,23 @@ class ProcessEngineControllerTest {
     void getAllRuns_returns200WithArray() throws Exception {
         WorkflowRun r1 = WorkflowRun.builder().id("run-1").status(RunStatus.COMPLETED).build();
         WorkflowRun r2 = WorkflowRun.builder().id("run-2").status(RunStatus.RUNNING).build();
-        when(processEngineService.listAllRuns()).thenReturn(List.of(r1, r2));
+        when(processEngineService.listAllRuns(0, ProcessEngineService.DEFAULT_RUN_PAGE_SIZE)).thenReturn(List.of(r1, r2));
 
         mockMvc.perform(get("/api/process/run/all"))
                .andExpect(status().isOk())
                .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void getAllRuns_passesPagingParameters() throws Exception {
+        WorkflowRun r3 = WorkflowRun.builder().id("run-3").status(RunStatus.COMPLETED).build();
+        when(processEngineService.listAllRuns(2, 1)).thenReturn(List.of(r3));
+
+        mockMvc.perform(get("/api/process/run/all").param("offset", "2").param("limit", "1"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$[0].id").value("run-3"));
+    }
+
     // -------------------------------------------------------------------------
     // Cancel run endpoint
     // -------------------------------------------------------------------------
@@ -85,6 +85,7 @@ class ProcessEngineServiceImplTest {
 
     @AfterEach
     void tearDown() throws IOException {
+        service.shutdown();
         System.setProperty("user.home", ORIGINAL_USER_HOME);
 
         // Recursively delete the temp directory
@@ -274,6 +275,34 @@ class ProcessEngineServiceImplTest {
         assertEquals("tester@example.com", request.getAssignedTo());
     }
 
+    @Test
+    void pausedRunAndPendingApproval_surviveRestart() {
+        WorkflowRun paused = startRunWithApproveStep();
+        String requestId = paused.getPendingApprovals().get(0).getId();
+        service.shutdown();
+
+        service = new ProcessEngineServiceImpl();
+        service.init();
+
+        WorkflowRun reloaded = service.getRun(paused.getId());
+        assertEquals(RunStatus.PAUSED_FOR_APPROVAL, reloaded.getStatus());
+        assertEquals(paused.getStepExecutions().size(), reloaded.getStepExecutions().size());
+        assertEquals(List.of(paused.getId()),
+                service.listActiveRuns().stream().map(WorkflowRun::getId).toList());
+        assertEquals(List.of(requestId),
+                service.getPendingApprovals("tester@example.com").stream().map(ApprovalRequest::getId).toList());
+        assertTrue(service.getPendingApprovals("someone-else@example.com").isEmpty());
+
+        WorkflowRun resumed = service.submitApproval(ApprovalResponse.builder()
+                .requestId(requestId)
+                .respondedBy("tester@example.com")
+                .action(ApprovalAction.APPROVE)
+                .build());
+        assertEquals(RunStatus.COMPLETED, resumed.getStatus());
+        assertTrue(service.listActiveRuns().isEmpty());
+        assertTrue(service.getPendingApprovals(null).isEmpty());
+    }
+
     // -------------------------------------------------------------------------
     // submitApproval — APPROVE resumes the run
     // -------------------------------------------------------------------------
@@ -417,6 +446,21 @@ class ProcessEngineServiceImplTest {
                 () -> service.evaluateControl("no-such-control", "run-1", Map.of()));
     }
 
+    @Test
+    void evaluateControl_repeatedEvaluationsReuseParsedExpression() {
+        String controlId = registerControl("ctrl-cached", "#value > 0", ControlGateType.SOFT);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(service.evaluateControl(controlId, "run-" + i, Map.of("value", i + 1)).isPassed());
+        }
+
+        SpelExpressionCache.Stats stats = service.getSpelCacheStats();
+        assertEquals(1, stats.misses());
+        assertEquals(2, stats.hits());
+        assertEquals("#value > 0", stats.expressions().get(0).expression());
+        assertEquals(3, stats.expressions().get(0).evaluations());
+    }
+
     // -------------------------------------------------------------------------
     // Submission manifest — create and assertAuthoritativeVersion
     // -------------------------------------------------------------------------
@@ -630,7 +674,7 @@ class ProcessEngineServiceImplTest {
         WorkflowRun r2 = service.startRun(approved.getId(), null);
         assertEquals(RunStatus.COMPLETED, r2.getStatus());
 
-        List<WorkflowRun> allRuns = service.listAllRuns();
+        List<WorkflowRun> allRuns = service.listAllRuns(0, ProcessEngineService.DEFAULT_RUN_PAGE_SIZE);
         assertTrue(allRuns.size() >= 2, "should include at least the two runs we just created");
 
         // Active runs should be empty since both completed
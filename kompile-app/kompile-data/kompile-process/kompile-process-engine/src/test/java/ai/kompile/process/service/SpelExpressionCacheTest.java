@@ -0,0 +1,106 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.process.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link SpelExpressionCache}.
+ */
+class SpelExpressionCacheTest {
+
+    private final SpelExpressionCache cache = new SpelExpressionCache(SpelExpressionCache.DEFAULT_MAX_ENTRIES);
+
+    @Test
+    void getValue_parsesOnceAndCountsHits() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(cache.getValue("#a + #b", cache.newContext(Map.of("a", i, "b", 1)))).isEqualTo(i + 1);
+        }
+
+        SpelExpressionCache.Stats stats = cache.getStats();
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(3);
+        assertThat(stats.hitRate()).isEqualTo(0.75);
+        assertThat(stats.size()).isEqualTo(1);
+        assertThat(stats.expressions()).singleElement().satisfies(e -> {
+            assertThat(e.expression()).isEqualTo("#a + #b");
+            assertThat(e.evaluations()).isEqualTo(4);
+            assertThat(e.failures()).isZero();
+            assertThat(e.maxMicros()).isGreaterThanOrEqualTo(e.meanMicros());
+        });
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedExpression() {
+        SpelExpressionCache small = new SpelExpressionCache(2);
+        small.parse("1 + 1");
+        small.parse("2 + 2");
+        small.parse("1 + 1");
+        small.parse("3 + 3");
+
+        SpelExpressionCache.Stats stats = small.getStats();
+        assertThat(stats.size()).isEqualTo(2);
+        assertThat(stats.evictions()).isEqualTo(1);
+        assertThat(stats.expressions()).extracting(SpelExpressionCache.ExpressionStats::expression)
+                .containsExactlyInAnyOrder("1 + 1", "3 + 3");
+    }
+
+    @Test
+    void hotExpressionStaysCorrectAcrossCompilationAndTypeChanges() {
+        String expression = "#amount > 100 and #status == 'OPEN'";
+        for (int i = 0; i < 300; i++) {
+            Map<String, Object> vars = Map.of("amount", i, "status", i % 2 == 0 ? "OPEN" : "CLOSED");
+            assertThat(cache.getValue(expression, cache.newContext(vars))).isEqualTo(i > 100 && i % 2 == 0);
+        }
+        // A compiled expression specialized for Integer must fall back when the variable type changes
+        Object result = cache.getValue(expression, cache.newContext(Map.of("amount", 150.5, "status", "OPEN")));
+        assertThat(result).isEqualTo(true);
+    }
+
+    @Test
+    void contextsDoNotShareVariables() {
+        StandardEvaluationContext first = cache.newContext(Map.of("x", "one"));
+        StandardEvaluationContext second = cache.newContext(new HashMap<>());
+
+        assertThat(cache.getValue("#x", first)).isEqualTo("one");
+        assertThat(cache.getValue("#x", second)).isNull();
+        assertThat(cache.getValue("#x?.length()", first)).isEqualTo(3);
+        assertThat(cache.getValue("T(java.lang.Math).max(#a, 2)", cache.newContext(Map.of("a", 5)))).isEqualTo(5);
+    }
+
+    @Test
+    void parseFailuresAreNotCachedAndEvaluationFailuresAreCounted() {
+        assertThatThrownBy(() -> cache.parse("#a +")).isInstanceOf(ParseException.class);
+        assertThat(cache.getStats().size()).isZero();
+
+        assertThatThrownBy(() -> cache.getValue("#list[5]", cache.newContext(Map.of("list", List.of(1)))))
+                .isInstanceOf(SpelEvaluationException.class);
+        assertThat(cache.getStats().expressions()).singleElement()
+                .satisfies(e -> assertThat(e.failures()).isEqualTo(1));
+    }
+}
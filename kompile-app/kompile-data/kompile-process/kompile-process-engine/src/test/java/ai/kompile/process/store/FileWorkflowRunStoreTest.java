@@ -0,0 +1,306 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.process.store;
+
+import ai.kompile.cli.common.util.JsonUtils;
+import ai.kompile.process.execution.RunStatus;
+import ai.kompile.process.execution.WorkflowRun;
+import ai.kompile.process.hitl.ApprovalRequest;
+import ai.kompile.process.hitl.ApprovalRequestStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FileWorkflowRunStore}.
+ */
+class FileWorkflowRunStoreTest {
+
+    private final ObjectMapper mapper = JsonUtils.newStandardMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    @TempDir
+    Path tempDir;
+
+    private Path runDir;
+    private Path approvalDir;
+    private FileWorkflowRunStore store;
+
+    @BeforeEach
+    void setUp() {
+        runDir = tempDir.resolve("runs");
+        approvalDir = tempDir.resolve("approvals");
+        store = open(4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    // -------------------------------------------------------------------------
+    // Event log and snapshots
+    // -------------------------------------------------------------------------
+
+    @Test
+    void eventsHoldOnlyChangedFields() {
+        WorkflowRun run = run("wf-1", "def-a", RunStatus.RUNNING, 0);
+        store.saveRun(run);
+        store.saveRun(copy(run, RunStatus.RUNNING, Map.of("step", 1)));
+        store.saveRun(copy(run, RunStatus.PAUSED_FOR_HUMAN, Map.of("step", 1)));
+        store.saveRun(copy(run, RunStatus.PAUSED_FOR_HUMAN, Map.of("step", 1)));
+
+        List<RunEvent> events = store.getRunEvents("wf-1");
+        assertEquals(List.of(RunEvent.CREATED, RunEvent.UPDATED, RunEvent.STATUS_CHANGED),
+                events.stream().map(RunEvent::type).toList(), "an unchanged save appends nothing");
+        assertEquals(List.of("runData"), fieldNames(events.get(1)));
+        assertEquals(List.of("status"), fieldNames(events.get(2)));
+        assertEquals(RunStatus.PAUSED_FOR_HUMAN, events.get(2).status());
+    }
+
+    @Test
+    void rebuildsStateFromSnapshotAndLaterEventsAfterReopen() throws IOException {
+        WorkflowRun run = run("wf-1", "def-a", RunStatus.RUNNING, 0);
+        store.saveRun(run);
+        for (int i = 1; i <= 9; i++) {
+            store.saveRun(copy(run, RunStatus.RUNNING, Map.of("step", i)));
+        }
+        assertTrue(Files.exists(shard(runDir.resolve("snapshots"), "wf-1", ".json")),
+                "a snapshot is written every snapshotInterval events");
+
+        reopen();
+        WorkflowRun rebuilt = store.getRun("wf-1");
+        assertEquals(9, rebuilt.getRunData().get("step"));
+        assertEquals(run.getStartedAt(), rebuilt.getStartedAt());
+
+        // Further saves continue the same log
+        store.saveRun(copy(rebuilt, RunStatus.COMPLETED, Map.of("step", 10)));
+        assertEquals(11, store.getRunEvents("wf-1").size());
+        reopen();
+        assertEquals(RunStatus.COMPLETED, store.getRun("wf-1").getStatus());
+    }
+
+    @Test
+    void tornTrailingEventIsIgnored() throws IOException {
+        WorkflowRun run = run("wf-1", "def-a", RunStatus.RUNNING, 0);
+        store.saveRun(run);
+        store.saveRun(copy(run, RunStatus.RUNNING, Map.of("step", 1)));
+        Path events = shard(runDir.resolve("events"), "wf-1", ".jsonl");
+        Files.writeString(events, "{\"seq\":3,\"type\":\"UPD", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        reopen();
+        assertEquals(1, store.getRun("wf-1").getRunData().get("step"));
+    }
+
+    @Test
+    void clearedFieldsAreRemovedOnReplay() {
+        WorkflowRun run = run("wf-1", "def-a", RunStatus.RUNNING, 0);
+        run.setRiskAssessmentId("risk-1");
+        store.saveRun(run);
+        WorkflowRun cleared = copy(run, RunStatus.RUNNING, run.getRunData());
+        cleared.setRiskAssessmentId(null);
+        store.saveRun(cleared);
+
+        reopen();
+        assertNull(store.getRun("wf-1").getRiskAssessmentId());
+    }
+
+    // -------------------------------------------------------------------------
+    // Secondary indexes
+    // -------------------------------------------------------------------------
+
+    @Test
+    void statusAndDefinitionIndexesFollowUpdatesAndSurviveReopen() {
+        for (int i = 0; i < 20; i++) {
+            store.saveRun(run("wf-" + i, i % 2 == 0 ? "def-a" : "def-b",
+                    i < 5 ? RunStatus.RUNNING : RunStatus.COMPLETED, i));
+        }
+        store.saveRun(copy(store.getRun("wf-0"), RunStatus.CANCELLED, Map.of()));
+
+        assertEquals(List.of("wf-1", "wf-2", "wf-3", "wf-4"), ids(store.findRunsByStatus(List.of(RunStatus.RUNNING))));
+        assertEquals(10, store.findRunsByDefinition("def-a").size());
+        assertTrue(store.findRunsByDefinition("def-c").isEmpty());
+
+        reopen();
+        assertEquals(20, store.runCount());
+        assertEquals(List.of("wf-1", "wf-2", "wf-3", "wf-4"), ids(store.findRunsByStatus(List.of(RunStatus.RUNNING))));
+        assertEquals(List.of("wf-0"), ids(store.findRunsByStatus(List.of(RunStatus.CANCELLED))));
+        assertEquals(20, store.listRuns(0, 100).size());
+        assertEquals("wf-0", store.listRuns(0, 100).get(0).getId(), "runs are listed oldest first");
+    }
+
+    @Test
+    void listsRunsOnePageAtATime() {
+        for (int i = 0; i < 10; i++) {
+            store.saveRun(run("wf-" + i, "def-a", RunStatus.COMPLETED, i));
+        }
+        reopen();
+
+        assertEquals(List.of("wf-3", "wf-4", "wf-5"), ids(store.listRuns(3, 3)));
+        assertEquals(List.of("wf-8", "wf-9"), ids(store.listRuns(8, 5)));
+        assertTrue(store.listRuns(10, 5).isEmpty());
+        assertTrue(store.listRuns(0, 0).isEmpty());
+    }
+
+    @Test
+    void indexIsCompactedOnReopen() throws IOException {
+        WorkflowRun run = run("wf-1", "def-a", RunStatus.RUNNING, 0);
+        store.saveRun(run);
+        store.saveRun(copy(run, RunStatus.PAUSED_FOR_APPROVAL, Map.of()));
+        store.saveRun(copy(run, RunStatus.COMPLETED, Map.of()));
+        assertEquals(3, Files.readAllLines(runDir.resolve("index.jsonl")).size());
+
+        reopen();
+        assertEquals(1, Files.readAllLines(runDir.resolve("index.jsonl")).size());
+        assertEquals(List.of("wf-1"), ids(store.findRunsByStatus(List.of(RunStatus.COMPLETED))));
+    }
+
+    @Test
+    void importsLegacyRunFiles() throws IOException {
+        store.close();
+        WorkflowRun legacy = run("wf-legacy", "def-a", RunStatus.PAUSED_FOR_HUMAN, 0);
+        mapper.writeValue(runDir.resolve("wf-legacy.json").toFile(), legacy);
+
+        store = open(4, 2);
+        assertFalse(Files.exists(runDir.resolve("wf-legacy.json")));
+        assertEquals(List.of("wf-legacy"), ids(store.findRunsByStatus(List.of(RunStatus.PAUSED_FOR_HUMAN))));
+        assertEquals(legacy.getRunData(), store.getRun("wf-legacy").getRunData());
+    }
+
+    @Test
+    void keepsLegacyRunFileWhenItsEventCannotBeWritten() throws IOException {
+        store.close();
+        WorkflowRun legacy = run("wf-legacy", "def-a", RunStatus.PAUSED_FOR_HUMAN, 0);
+        mapper.writeValue(runDir.resolve("wf-legacy.json").toFile(), legacy);
+        // A directory in place of the run's event log makes the append fail
+        String shard = String.format("%02x", "wf-legacy".hashCode() & 0xff);
+        Files.createDirectories(runDir.resolve("events").resolve(shard).resolve("wf-legacy.jsonl"));
+
+        store = open(4, 2);
+        assertTrue(Files.exists(runDir.resolve("wf-legacy.json")));
+        assertEquals(0, store.runCount());
+    }
+
+    // -------------------------------------------------------------------------
+    // Approvals
+    // -------------------------------------------------------------------------
+
+    @Test
+    void pendingApprovalsAreIndexedByAssignee() {
+        store.saveApproval(approval("req-1", "alice", ApprovalRequestStatus.PENDING, 1));
+        store.saveApproval(approval("req-2", "bob", ApprovalRequestStatus.PENDING, 2));
+        store.saveApproval(approval("req-3", "alice", ApprovalRequestStatus.APPROVED, 3));
+
+        assertEquals(List.of("req-1"), approvalIds(store.findPendingApprovals("alice")));
+        assertEquals(List.of("req-1", "req-2"), approvalIds(store.findPendingApprovals(null)));
+
+        // Delegation moves the request to the new assignee
+        store.saveApproval(approval("req-1", "bob", ApprovalRequestStatus.PENDING, 1));
+        assertTrue(store.findPendingApprovals("alice").isEmpty());
+        assertEquals(List.of("req-1", "req-2"), approvalIds(store.findPendingApprovals("bob")));
+
+        store.saveApproval(approval("req-2", "bob", ApprovalRequestStatus.REJECTED, 2));
+        reopen();
+        assertEquals(3, store.approvalCount());
+        assertEquals(List.of("req-1"), approvalIds(store.findPendingApprovals("bob")));
+        assertEquals(ApprovalRequestStatus.REJECTED, store.getApproval("req-2").getStatus());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private FileWorkflowRunStore open(int snapshotInterval, int cacheSize) {
+        return new FileWorkflowRunStore(runDir, approvalDir, mapper, snapshotInterval, cacheSize);
+    }
+
+    private void reopen() {
+        store.close();
+        store = open(4, 2);
+    }
+
+    private static WorkflowRun run(String id, String definitionId, RunStatus status, int startOffsetSeconds) {
+        Map<String, Object> runData = new HashMap<>();
+        runData.put("owner", "ops");
+        return WorkflowRun.builder()
+                .id(id)
+                .processDefinitionId(definitionId)
+                .processVersion(1)
+                .status(status)
+                .startedAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(startOffsetSeconds))
+                .runData(runData)
+                .build();
+    }
+
+    private static WorkflowRun copy(WorkflowRun run, RunStatus status, Map<String, Object> runData) {
+        return WorkflowRun.builder()
+                .id(run.getId())
+                .processDefinitionId(run.getProcessDefinitionId())
+                .processVersion(run.getProcessVersion())
+                .status(status)
+                .startedAt(run.getStartedAt())
+                .runData(new HashMap<>(runData))
+                .riskAssessmentId(run.getRiskAssessmentId())
+                .build();
+    }
+
+    private static ApprovalRequest approval(String id, String assignee, ApprovalRequestStatus status, int createdOffsetSeconds) {
+        return ApprovalRequest.builder()
+                .id(id)
+                .workflowRunId("wf-1")
+                .status(status)
+                .assignedTo(assignee)
+                .createdAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(createdOffsetSeconds))
+                .build();
+    }
+
+    private static List<String> ids(List<WorkflowRun> runs) {
+        return runs.stream().map(WorkflowRun::getId).toList();
+    }
+
+    private static List<String> approvalIds(List<ApprovalRequest> requests) {
+        return requests.stream().map(ApprovalRequest::getId).toList();
+    }
+
+    private static List<String> fieldNames(RunEvent event) {
+        List<String> names = new ArrayList<>();
+        event.changes().fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static Path shard(Path root, String id, String suffix) {
+        return root.resolve(String.format("%02x", id.hashCode() & 0xff)).resolve(id + suffix);
+    }
+}
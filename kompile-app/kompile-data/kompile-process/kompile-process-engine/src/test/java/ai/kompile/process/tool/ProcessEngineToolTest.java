@@ -374,20 +374,32 @@ class ProcessEngineToolTest {
     void listAllRuns_returnsAllRuns() {
         WorkflowRun run1 = WorkflowRun.builder().id("run-1").status(RunStatus.COMPLETED).build();
         WorkflowRun run2 = WorkflowRun.builder().id("run-2").status(RunStatus.CANCELLED).build();
-        when(processEngineService.listAllRuns()).thenReturn(List.of(run1, run2));
+        when(processEngineService.listAllRuns(0, ProcessEngineService.DEFAULT_RUN_PAGE_SIZE))
+                .thenReturn(List.of(run1, run2));
 
-        Map<String, Object> result = tool.listAllRuns(new ProcessEngineTool.ListAllRunsInput());
+        Map<String, Object> result = tool.listAllRuns(new ProcessEngineTool.ListAllRunsInput(null, null));
 
         assertEquals("success", result.get("status"));
         assertEquals(2, result.get("count"));
     }
 
+    @Test
+    void listAllRuns_passesPaging() {
+        WorkflowRun run3 = WorkflowRun.builder().id("run-3").status(RunStatus.COMPLETED).build();
+        when(processEngineService.listAllRuns(2, 1)).thenReturn(List.of(run3));
+
+        Map<String, Object> result = tool.listAllRuns(new ProcessEngineTool.ListAllRunsInput(2, 1));
+
+        assertEquals(1, result.get("count"));
+        assertEquals(2, result.get("offset"));
+    }
+
     @Test
     void listAllRuns_handlesError() {
-        when(processEngineService.listAllRuns())
+        when(processEngineService.listAllRuns(anyInt(), anyInt()))
                 .thenThrow(new RuntimeException("DB unavailable"));
 
-        Map<String, Object> result = tool.listAllRuns(new ProcessEngineTool.ListAllRunsInput());
+        Map<String, Object> result = tool.listAllRuns(new ProcessEngineTool.ListAllRunsInput(null, null));
 
         assertEquals("error", result.get("status"));
         assertEquals("DB unavailable", result.get("error"));
@@ -36,7 +36,8 @@ import java.util.Map;
 public class ArcticEmbedSameDiffEncoder extends SameDiffEncoder<float[]> {
     private static final Logger LOG = LogManager.getLogger(ArcticEmbedSameDiffEncoder.class);
 
-    private static final String INSTRUCTION = "Represent this sentence for searching relevant passages: ";
+    /** Prepended to every text before tokenization. */
+    public static final String INSTRUCTION = "Represent this sentence for searching relevant passages: ";
 
     public static final boolean DEFAULT_DO_LOWERCASE_AND_STRIP_ACCENTS = true;
     public static final int DEFAULT_MAX_SEQUENCE_LENGTH = 512;
@@ -541,6 +542,11 @@ public class ArcticEmbedSameDiffEncoder extends SameDiffEncoder<float[]> {
     }
 
     private List<float[]> encodeBatchWithDynamicSizing(List<String> texts) {
+        if (isLengthBucketingEnabled()) {
+            return encodeBatchLengthBucketed(texts, INSTRUCTION,
+                    this::encodeSingleInferenceBatchFromEncodings, this::encodeSequentialFromEncodings);
+        }
+
         long totalStartTime = System.currentTimeMillis();
         int numTexts = texts.size();
 
@@ -687,6 +693,16 @@ public class ArcticEmbedSameDiffEncoder extends SameDiffEncoder<float[]> {
         return Arrays.asList(reorderedResults);
     }
 
+    @Override
+    protected int fullLengthBatchSize(int maxSeqLength) {
+        return calculateOptimalBatchSize(maxSeqLength);
+    }
+
+    @Override
+    protected int bucketMaxBatchSize() {
+        return ABSOLUTE_MAX_BATCH_SIZE;
+    }
+
     private List<float[]> encodeSequentialFromEncodings(List<String> texts,
                                                          List<SamediffBertTokenizerPreProcessor.BertEncoding> encodings) {
         List<float[]> results = new ArrayList<>(texts.size());
@@ -59,6 +59,14 @@ public class BgeSameDiffEncoder extends SameDiffEncoder<float[]> {
         return instruction;
     }
 
+    /**
+     * The prefix an encoder built with {@code instruction} prepends to every text:
+     * the trimmed instruction plus a space, or empty when there is none.
+     */
+    public static String instructionPrefix(@Nullable String instruction) {
+        return (instruction == null || instruction.trim().isEmpty()) ? "" : instruction.trim() + " ";
+    }
+
     public BgeSameDiffEncoder(@NotNull String modelIdentifier,
                               @Nullable String instruction,
                               boolean normalizeEmbeddings,
@@ -66,7 +74,7 @@ public class BgeSameDiffEncoder extends SameDiffEncoder<float[]> {
                               int maxSequenceLength,
                               boolean addSpecialTokens) throws IOException {
         super(modelIdentifier, doLowerCaseAndStripAccents, maxSequenceLength, addSpecialTokens);
-        this.instruction = (instruction == null || instruction.trim().isEmpty()) ? "" : instruction.trim() + " ";
+        this.instruction = instructionPrefix(instruction);
         this.normalizeEmbeddings = normalizeEmbeddings;
         LOG.info("[{}] BGE Encoder initialized. Instruction prefix: '{}', Normalize: {}",
                 modelIdentifier, this.instruction.isEmpty() ? "none" : this.instruction.trim(), this.normalizeEmbeddings);
@@ -96,7 +104,7 @@ public class BgeSameDiffEncoder extends SameDiffEncoder<float[]> {
         super(modelIdentifier, kompileManagedOnnxModelPath, kompileManagedVocabPath,
                 null, null, // Will be dynamically determined
                 doLowerCaseAndStripAccents, maxSequenceLength, addSpecialTokens);
-        this.instruction = (instruction == null || instruction.trim().isEmpty()) ? "" : instruction.trim() + " ";
+        this.instruction = instructionPrefix(instruction);
         this.normalizeEmbeddings = normalizeEmbeddings;
         LOG.info("[{}] BGE Encoder initialized (legacy). Instruction prefix: '{}', Normalize: {}",
                 modelIdentifier, this.instruction.isEmpty() ? "none" : this.instruction.trim(), this.normalizeEmbeddings);
@@ -850,6 +858,11 @@ public class BgeSameDiffEncoder extends SameDiffEncoder<float[]> {
      * </ol>
      */
     private List<float[]> encodeBatchWithDynamicSizing(List<String> texts) {
+        if (isLengthBucketingEnabled()) {
+            return encodeBatchLengthBucketed(texts, instruction,
+                    this::encodeSingleInferenceBatchFromEncodings, this::encodeSequentialFromEncodings);
+        }
+
         long totalStartTime = System.currentTimeMillis();
         int numTexts = texts.size();
 
@@ -1080,6 +1093,16 @@ public class BgeSameDiffEncoder extends SameDiffEncoder<float[]> {
             int seqLength
     ) {}
 
+    @Override
+    protected int fullLengthBatchSize(int maxSeqLength) {
+        return calculateOptimalBatchSize(maxSeqLength);
+    }
+
+    @Override
+    protected int bucketMaxBatchSize() {
+        return ABSOLUTE_MAX_BATCH_SIZE;
+    }
+
     /**
      * Encode texts using pre-computed encodings (avoids re-tokenization).
      */
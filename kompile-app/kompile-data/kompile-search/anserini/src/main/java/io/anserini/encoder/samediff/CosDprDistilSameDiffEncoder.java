@@ -419,6 +419,11 @@ public class CosDprDistilSameDiffEncoder extends SameDiffEncoder<float[]> {
     }
 
     private List<float[]> encodeBatchWithDynamicSizing(List<String> texts) {
+        if (isLengthBucketingEnabled()) {
+            return encodeBatchLengthBucketed(texts, null,
+                    this::encodeSingleInferenceBatchFromEncodings, this::encodeSequentialFromEncodings);
+        }
+
         long totalStartTime = System.currentTimeMillis();
         int numTexts = texts.size();
 
@@ -564,6 +569,16 @@ public class CosDprDistilSameDiffEncoder extends SameDiffEncoder<float[]> {
         return Arrays.asList(reorderedResults);
     }
 
+    @Override
+    protected int fullLengthBatchSize(int maxSeqLength) {
+        return calculateOptimalBatchSize(maxSeqLength);
+    }
+
+    @Override
+    protected int bucketMaxBatchSize() {
+        return ABSOLUTE_MAX_BATCH_SIZE;
+    }
+
     private List<float[]> encodeSequentialFromEncodings(List<String> texts,
                                                          List<SamediffBertTokenizerPreProcessor.BertEncoding> encodings) {
         List<float[]> results = new ArrayList<>(texts.size());
@@ -1037,6 +1037,11 @@ public class GenericDenseSameDiffEncoder extends SameDiffEncoder<float[]> {
      * Sorts by sequence length to minimize padding waste, then groups into optimal sub-batches.
      */
     private List<float[]> encodeBatchWithDynamicSizing(List<String> texts) {
+        if (isLengthBucketingEnabled()) {
+            return encodeBatchLengthBucketed(texts, null,
+                    this::encodeSingleInferenceBatchFromEncodings, this::encodeSequentialFromEncodings);
+        }
+
         long totalStartTime = System.currentTimeMillis();
         int numTexts = texts.size();
 
@@ -1203,6 +1208,16 @@ public class GenericDenseSameDiffEncoder extends SameDiffEncoder<float[]> {
         return java.util.Arrays.asList(reorderedResults);
     }
 
+    @Override
+    protected int fullLengthBatchSize(int maxSeqLength) {
+        return calculateOptimalBatchSize(maxSeqLength);
+    }
+
+    @Override
+    protected int bucketMaxBatchSize() {
+        return instanceAbsoluteMaxBatchSize;
+    }
+
     /**
      * Encode texts using pre-computed encodings (avoids re-tokenization).
      */
@@ -0,0 +1,218 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.anserini.encoder.samediff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plans length-bucketed inference batches under a padded-token budget.
+ *
+ * <p>Batches are padded to their longest sequence, so mixing a 20-token chunk with a
+ * 512-token chunk wastes almost all of the short row. This planner sorts the pending
+ * sequences by tokenized length, assigns each one to a length bucket (upper bounds of
+ * the form 16, 32, 64, ... up to the model max) and forms batches inside each bucket
+ * until {@code batchSize x maxLenInBatch} would exceed the token budget. Short
+ * sequences therefore travel in wide batches and long ones in narrow batches.</p>
+ *
+ * <p>When a bucket's leftover tail would fill less than {@code minFillRatio} of the
+ * budget it is carried into the next (longer) bucket instead of being run as a tiny
+ * batch. Sequences that end up sharing a batch with a longer bucket count as bucket
+ * misses; everything else is a bucket hit.</p>
+ *
+ * <p>The planner only works on lengths and indices so it can be reused by any
+ * encoder regardless of how it builds its tensors.</p>
+ */
+public final class LengthBucketBatcher {
+
+    /** Default padded-token budget per forward pass (32 rows of 512 tokens). */
+    public static final int DEFAULT_TOKEN_BUDGET = 16_384;
+
+    /** Default minimum budget fill before a bucket tail is run on its own. */
+    public static final double DEFAULT_MIN_FILL_RATIO = 0.5;
+
+    private static final int SMALLEST_BUCKET = 16;
+
+    private final int[] bucketBounds;
+    private final int tokenBudget;
+    private final int maxBatchSize;
+    private final double minFillRatio;
+
+    /**
+     * @param maxSequenceLength longest sequence the model accepts; defines the last bucket
+     * @param tokenBudget       maximum padded tokens ({@code rows x maxLen}) per batch
+     * @param maxBatchSize      hard cap on rows per batch, regardless of budget
+     * @param minFillRatio      fraction of the budget a bucket tail must fill to run alone
+     */
+    public LengthBucketBatcher(int maxSequenceLength, int tokenBudget, int maxBatchSize, double minFillRatio) {
+        this.bucketBounds = powerOfTwoBounds(Math.max(1, maxSequenceLength));
+        this.tokenBudget = Math.max(1, tokenBudget);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.minFillRatio = Math.max(0.0, Math.min(1.0, minFillRatio));
+    }
+
+    /**
+     * A planned batch: original indices in ascending length order plus the padded length.
+     */
+    public record Batch(int[] indices, int paddedLength, boolean bucketHit) {
+        public int size() {
+            return indices.length;
+        }
+
+        public long paddedTokens() {
+            return (long) indices.length * paddedLength;
+        }
+    }
+
+    /**
+     * Result of planning a set of sequences.
+     *
+     * @param batches       batches in execution order (shortest first)
+     * @param realTokens    tokens actually present across all sequences
+     * @param paddedTokens  tokens after padding every batch to its longest sequence
+     * @param bucketHits    sequences batched only with peers of their own bucket
+     * @param bucketMisses  sequences carried into a longer bucket's batch
+     */
+    public record Plan(List<Batch> batches, long realTokens, long paddedTokens,
+                       int bucketHits, int bucketMisses) {
+
+        /** Fraction of sequences that stayed within their length bucket. */
+        public double bucketHitRate() {
+            int total = bucketHits + bucketMisses;
+            return total == 0 ? 0.0 : (double) bucketHits / total;
+        }
+
+        /** Fraction of padded tokens that are padding (0 = no waste). */
+        public double paddingRatio() {
+            return paddedTokens == 0 ? 0.0 : 1.0 - (double) realTokens / paddedTokens;
+        }
+    }
+
+    /**
+     * Plans batches for sequences with the given tokenized lengths.
+     *
+     * @param lengths tokenized length of each sequence, indexed by original position
+     * @return the batch plan; every index appears in exactly one batch
+     */
+    public Plan plan(int[] lengths) {
+        int n = lengths.length;
+        if (n == 0) {
+            return new Plan(Collections.emptyList(), 0, 0, 0, 0);
+        }
+
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            boxed[i] = i;
+        }
+        // Stable sort keeps equal-length sequences in submission order
+        Arrays.sort(boxed, (a, b) -> Integer.compare(lengths[a], lengths[b]));
+
+        List<Batch> batches = new ArrayList<>();
+        long realTokens = 0;
+        long paddedTokens = 0;
+        int hits = 0;
+        int misses = 0;
+
+        // Sequences carried over from a shorter bucket's under-filled tail
+        List<Integer> carry = new ArrayList<>();
+        int pos = 0;
+        while (pos < n) {
+            int bucket = bucketOf(lengths[boxed[pos]]);
+            // The last bucket also absorbs anything longer than the model max
+            int bound = bucket == bucketBounds.length - 1 ? Integer.MAX_VALUE : bucketBounds[bucket];
+            int end = pos;
+            while (end < n && lengths[boxed[end]] <= bound) {
+                end++;
+            }
+
+            List<Integer> members = new ArrayList<>(carry.size() + (end - pos));
+            members.addAll(carry);
+            int carried = carry.size();
+            carry.clear();
+            for (int i = pos; i < end; i++) {
+                members.add(boxed[i]);
+            }
+            boolean lastBucket = end >= n;
+
+            int start = 0;
+            while (start < members.size()) {
+                int batchEnd = start;
+                int maxLen = 0;
+                while (batchEnd < members.size() && batchEnd - start < maxBatchSize) {
+                    int len = Math.max(1, lengths[members.get(batchEnd)]);
+                    int newMax = Math.max(maxLen, len);
+                    if (batchEnd > start && (long) (batchEnd - start + 1) * newMax > tokenBudget) {
+                        break;
+                    }
+                    maxLen = newMax;
+                    batchEnd++;
+                }
+
+                boolean tail = batchEnd >= members.size();
+                if (tail && !lastBucket && start < batchEnd
+                        && (long) (batchEnd - start) * maxLen < minFillRatio * tokenBudget) {
+                    // Too small to be worth a forward pass - let the next bucket absorb it
+                    carry.addAll(members.subList(start, batchEnd));
+                    break;
+                }
+
+                int[] indices = new int[batchEnd - start];
+                int batchCarried = 0;
+                for (int i = start; i < batchEnd; i++) {
+                    indices[i - start] = members.get(i);
+                    realTokens += lengths[members.get(i)];
+                    if (i < carried) {
+                        batchCarried++;
+                    }
+                }
+                paddedTokens += (long) indices.length * maxLen;
+                misses += batchCarried;
+                hits += indices.length - batchCarried;
+                batches.add(new Batch(indices, maxLen, batchCarried == 0));
+                start = batchEnd;
+            }
+            pos = end;
+        }
+
+        return new Plan(batches, realTokens, paddedTokens, hits, misses);
+    }
+
+    /**
+     * @return the bucket index for a sequence of the given length
+     */
+    int bucketOf(int length) {
+        for (int i = 0; i < bucketBounds.length; i++) {
+            if (length <= bucketBounds[i]) {
+                return i;
+            }
+        }
+        return bucketBounds.length - 1;
+    }
+
+    private static int[] powerOfTwoBounds(int maxSequenceLength) {
+        List<Integer> bounds = new ArrayList<>();
+        int bound = SMALLEST_BUCKET;
+        while (bound < maxSequenceLength) {
+            bounds.add(bound);
+            bound <<= 1;
+        }
+        bounds.add(maxSequenceLength);
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
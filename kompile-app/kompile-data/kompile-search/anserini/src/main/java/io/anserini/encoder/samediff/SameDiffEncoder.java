@@ -37,6 +37,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -172,8 +173,24 @@ public abstract class SameDiffEncoder<RETURN_TYPE> implements AutoCloseable {
             double tokensPerSecond,  // Throughput: tokens processed per second
             double chunksPerSecond,  // Throughput: chunks processed per second
             // ========== PER-PASSAGE TOKEN COUNTS ==========
-            int[] passageTokenCounts // Token count for each passage in the batch
+            int[] passageTokenCounts, // Token count for each passage in the batch
+            // ========== LENGTH BUCKETING ==========
+            double bucketHitRate,    // Fraction of texts batched within their own length bucket
+            double paddingRatio      // Fraction of padded tokens that are padding (0 = no waste)
     ) {
+        /** Constructor without bucketing stats (both reported as 0). */
+        public BatchInfo(int numChunks, int maxSeqLength, int embeddingDim, int totalTokens,
+                         long[] inputShape, long[] outputShape, String step, long stepStartTimeMs,
+                         long batchStartTimeMs, long tokenizeTimeMs, long paddingTimeMs,
+                         long tensorCreationTimeMs, long forwardPassTimeMs, long extractionTimeMs,
+                         long totalTimeMs, double tokensPerSecond, double chunksPerSecond,
+                         int[] passageTokenCounts) {
+            this(numChunks, maxSeqLength, embeddingDim, totalTokens, inputShape, outputShape, step,
+                    stepStartTimeMs, batchStartTimeMs, tokenizeTimeMs, paddingTimeMs, tensorCreationTimeMs,
+                    forwardPassTimeMs, extractionTimeMs, totalTimeMs, tokensPerSecond, chunksPerSecond,
+                    passageTokenCounts, 0.0, 0.0);
+        }
+
         public static BatchInfo empty() {
             return new BatchInfo(0, 0, 0, 0, new long[0], new long[0], "IDLE", 0,
                     0, 0, 0, 0, 0, 0, 0, 0.0, 0.0, null);
@@ -284,7 +301,8 @@ public abstract class SameDiffEncoder<RETURN_TYPE> implements AutoCloseable {
                 prev.batchStartTimeMs() > 0 ? prev.batchStartTimeMs() : System.currentTimeMillis(),
                 prev.tokenizeTimeMs(), prev.paddingTimeMs(), prev.tensorCreationTimeMs(),
                 prev.forwardPassTimeMs(), prev.extractionTimeMs(), prev.totalTimeMs(),
-                prev.tokensPerSecond(), prev.chunksPerSecond(), effectiveTokenCounts
+                prev.tokensPerSecond(), prev.chunksPerSecond(), effectiveTokenCounts,
+                prev.bucketHitRate(), prev.paddingRatio()
         );
     }
 
@@ -311,14 +329,32 @@ public abstract class SameDiffEncoder<RETURN_TYPE> implements AutoCloseable {
                                               long extractionTimeMs, long totalTimeMs,
                                               double tokensPerSecond, double chunksPerSecond,
                                               int[] passageTokenCounts) {
+        BatchInfo prev = this.currentBatchInfo;
         // Preserve token counts from previous if not provided
-        int[] effectiveTokenCounts = passageTokenCounts != null ? passageTokenCounts : this.currentBatchInfo.passageTokenCounts();
+        int[] effectiveTokenCounts = passageTokenCounts != null ? passageTokenCounts : prev.passageTokenCounts();
         this.currentBatchInfo = new BatchInfo(
                 numChunks, maxSeqLength, embeddingDim, totalTokens,
                 inputShape, outputShape, step, System.currentTimeMillis(),
                 batchStartTimeMs, tokenizeTimeMs, paddingTimeMs, tensorCreationTimeMs,
                 forwardPassTimeMs, extractionTimeMs, totalTimeMs,
-                tokensPerSecond, chunksPerSecond, effectiveTokenCounts
+                tokensPerSecond, chunksPerSecond, effectiveTokenCounts,
+                prev.bucketHitRate(), prev.paddingRatio()
+        );
+    }
+
+    /**
+     * Records the bucket hit rate and padding ratio of a length-bucketed plan so they
+     * stay visible through {@link #getCurrentBatchInfo()} while its batches run.
+     */
+    protected void updateBatchInfoBucketing(double bucketHitRate, double paddingRatio) {
+        BatchInfo prev = this.currentBatchInfo;
+        this.currentBatchInfo = new BatchInfo(
+                prev.numChunks(), prev.maxSeqLength(), prev.embeddingDim(), prev.totalTokens(),
+                prev.inputShape(), prev.outputShape(), prev.step(), prev.stepStartTimeMs(),
+                prev.batchStartTimeMs(), prev.tokenizeTimeMs(), prev.paddingTimeMs(),
+                prev.tensorCreationTimeMs(), prev.forwardPassTimeMs(), prev.extractionTimeMs(),
+                prev.totalTimeMs(), prev.tokensPerSecond(), prev.chunksPerSecond(),
+                prev.passageTokenCounts(), bucketHitRate, paddingRatio
         );
     }
 
@@ -1094,6 +1130,192 @@ public abstract class SameDiffEncoder<RETURN_TYPE> implements AutoCloseable {
         return results;
     }
 
+    // ========== LENGTH-BUCKETED BATCHING ==========
+    /**
+     * Whether dense encoders plan {@link #encodeBatch} sub-batches by length bucket under a
+     * padded-token budget. Enabled by default; -Dkompile.encoder.batch.lengthBuckets=false
+     * restores the count-based sub-batching.
+     */
+    private volatile boolean lengthBucketingEnabled =
+            Boolean.parseBoolean(System.getProperty("kompile.encoder.batch.lengthBuckets", "true"));
+
+    /**
+     * Padded-token budget per forward pass; 0 means use {@link #defaultBatchTokenBudget()}.
+     * Can be set with -Dkompile.encoder.batch.tokenBudget=N.
+     */
+    private volatile int batchTokenBudget = Integer.getInteger("kompile.encoder.batch.tokenBudget", 0);
+
+    /**
+     * Runs one planned batch of pre-tokenized texts padded to {@code paddedLength}.
+     * Returns one embedding per text in the given order, or null on failure/interrupt.
+     */
+    @FunctionalInterface
+    protected interface BucketBatchRunner {
+        List<float[]> run(List<String> texts,
+                          List<SamediffBertTokenizerPreProcessor.BertEncoding> encodings,
+                          int paddedLength);
+    }
+
+    /**
+     * Encodes pre-tokenized texts one at a time. Used when a bucketed batch fails and
+     * fail-fast is disabled.
+     */
+    @FunctionalInterface
+    protected interface SequentialRunner {
+        List<float[]> run(List<String> texts,
+                          List<SamediffBertTokenizerPreProcessor.BertEncoding> encodings);
+    }
+
+    public boolean isLengthBucketingEnabled() {
+        return lengthBucketingEnabled;
+    }
+
+    public void setLengthBucketingEnabled(boolean enabled) {
+        this.lengthBucketingEnabled = enabled;
+    }
+
+    /**
+     * @return the padded-token budget ({@code rows x padded length}) per forward pass
+     */
+    public int getBatchTokenBudget() {
+        int budget = batchTokenBudget;
+        return budget > 0 ? budget : defaultBatchTokenBudget();
+    }
+
+    /**
+     * Overrides the padded-token budget per forward pass. Values &lt;= 0 restore the default.
+     */
+    public void setBatchTokenBudget(int tokenBudget) {
+        this.batchTokenBudget = Math.max(0, tokenBudget);
+    }
+
+    /**
+     * Default token budget: the padded footprint of a full-length batch as sized by
+     * {@link #fullLengthBatchSize(int)}, so memory use stays where count-based batching
+     * had it. Falls back to {@link LengthBucketBatcher#DEFAULT_TOKEN_BUDGET}.
+     */
+    protected int defaultBatchTokenBudget() {
+        int maxLen = getMaxSequenceLength();
+        int rows = fullLengthBatchSize(maxLen);
+        return rows > 0 && maxLen > 0 ? rows * maxLen : LengthBucketBatcher.DEFAULT_TOKEN_BUDGET;
+    }
+
+    /**
+     * Rows the encoder batches at {@code maxSeqLength} when sizing by count, or 0 if it
+     * has no such sizing.
+     */
+    protected int fullLengthBatchSize(int maxSeqLength) {
+        return 0;
+    }
+
+    /**
+     * Hard cap on rows per bucketed batch, however short the sequences are.
+     */
+    protected int bucketMaxBatchSize() {
+        return 256;
+    }
+
+    /**
+     * Length-bucketed batch encoding.
+     *
+     * <p>Tokenizes every text once, plans batches with {@link LengthBucketBatcher} so each
+     * forward pass only pads to the longest text of its own length bucket, runs the batches
+     * shortest first and scatters the embeddings back to the input order. The plan's bucket
+     * hit rate and padding ratio are published through {@link #getCurrentBatchInfo()}.</p>
+     *
+     * <p>Must be called while holding {@link #getEncoderLock()}.</p>
+     *
+     * @param texts    texts to encode
+     * @param prefix   instruction prefix prepended before tokenization, may be null
+     * @param runner   runs a single planned batch
+     * @param fallback encodes a failed batch one text at a time
+     * @return embeddings in the original order, or null if interrupted or a batch failed
+     */
+    protected List<float[]> encodeBatchLengthBucketed(List<String> texts, String prefix,
+                                                      BucketBatchRunner runner, SequentialRunner fallback) {
+        long startTime = System.currentTimeMillis();
+        int numTexts = texts.size();
+        boolean hasPrefix = prefix != null && !prefix.isEmpty();
+
+        List<SamediffBertTokenizerPreProcessor.BertEncoding> encodings = new ArrayList<>(numTexts);
+        int[] lengths = new int[numTexts];
+        for (int i = 0; i < numTexts; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                LOG.info("[{}] Tokenization interrupted at {}/{}", modelIdentifier, i, numTexts);
+                return null;
+            }
+            String text = texts.get(i);
+            SamediffBertTokenizerPreProcessor.BertEncoding enc =
+                    tokenizerPreProcessor.encode(hasPrefix ? prefix + text : text);
+            encodings.add(enc);
+            lengths[i] = enc.inputIds.length;
+        }
+        long tokenizeTime = System.currentTimeMillis() - startTime;
+
+        LengthBucketBatcher batcher = new LengthBucketBatcher(getMaxSequenceLength(), getBatchTokenBudget(),
+                bucketMaxBatchSize(), LengthBucketBatcher.DEFAULT_MIN_FILL_RATIO);
+        LengthBucketBatcher.Plan plan = batcher.plan(lengths);
+        updateBatchInfoBucketing(plan.bucketHitRate(), plan.paddingRatio());
+
+        float[][] results = new float[numTexts][];
+        int batchNum = 0;
+        for (LengthBucketBatcher.Batch batch : plan.batches()) {
+            if (Thread.currentThread().isInterrupted()) {
+                LOG.info("[{}] Bucketed batching interrupted at batch {}/{}",
+                        modelIdentifier, batchNum, plan.batches().size());
+                return null;
+            }
+            batchNum++;
+
+            int[] indices = batch.indices();
+            List<String> subTexts = new ArrayList<>(indices.length);
+            List<SamediffBertTokenizerPreProcessor.BertEncoding> subEncodings = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                subTexts.add(texts.get(index));
+                subEncodings.add(encodings.get(index));
+            }
+
+            List<float[]> subResults = runBucketBatch(runner, fallback, subTexts, subEncodings, batch.paddedLength());
+            if (subResults == null) {
+                return null;
+            }
+            for (int i = 0; i < indices.length; i++) {
+                results[indices[i]] = subResults.get(i);
+            }
+            // Runner updates replace the batch info; keep the plan stats on it
+            updateBatchInfoBucketing(plan.bucketHitRate(), plan.paddingRatio());
+        }
+
+        long totalTime = System.currentTimeMillis() - startTime;
+        LOG.info("[{}] {} bucketed batches: {} texts in {}ms (tokenize={}ms, budget={} tokens, " +
+                        "bucket hit rate={}%, padding={}%)",
+                modelIdentifier, plan.batches().size(), numTexts, totalTime, tokenizeTime, getBatchTokenBudget(),
+                String.format("%.1f", plan.bucketHitRate() * 100.0),
+                String.format("%.1f", plan.paddingRatio() * 100.0));
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Runs one length-bucketed batch, falling back to sequential encoding when batch
+     * inference fails and fail-fast is disabled.
+     */
+    private List<float[]> runBucketBatch(BucketBatchRunner runner, SequentialRunner fallback,
+                                         List<String> subTexts,
+                                         List<SamediffBertTokenizerPreProcessor.BertEncoding> subEncodings,
+                                         int paddedLength) {
+        List<float[]> subResults = runner.run(subTexts, subEncodings, paddedLength);
+        if (subResults == null && !Thread.currentThread().isInterrupted()) {
+            if (isFailFastOnError()) {
+                throw new EncodingException(modelIdentifier, "bucketed batch encoding",
+                        "batch inference returned null", null);
+            }
+            LOG.warn("[{}] Bucketed batch of {} failed - using sequential encoding", modelIdentifier, subTexts.size());
+            subResults = fallback.run(subTexts, subEncodings);
+        }
+        return subResults;
+    }
+
     /**
      * Sequential bulk encoding - simple loop over texts.
      */
@@ -32,6 +32,9 @@
 
 package io.anserini.search;
 
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.search.TopDocs;
 import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 
@@ -97,4 +100,38 @@ public abstract class BaseDenseSearcher<K extends Comparable<K>> extends BaseSea
      * @throws IOException if error encountered during search.
      */
     protected abstract ScoredDoc[] searchString(@Nullable K queryId, String queryString, int k) throws IOException;
-}
\ No newline at end of file
+
+    /**
+     * Runs a pre-encoded vector query and returns the raw Lucene hits without loading any stored fields.
+     * Callers that hydrate many hits at once (e.g. multi-query batches) can read stored fields themselves,
+     * in ascending docid order, through {@link #storedFields()}.
+     *
+     * @param queryVector query vector.
+     * @param k           number of hits.
+     * @return the top hits, with docids relative to this searcher's reader.
+     * @throws IOException if error encountered during search.
+     */
+    public abstract TopDocs searchVectorTopDocs(float[] queryVector, int k) throws IOException;
+
+    /**
+     * Returns a stored-fields reader over the same reader snapshot that produced the hits of
+     * {@link #searchVectorTopDocs(float[], int)}. The returned instance is not thread-safe and
+     * should be used by a single thread.
+     *
+     * @return stored fields for this searcher's reader.
+     * @throws IOException if the stored fields cannot be opened.
+     */
+    public StoredFields storedFields() throws IOException {
+        return getIndexSearcher().storedFields();
+    }
+
+    /**
+     * Returns the reader snapshot this searcher runs against. Docids returned by
+     * {@link #searchVectorTopDocs(float[], int)} are top-level docids of this reader.
+     *
+     * @return the underlying index reader.
+     */
+    public IndexReader getIndexReader() {
+        return getIndexSearcher().getIndexReader();
+    }
+}
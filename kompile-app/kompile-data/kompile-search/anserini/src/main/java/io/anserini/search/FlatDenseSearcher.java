@@ -84,6 +84,7 @@ public class FlatDenseSearcher<K extends Comparable<K>> extends BaseDenseSearche
 
   private final IndexReader reader;
   private final Directory directory;  // Store directory reference for proper cleanup
+  private final boolean ownsReader;  // False when the reader is managed externally
   private final VectorQueryGenerator generator;
   private final SameDiffEncoder<float[]> encoder;
   private final int DUMMY_K_FOR_KNN_QUERY = 1000;
@@ -115,29 +116,51 @@ public class FlatDenseSearcher<K extends Comparable<K>> extends BaseDenseSearche
 
     setIndexSearcher(new IndexSearcher(this.reader));
 
+    this.ownsReader = true;
+    this.generator = loadGenerator(args.queryGenerator);
+    this.encoder = loadEncoder(args.encoder);
+  }
+
+  /**
+   * Creates a searcher over an externally managed reader, e.g. one acquired from a
+   * {@link org.apache.lucene.search.ReferenceManager} for near-real-time search. The reader
+   * is not closed by {@link #close()}; its lifecycle stays with the caller.
+   */
+  public FlatDenseSearcher(Args args, IndexReader reader) {
+    super(args);
+    this.directory = null;
+    this.reader = reader;
+    this.ownsReader = false;
+    setIndexSearcher(new IndexSearcher(reader));
+    this.generator = loadGenerator(args.queryGenerator);
+    this.encoder = loadEncoder(args.encoder);
+  }
+
+  private static VectorQueryGenerator loadGenerator(String queryGenerator) {
     try {
-      this.generator = (VectorQueryGenerator) Class
-              .forName(String.format("io.anserini.search.query.%s", args.queryGenerator))
+      return (VectorQueryGenerator) Class
+              .forName(String.format("io.anserini.search.query.%s", queryGenerator))
               .getConstructor().newInstance();
     } catch (Exception e) {
-      throw new IllegalArgumentException(String.format("Unable to load QueryGenerator \"%s\".", args.queryGenerator), e);
+      throw new IllegalArgumentException(String.format("Unable to load QueryGenerator \"%s\".", queryGenerator), e);
     }
+  }
 
-    if (args.encoder != null) {
-      try {
-        String encoderName = args.encoder.endsWith("Encoder") ?
-                args.encoder.substring(0, args.encoder.length() - "Encoder".length()) :
-                args.encoder;
-        @SuppressWarnings("unchecked")
-        SameDiffEncoder<float[]> tempEncoder = (SameDiffEncoder<float[]>) Class
-                .forName(String.format("io.anserini.encoder.samediff.%sEncoder", encoderName))
-                .getConstructor().newInstance();
-        this.encoder = tempEncoder;
-      } catch (Exception e) {
-        throw new IllegalArgumentException(String.format("Unable to load Encoder \"%s\". Ensure it's a SameDiffEncoder<float[]> type.", args.encoder), e);
-      }
-    } else {
-      this.encoder = null;
+  private static SameDiffEncoder<float[]> loadEncoder(String encoder) {
+    if (encoder == null) {
+      return null;
+    }
+    try {
+      String encoderName = encoder.endsWith("Encoder") ?
+              encoder.substring(0, encoder.length() - "Encoder".length()) :
+              encoder;
+      @SuppressWarnings("unchecked")
+      SameDiffEncoder<float[]> tempEncoder = (SameDiffEncoder<float[]>) Class
+              .forName(String.format("io.anserini.encoder.samediff.%sEncoder", encoderName))
+              .getConstructor().newInstance();
+      return tempEncoder;
+    } catch (Exception e) {
+      throw new IllegalArgumentException(String.format("Unable to load Encoder \"%s\". Ensure it's a SameDiffEncoder<float[]> type.", encoder), e);
     }
   }
 
@@ -146,8 +169,7 @@ public class FlatDenseSearcher<K extends Comparable<K>> extends BaseDenseSearche
     LOG.info("FlatDenseSearcher.searchVector: k={}, queryVectorDim={}, numCandidates={}, indexNumDocs={}",
             k, queryVector.length, Math.max(k, DUMMY_K_FOR_KNN_QUERY), reader.numDocs());
 
-    KnnFloatVectorQuery vectorQuery = new KnnFloatVectorQuery(Constants.VECTOR, queryVector, Math.max(k, DUMMY_K_FOR_KNN_QUERY));
-    TopDocs topDocs = getIndexSearcher().search(vectorQuery, k, BREAK_SCORE_TIES_BY_DOCID, true);
+    TopDocs topDocs = searchVectorTopDocs(queryVector, k);
 
     LOG.info("FlatDenseSearcher.searchVector: Lucene returned {} hits (totalHits={})",
             topDocs.scoreDocs.length, topDocs.totalHits);
@@ -160,6 +182,12 @@ public class FlatDenseSearcher<K extends Comparable<K>> extends BaseDenseSearche
     return super.processLuceneTopDocs(qid, topDocs);
   }
 
+  @Override
+  public TopDocs searchVectorTopDocs(float[] queryVector, int k) throws IOException {
+    KnnFloatVectorQuery vectorQuery = new KnnFloatVectorQuery(Constants.VECTOR, queryVector, Math.max(k, DUMMY_K_FOR_KNN_QUERY));
+    return getIndexSearcher().search(vectorQuery, k, BREAK_SCORE_TIES_BY_DOCID, true);
+  }
+
   @Override
   protected ScoredDoc[] searchString(@Nullable K qid, String queryString, int k) throws IOException {
     if (encoder != null) {
@@ -249,7 +277,9 @@ public class FlatDenseSearcher<K extends Comparable<K>> extends BaseDenseSearche
   @Override
   public void close() throws IOException {
     try {
-      reader.close();
+      if (ownsReader) {
+        reader.close();
+      }
     } finally {
       try {
         if (directory != null) {
@@ -87,6 +87,7 @@ public class HnswDenseSearcher<K extends Comparable<K>> extends BaseDenseSearche
 
   private final IndexReader reader;
   private final Directory directory;  // Store directory reference for proper cleanup
+  private final boolean ownsReader;  // False when the reader is managed externally
   private final VectorQueryGenerator generator;
   private final SameDiffEncoder<float[]> encoder;
   private final Args searchArgsHnsw;
@@ -118,37 +119,64 @@ public class HnswDenseSearcher<K extends Comparable<K>> extends BaseDenseSearche
 
     setIndexSearcher(new IndexSearcher(this.reader));
 
+    this.ownsReader = true;
+    this.generator = loadGenerator(args.queryGenerator);
+    this.encoder = loadEncoder(args.encoder);
+  }
+
+  /**
+   * Creates a searcher over an externally managed reader, e.g. one acquired from a
+   * {@link org.apache.lucene.search.ReferenceManager} for near-real-time search. The reader
+   * is not closed by {@link #close()}; its lifecycle stays with the caller.
+   */
+  public HnswDenseSearcher(Args args, IndexReader reader) {
+    super(args);
+    this.searchArgsHnsw = args;
+    this.directory = null;
+    this.reader = reader;
+    this.ownsReader = false;
+    setIndexSearcher(new IndexSearcher(reader));
+    this.generator = loadGenerator(args.queryGenerator);
+    this.encoder = loadEncoder(args.encoder);
+  }
+
+  private static VectorQueryGenerator loadGenerator(String queryGenerator) {
     try {
-      this.generator = (VectorQueryGenerator) Class
-              .forName(String.format("io.anserini.search.query.%s", args.queryGenerator))
+      return (VectorQueryGenerator) Class
+              .forName(String.format("io.anserini.search.query.%s", queryGenerator))
               .getConstructor().newInstance();
     } catch (Exception e) {
-      throw new IllegalArgumentException(String.format("Unable to load QueryGenerator \"%s\".", args.queryGenerator), e);
+      throw new IllegalArgumentException(String.format("Unable to load QueryGenerator \"%s\".", queryGenerator), e);
     }
+  }
 
-    if (args.encoder != null) {
-      try {
-        String encoderName = args.encoder.endsWith("Encoder") ?
-                args.encoder.substring(0, args.encoder.length() - "Encoder".length()) :
-                args.encoder;
-        @SuppressWarnings("unchecked")
-        SameDiffEncoder<float[]> tempEncoder = (SameDiffEncoder<float[]>) Class
-                .forName(String.format("io.anserini.encoder.samediff.%sEncoder", encoderName))
-                .getConstructor().newInstance();
-        this.encoder = tempEncoder;
-      } catch (Exception e) {
-        throw new IllegalArgumentException(String.format("Unable to load Encoder \"%s\". Ensure it's a SameDiffEncoder<float[]> type.", args.encoder), e);
-      }
-    } else {
-      this.encoder = null;
+  private static SameDiffEncoder<float[]> loadEncoder(String encoder) {
+    if (encoder == null) {
+      return null;
+    }
+    try {
+      String encoderName = encoder.endsWith("Encoder") ?
+              encoder.substring(0, encoder.length() - "Encoder".length()) :
+              encoder;
+      @SuppressWarnings("unchecked")
+      SameDiffEncoder<float[]> tempEncoder = (SameDiffEncoder<float[]>) Class
+              .forName(String.format("io.anserini.encoder.samediff.%sEncoder", encoderName))
+              .getConstructor().newInstance();
+      return tempEncoder;
+    } catch (Exception e) {
+      throw new IllegalArgumentException(String.format("Unable to load Encoder \"%s\". Ensure it's a SameDiffEncoder<float[]> type.", encoder), e);
     }
   }
 
   @Override
   protected ScoredDoc[] searchVector(@Nullable K qid, float[] queryVector, int k) throws IOException {
+    return super.processLuceneTopDocs(qid, searchVectorTopDocs(queryVector, k));
+  }
+
+  @Override
+  public TopDocs searchVectorTopDocs(float[] queryVector, int k) throws IOException {
     KnnFloatVectorQuery vectorQuery = new KnnFloatVectorQuery(Constants.VECTOR, queryVector, this.searchArgsHnsw.efSearch);
-    TopDocs topDocs = getIndexSearcher().search(vectorQuery, k, BREAK_SCORE_TIES_BY_DOCID, true);
-    return super.processLuceneTopDocs(qid, topDocs);
+    return getIndexSearcher().search(vectorQuery, k, BREAK_SCORE_TIES_BY_DOCID, true);
   }
 
   @Override
@@ -242,7 +270,9 @@ public class HnswDenseSearcher<K extends Comparable<K>> extends BaseDenseSearche
   @Override
   public void close() throws IOException {
     try {
-      reader.close();
+      if (ownsReader) {
+        reader.close();
+      }
     } finally {
       try {
         if (directory != null) {
@@ -0,0 +1,139 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.anserini.encoder.samediff;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LengthBucketBatcherTest {
+
+    @Test
+    public void testBatchFillsBudgetExactly() {
+        // 4 x 16 = 64 padded tokens fits the budget, a fifth row would not
+        LengthBucketBatcher batcher = new LengthBucketBatcher(512, 64, 100, 0.0);
+        LengthBucketBatcher.Plan plan = batcher.plan(new int[]{16, 16, 16, 16, 16});
+
+        assertEquals(2, plan.batches().size());
+        assertArrayEquals(new int[]{0, 1, 2, 3}, plan.batches().get(0).indices());
+        assertEquals(64, plan.batches().get(0).paddedTokens());
+        assertArrayEquals(new int[]{4}, plan.batches().get(1).indices());
+    }
+
+    @Test
+    public void testLongerRowShrinksBatchUnderBudget() {
+        // 3 x 20 = 60 fits; adding the 30-token row would pad 4 rows to 30 = 120
+        LengthBucketBatcher batcher = new LengthBucketBatcher(512, 64, 100, 0.0);
+        LengthBucketBatcher.Plan plan = batcher.plan(new int[]{20, 18, 30, 20});
+
+        assertEquals(2, plan.batches().size());
+        assertArrayEquals(new int[]{1, 0, 3}, plan.batches().get(0).indices());
+        assertEquals(20, plan.batches().get(0).paddedLength());
+        assertArrayEquals(new int[]{2}, plan.batches().get(1).indices());
+        assertEquals(30, plan.batches().get(1).paddedLength());
+    }
+
+    @Test
+    public void testRowCapAppliesBelowBudget() {
+        LengthBucketBatcher batcher = new LengthBucketBatcher(512, 10_000, 2, 0.0);
+        LengthBucketBatcher.Plan plan = batcher.plan(new int[]{5, 5, 5});
+
+        assertEquals(2, plan.batches().size());
+        assertEquals(2, plan.batches().get(0).size());
+        assertEquals(1, plan.batches().get(1).size());
+    }
+
+    @Test
+    public void testSingleItemOverBudgetRunsAlone() {
+        LengthBucketBatcher batcher = new LengthBucketBatcher(512, 64, 100, 0.0);
+        LengthBucketBatcher.Plan plan = batcher.plan(new int[]{300, 10});
+
+        assertEquals(2, plan.batches().size());
+        assertArrayEquals(new int[]{1}, plan.batches().get(0).indices());
+        assertArrayEquals(new int[]{0}, plan.batches().get(1).indices());
+        assertEquals(300, plan.batches().get(1).paddedLength());
+    }
+
+    @Test
+    public void testUnderFilledTailIsCarriedIntoNextBucket() {
+        // The lone 10-token row fills 10/1000 of the budget, so it joins the 100-token bucket
+        LengthBucketBatcher batcher = new LengthBucketBatcher(512, 1000, 100, 0.5);
+        LengthBucketBatcher.Plan plan = batcher.plan(new int[]{100, 10, 100});
+
+        assertEquals(1, plan.batches().size());
+        LengthBucketBatcher.Batch batch = plan.batches().get(0);
+        assertArrayEquals(new int[]{1, 0, 2}, batch.indices());
+        assertEquals(100, batch.paddedLength());
+        assertFalse(batch.bucketHit());
+        assertEquals(1, plan.bucketMisses());
+        assertEquals(2, plan.bucketHits());
+    }
+
+    @Test
+    public void testPlanRestoresInputOrder() {
+        Random random = new Random(42);
+        int[] lengths = new int[500];
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = 1 + random.nextInt(600);
+        }
+        LengthBucketBatcher batcher = new LengthBucketBatcher(512, 4096, 64, 0.5);
+        LengthBucketBatcher.Plan plan = batcher.plan(lengths);
+
+        // Scatter a per-row value back by index, as the encoders do with embeddings
+        int[] restored = new int[lengths.length];
+        Arrays.fill(restored, -1);
+        long realTokens = 0;
+        for (LengthBucketBatcher.Batch batch : plan.batches()) {
+            int longest = 0;
+            for (int index : batch.indices()) {
+                assertEquals("index planned twice", -1, restored[index]);
+                restored[index] = lengths[index];
+                longest = Math.max(longest, lengths[index]);
+                realTokens += lengths[index];
+            }
+            assertEquals(longest, batch.paddedLength());
+            assertTrue(batch.size() == 1 || batch.paddedTokens() <= 4096);
+            assertTrue(batch.size() <= 64);
+        }
+
+        assertArrayEquals(lengths, restored);
+        assertEquals(realTokens, plan.realTokens());
+        assertEquals(lengths.length, plan.bucketHits() + plan.bucketMisses());
+    }
+
+    @Test
+    public void testEqualLengthsKeepSubmissionOrder() {
+        LengthBucketBatcher batcher = new LengthBucketBatcher(512, 10_000, 100, 0.0);
+        LengthBucketBatcher.Plan plan = batcher.plan(new int[]{7, 3, 7, 3, 7});
+
+        assertEquals(1, plan.batches().size());
+        assertArrayEquals(new int[]{1, 3, 0, 2, 4}, plan.batches().get(0).indices());
+    }
+
+    @Test
+    public void testEmptyInput() {
+        LengthBucketBatcher.Plan plan = new LengthBucketBatcher(512, 64, 8, 0.5).plan(new int[0]);
+        assertTrue(plan.batches().isEmpty());
+        assertEquals(0.0, plan.paddingRatio(), 0.0);
+    }
+}
@@ -17,16 +17,24 @@
 package ai.kompile.anserini;
 
 import ai.kompile.core.indexers.NoOpIndexerService;
+import ai.kompile.cli.common.util.JsonUtils;
+import ai.kompile.core.rag.retrieval.MetadataFilters;
 import ai.kompile.core.retrievers.DocumentRetriever;
 import ai.kompile.core.retrievers.RetrievedDoc;
 import ai.kompile.anserini.config.AnseriniConfigService;
 import ai.kompile.core.indexers.IndexerService;
 
+import ai.kompile.vectorstore.anserini.util.MetadataFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.anserini.search.SimpleSearcher;
+import io.anserini.search.query.BagOfWordsQueryGenerator;
+import io.anserini.search.query.QueryGenerator;
 import io.anserini.search.ScoredDoc;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.search.Query;
 
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
@@ -51,6 +59,7 @@ import java.util.stream.Stream;
 public class AnseriniDocumentRetrieverImpl implements DocumentRetriever {
 
     private static final Logger logger = LoggerFactory.getLogger(AnseriniDocumentRetrieverImpl.class);
+    private static final ObjectMapper OBJECT_MAPPER = JsonUtils.standardMapper();
     private AnseriniConfigService anseriniConfigService;
     private SimpleSearcher searcher;
     private IndexerService indexerService;
@@ -145,6 +154,57 @@ public class AnseriniDocumentRetrieverImpl implements DocumentRetriever {
 
     @Override
     public List<RetrievedDoc> retrieveWithDetails(String query, int maxResults) {
+        return search(query, maxResults, null);
+    }
+
+    /**
+     * BM25 search restricted to documents matching {@code metadataFilters}. When every
+     * filter key is indexed (see {@link MetadataFields}) the filter is a non-scoring clause
+     * of the query, so up to {@code maxResults} matching documents come back regardless of
+     * how selective it is. Other filters fall back to post-filtering an over-fetch.
+     */
+    @Override
+    public List<RetrievedDoc> retrieveWithDetails(String query, int maxResults, Map<String, Object> metadataFilters) {
+        if (MetadataFilters.isEmpty(metadataFilters)) {
+            return retrieveWithDetails(query, maxResults);
+        }
+        if (!MetadataFields.canPreFilter(metadataFilters)) {
+            // Hit metadata carries the stored "metadata" JSON as a string, so match its parsed form
+            return search(query, maxResults * 4, null).stream()
+                    .filter(doc -> MetadataFilters.matches(storedMetadata(doc), metadataFilters))
+                    .limit(maxResults)
+                    .collect(Collectors.toList());
+        }
+        QueryGenerator filtered = new QueryGenerator() {
+            private final BagOfWordsQueryGenerator bagOfWords = new BagOfWordsQueryGenerator();
+
+            @Override
+            public Query buildQuery(String field, Analyzer analyzer, String queryText) {
+                return MetadataFields.filtered(bagOfWords.buildQuery(field, analyzer, queryText), metadataFilters);
+            }
+        };
+        return search(query, maxResults, filtered);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> storedMetadata(RetrievedDoc doc) {
+        Map<String, Object> metadata = doc.getMetadata();
+        if (metadata == null || !(metadata.get("metadata") instanceof String json)) {
+            return metadata;
+        }
+        Map<String, Object> merged = new HashMap<>(metadata);
+        try {
+            merged.putAll(OBJECT_MAPPER.readValue(json, Map.class));
+        } catch (IOException e) {
+            logger.debug("Could not parse stored metadata for doc {}: {}", doc.getId(), e.getMessage());
+        }
+        return merged;
+    }
+
+    /**
+     * @param generator Builds the Lucene query, or null for the searcher's default bag of words
+     */
+    private List<RetrievedDoc> search(String query, int maxResults, QueryGenerator generator) {
         if (this.searcher == null) {
             // Lazy init — index may have been created after startup
             if (!tryInitSearcher()) {
@@ -159,7 +219,9 @@ public class AnseriniDocumentRetrieverImpl implements DocumentRetriever {
 
         logger.debug("Anserini retrieving with details for query: '{}', maxResults: {}", query, maxResults);
         try {
-            ScoredDoc[] hits = searcher.search(query, maxResults);
+            ScoredDoc[] hits = generator != null
+                    ? searcher.search(generator, query, maxResults)
+                    : searcher.search(query, maxResults);
 
             if (hits == null) {
                 logger.warn("Anserini search returned null for query: {}", query);
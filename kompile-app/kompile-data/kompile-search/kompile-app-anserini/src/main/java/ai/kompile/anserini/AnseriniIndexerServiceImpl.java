@@ -30,7 +30,6 @@ import ai.kompile.core.retrievers.RetrievedDoc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.anserini.index.Constants;
-import io.anserini.index.IndexCollection;
 import io.anserini.search.SimpleSearcher;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -52,8 +51,11 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiBits;
 import org.apache.lucene.index.Term;
+import ai.kompile.vectorstore.anserini.util.MetadataFields;
 import ai.kompile.vectorstore.anserini.util.NativeCompatibleDirectoryFactory;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.NoLockFactory;
@@ -71,7 +73,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -1104,39 +1105,8 @@ public class AnseriniIndexerServiceImpl extends IndexerService {
                         : UUID.randomUUID().toString();
 
                 // Create Lucene document directly (no JSON staging)
-                org.apache.lucene.document.Document luceneDoc = new org.apache.lucene.document.Document();
-
-                // ID field - stored and indexed for retrieval
-                // IMPORTANT: Must include BinaryDocValuesField for consistency with
-                // DefaultLuceneDocumentGenerator
-                // This prevents "cannot change field from doc values type=BINARY to type=NONE"
-                // errors
-                luceneDoc.add(new StringField(Constants.ID, docId, Field.Store.YES));
-                luceneDoc.add(new BinaryDocValuesField(Constants.ID, new BytesRef(docId)));
-
-                // Contents field - must match Anserini's DefaultLuceneDocumentGenerator field
-                // settings
-                // to prevent "cannot change field from storeTermVector=true to
-                // storeTermVector=false" errors
-                FieldType contentsFieldType = new FieldType();
-                contentsFieldType.setStored(true);
-                contentsFieldType.setStoreTermVectors(true);
-                contentsFieldType.setStoreTermVectorPositions(true);
-                contentsFieldType.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS);
-                luceneDoc.add(new Field(Constants.CONTENTS, retrievedDoc.getText(), contentsFieldType));
-
-                // Also store as raw for compatibility with Anserini search
-                luceneDoc.add(new StoredField(Constants.RAW, retrievedDoc.getText()));
-
-                // Store metadata as JSON string
-                if (retrievedDoc.getMetadata() != null && !retrievedDoc.getMetadata().isEmpty()) {
-                    try {
-                        String metadataJson = objectMapper.writeValueAsString(retrievedDoc.getMetadata());
-                        luceneDoc.add(new StoredField("metadata", metadataJson));
-                    } catch (Exception e) {
-                        logger.debug("Failed to serialize metadata for doc {}: {}", docId, e.getMessage());
-                    }
-                }
+                org.apache.lucene.document.Document luceneDoc =
+                        createKeywordDocument(docId, retrievedDoc.getText(), retrievedDoc.getMetadata());
 
                 try {
                     // Use updateDocument to handle duplicates (upsert behavior)
@@ -1260,40 +1230,17 @@ public class AnseriniIndexerServiceImpl extends IndexerService {
         try (Directory dir = NativeCompatibleDirectoryFactory.open(indexPath, NoLockFactory.INSTANCE);
              DirectoryReader reader = DirectoryReader.open(dir)) {
 
-            for (int i = 0; i < reader.maxDoc(); i++) {
-                // Skip deleted documents
-                boolean isDeleted = false;
-                for (LeafReaderContext leafContext : reader.leaves()) {
-                    Bits liveDocs = leafContext.reader().getLiveDocs();
-                    if (i >= leafContext.docBase && i < (leafContext.docBase + leafContext.reader().maxDoc())) {
-                        if (liveDocs != null && !liveDocs.get(i - leafContext.docBase)) {
-                            isDeleted = true;
-                        }
-                        break;
-                    }
-                }
-                if (isDeleted) continue;
+            matchingIds.addAll(MetadataFields.collectIds(new IndexSearcher(reader),
+                    MetadataFields.filterQuery(Map.of("source_id", sourceId))));
 
-                org.apache.lucene.document.Document luceneDoc = reader.storedFields().document(i);
-                if (luceneDoc == null) continue;
-
-                // Check metadata for source_id
-                String metadataJson = luceneDoc.get("metadata");
-                if (StringUtils.hasText(metadataJson)) {
-                    try {
-                        Map<String, Object> metadata = objectMapper.readValue(metadataJson, Map.class);
-                        Object docSourceId = metadata.get("source_id");
-                        if (docSourceId != null && sourceId.equals(docSourceId.toString())) {
-                            String docId = luceneDoc.get(Constants.ID);
-                            if (docId != null) {
-                                matchingIds.add(docId);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.debug("Could not parse metadata for doc: {}", e.getMessage());
-                    }
+            // Documents written before source_id was indexed and not yet migrated
+            MetadataFields.forEachUnindexed(reader, (leaf, luceneDocId, luceneDoc) -> {
+                Object docSourceId = readStoredMetadataValue(luceneDoc, "source_id");
+                String docId = luceneDoc.get(Constants.ID);
+                if (docSourceId != null && sourceId.equals(docSourceId.toString()) && docId != null) {
+                    matchingIds.add(docId);
                 }
-            }
+            });
         } catch (IOException e) {
             logger.error("Error getting document IDs by source from keyword index: {}", e.getMessage(), e);
         }
@@ -1316,36 +1263,15 @@ public class AnseriniIndexerServiceImpl extends IndexerService {
         try (Directory dir = NativeCompatibleDirectoryFactory.open(indexPath, NoLockFactory.INSTANCE);
              DirectoryReader reader = DirectoryReader.open(dir)) {
 
-            for (int i = 0; i < reader.maxDoc(); i++) {
-                // Skip deleted documents
-                boolean isDeleted = false;
-                for (LeafReaderContext leafContext : reader.leaves()) {
-                    Bits liveDocs = leafContext.reader().getLiveDocs();
-                    if (i >= leafContext.docBase && i < (leafContext.docBase + leafContext.reader().maxDoc())) {
-                        if (liveDocs != null && !liveDocs.get(i - leafContext.docBase)) {
-                            isDeleted = true;
-                        }
-                        break;
-                    }
-                }
-                if (isDeleted) continue;
-
-                org.apache.lucene.document.Document luceneDoc = reader.storedFields().document(i);
-                if (luceneDoc == null) continue;
+            sourceIds.addAll(MetadataFields.distinctValues(reader, "source_id"));
 
-                String metadataJson = luceneDoc.get("metadata");
-                if (StringUtils.hasText(metadataJson)) {
-                    try {
-                        Map<String, Object> metadata = objectMapper.readValue(metadataJson, Map.class);
-                        Object sourceId = metadata.get("source_id");
-                        if (sourceId != null) {
-                            sourceIds.add(sourceId.toString());
-                        }
-                    } catch (Exception e) {
-                        logger.debug("Could not parse metadata: {}", e.getMessage());
-                    }
+            // Documents written before source_id was indexed and not yet migrated
+            MetadataFields.forEachUnindexed(reader, (leaf, luceneDocId, luceneDoc) -> {
+                Object sourceId = readStoredMetadataValue(luceneDoc, "source_id");
+                if (sourceId != null) {
+                    sourceIds.add(sourceId.toString());
                 }
-            }
+            });
         } catch (IOException e) {
             logger.error("Error getting unique source IDs from keyword index: {}", e.getMessage(), e);
         }
@@ -1353,6 +1279,19 @@ public class AnseriniIndexerServiceImpl extends IndexerService {
         return new ArrayList<>(sourceIds);
     }
 
+    private Object readStoredMetadataValue(org.apache.lucene.document.Document luceneDoc, String key) {
+        String metadataJson = luceneDoc.get("metadata");
+        if (!StringUtils.hasText(metadataJson)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(metadataJson, Map.class).get(key);
+        } catch (Exception e) {
+            logger.debug("Could not parse metadata for doc {}: {}", luceneDoc.get(Constants.ID), e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Force a commit of the keyword index.
      * Call this at the end of bulk indexing to ensure all documents are persisted.
@@ -1405,139 +1344,159 @@ public class AnseriniIndexerServiceImpl extends IndexerService {
 
         keywordIndexWriter = new IndexWriter(keywordIndexDirectory, config);
         logger.info("Initialized incremental keyword index writer at {} with 256MB RAM buffer", indexPath);
+        migrateKeywordMetadataFields();
     }
 
     /**
-     * Legacy method for full index rebuild. Only used for
-     * reprocessAndIndexAllSources().
-     * For normal batch operations, use addToKeywordIndex() instead.
+     * Builds a keyword index document. Field settings must match Anserini's
+     * DefaultLuceneDocumentGenerator so documents from both paths can share an index.
      */
-    private void createOrClearAnseriniKeywordIndex(List<RetrievedDoc> retrievedDocuments) throws IOException {
-        if (!StringUtils.hasText(anseriniConfig.getCorpusPath())
-                || !StringUtils.hasText(anseriniConfig.getIndexPath())) {
-            String msg = "Anserini corpusPath (for staging JSONs) or indexPath is not configured. Cannot create keyword index.";
-            logger.error(msg);
-            throw new IOException(msg);
-        }
-        Path stagingPath = Paths.get(anseriniConfig.getCorpusPath());
-        Path indexPath = Paths.get(anseriniConfig.getIndexPath());
-        logger.info("Preparing Anserini keyword index for {} documents. Staging JSON at: {}, Final index at: {}",
-                retrievedDocuments == null ? 0 : retrievedDocuments.size(), stagingPath, indexPath);
-
-        if (Files.exists(stagingPath)) {
-            try (Stream<Path> walk = Files.walk(stagingPath)) {
-                walk.sorted(java.util.Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    private org.apache.lucene.document.Document createKeywordDocument(String docId, String text,
+            Map<String, Object> metadata) {
+        org.apache.lucene.document.Document luceneDoc = new org.apache.lucene.document.Document();
+
+        // ID field - stored and indexed for retrieval
+        // IMPORTANT: Must include BinaryDocValuesField for consistency with
+        // DefaultLuceneDocumentGenerator
+        // This prevents "cannot change field from doc values type=BINARY to type=NONE"
+        // errors
+        luceneDoc.add(new StringField(Constants.ID, docId, Field.Store.YES));
+        luceneDoc.add(new BinaryDocValuesField(Constants.ID, new BytesRef(docId)));
+
+        // Contents field - must match Anserini's DefaultLuceneDocumentGenerator field
+        // settings
+        // to prevent "cannot change field from storeTermVector=true to
+        // storeTermVector=false" errors
+        FieldType contentsFieldType = new FieldType();
+        contentsFieldType.setStored(true);
+        contentsFieldType.setStoreTermVectors(true);
+        contentsFieldType.setStoreTermVectorPositions(true);
+        contentsFieldType.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS);
+        luceneDoc.add(new Field(Constants.CONTENTS, text, contentsFieldType));
+
+        // Also store as raw for compatibility with Anserini search
+        luceneDoc.add(new StoredField(Constants.RAW, text));
+
+        // Store metadata as JSON string
+        if (metadata != null && !metadata.isEmpty()) {
+            try {
+                String metadataJson = objectMapper.writeValueAsString(metadata);
+                luceneDoc.add(new StoredField("metadata", metadataJson));
+            } catch (Exception e) {
+                logger.debug("Failed to serialize metadata for doc {}: {}", docId, e.getMessage());
             }
         }
-        Files.createDirectories(stagingPath);
-        logger.info("Anserini keyword index staging directory {} prepared.", stagingPath);
 
-        int docCounter = 0;
-        if (!CollectionUtils.isEmpty(retrievedDocuments)) {
-            for (RetrievedDoc retrievedDoc : retrievedDocuments) {
-                // Check for shutdown during document processing
-                if (shutdownRequested || Thread.currentThread().isInterrupted()) {
-                    logger.warn(
-                            "Anserini indexing interrupted during document processing. Processed {} of {} documents.",
-                            docCounter, retrievedDocuments.size());
-                    break;
-                }
+        // Indexed copies of selected keys for source lookups, facets and filtered search
+        MetadataFields.addTo(luceneDoc, metadata);
+        return luceneDoc;
+    }
 
-                if (retrievedDoc == null || !StringUtils.hasText(retrievedDoc.getText())) {
-                    logger.warn(
-                            "Skipping a null document or document with empty content for Anserini keyword index. Doc ID if available: {}",
-                            retrievedDoc != null ? retrievedDoc.getId() : "null document");
-                    continue;
-                }
-                ObjectNode anseriniJsonDoc = objectMapper.createObjectNode();
-                String docId = StringUtils.hasText(retrievedDoc.getId()) ? retrievedDoc.getId()
-                        : UUID.randomUUID().toString();
-                // Use the original docId for the 'id' field in JSON for Anserini if possible,
-                // ensure filenames are unique if staging multiple docs with potentially
-                // conflicting simple IDs
-                String anseriniStagingFileId = docId.replaceAll("[^a-zA-Z0-9_.-]", "_");
-                if (anseriniStagingFileId.length() > 200) { // Max filename length considerations
-                    anseriniStagingFileId = anseriniStagingFileId.substring(0, 195) + "_"
-                            + UUID.randomUUID().toString().substring(0, 4);
+    /**
+     * Rewrites keyword documents indexed before metadata keys were indexed, so source
+     * lookups can use term queries instead of parsing every stored metadata blob.
+     * Documents that cannot be rebuilt are flagged by {@link MetadataFields#migrate} and
+     * not rescanned on later opens.
+     */
+    private void migrateKeywordMetadataFields() {
+        try {
+            if (sharesIndexWithVectorStore()) {
+                // The vector store migrates documents in a shared index together with their vectors
+                return;
+            }
+            int migrated = MetadataFields.migrate(keywordIndexWriter, (leaf, luceneDocId, stored) -> {
+                String text = stored.get(Constants.CONTENTS);
+                if (text == null) {
+                    text = stored.get(Constants.RAW);
                 }
-                // Ensure unique filenames if multiple docs might simplify to the same staging
-                // ID
-                anseriniStagingFileId = anseriniStagingFileId + "_" + docCounter;
-
-                anseriniJsonDoc.put(Constants.ID, docId); // Use original RetrievedDoc ID as Anserini's 'id' field
-                anseriniJsonDoc.put(Constants.CONTENTS, retrievedDoc.getText());
-
-                ObjectNode metadataNode = objectMapper.createObjectNode();
-                if (retrievedDoc.getMetadata() != null) {
-                    retrievedDoc.getMetadata().forEach((key, value) -> {
-                        if (value != null) {
-                            // Convert common types to string or appropriate JSON types
-                            if (value instanceof String || value instanceof Number || value instanceof Boolean) {
-                                metadataNode.putPOJO(key, value);
-                            } else {
-                                metadataNode.put(key, value.toString());
-                            }
-                        }
-                    });
+                if (text == null) {
+                    return null;
                 }
-                if (metadataNode.size() > 0) {
-                    anseriniJsonDoc.set("metadata", metadataNode);
+                Map<String, Object> metadata = null;
+                String metadataJson = stored.get("metadata");
+                if (StringUtils.hasText(metadataJson)) {
+                    try {
+                        metadata = objectMapper.readValue(metadataJson, Map.class);
+                    } catch (Exception e) {
+                        logger.debug("Skipping metadata migration for doc {}: {}", stored.get(Constants.ID),
+                                e.getMessage());
+                        return null;
+                    }
                 }
+                return createKeywordDocument(stored.get(Constants.ID), text, metadata);
+            });
+            if (migrated > 0) {
+                logger.info("Keyword index: indexed metadata fields for {} existing documents", migrated);
+            }
+        } catch (IOException e) {
+            logger.warn("Keyword index: failed to index metadata fields for existing documents: {}", e.getMessage());
+        }
+    }
 
-                Path jsonFile = stagingPath.resolve(anseriniStagingFileId + ".json");
-                try {
-                    Files.writeString(jsonFile,
-                            objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(anseriniJsonDoc),
-                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
-                } catch (IOException e) {
-                    logger.error("Failed to write Anserini JSON for document (staging id {}): {}",
-                            anseriniStagingFileId, e.getMessage());
+    private boolean sharesIndexWithVectorStore() throws IOException {
+        try (DirectoryReader reader = DirectoryReader.open(keywordIndexWriter)) {
+            for (LeafReaderContext context : reader.leaves()) {
+                if (context.reader().getFieldInfos().fieldInfo(Constants.VECTOR) != null) {
+                    return true;
                 }
-                docCounter++;
             }
         }
-        logger.info("{} documents for Anserini keyword index converted to JSON and written to staging directory {}.",
-                docCounter, stagingPath);
+        return false;
+    }
 
-        if (Files.exists(indexPath)) {
-            try (Stream<Path> walk = Files.walk(indexPath)) {
-                walk.sorted(java.util.Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
-            }
+    /**
+     * Legacy method for full index rebuild. Only used for
+     * reprocessAndIndexAllSources().
+     * For normal batch operations, use addToKeywordIndex() instead.
+     * <p>
+     * Rebuilds through the incremental writer with {@link #createKeywordDocument} rather
+     * than Anserini's IndexCollection, whose DefaultLuceneDocumentGenerator drops the
+     * metadata object and writes neither the indexed metadata fields nor the
+     * {@code meta_schema} marker.
+     */
+    private void createOrClearAnseriniKeywordIndex(List<RetrievedDoc> retrievedDocuments) throws IOException {
+        if (!StringUtils.hasText(anseriniConfig.getIndexPath())) {
+            String msg = "Anserini indexPath is not configured. Cannot create keyword index.";
+            logger.error(msg);
+            throw new IOException(msg);
         }
-        Files.createDirectories(indexPath);
+        logger.info("Rebuilding Anserini keyword index at {} from {} documents", anseriniConfig.getIndexPath(),
+                retrievedDocuments == null ? 0 : retrievedDocuments.size());
 
-        if (docCounter == 0) {
-            logger.warn(
-                    "No documents were processed to JSON for keyword index. Creating a minimal empty Lucene index at {}.",
-                    indexPath);
-            try (Directory dir = NativeCompatibleDirectoryFactory.open(indexPath, NoLockFactory.INSTANCE);
-                    IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
-                writer.commit();
+        synchronized (keywordWriterLock) {
+            ensureKeywordWriterInitialized();
+            if (keywordIndexWriter == null || !keywordIndexWriter.isOpen()) {
+                throw new IOException("Keyword index writer not available for rebuild");
             }
-            logger.info("Minimal empty Lucene keyword index created at {}.", indexPath);
-        } else {
-            logger.info("Starting Anserini keyword indexing for {} documents from {} to {}", docCounter, stagingPath,
-                    indexPath);
-            IndexCollection.Args args = new IndexCollection.Args();
-            args.input = stagingPath.toString();
-            args.collectionClass = "JsonCollection";
-            args.generatorClass = "DefaultLuceneDocumentGenerator";
-            args.index = indexPath.toString();
-            args.threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
-            args.storePositions = true;
-            args.storeDocvectors = true;
-            args.storeRaw = true;
-            args.storeContents = true;
+            keywordIndexWriter.deleteAll();
 
-            try {
-                IndexCollection indexer = new IndexCollection(args);
-                indexer.run();
-                logger.info("Anserini keyword indexing completed using IndexCollection for {} documents.", docCounter);
-            } catch (Exception e) {
-                logger.error("Error during Anserini IndexCollection from {}: {}", stagingPath, e.getMessage(), e);
-                throw new IOException("Failed to create keyword index with Anserini IndexCollection: " + e.getMessage(),
-                        e);
+            int docCounter = 0;
+            if (!CollectionUtils.isEmpty(retrievedDocuments)) {
+                for (RetrievedDoc retrievedDoc : retrievedDocuments) {
+                    // Check for shutdown during document processing
+                    if (shutdownRequested || Thread.currentThread().isInterrupted()) {
+                        logger.warn(
+                                "Anserini indexing interrupted during document processing. Processed {} of {} documents.",
+                                docCounter, retrievedDocuments.size());
+                        break;
+                    }
+
+                    if (retrievedDoc == null || !StringUtils.hasText(retrievedDoc.getText())) {
+                        logger.warn(
+                                "Skipping a null document or document with empty content for Anserini keyword index. Doc ID if available: {}",
+                                retrievedDoc != null ? retrievedDoc.getId() : "null document");
+                        continue;
+                    }
+                    String docId = StringUtils.hasText(retrievedDoc.getId()) ? retrievedDoc.getId()
+                            : UUID.randomUUID().toString();
+                    keywordIndexWriter.addDocument(
+                            createKeywordDocument(docId, retrievedDoc.getText(), retrievedDoc.getMetadata()));
+                    docCounter++;
+                }
             }
+            keywordIndexWriter.commit();
+            docsSinceLastCommit.set(0);
+            logger.info("Anserini keyword index rebuilt with {} documents.", docCounter);
         }
     }
 
@@ -1557,19 +1516,11 @@ public class AnseriniIndexerServiceImpl extends IndexerService {
             int docCount = 0;
             int docsSkipped = 0;
 
+            // Top-level view of every segment's deletions, null when there are none
+            Bits liveDocs = MultiBits.getLiveDocs(reader);
+
             for (int i = 0; i < maxDoc && docCount < (offset + limit); i++) {
-                // Correctly check for deleted documents by iterating through LeafReaders
-                boolean isDeleted = false;
-                for (LeafReaderContext leafContext : reader.leaves()) {
-                    Bits liveDocs = leafContext.reader().getLiveDocs();
-                    if (i >= leafContext.docBase && i < (leafContext.docBase + leafContext.reader().maxDoc())) {
-                        if (liveDocs != null && !liveDocs.get(i - leafContext.docBase)) {
-                            isDeleted = true;
-                        }
-                        break;
-                    }
-                }
-                if (isDeleted) {
+                if (liveDocs != null && !liveDocs.get(i)) {
                     continue;
                 }
 
@@ -1758,6 +1709,8 @@ public class AnseriniIndexerServiceImpl extends IndexerService {
                 }
             }
 
+            MetadataFields.addTo(newLuceneDoc, metadata);
+
             writer.updateDocument(new Term(Constants.ID, docId), newLuceneDoc);
             writer.commit();
             logger.info("Successfully updated document {} in Anserini index with new content.", docId);
@@ -30,8 +30,12 @@ import java.util.stream.Collectors;
  * Adapter that wraps an OutputGuardrail as a Filter.
  * This provides backward compatibility for existing output guardrails
  * within the new filter chain framework.
+ * <p>
+ * For streamed responses, a {@link StreamingOutputGuardrail} checks each delta as it
+ * arrives and can stop the stream; any other guardrail sees the complete response when
+ * the stream ends.
  */
-public class GuardrailOutputFilterAdapter implements Filter {
+public class GuardrailOutputFilterAdapter implements StreamingFilter {
 
     private static final Logger log = LoggerFactory.getLogger(GuardrailOutputFilterAdapter.class);
 
@@ -98,16 +102,11 @@ public class GuardrailOutputFilterAdapter implements Filter {
             return FilterResult.continueWith(context);
         }
 
-        // Get retrieved context for hallucination checks
-        List<String> retrievedContext = context.getRetrievedDocuments().stream()
-                .map(doc -> doc.getText())
-                .toList();
-
         // Execute the guardrail
         GuardrailResult result = guardrail.validate(
                 llmResponse,
                 context.getOriginalQuery(),
-                retrievedContext,
+                retrievedContext(context),
                 guardrailContext
         );
 
@@ -115,6 +114,66 @@ public class GuardrailOutputFilterAdapter implements Filter {
         return convertResult(result, context);
     }
 
+    @Override
+    public FilterStream openStream(FilterContext context) {
+        if (guardrail instanceof StreamingOutputGuardrail streaming) {
+            return new GuardrailStream(streaming.openStream(
+                    context.getOriginalQuery(), retrievedContext(context), buildGuardrailContext(context)), context);
+        }
+        return FilterStream.onCompleteResponse(this, context);
+    }
+
+    /**
+     * Feeds deltas to a streaming guardrail and releases what it lets through.
+     */
+    private final class GuardrailStream implements FilterStream {
+
+        private final OutputGuardrailStream stream;
+        private final FilterContext context;
+        private FilterResult termination;
+
+        private GuardrailStream(OutputGuardrailStream stream, FilterContext context) {
+            this.stream = stream;
+            this.context = context;
+        }
+
+        @Override
+        public String onDelta(String delta) {
+            if (termination != null) {
+                return "";
+            }
+            StreamDecision decision = stream.accept(delta);
+            if (decision.isStopped()) {
+                log.info("Output guardrail '{}' stopped the stream: {}",
+                        guardrail.getName(), decision.result().getFailureReason());
+                termination = convertResult(decision.result(), context);
+                return "";
+            }
+            return decision.text();
+        }
+
+        @Override
+        public String onComplete() {
+            if (termination != null) {
+                return "";
+            }
+            StreamDecision decision = stream.finish();
+            if (decision.result() != null) {
+                FilterResult result = convertResult(decision.result(), context);
+                if (result.isTerminating()) {
+                    termination = result;
+                    return "";
+                }
+            }
+            return decision.text();
+        }
+
+        @Override
+        public FilterResult getTermination() {
+            return termination;
+        }
+    }
+
     @Override
     public boolean requiresLlm() {
         return guardrail.requiresLlm();
@@ -135,6 +194,15 @@ public class GuardrailOutputFilterAdapter implements Filter {
         return result;
     }
 
+    /**
+     * Get retrieved context for hallucination checks.
+     */
+    private static List<String> retrievedContext(FilterContext context) {
+        return context.getRetrievedDocuments().stream()
+                .map(doc -> doc.getText())
+                .toList();
+    }
+
     /**
      * Build a GuardrailContext from FilterContext.
      */
@@ -192,6 +260,10 @@ public class GuardrailOutputFilterAdapter implements Filter {
                 // If the guardrail suggests modifications, log them
                 context.addTrace(FilterTraceEntry.info(id,
                         "Guardrail suggested modification: " + result.getFailureReason()));
+                Object modified = result.getMetadata().get(GuardrailResult.METADATA_MODIFIED_CONTENT);
+                if (modified instanceof String content) {
+                    context.setLlmResponse(content);
+                }
                 yield FilterResult.continueWith(context);
             }
             case ESCALATE -> {
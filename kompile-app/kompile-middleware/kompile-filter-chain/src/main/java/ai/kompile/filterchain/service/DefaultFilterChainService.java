@@ -148,6 +148,13 @@ public class DefaultFilterChainService implements FilterChainService {
         return FilterResult.continueWith(currentContext).withTraces(allTraces);
     }
 
+    @Override
+    public FilterStream openOutputStream(FilterContext context) {
+        List<Filter> filters = isEnabled() ? registry.getFiltersForPhase(FilterPhase.POST_LLM) : List.of();
+        log.debug("Opening output stream with {} filter(s)", filters.size());
+        return new OutputFilterStream(filters, context, configService.getConfiguration().isContinueOnError());
+    }
+
     @Override
     public boolean isEnabled() {
         return configService.isEnabled();
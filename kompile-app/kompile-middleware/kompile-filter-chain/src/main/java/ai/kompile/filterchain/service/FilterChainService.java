@@ -20,6 +20,7 @@ import ai.kompile.core.filter.Filter;
 import ai.kompile.core.filter.FilterContext;
 import ai.kompile.core.filter.FilterPhase;
 import ai.kompile.core.filter.FilterResult;
+import ai.kompile.core.filter.FilterStream;
 
 import java.util.List;
 
@@ -38,6 +39,16 @@ public interface FilterChainService {
      */
     FilterResult execute(FilterContext context, FilterPhase phase);
 
+    /**
+     * Open the POST_LLM phase for a response that is being streamed.
+     * Feed each generated delta to the returned stream and send on what it releases;
+     * once it reports a termination, stop generation.
+     *
+     * @param context The filter context
+     * @return The stream for this response
+     */
+    FilterStream openOutputStream(FilterContext context);
+
     /**
      * Check if the filter chain is enabled.
      */
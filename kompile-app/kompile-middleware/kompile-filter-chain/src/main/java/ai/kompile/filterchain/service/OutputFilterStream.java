@@ -0,0 +1,144 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.filterchain.service;
+
+import ai.kompile.core.filter.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The POST_LLM phase of the filter chain applied to a streamed response.
+ * <p>
+ * Each delta passes through the filters in priority order, each one seeing what the
+ * previous one released. {@link StreamingFilter}s act on deltas; other filters see the
+ * complete response when the stream ends. The first termination stops the stream.
+ */
+final class OutputFilterStream implements FilterStream {
+
+    private static final Logger log = LoggerFactory.getLogger(OutputFilterStream.class);
+
+    private final List<Filter> filters = new ArrayList<>();
+    private final List<FilterStream> stages = new ArrayList<>();
+    private final FilterContext context;
+    private final boolean continueOnError;
+    private FilterResult termination;
+
+    OutputFilterStream(List<Filter> filters, FilterContext context, boolean continueOnError) {
+        this.context = context;
+        this.continueOnError = continueOnError;
+        for (Filter filter : filters) {
+            if (!filter.isEnabled()) {
+                continue;
+            }
+            try {
+                stages.add(filter instanceof StreamingFilter streaming
+                        ? streaming.openStream(context)
+                        : FilterStream.onCompleteResponse(filter, context));
+                this.filters.add(filter);
+            } catch (Exception e) {
+                if (!fail(filter, e)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String onDelta(String delta) {
+        String text = delta;
+        for (int i = 0; i < stages.size() && termination == null && !text.isEmpty(); i++) {
+            try {
+                text = stages.get(i).onDelta(text);
+                checkTermination(i);
+            } catch (Exception e) {
+                if (!drop(i--, e)) {
+                    break;
+                }
+            }
+        }
+        return termination != null ? "" : text;
+    }
+
+    @Override
+    public String onComplete() {
+        String text = "";
+        for (int i = 0; i < stages.size() && termination == null; i++) {
+            try {
+                FilterStream stage = stages.get(i);
+                if (!text.isEmpty()) {
+                    text = stage.onDelta(text);
+                    checkTermination(i);
+                }
+                if (termination == null) {
+                    text = text + stage.onComplete();
+                    checkTermination(i);
+                }
+            } catch (Exception e) {
+                if (!drop(i--, e)) {
+                    break;
+                }
+            }
+        }
+        return termination != null ? "" : text;
+    }
+
+    @Override
+    public FilterResult getTermination() {
+        return termination;
+    }
+
+    private void checkTermination(int i) {
+        FilterResult result = stages.get(i).getTermination();
+        if (result == null) {
+            return;
+        }
+        Filter filter = filters.get(i);
+        log.info("Filter '{}' terminated stream with action: {} (HTTP {})",
+                filter.getId(), result.getAction(), result.getHttpStatusCode());
+        context.setTermination(FilterContext.FilterTermination.builder()
+                .filterId(filter.getId())
+                .action(result.getAction())
+                .message(result.getMessage())
+                .httpStatusCode(result.getHttpStatusCode())
+                .build());
+        termination = result.withFilterId(filter.getId());
+    }
+
+    /**
+     * Remove a failed stage. Returns false if the stream was terminated instead.
+     */
+    private boolean drop(int i, Exception e) {
+        Filter filter = filters.remove(i);
+        stages.remove(i);
+        return fail(filter, e);
+    }
+
+    private boolean fail(Filter filter, Exception e) {
+        log.error("Unexpected error in streaming filter '{}': {}", filter.getId(), e.getMessage(), e);
+        if (!continueOnError) {
+            termination = FilterResult.terminateFatalError("Filter '" + filter.getId() + "' failed: " + e.getMessage())
+                    .withFilterId(filter.getId());
+            return false;
+        }
+        context.addTrace(FilterTraceEntry.error(filter.getId(),
+                "Unexpected error (continuing): " + e.getMessage()));
+        return true;
+    }
+}
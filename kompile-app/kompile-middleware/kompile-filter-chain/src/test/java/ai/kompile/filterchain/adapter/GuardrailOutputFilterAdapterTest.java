@@ -0,0 +1,162 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.filterchain.adapter;
+
+import ai.kompile.core.filter.FilterAction;
+import ai.kompile.core.filter.FilterContext;
+import ai.kompile.core.filter.FilterStream;
+import ai.kompile.core.guardrails.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link GuardrailOutputFilterAdapter#openStream}: streaming guardrails see each
+ * delta and can stop the stream, other guardrails validate the complete response.
+ */
+class GuardrailOutputFilterAdapterTest {
+
+    @Test
+    void streamingGuardrailReleasesWhatItLetsThrough() {
+        SentenceGuardrail guardrail = new SentenceGuardrail();
+        FilterStream stream = new GuardrailOutputFilterAdapter(guardrail).openStream(context());
+
+        assertEquals("", stream.onDelta("Hello wor"));
+        assertEquals("Hello world.", stream.onDelta("ld. Bye"));
+        assertEquals(" Bye", stream.onComplete());
+        assertNull(stream.getTermination());
+        assertEquals("what is up", guardrail.query);
+    }
+
+    @Test
+    void streamingGuardrailStopTerminatesTheStream() {
+        FilterStream stream = new GuardrailOutputFilterAdapter(new SentenceGuardrail()).openStream(context());
+
+        assertEquals("Fine.", stream.onDelta("Fine. My "));
+        assertEquals("", stream.onDelta("ssn"));
+        assertEquals(FilterAction.TERMINATE_USER_ERROR, stream.getTermination().getAction());
+        assertEquals(400, stream.getTermination().getHttpStatusCode());
+        assertEquals("contains ssn", stream.getTermination().getMessage());
+        assertEquals("", stream.onDelta(" is 123."));
+        assertEquals("", stream.onComplete());
+    }
+
+    @Test
+    void streamingGuardrailCanBlockAtTheEnd() {
+        SentenceGuardrail guardrail = new SentenceGuardrail();
+        guardrail.blockAtFinish = true;
+        FilterStream stream = new GuardrailOutputFilterAdapter(guardrail).openStream(context());
+
+        assertEquals("One.", stream.onDelta("One. Two"));
+        assertEquals("", stream.onComplete());
+        assertEquals("incomplete answer", stream.getTermination().getMessage());
+    }
+
+    @Test
+    void otherGuardrailsValidateTheCompleteResponse() {
+        List<String> validated = new ArrayList<>();
+        OutputGuardrail guardrail = new TestGuardrail() {
+            @Override
+            public GuardrailResult validate(String output, String originalQuery,
+                                            List<String> retrievedContext, GuardrailContext context) {
+                validated.add(output);
+                return output.contains("forbidden")
+                        ? GuardrailResult.block(getName(), "forbidden word", GuardrailCategory.TOXICITY)
+                        : GuardrailResult.pass(getName());
+            }
+        };
+        FilterStream stream = new GuardrailOutputFilterAdapter(guardrail).openStream(context());
+
+        assertEquals("a forbidden", stream.onDelta("a forbidden"));
+        assertEquals(" word", stream.onDelta(" word"));
+        assertTrue(validated.isEmpty());
+        assertEquals("", stream.onComplete());
+        assertEquals(List.of("a forbidden word"), validated);
+        assertEquals("forbidden word", stream.getTermination().getMessage());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static FilterContext context() {
+        return FilterContext.forConversation("conv", "what is up", List.of());
+    }
+
+    private abstract static class TestGuardrail implements OutputGuardrail {
+        @Override
+        public String getName() {
+            return "Test Guardrail";
+        }
+
+        @Override
+        public GuardrailCategory[] getCategories() {
+            return new GuardrailCategory[]{GuardrailCategory.PII};
+        }
+    }
+
+    /**
+     * Releases text one sentence at a time and stops as soon as "ssn" appears.
+     */
+    private static final class SentenceGuardrail extends TestGuardrail implements StreamingOutputGuardrail {
+        private String query;
+        private boolean blockAtFinish;
+
+        @Override
+        public GuardrailResult validate(String output, String originalQuery,
+                                        List<String> retrievedContext, GuardrailContext context) {
+            return GuardrailResult.pass(getName());
+        }
+
+        @Override
+        public OutputGuardrailStream openStream(String originalQuery, List<String> retrievedContext,
+                                                GuardrailContext context) {
+            query = originalQuery;
+            return new OutputGuardrailStream() {
+                private final StringBuilder held = new StringBuilder();
+
+                @Override
+                public StreamDecision accept(String delta) {
+                    held.append(delta);
+                    String released = "";
+                    int end = held.lastIndexOf(".");
+                    if (end >= 0) {
+                        released = held.substring(0, end + 1);
+                        held.delete(0, end + 1);
+                    }
+                    if (held.indexOf("ssn") >= 0) {
+                        return StreamDecision.stop(
+                                GuardrailResult.block(getName(), "contains ssn", GuardrailCategory.PII));
+                    }
+                    return StreamDecision.release(released);
+                }
+
+                @Override
+                public StreamDecision finish() {
+                    if (blockAtFinish) {
+                        return StreamDecision.stop(
+                                GuardrailResult.block(getName(), "incomplete answer", GuardrailCategory.PII));
+                    }
+                    return StreamDecision.complete(held.toString(), GuardrailResult.pass(getName()));
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.filterchain.service;
+
+import ai.kompile.core.filter.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link OutputFilterStream}: how streamed deltas flow through the POST_LLM filters,
+ * when whole-response filters run, and how terminations and filter failures stop the stream.
+ */
+class OutputFilterStreamTest {
+
+    @Test
+    void deltasPassThroughStreamingFiltersInOrder() {
+        FilterContext context = FilterContext.forQuery("q");
+        OutputFilterStream stream = new OutputFilterStream(List.of(
+                new ScriptedFilter("upper").transform(String::toUpperCase),
+                new ScriptedFilter("star").transform(text -> text.replace('O', '*'))
+        ), context, true);
+
+        assertEquals("HELL*", stream.onDelta("hello"));
+        assertEquals(" W*RLD", stream.onDelta(" world"));
+        assertEquals("", stream.onComplete());
+        assertNull(stream.getTermination());
+    }
+
+    @Test
+    void wholeResponseFilterSeesWhatEarlierFiltersReleased() {
+        FilterContext context = FilterContext.forQuery("q");
+        List<String> seen = new ArrayList<>();
+        OutputFilterStream stream = new OutputFilterStream(List.of(
+                new ScriptedFilter("upper").transform(String::toUpperCase),
+                new WholeResponseFilter("audit", response -> {
+                    seen.add(response);
+                    return null;
+                })
+        ), context, true);
+
+        assertEquals("AB", stream.onDelta("ab"));
+        assertEquals("C", stream.onDelta("c"));
+        assertTrue(seen.isEmpty(), "whole-response filters only run at the end");
+        assertEquals("", stream.onComplete());
+        assertEquals(List.of("ABC"), seen);
+    }
+
+    @Test
+    void heldBackTextIsFedToLaterFiltersOnComplete() {
+        FilterContext context = FilterContext.forQuery("q");
+        ScriptedFilter holding = new ScriptedFilter("hold").holdBack();
+        OutputFilterStream stream = new OutputFilterStream(List.of(
+                holding,
+                new ScriptedFilter("upper").transform(String::toUpperCase)
+        ), context, true);
+
+        assertEquals("", stream.onDelta("ab"));
+        assertEquals("", stream.onDelta("c"));
+        assertEquals("ABC", stream.onComplete());
+    }
+
+    @Test
+    void terminationStopsTheStreamAndSkipsLaterFilters() {
+        FilterContext context = FilterContext.forQuery("q");
+        ScriptedFilter after = new ScriptedFilter("after");
+        OutputFilterStream stream = new OutputFilterStream(List.of(
+                new ScriptedFilter("blocker").blockOn("secret"),
+                after
+        ), context, true);
+
+        assertEquals("fine ", stream.onDelta("fine "));
+        assertEquals("", stream.onDelta("the secret is"));
+        assertEquals("", stream.onDelta("more"));
+        assertEquals("", stream.onComplete());
+
+        FilterResult termination = stream.getTermination();
+        assertNotNull(termination);
+        assertEquals(FilterAction.TERMINATE_USER_ERROR, termination.getAction());
+        assertEquals("blocker", termination.getFilterId());
+        assertEquals("blocker", context.getTermination().getFilterId());
+        assertEquals(List.of("fine "), after.deltas);
+        assertFalse(after.completed);
+    }
+
+    @Test
+    void wholeResponseFilterCanTerminateAtTheEnd() {
+        FilterContext context = FilterContext.forQuery("q");
+        OutputFilterStream stream = new OutputFilterStream(List.of(
+                new WholeResponseFilter("judge", response -> response.contains("bad")
+                        ? FilterResult.terminateUserError("not allowed") : null)
+        ), context, true);
+
+        assertEquals("a bad ", stream.onDelta("a bad "));
+        assertEquals("", stream.onComplete());
+        assertEquals("judge", stream.getTermination().getFilterId());
+        assertEquals("a bad ", context.getLlmResponse());
+    }
+
+    @Test
+    void disabledFiltersAreSkipped() {
+        FilterContext context = FilterContext.forQuery("q");
+        ScriptedFilter disabled = new ScriptedFilter("off").transform(String::toUpperCase).disabled();
+        OutputFilterStream stream = new OutputFilterStream(List.of(disabled), context, true);
+
+        assertEquals("abc", stream.onDelta("abc"));
+        assertEquals("", stream.onComplete());
+        assertTrue(disabled.deltas.isEmpty());
+    }
+
+    @Test
+    void failingFilterIsDroppedWhenContinuingOnError() {
+        FilterContext context = FilterContext.forQuery("q");
+        OutputFilterStream stream = new OutputFilterStream(List.of(
+                new ScriptedFilter("broken").failing(),
+                new ScriptedFilter("upper").transform(String::toUpperCase)
+        ), context, true);
+
+        assertEquals("AB", stream.onDelta("ab"));
+        assertEquals("CD", stream.onDelta("cd"));
+        assertEquals("", stream.onComplete());
+        assertNull(stream.getTermination());
+        assertEquals(1, context.getTraces().size());
+    }
+
+    @Test
+    void failingFilterTerminatesWhenNotContinuingOnError() {
+        FilterContext context = FilterContext.forQuery("q");
+        OutputFilterStream stream = new OutputFilterStream(List.of(
+                new ScriptedFilter("broken").failing()
+        ), context, false);
+
+        assertEquals("", stream.onDelta("ab"));
+        assertEquals(FilterAction.TERMINATE_FATAL_ERROR, stream.getTermination().getAction());
+        assertEquals("broken", stream.getTermination().getFilterId());
+        assertEquals("", stream.onDelta("cd"));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private abstract static class TestFilter implements Filter {
+        private final String id;
+        private boolean enabled = true;
+
+        TestFilter(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return id;
+        }
+
+        @Override
+        public Set<FilterPhase> getApplicablePhases() {
+            return Set.of(FilterPhase.POST_LLM);
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public FilterType getType() {
+            return FilterType.LOCAL;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T extends TestFilter> T disabled() {
+            enabled = false;
+            return (T) this;
+        }
+    }
+
+    /**
+     * Streaming filter that rewrites deltas, holds them back until the end, blocks on a
+     * word or throws, and records what it was fed.
+     */
+    private static final class ScriptedFilter extends TestFilter implements StreamingFilter {
+        private final List<String> deltas = new ArrayList<>();
+        private boolean completed;
+        private UnaryOperator<String> transform = UnaryOperator.identity();
+        private boolean holdBack;
+        private String blockOn;
+        private boolean failing;
+
+        ScriptedFilter(String id) {
+            super(id);
+        }
+
+        ScriptedFilter transform(UnaryOperator<String> transform) {
+            this.transform = transform;
+            return this;
+        }
+
+        ScriptedFilter holdBack() {
+            this.holdBack = true;
+            return this;
+        }
+
+        ScriptedFilter blockOn(String word) {
+            this.blockOn = word;
+            return this;
+        }
+
+        ScriptedFilter failing() {
+            this.failing = true;
+            return this;
+        }
+
+        @Override
+        public FilterResult execute(FilterContext context, FilterPhase phase) {
+            return FilterResult.continueWith(context);
+        }
+
+        @Override
+        public FilterStream openStream(FilterContext context) {
+            return new FilterStream() {
+                private final StringBuilder held = new StringBuilder();
+                private FilterResult termination;
+
+                @Override
+                public String onDelta(String delta) {
+                    if (failing) {
+                        throw new IllegalStateException("boom");
+                    }
+                    deltas.add(delta);
+                    if (blockOn != null && delta.contains(blockOn)) {
+                        termination = FilterResult.terminateUserError("blocked");
+                        return "";
+                    }
+                    if (holdBack) {
+                        held.append(delta);
+                        return "";
+                    }
+                    return transform.apply(delta);
+                }
+
+                @Override
+                public String onComplete() {
+                    completed = true;
+                    return transform.apply(held.toString());
+                }
+
+                @Override
+                public FilterResult getTermination() {
+                    return termination;
+                }
+            };
+        }
+    }
+
+    /**
+     * Non-streaming filter that inspects the complete response and may terminate.
+     */
+    private static final class WholeResponseFilter extends TestFilter {
+        private final Function<String, FilterResult> check;
+
+        WholeResponseFilter(String id, Function<String, FilterResult> check) {
+            super(id);
+            this.check = check;
+        }
+
+        @Override
+        public FilterResult execute(FilterContext context, FilterPhase phase) {
+            FilterResult result = check.apply(context.getLlmResponse());
+            return result != null ? result : FilterResult.continueWith(context);
+        }
+    }
+}
@@ -21,23 +21,49 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
  * Default implementation of GuardrailService.
+ * <p>
+ * By default guardrails run one after another in priority order on the calling thread.
+ * With {@code kompile.guardrails.concurrency.enabled}, guardrails that do not need an LLM
+ * still run first on the calling thread, and LLM-backed guardrails then run in parallel on
+ * a bounded pool, each within its own time budget. The first BLOCK cancels the checks
+ * still in flight.
  */
 @Slf4j
-public class DefaultGuardrailService implements GuardrailService {
+public class DefaultGuardrailService implements GuardrailService, AutoCloseable {
 
     private final List<InputGuardrail> inputGuardrails;
     private final List<OutputGuardrail> outputGuardrails;
     private final GuardrailsProperties properties;
+    private final GuardrailListener listener;
+    private final ThreadPoolExecutor executor;
 
     public DefaultGuardrailService(
             List<InputGuardrail> inputGuardrails,
             List<OutputGuardrail> outputGuardrails,
             GuardrailsProperties properties) {
+        this(inputGuardrails, outputGuardrails, properties, null);
+    }
+
+    public DefaultGuardrailService(
+            List<InputGuardrail> inputGuardrails,
+            List<OutputGuardrail> outputGuardrails,
+            GuardrailsProperties properties,
+            GuardrailListener listener) {
         // Sort by priority
         this.inputGuardrails = inputGuardrails.stream()
                 .filter(InputGuardrail::isEnabled)
@@ -48,9 +74,27 @@ public class DefaultGuardrailService implements GuardrailService {
                 .sorted(Comparator.comparingInt(OutputGuardrail::getPriority))
                 .collect(Collectors.toList());
         this.properties = properties;
+        this.listener = listener != null ? listener : new GuardrailListener() {};
+        this.executor = properties.getConcurrency().isEnabled()
+                ? createExecutor(properties.getConcurrency().getMaxThreads())
+                : null;
 
-        log.info("Initialized guardrail service with {} input and {} output guardrails",
-                this.inputGuardrails.size(), this.outputGuardrails.size());
+        log.info("Initialized guardrail service with {} input and {} output guardrails ({} evaluation)",
+                this.inputGuardrails.size(), this.outputGuardrails.size(),
+                executor != null ? "concurrent" : "sequential");
+    }
+
+    private static ThreadPoolExecutor createExecutor(int maxThreads) {
+        int threads = Math.max(1, maxThreads);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "guardrail-eval-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
     }
 
     @Override
@@ -59,28 +103,23 @@ public class DefaultGuardrailService implements GuardrailService {
             return GuardrailResult.pass("guardrails-disabled");
         }
 
-        List<GuardrailResult> results = new ArrayList<>();
-
+        long start = System.nanoTime();
+        List<Check> checks = new ArrayList<>(inputGuardrails.size());
         for (InputGuardrail guardrail : inputGuardrails) {
-            try {
-                GuardrailResult result = guardrail.validate(input, context);
-                results.add(result);
+            checks.add(new Check(guardrail.getName(), guardrail.requiresLlm(),
+                    () -> guardrail.validate(input, context)));
+        }
 
-                if (!result.isPassed() && result.getAction() == GuardrailAction.BLOCK) {
-                    log.warn("Input blocked by guardrail '{}': {}",
-                            guardrail.getName(), result.getFailureReason());
-                    throw new GuardrailException(result);
-                }
-            } catch (GuardrailException e) {
-                throw e; // Re-throw GuardrailException
-            } catch (Exception e) {
-                log.error("Error in guardrail '{}': {}", guardrail.getName(), e.getMessage(), e);
-                // Continue with other guardrails on error
-            }
+        Evaluation evaluation = evaluate(GuardrailListener.PHASE_INPUT, checks);
+        if (evaluation.blocking() != null) {
+            listener.onValidation(GuardrailListener.PHASE_INPUT, "blocked", System.nanoTime() - start);
+            throw new GuardrailException(evaluation.blocking());
         }
 
         // Aggregate results
-        return aggregateResults("input-validation", results);
+        GuardrailResult result = aggregateResults("input-validation", evaluation.results());
+        listener.onValidation(GuardrailListener.PHASE_INPUT, validationOutcome(result), System.nanoTime() - start);
+        return result;
     }
 
     @Override
@@ -90,23 +129,219 @@ public class DefaultGuardrailService implements GuardrailService {
             return GuardrailResult.pass("guardrails-disabled");
         }
 
+        long start = System.nanoTime();
+        List<Check> checks = new ArrayList<>(outputGuardrails.size());
+        for (OutputGuardrail guardrail : outputGuardrails) {
+            checks.add(new Check(guardrail.getName(), guardrail.requiresLlm(),
+                    () -> guardrail.validate(output, originalQuery, retrievedContext, context)));
+        }
+
+        GuardrailResult result = aggregateResults("output-validation",
+                evaluate(GuardrailListener.PHASE_OUTPUT, checks).results());
+        listener.onValidation(GuardrailListener.PHASE_OUTPUT, validationOutcome(result), System.nanoTime() - start);
+        return result;
+    }
+
+    // ==================== Evaluation ====================
+
+    /**
+     * One guardrail invocation. {@code expensive} checks (LLM-backed) are the ones run
+     * in parallel in concurrent mode.
+     */
+    private record Check(String name, boolean expensive, Callable<GuardrailResult> call) {}
+
+    /**
+     * Results in priority order, and the result that blocked (if any).
+     */
+    private record Evaluation(List<GuardrailResult> results, GuardrailResult blocking) {}
+
+    private Evaluation evaluate(String phase, List<Check> checks) {
+        if (executor == null) {
+            // Sequential mode keeps the original semantics: only input stops on a block
+            return evaluateSequentially(phase, checks, GuardrailListener.PHASE_INPUT.equals(phase));
+        }
+
+        List<Check> cheap = new ArrayList<>();
+        List<Check> expensive = new ArrayList<>();
+        for (Check check : checks) {
+            (check.expensive() ? expensive : cheap).add(check);
+        }
+
+        Evaluation first = evaluateSequentially(phase, cheap, true);
+        if (first.blocking() != null || expensive.isEmpty()) {
+            return first;
+        }
+        Evaluation second = evaluateConcurrently(phase, expensive);
+
+        // Keep the aggregate in priority order, as the sequential path does
+        Map<String, Integer> order = new HashMap<>();
+        for (int i = 0; i < checks.size(); i++) {
+            order.putIfAbsent(checks.get(i).name(), i);
+        }
+        List<GuardrailResult> results = new ArrayList<>(first.results());
+        results.addAll(second.results());
+        results.sort(Comparator.comparingInt(r -> order.getOrDefault(r.getGuardrailName(), Integer.MAX_VALUE)));
+        return new Evaluation(results, second.blocking());
+    }
+
+    private Evaluation evaluateSequentially(String phase, List<Check> checks, boolean stopOnBlock) {
         List<GuardrailResult> results = new ArrayList<>();
 
-        for (OutputGuardrail guardrail : outputGuardrails) {
+        for (Check check : checks) {
+            long start = System.nanoTime();
             try {
-                GuardrailResult result = guardrail.validate(output, originalQuery, retrievedContext, context);
+                GuardrailResult result = check.call().call();
+                listener.onCheck(phase, check.name(), outcome(result), System.nanoTime() - start);
                 results.add(result);
 
-                if (!result.isPassed()) {
-                    log.warn("Output failed guardrail '{}': {}",
-                            guardrail.getName(), result.getFailureReason());
+                logFailure(phase, check.name(), result);
+                if (stopOnBlock && blocks(result)) {
+                    return new Evaluation(results, result);
                 }
+            } catch (GuardrailException e) {
+                listener.onCheck(phase, check.name(), "blocked", System.nanoTime() - start);
+                throw e; // Re-throw GuardrailException
             } catch (Exception e) {
-                log.error("Error in guardrail '{}': {}", guardrail.getName(), e.getMessage(), e);
+                listener.onCheck(phase, check.name(), "error", System.nanoTime() - start);
+                log.error("Error in guardrail '{}': {}", check.name(), e.getMessage(), e);
+                // Continue with other guardrails on error
             }
         }
 
-        return aggregateResults("output-validation", results);
+        return new Evaluation(results, null);
+    }
+
+    private Evaluation evaluateConcurrently(String phase, List<Check> checks) {
+        CompletionService<CheckOutcome> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<CheckOutcome>, Check> pending = new HashMap<>();
+        Map<Future<CheckOutcome>, Long> deadlines = new HashMap<>();
+        long submitted = System.nanoTime();
+
+        for (Check check : checks) {
+            Future<CheckOutcome> future = completion.submit(() -> run(check));
+            pending.put(future, check);
+            long timeoutMs = properties.getConcurrency().timeoutFor(check.name());
+            deadlines.put(future, timeoutMs > 0 ? submitted + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : Long.MAX_VALUE);
+        }
+
+        List<GuardrailResult> results = new ArrayList<>();
+        GuardrailResult blocking = null;
+        try {
+            while (!pending.isEmpty()) {
+                long now = System.nanoTime();
+                long nextDeadline = deadlines.values().stream().mapToLong(Long::longValue).min().orElse(Long.MAX_VALUE);
+                Future<CheckOutcome> done = nextDeadline == Long.MAX_VALUE
+                        ? completion.take()
+                        : completion.poll(Math.max(0, nextDeadline - now), TimeUnit.NANOSECONDS);
+
+                if (done == null) {
+                    expire(phase, pending, deadlines, submitted);
+                    continue;
+                }
+                Check check = pending.remove(done);
+                deadlines.remove(done);
+                if (check == null || done.isCancelled()) {
+                    continue;
+                }
+
+                CheckOutcome outcome = done.get();
+                if (outcome.error() instanceof GuardrailException e) {
+                    listener.onCheck(phase, check.name(), "blocked", outcome.durationNanos());
+                    throw e; // Re-throw GuardrailException
+                }
+                if (outcome.error() != null) {
+                    listener.onCheck(phase, check.name(), "error", outcome.durationNanos());
+                    log.error("Error in guardrail '{}': {}", check.name(),
+                            outcome.error().getMessage(), outcome.error());
+                    continue;
+                }
+
+                GuardrailResult result = outcome.result();
+                listener.onCheck(phase, check.name(), outcome(result), outcome.durationNanos());
+                results.add(result);
+                logFailure(phase, check.name(), result);
+                if (blocks(result)) {
+                    blocking = result;
+                    break;
+                }
+            }
+        } catch (GuardrailException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for {} guardrails", phase);
+        } catch (Exception e) {
+            // run() catches guardrail failures, so this is unexpected
+            log.error("Concurrent {} guardrail evaluation failed: {}", phase, e.getMessage(), e);
+        } finally {
+            for (Map.Entry<Future<CheckOutcome>, Check> entry : pending.entrySet()) {
+                entry.getKey().cancel(true);
+                listener.onCheck(phase, entry.getValue().name(), "cancelled", System.nanoTime() - submitted);
+            }
+        }
+
+        return new Evaluation(results, blocking);
+    }
+
+    private void expire(String phase, Map<Future<CheckOutcome>, Check> pending,
+                        Map<Future<CheckOutcome>, Long> deadlines, long submitted) {
+        long now = System.nanoTime();
+        deadlines.entrySet().removeIf(entry -> {
+            if (entry.getValue() > now) {
+                return false;
+            }
+            Check check = pending.remove(entry.getKey());
+            entry.getKey().cancel(true);
+            if (check != null) {
+                listener.onCheck(phase, check.name(), "timeout", now - submitted);
+                log.warn("Guardrail '{}' exceeded its {} ms budget, skipping", check.name(),
+                        properties.getConcurrency().timeoutFor(check.name()));
+            }
+            return true;
+        });
+    }
+
+    private record CheckOutcome(GuardrailResult result, Exception error, long durationNanos) {}
+
+    private static CheckOutcome run(Check check) {
+        long start = System.nanoTime();
+        try {
+            return new CheckOutcome(check.call().call(), null, System.nanoTime() - start);
+        } catch (Exception e) {
+            return new CheckOutcome(null, e, System.nanoTime() - start);
+        }
+    }
+
+    private static boolean blocks(GuardrailResult result) {
+        return !result.isPassed() && result.getAction() == GuardrailAction.BLOCK;
+    }
+
+    private static String outcome(GuardrailResult result) {
+        if (result.getAction() == GuardrailAction.BLOCK && !result.isPassed()) {
+            return "blocked";
+        }
+        if (result.getAction() == GuardrailAction.RETRY && !result.isPassed()) {
+            return "retry";
+        }
+        if (!result.isPassed() || result.getAction() == GuardrailAction.WARN) {
+            return "warned";
+        }
+        return "passed";
+    }
+
+    private static String validationOutcome(GuardrailResult result) {
+        String outcome = outcome(result);
+        return "retry".equals(outcome) ? "warned" : outcome;
+    }
+
+    private static void logFailure(String phase, String guardrailName, GuardrailResult result) {
+        if (GuardrailListener.PHASE_INPUT.equals(phase)) {
+            if (blocks(result)) {
+                log.warn("Input blocked by guardrail '{}': {}", guardrailName, result.getFailureReason());
+            }
+        } else if (!result.isPassed()) {
+            log.warn("Output failed guardrail '{}': {}", guardrailName, result.getFailureReason());
+        }
     }
 
     private GuardrailResult aggregateResults(String name, List<GuardrailResult> results) {
@@ -177,4 +412,11 @@ public class DefaultGuardrailService implements GuardrailService {
     public boolean isEnabled() {
         return properties.isEnabled();
     }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
 package ai.kompile.guardrails;
 
+import ai.kompile.core.guardrails.GuardrailListener;
 import ai.kompile.core.guardrails.GuardrailService;
 import ai.kompile.core.guardrails.InputGuardrail;
 import ai.kompile.core.guardrails.OutputGuardrail;
@@ -45,11 +46,13 @@ public class GuardrailsConfiguration {
     public GuardrailService guardrailService(
             @Autowired(required = false) List<InputGuardrail> inputGuardrails,
             @Autowired(required = false) List<OutputGuardrail> outputGuardrails,
+            @Autowired(required = false) List<GuardrailListener> listeners,
             GuardrailsProperties properties) {
         return new DefaultGuardrailService(
                 inputGuardrails != null ? inputGuardrails : List.of(),
                 outputGuardrails != null ? outputGuardrails : List.of(),
-                properties);
+                properties,
+                GuardrailListener.composite(listeners != null ? listeners : List.of()));
     }
 
     // Input Guardrails
@@ -112,4 +115,10 @@ public class GuardrailsConfiguration {
             GuardrailsProperties properties) {
         return new RelevancyGuardrail(chatClientBuilder.build(), properties);
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "kompile.guardrails.output.pii.enabled", havingValue = "true")
+    public OutputGuardrail piiOutputGuardrail(GuardrailsProperties properties) {
+        return new PiiOutputGuardrail(properties);
+    }
 }
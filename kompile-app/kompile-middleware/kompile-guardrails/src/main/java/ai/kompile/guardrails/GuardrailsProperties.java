@@ -19,7 +19,9 @@ package ai.kompile.guardrails;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -49,6 +51,40 @@ public class GuardrailsProperties {
      */
     private OutputConfig output = new OutputConfig();
 
+    /**
+     * Concurrent evaluation configuration.
+     */
+    private ConcurrencyConfig concurrency = new ConcurrencyConfig();
+
+    @Data
+    public static class ConcurrencyConfig {
+        /**
+         * Run pattern-based guardrails first on the calling thread, then LLM-backed
+         * guardrails in parallel, cancelling the rest as soon as one blocks.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Threads available for LLM-backed guardrails across all requests.
+         */
+        private int maxThreads = 8;
+
+        /**
+         * Default time budget per LLM-backed guardrail in milliseconds (0 = unlimited).
+         * A guardrail that runs out of time is skipped, like one that throws.
+         */
+        private long timeoutMs = 10_000;
+
+        /**
+         * Per-guardrail time budget overrides in milliseconds, keyed by guardrail name.
+         */
+        private Map<String, Long> timeouts = new HashMap<>();
+
+        public long timeoutFor(String guardrailName) {
+            return timeouts.getOrDefault(guardrailName, timeoutMs);
+        }
+    }
+
     @Data
     public static class InputConfig {
         /**
@@ -88,6 +124,11 @@ public class GuardrailsProperties {
          * Relevancy check configuration.
          */
         private RelevancyConfig relevancy = new RelevancyConfig();
+
+        /**
+         * PII leakage check configuration. Redacts detected PII unless set to block.
+         */
+        private PiiConfig pii = redactingPiiConfig();
     }
 
     @Data
@@ -103,6 +144,12 @@ public class GuardrailsProperties {
         private Set<String> categories = new HashSet<>();
     }
 
+    private static PiiConfig redactingPiiConfig() {
+        PiiConfig config = new PiiConfig();
+        config.setBlockOnDetection(false);
+        return config;
+    }
+
     @Data
     public static class PiiConfig {
         private boolean enabled = false;
@@ -0,0 +1,63 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.guardrails.input;
+
+import ai.kompile.guardrails.scan.MultiPatternScanner;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The pattern rules of all input guardrails, compiled into one {@link MultiPatternScanner}.
+ * <p>
+ * The guardrail service hands the same input string to every input guardrail, so the last
+ * scan is kept and reused while the next guardrail asks about the same string. A large
+ * pasted document is therefore walked once per request instead of once per pattern.
+ */
+final class InputPatternScanner {
+
+    private static final MultiPatternScanner SCANNER = build();
+
+    private static final AtomicReference<Scan> LAST = new AtomicReference<>();
+
+    private record Scan(String input, MultiPatternScanner.Result result) {}
+
+    private InputPatternScanner() {
+    }
+
+    private static MultiPatternScanner build() {
+        MultiPatternScanner.Builder builder = MultiPatternScanner.builder();
+        PromptInjectionGuardrail.addRules(builder);
+        PiiDetectionGuardrail.addRules(builder);
+        return builder.build();
+    }
+
+    /**
+     * Scan the input, or return the previous result if it was for this same string.
+     *
+     * @param input The input text
+     * @return Matches of all input guardrail rules
+     */
+    static MultiPatternScanner.Result scan(String input) {
+        Scan last = LAST.get();
+        if (last != null && last.input() == input) {
+            return last.result();
+        }
+        MultiPatternScanner.Result result = SCANNER.scan(input);
+        LAST.set(new Scan(input, result));
+        return result;
+    }
+}
@@ -18,57 +18,68 @@ package ai.kompile.guardrails.input;
 
 import ai.kompile.core.guardrails.*;
 import ai.kompile.guardrails.GuardrailsProperties;
+import ai.kompile.guardrails.scan.MultiPatternScanner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Detects personally identifiable information (PII) in user input.
  * <p>
- * Uses pattern matching to detect common PII types without requiring an LLM.
+ * Uses pattern matching to detect common PII types without requiring an LLM. The patterns
+ * are matched through the shared {@link InputPatternScanner}, which only runs them on the
+ * character runs that can hold a match.
  */
 @Slf4j
 @RequiredArgsConstructor
 public class PiiDetectionGuardrail implements InputGuardrail {
 
+    public static final String NAME = "pii-detection";
+
     // PII patterns
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+    static final Pattern EMAIL_PATTERN = Pattern.compile(
             "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}");
 
-    private static final Pattern PHONE_PATTERN = Pattern.compile(
+    static final Pattern PHONE_PATTERN = Pattern.compile(
             "(?:\\+?1[-.]?)?\\(?[0-9]{3}\\)?[-.]?[0-9]{3}[-.]?[0-9]{4}");
 
-    private static final Pattern SSN_PATTERN = Pattern.compile(
+    static final Pattern SSN_PATTERN = Pattern.compile(
             "\\b\\d{3}[-]?\\d{2}[-]?\\d{4}\\b");
 
-    private static final Pattern CREDIT_CARD_PATTERN = Pattern.compile(
+    static final Pattern CREDIT_CARD_PATTERN = Pattern.compile(
             "\\b(?:4[0-9]{12}(?:[0-9]{3})?|5[1-5][0-9]{14}|3[47][0-9]{13}|6(?:011|5[0-9]{2})[0-9]{12})\\b");
 
+    // Characters each pattern family can match, and a character every match contains
+    private static final String DIGITS = "0123456789";
+    private static final String EMAIL_CHARS =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ" + DIGITS + "._%+-@";
+    private static final String NUMBER_CHARS = DIGITS + "+-.()";
+
     private final GuardrailsProperties properties;
 
     @Override
     public GuardrailResult validate(String input, GuardrailContext context) {
         GuardrailsProperties.PiiConfig config = properties.getInput().getPii();
         List<GuardrailResult.Violation> violations = new ArrayList<>();
+        MultiPatternScanner.Result scan = InputPatternScanner.scan(input);
 
         if (config.isDetectEmail()) {
-            detectPii(input, EMAIL_PATTERN, "email", violations);
+            detectPii(input, scan, "email", violations);
         }
 
         if (config.isDetectPhone()) {
-            detectPii(input, PHONE_PATTERN, "phone", violations);
+            detectPii(input, scan, "phone", violations);
         }
 
         if (config.isDetectSsn()) {
-            detectPii(input, SSN_PATTERN, "ssn", violations);
+            detectPii(input, scan, "ssn", violations);
         }
 
         if (config.isDetectCreditCard()) {
-            detectPii(input, CREDIT_CARD_PATTERN, "credit_card", violations);
+            detectPii(input, scan, "credit_card", violations);
         }
 
         if (!violations.isEmpty()) {
@@ -92,25 +103,44 @@ public class PiiDetectionGuardrail implements InputGuardrail {
         return GuardrailResult.pass(getName());
     }
 
-    private void detectPii(String input, Pattern pattern, String type,
+    /**
+     * Register the PII patterns as windowed scanner rules under {@value #NAME}, one rule per
+     * PII type ({@code email}, {@code phone}, {@code ssn}, {@code credit_card}).
+     *
+     * @param scanner The scanner builder
+     */
+    public static void addRules(MultiPatternScanner.Builder scanner) {
+        scanner.windowed(NAME, "email", EMAIL_PATTERN, EMAIL_CHARS, "@")
+                .windowed(NAME, "phone", PHONE_PATTERN, NUMBER_CHARS, DIGITS)
+                .windowed(NAME, "ssn", SSN_PATTERN, NUMBER_CHARS, DIGITS)
+                .windowed(NAME, "credit_card", CREDIT_CARD_PATTERN, NUMBER_CHARS, DIGITS);
+    }
+
+    private void detectPii(String input, MultiPatternScanner.Result scan, String type,
                            List<GuardrailResult.Violation> violations) {
-        Matcher matcher = pattern.matcher(input);
-        while (matcher.find()) {
-            String matched = matcher.group();
+        for (MultiPatternScanner.Match match : scan.matches(NAME, type)) {
+            String matched = match.text(input);
             // Mask the PII for logging
-            String masked = maskPii(matched, type);
+            String masked = mask(matched, type);
 
             violations.add(GuardrailResult.Violation.builder()
                     .type(type)
                     .description("Detected " + type.replace("_", " "))
                     .content(masked)
-                    .position(matcher.start())
+                    .position(match.start())
                     .severity(GuardrailResult.ViolationSeverity.HIGH)
                     .build());
         }
     }
 
-    private String maskPii(String value, String type) {
+    /**
+     * Mask a detected PII value, keeping only enough of it to recognize in logs.
+     *
+     * @param value The matched text
+     * @param type The PII type
+     * @return The masked value
+     */
+    public static String mask(String value, String type) {
         if (value.length() <= 4) {
             return "****";
         }
@@ -131,7 +161,7 @@ public class PiiDetectionGuardrail implements InputGuardrail {
 
     @Override
     public String getName() {
-        return "pii-detection";
+        return NAME;
     }
 
     @Override
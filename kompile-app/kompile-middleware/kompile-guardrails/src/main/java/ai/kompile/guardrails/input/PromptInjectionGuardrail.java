@@ -18,6 +18,7 @@ package ai.kompile.guardrails.input;
 
 import ai.kompile.core.guardrails.*;
 import ai.kompile.guardrails.GuardrailsProperties;
+import ai.kompile.guardrails.scan.MultiPatternScanner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
@@ -51,8 +52,10 @@ public class PromptInjectionGuardrail implements InputGuardrail {
             {"isInjection": true/false, "confidence": 0.0-1.0, "reason": "explanation"}
             """;
 
+    static final String NAME = "prompt-injection";
+
     // Common prompt injection patterns
-    private static final List<Pattern> INJECTION_PATTERNS = List.of(
+    static final List<Pattern> INJECTION_PATTERNS = List.of(
             Pattern.compile("ignore\\s+(previous|all|above)\\s+instructions?", Pattern.CASE_INSENSITIVE),
             Pattern.compile("disregard\\s+(your|the)?\\s*(previous|system)?\\s*instructions?", Pattern.CASE_INSENSITIVE),
             Pattern.compile("forget\\s+(everything|all|your)\\s*(instructions?)?", Pattern.CASE_INSENSITIVE),
@@ -65,6 +68,20 @@ public class PromptInjectionGuardrail implements InputGuardrail {
             Pattern.compile("jailbreak|DAN|do\\s+anything\\s+now", Pattern.CASE_INSENSITIVE)
     );
 
+    // Literal prefixes every match of the pattern at the same index starts with
+    private static final List<String[]> INJECTION_ANCHORS = List.of(
+            new String[]{"ignore"},
+            new String[]{"disregard"},
+            new String[]{"forget"},
+            new String[]{"you"},
+            new String[]{"pretend"},
+            new String[]{"act"},
+            new String[]{"reveal"},
+            new String[]{"what"},
+            new String[]{"[system]", "<system>", "###"},
+            new String[]{"jailbreak", "dan", "do"}
+    );
+
     private final ChatClient chatClient;
     private final GuardrailsProperties properties;
 
@@ -72,9 +89,10 @@ public class PromptInjectionGuardrail implements InputGuardrail {
     public GuardrailResult validate(String input, GuardrailContext context) {
         List<GuardrailResult.Violation> violations = new ArrayList<>();
 
-        // First, check pattern-based rules (fast)
+        // First, check pattern-based rules (fast, one shared pass over the input)
+        MultiPatternScanner.Result scan = InputPatternScanner.scan(input);
         for (Pattern pattern : INJECTION_PATTERNS) {
-            if (pattern.matcher(input).find()) {
+            if (!scan.matches(NAME, pattern.pattern()).isEmpty()) {
                 violations.add(GuardrailResult.Violation.builder()
                         .type("pattern_match")
                         .description("Input matches known prompt injection pattern")
@@ -124,6 +142,13 @@ public class PromptInjectionGuardrail implements InputGuardrail {
         return GuardrailResult.pass(getName());
     }
 
+    static void addRules(MultiPatternScanner.Builder scanner) {
+        for (int i = 0; i < INJECTION_PATTERNS.size(); i++) {
+            Pattern pattern = INJECTION_PATTERNS.get(i);
+            scanner.anchored(NAME, pattern.pattern(), pattern, INJECTION_ANCHORS.get(i));
+        }
+    }
+
     private double extractConfidence(String response) {
         try {
             int start = response.indexOf("\"confidence\":") + 13;
@@ -137,7 +162,7 @@ public class PromptInjectionGuardrail implements InputGuardrail {
 
     @Override
     public String getName() {
-        return "prompt-injection";
+        return NAME;
     }
 
     @Override
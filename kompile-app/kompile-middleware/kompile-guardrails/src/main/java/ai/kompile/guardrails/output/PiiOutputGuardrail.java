@@ -0,0 +1,218 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.guardrails.output;
+
+import ai.kompile.core.guardrails.*;
+import ai.kompile.guardrails.GuardrailsProperties;
+import ai.kompile.guardrails.input.PiiDetectionGuardrail;
+import ai.kompile.guardrails.scan.MultiPatternScanner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects personally identifiable information (PII) in generated responses and either
+ * blocks the response or redacts the PII.
+ * <p>
+ * Supports streaming: text is released as soon as no PII match can still be forming in
+ * it, i.e. up to the last character that cannot be part of one. A blocking match stops
+ * the stream before the PII is released.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PiiOutputGuardrail implements StreamingOutputGuardrail {
+
+    private static final MultiPatternScanner SCANNER = buildScanner();
+
+    private static final List<String> TYPES = List.of("email", "phone", "ssn", "credit_card");
+
+    /**
+     * Longest run of held-back text. A longer unbroken run (e.g. an encoded blob) is
+     * checked and released as is, so a match straddling the cut can be missed.
+     */
+    static final int MAX_HOLDBACK = 1024;
+
+    private final GuardrailsProperties properties;
+
+    private static MultiPatternScanner buildScanner() {
+        MultiPatternScanner.Builder builder = MultiPatternScanner.builder();
+        PiiDetectionGuardrail.addRules(builder);
+        return builder.build();
+    }
+
+    @Override
+    public GuardrailResult validate(String output, String originalQuery,
+                                    List<String> retrievedContext, GuardrailContext context) {
+        Stream stream = new Stream();
+        StreamDecision decision = stream.accept(output);
+        if (decision.isStopped()) {
+            return decision.result();
+        }
+        StreamDecision last = stream.finish();
+        GuardrailResult result = last.result();
+        if (result.getAction() == GuardrailAction.MODIFY) {
+            result.setMetadata(Map.of(GuardrailResult.METADATA_MODIFIED_CONTENT, decision.text() + last.text()));
+        }
+        return result;
+    }
+
+    @Override
+    public OutputGuardrailStream openStream(String originalQuery, List<String> retrievedContext,
+                                            GuardrailContext context) {
+        return new Stream();
+    }
+
+    private final class Stream implements OutputGuardrailStream {
+
+        private final GuardrailsProperties.PiiConfig config = properties.getOutput().getPii();
+        private final StringBuilder pending = new StringBuilder();
+        private final List<GuardrailResult.Violation> violations = new ArrayList<>();
+        // Last released character, so word boundaries at the start of a region still see it
+        private char previous = ' ';
+        private int released;
+
+        @Override
+        public StreamDecision accept(String delta) {
+            pending.append(delta);
+            int cut = pending.length();
+            while (cut > 0 && SCANNER.isWindowChar(pending.charAt(cut - 1))) {
+                cut--;
+            }
+            if (pending.length() - cut > MAX_HOLDBACK) {
+                cut = pending.length();
+            }
+            return cut == 0 ? StreamDecision.release("") : check(cut);
+        }
+
+        @Override
+        public StreamDecision finish() {
+            StreamDecision decision = check(pending.length());
+            if (decision.isStopped() || violations.isEmpty()) {
+                return StreamDecision.complete(decision.text(),
+                        decision.isStopped() ? decision.result() : GuardrailResult.pass(getName()));
+            }
+            return StreamDecision.complete(decision.text(), GuardrailResult.builder()
+                    .guardrailName(getName())
+                    .passed(false)
+                    .action(GuardrailAction.MODIFY)
+                    .category(GuardrailCategory.PII)
+                    .failureReason("Personally identifiable information redacted from response")
+                    .violations(List.copyOf(violations))
+                    .confidence(1.0)
+                    .build());
+        }
+
+        private StreamDecision check(int cut) {
+            if (cut == 0) {
+                return StreamDecision.release("");
+            }
+            String region = pending.substring(0, cut);
+            pending.delete(0, cut);
+            String text = previous + region;
+            MultiPatternScanner.Result scan = SCANNER.scan(text);
+
+            List<MultiPatternScanner.Match> matches = new ArrayList<>();
+            for (String type : TYPES) {
+                if (isEnabled(type)) {
+                    matches.addAll(scan.matches(PiiDetectionGuardrail.NAME, type));
+                }
+            }
+            for (MultiPatternScanner.Match match : matches) {
+                violations.add(GuardrailResult.Violation.builder()
+                        .type(match.rule())
+                        .description("Detected " + match.rule().replace("_", " "))
+                        .content(PiiDetectionGuardrail.mask(match.text(text), match.rule()))
+                        .position(released + match.start() - 1)
+                        .severity(GuardrailResult.ViolationSeverity.HIGH)
+                        .build());
+            }
+
+            if (!matches.isEmpty() && config.isBlockOnDetection()) {
+                log.warn("PII detected in response: {} items, stopping", violations.size());
+                return StreamDecision.stop(GuardrailResult.builder()
+                        .guardrailName(getName())
+                        .passed(false)
+                        .action(GuardrailAction.BLOCK)
+                        .category(GuardrailCategory.PII)
+                        .failureReason("Personally identifiable information detected in response")
+                        .violations(List.copyOf(violations))
+                        .confidence(1.0)
+                        .build());
+            }
+
+            previous = region.charAt(region.length() - 1);
+            released += region.length();
+            return StreamDecision.release(matches.isEmpty() ? region : redact(text, matches));
+        }
+
+        private boolean isEnabled(String type) {
+            return switch (type) {
+                case "email" -> config.isDetectEmail();
+                case "phone" -> config.isDetectPhone();
+                case "ssn" -> config.isDetectSsn();
+                case "credit_card" -> config.isDetectCreditCard();
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * Replace each match with its masked form. {@code text} starts with one context
+     * character that is not part of the output.
+     */
+    private static String redact(String text, List<MultiPatternScanner.Match> matches) {
+        List<MultiPatternScanner.Match> ordered = new ArrayList<>(matches);
+        ordered.sort(Comparator.comparingInt(MultiPatternScanner.Match::start)
+                .thenComparing(Comparator.comparingInt(MultiPatternScanner.Match::end).reversed()));
+        StringBuilder sb = new StringBuilder(text.length());
+        int position = 1;
+        for (MultiPatternScanner.Match match : ordered) {
+            if (match.start() < position) {
+                continue; // Overlaps a match already redacted
+            }
+            sb.append(text, position, match.start());
+            sb.append(PiiDetectionGuardrail.mask(match.text(text), match.rule()));
+            position = match.end();
+        }
+        sb.append(text, position, text.length());
+        return sb.toString();
+    }
+
+    @Override
+    public String getName() {
+        return "pii-output";
+    }
+
+    @Override
+    public GuardrailCategory[] getCategories() {
+        return new GuardrailCategory[]{GuardrailCategory.PII, GuardrailCategory.SENSITIVE_DATA};
+    }
+
+    @Override
+    public int getPriority() {
+        return 20;
+    }
+
+    @Override
+    public boolean requiresLlm() {
+        return false; // Pattern-based only
+    }
+}
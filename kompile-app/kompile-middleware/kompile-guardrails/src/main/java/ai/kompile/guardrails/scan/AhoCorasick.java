@@ -0,0 +1,147 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.guardrails.scan;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Aho-Corasick automaton over ASCII keywords, matched case-insensitively.
+ * <p>
+ * Failure links are folded into a dense transition table, so stepping the automaton is
+ * one array lookup per input character regardless of how many keywords there are.
+ * Characters outside ASCII never occur in a keyword and map to a shared "other" symbol.
+ */
+final class AhoCorasick {
+
+    private static final int OTHER = 0;
+
+    private final int[] alphabet = new int[128];
+    private final int alphabetSize;
+    private final int[] delta;
+    private final int[][] outputs;
+    private final int[] lengths;
+
+    AhoCorasick(List<String> keywords) {
+        lengths = new int[keywords.size()];
+        List<String> lowered = new ArrayList<>(keywords.size());
+        int symbols = 1;
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k).toLowerCase(Locale.ROOT);
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword");
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c >= 128) {
+                    throw new IllegalArgumentException("Keyword is not ASCII: " + keywords.get(k));
+                }
+                if (alphabet[c] == OTHER) {
+                    alphabet[c] = symbols++;
+                }
+            }
+            lowered.add(keyword);
+            lengths[k] = keyword.length();
+        }
+        // Upper-case letters step like their lower-case forms
+        for (char c = 'A'; c <= 'Z'; c++) {
+            alphabet[c] = alphabet[Character.toLowerCase(c)];
+        }
+        alphabetSize = symbols;
+
+        // Trie
+        List<int[]> gotos = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        gotos.add(newRow());
+        out.add(new ArrayList<>());
+        for (int k = 0; k < lowered.size(); k++) {
+            String keyword = lowered.get(k);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int a = alphabet[keyword.charAt(i)];
+                if (gotos.get(state)[a] < 0) {
+                    gotos.get(state)[a] = gotos.size();
+                    gotos.add(newRow());
+                    out.add(new ArrayList<>());
+                }
+                state = gotos.get(state)[a];
+            }
+            out.get(state).add(k);
+        }
+
+        // Breadth-first failure links, folded into the transition table
+        int states = gotos.size();
+        delta = new int[states * alphabetSize];
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int a = 0; a < alphabetSize; a++) {
+            int next = gotos.get(0)[a];
+            delta[a] = next < 0 ? 0 : next;
+            if (next > 0) {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            out.get(state).addAll(out.get(fail[state]));
+            for (int a = 0; a < alphabetSize; a++) {
+                int next = gotos.get(state)[a];
+                if (next < 0) {
+                    delta[state * alphabetSize + a] = delta[fail[state] * alphabetSize + a];
+                } else {
+                    fail[next] = delta[fail[state] * alphabetSize + a];
+                    delta[state * alphabetSize + a] = next;
+                    queue.add(next);
+                }
+            }
+        }
+
+        outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = out.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /** Start state. */
+    int initial() {
+        return 0;
+    }
+
+    /** Advance by one input character. */
+    int step(int state, char c) {
+        return delta[state * alphabetSize + (c < 128 ? alphabet[c] : OTHER)];
+    }
+
+    /** Indexes of the keywords that end at the character that led to {@code state}. */
+    int[] outputs(int state) {
+        return outputs[state];
+    }
+
+    /** Length of keyword {@code k}. */
+    int length(int k) {
+        return lengths[k];
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.guardrails.scan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled set of guardrail patterns that is matched against a text in one pass.
+ * <p>
+ * The JDK has no regex-to-DFA compiler, so each regex declares how its candidates can be
+ * found cheaply, and the regex itself only runs on those candidates:
+ * <ul>
+ *   <li><b>Anchored</b> rules list the literal keywords every match starts with. All
+ *       anchors of all rules go into one {@link AhoCorasick} automaton, and the regex is
+ *       tried with {@link Matcher#lookingAt()} at each anchor hit.</li>
+ *   <li><b>Windowed</b> rules give the characters a match can consist of and a trigger
+ *       character every match contains (e.g. {@code @} for email addresses). The pass
+ *       records maximal runs of those characters that contain a trigger, and the regex is
+ *       searched only inside those windows.</li>
+ * </ul>
+ * Both are exact: a rule reports the same matches as {@link Matcher#find()} over the whole
+ * text, provided its anchors or character set really cover every match. Anchors are
+ * matched ASCII case-insensitively, like {@link Pattern#CASE_INSENSITIVE}.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class MultiPatternScanner {
+
+    /**
+     * One match, attributed to the guardrail and rule that produced it.
+     */
+    public record Match(String guardrail, String rule, int start, int end) {
+
+        /**
+         * The matched text.
+         *
+         * @param text The scanned text
+         * @return The substring this match covers
+         */
+        public String text(String text) {
+            return text.substring(start, end);
+        }
+    }
+
+    private record Rule(String guardrail, String name, Pattern pattern) {}
+
+    /** Rules sharing the same window character set and trigger. */
+    private record Family(boolean[] run, boolean[] trigger, int[] rules) {}
+
+    private final List<Rule> rules;
+    private final AhoCorasick anchors;
+    private final int[] anchorRule;
+    private final Family[] families;
+
+    private MultiPatternScanner(List<Rule> rules, List<String> anchorKeywords, int[] anchorRule,
+                                List<Family> families) {
+        this.rules = rules;
+        this.anchors = anchorKeywords.isEmpty() ? null : new AhoCorasick(anchorKeywords);
+        this.anchorRule = anchorRule;
+        this.families = families.toArray(new Family[0]);
+    }
+
+    /**
+     * Check whether a character can be part of a match of a windowed rule. A streaming
+     * caller can release text up to the last character for which this is false, because
+     * no windowed match can span it.
+     *
+     * @param c The character
+     * @return true if some windowed rule may match across it
+     */
+    public boolean isWindowChar(char c) {
+        if (c >= 128) {
+            return false;
+        }
+        for (Family family : families) {
+            if (family.run()[c]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Scan the text once and verify every candidate.
+     *
+     * @param text The text to scan
+     * @return All matches, grouped per rule
+     */
+    public Result scan(String text) {
+        int n = text.length();
+        IntList[] candidates = new IntList[rules.size()];
+        IntList[] windows = new IntList[families.length];
+        int[] runStart = new int[families.length];
+        boolean[] triggered = new boolean[families.length];
+        Arrays.fill(runStart, -1);
+
+        int state = anchors != null ? anchors.initial() : 0;
+        for (int i = 0; i <= n; i++) {
+            char c = i < n ? text.charAt(i) : 0;
+
+            if (anchors != null && i < n) {
+                state = anchors.step(state, c);
+                for (int k : anchors.outputs(state)) {
+                    int rule = anchorRule[k];
+                    if (candidates[rule] == null) {
+                        candidates[rule] = new IntList();
+                    }
+                    candidates[rule].add(i - anchors.length(k) + 1);
+                }
+            }
+
+            for (int f = 0; f < families.length; f++) {
+                Family family = families[f];
+                if (i < n && c < 128 && family.run()[c]) {
+                    if (runStart[f] < 0) {
+                        runStart[f] = i;
+                    }
+                    triggered[f] |= family.trigger()[c];
+                } else if (runStart[f] >= 0) {
+                    if (triggered[f]) {
+                        if (windows[f] == null) {
+                            windows[f] = new IntList();
+                        }
+                        windows[f].add(runStart[f]);
+                        windows[f].add(i);
+                    }
+                    runStart[f] = -1;
+                    triggered[f] = false;
+                }
+            }
+        }
+
+        List<List<Match>> matches = new ArrayList<>(rules.size());
+        for (int r = 0; r < rules.size(); r++) {
+            matches.add(candidates[r] != null ? verifyAnchored(r, text, candidates[r]) : new ArrayList<>());
+        }
+        for (int f = 0; f < families.length; f++) {
+            if (windows[f] != null) {
+                for (int r : families[f].rules()) {
+                    verifyWindowed(r, text, windows[f], matches.get(r));
+                }
+            }
+        }
+        return new Result(rules, matches);
+    }
+
+    private List<Match> verifyAnchored(int r, String text, IntList starts) {
+        Rule rule = rules.get(r);
+        int[] sorted = starts.sortedCopy();
+        Matcher matcher = rule.pattern().matcher(text)
+                .useTransparentBounds(true)
+                .useAnchoringBounds(false);
+        List<Match> found = new ArrayList<>();
+        int end = 0;
+        int previous = -1;
+        for (int start : sorted) {
+            // Like find(): no overlaps, and each start is tried once
+            if (start < end || start == previous) {
+                continue;
+            }
+            previous = start;
+            matcher.region(start, text.length());
+            if (matcher.lookingAt()) {
+                found.add(new Match(rule.guardrail(), rule.name(), matcher.start(), matcher.end()));
+                end = Math.max(matcher.end(), start + 1);
+            }
+        }
+        return found;
+    }
+
+    private void verifyWindowed(int r, String text, IntList windows, List<Match> found) {
+        Rule rule = rules.get(r);
+        Matcher matcher = rule.pattern().matcher(text)
+                .useTransparentBounds(true)
+                .useAnchoringBounds(false);
+        for (int w = 0; w < windows.size(); w += 2) {
+            matcher.region(windows.get(w), windows.get(w + 1));
+            while (matcher.find()) {
+                found.add(new Match(rule.guardrail(), rule.name(), matcher.start(), matcher.end()));
+            }
+        }
+    }
+
+    /**
+     * Matches from one scan.
+     */
+    public static final class Result {
+
+        private final List<Rule> rules;
+        private final List<List<Match>> matches;
+
+        private Result(List<Rule> rules, List<List<Match>> matches) {
+            this.rules = rules;
+            this.matches = matches;
+        }
+
+        /**
+         * Matches of one rule, in text order.
+         *
+         * @param guardrail The guardrail the rule belongs to
+         * @param rule The rule name
+         * @return The matches, empty if none
+         */
+        public List<Match> matches(String guardrail, String rule) {
+            for (int r = 0; r < rules.size(); r++) {
+                if (rules.get(r).guardrail().equals(guardrail) && rules.get(r).name().equals(rule)) {
+                    return Collections.unmodifiableList(matches.get(r));
+                }
+            }
+            return List.of();
+        }
+
+        /**
+         * Matches of all rules of one guardrail, in rule registration order.
+         *
+         * @param guardrail The guardrail id
+         * @return The matches, empty if none
+         */
+        public List<Match> matches(String guardrail) {
+            List<Match> result = new ArrayList<>();
+            for (int r = 0; r < rules.size(); r++) {
+                if (rules.get(r).guardrail().equals(guardrail)) {
+                    result.addAll(matches.get(r));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Every match, in rule registration order.
+         *
+         * @return All matches
+         */
+        public List<Match> all() {
+            List<Match> result = new ArrayList<>();
+            matches.forEach(result::addAll);
+            return result;
+        }
+    }
+
+    /**
+     * Collects rules and compiles them into a scanner.
+     */
+    public static final class Builder {
+
+        private final List<Rule> rules = new ArrayList<>();
+        private final List<String> anchorKeywords = new ArrayList<>();
+        private final IntList anchorRule = new IntList();
+        private final Map<String, IntList> families = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a rule whose matches always start with one of {@code anchors}.
+         *
+         * @param guardrail The guardrail id the matches are reported under
+         * @param rule The rule name
+         * @param pattern The pattern to verify candidates with
+         * @param anchors ASCII keywords, at least one of which starts every match
+         * @return This builder
+         */
+        public Builder anchored(String guardrail, String rule, Pattern pattern, String... anchors) {
+            if (anchors.length == 0) {
+                throw new IllegalArgumentException("Anchored rule needs at least one anchor: " + rule);
+            }
+            int index = addRule(guardrail, rule, pattern);
+            for (String anchor : anchors) {
+                anchorKeywords.add(anchor);
+                anchorRule.add(index);
+            }
+            return this;
+        }
+
+        /**
+         * Add a rule whose matches consist only of {@code runChars} and always contain at
+         * least one of {@code triggerChars}.
+         *
+         * @param guardrail The guardrail id the matches are reported under
+         * @param rule The rule name
+         * @param pattern The pattern to search windows with
+         * @param runChars ASCII characters a match may contain
+         * @param triggerChars ASCII characters at least one of which every match contains
+         * @return This builder
+         */
+        public Builder windowed(String guardrail, String rule, Pattern pattern, String runChars, String triggerChars) {
+            int index = addRule(guardrail, rule, pattern);
+            families.computeIfAbsent(runChars + '\u0000' + triggerChars, key -> new IntList()).add(index);
+            return this;
+        }
+
+        private int addRule(String guardrail, String rule, Pattern pattern) {
+            rules.add(new Rule(Objects.requireNonNull(guardrail), Objects.requireNonNull(rule),
+                    Objects.requireNonNull(pattern)));
+            return rules.size() - 1;
+        }
+
+        public MultiPatternScanner build() {
+            List<Family> compiled = new ArrayList<>();
+            for (Map.Entry<String, IntList> entry : families.entrySet()) {
+                String[] sets = entry.getKey().split("\u0000", -1);
+                compiled.add(new Family(charSet(sets[0]), charSet(sets[1]), entry.getValue().toArray()));
+            }
+            return new MultiPatternScanner(List.copyOf(rules), List.copyOf(anchorKeywords),
+                    anchorRule.toArray(), compiled);
+        }
+
+        private static boolean[] charSet(String chars) {
+            boolean[] set = new boolean[128];
+            for (int i = 0; i < chars.length(); i++) {
+                char c = chars.charAt(i);
+                if (c >= 128) {
+                    throw new IllegalArgumentException("Window characters must be ASCII: " + chars);
+                }
+                set[c] = true;
+            }
+            return set;
+        }
+    }
+
+    /** Growable int array, to keep candidate offsets unboxed on large inputs. */
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int i) {
+            return values[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] sortedCopy() {
+            int[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
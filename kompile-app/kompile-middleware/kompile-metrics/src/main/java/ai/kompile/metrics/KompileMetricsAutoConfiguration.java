@@ -30,6 +30,7 @@ import ai.kompile.metrics.binder.KnowledgeGraphMetrics;
 import ai.kompile.metrics.binder.LlmMetrics;
 import ai.kompile.metrics.binder.McpToolMetrics;
 import ai.kompile.metrics.binder.Nd4jMemoryMetrics;
+import ai.kompile.metrics.binder.RerankMetrics;
 import ai.kompile.metrics.binder.RetrievalObservabilityMetrics;
 import ai.kompile.metrics.binder.VectorStoreMetrics;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -78,6 +79,11 @@ public class KompileMetricsAutoConfiguration {
         return new IngestMetrics(registry);
     }
 
+    @Bean
+    public RerankMetrics rerankMetrics(MeterRegistry registry) {
+        return new RerankMetrics(registry);
+    }
+
     @Bean
     public Nd4jMemoryMetrics nd4jMemoryMetrics(MeterRegistry registry) {
         return new Nd4jMemoryMetrics(registry);
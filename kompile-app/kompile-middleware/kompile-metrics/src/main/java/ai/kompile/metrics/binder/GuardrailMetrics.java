@@ -16,11 +16,14 @@
 
 package ai.kompile.metrics.binder;
 
+import ai.kompile.core.guardrails.GuardrailListener;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -42,9 +45,13 @@ import java.util.concurrent.TimeUnit;
  * <ul>
  *   <li>{@code kompile.guardrail.input.time} – input validation duration distribution</li>
  *   <li>{@code kompile.guardrail.output.time} – output validation duration distribution</li>
+ *   <li>{@code kompile.guardrail.check.time} – per-guardrail check duration histogram,
+ *       tagged by {@code phase}, {@code guardrail} and {@code outcome}</li>
  * </ul>
+ *
+ * Registered as a {@link GuardrailListener}, so the guardrail service reports into it directly.
  */
-public class GuardrailMetrics {
+public class GuardrailMetrics implements GuardrailListener {
 
     private final MeterRegistry registry;
 
@@ -58,6 +65,7 @@ public class GuardrailMetrics {
     private Counter outputWarned;
     private Timer inputTimer;
     private Timer outputTimer;
+    private final Map<String, Timer> checkTimers = new ConcurrentHashMap<>();
 
     public GuardrailMetrics(MeterRegistry registry) {
         this.registry = registry;
@@ -118,4 +126,29 @@ public class GuardrailMetrics {
         recordOutputValidation(result, durationMs);
         registry.counter("kompile.guardrail.output.by_type", "type", guardrailType, "result", result).increment();
     }
+
+    @Override
+    public void onValidation(String phase, String outcome, long durationNanos) {
+        Counter total = PHASE_INPUT.equals(phase) ? inputTotal : outputTotal;
+        total.increment();
+        switch (outcome) {
+            case "passed" -> (PHASE_INPUT.equals(phase) ? inputPassed : outputPassed).increment();
+            case "blocked" -> (PHASE_INPUT.equals(phase) ? inputBlocked : outputBlocked).increment();
+            case "warned" -> (PHASE_INPUT.equals(phase) ? inputWarned : outputWarned).increment();
+        }
+        (PHASE_INPUT.equals(phase) ? inputTimer : outputTimer).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onCheck(String phase, String guardrailName, String outcome, long durationNanos) {
+        checkTimers.computeIfAbsent(phase + '|' + guardrailName + '|' + outcome,
+                        key -> Timer.builder("kompile.guardrail.check.time")
+                                .description("Per-guardrail check duration")
+                                .tag("phase", phase)
+                                .tag("guardrail", guardrailName)
+                                .tag("outcome", outcome)
+                                .publishPercentileHistogram()
+                                .register(registry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.metrics.binder;
+
+import ai.kompile.core.reranking.RerankLatencyStats;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports rerank latency, bucketed by the number of candidates per call, to Micrometer.
+ * Every meter is tagged {@code candidates} with the bucket label ({@code <=10} ... {@code >200}).
+ *
+ * <ul>
+ *   <li>{@code kompile.rerank.time} – rerank call count and total time per bucket</li>
+ *   <li>{@code kompile.rerank.time.max} – slowest rerank call per bucket</li>
+ * </ul>
+ */
+public class RerankMetrics {
+
+    private final MeterRegistry registry;
+    private final RerankLatencyStats stats;
+
+    public RerankMetrics(MeterRegistry registry) {
+        this(registry, RerankLatencyStats.shared());
+    }
+
+    public RerankMetrics(MeterRegistry registry, RerankLatencyStats stats) {
+        this.registry = registry;
+        this.stats = stats;
+    }
+
+    @PostConstruct
+    public void bindMetrics() {
+        for (int i = 0; i < RerankLatencyStats.bucketCount(); i++) {
+            int bucket = i;
+            String label = RerankLatencyStats.label(bucket);
+
+            FunctionTimer.builder("kompile.rerank.time", stats,
+                            s -> s.count(bucket), s -> s.totalNanos(bucket), TimeUnit.NANOSECONDS)
+                    .tag("candidates", label)
+                    .description("Rerank calls and total rerank time by candidate count").register(registry);
+
+            Gauge.builder("kompile.rerank.time.max", stats, s -> s.maxNanos(bucket) / 1e9)
+                    .tag("candidates", label).baseUnit("seconds")
+                    .description("Slowest rerank call by candidate count").register(registry);
+        }
+    }
+}
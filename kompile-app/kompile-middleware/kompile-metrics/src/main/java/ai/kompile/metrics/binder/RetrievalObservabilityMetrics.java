@@ -34,6 +34,7 @@ import java.util.concurrent.TimeUnit;
  *   <li>{@code kompile.retrieval.semantic.hits} – documents from semantic search</li>
  *   <li>{@code kompile.retrieval.keyword.hits} – documents from keyword search</li>
  *   <li>{@code kompile.retrieval.duplicates_removed} – deduplication removals</li>
+ *   <li>{@code kompile.retrieval.leg.timeouts} – retrieval legs dropped after missing their deadline</li>
  * </ul>
  *
  * Timers:
@@ -41,6 +42,7 @@ import java.util.concurrent.TimeUnit;
  *   <li>{@code kompile.retrieval.embedding.time} – query embedding time</li>
  *   <li>{@code kompile.retrieval.semantic.time} – semantic search time</li>
  *   <li>{@code kompile.retrieval.keyword.time} – keyword search time</li>
+ *   <li>{@code kompile.retrieval.fused.time} – time until fused results were ready</li>
  *   <li>{@code kompile.retrieval.total.time} – end-to-end retrieval time</li>
  * </ul>
  */
@@ -52,9 +54,11 @@ public class RetrievalObservabilityMetrics {
     private Counter semanticHitsCounter;
     private Counter keywordHitsCounter;
     private Counter duplicatesRemovedCounter;
+    private Counter legTimeoutsCounter;
     private Timer embeddingTimer;
     private Timer semanticSearchTimer;
     private Timer keywordSearchTimer;
+    private Timer timeToFusedTimer;
     private Timer totalRetrievalTimer;
 
     public RetrievalObservabilityMetrics(MeterRegistry registry) {
@@ -75,6 +79,9 @@ public class RetrievalObservabilityMetrics {
         duplicatesRemovedCounter = Counter.builder("kompile.retrieval.duplicates_removed")
                 .description("Total duplicates removed during deduplication").register(registry);
 
+        legTimeoutsCounter = Counter.builder("kompile.retrieval.leg.timeouts")
+                .description("Total retrieval legs dropped after missing their deadline").register(registry);
+
         embeddingTimer = Timer.builder("kompile.retrieval.embedding.time")
                 .description("Time spent generating query embeddings").register(registry);
 
@@ -84,6 +91,9 @@ public class RetrievalObservabilityMetrics {
         keywordSearchTimer = Timer.builder("kompile.retrieval.keyword.time")
                 .description("Time spent on keyword search").register(registry);
 
+        timeToFusedTimer = Timer.builder("kompile.retrieval.fused.time")
+                .description("Time from retrieval start until fused results were ready").register(registry);
+
         totalRetrievalTimer = Timer.builder("kompile.retrieval.total.time")
                 .description("End-to-end retrieval time").register(registry);
     }
@@ -98,9 +108,11 @@ public class RetrievalObservabilityMetrics {
         semanticHitsCounter.increment(metrics.semanticHits());
         keywordHitsCounter.increment(metrics.keywordHits());
         duplicatesRemovedCounter.increment(metrics.duplicatesRemoved());
+        legTimeoutsCounter.increment(metrics.timedOutLegs());
         embeddingTimer.record(metrics.embeddingTimeNanos(), TimeUnit.NANOSECONDS);
         semanticSearchTimer.record(metrics.semanticSearchTimeNanos(), TimeUnit.NANOSECONDS);
         keywordSearchTimer.record(metrics.keywordSearchTimeNanos(), TimeUnit.NANOSECONDS);
+        timeToFusedTimer.record(metrics.timeToFusedNanos(), TimeUnit.NANOSECONDS);
         totalRetrievalTimer.record(metrics.totalTimeNanos(), TimeUnit.NANOSECONDS);
     }
 }
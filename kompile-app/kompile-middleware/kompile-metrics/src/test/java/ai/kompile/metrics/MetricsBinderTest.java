@@ -17,6 +17,7 @@
 package ai.kompile.metrics;
 
 import ai.kompile.core.rag.retrieval.RetrievalMetrics;
+import ai.kompile.core.reranking.RerankLatencyStats;
 import ai.kompile.metrics.binder.ChatMetrics;
 import ai.kompile.metrics.binder.CrawlMetrics;
 import ai.kompile.metrics.binder.GuardrailMetrics;
@@ -26,15 +27,19 @@ import ai.kompile.metrics.binder.KnowledgeGraphMetrics;
 import ai.kompile.metrics.binder.LlmMetrics;
 import ai.kompile.metrics.binder.McpToolMetrics;
 import ai.kompile.metrics.binder.Nd4jMemoryMetrics;
+import ai.kompile.metrics.binder.RerankMetrics;
 import ai.kompile.metrics.binder.RetrievalObservabilityMetrics;
 import ai.kompile.metrics.binder.VectorStoreMetrics;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionTimer;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -152,6 +157,56 @@ class MetricsBinderTest {
         assertEquals(1, totalTimer.count());
     }
 
+    @Test
+    void retrievalMetrics_recordFusionAndLegTimeouts() {
+        RetrievalObservabilityMetrics metrics = new RetrievalObservabilityMetrics(registry);
+        metrics.bindMetrics();
+
+        RetrievalMetrics rm = RetrievalMetrics.builder()
+                .semanticHits(4)
+                .timedOutLegs(1)
+                .timeToFusedNanos(3_000_000)
+                .totalTimeNanos(3_500_000)
+                .build();
+        metrics.recordRetrieval(rm);
+
+        Counter timeouts = registry.find("kompile.retrieval.leg.timeouts").counter();
+        assertNotNull(timeouts);
+        assertEquals(1.0, timeouts.count());
+
+        Timer fusedTimer = registry.find("kompile.retrieval.fused.time").timer();
+        assertNotNull(fusedTimer);
+        assertEquals(3.0, fusedTimer.totalTime(TimeUnit.MILLISECONDS), 1e-9);
+    }
+
+    @Test
+    void rerankMetrics_bucketedByCandidateCount() {
+        RerankLatencyStats stats = new RerankLatencyStats();
+        RerankMetrics metrics = new RerankMetrics(registry, stats);
+        metrics.bindMetrics();
+
+        stats.record(8, 2_000_000);
+        stats.record(10, 4_000_000);
+        stats.record(500, 90_000_000);
+
+        FunctionTimer small = registry.find("kompile.rerank.time").tag("candidates", "<=10").functionTimer();
+        assertNotNull(small);
+        assertEquals(2.0, small.count());
+        assertEquals(6.0, small.totalTime(TimeUnit.MILLISECONDS), 1e-9);
+
+        FunctionTimer large = registry.find("kompile.rerank.time").tag("candidates", ">200").functionTimer();
+        assertNotNull(large);
+        assertEquals(1.0, large.count());
+
+        FunctionTimer idle = registry.find("kompile.rerank.time").tag("candidates", "<=50").functionTimer();
+        assertNotNull(idle);
+        assertEquals(0.0, idle.count());
+
+        Gauge max = registry.find("kompile.rerank.time.max").tag("candidates", "<=10").gauge();
+        assertNotNull(max);
+        assertEquals(0.004, max.value(), 1e-9);
+    }
+
     @Test
     void crawlMetrics_recordCrawlLifecycle() {
         CrawlMetrics metrics = new CrawlMetrics(registry);
@@ -366,6 +421,28 @@ class MetricsBinderTest {
         assertEquals(2.0, inputTotal.count());
     }
 
+    @Test
+    void guardrailMetrics_listenerRecordsChecksAndValidations() {
+        GuardrailMetrics metrics = new GuardrailMetrics(registry);
+        metrics.bindMetrics();
+
+        metrics.onCheck("input", "pii", "passed", 2_000_000);
+        metrics.onCheck("input", "toxicity", "blocked", 40_000_000);
+        metrics.onCheck("input", "toxicity", "blocked", 60_000_000);
+        metrics.onValidation("input", "blocked", 45_000_000);
+        metrics.onValidation("output", "passed", 5_000_000);
+
+        Timer toxicity = registry.find("kompile.guardrail.check.time")
+                .tag("phase", "input").tag("guardrail", "toxicity").tag("outcome", "blocked").timer();
+        assertNotNull(toxicity);
+        assertEquals(2, toxicity.count());
+        assertEquals(100.0, toxicity.totalTime(TimeUnit.MILLISECONDS), 0.001);
+
+        assertEquals(1.0, registry.find("kompile.guardrail.input.blocked").counter().count());
+        assertEquals(1.0, registry.find("kompile.guardrail.output.passed").counter().count());
+        assertEquals(1, registry.find("kompile.guardrail.input.time").timer().count());
+    }
+
     @Test
     void mcpToolMetrics_recordToolCalls() {
         McpToolMetrics metrics = new McpToolMetrics(registry);
@@ -3,6 +3,10 @@ package ai.kompile.serving.openai;
 import ai.kompile.serving.openai.dto.ChatCompletionRequest;
 import ai.kompile.serving.openai.dto.ChatCompletionResponse;
 import ai.kompile.serving.openai.dto.ChatCompletionChunk;
+import ai.kompile.serving.openai.batching.ContinuousBatchScheduler;
+import ai.kompile.serving.openai.batching.SamplingParams;
+import ai.kompile.serving.openai.batching.Sequence;
+import ai.kompile.serving.openai.batching.SequenceListener;
 import org.eclipse.deeplearning4j.llm.generation.GenerationPipeline;
 import org.eclipse.deeplearning4j.llm.generation.GenerationResult;
 import org.eclipse.deeplearning4j.llm.generation.sampling.SamplingConfig;
@@ -13,11 +17,16 @@ import org.slf4j.LoggerFactory;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * Bridges between OpenAI-compatible request/response DTOs and the DL4J GenerationPipeline API.
+ * <p>
+ * When a {@link ContinuousBatchScheduler} is configured, requests are submitted to it
+ * through {@link #submit} and {@link #submitStreaming} instead, so concurrent requests
+ * share batched decode steps rather than running one at a time.
  */
 public class ModelBridge {
 
@@ -26,11 +35,25 @@ public class ModelBridge {
     private final GenerationPipeline pipeline;
     private final ChatTemplate chatTemplate;
     private final String modelId;
+    private final ContinuousBatchScheduler scheduler;
 
     public ModelBridge(GenerationPipeline pipeline, ChatTemplate chatTemplate, String modelId) {
+        this(pipeline, chatTemplate, modelId, null);
+    }
+
+    public ModelBridge(GenerationPipeline pipeline, ChatTemplate chatTemplate, String modelId,
+                       ContinuousBatchScheduler scheduler) {
         this.pipeline = pipeline;
         this.chatTemplate = chatTemplate;
         this.modelId = modelId;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Whether requests go through the continuous batching scheduler.
+     */
+    public boolean isBatching() {
+        return scheduler != null;
     }
 
     /**
@@ -102,6 +125,20 @@ public class ModelBridge {
         return builder.build();
     }
 
+    /**
+     * Resolves the scheduler's per-request sampling settings from the OpenAI request,
+     * falling back to the server defaults the same way {@link #buildSamplingConfig} does.
+     */
+    public SamplingParams buildSamplingParams(ChatCompletionRequest request, SamplingConfig defaults) {
+        double temperature = request.getTemperature() != null ? request.getTemperature() : defaults.getTemperature();
+        double topP = request.getTopP() != null ? request.getTopP() : defaults.getTopP();
+        int topK = defaults.getTopK();
+        double repetitionPenalty = request.getFrequencyPenalty() != null && request.getFrequencyPenalty() > 0
+                ? 1.0 + request.getFrequencyPenalty()
+                : defaults.getRepetitionPenalty();
+        return new SamplingParams(temperature, topK, topP, repetitionPenalty, request.getSeed());
+    }
+
     /**
      * Performs non-streaming generation and returns an OpenAI-compatible response.
      */
@@ -129,41 +166,120 @@ public class ModelBridge {
         String model = request.getModel() != null ? request.getModel() : modelId;
 
         // Send initial chunk with role
-        ChatCompletionChunk roleChunk = ChatCompletionChunk.builder()
-                .id(completionId)
-                .object("chat.completion.chunk")
-                .created(created)
-                .model(model)
-                .choices(Collections.singletonList(
-                        ChatCompletionChunk.Choice.builder()
-                                .index(0)
-                                .delta(ChatCompletionChunk.Delta.builder()
-                                        .role("assistant")
-                                        .build())
-                                .build()))
-                .build();
-        chunkCallback.accept(roleChunk);
+        chunkCallback.accept(roleChunk(completionId, created, model));
 
         // Stream tokens
-        pipeline.generateStream(prompt, maxTokens, token -> {
-            ChatCompletionChunk chunk = ChatCompletionChunk.builder()
-                    .id(completionId)
-                    .object("chat.completion.chunk")
-                    .created(created)
-                    .model(model)
-                    .choices(Collections.singletonList(
-                            ChatCompletionChunk.Choice.builder()
-                                    .index(0)
-                                    .delta(ChatCompletionChunk.Delta.builder()
-                                            .content(token)
-                                            .build())
-                                    .build()))
-                    .build();
-            chunkCallback.accept(chunk);
-        });
+        pipeline.generateStream(prompt, maxTokens,
+                token -> chunkCallback.accept(contentChunk(completionId, created, model, token)));
 
         // Send final chunk with finish_reason
-        ChatCompletionChunk finalChunk = ChatCompletionChunk.builder()
+        chunkCallback.accept(finalChunk(completionId, created, model, "stop"));
+
+        doneCallback.run();
+    }
+
+    /**
+     * Submits a non-streaming request to the continuous batching scheduler. The returned
+     * future completes on the scheduler thread once the sequence finishes; cancelling it
+     * takes the sequence out of the batch.
+     */
+    public CompletableFuture<ChatCompletionResponse> submit(ChatCompletionRequest request, SamplingConfig defaults) {
+        String prompt = buildPrompt(request.getMessages());
+        int maxTokens = request.getMaxTokens() != null ? request.getMaxTokens() : defaults.getMaxNewTokens();
+        String model = request.getModel() != null ? request.getModel() : modelId;
+        CompletableFuture<ChatCompletionResponse> future = new CompletableFuture<>();
+        StringBuilder text = new StringBuilder();
+
+        Sequence sequence = scheduler.submit(prompt, maxTokens, buildSamplingParams(request, defaults),
+                new SequenceListener() {
+                    @Override
+                    public void onToken(String token) {
+                        text.append(token);
+                    }
+
+                    @Override
+                    public void onComplete(Sequence.FinishReason reason, int promptTokens, int completionTokens) {
+                        future.complete(buildResponse(model, text.toString(), mapFinishReason(reason),
+                                promptTokens, completionTokens));
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        future.completeExceptionally(error);
+                    }
+                });
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                sequence.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Submits a streaming request to the continuous batching scheduler. Callbacks run on
+     * the scheduler thread and must not block.
+     *
+     * @return the scheduled sequence, which the caller cancels if the client goes away
+     */
+    public Sequence submitStreaming(ChatCompletionRequest request, SamplingConfig defaults,
+                                    Consumer<ChatCompletionChunk> chunkCallback,
+                                    Runnable doneCallback,
+                                    Consumer<Throwable> errorCallback) {
+        String prompt = buildPrompt(request.getMessages());
+        int maxTokens = request.getMaxTokens() != null ? request.getMaxTokens() : defaults.getMaxNewTokens();
+        String completionId = "chatcmpl-" + UUID.randomUUID().toString().replace("-", "").substring(0, 24);
+        long created = System.currentTimeMillis() / 1000;
+        String model = request.getModel() != null ? request.getModel() : modelId;
+
+        return scheduler.submit(prompt, maxTokens, buildSamplingParams(request, defaults),
+                new SequenceListener() {
+                    // The role chunk goes out with the first event, so nothing is emitted
+                    // if the scheduler rejects the request
+                    private boolean started;
+
+                    private void start() {
+                        if (!started) {
+                            started = true;
+                            chunkCallback.accept(roleChunk(completionId, created, model));
+                        }
+                    }
+
+                    @Override
+                    public void onToken(String token) {
+                        start();
+                        chunkCallback.accept(contentChunk(completionId, created, model, token));
+                    }
+
+                    @Override
+                    public void onComplete(Sequence.FinishReason reason, int promptTokens, int completionTokens) {
+                        start();
+                        chunkCallback.accept(finalChunk(completionId, created, model, mapFinishReason(reason)));
+                        doneCallback.run();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        errorCallback.accept(error);
+                    }
+                });
+    }
+
+    private ChatCompletionChunk roleChunk(String completionId, long created, String model) {
+        return chunk(completionId, created, model, ChatCompletionChunk.Delta.builder().role("assistant").build(), null);
+    }
+
+    private ChatCompletionChunk contentChunk(String completionId, long created, String model, String token) {
+        return chunk(completionId, created, model, ChatCompletionChunk.Delta.builder().content(token).build(), null);
+    }
+
+    private ChatCompletionChunk finalChunk(String completionId, long created, String model, String finishReason) {
+        return chunk(completionId, created, model, ChatCompletionChunk.Delta.builder().build(), finishReason);
+    }
+
+    private ChatCompletionChunk chunk(String completionId, long created, String model,
+                                      ChatCompletionChunk.Delta delta, String finishReason) {
+        return ChatCompletionChunk.builder()
                 .id(completionId)
                 .object("chat.completion.chunk")
                 .created(created)
@@ -171,13 +287,10 @@ public class ModelBridge {
                 .choices(Collections.singletonList(
                         ChatCompletionChunk.Choice.builder()
                                 .index(0)
-                                .delta(ChatCompletionChunk.Delta.builder().build())
-                                .finishReason("stop")
+                                .delta(delta)
+                                .finishReason(finishReason)
                                 .build()))
                 .build();
-        chunkCallback.accept(finalChunk);
-
-        doneCallback.run();
     }
 
     /**
@@ -185,6 +298,12 @@ public class ModelBridge {
      */
     private ChatCompletionResponse toResponse(GenerationResult result, String requestModel) {
         String model = requestModel != null ? requestModel : modelId;
+        return buildResponse(model, result.getText(), mapFinishReason(result.getFinishReason()),
+                result.getPromptTokenCount(), result.getGeneratedTokenCount());
+    }
+
+    private ChatCompletionResponse buildResponse(String model, String text, String finishReason,
+                                                 int promptTokens, int completionTokens) {
         String completionId = "chatcmpl-" + UUID.randomUUID().toString().replace("-", "").substring(0, 24);
 
         return ChatCompletionResponse.builder()
@@ -197,14 +316,14 @@ public class ModelBridge {
                                 .index(0)
                                 .message(ChatCompletionResponse.Message.builder()
                                         .role("assistant")
-                                        .content(result.getText())
+                                        .content(text)
                                         .build())
-                                .finishReason(mapFinishReason(result.getFinishReason()))
+                                .finishReason(finishReason)
                                 .build()))
                 .usage(ChatCompletionResponse.Usage.builder()
-                        .promptTokens(result.getPromptTokenCount())
-                        .completionTokens(result.getGeneratedTokenCount())
-                        .totalTokens(result.getTotalTokenCount())
+                        .promptTokens(promptTokens)
+                        .completionTokens(completionTokens)
+                        .totalTokens(promptTokens + completionTokens)
                         .build())
                 .build();
     }
@@ -229,6 +348,13 @@ public class ModelBridge {
         }
     }
 
+    /**
+     * Maps the scheduler's finish reason to OpenAI finish_reason string.
+     */
+    private String mapFinishReason(Sequence.FinishReason reason) {
+        return reason == Sequence.FinishReason.LENGTH ? "length" : "stop";
+    }
+
     public String getModelId() {
         return modelId;
     }
@@ -1,5 +1,8 @@
 package ai.kompile.serving.openai;
 
+import ai.kompile.serving.openai.batching.ContinuousBatchScheduler;
+import ai.kompile.serving.openai.batching.KvBlockPool;
+import ai.kompile.serving.openai.batching.SameDiffBatchDecoder;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServer;
 import io.vertx.ext.web.Router;
@@ -60,6 +63,20 @@ public class OpenAiCompatibleServer implements Callable<Integer> {
             description = "Model identifier returned in API responses (default: directory name)")
     private String modelId;
 
+    @CommandLine.Option(names = {"--max-batch-size"}, defaultValue = "1",
+            description = "Maximum sequences decoded together by the continuous batching scheduler; "
+                    + "1 serves requests one at a time through GenerationPipeline (default: ${DEFAULT-VALUE})")
+    private int maxBatchSize;
+
+    @CommandLine.Option(names = {"--kv-block-size"}, defaultValue = "16",
+            description = "Tokens per KV-cache block used for batch admission control (default: ${DEFAULT-VALUE})")
+    private int kvBlockSize;
+
+    @CommandLine.Option(names = {"--kv-cache-blocks"}, defaultValue = "1024",
+            description = "KV-cache blocks shared by all running sequences; a request is admitted only once "
+                    + "its prompt plus max tokens fit (default: ${DEFAULT-VALUE})")
+    private int kvCacheBlocks;
+
     @Override
     public Integer call() throws Exception {
         File modelDir = new File(modelPath);
@@ -132,8 +149,10 @@ public class OpenAiCompatibleServer implements Callable<Integer> {
             log.warn("No chat template found, using fallback formatting");
         }
 
+        ContinuousBatchScheduler scheduler = createScheduler(model, tokenizer, defaultConfig);
+
         // Create bridge and routes
-        ModelBridge bridge = new ModelBridge(pipeline, chatTemplate, modelId);
+        ModelBridge bridge = new ModelBridge(pipeline, chatTemplate, modelId, scheduler);
         OpenAiRoutes routes = new OpenAiRoutes(bridge, defaultConfig);
 
         // Start server
@@ -162,6 +181,9 @@ public class OpenAiCompatibleServer implements Callable<Integer> {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             log.info("Shutting down server...");
             server.close();
+            if (scheduler != null) {
+                scheduler.close();
+            }
             vertx.close();
             tokenizer.close();
             latch.countDown();
@@ -171,6 +193,30 @@ public class OpenAiCompatibleServer implements Callable<Integer> {
         return 0;
     }
 
+    /**
+     * Creates the continuous batching scheduler when {@code --max-batch-size} is above 1.
+     * Falls back to serving through the GenerationPipeline one request at a time if the
+     * model graph does not expose the KV-cache and attention-mask I/O batching needs.
+     */
+    private ContinuousBatchScheduler createScheduler(SameDiff model, HuggingFaceTokenizer tokenizer,
+                                                     SamplingConfig defaultConfig) {
+        if (maxBatchSize <= 1) {
+            return null;
+        }
+        try {
+            SameDiffBatchDecoder decoder = new SameDiffBatchDecoder(model, tokenizer, defaultConfig.getEosTokenId());
+            ContinuousBatchScheduler scheduler = new ContinuousBatchScheduler(decoder, maxBatchSize,
+                    new KvBlockPool(kvBlockSize, kvCacheBlocks));
+            log.info("Continuous batching enabled: maxBatchSize={}, kvBlockSize={}, kvCacheBlocks={}",
+                    maxBatchSize, kvBlockSize, kvCacheBlocks);
+            return scheduler;
+        } catch (UnsupportedOperationException e) {
+            log.warn("Continuous batching unavailable for this model, serving requests sequentially: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+
     private ChatTemplate loadChatTemplate(File modelDir) {
         if (chatTemplateType != null && !chatTemplateType.equals("auto")) {
             switch (chatTemplateType.toLowerCase()) {
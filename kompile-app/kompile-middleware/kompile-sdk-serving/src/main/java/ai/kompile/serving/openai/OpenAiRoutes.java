@@ -1,8 +1,10 @@
 package ai.kompile.serving.openai;
 
 import ai.kompile.serving.openai.dto.*;
+import ai.kompile.serving.openai.batching.Sequence;
 import ai.kompile.cli.common.util.JsonUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Context;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
@@ -12,6 +14,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Registers OpenAI-compatible HTTP routes on a Vert.x Router.
@@ -80,7 +85,13 @@ public class OpenAiRoutes {
 
             boolean stream = request.getStream() != null && request.getStream();
 
-            if (stream) {
+            if (modelBridge.isBatching()) {
+                if (stream) {
+                    handleBatchedStreamingCompletion(ctx, request);
+                } else {
+                    handleBatchedCompletion(ctx, request);
+                }
+            } else if (stream) {
                 handleStreamingCompletion(ctx, request);
             } else {
                 handleNonStreamingCompletion(ctx, request);
@@ -119,10 +130,7 @@ public class OpenAiRoutes {
 
     private void handleStreamingCompletion(RoutingContext ctx, ChatCompletionRequest request) {
         HttpServerResponse response = ctx.response();
-        response.putHeader("Content-Type", "text/event-stream");
-        response.putHeader("Cache-Control", "no-cache");
-        response.putHeader("Connection", "keep-alive");
-        response.setChunked(true);
+        startEventStream(response);
 
         // Run generation on a worker thread
         ctx.vertx().executeBlocking(promise -> {
@@ -154,6 +162,136 @@ public class OpenAiRoutes {
         });
     }
 
+    private void handleBatchedCompletion(RoutingContext ctx, ChatCompletionRequest request) {
+        // A disconnect cancels the future, which takes the sequence out of the batch. The
+        // handler goes in before submit so a client that leaves during tokenization is seen.
+        AtomicReference<CompletableFuture<ChatCompletionResponse>> submitted = new AtomicReference<>();
+        AtomicBoolean disconnected = new AtomicBoolean();
+        ctx.response().closeHandler(v -> {
+            disconnected.set(true);
+            CompletableFuture<ChatCompletionResponse> future = submitted.get();
+            if (future != null) {
+                future.cancel(false);
+            }
+        });
+
+        // Prompt templating and tokenization run on a worker; decoding runs on the scheduler thread
+        ctx.vertx().<ChatCompletionResponse>executeBlocking(promise -> {
+            try {
+                CompletableFuture<ChatCompletionResponse> future = modelBridge.submit(request, defaultConfig);
+                submitted.set(future);
+                if (disconnected.get()) {
+                    future.cancel(false);
+                }
+                future.whenComplete((response, error) -> {
+                    if (error != null) {
+                        promise.fail(error);
+                    } else {
+                        promise.complete(response);
+                    }
+                });
+            } catch (IllegalArgumentException e) {
+                promise.fail(new BadRequestException(e.getMessage()));
+            } catch (Exception e) {
+                promise.fail(e);
+            }
+        }, false, ar -> {
+            if (disconnected.get()) {
+                return;
+            }
+            if (ar.succeeded()) {
+                try {
+                    ctx.response()
+                            .putHeader("Content-Type", "application/json")
+                            .end(objectMapper.writeValueAsString(ar.result()));
+                } catch (Exception e) {
+                    sendError(ctx, 500, "Failed to serialize response: " + e.getMessage());
+                }
+            } else if (ar.cause() instanceof BadRequestException) {
+                sendError(ctx, 400, ar.cause().getMessage());
+            } else {
+                log.error("Generation failed", ar.cause());
+                sendError(ctx, 500, "Generation failed: " + ar.cause().getMessage());
+            }
+        });
+    }
+
+    private void handleBatchedStreamingCompletion(RoutingContext ctx, ChatCompletionRequest request) {
+        HttpServerResponse response = ctx.response();
+        // Scheduler callbacks hop back onto this request's context so the decode loop never
+        // waits on serialization or socket writes
+        Context context = ctx.vertx().getOrCreateContext();
+        // Registered before submit so a disconnect during tokenization still cancels
+        AtomicReference<Sequence> submitted = new AtomicReference<>();
+        AtomicBoolean disconnected = new AtomicBoolean();
+        response.closeHandler(v -> {
+            disconnected.set(true);
+            Sequence sequence = submitted.get();
+            if (sequence != null) {
+                sequence.cancel();
+            }
+        });
+
+        ctx.vertx().<Sequence>executeBlocking(promise -> {
+            try {
+                Sequence sequence = modelBridge.submitStreaming(request, defaultConfig,
+                        chunk -> context.runOnContext(v -> {
+                            if (response.ended()) {
+                                return;
+                            }
+                            if (!response.headWritten()) {
+                                startEventStream(response);
+                            }
+                            try {
+                                response.write("data: " + objectMapper.writeValueAsString(chunk) + "\n\n");
+                            } catch (Exception e) {
+                                log.error("Failed to serialize chunk", e);
+                            }
+                        }),
+                        () -> context.runOnContext(v -> {
+                            if (!response.ended()) {
+                                response.write("data: [DONE]\n\n");
+                                response.end();
+                            }
+                        }),
+                        error -> context.runOnContext(v -> {
+                            log.error("Streaming generation failed", error);
+                            if (!response.headWritten()) {
+                                sendError(ctx, 500, "Generation failed: " + error.getMessage());
+                            } else if (!response.ended()) {
+                                response.end();
+                            }
+                        }));
+                submitted.set(sequence);
+                if (disconnected.get()) {
+                    sequence.cancel();
+                }
+                promise.complete(sequence);
+            } catch (IllegalArgumentException e) {
+                promise.fail(new BadRequestException(e.getMessage()));
+            } catch (Exception e) {
+                promise.fail(e);
+            }
+        }, false, ar -> {
+            if (ar.succeeded() || disconnected.get()) {
+                return;
+            }
+            if (ar.cause() instanceof BadRequestException) {
+                sendError(ctx, 400, ar.cause().getMessage());
+            } else {
+                log.error("Streaming generation failed", ar.cause());
+                sendError(ctx, 500, "Generation failed: " + ar.cause().getMessage());
+            }
+        });
+    }
+
+    private static void startEventStream(HttpServerResponse response) {
+        response.putHeader("Content-Type", "text/event-stream");
+        response.putHeader("Cache-Control", "no-cache");
+        response.putHeader("Connection", "keep-alive");
+        response.setChunked(true);
+    }
+
     private void sendError(RoutingContext ctx, int statusCode, String message) {
         try {
             ErrorResponse error = ErrorResponse.of(message, "invalid_request_error",
@@ -168,4 +306,13 @@ public class OpenAiRoutes {
                     .end("{\"error\":{\"message\":\"Internal error\"}}");
         }
     }
+
+    /**
+     * Marks scheduler rejections (e.g. a request too large for the KV-cache pool) as client errors.
+     */
+    private static class BadRequestException extends RuntimeException {
+        BadRequestException(String message) {
+            super(message);
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package ai.kompile.serving.openai.batching;
+
+import java.util.List;
+
+/**
+ * Model-side operations driven by {@link ContinuousBatchScheduler}.
+ * <p>
+ * The scheduler calls {@link #prefill} once per sequence when it is admitted, then
+ * {@link #step} once per iteration with every running sequence, so one forward pass
+ * produces the next-token logits for the whole batch. Sampling, stop conditions and
+ * streaming stay in the scheduler; implementations only own the model and the per-sequence
+ * KV cache, which they keep in {@link Sequence#getDecoderState()}.
+ * <p>
+ * All methods except {@link #encode} are called from the single scheduler thread.
+ */
+public interface BatchDecoder {
+
+    /**
+     * Tokenizes a prompt. Called on the submitting thread.
+     */
+    int[] encode(String prompt);
+
+    /**
+     * Detokenizes a run of generated token ids.
+     */
+    String decode(int[] tokenIds);
+
+    int eosTokenId();
+
+    /**
+     * Runs the prompt of a newly admitted sequence through the model, stores its KV cache
+     * in the sequence, and returns the logits for the first generated token.
+     */
+    float[] prefill(Sequence sequence);
+
+    /**
+     * Feeds the last token of every sequence through the model in a single batched forward
+     * pass, extends each KV cache by one position, and returns the next-token logits in
+     * batch order.
+     */
+    float[][] step(List<Sequence> batch);
+
+    /**
+     * Frees the KV cache of a finished or cancelled sequence.
+     */
+    default void release(Sequence sequence) {
+        sequence.setDecoderState(null);
+    }
+}
@@ -0,0 +1,302 @@
+package ai.kompile.serving.openai.batching;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Iteration-level ("continuous") batching scheduler.
+ * <p>
+ * A single scheduler thread owns the model. Each iteration it admits waiting requests
+ * (first come, first served) while the batch has room and the {@link KvBlockPool} can hold
+ * their worst-case cache, prefills them, then runs one {@link BatchDecoder#step} over every
+ * running sequence and dispatches the sampled tokens to each sequence's listener. Finished
+ * and cancelled sequences leave the batch, and their blocks are freed, before the next step,
+ * so new requests join mid-flight instead of waiting for the whole batch to drain.
+ */
+public class ContinuousBatchScheduler implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ContinuousBatchScheduler.class);
+
+    private static final long IDLE_POLL_MS = 100;
+
+    private final BatchDecoder decoder;
+    private final KvBlockPool kvBlocks;
+    private final int maxBatchSize;
+
+    private final LinkedBlockingDeque<Sequence> waiting = new LinkedBlockingDeque<>();
+    // Owned by the scheduler thread
+    private final List<Sequence> running = new ArrayList<>();
+    private volatile int runningCount;
+    private volatile boolean closed;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicLong generatedTokens = new AtomicLong();
+    private final AtomicLong decodeSteps = new AtomicLong();
+    private final AtomicLong batchedSequences = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+
+    private final Thread thread;
+
+    public ContinuousBatchScheduler(BatchDecoder decoder, int maxBatchSize, KvBlockPool kvBlocks) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive, got " + maxBatchSize);
+        }
+        this.decoder = decoder;
+        this.maxBatchSize = maxBatchSize;
+        this.kvBlocks = kvBlocks;
+        this.thread = new Thread(this::run, "continuous-batch-scheduler");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Point-in-time scheduler counters.
+     *
+     * @param waiting          requests not yet admitted
+     * @param running          sequences in the current batch
+     * @param freeKvBlocks     unreserved KV-cache blocks
+     * @param totalKvBlocks    size of the KV-cache block pool
+     * @param generatedTokens  tokens generated since start
+     * @param decodeSteps      batched decode steps since start
+     * @param meanBatchSize    average number of sequences per decode step
+     * @param tokensPerSecond  generated tokens per second since start
+     */
+    public record Stats(int waiting, int running, int freeKvBlocks, int totalKvBlocks,
+                        long generatedTokens, long decodeSteps, double meanBatchSize,
+                        double tokensPerSecond) {}
+
+    /**
+     * Tokenizes {@code prompt} on the calling thread and queues it for generation.
+     *
+     * @return the sequence handle, which can be used to cancel the request
+     * @throws IllegalArgumentException if the request can never fit in the KV-cache pool
+     * @throws IllegalStateException    if the scheduler has been closed
+     */
+    public Sequence submit(String prompt, int maxTokens, SamplingParams sampling, SequenceListener listener) {
+        return submit(decoder.encode(prompt), maxTokens, sampling, listener);
+    }
+
+    public Sequence submit(int[] promptTokens, int maxTokens, SamplingParams sampling, SequenceListener listener) {
+        if (closed) {
+            throw new IllegalStateException("Scheduler is closed");
+        }
+        if (promptTokens.length == 0) {
+            throw new IllegalArgumentException("Prompt must contain at least one token");
+        }
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens must be positive, got " + maxTokens);
+        }
+        int blocks = kvBlocks.blocksFor(promptTokens.length + maxTokens);
+        if (blocks > kvBlocks.totalBlocks()) {
+            throw new IllegalArgumentException("Request needs " + blocks + " KV-cache blocks ("
+                    + promptTokens.length + " prompt + " + maxTokens + " new tokens) but the pool only has "
+                    + kvBlocks.totalBlocks());
+        }
+        Sequence sequence = new Sequence(nextId.incrementAndGet(), promptTokens, maxTokens,
+                sampling, listener, blocks);
+        waiting.add(sequence);
+        // close() may have drained the queue between the check above and the add; whoever
+        // removes the sequence first settles it, so it is either rejected here or cancelled
+        if (closed && waiting.remove(sequence)) {
+            throw new IllegalStateException("Scheduler is closed");
+        }
+        return sequence;
+    }
+
+    public Stats stats() {
+        long steps = decodeSteps.get();
+        long tokens = generatedTokens.get();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return new Stats(waiting.size(), runningCount, kvBlocks.freeBlocks(), kvBlocks.totalBlocks(),
+                tokens, steps, steps == 0 ? 0 : (double) batchedSequences.get() / steps,
+                seconds > 0 ? tokens / seconds : 0);
+    }
+
+    /**
+     * Stops the scheduler thread. Sequences still waiting or running complete with
+     * {@link Sequence.FinishReason#CANCELLED}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                if (running.isEmpty()) {
+                    Sequence head = waiting.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                    if (head == null) {
+                        continue;
+                    }
+                    waiting.offerFirst(head);
+                }
+                admit();
+                decodeStep();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Continuous batching iteration failed", e);
+            }
+        }
+
+        for (Sequence sequence : running) {
+            finish(sequence, Sequence.FinishReason.CANCELLED);
+        }
+        running.clear();
+        runningCount = 0;
+        Sequence sequence;
+        while ((sequence = waiting.poll()) != null) {
+            complete(sequence, Sequence.FinishReason.CANCELLED);
+        }
+    }
+
+    /**
+     * Moves waiting sequences into the batch while there is room. Stops at the first one
+     * whose cache does not fit so large requests are not starved by smaller ones behind them.
+     */
+    private void admit() {
+        while (running.size() < maxBatchSize) {
+            Sequence next = waiting.peek();
+            if (next == null) {
+                break;
+            }
+            if (next.isCancelled()) {
+                waiting.poll();
+                complete(next, Sequence.FinishReason.CANCELLED);
+                continue;
+            }
+            if (!kvBlocks.tryReserve(next.getKvBlocks())) {
+                break;
+            }
+            waiting.poll();
+
+            float[] logits;
+            try {
+                logits = decoder.prefill(next);
+            } catch (RuntimeException e) {
+                fail(next, e);
+                continue;
+            }
+            if (accept(next, logits)) {
+                running.add(next);
+            }
+        }
+        runningCount = running.size();
+    }
+
+    private void decodeStep() {
+        running.removeIf(sequence -> {
+            if (sequence.isCancelled()) {
+                finish(sequence, Sequence.FinishReason.CANCELLED);
+                return true;
+            }
+            return false;
+        });
+        if (running.isEmpty()) {
+            runningCount = 0;
+            return;
+        }
+
+        float[][] logits;
+        try {
+            logits = decoder.step(running);
+        } catch (RuntimeException e) {
+            log.error("Batched decode step failed for {} sequences", running.size(), e);
+            for (Sequence sequence : running) {
+                fail(sequence, e);
+            }
+            running.clear();
+            runningCount = 0;
+            return;
+        }
+        decodeSteps.incrementAndGet();
+        batchedSequences.addAndGet(running.size());
+
+        List<Sequence> stillRunning = new ArrayList<>(running.size());
+        for (int i = 0; i < running.size(); i++) {
+            Sequence sequence = running.get(i);
+            if (accept(sequence, logits[i])) {
+                stillRunning.add(sequence);
+            }
+        }
+        running.clear();
+        running.addAll(stillRunning);
+        runningCount = running.size();
+    }
+
+    /**
+     * Samples and emits the next token of {@code sequence}.
+     *
+     * @return whether the sequence stays in the batch
+     */
+    private boolean accept(Sequence sequence, float[] logits) {
+        int token = TokenSampler.sample(logits, sequence);
+        if (token == decoder.eosTokenId()) {
+            finish(sequence, Sequence.FinishReason.STOP);
+            return false;
+        }
+        sequence.append(token);
+        generatedTokens.incrementAndGet();
+
+        String text = sequence.nextText(decoder);
+        if (!text.isEmpty()) {
+            try {
+                sequence.getListener().onToken(text);
+            } catch (RuntimeException e) {
+                log.warn("Token listener for sequence {} failed, cancelling it", sequence.getId(), e);
+                sequence.cancel();
+            }
+        }
+
+        if (sequence.getGeneratedCount() >= sequence.getMaxTokens()) {
+            finish(sequence, Sequence.FinishReason.LENGTH);
+            return false;
+        }
+        return true;
+    }
+
+    private void finish(Sequence sequence, Sequence.FinishReason reason) {
+        release(sequence);
+        complete(sequence, reason);
+    }
+
+    private void fail(Sequence sequence, Throwable error) {
+        release(sequence);
+        try {
+            sequence.getListener().onError(error);
+        } catch (RuntimeException e) {
+            log.warn("Error listener for sequence {} failed", sequence.getId(), e);
+        }
+    }
+
+    private void release(Sequence sequence) {
+        try {
+            decoder.release(sequence);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release decoder state for sequence {}", sequence.getId(), e);
+        }
+        kvBlocks.release(sequence.getKvBlocks());
+    }
+
+    private void complete(Sequence sequence, Sequence.FinishReason reason) {
+        try {
+            sequence.getListener().onComplete(reason, sequence.getPromptTokens().length,
+                    sequence.getGeneratedCount());
+        } catch (RuntimeException e) {
+            log.warn("Completion listener for sequence {} failed", sequence.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ai.kompile.serving.openai.batching;
+
+/**
+ * Fixed-size pool of KV-cache blocks used for admission control.
+ * <p>
+ * A sequence reserves {@code ceil((promptTokens + maxTokens) / blockSize)} blocks when it
+ * is admitted and returns them when it finishes, so the running batch can never grow past
+ * the cache memory the server was sized for, no matter how long each sequence runs.
+ */
+public final class KvBlockPool {
+
+    private final int blockSize;
+    private final int totalBlocks;
+    private int freeBlocks;
+
+    public KvBlockPool(int blockSize, int totalBlocks) {
+        if (blockSize <= 0 || totalBlocks <= 0) {
+            throw new IllegalArgumentException("blockSize and totalBlocks must be positive, got "
+                    + blockSize + " and " + totalBlocks);
+        }
+        this.blockSize = blockSize;
+        this.totalBlocks = totalBlocks;
+        this.freeBlocks = totalBlocks;
+    }
+
+    /**
+     * Number of blocks needed to hold {@code tokens} cache entries.
+     */
+    public int blocksFor(int tokens) {
+        return (tokens + blockSize - 1) / blockSize;
+    }
+
+    public synchronized boolean tryReserve(int blocks) {
+        if (blocks > freeBlocks) {
+            return false;
+        }
+        freeBlocks -= blocks;
+        return true;
+    }
+
+    public synchronized void release(int blocks) {
+        freeBlocks = Math.min(totalBlocks, freeBlocks + blocks);
+    }
+
+    public synchronized int freeBlocks() {
+        return freeBlocks;
+    }
+
+    public int totalBlocks() {
+        return totalBlocks;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+}
@@ -0,0 +1,366 @@
+package ai.kompile.serving.openai.batching;
+
+import org.eclipse.deeplearning4j.llm.generation.DecoderInputBuilder;
+import org.eclipse.deeplearning4j.llm.generation.ModelIOConfig;
+import org.eclipse.deeplearning4j.llm.tokenizer.HuggingFaceTokenizer;
+import org.nd4j.autodiff.samediff.SameDiff;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link BatchDecoder} over a decoder-only SameDiff graph with explicit KV-cache I/O
+ * ({@code past_key_values.N.key/value} inputs, {@code present.N.key/value} outputs, laid out
+ * as {@code [batch, heads, seq, headDim]}), as exported by HuggingFace/ONNX.
+ * <p>
+ * Each sequence keeps its own cache. A decode step left-pads every cache to the longest one,
+ * stacks them along the batch dimension, and masks the padding through
+ * {@code attention_mask} while {@code position_ids} carry each row's true position, so
+ * sequences of different lengths share one forward pass. The updated rows are sliced back
+ * out (dropping the padding) after the step.
+ * <p>
+ * Every array a call allocates other than the per-sequence caches (inputs, padded caches,
+ * graph outputs) is closed before the call returns, so a long-running server does not
+ * depend on garbage collection to free off-heap memory between steps.
+ */
+public class SameDiffBatchDecoder implements BatchDecoder {
+
+    private static final Logger log = LoggerFactory.getLogger(SameDiffBatchDecoder.class);
+
+    private final SameDiff sd;
+    private final HuggingFaceTokenizer tokenizer;
+    private final int eosTokenId;
+    private final ModelIOConfig ioConfig;
+
+    private final String[] keyInputs;
+    private final String[] valueInputs;
+    private final String[] keyOutputs;
+    private final String[] valueOutputs;
+    private final String logitsOutput;
+    private final String[] outputNames;
+    private final long numHeads;
+    private final long headDim;
+    private final DataType cacheType;
+
+    /**
+     * Per-sequence KV cache: one {@code [1, heads, len, headDim]} array per layer.
+     */
+    private static final class Cache {
+        final INDArray[] keys;
+        final INDArray[] values;
+
+        Cache(INDArray[] keys, INDArray[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        void close() {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) keys[i].close();
+                if (values[i] != null) values[i].close();
+            }
+        }
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the graph has no KV-cache inputs or no
+     *                                       attention mask, which batching with padding needs
+     */
+    public SameDiffBatchDecoder(SameDiff sd, HuggingFaceTokenizer tokenizer, int eosTokenId) {
+        this.sd = sd;
+        this.tokenizer = tokenizer;
+        this.eosTokenId = eosTokenId;
+        this.ioConfig = ModelIOConfig.discover(sd);
+
+        Map<Integer, String> keys = new HashMap<>();
+        Map<Integer, String> values = new HashMap<>();
+        boolean hasAttentionMask = false;
+        for (String input : sd.inputs()) {
+            if (ioConfig.isAttentionMask(input)) {
+                hasAttentionMask = true;
+            } else if (ioConfig.isKvCacheInput(input)) {
+                String withoutPrefix = input.replace("past_key_values.", "");
+                int dot = withoutPrefix.indexOf('.');
+                if (dot <= 0) continue;
+                int layer = Integer.parseInt(withoutPrefix.substring(0, dot));
+                String kind = withoutPrefix.substring(dot + 1);
+                if ("key".equals(kind)) keys.put(layer, input);
+                else if ("value".equals(kind)) values.put(layer, input);
+            }
+        }
+        int layers = keys.size();
+        if (layers == 0 || values.size() != layers) {
+            throw new UnsupportedOperationException("Model has no past_key_values inputs; batched decoding needs explicit KV-cache I/O");
+        }
+        if (!hasAttentionMask) {
+            throw new UnsupportedOperationException("Model has no attention_mask input; batched decoding needs it to mask padding");
+        }
+
+        ModelIOConfig.KVCacheNames kvNames = ioConfig.getKvCacheNames();
+        this.keyInputs = new String[layers];
+        this.valueInputs = new String[layers];
+        this.keyOutputs = new String[layers];
+        this.valueOutputs = new String[layers];
+        for (int i = 0; i < layers; i++) {
+            keyInputs[i] = keys.get(i);
+            valueInputs[i] = values.get(i);
+            boolean named = kvNames != null && kvNames.keyNames != null && i < kvNames.keyNames.size();
+            keyOutputs[i] = named ? kvNames.keyNames.get(i) : "present." + i + ".key";
+            valueOutputs[i] = named ? kvNames.valueNames.get(i) : "present." + i + ".value";
+        }
+        this.logitsOutput = ioConfig.getLogitsOutputName() != null ? ioConfig.getLogitsOutputName() : "logits";
+
+        List<String> outputs = new ArrayList<>(2 * layers + 1);
+        outputs.add(logitsOutput);
+        for (int i = 0; i < layers; i++) {
+            outputs.add(keyOutputs[i]);
+            outputs.add(valueOutputs[i]);
+        }
+        this.outputNames = outputs.toArray(new String[0]);
+
+        long[] kvShape = sd.getVariable(keyInputs[0]).getShape();
+        if (kvShape == null || kvShape.length != 4 || kvShape[1] <= 0 || kvShape[3] <= 0) {
+            throw new UnsupportedOperationException("Cannot determine KV-cache heads/headDim from "
+                    + keyInputs[0] + " shape");
+        }
+        this.numHeads = kvShape[1];
+        this.headDim = kvShape[3];
+        this.cacheType = sd.getVariable(keyInputs[0]).dataType();
+
+        log.info("SameDiffBatchDecoder initialized: layers={}, heads={}, headDim={}, cacheType={}",
+                layers, numHeads, headDim, cacheType);
+    }
+
+    @Override
+    public int[] encode(String prompt) {
+        return tokenizer.encode(prompt, true).getIds();
+    }
+
+    @Override
+    public String decode(int[] tokenIds) {
+        return tokenizer.decode(tokenIds, true);
+    }
+
+    @Override
+    public int eosTokenId() {
+        return eosTokenId;
+    }
+
+    @Override
+    public float[] prefill(Sequence sequence) {
+        int[] prompt = sequence.getPromptTokens();
+        int len = prompt.length;
+        INDArray inputIds = Nd4j.create(DataType.INT64, 1, len);
+        INDArray positions = Nd4j.create(DataType.INT64, 1, len);
+        for (int t = 0; t < len; t++) {
+            inputIds.putScalar(0, t, prompt[t]);
+            positions.putScalar(0, t, t);
+        }
+        INDArray mask = Nd4j.ones(DataType.INT64, 1, len);
+
+        INDArray[] pastKeys = new INDArray[keyInputs.length];
+        INDArray[] pastValues = new INDArray[keyInputs.length];
+        for (int l = 0; l < keyInputs.length; l++) {
+            pastKeys[l] = Nd4j.create(cacheType, 1, numHeads, 0, headDim);
+            pastValues[l] = Nd4j.create(cacheType, 1, numHeads, 0, headDim);
+        }
+
+        Map<String, INDArray> outputs;
+        try {
+            outputs = run(inputIds, mask, positions, pastKeys, pastValues, len, len, false);
+        } finally {
+            closeAll(inputIds, positions, mask);
+            closeAll(pastKeys);
+            closeAll(pastValues);
+        }
+        try {
+            INDArray[] keys = new INDArray[keyInputs.length];
+            INDArray[] values = new INDArray[keyInputs.length];
+            for (int l = 0; l < keyInputs.length; l++) {
+                keys[l] = outputs.get(keyOutputs[l]).dup();
+                values[l] = outputs.get(valueOutputs[l]).dup();
+            }
+            sequence.setDecoderState(new Cache(keys, values));
+            return lastLogits(outputs.get(logitsOutput), 0);
+        } finally {
+            closeAll(outputs.values().toArray(new INDArray[0]));
+        }
+    }
+
+    @Override
+    public float[][] step(List<Sequence> batch) {
+        int size = batch.size();
+        long maxPast = 0;
+        for (Sequence sequence : batch) {
+            maxPast = Math.max(maxPast, cacheLength(sequence));
+        }
+
+        INDArray inputIds = Nd4j.create(DataType.INT64, size, 1);
+        INDArray positions = Nd4j.create(DataType.INT64, size, 1);
+        INDArray mask = Nd4j.zeros(DataType.INT64, size, maxPast + 1);
+        for (int b = 0; b < size; b++) {
+            Sequence sequence = batch.get(b);
+            long past = cacheLength(sequence);
+            inputIds.putScalar(b, 0, sequence.lastToken());
+            positions.putScalar(b, 0, past);
+            for (long t = maxPast - past; t <= maxPast; t++) {
+                mask.putScalar(b, t, 1);
+            }
+        }
+
+        INDArray[] pastKeys = new INDArray[keyInputs.length];
+        INDArray[] pastValues = new INDArray[keyInputs.length];
+        Map<String, INDArray> outputs;
+        try {
+            for (int l = 0; l < keyInputs.length; l++) {
+                pastKeys[l] = stackLeftPadded(batch, l, true, maxPast);
+                pastValues[l] = stackLeftPadded(batch, l, false, maxPast);
+            }
+            outputs = run(inputIds, mask, positions, pastKeys, pastValues, 1, maxPast + 1, maxPast > 0);
+        } finally {
+            closeAll(inputIds, positions, mask);
+            // A single unpadded sequence is fed its own cache, which stays open until replaced below
+            if (size > 1 || maxPast > cacheLength(batch.get(0))) {
+                closeAll(pastKeys);
+                closeAll(pastValues);
+            }
+        }
+
+        try {
+            float[][] logits = new float[size][];
+            INDArray logitsArr = outputs.get(logitsOutput);
+            for (int b = 0; b < size; b++) {
+                Sequence sequence = batch.get(b);
+                long start = maxPast - cacheLength(sequence);
+                INDArray[] keys = new INDArray[keyInputs.length];
+                INDArray[] values = new INDArray[keyInputs.length];
+                for (int l = 0; l < keyInputs.length; l++) {
+                    keys[l] = sliceRow(outputs.get(keyOutputs[l]), b, start, maxPast + 1);
+                    values[l] = sliceRow(outputs.get(valueOutputs[l]), b, start, maxPast + 1);
+                }
+                Cache old = (Cache) sequence.getDecoderState();
+                if (old != null) old.close();
+                sequence.setDecoderState(new Cache(keys, values));
+                logits[b] = lastLogits(logitsArr, b);
+            }
+            return logits;
+        } finally {
+            closeAll(outputs.values().toArray(new INDArray[0]));
+        }
+    }
+
+    @Override
+    public void release(Sequence sequence) {
+        Cache cache = (Cache) sequence.getDecoderState();
+        if (cache != null) {
+            cache.close();
+        }
+        sequence.setDecoderState(null);
+    }
+
+    private Map<String, INDArray> run(INDArray inputIds, INDArray mask, INDArray positions,
+                                      INDArray[] pastKeys, INDArray[] pastValues,
+                                      long currentLen, long totalLen, boolean useCache) {
+        Map<String, INDArray> placeholders = new HashMap<>();
+        for (int l = 0; l < keyInputs.length; l++) {
+            placeholders.put(keyInputs[l], pastKeys[l]);
+            placeholders.put(valueInputs[l], pastValues[l]);
+        }
+        List<INDArray> created = new ArrayList<>(2);
+        try {
+            for (String input : sd.inputs()) {
+                if (ioConfig.isInputIds(input)) {
+                    placeholders.put(input, inputIds);
+                } else if (ioConfig.isAttentionMask(input)) {
+                    placeholders.put(input, mask);
+                } else if (ioConfig.isPositionIds(input)) {
+                    placeholders.put(input, positions);
+                } else if (ioConfig.isCausalMask(input)) {
+                    INDArray causal = DecoderInputBuilder.buildInGraphCausalMask(currentLen, totalLen, DataType.FLOAT);
+                    created.add(causal);
+                    placeholders.put(input, causal);
+                } else if (input.equals("use_cache_branch")) {
+                    INDArray flag = Nd4j.scalar(DataType.BOOL, useCache ? 1 : 0);
+                    created.add(flag);
+                    placeholders.put(input, flag);
+                }
+            }
+            return sd.output(placeholders, outputNames);
+        } finally {
+            closeAll(created.toArray(new INDArray[0]));
+        }
+    }
+
+    /**
+     * Concatenates layer {@code layer}'s cache of every sequence along the batch dimension,
+     * zero-padding shorter caches on the left to {@code maxPast} positions.
+     */
+    private INDArray stackLeftPadded(List<Sequence> batch, int layer, boolean key, long maxPast) {
+        INDArray[] rows = new INDArray[batch.size()];
+        for (int b = 0; b < rows.length; b++) {
+            Cache cache = (Cache) batch.get(b).getDecoderState();
+            INDArray row = key ? cache.keys[layer] : cache.values[layer];
+            long pad = maxPast - row.size(2);
+            if (pad == 0) {
+                rows[b] = row;
+            } else {
+                INDArray zeros = Nd4j.zeros(cacheType, 1, numHeads, pad, headDim);
+                rows[b] = Nd4j.concat(2, zeros, row);
+                zeros.close();
+            }
+        }
+        if (rows.length == 1) {
+            return rows[0];
+        }
+        INDArray stacked = Nd4j.concat(0, rows);
+        for (int b = 0; b < rows.length; b++) {
+            Cache cache = (Cache) batch.get(b).getDecoderState();
+            if (rows[b] != (key ? cache.keys[layer] : cache.values[layer])) {
+                rows[b].close();
+            }
+        }
+        return stacked;
+    }
+
+    private static INDArray sliceRow(INDArray arr, int row, long from, long to) {
+        return arr.get(NDArrayIndex.interval(row, row + 1), NDArrayIndex.all(),
+                NDArrayIndex.interval(from, to), NDArrayIndex.all()).dup();
+    }
+
+    private static float[] lastLogits(INDArray logits, int row) {
+        long seqLen = logits.size(1);
+        INDArray last = logits.get(NDArrayIndex.point(row), NDArrayIndex.point(seqLen - 1), NDArrayIndex.all());
+        if (last.dataType() == DataType.FLOAT) {
+            return last.toFloatVector();
+        }
+        INDArray cast = last.castTo(DataType.FLOAT);
+        try {
+            return cast.toFloatVector();
+        } finally {
+            cast.close();
+        }
+    }
+
+    /**
+     * Closes arrays this decoder allocated; views and nulls are skipped.
+     */
+    private static void closeAll(INDArray... arrays) {
+        for (INDArray array : arrays) {
+            if (array != null && !array.isView() && !array.wasClosed()) {
+                array.close();
+            }
+        }
+    }
+
+    private static long cacheLength(Sequence sequence) {
+        return ((Cache) sequence.getDecoderState()).keys[0].size(2);
+    }
+}
@@ -0,0 +1,22 @@
+package ai.kompile.serving.openai.batching;
+
+/**
+ * Per-request sampling settings applied by {@link TokenSampler}.
+ *
+ * @param temperature       softmax temperature; {@code <= 0} selects greedy decoding
+ * @param topK              keep only the {@code topK} most likely tokens ({@code <= 0} disables)
+ * @param topP              nucleus cut-off in {@code (0, 1]} ({@code >= 1} disables)
+ * @param repetitionPenalty penalty for tokens already in the sequence ({@code 1} disables)
+ * @param seed              random seed, or {@code null} for a random one
+ */
+public record SamplingParams(double temperature, int topK, double topP,
+                             double repetitionPenalty, Long seed) {
+
+    public static SamplingParams greedy() {
+        return new SamplingParams(0, 0, 1.0, 1.0, null);
+    }
+
+    public boolean isGreedy() {
+        return temperature <= 0;
+    }
+}
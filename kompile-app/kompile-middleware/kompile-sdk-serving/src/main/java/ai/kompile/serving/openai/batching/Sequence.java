@@ -0,0 +1,158 @@
+package ai.kompile.serving.openai.batching;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * One generation request as tracked by {@link ContinuousBatchScheduler}: the prompt, the
+ * tokens generated so far, its KV-block reservation and the decoder's cache state.
+ * <p>
+ * Returned from {@link ContinuousBatchScheduler#submit} as the handle for cancellation;
+ * everything else is owned by the scheduler thread.
+ */
+public final class Sequence {
+
+    public enum FinishReason {
+        /** The model produced its end-of-sequence token. */
+        STOP,
+        /** The {@code maxTokens} limit was reached. */
+        LENGTH,
+        /** The caller cancelled, or the scheduler shut down. */
+        CANCELLED
+    }
+
+    private final long id;
+    private final int[] promptTokens;
+    private final int maxTokens;
+    private final SamplingParams sampling;
+    private final SequenceListener listener;
+    private final int kvBlocks;
+    private final Random random;
+
+    private int[] generated;
+    private int generatedCount;
+    private Object decoderState;
+    private volatile boolean cancelled;
+
+    // Incremental detokenization window: text is emitted once decode(prefix..end)
+    // extends decode(prefix..read) with complete characters.
+    private int prefixOffset;
+    private int readOffset;
+
+    Sequence(long id, int[] promptTokens, int maxTokens, SamplingParams sampling,
+             SequenceListener listener, int kvBlocks) {
+        this.id = id;
+        this.promptTokens = promptTokens;
+        this.maxTokens = maxTokens;
+        this.sampling = sampling;
+        this.listener = listener;
+        this.kvBlocks = kvBlocks;
+        this.random = sampling.seed() != null ? new Random(sampling.seed()) : new Random();
+        this.generated = new int[Math.min(Math.max(maxTokens, 1), 256)];
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int[] getPromptTokens() {
+        return promptTokens;
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    public SamplingParams getSampling() {
+        return sampling;
+    }
+
+    public int getGeneratedCount() {
+        return generatedCount;
+    }
+
+    public int[] getGeneratedTokens() {
+        return Arrays.copyOf(generated, generatedCount);
+    }
+
+    /**
+     * The token to feed into the next decode step.
+     */
+    public int lastToken() {
+        return generatedCount > 0 ? generated[generatedCount - 1] : promptTokens[promptTokens.length - 1];
+    }
+
+    /**
+     * Number of positions currently held in the KV cache, i.e. prompt plus generated
+     * tokens minus the one still waiting to be fed.
+     */
+    public int cachedLength() {
+        return promptTokens.length + Math.max(0, generatedCount - 1);
+    }
+
+    public Object getDecoderState() {
+        return decoderState;
+    }
+
+    public void setDecoderState(Object decoderState) {
+        this.decoderState = decoderState;
+    }
+
+    /**
+     * Requests cancellation. The sequence leaves the batch before the next decode step and
+     * its listener sees {@link FinishReason#CANCELLED}.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    int getKvBlocks() {
+        return kvBlocks;
+    }
+
+    SequenceListener getListener() {
+        return listener;
+    }
+
+    Random getRandom() {
+        return random;
+    }
+
+    /**
+     * Token at {@code index} in prompt-then-generated order.
+     */
+    int tokenAt(int index) {
+        return index < promptTokens.length ? promptTokens[index] : generated[index - promptTokens.length];
+    }
+
+    int totalLength() {
+        return promptTokens.length + generatedCount;
+    }
+
+    void append(int token) {
+        if (generatedCount == generated.length) {
+            generated = Arrays.copyOf(generated, generated.length * 2);
+        }
+        generated[generatedCount++] = token;
+    }
+
+    /**
+     * Returns the text added by the tokens generated since the last call, or an empty
+     * string while the tail is an incomplete multi-byte character.
+     */
+    String nextText(BatchDecoder decoder) {
+        String prefix = prefixOffset == readOffset ? ""
+                : decoder.decode(Arrays.copyOfRange(generated, prefixOffset, readOffset));
+        String text = decoder.decode(Arrays.copyOfRange(generated, prefixOffset, generatedCount));
+        if (text.length() > prefix.length() && !text.endsWith("\uFFFD")) {
+            prefixOffset = readOffset;
+            readOffset = generatedCount;
+            return text.startsWith(prefix) ? text.substring(prefix.length()) : text;
+        }
+        return "";
+    }
+}
@@ -0,0 +1,26 @@
+package ai.kompile.serving.openai.batching;
+
+/**
+ * Receives the output of one {@link Sequence}.
+ * <p>
+ * Callbacks run on the scheduler thread between decode steps, so they must only hand the
+ * data off (e.g. to a Vert.x context) and return; blocking here stalls every active
+ * sequence. Exactly one of {@link #onComplete} or {@link #onError} is called last.
+ */
+public interface SequenceListener {
+
+    /**
+     * Called with each newly decoded piece of text, in order.
+     */
+    void onToken(String text);
+
+    /**
+     * Called once when the sequence finishes normally or is cancelled.
+     */
+    void onComplete(Sequence.FinishReason reason, int promptTokens, int completionTokens);
+
+    /**
+     * Called once if the decoder failed for this sequence.
+     */
+    void onError(Throwable error);
+}
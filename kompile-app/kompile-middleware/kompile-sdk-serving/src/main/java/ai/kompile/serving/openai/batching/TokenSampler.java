@@ -0,0 +1,151 @@
+package ai.kompile.serving.openai.batching;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Picks the next token from a row of logits using a sequence's {@link SamplingParams}:
+ * repetition penalty, then greedy argmax or temperature / top-k / top-p sampling.
+ * <p>
+ * Candidates are handled as packed {@code long}s (order-preserving float bits in the high
+ * word, token id in the low word) so top-k selection and sorting stay on primitive arrays.
+ */
+final class TokenSampler {
+
+    private TokenSampler() {}
+
+    static int sample(float[] logits, Sequence sequence) {
+        SamplingParams params = sequence.getSampling();
+        if (params.repetitionPenalty() != 1.0) {
+            applyRepetitionPenalty(logits, sequence, (float) params.repetitionPenalty());
+        }
+        if (params.isGreedy()) {
+            return argMax(logits);
+        }
+
+        int k = params.topK() > 0 ? Math.min(params.topK(), logits.length) : logits.length;
+        long[] candidates = k < logits.length ? topK(logits, k) : packAll(logits);
+        Arrays.sort(candidates);
+
+        // Softmax over the candidates, highest logit last
+        double temperature = params.temperature();
+        double max = logits[tokenOf(candidates[candidates.length - 1])];
+        double[] probs = new double[candidates.length];
+        double total = 0;
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            double p = Math.exp((logits[tokenOf(candidates[i])] - max) / temperature);
+            probs[i] = p;
+            total += p;
+        }
+
+        // Nucleus cut-off: keep the most likely tokens until their mass reaches topP
+        int first = 0;
+        if (params.topP() < 1.0) {
+            double cumulative = 0;
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                cumulative += probs[i] / total;
+                if (cumulative >= params.topP()) {
+                    first = i;
+                    break;
+                }
+            }
+            total = 0;
+            for (int i = first; i < candidates.length; i++) {
+                total += probs[i];
+            }
+        }
+
+        Random random = sequence.getRandom();
+        double r = random.nextDouble() * total;
+        for (int i = candidates.length - 1; i > first; i--) {
+            r -= probs[i];
+            if (r < 0) {
+                return tokenOf(candidates[i]);
+            }
+        }
+        return tokenOf(candidates[first]);
+    }
+
+    static int argMax(float[] logits) {
+        int best = 0;
+        for (int i = 1; i < logits.length; i++) {
+            if (logits[i] > logits[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static void applyRepetitionPenalty(float[] logits, Sequence sequence, float penalty) {
+        BitSet seen = new BitSet(logits.length);
+        for (int i = 0, n = sequence.totalLength(); i < n; i++) {
+            int token = sequence.tokenAt(i);
+            if (token < 0 || token >= logits.length || seen.get(token)) {
+                continue;
+            }
+            seen.set(token);
+            logits[token] = logits[token] > 0 ? logits[token] / penalty : logits[token] * penalty;
+        }
+    }
+
+    /**
+     * Returns the {@code k} largest logits, packed, in no particular order, using a
+     * size-{@code k} min-heap.
+     */
+    private static long[] topK(float[] logits, int k) {
+        long[] heap = new long[k];
+        for (int i = 0; i < k; i++) {
+            heap[i] = pack(logits[i], i);
+        }
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, k);
+        }
+        for (int i = k; i < logits.length; i++) {
+            long candidate = pack(logits[i], i);
+            if (candidate > heap[0]) {
+                heap[0] = candidate;
+                siftDown(heap, 0, k);
+            }
+        }
+        return heap;
+    }
+
+    private static void siftDown(long[] heap, int i, int size) {
+        long value = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= value) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    private static long[] packAll(float[] logits) {
+        long[] packed = new long[logits.length];
+        for (int i = 0; i < logits.length; i++) {
+            packed[i] = pack(logits[i], i);
+        }
+        return packed;
+    }
+
+    private static long pack(float logit, int token) {
+        int bits = Float.floatToIntBits(logit);
+        // Flip the magnitude bits of negatives so signed int order matches float order
+        bits ^= (bits >> 31) & 0x7fffffff;
+        return ((long) bits << 32) | (token & 0xFFFFFFFFL);
+    }
+
+    private static int tokenOf(long packed) {
+        return (int) packed;
+    }
+}
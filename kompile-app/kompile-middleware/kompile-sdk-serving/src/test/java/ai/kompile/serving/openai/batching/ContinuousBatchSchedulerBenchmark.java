@@ -0,0 +1,194 @@
+package ai.kompile.serving.openai.batching;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures generated tokens per second through {@link ContinuousBatchScheduler} as the
+ * number of concurrent requests grows, with {@code maxBatchSize=1} as the one-at-a-time
+ * baseline.
+ * <p>
+ * The decoder is simulated: every forward pass costs a fixed overhead plus a small
+ * per-sequence cost, the shape of a memory-bound decode step where reading the weights
+ * dominates. The {@code tokens} counter in the output is the throughput to compare.
+ * <p>
+ * Run from the test classpath via {@link #main(String[])} or
+ * {@code org.openjdk.jmh.Main ContinuousBatchSchedulerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ContinuousBatchSchedulerBenchmark {
+
+    private static final int VOCAB_SIZE = 256;
+    private static final int EOS_TOKEN = 0;
+
+    @Param({"1", "32"})
+    public int maxBatchSize;
+
+    @Param({"1", "4", "16", "32"})
+    public int concurrency;
+
+    @Param({"64"})
+    public int tokensPerRequest;
+
+    @Param({"2000"})
+    public long stepOverheadMicros;
+
+    @Param({"50"})
+    public long perSequenceMicros;
+
+    private ContinuousBatchScheduler scheduler;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class TokenCounter {
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokens = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        scheduler = new ContinuousBatchScheduler(
+                new SimulatedDecoder(stepOverheadMicros, perSequenceMicros),
+                maxBatchSize, new KvBlockPool(16, 4096));
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    /**
+     * Submits {@code concurrency} requests at once and waits for all of them.
+     */
+    @Benchmark
+    public void concurrentRequests(TokenCounter counter) throws Exception {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        SequenceListener listener = new SequenceListener() {
+            @Override
+            public void onToken(String text) {
+            }
+
+            @Override
+            public void onComplete(Sequence.FinishReason reason, int promptTokens, int completionTokens) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                failure.set(error);
+                done.countDown();
+            }
+        };
+        for (int i = 0; i < concurrency; i++) {
+            scheduler.submit("benchmark prompt " + i, tokensPerRequest, SamplingParams.greedy(), listener);
+        }
+        done.await();
+        if (failure.get() != null) {
+            throw new IllegalStateException(failure.get());
+        }
+        counter.tokens += (long) concurrency * tokensPerRequest;
+    }
+
+    /**
+     * Spins for {@code overhead + batch * perSequence} microseconds per forward pass and
+     * always predicts a non-EOS token, so every request runs to {@code maxTokens}.
+     */
+    static final class SimulatedDecoder implements BatchDecoder {
+        private final long overheadNanos;
+        private final long perSequenceNanos;
+
+        SimulatedDecoder(long overheadMicros, long perSequenceMicros) {
+            this.overheadNanos = TimeUnit.MICROSECONDS.toNanos(overheadMicros);
+            this.perSequenceNanos = TimeUnit.MICROSECONDS.toNanos(perSequenceMicros);
+        }
+
+        @Override
+        public int[] encode(String prompt) {
+            int[] tokens = new int[prompt.length()];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = 1 + prompt.charAt(i) % (VOCAB_SIZE - 1);
+            }
+            return tokens;
+        }
+
+        @Override
+        public String decode(int[] tokenIds) {
+            char[] chars = new char[tokenIds.length];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (char) ('a' + tokenIds[i] % 26);
+            }
+            return new String(chars);
+        }
+
+        @Override
+        public int eosTokenId() {
+            return EOS_TOKEN;
+        }
+
+        @Override
+        public float[] prefill(Sequence sequence) {
+            spin(overheadNanos + perSequenceNanos);
+            return logitsFor(sequence);
+        }
+
+        @Override
+        public float[][] step(List<Sequence> batch) {
+            spin(overheadNanos + perSequenceNanos * batch.size());
+            float[][] logits = new float[batch.size()][];
+            for (int i = 0; i < logits.length; i++) {
+                logits[i] = logitsFor(batch.get(i));
+            }
+            return logits;
+        }
+
+        private static float[] logitsFor(Sequence sequence) {
+            float[] logits = new float[VOCAB_SIZE];
+            Arrays.fill(logits, -1f);
+            logits[1 + (sequence.lastToken() + 1) % (VOCAB_SIZE - 1)] = 1f;
+            return logits;
+        }
+
+        private static void spin(long nanos) {
+            long deadline = System.nanoTime() + nanos;
+            while (System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ContinuousBatchSchedulerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
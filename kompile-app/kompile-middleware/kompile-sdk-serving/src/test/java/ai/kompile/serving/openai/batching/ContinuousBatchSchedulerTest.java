@@ -0,0 +1,321 @@
+package ai.kompile.serving.openai.batching;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour tests for {@link ContinuousBatchScheduler} against a scripted decoder:
+ * completion reasons, admission by batch size and KV blocks, sequences joining and leaving
+ * mid-flight, cancellation and shutdown.
+ */
+class ContinuousBatchSchedulerTest {
+
+    private static final int EOS = 0;
+    private static final int TOKEN = 1;
+
+    private ContinuousBatchScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    void finishesWithStopOnEosAndLengthAtMaxTokens() throws Exception {
+        scheduler = new ContinuousBatchScheduler(new ScriptedDecoder(), 4, new KvBlockPool(16, 1024));
+
+        Result stop = submit(prompt(3), 10);
+        Result length = submit(prompt(100), 2);
+
+        assertEquals(new Completion(Sequence.FinishReason.STOP, 1, 3), stop.await());
+        assertEquals("xxx", stop.text());
+        assertEquals(new Completion(Sequence.FinishReason.LENGTH, 1, 2), length.await());
+    }
+
+    @Test
+    void batchNeverExceedsMaxBatchSize() throws Exception {
+        ScriptedDecoder decoder = new ScriptedDecoder();
+        decoder.holdPrefill();
+        scheduler = new ContinuousBatchScheduler(decoder, 2, new KvBlockPool(16, 1024));
+
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(submit(prompt(4), 10));
+        }
+        decoder.releasePrefill();
+
+        for (Result result : results) {
+            assertEquals(Sequence.FinishReason.STOP, result.await().reason());
+        }
+        assertEquals(2, decoder.maxStepSize());
+    }
+
+    @Test
+    void admissionWaitsForKvBlocksAndReturnsThem() throws Exception {
+        ScriptedDecoder decoder = new ScriptedDecoder();
+        decoder.holdPrefill();
+        // Each request needs ceil((1 + 6) / 4) = 2 of the 3 blocks, so only one fits at a time
+        KvBlockPool pool = new KvBlockPool(4, 3);
+        scheduler = new ContinuousBatchScheduler(decoder, 4, pool);
+
+        Result first = submit(prompt(5), 6);
+        Result second = submit(prompt(5), 6);
+        decoder.releasePrefill();
+
+        first.await();
+        second.await();
+        assertEquals(1, decoder.maxStepSize());
+        assertEquals(3, pool.freeBlocks());
+    }
+
+    @Test
+    void requestLargerThanThePoolIsRejected() {
+        scheduler = new ContinuousBatchScheduler(new ScriptedDecoder(), 4, new KvBlockPool(4, 2));
+
+        assertThrows(IllegalArgumentException.class, () -> submit(prompt(1), 8));
+    }
+
+    @Test
+    void finishedSequencesLeaveAndWaitingOnesJoinMidFlight() throws Exception {
+        ScriptedDecoder decoder = new ScriptedDecoder();
+        decoder.holdPrefill();
+        scheduler = new ContinuousBatchScheduler(decoder, 2, new KvBlockPool(16, 1024));
+
+        Result shortOne = submit(prompt(1), 10);
+        Result longOne = submit(prompt(8), 10);
+        Result late = submit(prompt(8), 10);
+        decoder.releasePrefill();
+
+        shortOne.await();
+        longOne.await();
+        late.await();
+        long shortId = shortOne.sequence.getId();
+        long longId = longOne.sequence.getId();
+        long lateId = late.sequence.getId();
+        assertTrue(decoder.steps().stream().noneMatch(step -> step.contains(shortId) && step.contains(lateId)),
+                "the late request only joins once the short one has left");
+        assertTrue(decoder.steps().stream().anyMatch(step -> step.contains(longId) && step.contains(lateId)),
+                "the late request shares steps with the one still running");
+    }
+
+    @Test
+    void cancelledSequenceLeavesTheBatchAndReleasesItsState() throws Exception {
+        ScriptedDecoder decoder = new ScriptedDecoder();
+        KvBlockPool pool = new KvBlockPool(1024, 1024);
+        scheduler = new ContinuousBatchScheduler(decoder, 4, pool);
+
+        CountDownLatch firstToken = new CountDownLatch(1);
+        Result endless = new Result() {
+            @Override
+            public void onToken(String text) {
+                super.onToken(text);
+                firstToken.countDown();
+            }
+        };
+        endless.sequence = scheduler.submit(prompt(Integer.MAX_VALUE), 100_000, SamplingParams.greedy(), endless);
+        assertTrue(firstToken.await(10, TimeUnit.SECONDS));
+
+        endless.sequence.cancel();
+
+        assertEquals(Sequence.FinishReason.CANCELLED, endless.await().reason());
+        assertTrue(decoder.released().contains(endless.sequence.getId()));
+        assertNull(endless.sequence.getDecoderState());
+        assertEquals(1024, pool.freeBlocks());
+    }
+
+    @Test
+    void throwingListenerCancelsOnlyItsSequence() throws Exception {
+        scheduler = new ContinuousBatchScheduler(new ScriptedDecoder(), 4, new KvBlockPool(16, 1024));
+
+        Result failing = new Result() {
+            @Override
+            public void onToken(String text) {
+                throw new IllegalStateException("client gone");
+            }
+        };
+        failing.sequence = scheduler.submit(prompt(50), 100, SamplingParams.greedy(), failing);
+        Result healthy = submit(prompt(5), 100);
+
+        assertEquals(Sequence.FinishReason.CANCELLED, failing.await().reason());
+        assertEquals(new Completion(Sequence.FinishReason.STOP, 1, 5), healthy.await());
+    }
+
+    @Test
+    void decoderFailureIsReportedToTheSequence() throws Exception {
+        ScriptedDecoder decoder = new ScriptedDecoder();
+        decoder.failPrefill = true;
+        scheduler = new ContinuousBatchScheduler(decoder, 4, new KvBlockPool(16, 1024));
+
+        Result result = submit(prompt(3), 10);
+
+        ExecutionException e = assertThrows(ExecutionException.class, result::await);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void closeCancelsWaitingSequencesAndRejectsNewOnes() throws Exception {
+        ScriptedDecoder decoder = new ScriptedDecoder();
+        decoder.holdPrefill();
+        scheduler = new ContinuousBatchScheduler(decoder, 1, new KvBlockPool(1024, 1024));
+
+        Result admitted = submit(prompt(Integer.MAX_VALUE), 100_000);
+        Result waiting = submit(prompt(3), 10);
+        CompletableFuture<Void> closing = CompletableFuture.runAsync(scheduler::close);
+        decoder.releasePrefill();
+        closing.get(30, TimeUnit.SECONDS);
+
+        assertEquals(Sequence.FinishReason.CANCELLED, admitted.await().reason());
+        assertEquals(Sequence.FinishReason.CANCELLED, waiting.await().reason());
+        assertThrows(IllegalStateException.class, () -> submit(prompt(3), 10));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * The first prompt token is the number of tokens the decoder generates before EOS.
+     */
+    private static int[] prompt(int tokensBeforeEos) {
+        return new int[]{tokensBeforeEos};
+    }
+
+    private Result submit(int[] prompt, int maxTokens) {
+        Result result = new Result();
+        result.sequence = scheduler.submit(prompt, maxTokens, SamplingParams.greedy(), result);
+        return result;
+    }
+
+    record Completion(Sequence.FinishReason reason, int promptTokens, int completionTokens) {
+    }
+
+    static class Result implements SequenceListener {
+        final CompletableFuture<Completion> done = new CompletableFuture<>();
+        final StringBuilder text = new StringBuilder();
+        volatile Sequence sequence;
+
+        @Override
+        public void onToken(String token) {
+            text.append(token);
+        }
+
+        @Override
+        public void onComplete(Sequence.FinishReason reason, int promptTokens, int completionTokens) {
+            done.complete(new Completion(reason, promptTokens, completionTokens));
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            done.completeExceptionally(error);
+        }
+
+        Completion await() throws Exception {
+            return done.get(10, TimeUnit.SECONDS);
+        }
+
+        String text() {
+            return text.toString();
+        }
+    }
+
+    /**
+     * Emits {@link #TOKEN} until a sequence has generated as many tokens as its first prompt
+     * token says, then EOS. Records the ids in every step and every released sequence.
+     */
+    private static final class ScriptedDecoder implements BatchDecoder {
+        private final List<List<Long>> steps = Collections.synchronizedList(new ArrayList<>());
+        private final List<Long> released = Collections.synchronizedList(new ArrayList<>());
+        private volatile CountDownLatch prefillGate = new CountDownLatch(0);
+        volatile boolean failPrefill;
+
+        void holdPrefill() {
+            prefillGate = new CountDownLatch(1);
+        }
+
+        void releasePrefill() {
+            prefillGate.countDown();
+        }
+
+        List<List<Long>> steps() {
+            synchronized (steps) {
+                return new ArrayList<>(steps);
+            }
+        }
+
+        List<Long> released() {
+            synchronized (released) {
+                return new ArrayList<>(released);
+            }
+        }
+
+        int maxStepSize() {
+            return steps().stream().mapToInt(List::size).max().orElse(0);
+        }
+
+        @Override
+        public int[] encode(String prompt) {
+            return prompt.chars().toArray();
+        }
+
+        @Override
+        public String decode(int[] tokenIds) {
+            return "x".repeat(tokenIds.length);
+        }
+
+        @Override
+        public int eosTokenId() {
+            return EOS;
+        }
+
+        @Override
+        public float[] prefill(Sequence sequence) {
+            try {
+                prefillGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failPrefill) {
+                throw new IllegalStateException("prefill failed");
+            }
+            sequence.setDecoderState(sequence.getId());
+            return next(sequence);
+        }
+
+        @Override
+        public float[][] step(List<Sequence> batch) {
+            List<Long> ids = new ArrayList<>(batch.size());
+            float[][] logits = new float[batch.size()][];
+            for (int i = 0; i < batch.size(); i++) {
+                ids.add(batch.get(i).getId());
+                logits[i] = next(batch.get(i));
+            }
+            steps.add(ids);
+            return logits;
+        }
+
+        @Override
+        public void release(Sequence sequence) {
+            released.add(sequence.getId());
+            sequence.setDecoderState(null);
+        }
+
+        private static float[] next(Sequence sequence) {
+            float[] logits = new float[2];
+            int target = sequence.getGeneratedCount() < sequence.getPromptTokens()[0] ? TOKEN : EOS;
+            logits[target] = 1f;
+            return logits;
+        }
+    }
+}
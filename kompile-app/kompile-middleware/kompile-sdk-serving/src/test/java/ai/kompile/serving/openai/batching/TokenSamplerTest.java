@@ -0,0 +1,90 @@
+package ai.kompile.serving.openai.batching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TokenSampler}: greedy choice, repetition penalty, top-k / top-p
+ * filtering, temperature sampling and seeding.
+ */
+class TokenSamplerTest {
+
+    @Test
+    void greedyPicksTheLargestLogit() {
+        assertEquals(2, sample(new float[]{0.1f, -3f, 4f, 3.9f}, SamplingParams.greedy()));
+        assertEquals(1, sample(new float[]{-3f, -1f, -2f}, SamplingParams.greedy()));
+    }
+
+    @Test
+    void repetitionPenaltyDemotesTokensAlreadySeen() {
+        // Token 0 is in the prompt: 2.0 / 2 = 1.0 drops below token 1
+        assertEquals(1, sample(new float[]{2f, 1.9f}, new SamplingParams(0, 0, 1.0, 2.0, null), 0));
+        // Negative logits are multiplied, so a seen token moves further down
+        float[] logits = {-1f, -1.5f};
+        assertEquals(1, sample(logits, new SamplingParams(0, 0, 1.0, 2.0, null), 0));
+        assertEquals(-2f, logits[0]);
+    }
+
+    @Test
+    void topKOfOneIsGreedyWhateverTheTemperature() {
+        float[] logits = {-5f, -0.5f, -2f, -1f};
+        for (long seed = 0; seed < 50; seed++) {
+            assertEquals(1, sample(logits.clone(), new SamplingParams(5.0, 1, 1.0, 1.0, seed)));
+        }
+    }
+
+    @Test
+    void topKOnlySamplesAmongTheLargestLogits() {
+        float[] logits = {0f, 3f, -1f, 2.5f, 1f, -4f};
+        for (long seed = 0; seed < 200; seed++) {
+            int token = sample(logits.clone(), new SamplingParams(10.0, 2, 1.0, 1.0, seed));
+            assertTrue(Set.of(1, 3).contains(token), "sampled " + token);
+        }
+    }
+
+    @Test
+    void topPKeepsTheSmallestSetReachingTheMass() {
+        // Probabilities at temperature 1 are roughly 0.66, 0.24, 0.09, 0.01
+        float[] logits = {(float) Math.log(66), (float) Math.log(24), (float) Math.log(9), 0f};
+        for (long seed = 0; seed < 200; seed++) {
+            assertEquals(0, sample(logits.clone(), new SamplingParams(1.0, 0, 0.5, 1.0, seed)));
+            int token = sample(logits.clone(), new SamplingParams(1.0, 0, 0.8, 1.0, seed));
+            assertTrue(token == 0 || token == 1, "sampled " + token);
+        }
+    }
+
+    @Test
+    void temperatureSamplingFollowsTheSoftmax() {
+        // exp(0) : exp(ln 3) = 1 : 3
+        float[] logits = {0f, (float) Math.log(3)};
+        Sequence sequence = sequence(new SamplingParams(1.0, 0, 1.0, 1.0, 42L));
+        int ones = 0;
+        int n = 20_000;
+        for (int i = 0; i < n; i++) {
+            ones += TokenSampler.sample(logits.clone(), sequence);
+        }
+        assertEquals(0.75, (double) ones / n, 0.02);
+    }
+
+    @Test
+    void seededSequencesSampleTheSameTokens() {
+        float[] logits = {0.3f, 0.1f, 0.2f, 0.25f, 0.15f};
+        SamplingParams params = new SamplingParams(1.0, 0, 1.0, 1.0, 7L);
+        Sequence a = sequence(params);
+        Sequence b = sequence(params);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(TokenSampler.sample(logits.clone(), a), TokenSampler.sample(logits.clone(), b));
+        }
+    }
+
+    private static int sample(float[] logits, SamplingParams params, int... prompt) {
+        return TokenSampler.sample(logits, sequence(params, prompt));
+    }
+
+    private static Sequence sequence(SamplingParams params, int... prompt) {
+        return new Sequence(1, prompt.length == 0 ? new int[]{-1} : prompt, 16, params, null, 1);
+    }
+}
@@ -20,6 +20,7 @@ import io.anserini.search.BaseDenseSearcher;
 import io.anserini.search.FlatDenseSearcher;
 import io.anserini.search.HnswDenseSearcher;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.index.IndexReader;
 
 /**
  * Factory class for creating appropriate Anserini searchers based on configuration.
@@ -48,16 +49,38 @@ public class AnseriniSearcherFactory {
         }
     }
 
+    /**
+     * Creates a dense searcher over an externally managed reader. Used by
+     * {@link DenseSearcherManager}, which owns the reader's reference count;
+     * closing the returned searcher does not close the reader.
+     *
+     * @param properties Anserini vector store properties
+     * @param reader     Reader snapshot to search
+     * @return Configured dense searcher bound to {@code reader}
+     */
+    public static BaseDenseSearcher<String> createSearcher(
+            AnseriniVectorStoreProperties properties,
+            IndexReader reader) {
+        if (properties.getHnsw().isEnabled()) {
+            HnswDenseSearcher.Args args = new HnswDenseSearcher.Args();
+            args.efSearch = properties.getHnsw().getEfSearch();
+            return new HnswDenseSearcher<>(args, reader);
+        }
+        return new FlatDenseSearcher<>(new FlatDenseSearcher.Args(), reader);
+    }
+
     private static HnswDenseSearcher<String> createHnswSearcher(
             AnseriniVectorStoreProperties properties, 
             String indexPath) throws Exception {
         
         HnswDenseSearcher.Args args = new HnswDenseSearcher.Args();
         args.index = indexPath;
+        args.efSearch = properties.getHnsw().getEfSearch();
         
-        log.debug("HNSW searcher configuration - M: {}, efConstruction: {}", 
+        log.debug("HNSW searcher configuration - M: {}, efConstruction: {}, efSearch: {}", 
                 properties.getHnsw().getM(), 
-                properties.getHnsw().getEfConstruction());
+                properties.getHnsw().getEfConstruction(),
+                properties.getHnsw().getEfSearch());
         
         return new HnswDenseSearcher<>(args);
     }
@@ -20,31 +20,46 @@ import ai.kompile.core.embeddings.ScoredDocument;
 import ai.kompile.core.embeddings.VectorStore;
 import ai.kompile.core.freshness.DocumentFreshnessScorer;
 import ai.kompile.core.reranking.RerankerConfig;
+import ai.kompile.core.reranking.RerankerContext;
 import ai.kompile.core.reranking.RerankerService;
 import ai.kompile.core.reranking.RerankerType;
+import ai.kompile.vectorstore.anserini.hydration.LazyMetadataDocument;
+import ai.kompile.vectorstore.anserini.hydration.LazyMetadataMap;
+import ai.kompile.vectorstore.anserini.hydration.ProjectedHit;
+import ai.kompile.vectorstore.anserini.hydration.SegmentMetadataCache;
 import io.anserini.index.Constants;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import io.anserini.search.BaseDenseSearcher;
-import io.anserini.search.FlatDenseSearcher;
-import io.anserini.search.HnswDenseSearcher;
 import io.anserini.search.ScoredDoc;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.document.BinaryDocValuesField;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
 import org.apache.lucene.document.KnnFloatVectorField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.BinaryDocValues;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FloatVectorValues;
 import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.util.Bits;
+import ai.kompile.vectorstore.anserini.util.MetadataFields;
 import ai.kompile.vectorstore.anserini.util.NativeCompatibleDirectoryFactory;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
@@ -57,7 +72,6 @@ import org.springframework.beans.factory.DisposableBean;
 import ai.kompile.cli.common.util.JsonUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -66,10 +80,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import org.apache.lucene.index.IndexableField;
 
@@ -108,7 +129,6 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
     private Directory directory;
     private IndexWriter indexWriter;
     private IndexReader cachedReader; // Cached reader for document retrieval
-    private BaseDenseSearcher<String> searcher;
     private final Object writerLock = new Object();
     private final Object readerLock = new Object();
     private volatile boolean shuttingDown = false;
@@ -116,11 +136,21 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
     private final AtomicBoolean destroyed = new AtomicBoolean(false);
     private Thread shutdownHook;
 
-    // PERFORMANCE: Track if searcher needs refresh (lazy refresh pattern)
-    // Instead of refreshing searcher after every commit (expensive: 5-50ms each),
-    // we mark it as stale and only refresh when a search is actually performed.
-    // This eliminates unnecessary IndexReader creation during bulk indexing.
-    private volatile boolean searcherNeedsRefresh = false;
+    // PERFORMANCE: Near-real-time searcher management
+    // Searches acquire a ref-counted searcher from the manager without taking a
+    // lock, and reopening runs on the manager's background scheduler (bounded by
+    // searcher-max-staleness-ms) instead of on the query path. Commits only
+    // request an asynchronous refresh, so bulk indexing never waits for a reopen.
+    private volatile DenseSearcherManager searcherManager;
+    private final Object searcherManagerLock = new Object();
+
+    // Bounded pool used by batchSimilaritySearch to fan out k-NN queries.
+    // Created lazily on the first multi-query batch and shut down in doDestroy().
+    private volatile ExecutorService batchSearchExecutor;
+
+    // Parsed 'metadata' JSON per segment docid, so repeated hydration of the same
+    // hits (reranking, follow-up queries) skips the Jackson parse.
+    private SegmentMetadataCache metadataCache;
 
     // PERFORMANCE: Batch commit tracking for bulk indexing
     // Instead of committing after every batch (expensive), we commit every N
@@ -154,6 +184,7 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
         this.properties = properties;
         this.embeddingModel = embeddingModel;
         this.rerankerService = rerankerService;
+        this.metadataCache = new SegmentMetadataCache(properties.getMetadataCacheSize());
 
         // CRITICAL FIX: Always ensure path uniqueness per JVM instance
         // Previous versions relied on Spring placeholders like ${random.uuid} which may
@@ -456,6 +487,49 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
 
     private void initializeIndexWriter() throws IOException {
         this.indexWriter = new IndexWriter(directory, AnseriniIndexUtils.createIndexWriterConfig(properties));
+        migrateMetadataFields();
+    }
+
+    /**
+     * Rewrites documents indexed before metadata keys were indexed so that source lookups
+     * and filtered searches can use term queries. Runs once per index; later opens find
+     * nothing to migrate.
+     */
+    private void migrateMetadataFields() {
+        try {
+            int migrated = MetadataFields.migrate(indexWriter, this::rebuildWithMetadataFields);
+            if (migrated > 0) {
+                log.info("Indexed metadata fields for {} existing documents in {}", migrated, indexPath);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to index metadata fields for existing documents in {}: {}", indexPath, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Document rebuildWithMetadataFields(LeafReader leaf, int docId, Document stored) throws IOException {
+        String id = stored.get("id");
+        String text = stored.get(Constants.CONTENTS);
+        FloatVectorValues vectors = leaf.getFloatVectorValues("vector");
+        if (text == null || vectors == null || vectors.advance(docId) != docId) {
+            return null;
+        }
+        Map<String, Object> metadata = new HashMap<>();
+        String metadataJson = stored.get("metadata");
+        if (metadataJson != null) {
+            try {
+                metadata = OBJECT_MAPPER.readValue(metadataJson, Map.class);
+            } catch (Exception e) {
+                log.debug("Skipping metadata migration for document {}: {}", id, e.getMessage());
+                return null;
+            }
+        }
+        try {
+            return createLuceneDocument(new org.springframework.ai.document.Document(id, text, metadata),
+                    vectors.vectorValue().clone());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /**
@@ -481,6 +555,7 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
             synchronized (readerLock) {
                 try {
                     // 1. Close existing resources
+                    closeSearcherManager();
                     if (indexWriter != null && indexWriter.isOpen()) {
                         indexWriter.close();
                     }
@@ -493,9 +568,6 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                         directory = null;
                     }
 
-                    searcher = null;
-                    searcherNeedsRefresh = false;
-
                     // 2. Update configuration
                     this.indexPath = newPath;
                     // Also update properties object so get methods return correct value
@@ -663,10 +735,9 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                             log.info("Successfully added {} documents to Anserini VectorStore", addedCount);
                         }
 
-                        // PERFORMANCE: Mark searcher as needing refresh instead of refreshing now.
-                        // The searcher will be lazily refreshed on the next search operation.
-                        // This eliminates 5-50ms overhead per batch during bulk indexing.
-                        searcherNeedsRefresh = true;
+                        // PERFORMANCE: Request an asynchronous searcher refresh instead of
+                        // reopening now. This eliminates 5-50ms overhead per batch during bulk indexing.
+                        requestSearcherRefresh();
                     } catch (Exception e) {
                         // IndexWriter might be closed during shutdown
                         if (shuttingDown || Thread.currentThread().isInterrupted()) {
@@ -884,7 +955,7 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                                 batchesSinceCommit, properties.getBatchCommitInterval(),
                                 documentsAddedSinceCommit, properties.getMaxDocumentsBeforeCommit());
                     }
-                    searcherNeedsRefresh = true;
+                    requestSearcherRefresh();
 
                     if (skippedCount > 0) {
                         log.info("Added {} documents (skipped {}), commit pending: {}",
@@ -962,7 +1033,7 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                     log.info("Forced commit: {} documents in {} batches",
                             documentsAddedSinceCommit, batchesSinceCommit);
                     resetCommitTracking();
-                    searcherNeedsRefresh = true;
+                    requestSearcherRefresh();
                     return true;
                 } catch (IOException e) {
                     log.error("Error during forced commit", e);
@@ -998,7 +1069,7 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                 // CRITICAL: Invalidate cached reader to force fresh reader on next access
                 // This ensures deleted documents are not returned in subsequent queries
                 invalidateCachedReader();
-                searcherNeedsRefresh = true;
+                requestSearcherRefresh();
                 return true;
 
             } catch (IOException e) {
@@ -1061,9 +1132,10 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
     }
 
     private List<org.springframework.ai.document.Document> performSearch(float[] queryVector, int k, double threshold) {
-        ensureSearcherInitialized();
-        if (searcher == null) {
-            log.warn("Searcher is null, cannot perform vector search. Index path: {}", indexPath);
+        DenseSearcherManager manager = getSearcherManager();
+        BaseDenseSearcher<String> snapshot = acquireSearcher(manager);
+        if (snapshot == null) {
+            log.warn("Searcher is unavailable, cannot perform vector search. Index path: {}", indexPath);
             return Collections.emptyList();
         }
 
@@ -1095,22 +1167,10 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
             }
 
             log.debug("Performing vector search: k={}, threshold={}, queryVectorDim={}, searcherType={}",
-                    k, threshold, queryVector.length, searcher.getClass().getSimpleName());
-
-            // BaseDenseSearcher does not expose search(float[], k) directly, but
-            // implementations do.
-            if (searcher instanceof HnswDenseSearcher) {
-                hits = ((HnswDenseSearcher<String>) searcher).search(queryVector, k);
-            } else if (searcher instanceof FlatDenseSearcher) {
-                hits = ((FlatDenseSearcher<String>) searcher).search(queryVector, k);
-            } else {
-                // Try direct Base call if it wasn't one of known types (unlikely given factory)
-                // If this fails compilation, we will need another strategy, but Hnsw/Flat
-                // covers 99% cases
-                // For now, allow failing if unknown type to avoid compilation error on base
-                log.warn("Unknown searcher type {}, cannot perform vector search.", searcher.getClass().getName());
-                return Collections.emptyList();
-            }
+                    k, threshold, queryVector.length, snapshot.getClass().getSimpleName());
+
+            // BaseDenseSearcher dispatches float[] queries to searchVector
+            hits = snapshot.search(null, queryVector, k);
 
             if (hits == null) {
                 log.info("Search returned null hits for query");
@@ -1151,7 +1211,7 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                         }
                         return hit.score >= threshold;
                     })
-                    .map(this::convertToSpringAiDocument)
+                    .map(hit -> convertToSpringAiDocument(hit, snapshot))
                     .collect(Collectors.toList());
 
             log.info("After threshold filtering: {} results (threshold={}, nanCount={})", results.size(), threshold,
@@ -1160,6 +1220,8 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
         } catch (Exception e) {
             log.error("Error during similarity search with vector", e);
             return Collections.emptyList();
+        } finally {
+            releaseSearcher(manager, snapshot);
         }
     }
 
@@ -1256,7 +1318,7 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
 
                 if (!interrupted && !shuttingDown && !Thread.currentThread().isInterrupted()) {
                     indexWriter.commit();
-                    searcherNeedsRefresh = true;
+                    requestSearcherRefresh();
                     if (skippedCount > 0) {
                         log.info("Added {} documents using bulk embeddings, skipped {}", addedCount, skippedCount);
                     } else {
@@ -1315,6 +1377,8 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                 log.warn("Failed to serialize metadata for document {}: {}", springDoc.getId(), e.getMessage());
             }
         }
+        // Indexed copies of selected keys for term lookups, facets and filtered kNN
+        MetadataFields.addTo(doc, springDoc.getMetadata());
 
         return doc;
     }
@@ -1331,55 +1395,75 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
         }
     }
 
-    private org.springframework.ai.document.Document convertToSpringAiDocument(ScoredDoc scoredDoc) {
+    /**
+     * Converts a hit to a Spring AI document. The hit must come from
+     * {@code snapshot}, so its lucene docid refers to the snapshot's reader.
+     */
+    private org.springframework.ai.document.Document convertToSpringAiDocument(ScoredDoc scoredDoc,
+            BaseDenseSearcher<String> snapshot) {
         try {
-            // Anserini stores the raw document in the 'raw' field or we can retrieve it
-            // BaseDenseSearcher<String> returns String IDs, but we need content.
-            // We can use the indexReader to get the document content if needed,
-            // or if Anserini returns enough info.
-            // For now, let's assume we can fetch the doc from Lucene index using the
-            // ID/Internal ID
-
-            // NOTE: This might be inefficient if performed one-by-one.
-            // Anserini's ScoredDoc usually includes docid, lucene_docid, score.
+            // Anserini's ScoredDoc usually already carries the loaded Lucene document;
+            // only fall back to a stored-fields read against the same snapshot
+            org.apache.lucene.document.Document luceneDoc = scoredDoc.lucene_document != null
+                    ? scoredDoc.lucene_document
+                    : snapshot.storedFields().document(scoredDoc.lucene_docid);
+
+            return buildSpringAiDocument(luceneDoc, snapshot.getIndexReader(), scoredDoc.lucene_docid,
+                    scoredDoc.score);
+        } catch (Exception e) {
+            log.error("Error converting ScoredDoc to Spring AI Document", e);
+            return new org.springframework.ai.document.Document(String.valueOf(scoredDoc.lucene_docid), "",
+                    Map.of("error", e.getMessage()));
+        }
+    }
 
-            org.apache.lucene.document.Document luceneDoc = getCachedReader().storedFields()
-                    .document(scoredDoc.lucene_docid);
+    /**
+     * Builds a Spring AI document from an already-loaded Lucene document.
+     * Shared by the single-query path and the batch path, which loads stored
+     * fields in bulk before calling this. {@code reader} is the reader the
+     * document was loaded from and keys the metadata cache.
+     */
+    private org.springframework.ai.document.Document buildSpringAiDocument(Document luceneDoc, IndexReader reader,
+            int luceneDocId, float score) {
+        if (luceneDoc == null) {
+            return new org.springframework.ai.document.Document(String.valueOf(luceneDocId), "",
+                    Map.of("score", score));
+        }
 
-            String id = luceneDoc.get(Constants.ID); // Changed from "id" to Constants.ID
-            String content = luceneDoc.get(Constants.CONTENTS); // Assuming standard field
-            if (content == null) {
-                content = luceneDoc.get("text"); // Fallback
-            }
+        String id = luceneDoc.get(Constants.ID); // Changed from "id" to Constants.ID
+        String content = luceneDoc.get(Constants.CONTENTS); // Assuming standard field
+        if (content == null) {
+            content = luceneDoc.get("text"); // Fallback
+        }
 
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("score", scoredDoc.score);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("score", score);
+        String metadataJson = null;
 
-            for (IndexableField field : luceneDoc.getFields()) {
-                if (!field.name().equals(Constants.ID) && !field.name().equals(Constants.CONTENTS)
-                        && !field.name().equals("text")) {
-                    // Attempt to parse metadata JSON if it's the 'metadata' field
-                    if (field.name().equals("metadata") && field.stringValue() != null) {
-                        try {
-                            @SuppressWarnings("unchecked")
-                            Map<String, Object> parsedMetadata = OBJECT_MAPPER.readValue(field.stringValue(),
-                                    Map.class);
-                            metadata.putAll(parsedMetadata);
-                        } catch (Exception e) {
-                            log.warn("Failed to parse metadata JSON for doc {}: {}", id, e.getMessage());
-                        }
-                    } else {
-                        metadata.put(field.name(), field.stringValue());
-                    }
+        for (IndexableField field : luceneDoc.getFields()) {
+            if (!field.name().equals(Constants.ID) && !field.name().equals(Constants.CONTENTS)
+                    && !field.name().equals("text")) {
+                if (field.name().equals("metadata") && field.stringValue() != null) {
+                    metadataJson = field.stringValue();
+                } else {
+                    metadata.put(field.name(), field.stringValue());
                 }
             }
+        }
 
-            return new org.springframework.ai.document.Document(id, content != null ? content : "", metadata);
-        } catch (Exception e) {
-            log.error("Error converting ScoredDoc to Spring AI Document", e);
-            return new org.springframework.ai.document.Document(String.valueOf(scoredDoc.lucene_docid), "",
-                    Map.of("error", e.getMessage()));
+        // The metadata JSON is decoded on first read, through the per-segment cache
+        LazyMetadataMap stored = metadataJson != null
+                ? lookupMetadata(reader, luceneDocId, metadataJson)
+                : LazyMetadataMap.of(null, null);
+        return new LazyMetadataDocument(id, content != null ? content : "", metadata, stored);
+    }
+
+    private LazyMetadataMap lookupMetadata(IndexReader reader, int luceneDocId, String json) {
+        SegmentMetadataCache cache = this.metadataCache;
+        if (cache == null || reader == null) {
+            return LazyMetadataMap.of(json, null);
         }
+        return cache.lookup(SegmentMetadataCache.keyFor(reader, luceneDocId), json);
     }
 
     /**
@@ -1454,63 +1538,109 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
         }
     }
 
-    private synchronized void ensureSearcherInitialized() {
-        // PERFORMANCE: Lazy searcher refresh pattern
-        // Only refresh when: (1) searcher is null, or (2) searcherNeedsRefresh flag is
-        // set
-        // This avoids expensive IndexReader creation after every commit during bulk
-        // indexing
-        if (searcher == null || searcherNeedsRefresh) {
+    /**
+     * Returns the searcher manager, creating it on first use once the index has
+     * committed documents. Only creation is serialized; searches on an existing
+     * manager never take this lock.
+     *
+     * @return the manager, or null if the index is empty or the store is closed
+     */
+    private DenseSearcherManager getSearcherManager() {
+        DenseSearcherManager manager = searcherManager;
+        if (manager != null) {
+            return manager;
+        }
+        synchronized (searcherManagerLock) {
+            manager = searcherManager;
+            if (manager != null || shuttingDown || directory == null) {
+                return manager;
+            }
             // Only try to create a searcher if the index has documents
             if (!isIndexPopulated()) {
                 log.info("Semantic search unavailable: vector index at {} is empty or not yet initialized. " +
                         "Run 'Populate Vector Store' from the Index Browser to enable semantic search.", indexPath);
-                return;
+                return null;
+            }
+            try {
+                manager = new DenseSearcherManager(directory, properties);
+                searcherManager = manager;
+                log.info("Initialized NRT searcher manager for vector index at: {} (HNSW: {}, max staleness: {} ms)",
+                        indexPath, properties.getHnsw().isEnabled(), properties.getSearcherMaxStalenessMs());
+                return manager;
+            } catch (Exception e) {
+                log.error("Failed to create searcher for vector index at {}: {}", indexPath, e.getMessage(), e);
+                throw new RuntimeException("Failed to initialize searcher", e);
             }
-            refreshSearcher();
-            searcherNeedsRefresh = false; // Reset flag after refresh
         }
     }
 
-    private synchronized void refreshSearcher() {
+    /**
+     * Acquires a ref-counted searcher; must be paired with
+     * {@link #releaseSearcher(DenseSearcherManager, BaseDenseSearcher)}.
+     *
+     * @return the searcher, or null if none is available
+     */
+    private BaseDenseSearcher<String> acquireSearcher(DenseSearcherManager manager) {
+        if (manager == null) {
+            return null;
+        }
         try {
-            // Close old searcher if it exists
-            closeSearcherQuietly();
-
-            // Double-check the index is populated before creating searcher
-            if (!isIndexPopulated()) {
-                log.info("Cannot create searcher: vector index at {} has no committed documents", indexPath);
-                return;
-            }
-
-            searcher = AnseriniSearcherFactory.createSearcher(properties, indexPath);
-            log.info("Initialized searcher for vector index at: {} (HNSW: {})",
-                    indexPath, properties.getHnsw().isEnabled());
+            return manager.acquire();
+        } catch (Exception e) {
+            // AlreadyClosedException when the store is switching paths or shutting down
+            log.debug("Could not acquire searcher: {}", e.getMessage());
+            return null;
+        }
+    }
 
+    private void releaseSearcher(DenseSearcherManager manager, BaseDenseSearcher<String> snapshot) {
+        if (manager == null || snapshot == null) {
+            return;
+        }
+        try {
+            manager.release(snapshot);
         } catch (Exception e) {
-            log.error("Failed to create searcher for vector index at {}: {}", indexPath, e.getMessage(), e);
-            throw new RuntimeException("Failed to refresh searcher", e);
+            log.debug("Error releasing searcher: {}", e.getMessage());
         }
     }
 
     /**
-     * Close the current searcher quietly, ignoring any exceptions.
+     * Asks the searcher manager to pick up recent commits in the background.
+     * No-op until the first search has created the manager.
      */
-    private void closeSearcherQuietly() {
-        if (searcher != null) {
-            try {
-                if (searcher instanceof AutoCloseable) {
-                    ((AutoCloseable) searcher).close();
-                } else if (searcher instanceof Closeable) {
-                    ((Closeable) searcher).close();
+    private void requestSearcherRefresh() {
+        DenseSearcherManager manager = searcherManager;
+        if (manager != null) {
+            manager.requestRefresh();
+        }
+    }
+
+    /**
+     * Close the searcher manager. In-flight searches keep their reader until
+     * they release it.
+     */
+    private void closeSearcherManager() {
+        synchronized (searcherManagerLock) {
+            DenseSearcherManager manager = searcherManager;
+            searcherManager = null;
+            if (manager != null) {
+                try {
+                    manager.close();
+                } catch (Exception e) {
+                    log.debug("Error closing searcher manager: {}", e.getMessage());
                 }
-            } catch (Exception e) {
-                log.debug("Error closing searcher: {}", e.getMessage());
             }
-            searcher = null;
         }
     }
 
+    /**
+     * @return refresh latency and searcher age metrics of the NRT searcher manager
+     */
+    public Map<String, Object> getSearcherMetrics() {
+        DenseSearcherManager manager = searcherManager;
+        return manager != null ? manager.getMetrics() : Collections.emptyMap();
+    }
+
     @Override
     public void destroy() throws Exception {
         log.info("Spring DisposableBean.destroy() called for AnseriniVectorStoreImpl");
@@ -1545,9 +1675,15 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
         log.info("Cleaning up AnseriniVectorStoreImpl resources...");
         shuttingDown = true;
 
-        // Close searcher first (it holds a reader reference)
-        closeSearcherQuietly();
-        log.debug("Searcher closed");
+        ExecutorService executor = batchSearchExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+            batchSearchExecutor = null;
+        }
+
+        // Close searcher manager first (it holds a reader reference)
+        closeSearcherManager();
+        log.debug("Searcher manager closed");
 
         // Close cached reader
         invalidateCachedReader();
@@ -1680,8 +1816,9 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
      * This is critical for seeing documents added by subprocesses.
      * </p>
      * <p>
-     * When changes are detected, this also marks the searcher as needing refresh
-     * so that similarity search operations will see the new documents.
+     * When changes are detected, this also requests an asynchronous refresh of
+     * the NRT searcher manager, so similarity search sees the new documents
+     * without waiting for the next scheduled refresh.
      * </p>
      *
      * @return true if the reader was refreshed (index had changes), false if no
@@ -1699,8 +1836,8 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                     // No reader yet, open a fresh one
                     cachedReader = DirectoryReader.open(directory);
                     log.debug("Opened fresh reader for vector store at {}", indexPath);
-                    // Also mark searcher as needing refresh for similarity search
-                    searcherNeedsRefresh = true;
+                    // Also request a searcher refresh for similarity search
+                    requestSearcherRefresh();
                     return true;
                 }
 
@@ -1715,8 +1852,8 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                     } catch (Exception e) {
                         log.debug("Error closing old reader during refresh: {}", e.getMessage());
                     }
-                    // Also mark searcher as needing refresh for similarity search
-                    searcherNeedsRefresh = true;
+                    // Also request a searcher refresh for similarity search
+                    requestSearcherRefresh();
                     log.info("Vector store reader refreshed - index at {} has {} documents",
                             indexPath, newReader.numDocs());
                     return true;
@@ -1877,13 +2014,79 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
             return Collections.emptyList();
         }
 
+        float[] queryVector = toQueryVector(queryEmbedding);
+        if (queryVector == null) {
+            return Collections.emptyList();
+        }
+
+        return performSearchWithScores(queryVector, k, threshold);
+    }
+
+    /**
+     * Filtered search that pushes the metadata filter into the HNSW traversal when every
+     * filter key is indexed (see {@link MetadataFields}), so k results are returned even
+     * for selective filters. Other filters fall back to post-filtering an over-fetch.
+     * The traversal explores {@code max(k, efSearch)} candidates and keeps the best k, as
+     * an unfiltered HNSW search would.
+     */
+    @Override
+    public List<ScoredDocument> similaritySearchWithScores(INDArray queryEmbedding, int k, double threshold,
+            Map<String, Object> metadataFilters) {
+        if (!MetadataFields.canPreFilter(metadataFilters)) {
+            return VectorStore.super.similaritySearchWithScores(queryEmbedding, k, threshold, metadataFilters);
+        }
+        if (queryEmbedding == null || queryEmbedding.isEmpty()) {
+            log.warn("Empty INDArray query embedding provided for filtered similarity search");
+            return Collections.emptyList();
+        }
+        float[] queryVector = toQueryVector(queryEmbedding);
+        if (queryVector == null) {
+            return Collections.emptyList();
+        }
+
+        DenseSearcherManager manager = getSearcherManager();
+        BaseDenseSearcher<String> snapshot = acquireSearcher(manager);
+        if (snapshot == null) {
+            return Collections.emptyList();
+        }
+
+        try {
+            IndexReader reader = snapshot.getIndexReader();
+            Query query = MetadataFields.filteredKnn("vector", queryVector, k,
+                    properties.getHnsw().getEfSearch(), metadataFilters);
+            TopDocs topDocs = new IndexSearcher(reader).search(query, k);
+
+            List<ScoredDocument> results = new ArrayList<>(topDocs.scoreDocs.length);
+            StoredFields storedFields = snapshot.storedFields();
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                if (scoreDoc.score < threshold) {
+                    continue;
+                }
+                Document luceneDoc = storedFields.document(scoreDoc.doc);
+                results.add(new ScoredDocument(
+                        buildSpringAiDocument(luceneDoc, reader, scoreDoc.doc, scoreDoc.score), scoreDoc.score));
+            }
+            return applyFreshnessScoring(results);
+        } catch (Exception e) {
+            log.error("Error during filtered similarity search with scores (vector)", e);
+            return Collections.emptyList();
+        } finally {
+            releaseSearcher(manager, snapshot);
+        }
+    }
+
+    /**
+     * Converts a query embedding to float[] - single conversion at search boundary.
+     *
+     * @return The query vector, or null if the embedding is closed, unreadable or empty
+     */
+    private float[] toQueryVector(INDArray queryEmbedding) {
         // Check for closed/invalid array
         if (queryEmbedding.wasClosed()) {
             log.warn("Query embedding INDArray was closed, returning empty results");
-            return Collections.emptyList();
+            return null;
         }
 
-        // Convert INDArray to float[] - single conversion at search boundary
         float[] queryVector;
         INDArray rowView = null;
         try {
@@ -1895,7 +2098,7 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
             }
         } catch (Exception e) {
             log.warn("Error converting INDArray to float[]: {}", e.getMessage());
-            return Collections.emptyList();
+            return null;
         } finally {
             // Close the row view if created
             if (rowView != null && !rowView.wasClosed()) {
@@ -1909,10 +2112,9 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
 
         if (queryVector == null || queryVector.length == 0) {
             log.debug("Empty query vector after conversion");
-            return Collections.emptyList();
+            return null;
         }
-
-        return performSearchWithScores(queryVector, k, threshold);
+        return queryVector;
     }
 
     @Override
@@ -1946,83 +2148,379 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
      * Internal method to perform search and return scored documents.
      */
     private List<ScoredDocument> performSearchWithScores(float[] queryVector, int k, double threshold) {
-        // Check for external changes (e.g., from subprocess) - efficient no-op if no
-        // changes
-        refreshReader();
-
-        ensureSearcherInitialized();
-        if (searcher == null) {
+        // External changes (e.g., from subprocess) are picked up by the searcher
+        // manager's background refresh, not on the query path
+        DenseSearcherManager manager = getSearcherManager();
+        BaseDenseSearcher<String> snapshot = acquireSearcher(manager);
+        if (snapshot == null) {
             return Collections.emptyList();
         }
 
         try {
-            // Un-stubbed: Use float[] directly with cast
-            ScoredDoc[] hits = null;
-
-            if (searcher instanceof HnswDenseSearcher) {
-                hits = ((HnswDenseSearcher<String>) searcher).search(queryVector, k);
-            } else if (searcher instanceof FlatDenseSearcher) {
-                hits = ((FlatDenseSearcher<String>) searcher).search(queryVector, k);
-            } else {
-                log.warn("Unknown searcher type {}, cannot perform vector search.", searcher.getClass().getName());
-                return Collections.emptyList();
-            }
-
+            ScoredDoc[] hits = snapshot.search(null, queryVector, k);
             if (hits == null) {
                 return Collections.emptyList();
             }
 
             List<ScoredDocument> results = Arrays.stream(hits)
                     .filter(hit -> hit.score >= threshold)
-                    .map(hit -> new ScoredDocument(convertToSpringAiDocument(hit), hit.score))
+                    .map(hit -> new ScoredDocument(convertToSpringAiDocument(hit, snapshot), hit.score))
                     .collect(Collectors.toList());
 
-            // Apply freshness weighting if scorer is available
-            DocumentFreshnessScorer scorer = this.freshnessScorer;
-            if (scorer != null && !results.isEmpty()) {
-                double w = scorer.getWeight();
-                results = results.stream()
-                        .map(sd -> {
-                            String docId = sd.getId();
-                            double freshness = scorer.score(docId != null ? docId : "");
-                            double adjusted = (1.0 - w) * sd.score() + w * freshness;
-                            return new ScoredDocument(sd.document(), adjusted);
-                        })
-                        .sorted((a, b) -> Double.compare(b.score(), a.score()))
-                        .collect(Collectors.toList());
-            }
-
-            return results;
+            return applyFreshnessScoring(results);
         } catch (Exception e) {
             log.error("Error during similarity search with scores (vector)", e);
             return Collections.emptyList();
+        } finally {
+            releaseSearcher(manager, snapshot);
         }
     }
 
+    /**
+     * Apply freshness weighting if a scorer is available, re-sorting by the
+     * adjusted score. Returns the input unchanged otherwise.
+     */
+    private List<ScoredDocument> applyFreshnessScoring(List<ScoredDocument> results) {
+        DocumentFreshnessScorer scorer = this.freshnessScorer;
+        if (scorer == null || results.isEmpty()) {
+            return results;
+        }
+        double w = scorer.getWeight();
+        return results.stream()
+                .map(sd -> {
+                    String docId = sd.getId();
+                    double freshness = scorer.score(docId != null ? docId : "");
+                    double adjusted = (1.0 - w) * sd.score() + w * freshness;
+                    return new ScoredDocument(sd.document(), adjusted);
+                })
+                .sorted((a, b) -> Double.compare(b.score(), a.score()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Performs batch similarity search for multiple queries.
      * <p>
-     * More efficient than individual searches when processing multiple queries.
+     * All queries run against one searcher snapshot, so every row sees the same
+     * index state and lucene docids stay valid for hydration. The k-NN queries are
+     * fanned out over a bounded executor, and the stored fields of all distinct
+     * hits are then read once, in ascending lucene docid order, instead of once
+     * per hit per query.
      *
      * @param queryEmbeddings INDArray of shape [numQueries, embeddingDim]
      * @param k               Number of results per query
      * @param threshold       Minimum similarity score
-     * @return List of results for each query
+     * @return List of results for each query, in query row order
      */
     @Override
     public List<List<ScoredDocument>> batchSimilaritySearch(INDArray queryEmbeddings, int k, double threshold) {
         if (queryEmbeddings == null || queryEmbeddings.isEmpty()) {
             return Collections.emptyList();
         }
+        if (queryEmbeddings.wasClosed()) {
+            log.warn("Batch query embeddings INDArray was closed, returning empty results");
+            return Collections.emptyList();
+        }
 
-        List<List<ScoredDocument>> results = new ArrayList<>();
-        int numQueries = (int) queryEmbeddings.rows();
+        // Single INDArray -> float[][] conversion at the search boundary
+        float[][] queryVectors;
+        try {
+            queryVectors = queryEmbeddings.isVector()
+                    ? new float[][] { queryEmbeddings.toFloatVector() }
+                    : queryEmbeddings.toFloatMatrix();
+        } catch (Exception e) {
+            log.warn("Error converting batch INDArray to float[][]: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+        return batchSimilaritySearch(queryVectors, k, threshold);
+    }
 
+    /**
+     * Batch search over already converted query rows. A {@code null} or empty row,
+     * or one whose search fails, gets an empty result list.
+     */
+    List<List<ScoredDocument>> batchSimilaritySearch(float[][] queryVectors, int k, double threshold) {
+        int numQueries = queryVectors.length;
+        List<List<ScoredDocument>> emptyResults = new ArrayList<>(numQueries);
         for (int i = 0; i < numQueries; i++) {
-            results.add(Collections.emptyList());
+            emptyResults.add(Collections.emptyList());
         }
 
-        return results;
+        // Acquire one snapshot so that all queries and the stored-field reads agree
+        DenseSearcherManager manager = numQueries == 0 ? null : getSearcherManager();
+        BaseDenseSearcher<String> snapshot = acquireSearcher(manager);
+        if (snapshot == null) {
+            return emptyResults;
+        }
+
+        try {
+            TopDocs[] topDocsPerQuery = searchAll(snapshot, queryVectors, k);
+
+            // Collect the distinct docids that pass the threshold and read them in
+            // ascending order so the stored-fields reader moves forward through blocks
+            int[] docIds = Arrays.stream(topDocsPerQuery)
+                    .filter(topDocs -> topDocs != null)
+                    .flatMap(topDocs -> Arrays.stream(topDocs.scoreDocs))
+                    .filter(scoreDoc -> scoreDoc.score >= threshold)
+                    .mapToInt(scoreDoc -> scoreDoc.doc)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+
+            Map<Integer, Document> storedDocs = new HashMap<>(docIds.length * 2);
+            StoredFields storedFields = snapshot.storedFields();
+            for (int docId : docIds) {
+                storedDocs.put(docId, storedFields.document(docId));
+            }
+
+            List<List<ScoredDocument>> results = new ArrayList<>(numQueries);
+            for (TopDocs topDocs : topDocsPerQuery) {
+                if (topDocs == null) {
+                    results.add(Collections.emptyList());
+                    continue;
+                }
+                List<ScoredDocument> queryResults = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    if (scoreDoc.score < threshold) {
+                        continue;
+                    }
+                    Document luceneDoc = storedDocs.get(scoreDoc.doc);
+                    queryResults.add(new ScoredDocument(
+                            buildSpringAiDocument(luceneDoc, snapshot.getIndexReader(), scoreDoc.doc, scoreDoc.score),
+                            scoreDoc.score));
+                }
+                results.add(applyFreshnessScoring(queryResults));
+            }
+
+            log.debug("Batch similarity search: {} queries, k={}, {} distinct hits hydrated",
+                    numQueries, k, docIds.length);
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Batch similarity search interrupted ({} queries)", numQueries);
+            return emptyResults;
+        } catch (Exception e) {
+            log.error("Error during batch similarity search ({} queries)", numQueries, e);
+            return emptyResults;
+        } finally {
+            releaseSearcher(manager, snapshot);
+        }
+    }
+
+    /**
+     * Runs one k-NN query per row against the given searcher snapshot. Small
+     * batches run on the calling thread; larger ones are split over the shared
+     * bounded batch-search executor. Results are returned in query order, with
+     * {@code null} for queries that failed.
+     * <p>
+     * This only returns once no task can touch {@code snapshot} any more, since the
+     * caller releases it next. If the caller is interrupted, queued tasks skip their
+     * search and running ones are waited for (not interrupted, which would close
+     * NIO channels of the shared index) before the interrupt is rethrown.
+     */
+    private TopDocs[] searchAll(BaseDenseSearcher<String> snapshot, float[][] queryVectors, int k)
+            throws InterruptedException {
+        TopDocs[] topDocsPerQuery = new TopDocs[queryVectors.length];
+        if (queryVectors.length == 1) {
+            topDocsPerQuery[0] = searchTopDocsQuietly(snapshot, queryVectors[0], k, 0);
+            return topDocsPerQuery;
+        }
+
+        ExecutorService executor = getBatchSearchExecutor();
+        CountDownLatch finished = new CountDownLatch(queryVectors.length);
+        AtomicBoolean abandoned = new AtomicBoolean();
+        for (int i = 0; i < queryVectors.length; i++) {
+            final int queryIndex = i;
+            Runnable task = () -> {
+                try {
+                    if (!abandoned.get()) {
+                        topDocsPerQuery[queryIndex] =
+                                searchTopDocsQuietly(snapshot, queryVectors[queryIndex], k, queryIndex);
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Executor shut down by destroy(): finish the batch on this thread
+                task.run();
+            }
+        }
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            abandoned.set(true);
+            while (finished.getCount() > 0) {
+                try {
+                    finished.await();
+                } catch (InterruptedException ignored) {
+                    // Already rethrowing an interrupt; keep waiting for the running searches
+                }
+            }
+            throw e;
+        }
+        return topDocsPerQuery;
+    }
+
+    private TopDocs searchTopDocsQuietly(BaseDenseSearcher<String> snapshot, float[] queryVector, int k,
+            int queryIndex) {
+        if (queryVector == null || queryVector.length == 0) {
+            return null;
+        }
+        try {
+            return snapshot.searchVectorTopDocs(queryVector, k);
+        } catch (Exception e) {
+            log.warn("Batch similarity search failed for query {}: {}", queryIndex, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Lazily creates the bounded executor used to fan out batch k-NN queries.
+     * Sized by {@code batch-search-threads}, defaulting to the number of
+     * available processors.
+     */
+    private ExecutorService getBatchSearchExecutor() {
+        ExecutorService executor = batchSearchExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = batchSearchExecutor;
+                if (executor == null) {
+                    int configured = properties.getBatchSearchThreads();
+                    int threads = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+                    AtomicInteger threadCounter = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(threads, r -> {
+                        Thread t = new Thread(r, "anserini-batch-search-" + threadCounter.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    batchSearchExecutor = executor;
+                    log.debug("Created batch search executor with {} threads", threads);
+                }
+            }
+        }
+        return executor;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // FIELD-PROJECTION SEARCH
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Performs a similarity search that hydrates only the requested stored fields.
+     * <p>
+     * Unlike {@link #similaritySearchWithScores(INDArray, int, double)}, which loads
+     * every stored field of every hit and decodes the metadata JSON up front, this
+     * visits stored fields in ascending docid order, skips fields that were not
+     * requested, and decodes {@code metadata} only when a key is first read.
+     *
+     * @param queryEmbedding INDArray of shape [1, embeddingDim] or [embeddingDim]
+     * @param k              The number of most similar documents to retrieve
+     * @param threshold      Minimum similarity score threshold
+     * @param fields         Stored fields to load; include "metadata" for lazy metadata.
+     *                       The id field is always loaded.
+     * @return Projected hits sorted by score descending
+     */
+    public List<ProjectedHit> similaritySearchProjected(INDArray queryEmbedding, int k, double threshold,
+            Set<String> fields) {
+        if (queryEmbedding == null || queryEmbedding.isEmpty() || queryEmbedding.wasClosed()) {
+            return Collections.emptyList();
+        }
+        float[] queryVector;
+        try {
+            queryVector = queryEmbedding.isVector()
+                    ? queryEmbedding.toFloatVector()
+                    : queryEmbedding.toFloatMatrix()[0];
+        } catch (Exception e) {
+            log.warn("Error converting INDArray to float[]: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+        return similaritySearchProjected(queryVector, k, threshold, fields);
+    }
+
+    /**
+     * Float-array variant of {@link #similaritySearchProjected(INDArray, int, double, Set)}.
+     */
+    public List<ProjectedHit> similaritySearchProjected(float[] queryVector, int k, double threshold,
+            Set<String> fields) {
+        if (queryVector == null || queryVector.length == 0) {
+            return Collections.emptyList();
+        }
+
+        DenseSearcherManager manager = getSearcherManager();
+        BaseDenseSearcher<String> snapshot = acquireSearcher(manager);
+        if (snapshot == null) {
+            return Collections.emptyList();
+        }
+
+        try {
+            TopDocs topDocs = snapshot.searchVectorTopDocs(queryVector, k);
+            ScoreDoc[] hits = Arrays.stream(topDocs.scoreDocs)
+                    .filter(hit -> hit.score >= threshold)
+                    .toArray(ScoreDoc[]::new);
+            if (hits.length == 0) {
+                return Collections.emptyList();
+            }
+
+            Set<String> fieldsToLoad = new HashSet<>(fields != null ? fields : Set.of());
+            fieldsToLoad.add(Constants.ID);
+            boolean wantMetadata = fieldsToLoad.contains("metadata");
+
+            // Visit stored fields in ascending docid order, then restore score order
+            Integer[] docOrder = new Integer[hits.length];
+            for (int i = 0; i < hits.length; i++) {
+                docOrder[i] = i;
+            }
+            Arrays.sort(docOrder, (a, b) -> Integer.compare(hits[a].doc, hits[b].doc));
+
+            IndexReader reader = snapshot.getIndexReader();
+            StoredFields storedFields = snapshot.storedFields();
+            ProjectedHit[] projected = new ProjectedHit[hits.length];
+            for (int hitIndex : docOrder) {
+                ScoreDoc hit = hits[hitIndex];
+                DocumentStoredFieldVisitor visitor = new DocumentStoredFieldVisitor(fieldsToLoad);
+                storedFields.document(hit.doc, visitor);
+                Document luceneDoc = visitor.getDocument();
+
+                Map<String, String> values = new HashMap<>(fieldsToLoad.size() * 2);
+                for (IndexableField field : luceneDoc.getFields()) {
+                    if (!field.name().equals("metadata") && field.stringValue() != null) {
+                        values.putIfAbsent(field.name(), field.stringValue());
+                    }
+                }
+                LazyMetadataMap metadata = wantMetadata
+                        ? lookupMetadata(reader, hit.doc, luceneDoc.get("metadata"))
+                        : LazyMetadataMap.of(null, null);
+
+                String id = luceneDoc.get(Constants.ID);
+                projected[hitIndex] = new ProjectedHit(id != null ? id : "doc_" + hit.doc, hit.doc, hit.score,
+                        values, metadata);
+            }
+            return Arrays.asList(projected);
+        } catch (Exception e) {
+            log.error("Error during projected similarity search", e);
+            return Collections.emptyList();
+        } finally {
+            releaseSearcher(manager, snapshot);
+        }
+    }
+
+    /**
+     * @return hit/miss statistics of the per-segment metadata cache
+     */
+    public Map<String, Object> getMetadataCacheStats() {
+        SegmentMetadataCache cache = this.metadataCache;
+        if (cache == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maxSize", properties.getMetadataCacheSize());
+        stats.put("hits", cache.getHits());
+        stats.put("misses", cache.getMisses());
+        stats.put("hitRate", cache.getHitRate());
+        return stats;
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
@@ -2102,7 +2600,13 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
             log.debug("Applying {} reranking to {} results for query: '{}'",
                     rerankerConfig.getType(), results.size(), truncateQuery(query));
 
-            List<ScoredDocument> rerankedResults = rerankerService.rerank(results, query, rerankerConfig);
+            RerankerContext context = RerankerContext.empty();
+            if (rerankerConfig.getType() == RerankerType.MMR && rerankerConfig.isMmrUseVectors()) {
+                context = RerankerContext.builder()
+                        .attribute(RerankerContext.DOCUMENT_VECTORS, loadStoredVectors(results))
+                        .build();
+            }
+            List<ScoredDocument> rerankedResults = rerankerService.rerank(results, query, rerankerConfig, context);
 
             log.debug("Reranking complete: {} results", rerankedResults.size());
             return rerankedResults;
@@ -2113,6 +2617,62 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
         }
     }
 
+    /**
+     * Reads the stored embeddings of the given hits, keyed by id, for rerankers that compare
+     * documents with each other. One term query over the ids; vectors and ids come from
+     * the vector and doc values files, not stored fields.
+     */
+    private Map<String, float[]> loadStoredVectors(List<ScoredDocument> documents) {
+        List<BytesRef> ids = documents.stream()
+                .map(ScoredDocument::getId)
+                .filter(id -> id != null)
+                .map(BytesRef::new)
+                .collect(Collectors.toList());
+        Map<String, float[]> vectors = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return vectors;
+        }
+
+        DenseSearcherManager manager = getSearcherManager();
+        BaseDenseSearcher<String> snapshot = acquireSearcher(manager);
+        if (snapshot == null) {
+            return vectors;
+        }
+        try {
+            new IndexSearcher(snapshot.getIndexReader()).search(new TermInSetQuery("id", ids), new SimpleCollector() {
+                private FloatVectorValues leafVectors;
+                private BinaryDocValues leafIds;
+
+                @Override
+                protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                    leafVectors = context.reader().getFloatVectorValues("vector");
+                    leafIds = context.reader().getBinaryDocValues("id");
+                }
+
+                @Override
+                public void collect(int doc) throws IOException {
+                    if (leafVectors == null || leafIds == null) {
+                        return;
+                    }
+                    int vectorDoc = leafVectors.docID() < doc ? leafVectors.advance(doc) : leafVectors.docID();
+                    if (vectorDoc == doc && leafIds.advanceExact(doc)) {
+                        vectors.put(leafIds.binaryValue().utf8ToString(), leafVectors.vectorValue().clone());
+                    }
+                }
+
+                @Override
+                public ScoreMode scoreMode() {
+                    return ScoreMode.COMPLETE_NO_SCORES;
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to load stored vectors for reranking: {}", e.getMessage());
+        } finally {
+            releaseSearcher(manager, snapshot);
+        }
+        return vectors;
+    }
+
     /**
      * Truncate query for logging.
      */
@@ -2374,9 +2934,9 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
                 indexWriter.deleteAll();
                 indexWriter.commit();
 
-                // Invalidate cached reader and mark searcher for refresh
+                // Invalidate cached reader and request a searcher refresh
                 invalidateCachedReader();
-                searcherNeedsRefresh = true;
+                requestSearcherRefresh();
 
                 log.info("Deleted all {} documents from vector store at {}", beforeCount, indexPath);
                 return true;
@@ -2391,8 +2951,9 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
     /**
      * Retrieves all document IDs that belong to a specific source document.
      * <p>
-     * This method scans the vector store for documents with matching source_id
-     * metadata. The source ID is typically the original file path or URL.
+     * Documents with indexed metadata are found with a term query on
+     * {@code meta.source_id}; only documents not yet migrated to indexed metadata
+     * are scanned. The source ID is typically the original file path or URL.
      * </p>
      *
      * @param sourceId The source document ID (e.g., file path or URL)
@@ -2409,41 +2970,17 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
         synchronized (readerLock) {
             try {
                 IndexReader reader = getCachedReader();
-
-                // Iterate through leaf readers to properly skip deleted documents
-                for (LeafReaderContext ctx : reader.leaves()) {
-                    LeafReader leafReader = ctx.reader();
-                    Bits liveDocs = leafReader.getLiveDocs();
-                    int leafMaxDoc = leafReader.maxDoc();
-
-                    for (int localDocId = 0; localDocId < leafMaxDoc; localDocId++) {
-                        // Skip deleted documents
-                        if (liveDocs != null && !liveDocs.get(localDocId)) {
-                            continue;
-                        }
-
-                        try {
-                            Document luceneDoc = leafReader.storedFields().document(localDocId);
-                            String metadataJson = luceneDoc.get("metadata");
-
-                            if (metadataJson != null) {
-                                @SuppressWarnings("unchecked")
-                                Map<String, Object> metadata = OBJECT_MAPPER.readValue(metadataJson, Map.class);
-
-                                // Check for source_id in metadata
-                                Object docSourceId = metadata.get("source_id");
-                                if (sourceId.equals(docSourceId)) {
-                                    String docId = luceneDoc.get("id");
-                                    if (docId != null) {
-                                        matchingIds.add(docId);
-                                    }
-                                }
-                            }
-                        } catch (Exception e) {
-                            log.trace("Error reading document at local index {}: {}", localDocId, e.getMessage());
-                        }
+                matchingIds.addAll(MetadataFields.collectIds(new IndexSearcher(reader),
+                        MetadataFields.filterQuery(Map.of("source_id", sourceId))));
+
+                // Documents written before source_id was indexed and not yet migrated
+                MetadataFields.forEachUnindexed(reader, (leaf, localDocId, luceneDoc) -> {
+                    Object docSourceId = readStoredMetadataValue(luceneDoc, "source_id");
+                    String docId = luceneDoc.get("id");
+                    if (sourceId.equals(docSourceId) && docId != null) {
+                        matchingIds.add(docId);
                     }
-                }
+                });
 
                 log.debug("Found {} documents with source_id '{}'", matchingIds.size(), sourceId);
             } catch (Exception e) {
@@ -2474,37 +3011,15 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
         synchronized (readerLock) {
             try {
                 IndexReader reader = getCachedReader();
+                sourceIds.addAll(MetadataFields.distinctValues(reader, "source_id"));
 
-                // Iterate through leaf readers to properly skip deleted documents
-                for (LeafReaderContext ctx : reader.leaves()) {
-                    LeafReader leafReader = ctx.reader();
-                    Bits liveDocs = leafReader.getLiveDocs();
-                    int leafMaxDoc = leafReader.maxDoc();
-
-                    for (int localDocId = 0; localDocId < leafMaxDoc; localDocId++) {
-                        // Skip deleted documents
-                        if (liveDocs != null && !liveDocs.get(localDocId)) {
-                            continue;
-                        }
-
-                        try {
-                            Document luceneDoc = leafReader.storedFields().document(localDocId);
-                            String metadataJson = luceneDoc.get("metadata");
-
-                            if (metadataJson != null) {
-                                @SuppressWarnings("unchecked")
-                                Map<String, Object> metadata = OBJECT_MAPPER.readValue(metadataJson, Map.class);
-
-                                Object sourceId = metadata.get("source_id");
-                                if (sourceId != null) {
-                                    sourceIds.add(sourceId.toString());
-                                }
-                            }
-                        } catch (Exception e) {
-                            log.trace("Error reading document at local index {}: {}", localDocId, e.getMessage());
-                        }
+                // Documents written before source_id was indexed and not yet migrated
+                MetadataFields.forEachUnindexed(reader, (leaf, localDocId, luceneDoc) -> {
+                    Object sourceId = readStoredMetadataValue(luceneDoc, "source_id");
+                    if (sourceId != null) {
+                        sourceIds.add(sourceId.toString());
                     }
-                }
+                });
 
                 log.debug("Found {} unique source IDs in vector store", sourceIds.size());
             } catch (Exception e) {
@@ -2514,4 +3029,17 @@ public class AnseriniVectorStoreImpl implements VectorStore, DisposableBean {
 
         return new ArrayList<>(sourceIds);
     }
+
+    private Object readStoredMetadataValue(Document luceneDoc, String key) {
+        String metadataJson = luceneDoc.get("metadata");
+        if (metadataJson == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(metadataJson, Map.class).get(key);
+        } catch (Exception e) {
+            log.trace("Error reading metadata of document {}: {}", luceneDoc.get("id"), e.getMessage());
+            return null;
+        }
+    }
 }
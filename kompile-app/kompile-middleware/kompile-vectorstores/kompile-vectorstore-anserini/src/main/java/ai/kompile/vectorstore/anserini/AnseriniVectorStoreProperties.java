@@ -105,6 +105,30 @@ public class AnseriniVectorStoreProperties {
      */
     private int maxDocumentsBeforeCommit = 5000;
 
+    /**
+     * Number of threads used to fan out k-NN queries in batchSimilaritySearch.
+     * All queries of a batch share one reader snapshot; this only bounds how many
+     * run concurrently. Set to 0 to use the number of available processors.
+     * Default: 0
+     */
+    private int batchSearchThreads = 0;
+
+    /**
+     * Maximum time in milliseconds a search may run against a stale searcher.
+     * The NRT searcher manager checks for new commits (including those made by
+     * ingest subprocesses) on a background thread at this interval; local
+     * commits additionally trigger an immediate asynchronous refresh.
+     * Default: 1000
+     */
+    private long searcherMaxStalenessMs = 1000;
+
+    /**
+     * Maximum number of parsed metadata maps kept in the per-segment LRU used
+     * when hydrating search hits. Set to 0 to disable caching.
+     * Default: 10000
+     */
+    private int metadataCacheSize = 10_000;
+
     /**
      * HNSW parameters for hierarchical navigable small world indexing.
      * Only used if using HNSW instead of flat indexing.
@@ -130,6 +154,14 @@ public class AnseriniVectorStoreProperties {
          */
         private int efConstruction = 100;
 
+        /**
+         * HNSW efSearch parameter - size of the candidate list explored per query.
+         * Searches asking for fewer than efSearch results still explore this many
+         * candidates and keep the best k, which keeps recall up for small k.
+         * Default: 100 (Anserini's default)
+         */
+        private int efSearch = 100;
+
         /**
          * Whether to use HNSW indexing instead of flat indexing.
          * PERFORMANCE: HNSW is faster for large-scale search but slower to index.
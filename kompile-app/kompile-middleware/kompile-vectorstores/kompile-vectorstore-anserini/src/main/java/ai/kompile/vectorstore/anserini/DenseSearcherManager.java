@@ -0,0 +1,183 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package ai.kompile.vectorstore.anserini;
+
+import io.anserini.search.BaseDenseSearcher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.store.Directory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near-real-time manager for the dense searcher of {@link AnseriniVectorStoreImpl}.
+ * <p>
+ * Modelled on Lucene's {@code SearcherManager}: each search {@link #acquire()}s a
+ * ref-counted searcher without taking a global lock and {@link #release}s it when
+ * done, so an old reader is only closed once the last in-flight search over it has
+ * finished. Reopening happens off the query path, on a background scheduler that
+ * calls {@link #maybeRefresh()} at most {@code maxStalenessMs} apart, or on demand
+ * after a local commit via {@link #requestRefresh()}.
+ * <p>
+ * Readers are opened from the {@link Directory}, so commits made by other
+ * processes writing the same index (e.g. ingest subprocesses) become visible too.
+ */
+@Slf4j
+public class DenseSearcherManager extends ReferenceManager<BaseDenseSearcher<String>> {
+
+    private final AnseriniVectorStoreProperties properties;
+    private final ScheduledExecutorService refreshScheduler;
+
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong reopenCount = new AtomicLong();
+    private final AtomicLong totalRefreshNanos = new AtomicLong();
+    private final AtomicLong maxRefreshNanos = new AtomicLong();
+    private volatile long lastRefreshNanos;
+    private volatile long refreshStartNanos;
+    private volatile long searcherOpenedAtNanos;
+    private volatile long lastRefreshCheckAtNanos;
+
+    public DenseSearcherManager(Directory directory, AnseriniVectorStoreProperties properties) throws IOException {
+        this.properties = properties;
+        this.current = newSearcher(DirectoryReader.open(directory));
+        this.searcherOpenedAtNanos = System.nanoTime();
+        this.lastRefreshCheckAtNanos = searcherOpenedAtNanos;
+
+        addListener(new RefreshListener() {
+            @Override
+            public void beforeRefresh() {
+                refreshStartNanos = System.nanoTime();
+            }
+
+            @Override
+            public void afterRefresh(boolean didRefresh) {
+                long now = System.nanoTime();
+                long elapsed = now - refreshStartNanos;
+                lastRefreshNanos = elapsed;
+                lastRefreshCheckAtNanos = now;
+                totalRefreshNanos.addAndGet(elapsed);
+                maxRefreshNanos.accumulateAndGet(elapsed, Math::max);
+                refreshCount.incrementAndGet();
+                if (didRefresh) {
+                    searcherOpenedAtNanos = now;
+                    reopenCount.incrementAndGet();
+                    log.debug("Dense searcher reopened in {} ms", String.format("%.2f", elapsed / 1e6));
+                }
+            }
+        });
+
+        long stalenessMs = Math.max(1, properties.getSearcherMaxStalenessMs());
+        this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "anserini-searcher-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        refreshScheduler.scheduleWithFixedDelay(this::refreshQuietly, stalenessMs, stalenessMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules an immediate, asynchronous refresh. Used after local commits so
+     * new documents become searchable without waiting for the next scheduled tick,
+     * while the committing thread does not pay for the reopen.
+     */
+    public void requestRefresh() {
+        try {
+            refreshScheduler.execute(this::refreshQuietly);
+        } catch (Exception e) {
+            log.debug("Could not schedule searcher refresh: {}", e.getMessage());
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            maybeRefresh();
+        } catch (Exception e) {
+            log.warn("Background dense searcher refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    protected void decRef(BaseDenseSearcher<String> reference) throws IOException {
+        reference.getIndexReader().decRef();
+    }
+
+    @Override
+    protected BaseDenseSearcher<String> refreshIfNeeded(BaseDenseSearcher<String> referenceToRefresh)
+            throws IOException {
+        IndexReader reader = referenceToRefresh.getIndexReader();
+        DirectoryReader newReader = DirectoryReader.openIfChanged((DirectoryReader) reader);
+        return newReader == null ? null : newSearcher(newReader);
+    }
+
+    @Override
+    protected boolean tryIncRef(BaseDenseSearcher<String> reference) {
+        return reference.getIndexReader().tryIncRef();
+    }
+
+    @Override
+    protected int getRefCount(BaseDenseSearcher<String> reference) {
+        return reference.getIndexReader().getRefCount();
+    }
+
+    @Override
+    protected void afterClose() throws IOException {
+        refreshScheduler.shutdownNow();
+    }
+
+    private BaseDenseSearcher<String> newSearcher(DirectoryReader reader) throws IOException {
+        try {
+            return AnseriniSearcherFactory.createSearcher(properties, reader);
+        } catch (RuntimeException e) {
+            reader.close();
+            throw new IOException("Failed to create dense searcher", e);
+        }
+    }
+
+    /**
+     * @return milliseconds since the currently served searcher was opened
+     */
+    public long getSearcherAgeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - searcherOpenedAtNanos);
+    }
+
+    /**
+     * @return refresh latency and searcher age figures for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        long refreshes = refreshCount.get();
+        metrics.put("refreshCount", refreshes);
+        metrics.put("reopenCount", reopenCount.get());
+        metrics.put("lastRefreshLatencyMs", lastRefreshNanos / 1e6);
+        metrics.put("avgRefreshLatencyMs", refreshes == 0 ? 0.0 : totalRefreshNanos.get() / 1e6 / refreshes);
+        metrics.put("maxRefreshLatencyMs", maxRefreshNanos.get() / 1e6);
+        metrics.put("searcherAgeMs", getSearcherAgeMs());
+        metrics.put("msSinceLastRefreshCheck",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRefreshCheckAtNanos));
+        metrics.put("maxStalenessMs", properties.getSearcherMaxStalenessMs());
+        return metrics;
+    }
+}
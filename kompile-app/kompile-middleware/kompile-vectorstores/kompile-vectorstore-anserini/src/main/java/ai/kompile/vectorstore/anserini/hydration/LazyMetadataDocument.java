@@ -0,0 +1,161 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package ai.kompile.vectorstore.anserini.hydration;
+
+import org.springframework.ai.document.Document;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Spring AI document whose stored metadata JSON is decoded only when a caller
+ * reads a key that is not one of the hit's own fields.
+ * <p>
+ * The {@link Document} constructor copies and validates its metadata map, so
+ * passing a {@link LazyMetadataMap} to it would parse every hit. This subclass
+ * hands the constructor only the cheap per-hit fields (score and other stored
+ * string fields) and serves {@link #getMetadata()} as an overlay of those
+ * fields on top of the lazy JSON. Hit fields take precedence over JSON keys of
+ * the same name.
+ * <p>
+ * The overlay is mutable like the map of a plain document. {@code put} writes
+ * to the overlay without decoding the JSON, so its return value only reflects
+ * JSON keys once they have been decoded. {@code remove}, {@code clear} and any
+ * iteration decode the JSON first.
+ */
+public final class LazyMetadataDocument extends Document {
+
+    private final OverlayMetadata metadata;
+
+    /**
+     * @param id     the document id
+     * @param text   the document text
+     * @param fields per-hit metadata such as the score; copied
+     * @param stored lazily decoded stored metadata JSON
+     */
+    public LazyMetadataDocument(String id, String text, Map<String, Object> fields, LazyMetadataMap stored) {
+        super(id, text, fields);
+        this.metadata = new OverlayMetadata(super.getMetadata(), stored);
+    }
+
+    /**
+     * @return true once the stored metadata JSON has been decoded
+     */
+    public boolean isMetadataParsed() {
+        return metadata.stored.isParsed();
+    }
+
+    @Override
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public Builder mutate() {
+        return super.mutate().metadata(new HashMap<>(metadata));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && metadata.equals(((LazyMetadataDocument) o).metadata);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), metadata);
+    }
+
+    @Override
+    public String toString() {
+        return "Document{id='" + getId() + "', text='" + getText() + "', metadata=" + metadata
+                + ", score=" + getScore() + "}";
+    }
+
+    private static final class OverlayMetadata extends AbstractMap<String, Object> {
+
+        private final Map<String, Object> overlay;
+        private final LazyMetadataMap stored;
+        private Map<String, Object> merged;
+
+        OverlayMetadata(Map<String, Object> overlay, LazyMetadataMap stored) {
+            this.overlay = overlay;
+            this.stored = stored;
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (merged != null) {
+                return merged.get(key);
+            }
+            return overlay.containsKey(key) ? overlay.get(key) : stored.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            if (merged != null) {
+                return merged.containsKey(key);
+            }
+            return overlay.containsKey(key) || stored.containsKey(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            if (merged != null) {
+                return merged.put(key, value);
+            }
+            Object previous = overlay.put(key, value);
+            return previous != null || !stored.isParsed() ? previous : stored.get(key);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return merged().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            merged().clear();
+        }
+
+        @Override
+        public int size() {
+            return merged().size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return overlay.isEmpty() && merged().isEmpty();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return merged().entrySet();
+        }
+
+        private Map<String, Object> merged() {
+            if (merged == null) {
+                Map<String, Object> result = new HashMap<>(stored);
+                result.putAll(overlay);
+                merged = result;
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package ai.kompile.vectorstore.anserini.hydration;
+
+import ai.kompile.cli.common.util.JsonUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Read-only view over the stored {@code metadata} JSON of a hit that defers
+ * Jackson parsing until a key is first accessed.
+ * <p>
+ * Search hits that are only ranked, filtered by score or passed through a
+ * reranker never touch their metadata, so they never pay for the parse. Once
+ * parsed, the result is kept in this instance and handed to an optional
+ * callback so it can be cached per segment docid.
+ */
+@Slf4j
+public final class LazyMetadataMap extends AbstractMap<String, Object> {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonUtils.standardMapper();
+
+    private final String json;
+    private final Consumer<Map<String, Object>> onParsed;
+    private volatile Map<String, Object> parsed;
+
+    private LazyMetadataMap(String json, Map<String, Object> parsed, Consumer<Map<String, Object>> onParsed) {
+        this.json = json;
+        this.parsed = parsed;
+        this.onParsed = onParsed;
+    }
+
+    /**
+     * Creates a view that parses {@code json} on first access.
+     *
+     * @param json     raw metadata JSON, may be null
+     * @param onParsed invoked once with the parsed map, may be null
+     */
+    public static LazyMetadataMap of(String json, Consumer<Map<String, Object>> onParsed) {
+        return new LazyMetadataMap(json, json == null ? Collections.emptyMap() : null, onParsed);
+    }
+
+    /**
+     * Wraps metadata that has already been parsed (e.g. a cache hit).
+     */
+    public static LazyMetadataMap ofParsed(Map<String, Object> parsed) {
+        return new LazyMetadataMap(null, Collections.unmodifiableMap(parsed), null);
+    }
+
+    /**
+     * @return true once the underlying JSON has been decoded
+     */
+    public boolean isParsed() {
+        return parsed != null;
+    }
+
+    /**
+     * @return the raw JSON this view was created from, or null for pre-parsed metadata
+     */
+    public String rawJson() {
+        return json;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return parsed().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return parsed().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return parsed().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return parsed().isEmpty();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return parsed().entrySet();
+    }
+
+    private Map<String, Object> parsed() {
+        Map<String, Object> result = parsed;
+        if (result == null) {
+            synchronized (this) {
+                result = parsed;
+                if (result == null) {
+                    result = Collections.unmodifiableMap(parse(json));
+                    parsed = result;
+                    if (onParsed != null) {
+                        onParsed.accept(result);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(String json) {
+        try {
+            Map<String, Object> map = OBJECT_MAPPER.readValue(json, Map.class);
+            return map != null ? map : Collections.emptyMap();
+        } catch (Exception e) {
+            log.warn("Failed to parse metadata JSON: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package ai.kompile.vectorstore.anserini.hydration;
+
+import java.util.Map;
+
+/**
+ * A vector search hit hydrated with only the stored fields the caller asked for.
+ *
+ * @param id          the document id
+ * @param luceneDocId the top-level lucene docid within the searcher snapshot
+ * @param score       the similarity score
+ * @param fields      the requested stored string fields (excluding metadata)
+ * @param metadata    lazily decoded metadata; empty unless "metadata" was requested
+ */
+public record ProjectedHit(
+        String id,
+        int luceneDocId,
+        float score,
+        Map<String, String> fields,
+        LazyMetadataMap metadata
+) {
+
+    /**
+     * Convenience accessor for a projected stored field.
+     */
+    public String field(String name) {
+        return fields.get(name);
+    }
+}
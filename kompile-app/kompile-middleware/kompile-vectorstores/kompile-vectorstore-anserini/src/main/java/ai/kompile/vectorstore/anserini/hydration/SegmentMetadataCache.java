@@ -0,0 +1,141 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package ai.kompile.vectorstore.anserini.hydration;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU of parsed {@code metadata} maps, keyed by segment and
+ * segment-local docid.
+ * <p>
+ * Stored fields of a document never change inside a segment, so the segment
+ * core cache key plus the local docid identifies the same metadata across
+ * reader reopens. Entries of merged-away segments simply age out.
+ */
+public final class SegmentMetadataCache {
+
+    /**
+     * Identifies a document within a specific segment core.
+     */
+    public record SegmentDocKey(Object segmentKey, int localDocId) {
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<SegmentDocKey, Map<String, Object>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SegmentMetadataCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SegmentDocKey, Map<String, Object>> eldest) {
+                return size() > SegmentMetadataCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Resolves the segment key for a top-level docid of {@code reader}.
+     *
+     * @return the key, or null if the segment does not expose a core cache key
+     */
+    public static SegmentDocKey keyFor(IndexReader reader, int docId) {
+        List<LeafReaderContext> leaves = reader.leaves();
+        LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(docId, leaves));
+        IndexReader.CacheHelper cacheHelper = leaf.reader().getCoreCacheHelper();
+        if (cacheHelper == null) {
+            return null;
+        }
+        return new SegmentDocKey(cacheHelper.getKey(), docId - leaf.docBase);
+    }
+
+    /**
+     * @return the cached metadata, or null on a miss
+     */
+    public Map<String, Object> get(SegmentDocKey key) {
+        if (key == null || maxEntries <= 0) {
+            return null;
+        }
+        Map<String, Object> metadata;
+        synchronized (entries) {
+            metadata = entries.get(key);
+        }
+        if (metadata != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return metadata;
+    }
+
+    public void put(SegmentDocKey key, Map<String, Object> metadata) {
+        if (key == null || metadata == null || maxEntries <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, metadata);
+        }
+    }
+
+    /**
+     * Returns a lazily-decoded view for the given document, served from the
+     * cache when possible and populating it on first parse otherwise.
+     */
+    public LazyMetadataMap lookup(SegmentDocKey key, String json) {
+        if (json == null) {
+            return LazyMetadataMap.of(null, null);
+        }
+        Map<String, Object> cached = get(key);
+        if (cached != null) {
+            return LazyMetadataMap.ofParsed(cached);
+        }
+        return LazyMetadataMap.of(json, key == null ? null : parsed -> put(key, parsed));
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+}
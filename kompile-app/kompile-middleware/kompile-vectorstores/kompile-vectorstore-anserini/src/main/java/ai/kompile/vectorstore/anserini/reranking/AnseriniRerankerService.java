@@ -20,6 +20,7 @@ import ai.kompile.core.embeddings.ScoredDocument;
 import ai.kompile.core.reranking.NoOpReranker;
 import ai.kompile.core.reranking.Reranker;
 import ai.kompile.core.reranking.RerankerConfig;
+import ai.kompile.core.reranking.RerankerContext;
 import ai.kompile.core.reranking.RerankerService;
 import ai.kompile.core.reranking.RerankerType;
 import org.slf4j.Logger;
@@ -87,6 +88,12 @@ public class AnseriniRerankerService implements RerankerService {
 
     @Override
     public List<ScoredDocument> rerank(List<ScoredDocument> documents, String query, RerankerConfig config) {
+        return rerank(documents, query, config, RerankerContext.empty());
+    }
+
+    @Override
+    public List<ScoredDocument> rerank(List<ScoredDocument> documents, String query, RerankerConfig config,
+                                       RerankerContext context) {
         if (documents == null || documents.isEmpty()) {
             return documents;
         }
@@ -100,7 +107,7 @@ public class AnseriniRerankerService implements RerankerService {
         log.debug("Reranking {} documents with {} for query: '{}'",
                 documents.size(), reranker.tag(), truncateQuery(query));
 
-        return reranker.rerank(documents, query);
+        return reranker.rerank(documents, query, context != null ? context : RerankerContext.empty());
     }
 
     @Override
@@ -140,7 +147,7 @@ public class AnseriniRerankerService implements RerankerService {
             case AXIOM:
                 return new AxiomRerankerAdapter(config);
             case CROSS_ENCODER:
-                return new CrossEncoderRerankerAdapter(config);
+                return new CrossEncoderRerankerAdapter(config, createCascadeStage(config));
             case SCORE_TIES_ADJUSTER:
                 return new ScoreTiesAdjusterRerankerAdapter();
             case RRF:
@@ -155,6 +162,20 @@ public class AnseriniRerankerService implements RerankerService {
         }
     }
 
+    /**
+     * Create the cheap first stage that prunes candidates before the cross-encoder.
+     * Returns null when no stage is configured, in which case the cross-encoder keeps
+     * candidates by their incoming (retrieval) score.
+     */
+    private Reranker createCascadeStage(RerankerConfig config) {
+        RerankerType stage = config.getCascadeStage();
+        if (config.getCascadeKeep() <= 0 || stage == null
+                || stage == RerankerType.NONE || stage == RerankerType.CROSS_ENCODER) {
+            return null;
+        }
+        return createReranker(config.copy().setType(stage).setTopK(-1));
+    }
+
     private String truncateQuery(String query) {
         if (query == null) {
             return "";
@@ -0,0 +1,97 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.vectorstore.anserini.reranking;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Groups cross-encoder pairs into inference batches under a padded-token budget.
+ * <p>
+ * Every pair in a batch is padded to the longest one, so the cost of a batch is
+ * {@code pairs x longest pair}. Feeding pairs shortest first keeps similar lengths
+ * together; a batch is closed when the next pair would push that product over the
+ * budget or the batch reaches its size cap. A single pair longer than the budget still
+ * gets a batch of its own.
+ */
+final class CrossEncoderBatchPlanner {
+
+    private final int tokenBudget;
+    private final int maxBatchSize;
+    private int size;
+    private int longest;
+
+    CrossEncoderBatchPlanner(int tokenBudget, int maxBatchSize) {
+        this.tokenBudget = Math.max(1, tokenBudget);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Whether a pair of the given token length fits the open batch.
+     */
+    boolean fits(int length) {
+        if (size == 0) {
+            return true;
+        }
+        return size < maxBatchSize && (long) (size + 1) * Math.max(longest, length) <= tokenBudget;
+    }
+
+    /**
+     * Add a pair to the open batch.
+     */
+    void add(int length) {
+        size++;
+        longest = Math.max(longest, length);
+    }
+
+    /**
+     * Close the open batch.
+     */
+    void reset() {
+        size = 0;
+        longest = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int longest() {
+        return longest;
+    }
+
+    /**
+     * Candidate indices ordered shortest text first. Character length stands in for the
+     * tokenized pair length, which is only known after tokenization; the query is shared
+     * by every pair so it does not change the order.
+     */
+    static int[] lengthOrder(List<ScoredDocument> documents) {
+        int[] lengths = new int[documents.size()];
+        for (int i = 0; i < lengths.length; i++) {
+            String text = documents.get(i).getText();
+            lengths[i] = text != null ? text.length() : 0;
+        }
+        return IntStream.range(0, lengths.length)
+                .boxed()
+                .sorted(Comparator.comparingInt(i -> lengths[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
@@ -17,6 +17,7 @@
 package ai.kompile.vectorstore.anserini.reranking;
 
 import ai.kompile.core.embeddings.ScoredDocument;
+import ai.kompile.core.reranking.RerankLatencyStats;
 import ai.kompile.core.reranking.Reranker;
 import ai.kompile.core.reranking.RerankerConfig;
 import ai.kompile.core.reranking.RerankerContext;
@@ -46,7 +47,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Cross-Encoder reranker adapter using SameDiff models.
@@ -71,6 +81,13 @@ import java.util.concurrent.locks.ReentrantLock;
  * Models are converted from HuggingFace PyTorch format to SameDiff (.sdz).
  * Source URLs are documented in ModelConstants for reference.
  * <p>
+ * Pairs are scored shortest first in batches sized by a padded-token budget
+ * ({@link CrossEncoderBatchPlanner}), with the next batch tokenized on a background
+ * thread while the current one runs inference. An optional cascade lets a cheap first
+ * stage (e.g. BM25-PRF, or the incoming bi-encoder score) keep only the best
+ * {@code cascadeKeep} candidates for the cross-encoder; the pruned ones follow in
+ * first-stage order. Call latency per candidate count is recorded in {@link RerankLatencyStats#shared()}.
+ * <p>
  * Note: This adapter requires SameDiff (ND4J) for model inference. If not available,
  * it falls back to a simple term overlap scoring as a baseline.
  */
@@ -92,9 +109,23 @@ public class CrossEncoderRerankerAdapter implements Reranker {
         return registryManager;
     }
 
+    // Background tokenization, shared by all adapters
+    private static final AtomicInteger TOKENIZER_THREADS = new AtomicInteger();
+    private static final ExecutorService TOKENIZER_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "cross-encoder-tokenizer-" + TOKENIZER_THREADS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Tokenized batches allowed ahead of inference
+    private static final int PIPELINE_DEPTH = 2;
+
     private final String modelId;
     private final int topK;
-    private final int batchSize;
+    private final int tokenBudget;
+    private final int maxBatchSize;
+    private final int cascadeKeep;
+    private final Reranker firstStage;
     private final ModelDescriptor modelDescriptor;
     private final boolean samediffAvailable;
     private final KompileModelManager modelManager;
@@ -109,6 +140,7 @@ public class CrossEncoderRerankerAdapter implements Reranker {
     private SamediffBertTokenizerPreProcessor tokenizer;
     private boolean sameDiffModelLoaded = false;
     private final ReentrantLock inferenceLock = new ReentrantLock();
+    private final ReentrantLock tokenizerLock = new ReentrantLock();
 
     // Default tokenizer configuration
     private static final int DEFAULT_MAX_SEQUENCE_LENGTH = 512;
@@ -116,7 +148,15 @@ public class CrossEncoderRerankerAdapter implements Reranker {
     private static final boolean DEFAULT_ADD_SPECIAL_TOKENS = true;
 
     public CrossEncoderRerankerAdapter(RerankerConfig config) {
-        this(config, getDefaultModelId(), null);
+        this(config, getDefaultModelId(), null, null);
+    }
+
+    /**
+     * @param firstStage Cascade stage that ranks candidates before pruning to
+     *                   {@code cascadeKeep}, or null to prune by the incoming score
+     */
+    public CrossEncoderRerankerAdapter(RerankerConfig config, Reranker firstStage) {
+        this(config, getDefaultModelId(), null, firstStage);
     }
 
     public CrossEncoderRerankerAdapter(RerankerConfig config, String modelId) {
@@ -124,9 +164,17 @@ public class CrossEncoderRerankerAdapter implements Reranker {
     }
 
     public CrossEncoderRerankerAdapter(RerankerConfig config, String modelId, KompileModelManager modelManager) {
+        this(config, modelId, modelManager, null);
+    }
+
+    public CrossEncoderRerankerAdapter(RerankerConfig config, String modelId, KompileModelManager modelManager,
+                                       Reranker firstStage) {
         this.modelId = modelId;
         this.topK = config.getTopK() > 0 ? config.getTopK() : -1; // -1 means rerank all
-        this.batchSize = 32; // Default batch size
+        this.tokenBudget = config.getCrossEncoderTokenBudget();
+        this.maxBatchSize = config.getCrossEncoderMaxBatchSize();
+        this.cascadeKeep = config.getCascadeKeep() > 0 ? config.getCascadeKeep() : -1; // -1 means no cascade
+        this.firstStage = firstStage;
         this.modelManager = modelManager != null ? modelManager : new KompileModelManager();
 
         // Try registry first, then fall back to ModelConstants
@@ -272,14 +320,37 @@ public class CrossEncoderRerankerAdapter implements Reranker {
             return documents;
         }
 
+        long start = System.nanoTime();
+        try {
+            return rerankCandidates(documents, query, context);
+        } finally {
+            RerankLatencyStats.shared().record(documents.size(), System.nanoTime() - start);
+        }
+    }
+
+    private List<ScoredDocument> rerankCandidates(List<ScoredDocument> documents, String query,
+                                                  RerankerContext context) {
         log.debug("Cross-encoder reranking {} documents with model '{}'", documents.size(), modelId);
 
+        // Cascade: a cheap first stage decides which candidates are worth a cross-encoder pass
+        List<ScoredDocument> candidates = documents;
+        List<ScoredDocument> pruned = List.of();
+        if (cascadeKeep > 0 && documents.size() > cascadeKeep) {
+            List<ScoredDocument> ranked = firstStage != null
+                    ? firstStage.rerank(documents, query, context)
+                    : sortByScore(documents);
+            int keep = Math.min(cascadeKeep, ranked.size());
+            candidates = ranked.subList(0, keep);
+            pruned = ranked.subList(keep, ranked.size());
+            log.debug("Cascade {} kept {} of {} candidates for the cross-encoder",
+                    firstStage != null ? firstStage.tag() : "retrieval-score", keep, documents.size());
+        }
+
         // Determine how many documents to rerank
-        int numToRerank = topK > 0 ? Math.min(topK, documents.size()) : documents.size();
-        List<ScoredDocument> toRerank = documents.subList(0, numToRerank);
-        List<ScoredDocument> remaining = numToRerank < documents.size()
-                ? documents.subList(numToRerank, documents.size())
-                : List.of();
+        int numToRerank = topK > 0 ? Math.min(topK, candidates.size()) : candidates.size();
+        List<ScoredDocument> toRerank = candidates.subList(0, numToRerank);
+        List<ScoredDocument> remaining = new ArrayList<>(candidates.subList(numToRerank, candidates.size()));
+        remaining.addAll(pruned);
 
         // Score documents
         List<ScoredDocument> reranked;
@@ -313,42 +384,168 @@ public class CrossEncoderRerankerAdapter implements Reranker {
             log.warn("SameDiff model could not be loaded, falling back to term overlap scoring");
             return rerankWithFallback(documents, query);
         }
+        return scoreBatched(documents, query, this::encodePair, this::runInference);
+    }
 
-        List<ScoredDocument> reranked = new ArrayList<>();
+    /**
+     * Score pairs shortest first: {@code encoder} runs on a tokenizer thread and hands
+     * token-budgeted batches to {@code inference} on the calling thread. Pairs whose
+     * tokenization or batch failed get the term overlap score.
+     */
+    List<ScoredDocument> scoreBatched(List<ScoredDocument> documents, String query,
+                                      BiFunction<String, String, SamediffBertTokenizerPreProcessor.BertEncoding> encoder,
+                                      Function<EncodedBatch, double[]> inference) {
         long startTime = System.currentTimeMillis();
+        double[] scores = new double[documents.size()];
+        boolean[] scored = new boolean[documents.size()];
+        int batches = 0;
+
+        // Tokenize shortest first on a background thread so the next batch is ready
+        // as soon as the current one leaves inference
+        BlockingQueue<EncodedBatch> queue = new ArrayBlockingQueue<>(PIPELINE_DEPTH);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        int[] order = CrossEncoderBatchPlanner.lengthOrder(documents);
+        TOKENIZER_EXECUTOR.execute(() -> tokenizeBatches(query, documents, order, encoder, queue, cancelled));
+        try {
+            EncodedBatch batch;
+            while ((batch = queue.take()) != EncodedBatch.END) {
+                batches++;
+                try {
+                    double[] batchScores = inference.apply(batch);
+                    for (int i = 0; i < batch.indices().length; i++) {
+                        scores[batch.indices()[i]] = batchScores[i];
+                        scored[batch.indices()[i]] = true;
+                    }
+                } catch (Exception e) {
+                    log.warn("Batch inference failed, using fallback for {} documents: {}",
+                            batch.indices().length, e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Cross-encoder scoring interrupted, using fallback for unscored documents");
+        } finally {
+            cancelled.set(true);
+            queue.clear();
+        }
 
-        // Process documents in batches for efficiency
-        int batchStart = 0;
-        while (batchStart < documents.size()) {
-            int batchEnd = Math.min(batchStart + batchSize, documents.size());
-            List<ScoredDocument> batch = documents.subList(batchStart, batchEnd);
+        // Term overlap for anything that failed tokenization or inference
+        String[] queryTerms = query.toLowerCase().split("\\s+");
+        List<ScoredDocument> reranked = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            ScoredDocument doc = documents.get(i);
+            double score = scored[i] ? scores[i] : computeFallbackScore(doc, queryTerms);
+            reranked.add(new ScoredDocument(doc.document(), score));
+        }
 
-            try {
-                List<Double> scores = scoreBatch(query, batch);
-                for (int i = 0; i < batch.size(); i++) {
-                    ScoredDocument doc = batch.get(i);
-                    double newScore = scores.get(i);
-                    reranked.add(new ScoredDocument(doc.document(), newScore));
+        long elapsed = System.currentTimeMillis() - startTime;
+        log.debug("SameDiff cross-encoder scored {} documents in {} batches in {}ms ({} docs/sec)",
+                documents.size(), batches, elapsed,
+                String.format("%.1f", documents.size() * 1000.0 / Math.max(1, elapsed)));
+
+        return reranked;
+    }
+
+    /**
+     * Tokenize pairs in the given order and hand them to the inference loop in
+     * token-budgeted batches. Always ends the stream with {@link EncodedBatch#END};
+     * pairs that never made it into a batch are scored by the fallback.
+     */
+    private void tokenizeBatches(String query, List<ScoredDocument> documents, int[] order,
+                                 BiFunction<String, String, SamediffBertTokenizerPreProcessor.BertEncoding> encoder,
+                                 BlockingQueue<EncodedBatch> queue, AtomicBoolean cancelled) {
+        CrossEncoderBatchPlanner planner = new CrossEncoderBatchPlanner(tokenBudget, maxBatchSize);
+        List<Integer> indices = new ArrayList<>();
+        List<SamediffBertTokenizerPreProcessor.BertEncoding> encodings = new ArrayList<>();
+        try {
+            for (int index : order) {
+                if (cancelled.get()) {
+                    return;
                 }
-            } catch (Exception e) {
-                log.warn("Batch inference failed, using fallback for {} documents: {}",
-                        batch.size(), e.getMessage());
-                // Fall back to term overlap for this batch
-                for (ScoredDocument doc : batch) {
-                    String[] queryTerms = query.toLowerCase().split("\\s+");
-                    double score = computeFallbackScore(doc, queryTerms);
-                    reranked.add(new ScoredDocument(doc.document(), score));
+                String docText = documents.get(index).getText();
+
+                SamediffBertTokenizerPreProcessor.BertEncoding encoding =
+                        encoder.apply(query, docText != null ? docText : "");
+
+                int length = encoding.inputIds().length;
+                if (!planner.fits(length)) {
+                    if (!handOff(queue, padBatch(indices, encodings, planner.longest()), cancelled)) {
+                        return;
+                    }
+                    indices.clear();
+                    encodings.clear();
+                    planner.reset();
                 }
+                planner.add(length);
+                indices.add(index);
+                encodings.add(encoding);
+            }
+            if (!indices.isEmpty()) {
+                handOff(queue, padBatch(indices, encodings, planner.longest()), cancelled);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Cross-encoder tokenization failed, remaining pairs use fallback scoring: {}", e.getMessage());
+        } finally {
+            try {
+                handOff(queue, EncodedBatch.END, cancelled);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+        }
+    }
 
-            batchStart = batchEnd;
+    /**
+     * Tokenize one pair in cross-encoder format: [CLS] query [SEP] document [SEP].
+     */
+    private SamediffBertTokenizerPreProcessor.BertEncoding encodePair(String query, String document) {
+        tokenizerLock.lock();
+        try {
+            return tokenizer.encodePair(query, document);
+        } finally {
+            tokenizerLock.unlock();
         }
+    }
 
-        long elapsed = System.currentTimeMillis() - startTime;
-        log.debug("SameDiff cross-encoder scored {} documents in {}ms ({} docs/sec)",
-                documents.size(), elapsed, String.format("%.1f", documents.size() * 1000.0 / Math.max(1, elapsed)));
+    private static boolean handOff(BlockingQueue<EncodedBatch> queue, EncodedBatch batch, AtomicBoolean cancelled)
+            throws InterruptedException {
+        while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (cancelled.get()) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        return reranked;
+    /**
+     * Pad a batch of encodings to its longest pair. Padding values are 0.
+     */
+    private static EncodedBatch padBatch(List<Integer> indices,
+                                         List<SamediffBertTokenizerPreProcessor.BertEncoding> encodings,
+                                         int maxLen) {
+        int batchLen = encodings.size();
+        int[][] paddedInputIds = new int[batchLen][maxLen];
+        int[][] paddedAttentionMask = new int[batchLen][maxLen];
+        int[][] paddedTokenTypeIds = new int[batchLen][maxLen];
+
+        for (int i = 0; i < batchLen; i++) {
+            SamediffBertTokenizerPreProcessor.BertEncoding encoding = encodings.get(i);
+            int[] ids = encoding.inputIdsAsInt();
+            System.arraycopy(ids, 0, paddedInputIds[i], 0, ids.length);
+            System.arraycopy(encoding.attentionMaskAsInt(), 0, paddedAttentionMask[i], 0, ids.length);
+            System.arraycopy(encoding.tokenTypeIdsAsInt(), 0, paddedTokenTypeIds[i], 0, ids.length);
+        }
+
+        return new EncodedBatch(indices.stream().mapToInt(Integer::intValue).toArray(),
+                paddedInputIds, paddedAttentionMask, paddedTokenTypeIds);
+    }
+
+    /**
+     * A padded batch of tokenized pairs and the candidate indices they belong to.
+     */
+    record EncodedBatch(int[] indices, int[][] inputIds, int[][] attentionMask, int[][] tokenTypeIds) {
+        static final EncodedBatch END = new EncodedBatch(new int[0], null, null, null);
     }
 
     /**
@@ -431,60 +628,18 @@ public class CrossEncoderRerankerAdapter implements Reranker {
     }
 
     /**
-     * Score a batch of query-document pairs using the cross-encoder model.
+     * Score a padded batch of query-document pairs using the cross-encoder model.
      */
-    private List<Double> scoreBatch(String query, List<ScoredDocument> documents) {
+    private double[] runInference(EncodedBatch batch) {
         inferenceLock.lock();
         try {
-            int batchLen = documents.size();
-            List<Double> scores = new ArrayList<>(batchLen);
-
-            // Tokenize query-document pairs
-            // Cross-encoder format: [CLS] query [SEP] document [SEP]
-            List<int[]> inputIds = new ArrayList<>();
-            List<int[]> attentionMasks = new ArrayList<>();
-            List<int[]> tokenTypeIds = new ArrayList<>();
-            int maxLen = 0;
-
-            for (ScoredDocument doc : documents) {
-                String docText = doc.getText();
-                if (docText == null) docText = "";
-
-                // Encode query-document pair
-                // The tokenizer will handle [CLS] query [SEP] document [SEP] formatting
-                SamediffBertTokenizerPreProcessor.BertEncoding encoding =
-                        tokenizer.encodePair(query, docText);
-
-                // Convert to int[] for ND4J compatibility
-                inputIds.add(encoding.inputIdsAsInt());
-                attentionMasks.add(encoding.attentionMaskAsInt());
-                tokenTypeIds.add(encoding.tokenTypeIdsAsInt());
-
-                maxLen = Math.max(maxLen, encoding.inputIds().length);
-            }
-
-            // Pad sequences to max length in batch
-            int[][] paddedInputIds = new int[batchLen][maxLen];
-            int[][] paddedAttentionMask = new int[batchLen][maxLen];
-            int[][] paddedTokenTypeIds = new int[batchLen][maxLen];
-
-            for (int i = 0; i < batchLen; i++) {
-                int[] ids = inputIds.get(i);
-                int[] mask = attentionMasks.get(i);
-                int[] types = tokenTypeIds.get(i);
-
-                for (int j = 0; j < ids.length; j++) {
-                    paddedInputIds[i][j] = ids[j];
-                    paddedAttentionMask[i][j] = mask[j];
-                    paddedTokenTypeIds[i][j] = types[j];
-                }
-                // Padding values are 0 by default (already correct)
-            }
+            int batchLen = batch.indices().length;
+            double[] scores = new double[batchLen];
 
             // Create ND4J tensors
-            INDArray inputIdsTensor = Nd4j.createFromArray(paddedInputIds);
-            INDArray attentionMaskTensor = Nd4j.createFromArray(paddedAttentionMask);
-            INDArray tokenTypeIdsTensor = Nd4j.createFromArray(paddedTokenTypeIds);
+            INDArray inputIdsTensor = Nd4j.createFromArray(batch.inputIds());
+            INDArray attentionMaskTensor = Nd4j.createFromArray(batch.attentionMask());
+            INDArray tokenTypeIdsTensor = Nd4j.createFromArray(batch.tokenTypeIds());
 
             try {
                 // Build input map - dynamically determine input names
@@ -533,12 +688,12 @@ public class CrossEncoderRerankerAdapter implements Reranker {
                 if (shape.length == 1) {
                     // Shape [batch]
                     for (int i = 0; i < batchLen; i++) {
-                        scores.add(outputTensor.getDouble(i));
+                        scores[i] = outputTensor.getDouble(i);
                     }
                 } else if (shape.length == 2 && shape[1] == 1) {
                     // Shape [batch, 1]
                     for (int i = 0; i < batchLen; i++) {
-                        scores.add(outputTensor.getDouble(i, 0));
+                        scores[i] = outputTensor.getDouble(i, 0);
                     }
                 } else if (shape.length == 2 && shape[1] == 2) {
                     // Shape [batch, 2] - logits for [not_relevant, relevant]
@@ -550,14 +705,14 @@ public class CrossEncoderRerankerAdapter implements Reranker {
                         double exp0 = Math.exp(logit0 - expMax);
                         double exp1 = Math.exp(logit1 - expMax);
                         double relevanceProb = exp1 / (exp0 + exp1);
-                        scores.add(relevanceProb);
+                        scores[i] = relevanceProb;
                     }
                 } else {
                     // Unknown shape - take first element as score
                     log.warn("Unexpected output shape: {}. Taking first element as score.",
                             java.util.Arrays.toString(shape));
                     for (int i = 0; i < batchLen; i++) {
-                        scores.add(outputTensor.getDouble(i));
+                        scores[i] = outputTensor.getDouble(i);
                     }
                 }
 
@@ -578,6 +733,12 @@ public class CrossEncoderRerankerAdapter implements Reranker {
         }
     }
 
+    private static List<ScoredDocument> sortByScore(List<ScoredDocument> documents) {
+        List<ScoredDocument> sorted = new ArrayList<>(documents);
+        sorted.sort(Comparator.comparingDouble(ScoredDocument::score).reversed());
+        return sorted;
+    }
+
     /**
      * Fallback reranking using enhanced term overlap scoring.
      * This provides a baseline when neural inference is not available.
@@ -648,8 +809,11 @@ public class CrossEncoderRerankerAdapter implements Reranker {
     @Override
     public String tag() {
         String source = loadedFromRegistry ? "registry" : "built-in";
-        return String.format("CrossEncoder(model=%s,topK=%d,loaded=%s,samediff=%s,source=%s)",
-                modelId, topK, modelLoaded ? "true" : "false",
+        String cascade = cascadeKeep > 0
+                ? (firstStage != null ? firstStage.getType().getId() : "score") + ":" + cascadeKeep
+                : "none";
+        return String.format("CrossEncoder(model=%s,topK=%d,tokenBudget=%d,cascade=%s,loaded=%s,samediff=%s,source=%s)",
+                modelId, topK, tokenBudget, cascade, modelLoaded ? "true" : "false",
                 samediffAvailable ? "true" : "fallback", source);
     }
 
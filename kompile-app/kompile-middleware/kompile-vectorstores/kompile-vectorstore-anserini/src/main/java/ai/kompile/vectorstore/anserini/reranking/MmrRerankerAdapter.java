@@ -21,6 +21,7 @@ import ai.kompile.core.reranking.Reranker;
 import ai.kompile.core.reranking.RerankerConfig;
 import ai.kompile.core.reranking.RerankerContext;
 import ai.kompile.core.reranking.RerankerType;
+import org.apache.lucene.util.VectorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -47,8 +49,11 @@ import java.util.stream.Collectors;
  *   <li>λ (lambda) = 0.5: Balanced (default)</li>
  * </ul>
  * <p>
- * This implementation uses term overlap (Jaccard similarity) to measure
- * document-document similarity, which works well for text documents.
+ * Document-document similarity is the cosine of the documents' dense vectors when
+ * the context carries them ({@link RerankerContext#DOCUMENT_VECTORS}) for every
+ * document, and term overlap (Jaccard similarity) otherwise. Each candidate keeps a
+ * running max similarity that is updated once per selected document, so selecting
+ * k of n documents costs O(n·k) similarity evaluations.
  * <p>
  * Reference: Carbonell, J., & Goldstein, J. (1998). The use of MMR,
  * diversity-based reranking for reordering documents and producing summaries.
@@ -58,9 +63,11 @@ public class MmrRerankerAdapter implements Reranker {
     private static final Logger log = LoggerFactory.getLogger(MmrRerankerAdapter.class);
 
     private final float lambda;
+    private final boolean useVectors;
 
     public MmrRerankerAdapter(RerankerConfig config) {
         this.lambda = config.getLambda();
+        this.useVectors = config.isMmrUseVectors();
     }
 
     @Override
@@ -79,83 +86,131 @@ public class MmrRerankerAdapter implements Reranker {
         double scoreRange = maxScore - minScore;
         if (scoreRange == 0) scoreRange = 1.0;
 
-        // Pre-compute term sets for all documents (for similarity calculation)
-        List<Set<String>> documentTermSets = new ArrayList<>();
-        for (ScoredDocument doc : documents) {
-            documentTermSets.add(tokenize(doc.getText()));
-        }
-
-        // Track selected documents and remaining candidates
-        List<ScoredDocument> selected = new ArrayList<>();
-        List<Integer> remaining = new ArrayList<>();
-        for (int i = 0; i < documents.size(); i++) {
-            remaining.add(i);
+        int n = documents.size();
+        double[] relevance = new double[n];
+        for (int i = 0; i < n; i++) {
+            relevance[i] = (documents.get(i).score() - minScore) / scoreRange;
         }
 
-        // Iteratively select documents using MMR
-        double finalScoreRange = scoreRange;
-        while (!remaining.isEmpty()) {
-            int bestIdx = -1;
-            double bestMmrScore = Double.NEGATIVE_INFINITY;
-            int bestOriginalIdx = -1;
-
-            for (int idx : remaining) {
-                ScoredDocument candidate = documents.get(idx);
+        float[][] vectors = useVectors ? unitVectors(documents, context) : null;
+        Similarity similarity = vectors != null ? vectorSimilarity(vectors) : termSimilarity(documents);
 
-                // Compute normalized relevance score
-                double normalizedRelevance = (candidate.score() - minScore) / finalScoreRange;
+        List<ScoredDocument> selected = select(documents, relevance, similarity);
 
-                // Compute max similarity to already selected documents
-                double maxSimilarity = 0.0;
-                Set<String> candidateTerms = documentTermSets.get(idx);
+        log.debug("MMR reranking complete: {} documents with lambda={} using {} similarity",
+                selected.size(), lambda, vectors != null ? "vector" : "term");
+        return selected;
+    }
 
-                for (ScoredDocument selectedDoc : selected) {
-                    int selectedOriginalIdx = findOriginalIndex(documents, selectedDoc);
-                    if (selectedOriginalIdx >= 0) {
-                        Set<String> selectedTerms = documentTermSets.get(selectedOriginalIdx);
-                        double similarity = jaccardSimilarity(candidateTerms, selectedTerms);
-                        maxSimilarity = Math.max(maxSimilarity, similarity);
-                    }
+    /**
+     * Greedy MMR selection. {@code maxSimilarity[i]} is the highest similarity between
+     * candidate i and any selected document; it only changes when a document is
+     * selected, so each round costs one similarity per remaining candidate.
+     */
+    private List<ScoredDocument> select(List<ScoredDocument> documents, double[] relevance, Similarity similarity) {
+        int n = documents.size();
+        double[] maxSimilarity = new double[n];
+        boolean[] taken = new boolean[n];
+        List<ScoredDocument> selected = new ArrayList<>(n);
+
+        for (int round = 0; round < n; round++) {
+            int best = -1;
+            double bestMmrScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (taken[i]) {
+                    continue;
                 }
-
                 // Compute MMR score: λ * relevance - (1 - λ) * max_similarity
-                double mmrScore = lambda * normalizedRelevance - (1 - lambda) * maxSimilarity;
-
+                double mmrScore = lambda * relevance[i] - (1 - lambda) * maxSimilarity[i];
                 if (mmrScore > bestMmrScore) {
                     bestMmrScore = mmrScore;
-                    bestIdx = remaining.indexOf(idx);
-                    bestOriginalIdx = idx;
+                    best = i;
                 }
             }
-
-            if (bestIdx >= 0) {
-                // Add best document with MMR score
-                ScoredDocument bestDoc = documents.get(bestOriginalIdx);
-                selected.add(new ScoredDocument(bestDoc.document(), bestMmrScore));
-                remaining.remove(bestIdx);
-            } else {
+            if (best < 0) {
                 break;
             }
-        }
 
-        log.debug("MMR reranking complete: {} documents with lambda={}", selected.size(), lambda);
+            taken[best] = true;
+            selected.add(new ScoredDocument(documents.get(best).document(), bestMmrScore));
+
+            for (int i = 0; i < n; i++) {
+                if (!taken[i]) {
+                    maxSimilarity[i] = Math.max(maxSimilarity[i], similarity.between(best, i));
+                }
+            }
+        }
         return selected;
     }
 
-    private int findOriginalIndex(List<ScoredDocument> documents, ScoredDocument target) {
-        for (int i = 0; i < documents.size(); i++) {
-            if (documents.get(i).document() == target.document()) {
-                return i;
+    /**
+     * Similarity between two documents by their position in the input list.
+     */
+    @FunctionalInterface
+    private interface Similarity {
+        double between(int a, int b);
+    }
+
+    /**
+     * Cosine similarity over unit-length copies of the vectors, i.e. a plain dot product.
+     * Lucene's {@link VectorUtil#dotProduct} uses the SIMD implementation when the JVM
+     * provides the vector API, and an unrolled scalar loop otherwise.
+     */
+    private static Similarity vectorSimilarity(float[][] unitVectors) {
+        return (a, b) -> VectorUtil.dotProduct(unitVectors[a], unitVectors[b]);
+    }
+
+    private static Similarity termSimilarity(List<ScoredDocument> documents) {
+        List<Set<String>> documentTermSets = new ArrayList<>(documents.size());
+        for (ScoredDocument doc : documents) {
+            documentTermSets.add(tokenize(doc.getText()));
+        }
+        return (a, b) -> jaccardSimilarity(documentTermSets.get(a), documentTermSets.get(b));
+    }
+
+    /**
+     * Looks up every document's vector in the context and normalizes a copy of each.
+     *
+     * @return The unit vectors in document order, or null unless every document has a
+     *         vector of the same dimension
+     */
+    private static float[][] unitVectors(List<ScoredDocument> documents, RerankerContext context) {
+        if (context == null) {
+            return null;
+        }
+        Map<String, float[]> byId = context.getAttribute(RerankerContext.DOCUMENT_VECTORS);
+        if (byId == null || byId.isEmpty()) {
+            return null;
+        }
+        float[][] vectors = new float[documents.size()][];
+        for (int i = 0; i < vectors.length; i++) {
+            float[] vector = byId.get(documents.get(i).getId());
+            if (vector == null || (i > 0 && vector.length != vectors[0].length)) {
+                log.debug("MMR: no usable vector for document {}, falling back to term similarity",
+                        documents.get(i).getId());
+                return null;
+            }
+            vectors[i] = normalize(vector);
+        }
+        return vectors;
+    }
+
+    private static float[] normalize(float[] vector) {
+        float[] unit = vector.clone();
+        double norm = Math.sqrt(VectorUtil.dotProduct(unit, unit));
+        if (norm > 0) {
+            for (int d = 0; d < unit.length; d++) {
+                unit[d] /= (float) norm;
             }
         }
-        return -1;
+        return unit;
     }
 
     /**
      * Compute Jaccard similarity between two term sets.
      * J(A,B) = |A ∩ B| / |A ∪ B|
      */
-    private double jaccardSimilarity(Set<String> set1, Set<String> set2) {
+    private static double jaccardSimilarity(Set<String> set1, Set<String> set2) {
         if (set1.isEmpty() && set2.isEmpty()) {
             return 1.0;
         }
@@ -163,16 +218,18 @@ public class MmrRerankerAdapter implements Reranker {
             return 0.0;
         }
 
-        Set<String> intersection = new HashSet<>(set1);
-        intersection.retainAll(set2);
-
-        Set<String> union = new HashSet<>(set1);
-        union.addAll(set2);
-
-        return (double) intersection.size() / union.size();
+        Set<String> smaller = set1.size() <= set2.size() ? set1 : set2;
+        Set<String> larger = smaller == set1 ? set2 : set1;
+        int intersection = 0;
+        for (String term : smaller) {
+            if (larger.contains(term)) {
+                intersection++;
+            }
+        }
+        return (double) intersection / (set1.size() + set2.size() - intersection);
     }
 
-    private Set<String> tokenize(String text) {
+    private static Set<String> tokenize(String text) {
         if (text == null || text.isBlank()) {
             return new HashSet<>();
         }
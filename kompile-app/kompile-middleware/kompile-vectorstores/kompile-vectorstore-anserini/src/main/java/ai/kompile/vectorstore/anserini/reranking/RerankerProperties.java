@@ -47,6 +47,12 @@ import org.springframework.stereotype.Component;
  * kompile.reranker.beta=0.75
  * kompile.reranker.gamma=0.15
  * kompile.reranker.use-negative=false
+ *
+ * # Cross-encoder parameters
+ * kompile.reranker.cross-encoder-token-budget=8192
+ * kompile.reranker.cross-encoder-max-batch-size=32
+ * kompile.reranker.cascade-stage=bm25prf
+ * kompile.reranker.cascade-keep=50
  * </pre>
  */
 @Component
@@ -125,6 +131,26 @@ public class RerankerProperties {
      */
     private boolean useNegative = false;
 
+    /**
+     * Padded tokens per cross-encoder inference batch (pairs x longest pair in the batch).
+     */
+    private int crossEncoderTokenBudget = 8192;
+
+    /**
+     * Maximum query-document pairs per cross-encoder inference batch.
+     */
+    private int crossEncoderMaxBatchSize = 32;
+
+    /**
+     * Cheap first stage run before the cross-encoder (none = keep by retrieval score).
+     */
+    private String cascadeStage = "none";
+
+    /**
+     * Candidates the cascade first stage passes to the cross-encoder (-1 disables the cascade).
+     */
+    private int cascadeKeep = -1;
+
     /**
      * Convert properties to RerankerConfig.
      */
@@ -143,7 +169,11 @@ public class RerankerProperties {
                 .setAlpha(alpha)
                 .setBeta(beta)
                 .setGamma(gamma)
-                .setUseNegative(useNegative);
+                .setUseNegative(useNegative)
+                .setCrossEncoderTokenBudget(crossEncoderTokenBudget)
+                .setCrossEncoderMaxBatchSize(crossEncoderMaxBatchSize)
+                .setCascadeStage(RerankerType.fromId(cascadeStage))
+                .setCascadeKeep(cascadeKeep);
     }
 
 }
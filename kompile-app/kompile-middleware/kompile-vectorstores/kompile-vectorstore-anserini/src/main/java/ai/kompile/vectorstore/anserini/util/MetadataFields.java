@@ -0,0 +1,456 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.vectorstore.anserini.util;
+
+import ai.kompile.core.rag.retrieval.MetadataFilters;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.KnnFloatVectorQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Indexed copies of selected metadata keys for the Lucene keyword and vector indexes.
+ * <p>
+ * Metadata is stored as one JSON blob, which is fine for display but forces every
+ * lookup by {@code source_id} to load and parse each document. At write time
+ * {@link #addTo(Document, Map)} also indexes:
+ * <ul>
+ *   <li>{@link #KEYWORD_KEYS} as {@code meta.<key>} {@link StringField} plus
+ *       {@link SortedDocValuesField}, for term lookups, pre-filters and facets</li>
+ *   <li>{@link #TIMESTAMP_KEYS} as {@code meta.<key>} {@link LongPoint} plus
+ *       {@link NumericDocValuesField} (epoch millis), for range filters and sorting</li>
+ * </ul>
+ * Every document written this way carries {@link #SCHEMA_FIELD}. Documents written before
+ * this existed lack it; {@link #unindexedQuery()} finds them so readers can fall back to
+ * the stored JSON, and {@link #migrate(IndexWriter, Rebuilder)} rewrites them in place.
+ * Documents the migration cannot rebuild are tagged with {@link #MIGRATION_SKIPPED_FIELD}
+ * so later runs do not rescan them; readers still treat them as unindexed.
+ */
+public final class MetadataFields {
+
+    /** Prefix of indexed metadata fields, keeping them apart from the stored {@code metadata} JSON. */
+    public static final String PREFIX = "meta.";
+
+    /** Marker on documents whose metadata keys are indexed; the value is the schema version. */
+    public static final String SCHEMA_FIELD = "meta_schema";
+    public static final String SCHEMA_VERSION = "1";
+
+    /**
+     * Doc-values-only flag set by {@link #migrate} on documents its rebuilder declined.
+     * Doc values can be updated in place, so the document itself is left untouched.
+     */
+    public static final String MIGRATION_SKIPPED_FIELD = "meta_schema_skipped";
+
+    /** Low-cardinality keys indexed as exact terms. */
+    public static final Set<String> KEYWORD_KEYS = Set.of(
+            "source_id", "source_type", "collection", "collection_name",
+            "content_type", "mime_type", "loader_name", "language");
+
+    /** Timestamp keys (ISO-8601 or epoch millis) indexed as longs. */
+    public static final Set<String> TIMESTAMP_KEYS = Set.of(
+            "indexed_at", "stored_at", "created_at", "last_modified");
+
+    /** Longer values are left to the stored JSON; Lucene terms are capped at 32 KiB anyway. */
+    private static final int MAX_TERM_LENGTH = 4096;
+
+    private static final String ID_FIELD = "id";
+
+    private MetadataFields() {
+    }
+
+    /**
+     * Rebuilds a full Lucene document for a legacy document during {@link #migrate}.
+     */
+    @FunctionalInterface
+    public interface Rebuilder {
+        /**
+         * @param leaf The segment the document lives in
+         * @param docId The segment-local document number
+         * @param stored The document's stored fields
+         * @return The replacement document, which must include {@link #addTo} fields,
+         *         or null to leave the document as it is and skip it in later migrations
+         */
+        Document rebuild(LeafReader leaf, int docId, Document stored) throws IOException;
+    }
+
+    /**
+     * @return The Lucene field name for an indexed metadata key
+     */
+    public static String field(String key) {
+        return PREFIX + key;
+    }
+
+    /**
+     * @return true if filters on {@code key} can be answered from the index
+     */
+    public static boolean isIndexed(String key) {
+        return KEYWORD_KEYS.contains(key) || TIMESTAMP_KEYS.contains(key);
+    }
+
+    /**
+     * Adds the schema marker and indexed copies of the known metadata keys.
+     *
+     * @param doc The document being written
+     * @param metadata Its metadata, may be null
+     */
+    public static void addTo(Document doc, Map<String, ?> metadata) {
+        doc.add(new StringField(SCHEMA_FIELD, SCHEMA_VERSION, Field.Store.NO));
+        if (metadata == null) {
+            return;
+        }
+        for (Map.Entry<String, ?> entry : metadata.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null || value instanceof Collection<?> || value instanceof Map<?, ?>) {
+                continue;
+            }
+            String key = entry.getKey();
+            if (KEYWORD_KEYS.contains(key)) {
+                String text = value.toString();
+                if (!text.isEmpty() && text.length() <= MAX_TERM_LENGTH) {
+                    doc.add(new StringField(field(key), text, Field.Store.NO));
+                    doc.add(new SortedDocValuesField(field(key), new BytesRef(text)));
+                }
+            } else if (TIMESTAMP_KEYS.contains(key)) {
+                Long millis = toEpochMillis(value);
+                if (millis != null) {
+                    doc.add(new LongPoint(field(key), millis));
+                    doc.add(new NumericDocValuesField(field(key), millis));
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a timestamp metadata value.
+     *
+     * @return Epoch millis, or null if the value is not a timestamp
+     */
+    public static Long toEpochMillis(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof Instant instant) {
+            return instant.toEpochMilli();
+        }
+        String text = value.toString().trim();
+        try {
+            return Instant.parse(text).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return true if every key in {@code filters} is indexed, so {@link #filterQuery}
+     *         can answer them without reading stored metadata
+     */
+    public static boolean canPreFilter(Map<String, ?> filters) {
+        if (MetadataFilters.isEmpty(filters)) {
+            return false;
+        }
+        for (String key : filters.keySet()) {
+            if (!isIndexed(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds a non-scoring query equivalent to {@link MetadataFilters#matches} for indexed keys.
+     *
+     * @throws IllegalArgumentException if a key is not indexed
+     */
+    public static Query filterQuery(Map<String, ?> filters) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (Map.Entry<String, ?> filter : filters.entrySet()) {
+            builder.add(valueQuery(filter.getKey(), filter.getValue()), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Restricts a scoring query to documents matching {@code filters}. The filter is a
+     * non-scoring clause, so scores are unchanged and only matching documents compete
+     * for the top hits.
+     */
+    public static Query filtered(Query scoring, Map<String, ?> filters) {
+        return new BooleanQuery.Builder()
+                .add(scoring, BooleanClause.Occur.MUST)
+                .add(filterQuery(filters), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    /**
+     * Builds a kNN query whose HNSW traversal only accepts documents matching
+     * {@code filters}. It explores {@code max(k, efSearch)} candidates, as an unfiltered
+     * search would; search it with {@code k} hits to keep the best k.
+     */
+    public static Query filteredKnn(String field, float[] vector, int k, int efSearch, Map<String, ?> filters) {
+        return new KnnFloatVectorQuery(field, vector, Math.max(k, efSearch), filterQuery(filters));
+    }
+
+    private static Query valueQuery(String key, Object value) {
+        String field = field(key);
+        if (KEYWORD_KEYS.contains(key)) {
+            if (value instanceof Collection<?> anyOf) {
+                List<BytesRef> terms = new ArrayList<>(anyOf.size());
+                for (Object candidate : anyOf) {
+                    if (candidate != null) {
+                        terms.add(new BytesRef(candidate.toString()));
+                    }
+                }
+                return new TermInSetQuery(field, terms);
+            }
+            return new TermQuery(new Term(field, String.valueOf(value)));
+        }
+        if (TIMESTAMP_KEYS.contains(key)) {
+            List<Long> millis = new ArrayList<>();
+            for (Object candidate : value instanceof Collection<?> anyOf ? anyOf : List.of(value)) {
+                Long parsed = candidate != null ? toEpochMillis(candidate) : null;
+                if (parsed != null) {
+                    millis.add(parsed);
+                }
+            }
+            return LongPoint.newSetQuery(field, millis);
+        }
+        throw new IllegalArgumentException("Metadata key is not indexed: " + key);
+    }
+
+    /**
+     * @return A query matching documents written before metadata keys were indexed
+     */
+    public static Query unindexedQuery() {
+        return new BooleanQuery.Builder()
+                .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(SCHEMA_FIELD, SCHEMA_VERSION)), BooleanClause.Occur.MUST_NOT)
+                .build();
+    }
+
+    /**
+     * Collects the {@code id} of every live document matching {@code query}, reading it
+     * from doc values where available instead of stored fields.
+     */
+    public static List<String> collectIds(IndexSearcher searcher, Query query) throws IOException {
+        List<String> ids = new ArrayList<>();
+        searcher.search(query, new SimpleCollector() {
+            private LeafReader leaf;
+            private BinaryDocValues idValues;
+
+            @Override
+            protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                leaf = context.reader();
+                idValues = leaf.getBinaryDocValues(ID_FIELD);
+            }
+
+            @Override
+            public void collect(int doc) throws IOException {
+                String id = null;
+                if (idValues != null && idValues.advanceExact(doc)) {
+                    id = idValues.binaryValue().utf8ToString();
+                } else {
+                    Document stored = leaf.storedFields().document(doc, Set.of(ID_FIELD));
+                    id = stored.get(ID_FIELD);
+                }
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+
+            @Override
+            public ScoreMode scoreMode() {
+                return ScoreMode.COMPLETE_NO_SCORES;
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Distinct values of an indexed keyword key across live documents, read from doc
+     * values. Segments without deletions cost one lookup per distinct value.
+     */
+    public static Set<String> distinctValues(IndexReader reader, String key) throws IOException {
+        Set<String> values = new TreeSet<>();
+        for (LeafReaderContext context : reader.leaves()) {
+            LeafReader leaf = context.reader();
+            SortedDocValues docValues = leaf.getSortedDocValues(field(key));
+            if (docValues == null) {
+                continue;
+            }
+            Bits liveDocs = leaf.getLiveDocs();
+            int valueCount = docValues.getValueCount();
+            if (liveDocs == null) {
+                for (int ord = 0; ord < valueCount; ord++) {
+                    values.add(docValues.lookupOrd(ord).utf8ToString());
+                }
+                continue;
+            }
+            FixedBitSet liveOrds = new FixedBitSet(valueCount);
+            for (int doc = docValues.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docValues.nextDoc()) {
+                if (liveDocs.get(doc)) {
+                    liveOrds.set(docValues.ordValue());
+                }
+            }
+            for (int ord = 0; ord < valueCount; ord++) {
+                if (liveOrds.get(ord)) {
+                    values.add(docValues.lookupOrd(ord).utf8ToString());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Visits the stored fields of live documents that lack indexed metadata.
+     */
+    public static void forEachUnindexed(IndexReader reader, UnindexedVisitor visitor) throws IOException {
+        forEachMatching(reader, unindexedQuery(), visitor);
+    }
+
+    /**
+     * @return A query matching unindexed documents that {@link #migrate} has not yet skipped
+     */
+    static Query pendingMigrationQuery() {
+        return new BooleanQuery.Builder()
+                .add(unindexedQuery(), BooleanClause.Occur.MUST)
+                .add(new FieldExistsQuery(MIGRATION_SKIPPED_FIELD), BooleanClause.Occur.MUST_NOT)
+                .build();
+    }
+
+    private static void forEachMatching(IndexReader reader, Query query, UnindexedVisitor visitor) throws IOException {
+        IndexSearcher searcher = new IndexSearcher(reader);
+        Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        for (LeafReaderContext context : reader.leaves()) {
+            Scorer scorer = weight.scorer(context);
+            if (scorer == null) {
+                continue;
+            }
+            LeafReader leaf = context.reader();
+            Bits liveDocs = leaf.getLiveDocs();
+            StoredFields storedFields = leaf.storedFields();
+            DocIdSetIterator iterator = scorer.iterator();
+            for (int doc = iterator.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+                if (liveDocs == null || liveDocs.get(doc)) {
+                    visitor.visit(leaf, doc, storedFields.document(doc));
+                }
+            }
+        }
+    }
+
+    /**
+     * Callback for {@link #forEachUnindexed}.
+     */
+    @FunctionalInterface
+    public interface UnindexedVisitor {
+        void visit(LeafReader leaf, int docId, Document stored) throws IOException;
+    }
+
+    /**
+     * Rewrites documents that lack indexed metadata so that they gain it. Runs against a
+     * point-in-time reader of the writer, so it is safe while other writes continue, and
+     * commits once at the end. Documents the rebuilder returns null for are flagged with
+     * {@link #MIGRATION_SKIPPED_FIELD} and not visited again.
+     *
+     * @return The number of documents rewritten
+     */
+    public static int migrate(IndexWriter writer, Rebuilder rebuilder) throws IOException {
+        int[] migrated = {0};
+        int[] skipped = {0};
+        try (DirectoryReader reader = DirectoryReader.open(writer)) {
+            forEachMatching(reader, pendingMigrationQuery(), (leaf, docId, stored) -> {
+                String id = stored.get(ID_FIELD);
+                if (id == null) {
+                    return;
+                }
+                Document rebuilt = rebuilder.rebuild(leaf, docId, stored);
+                if (rebuilt != null) {
+                    writer.updateDocument(new Term(ID_FIELD, id), rebuilt);
+                    migrated[0]++;
+                } else {
+                    if (skipped[0] == 0) {
+                        ensureSkippedFieldExists(writer);
+                    }
+                    writer.updateNumericDocValue(new Term(ID_FIELD, id), MIGRATION_SKIPPED_FIELD, 1L);
+                    skipped[0]++;
+                }
+            });
+        }
+        if (migrated[0] > 0 || skipped[0] > 0) {
+            writer.commit();
+        }
+        return migrated[0];
+    }
+
+    /**
+     * Doc values can only be updated for fields the index already knows, so a placeholder
+     * document registers {@link #MIGRATION_SKIPPED_FIELD} and is deleted straight away.
+     */
+    private static void ensureSkippedFieldExists(IndexWriter writer) throws IOException {
+        if (writer.getFieldNames().contains(MIGRATION_SKIPPED_FIELD)) {
+            return;
+        }
+        Term placeholderId = new Term(MIGRATION_SKIPPED_FIELD + "_placeholder", "1");
+        Document placeholder = new Document();
+        placeholder.add(new StringField(placeholderId.field(), placeholderId.text(), Field.Store.NO));
+        placeholder.add(new NumericDocValuesField(MIGRATION_SKIPPED_FIELD, 0L));
+        writer.addDocument(placeholder);
+        writer.deleteDocuments(placeholderId);
+    }
+}
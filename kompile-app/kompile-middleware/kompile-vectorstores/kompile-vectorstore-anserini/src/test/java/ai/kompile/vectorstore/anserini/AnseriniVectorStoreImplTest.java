@@ -0,0 +1,264 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.vectorstore.anserini;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+import ai.kompile.vectorstore.anserini.util.MetadataFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.springframework.ai.document.Document;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link AnseriniVectorStoreImpl} against a real on-disk index.
+ */
+class AnseriniVectorStoreImplTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path indexDir;
+
+    private AnseriniVectorStoreImpl store;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void testGetVectorDocumentLooksUpById() {
+        store = open();
+        add(new Document("a", "alpha text", Map.of("source_id", "/docs/a.pdf")), new float[]{1f, 0f, 0f, 0f});
+        add(new Document("b", "beta text", Map.of("source_id", "/docs/b.pdf", "page", 3)), new float[]{0f, 1f, 0f, 0f});
+
+        Map<String, Object> document = store.getVectorDocument("b");
+
+        assertNotNull(document);
+        assertEquals("b", document.get("id"));
+        assertEquals("beta text", document.get("content"));
+        assertEquals(Map.of("source_id", "/docs/b.pdf", "page", 3), document.get("metadata"));
+        assertNull(store.getVectorDocument("missing"));
+        assertNull(store.getVectorDocument(""));
+    }
+
+    @Test
+    void testDocumentIdsBySourceIdCoverIndexedAndLegacyDocuments() throws IOException {
+        // Written before metadata was indexed: the first can be migrated, the others have
+        // no vector, so they stay unmarked and are only found by the stored-field scan
+        try (FSDirectory directory = FSDirectory.open(indexDir);
+             IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            writer.addDocument(legacyDocument("legacy-vector", "/docs/a.pdf", new float[]{0f, 0f, 1f, 0f}));
+            writer.addDocument(legacyDocument("legacy-plain", "/docs/a.pdf", null));
+            writer.addDocument(legacyDocument("legacy-other", "/docs/b.pdf", null));
+            writer.commit();
+        }
+
+        store = open();
+        add(new Document("new-a", "new text", Map.of("source_id", "/docs/a.pdf")), new float[]{1f, 0f, 0f, 0f});
+        add(new Document("new-b", "other text", Map.of("source_id", "/docs/b.pdf")), new float[]{0f, 1f, 0f, 0f});
+
+        assertEquals(Set.of("legacy-vector", "legacy-plain", "new-a"),
+                new HashSet<>(store.getDocumentIdsBySourceId("/docs/a.pdf")));
+        assertEquals(Set.of("legacy-other", "new-b"), new HashSet<>(store.getDocumentIdsBySourceId("/docs/b.pdf")));
+        assertTrue(store.getDocumentIdsBySourceId("/docs/none.pdf").isEmpty());
+        assertTrue(store.getDocumentIdsBySourceId(null).isEmpty());
+
+        // Only the two documents without a vector were left for the scan
+        try (FSDirectory directory = FSDirectory.open(indexDir);
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            assertEquals(Set.of("legacy-plain", "legacy-other"),
+                    new HashSet<>(MetadataFields.collectIds(new IndexSearcher(reader), MetadataFields.unindexedQuery())));
+        }
+    }
+
+    @Test
+    void testDeleteAllRemovesEveryDocument() {
+        store = open();
+        add(new Document("a", "alpha text", Map.of("source_id", "/docs/a.pdf")), new float[]{1f, 0f, 0f, 0f});
+        add(new Document("b", "beta text", Map.of("source_id", "/docs/a.pdf")), new float[]{0f, 1f, 0f, 0f});
+        assertEquals(2, store.getApproxVectorCount());
+
+        assertTrue(store.deleteAll());
+
+        assertEquals(0, store.getApproxVectorCount());
+        assertNull(store.getVectorDocument("a"));
+        assertTrue(store.getDocumentIdsBySourceId("/docs/a.pdf").isEmpty());
+
+        // The store stays usable after being emptied
+        add(new Document("c", "gamma text", Map.of("source_id", "/docs/a.pdf")), new float[]{0f, 0f, 1f, 0f});
+        assertEquals(List.of("c"), store.getDocumentIdsBySourceId("/docs/a.pdf"));
+    }
+
+    @Test
+    void testBatchSearchMatchesPerQuerySearchInRowOrder() {
+        openWithDocuments();
+        float[][] queries = {
+                {1f, 0.1f, 0f, 0f},
+                {0f, 0f, 1f, 0.2f},
+                {0.3f, 1f, 0f, 0.1f},
+                {0.5f, 0.5f, 0.5f, 0.5f}};
+
+        for (double threshold : new double[]{0.0, 0.9}) {
+            List<List<ScoredDocument>> batched = store.batchSimilaritySearch(Nd4j.create(queries), 5, threshold);
+
+            assertEquals(queries.length, batched.size());
+            for (int i = 0; i < queries.length; i++) {
+                assertSameHits(store.similaritySearchWithScores(Nd4j.create(queries[i]), 5, threshold), batched.get(i));
+                for (ScoredDocument hit : batched.get(i)) {
+                    assertTrue(hit.score() >= threshold, hit.getId() + " scored " + hit.score());
+                }
+            }
+            // Rows must not collapse onto each other
+            assertNotEquals(ids(batched.get(0)), ids(batched.get(1)));
+        }
+        // A high threshold drops hits the unthresholded search returns
+        assertTrue(store.batchSimilaritySearch(Nd4j.create(queries), 5, 0.9).get(3).size()
+                < store.batchSimilaritySearch(Nd4j.create(queries), 5, 0.0).get(3).size());
+    }
+
+    @Test
+    void testBatchSearchGivesNullAndEmptyRowsEmptyResults() {
+        openWithDocuments();
+        float[] first = {1f, 0.1f, 0f, 0f};
+        float[] last = {0f, 0f, 1f, 0.2f};
+
+        List<List<ScoredDocument>> batched = store.batchSimilaritySearch(
+                new float[][]{first, null, new float[0], last}, 3, 0.0);
+
+        assertEquals(4, batched.size());
+        assertSameHits(store.similaritySearchWithScores(Nd4j.create(first), 3, 0.0), batched.get(0));
+        assertTrue(batched.get(1).isEmpty());
+        assertTrue(batched.get(2).isEmpty());
+        assertSameHits(store.similaritySearchWithScores(Nd4j.create(last), 3, 0.0), batched.get(3));
+
+        assertTrue(store.batchSimilaritySearch((INDArray) null, 3, 0.0).isEmpty());
+        assertTrue(store.batchSimilaritySearch(new float[0][], 3, 0.0).isEmpty());
+    }
+
+    @Test
+    void testInterruptedBatchSearchLeavesTheStoreUsable() {
+        openWithDocuments();
+        float[][] queries = {{1f, 0.1f, 0f, 0f}, {0f, 0f, 1f, 0.2f}, {0.3f, 1f, 0f, 0.1f}};
+        // Open the searcher first; an interrupted thread cannot open index files
+        List<List<ScoredDocument>> before = store.batchSimilaritySearch(queries, 5, 0.0);
+
+        Thread.currentThread().interrupt();
+        List<List<ScoredDocument>> interrupted = store.batchSimilaritySearch(queries, 5, 0.0);
+
+        assertTrue(Thread.interrupted(), "the interrupt must be preserved");
+        assertEquals(3, interrupted.size());
+        interrupted.forEach(row -> assertTrue(row.isEmpty()));
+
+        // The searcher snapshot was released only after every task finished with it
+        List<List<ScoredDocument>> after = store.batchSimilaritySearch(queries, 5, 0.0);
+        for (int i = 0; i < queries.length; i++) {
+            assertFalse(after.get(i).isEmpty());
+            assertSameHits(before.get(i), after.get(i));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * A store holding twelve documents spread over four directions.
+     */
+    private void openWithDocuments() {
+        store = open();
+        for (int i = 0; i < 12; i++) {
+            float[] vector = new float[4];
+            vector[i % 4] = 1f;
+            vector[(i + 1) % 4] = i / 12f;
+            add(new Document("doc-" + i, "text " + i, Map.of("source_id", "/docs/" + i)), vector);
+        }
+    }
+
+    private static void assertSameHits(List<ScoredDocument> expected, List<ScoredDocument> actual) {
+        assertEquals(ids(expected), ids(actual));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).score(), actual.get(i).score(), 1e-6);
+        }
+    }
+
+    private static List<String> ids(List<ScoredDocument> documents) {
+        return documents.stream().map(ScoredDocument::getId).toList();
+    }
+
+    private AnseriniVectorStoreImpl open() {
+        AnseriniVectorStoreProperties properties = new AnseriniVectorStoreProperties();
+        properties.setIndexPath(indexDir.toString());
+        // Commit every batch so each add is visible to the next lookup
+        properties.setBatchCommitInterval(1);
+        return new AnseriniVectorStoreImpl(properties, null);
+    }
+
+    private void add(Document document, float[] embedding) {
+        assertEquals(1, store.addWithFloatArrayEmbeddings(List.of(document), new float[][]{embedding}));
+    }
+
+    /**
+     * A document in the layout written before metadata keys were indexed.
+     */
+    private static org.apache.lucene.document.Document legacyDocument(String id, String sourceId, float[] vector)
+            throws IOException {
+        org.apache.lucene.document.Document doc = new org.apache.lucene.document.Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new BinaryDocValuesField("id", new BytesRef(id)));
+        if (vector != null) {
+            doc.add(new KnnFloatVectorField("vector", vector, VectorSimilarityFunction.COSINE));
+        }
+        FieldType contentsFieldType = new FieldType();
+        contentsFieldType.setStored(true);
+        contentsFieldType.setStoreTermVectors(true);
+        contentsFieldType.setStoreTermVectorPositions(true);
+        contentsFieldType.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS);
+        doc.add(new Field("contents", "legacy text " + id, contentsFieldType));
+        doc.add(new StoredField("metadata", MAPPER.writeValueAsString(Map.of("source_id", sourceId))));
+        return doc;
+    }
+}
@@ -0,0 +1,138 @@
+package ai.kompile.vectorstore.anserini;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.document.Document;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares {@link AnseriniVectorStoreImpl#batchSimilaritySearch(INDArray, int, double)}
+ * against issuing the same queries one by one through
+ * {@link AnseriniVectorStoreImpl#similaritySearchWithScores(INDArray, int, double)}.
+ * <p>
+ * Run from the test classpath via {@link #main(String[])} or
+ * {@code org.openjdk.jmh.Main BatchSimilaritySearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchSimilaritySearchBenchmark {
+
+    private static final int DIMENSIONS = 384;
+    private static final int CORPUS_SIZE = 20_000;
+    private static final int K = 10;
+
+    @Param({"1", "8", "64", "256"})
+    public int numQueries;
+
+    private Path indexDir;
+    private AnseriniVectorStoreImpl store;
+    private INDArray batchQueries;
+    private List<INDArray> singleQueries;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        indexDir = Files.createTempDirectory("batch-knn-bench");
+
+        AnseriniVectorStoreProperties properties = new AnseriniVectorStoreProperties();
+        properties.setIndexPath(indexDir.toString());
+        properties.getHnsw().setEnabled(true);
+        store = new AnseriniVectorStoreImpl(properties, null);
+
+        Random random = new Random(42);
+        int batchSize = 1_000;
+        for (int start = 0; start < CORPUS_SIZE; start += batchSize) {
+            List<Document> documents = new ArrayList<>(batchSize);
+            float[][] embeddings = new float[batchSize][];
+            for (int i = 0; i < batchSize; i++) {
+                int docNum = start + i;
+                documents.add(new Document("doc-" + docNum, "benchmark document " + docNum,
+                        Map.of("source_id", "source-" + (docNum % 100))));
+                embeddings[i] = randomUnitVector(random);
+            }
+            store.addWithFloatArrayEmbeddings(documents, embeddings);
+        }
+        store.flushAndCommit();
+
+        float[][] queries = new float[numQueries][];
+        singleQueries = new ArrayList<>(numQueries);
+        for (int i = 0; i < numQueries; i++) {
+            queries[i] = randomUnitVector(random);
+            singleQueries.add(Nd4j.create(queries[i]).reshape(1, DIMENSIONS));
+        }
+        batchQueries = Nd4j.create(queries);
+
+        // Open the searcher outside the measured region
+        store.similaritySearchWithScores(singleQueries.get(0), K, 0.0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.destroy();
+        try (Stream<Path> paths = Files.walk(indexDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void batched(Blackhole blackhole) {
+        List<List<ScoredDocument>> results = store.batchSimilaritySearch(batchQueries, K, 0.0);
+        blackhole.consume(results);
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        for (INDArray query : singleQueries) {
+            blackhole.consume(store.similaritySearchWithScores(query, K, 0.0));
+        }
+    }
+
+    private static float[] randomUnitVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0.0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(BatchSimilaritySearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
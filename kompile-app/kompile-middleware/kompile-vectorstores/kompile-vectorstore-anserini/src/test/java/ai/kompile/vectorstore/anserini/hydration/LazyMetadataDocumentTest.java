@@ -0,0 +1,65 @@
+package ai.kompile.vectorstore.anserini.hydration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyMetadataDocumentTest {
+
+    private static final String JSON = "{\"source_id\":\"s1\",\"score\":0.1}";
+
+    @Test
+    void testHitFieldsAreServedWithoutParsing() {
+        LazyMetadataDocument document = document();
+
+        assertEquals(0.5f, document.getMetadata().get("score"));
+        assertEquals("a.txt", document.getMetadata().get("path"));
+        assertFalse(document.getMetadata().isEmpty());
+        assertFalse(document.isMetadataParsed());
+    }
+
+    @Test
+    void testStoredKeyIsParsedOnRead() {
+        LazyMetadataDocument document = document();
+
+        assertEquals("s1", document.getMetadata().get("source_id"));
+        assertTrue(document.isMetadataParsed());
+        // The hit score wins over a stored key of the same name
+        assertEquals(0.5f, document.getMetadata().get("score"));
+        assertEquals(3, document.getMetadata().size());
+    }
+
+    @Test
+    void testPutDoesNotParse() {
+        LazyMetadataDocument document = document();
+
+        document.getMetadata().put("rerank_score", 0.9);
+        assertFalse(document.isMetadataParsed());
+        assertEquals(0.9, document.getMetadata().get("rerank_score"));
+        assertEquals(Map.of("score", 0.5f, "path", "a.txt", "source_id", "s1", "rerank_score", 0.9),
+                new HashMap<>(document.getMetadata()));
+    }
+
+    @Test
+    void testRemoveHidesStoredKey() {
+        LazyMetadataDocument document = document();
+
+        assertEquals("s1", document.getMetadata().remove("source_id"));
+        assertFalse(document.getMetadata().containsKey("source_id"));
+    }
+
+    @Test
+    void testMutateCarriesStoredMetadata() {
+        assertEquals("s1", document().mutate().build().getMetadata().get("source_id"));
+    }
+
+    private static LazyMetadataDocument document() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("score", 0.5f);
+        fields.put("path", "a.txt");
+        return new LazyMetadataDocument("d1", "text", fields, LazyMetadataMap.of(JSON, null));
+    }
+}
@@ -0,0 +1,74 @@
+package ai.kompile.vectorstore.anserini.hydration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentMetadataCacheTest {
+
+    private static final Object SEGMENT = new Object();
+
+    @Test
+    void testMetadataIsParsedOnlyOnFirstAccess() {
+        LazyMetadataMap metadata = LazyMetadataMap.of("{\"source_id\":\"s1\",\"page\":3}", null);
+        assertFalse(metadata.isParsed());
+
+        assertEquals("s1", metadata.get("source_id"));
+        assertTrue(metadata.isParsed());
+        assertEquals(3, metadata.get("page"));
+        assertEquals(2, metadata.size());
+    }
+
+    @Test
+    void testMalformedJsonYieldsEmptyMetadata() {
+        LazyMetadataMap metadata = LazyMetadataMap.of("{not json", null);
+        assertTrue(metadata.isEmpty());
+        assertNull(metadata.get("source_id"));
+    }
+
+    @Test
+    void testFirstParsePopulatesCache() {
+        SegmentMetadataCache cache = new SegmentMetadataCache(10);
+        SegmentMetadataCache.SegmentDocKey key = new SegmentMetadataCache.SegmentDocKey(SEGMENT, 7);
+
+        LazyMetadataMap first = cache.lookup(key, "{\"source_id\":\"s1\"}");
+        assertEquals(0, cache.size());
+        assertEquals("s1", first.get("source_id"));
+        assertEquals(1, cache.size());
+
+        LazyMetadataMap second = cache.lookup(key, "{\"source_id\":\"s1\"}");
+        assertTrue(second.isParsed());
+        assertEquals("s1", second.get("source_id"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        SegmentMetadataCache cache = new SegmentMetadataCache(2);
+        SegmentMetadataCache.SegmentDocKey a = new SegmentMetadataCache.SegmentDocKey(SEGMENT, 1);
+        SegmentMetadataCache.SegmentDocKey b = new SegmentMetadataCache.SegmentDocKey(SEGMENT, 2);
+        SegmentMetadataCache.SegmentDocKey c = new SegmentMetadataCache.SegmentDocKey(SEGMENT, 3);
+
+        cache.put(a, Map.of("n", 1));
+        cache.put(b, Map.of("n", 2));
+        assertNotNull(cache.get(a)); // a becomes most recently used
+        cache.put(c, Map.of("n", 3));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(a));
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(c));
+    }
+
+    @Test
+    void testZeroSizeDisablesCaching() {
+        SegmentMetadataCache cache = new SegmentMetadataCache(0);
+        SegmentMetadataCache.SegmentDocKey key = new SegmentMetadataCache.SegmentDocKey(SEGMENT, 1);
+
+        assertEquals("s1", cache.lookup(key, "{\"source_id\":\"s1\"}").get("source_id"));
+        assertEquals(0, cache.size());
+    }
+}
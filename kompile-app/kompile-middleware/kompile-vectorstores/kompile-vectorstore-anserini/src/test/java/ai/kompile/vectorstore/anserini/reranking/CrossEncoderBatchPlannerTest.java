@@ -0,0 +1,60 @@
+package ai.kompile.vectorstore.anserini.reranking;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossEncoderBatchPlannerTest {
+
+    @Test
+    void testBatchesAreBoundedByPaddedTokens() {
+        // Sorted lengths; budget 100 allows 4 x 20, then 2 x 40, then 1 x 90
+        assertEquals(List.of(List.of(10, 15, 20, 20), List.of(40, 40), List.of(90)),
+                plan(new int[]{10, 15, 20, 20, 40, 40, 90}, 100, 32));
+    }
+
+    @Test
+    void testBatchesAreBoundedBySize() {
+        assertEquals(List.of(List.of(1, 1), List.of(1, 1), List.of(1)),
+                plan(new int[]{1, 1, 1, 1, 1}, 1000, 2));
+    }
+
+    @Test
+    void testOversizedPairGetsItsOwnBatch() {
+        assertEquals(List.of(List.of(5), List.of(600), List.of(700)),
+                plan(new int[]{5, 600, 700}, 512, 32));
+    }
+
+    @Test
+    void testLengthOrderIsShortestFirstAndStable() {
+        List<ScoredDocument> documents = List.of(
+                ScoredDocument.of("a", "a much longer document text", Map.of(), 0.9),
+                ScoredDocument.of("b", "short", Map.of(), 0.8),
+                ScoredDocument.of("c", "tiny!", Map.of(), 0.7),
+                ScoredDocument.of("d", "medium length", Map.of(), 0.6));
+
+        assertArrayEquals(new int[]{1, 2, 3, 0}, CrossEncoderBatchPlanner.lengthOrder(documents));
+    }
+
+    private static List<List<Integer>> plan(int[] lengths, int tokenBudget, int maxBatchSize) {
+        CrossEncoderBatchPlanner planner = new CrossEncoderBatchPlanner(tokenBudget, maxBatchSize);
+        List<List<Integer>> batches = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        for (int length : lengths) {
+            if (!planner.fits(length)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                planner.reset();
+            }
+            planner.add(length);
+            current.add(length);
+        }
+        batches.add(current);
+        return batches;
+    }
+}
@@ -0,0 +1,279 @@
+package ai.kompile.vectorstore.anserini.reranking;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+import ai.kompile.core.reranking.RerankLatencyStats;
+import ai.kompile.core.reranking.Reranker;
+import ai.kompile.core.reranking.RerankerConfig;
+import ai.kompile.core.reranking.RerankerContext;
+import ai.kompile.core.reranking.RerankerType;
+import io.anserini.encoder.samediff.tokenizer.SamediffBertTokenizerPreProcessor.BertEncoding;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link CrossEncoderRerankerAdapter} without a model: the cascade cutoff in
+ * front of the cross-encoder, the tokenizer-thread pipeline driven by stub encoder and
+ * inference functions, and latency recording.
+ */
+class CrossEncoderRerankerAdapterTest {
+
+    private static final String MISSING_MODEL = "no-such-cross-encoder";
+
+    private static final List<ScoredDocument> DOCUMENTS = List.of(
+            ScoredDocument.of("a", "solar panels", Map.of(), 0.2),
+            ScoredDocument.of("b", "wind farms", Map.of(), 0.9),
+            ScoredDocument.of("c", "solar output solar", Map.of(), 0.4),
+            ScoredDocument.of("d", "hydro dams", Map.of(), 0.8),
+            ScoredDocument.of("e", "solar roofs", Map.of(), 0.1));
+
+    // -------------------------------------------------------------------------
+    // Cascade
+    // -------------------------------------------------------------------------
+
+    @Test
+    void testCascadeSendsOnlyTheFirstStageTopToTheCrossEncoder() {
+        FixedOrderStage stage = new FixedOrderStage("e", "c", "b", "a", "d");
+        CrossEncoderRerankerAdapter adapter = adapter(new RerankerConfig().setCascadeKeep(2), stage);
+
+        List<ScoredDocument> reranked = adapter.rerank(DOCUMENTS, "solar", RerankerContext.empty());
+
+        assertEquals(1, stage.calls);
+        assertEquals(ids(DOCUMENTS), ids(stage.input));
+        assertEquals(List.of("c", "e", "b", "a", "d"), ids(reranked));
+        // Kept candidates were rescored, pruned ones follow untouched in first-stage order
+        assertNotEquals(score(DOCUMENTS, "c"), reranked.get(0).score());
+        assertNotEquals(score(DOCUMENTS, "e"), reranked.get(1).score());
+        for (int i = 2; i < reranked.size(); i++) {
+            assertSame(stage.output.get(i), reranked.get(i));
+        }
+    }
+
+    @Test
+    void testCascadeWithoutFirstStagePrunesByIncomingScore() {
+        CrossEncoderRerankerAdapter adapter = adapter(new RerankerConfig().setCascadeKeep(2), null);
+
+        List<ScoredDocument> reranked = adapter.rerank(DOCUMENTS, "solar", RerankerContext.empty());
+
+        assertEquals(List.of("b", "d", "c", "a", "e"), ids(reranked));
+        // Neither kept text mentions the query, so the fallback leaves 0.3 x the incoming score
+        assertEquals(0.27, reranked.get(0).score(), 1e-9);
+        assertEquals(0.24, reranked.get(1).score(), 1e-9);
+        assertSame(find(DOCUMENTS, "c"), reranked.get(2));
+        assertSame(find(DOCUMENTS, "a"), reranked.get(3));
+        assertSame(find(DOCUMENTS, "e"), reranked.get(4));
+    }
+
+    @Test
+    void testNoCascadeWhenCandidatesFitTheKeep() {
+        FixedOrderStage stage = new FixedOrderStage("e", "c", "b", "a", "d");
+        CrossEncoderRerankerAdapter adapter = adapter(new RerankerConfig().setCascadeKeep(5), stage);
+
+        List<ScoredDocument> reranked = adapter.rerank(DOCUMENTS, "solar", RerankerContext.empty());
+
+        assertEquals(0, stage.calls);
+        assertEquals(5, reranked.size());
+        for (ScoredDocument document : reranked) {
+            assertNotSame(find(DOCUMENTS, document.getId()), document);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Tokenizer pipeline
+    // -------------------------------------------------------------------------
+
+    @Test
+    void testPipelineScoresShortestFirstInTokenBudgetedBatches() {
+        List<ScoredDocument> documents = documents(5, 1, 3, 2, 4);
+        CrossEncoderRerankerAdapter adapter = adapter(new RerankerConfig().setCrossEncoderTokenBudget(6), null);
+        Set<String> encoderThreads = ConcurrentHashMap.newKeySet();
+        List<CrossEncoderRerankerAdapter.EncodedBatch> batches = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+
+        List<ScoredDocument> scored = adapter.scoreBatched(documents, "q",
+                (query, text) -> {
+                    encoderThreads.add(Thread.currentThread().getName());
+                    return encoding(text.length());
+                },
+                batch -> {
+                    assertSame(caller, Thread.currentThread());
+                    batches.add(batch);
+                    return indexScores(batch);
+                });
+
+        // Lengths 1+2 fit 2 x 2 <= 6; every later pair would push the padded product over 6
+        assertEquals(List.of(List.of(1, 3), List.of(2), List.of(4), List.of(0)),
+                batches.stream().map(batch -> boxed(batch.indices())).toList());
+        assertEquals(List.of(2, 3, 4, 5), batches.stream().map(batch -> batch.inputIds()[0].length).toList());
+        assertArrayEquals(new int[]{1, 0}, batches.get(0).inputIds()[0]);
+        assertArrayEquals(new int[]{1, 0}, batches.get(0).attentionMask()[0]);
+        assertArrayEquals(new int[]{2, 2}, batches.get(0).inputIds()[1]);
+
+        assertTrue(encoderThreads.stream().allMatch(name -> name.startsWith("cross-encoder-tokenizer-")),
+                encoderThreads.toString());
+        assertEquals(List.of(100.0, 101.0, 102.0, 103.0, 104.0), scores(scored));
+        assertEquals(ids(documents), ids(scored));
+    }
+
+    @Test
+    void testPipelineDrainsMoreBatchesThanItsDepth() {
+        List<ScoredDocument> documents = documents(IntStream.rangeClosed(1, 50).toArray());
+        CrossEncoderRerankerAdapter adapter = adapter(new RerankerConfig().setCrossEncoderMaxBatchSize(1), null);
+        List<Integer> order = new ArrayList<>();
+
+        List<ScoredDocument> scored = assertTimeoutPreemptively(Duration.ofSeconds(30), () ->
+                adapter.scoreBatched(documents, "q", (query, text) -> encoding(text.length()), batch -> {
+                    order.add(batch.indices()[0]);
+                    return indexScores(batch);
+                }));
+
+        assertEquals(IntStream.range(0, 50).boxed().toList(), order);
+        assertEquals(IntStream.range(0, 50).mapToObj(i -> 100.0 + i).toList(), scores(scored));
+    }
+
+    @Test
+    void testFailedBatchFallsBackToTermOverlap() {
+        List<ScoredDocument> documents = documents(1, 2, 3, 4);
+        CrossEncoderRerankerAdapter adapter = adapter(new RerankerConfig().setCrossEncoderMaxBatchSize(1), null);
+
+        List<ScoredDocument> scored = adapter.scoreBatched(documents, "q", (query, text) -> encoding(text.length()),
+                batch -> {
+                    if (batch.indices()[0] == 2) {
+                        throw new IllegalStateException("inference failed");
+                    }
+                    return indexScores(batch);
+                });
+
+        // No query overlap, so the fallback is 0.3 x the incoming 0.5
+        assertEquals(List.of(100.0, 101.0, 0.15, 103.0), scores(scored));
+    }
+
+    @Test
+    void testTokenizationFailureScoresUnbatchedPairsByFallback() {
+        List<ScoredDocument> documents = documents(1, 2, 3, 4, 5);
+        CrossEncoderRerankerAdapter adapter = adapter(new RerankerConfig().setCrossEncoderMaxBatchSize(1), null);
+
+        List<ScoredDocument> scored = assertTimeoutPreemptively(Duration.ofSeconds(30), () ->
+                adapter.scoreBatched(documents, "q",
+                        (query, text) -> {
+                            if (text.length() == 3) {
+                                throw new IllegalStateException("tokenizer failed");
+                            }
+                            return encoding(text.length());
+                        },
+                        CrossEncoderRerankerAdapterTest::indexScores));
+
+        // Only the batch handed off before the failure reached inference; the open one was dropped
+        assertEquals(List.of(100.0, 0.15, 0.15, 0.15, 0.15), scores(scored));
+    }
+
+    // -------------------------------------------------------------------------
+    // Latency
+    // -------------------------------------------------------------------------
+
+    @Test
+    void testRerankRecordsLatencyByCandidateCount() {
+        RerankLatencyStats stats = RerankLatencyStats.shared();
+        long before = stats.count(0);
+
+        adapter(new RerankerConfig(), null).rerank(DOCUMENTS, "solar", RerankerContext.empty());
+
+        assertEquals(before + 1, stats.count(0));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static CrossEncoderRerankerAdapter adapter(RerankerConfig config, Reranker firstStage) {
+        return new CrossEncoderRerankerAdapter(config, MISSING_MODEL, null, firstStage);
+    }
+
+    /**
+     * Documents whose text is {@code x} repeated to the given lengths, all scored 0.5.
+     */
+    private static List<ScoredDocument> documents(int... lengths) {
+        List<ScoredDocument> documents = new ArrayList<>(lengths.length);
+        for (int i = 0; i < lengths.length; i++) {
+            documents.add(ScoredDocument.of("d" + i, "x".repeat(lengths[i]), Map.of(), 0.5));
+        }
+        return documents;
+    }
+
+    /**
+     * An encoding of the given length whose ids all equal the length.
+     */
+    private static BertEncoding encoding(int length) {
+        long[] ids = new long[length];
+        long[] mask = new long[length];
+        Arrays.fill(ids, length);
+        Arrays.fill(mask, 1);
+        return new BertEncoding(ids, mask, new long[length]);
+    }
+
+    private static double[] indexScores(CrossEncoderRerankerAdapter.EncodedBatch batch) {
+        return Arrays.stream(batch.indices()).mapToDouble(i -> 100.0 + i).toArray();
+    }
+
+    private static List<Integer> boxed(int[] values) {
+        return Arrays.stream(values).boxed().toList();
+    }
+
+    private static List<Double> scores(List<ScoredDocument> documents) {
+        return documents.stream().map(ScoredDocument::score).toList();
+    }
+
+    private static List<String> ids(List<ScoredDocument> documents) {
+        return documents.stream().map(ScoredDocument::getId).toList();
+    }
+
+    private static ScoredDocument find(List<ScoredDocument> documents, String id) {
+        return documents.stream().filter(document -> document.getId().equals(id)).findFirst().orElseThrow();
+    }
+
+    private static double score(List<ScoredDocument> documents, String id) {
+        return find(documents, id).score();
+    }
+
+    /**
+     * First stage that ranks documents in a fixed id order and remembers its call.
+     */
+    private static final class FixedOrderStage implements Reranker {
+        private final List<String> order;
+        int calls;
+        List<ScoredDocument> input;
+        List<ScoredDocument> output;
+
+        FixedOrderStage(String... order) {
+            this.order = List.of(order);
+        }
+
+        @Override
+        public List<ScoredDocument> rerank(List<ScoredDocument> documents, String query, RerankerContext context) {
+            calls++;
+            input = documents;
+            output = documents.stream().sorted(Comparator.comparingInt(d -> order.indexOf(d.getId()))).toList();
+            return output;
+        }
+
+        @Override
+        public String tag() {
+            return "FixedOrder";
+        }
+
+        @Override
+        public RerankerType getType() {
+            return RerankerType.BM25_PRF;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ai.kompile.vectorstore.anserini.reranking;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+import ai.kompile.core.reranking.RerankerConfig;
+import ai.kompile.core.reranking.RerankerContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MmrRerankerAdapterTest {
+
+    private static final List<ScoredDocument> DOCUMENTS = List.of(
+            ScoredDocument.of("a", "alpha apples", Map.of(), 0.9),
+            ScoredDocument.of("b", "beta bananas", Map.of(), 0.85),
+            ScoredDocument.of("c", "gamma cherries", Map.of(), 0.5));
+
+    @Test
+    void testVectorSimilarityDemotesNearDuplicates() {
+        RerankerContext context = RerankerContext.builder()
+                .attribute(RerankerContext.DOCUMENT_VECTORS, Map.of(
+                        "a", new float[]{1f, 0f},
+                        "b", new float[]{2f, 0.01f},
+                        "c", new float[]{0f, 1f}))
+                .build();
+
+        List<ScoredDocument> reranked = new MmrRerankerAdapter(RerankerConfig.mmr()).rerank(DOCUMENTS, "q", context);
+
+        assertEquals(List.of("a", "c", "b"), ids(reranked));
+        assertEquals(0.5, reranked.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void testMissingVectorFallsBackToTermSimilarity() {
+        RerankerContext context = RerankerContext.builder()
+                .attribute(RerankerContext.DOCUMENT_VECTORS, Map.of(
+                        "a", new float[]{1f, 0f},
+                        "b", new float[]{1f, 0f}))
+                .build();
+
+        // Texts share no terms, so term similarity leaves relevance order intact
+        assertEquals(List.of("a", "b", "c"),
+                ids(new MmrRerankerAdapter(RerankerConfig.mmr()).rerank(DOCUMENTS, "q", context)));
+    }
+
+    @Test
+    void testTermSimilarityDemotesOverlappingText() {
+        List<ScoredDocument> documents = List.of(
+                ScoredDocument.of("a", "solar panel efficiency report", Map.of(), 0.9),
+                ScoredDocument.of("b", "solar panel efficiency summary", Map.of(), 0.85),
+                ScoredDocument.of("c", "wind turbine maintenance", Map.of(), 0.5));
+
+        List<ScoredDocument> reranked = new MmrRerankerAdapter(RerankerConfig.mmr().setLambda(0.3f).setMmrUseVectors(false))
+                .rerank(documents, "q", RerankerContext.empty());
+
+        assertEquals(List.of("a", "c", "b"), ids(reranked));
+    }
+
+    @Test
+    void testLambdaOneKeepsRelevanceOrder() {
+        RerankerContext context = RerankerContext.builder()
+                .attribute(RerankerContext.DOCUMENT_VECTORS, Map.of(
+                        "a", new float[]{1f, 0f},
+                        "b", new float[]{1f, 0f},
+                        "c", new float[]{0f, 1f}))
+                .build();
+
+        assertEquals(List.of("a", "b", "c"),
+                ids(new MmrRerankerAdapter(RerankerConfig.mmr().setLambda(1.0f)).rerank(DOCUMENTS, "q", context)));
+    }
+
+    private static List<String> ids(List<ScoredDocument> documents) {
+        return documents.stream().map(ScoredDocument::getId).toList();
+    }
+}
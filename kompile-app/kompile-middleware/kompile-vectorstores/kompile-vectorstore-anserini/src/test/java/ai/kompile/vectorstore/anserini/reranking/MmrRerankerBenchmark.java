@@ -0,0 +1,204 @@
+package ai.kompile.vectorstore.anserini.reranking;
+
+import ai.kompile.core.embeddings.ScoredDocument;
+import ai.kompile.core.reranking.RerankerConfig;
+import ai.kompile.core.reranking.RerankerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the previous MMR implementation (Jaccard over term sets, re-scanning the
+ * selected set for every candidate in every round) against {@link MmrRerankerAdapter}
+ * with term similarity and with dense vectors, over a full candidate pool.
+ * <p>
+ * Run from the test classpath via {@link #main(String[])} or
+ * {@code org.openjdk.jmh.Main MmrRerankerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MmrRerankerBenchmark {
+
+    private static final int DIMENSIONS = 384;
+    private static final int WORDS_PER_DOCUMENT = 60;
+    private static final int VOCABULARY_SIZE = 2_000;
+    private static final float LAMBDA = 0.5f;
+
+    @Param({"50", "200"})
+    public int candidates;
+
+    private List<ScoredDocument> documents;
+    private RerankerContext vectorContext;
+    private MmrRerankerAdapter termReranker;
+    private MmrRerankerAdapter vectorReranker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        documents = new ArrayList<>(candidates);
+        Map<String, float[]> vectors = new HashMap<>(candidates * 2);
+        for (int i = 0; i < candidates; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < WORDS_PER_DOCUMENT; w++) {
+                text.append("term").append(random.nextInt(VOCABULARY_SIZE)).append(' ');
+            }
+            String id = "doc-" + i;
+            documents.add(ScoredDocument.of(id, text.toString(), Map.of(), 1.0 - i / (double) candidates));
+
+            float[] vector = new float[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+            vectors.put(id, vector);
+        }
+        vectorContext = RerankerContext.builder().attribute(RerankerContext.DOCUMENT_VECTORS, vectors).build();
+        termReranker = new MmrRerankerAdapter(RerankerConfig.mmr().setLambda(LAMBDA).setMmrUseVectors(false));
+        vectorReranker = new MmrRerankerAdapter(RerankerConfig.mmr().setLambda(LAMBDA));
+    }
+
+    /** Previous implementation, kept here as the baseline. */
+    @Benchmark
+    public List<ScoredDocument> previousTermMmr() {
+        return PreviousMmr.rerank(documents, LAMBDA);
+    }
+
+    /** Incremental max-similarity with Jaccard over term sets. */
+    @Benchmark
+    public List<ScoredDocument> termMmr() {
+        return termReranker.rerank(documents, "query", RerankerContext.empty());
+    }
+
+    /** Incremental max-similarity with dot products over unit vectors. */
+    @Benchmark
+    public List<ScoredDocument> vectorMmr() {
+        return vectorReranker.rerank(documents, "query", vectorContext);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(MmrRerankerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * The MMR loop as it was before incremental max-similarity: every round re-scans all
+     * selected documents for every candidate and looks each one up by linear search.
+     */
+    private static final class PreviousMmr {
+
+        static List<ScoredDocument> rerank(List<ScoredDocument> documents, float lambda) {
+            double maxScore = documents.stream().mapToDouble(ScoredDocument::score).max().orElse(1.0);
+            double minScore = documents.stream().mapToDouble(ScoredDocument::score).min().orElse(0.0);
+            double scoreRange = maxScore - minScore;
+            if (scoreRange == 0) scoreRange = 1.0;
+
+            List<Set<String>> documentTermSets = new ArrayList<>();
+            for (ScoredDocument doc : documents) {
+                documentTermSets.add(tokenize(doc.getText()));
+            }
+
+            List<ScoredDocument> selected = new ArrayList<>();
+            List<Integer> remaining = new ArrayList<>();
+            for (int i = 0; i < documents.size(); i++) {
+                remaining.add(i);
+            }
+
+            while (!remaining.isEmpty()) {
+                int bestIdx = -1;
+                double bestMmrScore = Double.NEGATIVE_INFINITY;
+                int bestOriginalIdx = -1;
+
+                for (int idx : remaining) {
+                    ScoredDocument candidate = documents.get(idx);
+                    double normalizedRelevance = (candidate.score() - minScore) / scoreRange;
+
+                    double maxSimilarity = 0.0;
+                    Set<String> candidateTerms = documentTermSets.get(idx);
+                    for (ScoredDocument selectedDoc : selected) {
+                        int selectedOriginalIdx = findOriginalIndex(documents, selectedDoc);
+                        if (selectedOriginalIdx >= 0) {
+                            double similarity = jaccardSimilarity(candidateTerms,
+                                    documentTermSets.get(selectedOriginalIdx));
+                            maxSimilarity = Math.max(maxSimilarity, similarity);
+                        }
+                    }
+
+                    double mmrScore = lambda * normalizedRelevance - (1 - lambda) * maxSimilarity;
+                    if (mmrScore > bestMmrScore) {
+                        bestMmrScore = mmrScore;
+                        bestIdx = remaining.indexOf(idx);
+                        bestOriginalIdx = idx;
+                    }
+                }
+
+                if (bestIdx >= 0) {
+                    ScoredDocument bestDoc = documents.get(bestOriginalIdx);
+                    selected.add(new ScoredDocument(bestDoc.document(), bestMmrScore));
+                    remaining.remove(bestIdx);
+                } else {
+                    break;
+                }
+            }
+            return selected;
+        }
+
+        private static int findOriginalIndex(List<ScoredDocument> documents, ScoredDocument target) {
+            for (int i = 0; i < documents.size(); i++) {
+                if (documents.get(i).document() == target.document()) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static double jaccardSimilarity(Set<String> set1, Set<String> set2) {
+            if (set1.isEmpty() && set2.isEmpty()) {
+                return 1.0;
+            }
+            if (set1.isEmpty() || set2.isEmpty()) {
+                return 0.0;
+            }
+            Set<String> intersection = new HashSet<>(set1);
+            intersection.retainAll(set2);
+            Set<String> union = new HashSet<>(set1);
+            union.addAll(set2);
+            return (double) intersection.size() / union.size();
+        }
+
+        private static Set<String> tokenize(String text) {
+            if (text == null || text.isBlank()) {
+                return new HashSet<>();
+            }
+            return Arrays.stream(text.toLowerCase().split("[\\s\\p{Punct}]+"))
+                    .filter(s -> !s.isBlank() && s.length() >= 2 && s.length() <= 20)
+                    .filter(s -> s.matches("[a-z0-9]+"))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.vectorstore.anserini.util;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetadataFieldsTest {
+
+    private ByteBuffersDirectory directory;
+    private IndexWriter writer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        writer.close();
+        directory.close();
+    }
+
+    @Test
+    void testSourceLookupUsesIndexedTerm() throws IOException {
+        add("a1", Map.of("source_id", "/docs/a.pdf", "mime_type", "application/pdf"));
+        add("a2", Map.of("source_id", "/docs/a.pdf"));
+        add("b1", Map.of("source_id", "/docs/b.txt"));
+        writer.commit();
+
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            List<String> ids = MetadataFields.collectIds(searcher,
+                    MetadataFields.filterQuery(Map.of("source_id", "/docs/a.pdf")));
+            assertEquals(List.of("a1", "a2"), ids);
+
+            assertEquals(List.of("a1"), MetadataFields.collectIds(searcher,
+                    MetadataFields.filterQuery(Map.of("source_id", "/docs/a.pdf", "mime_type", "application/pdf"))));
+            assertEquals(3, MetadataFields.collectIds(searcher,
+                    MetadataFields.filterQuery(Map.of("source_id", List.of("/docs/a.pdf", "/docs/b.txt")))).size());
+        }
+    }
+
+    @Test
+    void testDistinctValuesSkipDeletedDocuments() throws IOException {
+        add("a1", Map.of("source_id", "a"));
+        add("b1", Map.of("source_id", "b"));
+        add("c1", Map.of("source_id", "c"));
+        writer.commit();
+        writer.deleteDocuments(new Term("id", "b1"));
+        writer.commit();
+
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            assertEquals(Set.of("a", "c"), MetadataFields.distinctValues(reader, "source_id"));
+        }
+    }
+
+    @Test
+    void testTimestampsAcceptIsoAndEpochMillis() throws IOException {
+        add("t1", Map.of("indexed_at", "2025-01-15T10:30:00Z"));
+        add("t2", Map.of("indexed_at", 1736937000000L));
+        add("t3", Map.of("indexed_at", "2024-01-01T00:00:00Z"));
+        writer.commit();
+
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            List<String> ids = MetadataFields.collectIds(new IndexSearcher(reader),
+                    MetadataFields.filterQuery(Map.of("indexed_at", "2025-01-15T10:30:00Z")));
+            assertEquals(List.of("t1", "t2"), ids);
+        }
+        assertNull(MetadataFields.toEpochMillis("yesterday"));
+    }
+
+    @Test
+    void testPreFilterOnlyForIndexedKeys() {
+        assertTrue(MetadataFields.canPreFilter(Map.of("source_id", "x", "indexed_at", 1L)));
+        assertFalse(MetadataFields.canPreFilter(Map.of("source_id", "x", "page_number", 3)));
+        assertFalse(MetadataFields.canPreFilter(Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> MetadataFields.filterQuery(Map.of("page_number", 3)));
+    }
+
+    @Test
+    void testMigrateRewritesLegacyDocuments() throws IOException {
+        addLegacy("old1", "{\"source_id\":\"legacy\"}");
+        addLegacy("old2", "{\"source_id\":\"legacy\"}");
+        add("new1", Map.of("source_id", "current"));
+        writer.commit();
+
+        List<String> rebuilt = new ArrayList<>();
+        int migrated = MetadataFields.migrate(writer, (leaf, docId, stored) -> {
+            rebuilt.add(stored.get("id"));
+            Document doc = baseDocument(stored.get("id"));
+            doc.add(new StoredField("metadata", stored.get("metadata")));
+            MetadataFields.addTo(doc, Map.of("source_id", "legacy"));
+            return doc;
+        });
+
+        assertEquals(2, migrated);
+        assertEquals(List.of("old1", "old2"), rebuilt);
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            assertEquals(3, reader.numDocs());
+            assertEquals(List.of("old1", "old2"), MetadataFields.collectIds(new IndexSearcher(reader),
+                    MetadataFields.filterQuery(Map.of("source_id", "legacy"))));
+            assertTrue(MetadataFields.collectIds(new IndexSearcher(reader), MetadataFields.unindexedQuery()).isEmpty());
+        }
+        assertEquals(0, MetadataFields.migrate(writer, (leaf, docId, stored) -> fail("nothing left to migrate")));
+    }
+
+    @Test
+    void testMigrateSkipsUnrebuildableDocumentsOnce() throws IOException {
+        addLegacy("broken", "{}");
+        addLegacy("old", "{\"source_id\":\"legacy\"}");
+        writer.commit();
+
+        List<String> visited = new ArrayList<>();
+        int migrated = MetadataFields.migrate(writer, (leaf, docId, stored) -> {
+            String id = stored.get("id");
+            visited.add(id);
+            if (id.equals("broken")) {
+                return null;
+            }
+            Document doc = baseDocument(id);
+            MetadataFields.addTo(doc, Map.of("source_id", "legacy"));
+            return doc;
+        });
+
+        assertEquals(1, migrated);
+        assertEquals(List.of("broken", "old"), visited);
+        assertEquals(0, MetadataFields.migrate(writer, (leaf, docId, stored) -> fail("skipped documents are not rescanned")));
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            assertEquals(2, reader.numDocs());
+            assertEquals(List.of("broken"),
+                    MetadataFields.collectIds(new IndexSearcher(reader), MetadataFields.unindexedQuery()),
+                    "readers still fall back to stored metadata for skipped documents");
+        }
+    }
+
+    @Test
+    void testFilteredBm25ReturnsTopMatchesOfSelectiveFilter() throws IOException {
+        // The strongest matches are all outside the filter; only every tenth document is in it
+        for (int i = 0; i < 100; i++) {
+            Document doc = baseDocument("d" + i);
+            String text = i % 10 == 0 ? "apple" : "apple apple apple apple";
+            doc.add(new TextField("contents", text + " filler".repeat(i % 7), Field.Store.NO));
+            MetadataFields.addTo(doc, Map.of("source_id", i % 10 == 0 ? "wanted" : "other"));
+            writer.addDocument(doc);
+        }
+        writer.commit();
+
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            Query scoring = new TermQuery(new Term("contents", "apple"));
+            Map<String, Object> filters = Map.of("source_id", "wanted");
+
+            TopDocs unfiltered = searcher.search(scoring, 5);
+            assertTrue(idsOf(searcher, unfiltered).stream().noneMatch(id -> Integer.parseInt(id.substring(1)) % 10 == 0));
+
+            TopDocs filtered = searcher.search(MetadataFields.filtered(scoring, filters), 5);
+            List<String> ids = idsOf(searcher, filtered);
+            assertEquals(5, ids.size());
+            assertTrue(ids.stream().allMatch(id -> Integer.parseInt(id.substring(1)) % 10 == 0), ids.toString());
+
+            // The filter does not score: each hit keeps its unfiltered BM25 score
+            for (ScoreDoc hit : filtered.scoreDocs) {
+                assertEquals(searcher.explain(scoring, hit.doc).getValue().floatValue(), hit.score, 1e-6f);
+            }
+        }
+    }
+
+    @Test
+    void testFilteredKnnReturnsExactTopKOfSelectiveFilter() throws IOException {
+        Random random = new Random(42);
+        int dim = 8;
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            float[] vector = new float[dim];
+            for (int d = 0; d < dim; d++) {
+                vector[d] = random.nextFloat() * 2 - 1;
+            }
+            vectors.add(vector);
+            Document doc = baseDocument("v" + i);
+            doc.add(new KnnFloatVectorField("vector", vector, VectorSimilarityFunction.EUCLIDEAN));
+            MetadataFields.addTo(doc, Map.of("collection", i % 25 == 0 ? "rare" : "common"));
+            writer.addDocument(doc);
+        }
+        writer.commit();
+
+        float[] query = vectors.get(1);
+        int k = 5;
+        List<String> expected = new ArrayList<>();
+        List<Integer> rare = new ArrayList<>();
+        for (int i = 0; i < vectors.size(); i += 25) {
+            rare.add(i);
+        }
+        rare.sort(Comparator.comparingDouble(i -> VectorSimilarityFunction.EUCLIDEAN.compare(query, vectors.get(i)) * -1));
+        for (int i : rare.subList(0, k)) {
+            expected.add("v" + i);
+        }
+
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            // efSearch below k still explores k candidates
+            for (int efSearch : new int[]{1, 100}) {
+                TopDocs hits = searcher.search(
+                        MetadataFields.filteredKnn("vector", query, k, efSearch, Map.of("collection", "rare")), k);
+                assertEquals(expected, idsOf(searcher, hits), "efSearch " + efSearch);
+            }
+        }
+    }
+
+    private static List<String> idsOf(IndexSearcher searcher, TopDocs hits) throws IOException {
+        List<String> ids = new ArrayList<>();
+        for (ScoreDoc hit : hits.scoreDocs) {
+            ids.add(searcher.storedFields().document(hit.doc).get("id"));
+        }
+        return ids;
+    }
+
+    private void add(String id, Map<String, ?> metadata) throws IOException {
+        Document doc = baseDocument(id);
+        MetadataFields.addTo(doc, metadata);
+        writer.addDocument(doc);
+    }
+
+    private void addLegacy(String id, String metadataJson) throws IOException {
+        Document doc = baseDocument(id);
+        doc.add(new StoredField("metadata", metadataJson));
+        writer.addDocument(doc);
+    }
+
+    private static Document baseDocument(String id) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new BinaryDocValuesField("id", new BytesRef(id)));
+        return doc;
+    }
+}
@@ -1080,6 +1080,15 @@ public class AnseriniEmbeddingModelImpl implements EmbeddingModel {
 
     public String getModelIdentifier() { return modelIdentifier; }
 
+    /**
+     * The instruction prefix the encoder prepends to every text. BGE and Arctic Embed use one,
+     * so their cached vectors are keyed apart from vectors of the same text without it.
+     */
+    @Override
+    public String getInstructionPrefix() {
+        return AnseriniEncoderFactory.getInstructionPrefix(getEncoderType(), modelIdentifier);
+    }
+
     /**
      * Returns the encoder type. First checks the local state, then falls back to
      * the subprocess launcher if available and has a loaded model.
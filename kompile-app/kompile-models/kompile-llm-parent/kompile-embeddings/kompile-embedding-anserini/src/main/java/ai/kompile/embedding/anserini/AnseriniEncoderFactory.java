@@ -486,6 +486,30 @@ public class AnseriniEncoderFactory {
         return "Represent this sentence for searching relevant passages:";
     }
 
+    /**
+     * Returns the instruction prefix an encoder prepends to every text before tokenization,
+     * or an empty string if it embeds text as-is. Embedding caches key on this.
+     *
+     * @param encoderType encoder type name or encoder class name; null or UNKNOWN falls back to the model id
+     * @param modelIdentifier the model identifier
+     */
+    public static String getInstructionPrefix(String encoderType, String modelIdentifier) {
+        if (modelIdentifier == null) {
+            return "";
+        }
+        EncoderType type = encoderType == null || encoderType.isBlank() || "UNKNOWN".equals(encoderType)
+                ? getEncoderTypeFromModelId(modelIdentifier)
+                : parseEncoderType(encoderType);
+        switch (type) {
+            case BGE:
+                return BgeSameDiffEncoder.instructionPrefix(getBgeInstructionForModel(modelIdentifier));
+            case ARCTIC_EMBED:
+                return ArcticEmbedSameDiffEncoder.INSTRUCTION;
+            default:
+                return "";
+        }
+    }
+
     /**
      * Creates an encoder with BGE-specific instruction override.
      * Model must be in the registry.
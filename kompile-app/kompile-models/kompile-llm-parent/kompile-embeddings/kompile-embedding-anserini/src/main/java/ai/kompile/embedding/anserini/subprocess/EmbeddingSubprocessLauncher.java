@@ -32,6 +32,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -80,6 +81,15 @@ public class EmbeddingSubprocessLauncher implements AutoCloseable {
     // Request/response correlation
     private final ConcurrentHashMap<String, CompletableFuture<EmbeddingSubprocessMessage>> pendingRequests = new ConcurrentHashMap<>();
 
+    // Binary vector channel: frames and their JSON responses arrive on different streams,
+    // so whichever comes first waits here for the other (guarded by vectorJoinLock)
+    private static final boolean BINARY_VECTORS_ENABLED =
+            Boolean.parseBoolean(System.getProperty("kompile.embedding.binaryVectors", "true"));
+    private volatile VectorFrames.Server vectorServer;
+    private final Object vectorJoinLock = new Object();
+    private final Map<String, float[][]> framesAwaitingResponse = new HashMap<>();
+    private final Map<String, EmbeddingSubprocessMessage> responsesAwaitingFrame = new HashMap<>();
+
     // State tracking
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicBoolean shuttingDown = new AtomicBoolean(false);
@@ -1365,6 +1375,17 @@ public class EmbeddingSubprocessLauncher implements AutoCloseable {
         // Propagate all ND4J/CUDA/threading/Triton env vars via central propagator
         SubprocessEnvironmentPropagator.propagateToEnvironment(pb.environment());
 
+        // Binary side channel for embedding vectors; the subprocess falls back to JSON without it
+        if (BINARY_VECTORS_ENABLED) {
+            try {
+                vectorServer = VectorFrames.Server.bind(this::onVectorFrame, "embedding-subprocess-vectors");
+                pb.environment().put(VectorFrames.SOCKET_ENV, vectorServer.getSocketPath().toString());
+            } catch (IOException | UnsupportedOperationException e) {
+                logger.warn("Binary vector channel unavailable, vectors will be sent as JSON: {}", e.getMessage());
+                vectorServer = null;
+            }
+        }
+
         // Add debug-specific environment variables if enabled
         if (debugConfig != null && debugConfig.getMode() != DebugMode.NONE) {
             Map<String, String> debugEnv = debugConfig.buildEnvironmentVariables();
@@ -1375,7 +1396,12 @@ public class EmbeddingSubprocessLauncher implements AutoCloseable {
             }
         }
 
-        process = pb.start();
+        try {
+            process = pb.start();
+        } catch (IOException e) {
+            closeVectorChannel();
+            throw e;
+        }
 
         // Register with centralized subprocess registry for orphan protection
         if (subprocessRegistry != null) {
@@ -1754,6 +1780,7 @@ public class EmbeddingSubprocessLauncher implements AutoCloseable {
                 new RuntimeException("Subprocess shutdown"));
         }
         pendingRequests.clear();
+        closeVectorChannel();
 
         running.set(false);
         modelLoaded = false;
@@ -2300,6 +2327,14 @@ public class EmbeddingSubprocessLauncher implements AutoCloseable {
             return;
         }
 
+        // Responses whose vectors travel on the binary channel wait for their frame
+        if (isAwaitingVectors(message)) {
+            message = joinVectors(message);
+            if (message == null) {
+                return;
+            }
+        }
+
         // Handle request/response messages
         String requestId = extractRequestId(message);
         if (requestId != null) {
@@ -2312,6 +2347,72 @@ public class EmbeddingSubprocessLauncher implements AutoCloseable {
         }
     }
 
+    private static boolean isAwaitingVectors(EmbeddingSubprocessMessage message) {
+        if (message instanceof EmbeddingSubprocessMessage.EmbedResponse resp) {
+            return resp.success() && resp.binaryVectors();
+        }
+        if (message instanceof EmbeddingSubprocessMessage.EmbedBatchResponse resp) {
+            return resp.success() && resp.binaryVectors();
+        }
+        return false;
+    }
+
+    /**
+     * Called on the vector channel thread for each frame.
+     */
+    private void onVectorFrame(VectorFrames.Frame frame) {
+        EmbeddingSubprocessMessage response;
+        synchronized (vectorJoinLock) {
+            response = responsesAwaitingFrame.remove(frame.requestId());
+            if (response == null) {
+                framesAwaitingResponse.put(frame.requestId(), frame.vectors());
+                return;
+            }
+        }
+        handleMessage(withVectors(response, frame.vectors()));
+    }
+
+    /**
+     * Pairs a {@code binaryVectors} response with its frame.
+     *
+     * @return the response with vectors filled in, or null if the frame has not arrived yet
+     *         (it will be completed from {@link #onVectorFrame})
+     */
+    private EmbeddingSubprocessMessage joinVectors(EmbeddingSubprocessMessage response) {
+        String requestId = extractRequestId(response);
+        float[][] vectors;
+        synchronized (vectorJoinLock) {
+            vectors = framesAwaitingResponse.remove(requestId);
+            if (vectors == null) {
+                responsesAwaitingFrame.put(requestId, response);
+                return null;
+            }
+        }
+        return withVectors(response, vectors);
+    }
+
+    private static EmbeddingSubprocessMessage withVectors(EmbeddingSubprocessMessage response, float[][] vectors) {
+        if (response instanceof EmbeddingSubprocessMessage.EmbedResponse resp) {
+            return new EmbeddingSubprocessMessage.EmbedResponse(resp.requestId(), true,
+                    vectors.length > 0 ? vectors[0] : null, resp.embedTimeMs(), resp.error(), false);
+        }
+        EmbeddingSubprocessMessage.EmbedBatchResponse resp = (EmbeddingSubprocessMessage.EmbedBatchResponse) response;
+        return new EmbeddingSubprocessMessage.EmbedBatchResponse(resp.requestId(), true, Arrays.asList(vectors),
+                resp.inputCount(), resp.outputCount(), resp.totalTimeMs(), resp.metrics(), resp.error(), false);
+    }
+
+    private void closeVectorChannel() {
+        VectorFrames.Server server = vectorServer;
+        vectorServer = null;
+        if (server != null) {
+            server.close();
+        }
+        synchronized (vectorJoinLock) {
+            framesAwaitingResponse.clear();
+            responsesAwaitingFrame.clear();
+        }
+    }
+
     /**
      * Extract request ID from message.
      */
@@ -2392,6 +2493,7 @@ public class EmbeddingSubprocessLauncher implements AutoCloseable {
             future.completeExceptionally(crashException);
         }
         pendingRequests.clear();
+        closeVectorChannel();
 
         running.set(false);
         modelLoaded = false;
@@ -45,7 +45,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * 1. Initializes ND4J/SameDiff environment (isolated from main application)
  * 2. Loads embedding models
  * 3. Listens for JSON commands on stdin
- * 4. Returns results via stdout with EMBEDDING_MSG: prefix
+ * 4. Returns results via stdout with EMBEDDING_MSG: prefix; embedding vectors go over the
+ *    binary {@link VectorFrames} socket when the launcher provides one
  * 5. Reports progress, phase transitions, heartbeats, and logs via the message protocol
  *
  * All SameDiff/ND4J operations happen here - the main application JVM
@@ -71,6 +72,9 @@ public class EmbeddingSubprocessMain {
     // in main(), so we must never synchronize on the field reference itself.
     private static final Object stdoutLock = new Object();
 
+    // Binary vector channel to the launcher, or null to send vectors inside the JSON responses
+    private static volatile VectorFrames.Writer vectorWriter;
+
     // Current encoder state
     private static volatile SameDiffEncoder<float[]> encoder;
     private static volatile String currentModelId;
@@ -156,6 +160,7 @@ public class EmbeddingSubprocessMain {
             // Start heartbeat thread
             sendProgress("INITIALIZING", 80, "Starting heartbeat", "Initializing health monitoring...");
             startHeartbeat();
+            connectVectorChannel();
 
             // Ready for commands
             sendPhaseTransition("INITIALIZING", "IDLE", System.currentTimeMillis() - startTime);
@@ -741,7 +746,7 @@ public class EmbeddingSubprocessMain {
         if (!modelLoaded || encoder == null) {
             EmbeddingSubprocessMessage.EmbedResponse response =
                 new EmbeddingSubprocessMessage.EmbedResponse(
-                    req.requestId(), false, null, 0, "Model not loaded");
+                    req.requestId(), false, null, 0, "Model not loaded", false);
             sendMessage(response);
             return;
         }
@@ -759,16 +764,17 @@ public class EmbeddingSubprocessMain {
             totalEmbeddingsProcessed.incrementAndGet();
             totalEmbedTimeMs.addAndGet(embedTimeMs);
 
+            boolean binary = sendVectors(req.requestId(), List.of(embedding));
             EmbeddingSubprocessMessage.EmbedResponse response =
                 new EmbeddingSubprocessMessage.EmbedResponse(
-                    req.requestId(), true, embedding, embedTimeMs, null);
+                    req.requestId(), true, binary ? null : embedding, embedTimeMs, null, binary);
             sendMessage(response);
 
         } catch (Exception e) {
             logger.error("Error embedding text: {}", e.getMessage());
             EmbeddingSubprocessMessage.EmbedResponse response =
                 new EmbeddingSubprocessMessage.EmbedResponse(
-                    req.requestId(), false, null, 0, e.getMessage());
+                    req.requestId(), false, null, 0, e.getMessage(), false);
             sendMessage(response);
         }
     }
@@ -780,7 +786,7 @@ public class EmbeddingSubprocessMain {
         if (!modelLoaded || encoder == null) {
             EmbeddingSubprocessMessage.EmbedBatchResponse response =
                 new EmbeddingSubprocessMessage.EmbedBatchResponse(
-                    req.requestId(), false, null, 0, 0, 0, null, "Model not loaded");
+                    req.requestId(), false, null, 0, 0, 0, null, "Model not loaded", false);
             sendMessage(response);
             return;
         }
@@ -841,9 +847,11 @@ public class EmbeddingSubprocessMain {
             sendPhaseTransition("EMBEDDING", "IDLE", totalTimeMs);
             currentPhase = "IDLE";
 
+            boolean binary = sendVectors(req.requestId(), embeddings);
             EmbeddingSubprocessMessage.EmbedBatchResponse response =
                 new EmbeddingSubprocessMessage.EmbedBatchResponse(
-                    req.requestId(), true, embeddings, inputCount, outputCount, totalTimeMs, metrics, null);
+                    req.requestId(), true, binary ? null : embeddings, inputCount, outputCount,
+                    totalTimeMs, metrics, null, binary);
             sendMessage(response);
 
         } catch (Exception e) {
@@ -855,7 +863,7 @@ public class EmbeddingSubprocessMain {
 
             EmbeddingSubprocessMessage.EmbedBatchResponse response =
                 new EmbeddingSubprocessMessage.EmbedBatchResponse(
-                    req.requestId(), false, null, req.texts().size(), 0, 0, null, e.getMessage());
+                    req.requestId(), false, null, req.texts().size(), 0, 0, null, e.getMessage(), false);
             sendMessage(response);
         }
     }
@@ -1122,6 +1130,34 @@ public class EmbeddingSubprocessMain {
         }
     }
 
+    /**
+     * Connects the binary vector channel if the launcher passed a socket path. On failure
+     * vectors keep travelling inside the JSON responses.
+     */
+    private static void connectVectorChannel() {
+        String socketPath = System.getenv(VectorFrames.SOCKET_ENV);
+        if (socketPath == null || socketPath.isBlank()) {
+            return;
+        }
+        try {
+            vectorWriter = VectorFrames.Writer.connect(java.nio.file.Path.of(socketPath));
+            logger.info("Binary vector channel connected: {}", socketPath);
+        } catch (Exception e) {
+            logger.warn("Could not connect binary vector channel {}, using JSON: {}", socketPath, e.getMessage());
+            sendLog("WARN", "EmbeddingSubprocessMain", "Binary vector channel unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends vectors as a binary frame ahead of their JSON response.
+     *
+     * @return true if the response must be sent with {@code binaryVectors=true} and no vectors
+     */
+    private static boolean sendVectors(String requestId, List<float[]> vectors) {
+        VectorFrames.Writer writer = vectorWriter;
+        return writer != null && writer.tryWrite(requestId, vectors);
+    }
+
     /**
      * Send a progress message.
      */
@@ -1243,6 +1279,11 @@ public class EmbeddingSubprocessMain {
             }
         }
 
+        if (vectorWriter != null) {
+            vectorWriter.close();
+            vectorWriter = null;
+        }
+
         if (encoder != null) {
             try {
                 encoder.close();
@@ -166,17 +166,22 @@ public sealed interface EmbeddingSubprocessMessage
 
     /**
      * Response with embedding for a single text.
+     * When {@code binaryVectors} is true the embedding is null here and travels as a
+     * {@link VectorFrames} frame with the same request id instead.
      */
     record EmbedResponse(
             String requestId,
             boolean success,
             float[] embedding,
             long embedTimeMs,
-            String error
+            String error,
+            boolean binaryVectors
     ) implements EmbeddingSubprocessMessage {}
 
     /**
      * Response with embeddings for a batch.
+     * When {@code binaryVectors} is true the embeddings are null here and travel as a
+     * {@link VectorFrames} frame with the same request id instead.
      */
     record EmbedBatchResponse(
             String requestId,
@@ -186,7 +191,8 @@ public sealed interface EmbeddingSubprocessMessage
             int outputCount,
             long totalTimeMs,
             BatchMetrics metrics,
-            String error
+            String error,
+            boolean binaryVectors
     ) implements EmbeddingSubprocessMessage {}
 
     /**
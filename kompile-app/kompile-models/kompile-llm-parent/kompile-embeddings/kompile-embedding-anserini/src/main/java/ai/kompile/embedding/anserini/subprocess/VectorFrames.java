@@ -0,0 +1,329 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.embedding.anserini.subprocess;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Binary side channel for embedding vectors between {@link EmbeddingSubprocessMain} and
+ * {@link EmbeddingSubprocessLauncher}.
+ *
+ * The JSON line protocol on stdout stays in charge of control, progress and response
+ * metadata; only the float payload moves here, over a Unix domain socket, so vectors are
+ * never formatted as decimal text and parsed back. Each frame is little-endian:
+ *
+ * <pre>
+ *   int32   payload length (bytes after this field)
+ *   uint16  request id length, then the request id in UTF-8
+ *   int32   vector count
+ *   int32   dimensions
+ *   float32 count * dimensions values, row-major
+ * </pre>
+ *
+ * The subprocess writes the frame before the JSON response that announces it
+ * ({@code binaryVectors=true}); the launcher joins the two by request id, whichever
+ * arrives first.
+ */
+public final class VectorFrames {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorFrames.class);
+
+    /** Environment variable carrying the socket path from the launcher to the subprocess */
+    public static final String SOCKET_ENV = "KOMPILE_EMBEDDING_VECTOR_SOCKET";
+
+    /** Upper bound on a single frame, to fail fast on a corrupt length prefix */
+    static final int MAX_FRAME_BYTES = 1 << 30;
+
+    private static final int INITIAL_BUFFER_BYTES = 1 << 20;
+
+    private VectorFrames() {}
+
+    /**
+     * One decoded frame.
+     */
+    public record Frame(String requestId, float[][] vectors) {}
+
+    /**
+     * Encodes a frame into {@code buffer} (growing it if needed) and returns the buffer,
+     * flipped for writing.
+     *
+     * @throws IllegalArgumentException if the vectors do not all have the same length
+     */
+    static ByteBuffer encode(String requestId, List<float[]> vectors, ByteBuffer buffer) {
+        byte[] id = requestId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > 0xFFFF) {
+            throw new IllegalArgumentException("Request id too long: " + id.length + " bytes");
+        }
+        int count = vectors.size();
+        int dim = count == 0 ? 0 : vectors.get(0).length;
+        for (float[] vector : vectors) {
+            if (vector.length != dim) {
+                throw new IllegalArgumentException("Ragged batch: expected " + dim + " dimensions, got " + vector.length);
+            }
+        }
+        long payload = 2L + id.length + 8L + 4L * count * dim;
+        if (payload > MAX_FRAME_BYTES) {
+            throw new IllegalArgumentException("Frame too large: " + payload + " bytes");
+        }
+
+        buffer = ensureCapacity(buffer, (int) payload + 4);
+        buffer.clear();
+        buffer.putInt((int) payload);
+        buffer.putShort((short) id.length);
+        buffer.put(id);
+        buffer.putInt(count);
+        buffer.putInt(dim);
+        // Bulk copy through a float view; the byte buffer position does not follow it
+        int floatsStart = buffer.position();
+        var floats = buffer.asFloatBuffer();
+        for (float[] vector : vectors) {
+            floats.put(vector);
+        }
+        buffer.position(floatsStart + 4 * count * dim);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decodes the payload of one frame (everything after the length prefix).
+     */
+    static Frame decode(ByteBuffer payload) {
+        int idLength = Short.toUnsignedInt(payload.getShort());
+        byte[] id = new byte[idLength];
+        payload.get(id);
+        int count = payload.getInt();
+        int dim = payload.getInt();
+        if (count < 0 || dim < 0 || 4L * count * dim != payload.remaining()) {
+            throw new IllegalArgumentException("Malformed vector frame: count=" + count + ", dim=" + dim
+                    + ", remaining=" + payload.remaining());
+        }
+        float[][] vectors = new float[count][dim];
+        var floats = payload.asFloatBuffer();
+        for (float[] vector : vectors) {
+            floats.get(vector);
+        }
+        return new Frame(new String(id, StandardCharsets.UTF_8), vectors);
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int bytes) {
+        if (buffer != null && buffer.capacity() >= bytes) {
+            return buffer;
+        }
+        int capacity = Math.max(INITIAL_BUFFER_BYTES, Integer.highestOneBit(Math.max(1, bytes - 1)) << 1);
+        if (capacity < bytes) {
+            capacity = bytes;
+        }
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Subprocess side: connects to the launcher's socket and writes frames.
+     */
+    public static final class Writer implements Closeable {
+        private final SocketChannel channel;
+        private ByteBuffer buffer;
+        private volatile boolean broken;
+
+        private Writer(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        public static Writer connect(Path socketPath) throws IOException {
+            SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socketPath));
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return new Writer(channel);
+        }
+
+        /**
+         * Writes one frame.
+         *
+         * @return {@code false} if the vectors could not be sent this way and must go
+         *         through the JSON response instead; after an I/O failure the writer stays
+         *         disabled, since a partial frame leaves the stream unusable
+         */
+        public synchronized boolean tryWrite(String requestId, List<float[]> vectors) {
+            if (broken) {
+                return false;
+            }
+            ByteBuffer frame;
+            try {
+                frame = encode(requestId, vectors, buffer);
+            } catch (IllegalArgumentException e) {
+                logger.debug("Sending vectors for {} as JSON: {}", requestId, e.getMessage());
+                return false;
+            }
+            buffer = frame;
+            try {
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+                return true;
+            } catch (IOException e) {
+                logger.warn("Vector socket write failed, falling back to JSON: {}", e.getMessage());
+                broken = true;
+                closeQuietly(channel);
+                return false;
+            }
+        }
+
+        public boolean isBroken() {
+            return broken;
+        }
+
+        @Override
+        public void close() {
+            broken = true;
+            closeQuietly(channel);
+        }
+    }
+
+    /**
+     * Launcher side: listens on a socket in a private temp directory, accepts the
+     * subprocess connection, and hands each decoded frame to a consumer on a daemon thread.
+     */
+    public static final class Server implements Closeable {
+        private final Path directory;
+        private final Path socketPath;
+        private final ServerSocketChannel server;
+        private final Thread thread;
+        private volatile SocketChannel connection;
+        private volatile boolean closed;
+
+        private Server(Path directory, Path socketPath, ServerSocketChannel server,
+                       Consumer<Frame> consumer, String threadName) {
+            this.directory = directory;
+            this.socketPath = socketPath;
+            this.server = server;
+            this.thread = new Thread(() -> run(consumer), threadName);
+            this.thread.setDaemon(true);
+        }
+
+        public static Server bind(Consumer<Frame> consumer, String threadName) throws IOException {
+            Path directory = Files.createTempDirectory("kompile-vec-");
+            Path socketPath = directory.resolve("v.sock");
+            ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                server.bind(UnixDomainSocketAddress.of(socketPath));
+            } catch (IOException e) {
+                closeQuietly(server);
+                Files.deleteIfExists(directory);
+                throw e;
+            }
+            Server s = new Server(directory, socketPath, server, consumer, threadName);
+            s.thread.start();
+            return s;
+        }
+
+        public Path getSocketPath() {
+            return socketPath;
+        }
+
+        private void run(Consumer<Frame> consumer) {
+            try (SocketChannel channel = server.accept()) {
+                connection = channel;
+                ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+                ByteBuffer payload = null;
+                while (!closed) {
+                    header.clear();
+                    if (!readFully(channel, header)) {
+                        break;
+                    }
+                    int length = header.flip().getInt();
+                    if (length < 10 || length > MAX_FRAME_BYTES) {
+                        throw new IOException("Corrupt vector frame length: " + length);
+                    }
+                    payload = ensureCapacity(payload, length);
+                    payload.clear().limit(length);
+                    if (!readFully(channel, payload)) {
+                        throw new EOFException("Vector socket closed mid-frame");
+                    }
+                    consumer.accept(decode(payload.flip()));
+                }
+            } catch (ClosedChannelException e) {
+                // Closed by stop()
+            } catch (Exception e) {
+                if (!closed) {
+                    logger.warn("Vector socket reader stopped: {}", e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * @return {@code false} on a clean end of stream before any byte was read
+         */
+        private static boolean readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+            boolean any = false;
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer);
+                if (n < 0) {
+                    if (any) {
+                        throw new EOFException("Vector socket closed mid-frame");
+                    }
+                    return false;
+                }
+                any |= n > 0;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            closeQuietly(server);
+            SocketChannel c = connection;
+            if (c != null) {
+                closeQuietly(c);
+            }
+            thread.interrupt();
+            try {
+                Files.deleteIfExists(socketPath);
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                logger.debug("Could not remove vector socket {}: {}", socketPath, e.getMessage());
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
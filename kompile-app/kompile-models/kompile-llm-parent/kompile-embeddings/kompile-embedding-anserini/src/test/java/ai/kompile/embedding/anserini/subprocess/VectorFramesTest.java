@@ -0,0 +1,124 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.embedding.anserini.subprocess;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the binary vector frame codec and its Unix domain socket transport.
+ */
+class VectorFramesTest {
+
+    @Test
+    void encodeDecodeRoundTripsExactFloats() {
+        List<float[]> vectors = randomVectors(3, 1024, 1);
+        vectors.get(0)[0] = Float.NaN;
+        vectors.get(1)[1] = -0.0f;
+        vectors.get(2)[2] = Float.MIN_VALUE;
+
+        ByteBuffer frame = VectorFrames.encode("req-1", vectors, null);
+        int length = frame.getInt();
+        assertEquals(frame.remaining(), length);
+
+        VectorFrames.Frame decoded = VectorFrames.decode(frame.slice().order(frame.order()));
+        assertEquals("req-1", decoded.requestId());
+        assertEquals(3, decoded.vectors().length);
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(vectors.get(i), decoded.vectors()[i]);
+        }
+    }
+
+    @Test
+    void emptyBatchRoundTrips() {
+        ByteBuffer frame = VectorFrames.encode("empty", List.of(), null);
+        frame.getInt();
+        VectorFrames.Frame decoded = VectorFrames.decode(frame.slice().order(frame.order()));
+        assertEquals("empty", decoded.requestId());
+        assertEquals(0, decoded.vectors().length);
+    }
+
+    @Test
+    void raggedBatchIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> VectorFrames.encode("r", List.of(new float[4], new float[5]), null));
+    }
+
+    @Test
+    void framesTravelOverSocketInOrder() throws Exception {
+        LinkedBlockingQueue<VectorFrames.Frame> received = new LinkedBlockingQueue<>();
+        try (VectorFrames.Server server = VectorFrames.Server.bind(received::add, "vector-frames-test");
+             VectorFrames.Writer writer = VectorFrames.Writer.connect(server.getSocketPath())) {
+
+            List<List<float[]>> sent = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                // Includes a batch larger than the initial 1 MiB buffer
+                List<float[]> batch = randomVectors(i == 10 ? 512 : 1 + i, 768, i);
+                sent.add(batch);
+                assertTrue(writer.tryWrite("req-" + i, batch));
+            }
+
+            for (int i = 0; i < 20; i++) {
+                VectorFrames.Frame frame = received.poll(10, TimeUnit.SECONDS);
+                assertNotNull(frame, "frame " + i + " not received");
+                assertEquals("req-" + i, frame.requestId());
+                assertEquals(sent.get(i).size(), frame.vectors().length);
+                for (int j = 0; j < frame.vectors().length; j++) {
+                    assertArrayEquals(sent.get(i).get(j), frame.vectors()[j]);
+                }
+            }
+
+            assertFalse(writer.tryWrite("ragged", List.of(new float[2], new float[3])));
+            assertFalse(writer.isBroken(), "a rejected batch must not disable the channel");
+        }
+    }
+
+    @Test
+    void closeRemovesSocketFile() throws Exception {
+        VectorFrames.Server server = VectorFrames.Server.bind(frame -> {}, "vector-frames-test");
+        assertTrue(Files.exists(server.getSocketPath()));
+        server.close();
+        assertFalse(Files.exists(server.getSocketPath()));
+    }
+
+    private static List<float[]> randomVectors(int count, int dim, long seed) {
+        Random random = new Random(seed);
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] v = new float[dim];
+            for (int d = 0; d < dim; d++) {
+                v[d] = (float) random.nextGaussian();
+            }
+            vectors.add(v);
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.embedding.anserini.subprocess;
+
+import ai.kompile.cli.common.util.JsonUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares moving one embedding batch from the subprocess to the launcher over the JSON
+ * line protocol (serialize {@code EMBEDDING_MSG:} + JSON, parse it back) against the
+ * binary {@link VectorFrames} path, both as a pure codec and over a real Unix domain
+ * socket. Scores are batches per second.
+ * <p>
+ * Run from the test classpath via {@link #main(String[])} or
+ * {@code org.openjdk.jmh.Main VectorTransportBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VectorTransportBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonUtils.standardMapper();
+
+    @Param({"32", "256"})
+    public int batchSize;
+
+    @Param({"384", "1024"})
+    public int dimensions;
+
+    private List<float[]> vectors;
+    private EmbeddingSubprocessMessage.EmbedBatchResponse jsonResponse;
+    private ByteBuffer frameBuffer;
+
+    private VectorFrames.Server server;
+    private VectorFrames.Writer writer;
+    private final SynchronousQueue<VectorFrames.Frame> received = new SynchronousQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        vectors = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            float[] v = new float[dimensions];
+            for (int d = 0; d < dimensions; d++) {
+                v[d] = (float) random.nextGaussian();
+            }
+            vectors.add(v);
+        }
+        jsonResponse = new EmbeddingSubprocessMessage.EmbedBatchResponse(
+                "bench", true, vectors, batchSize, batchSize, 10, null, null, false);
+
+        server = VectorFrames.Server.bind(frame -> {
+            try {
+                received.put(frame);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "vector-transport-benchmark");
+        writer = VectorFrames.Writer.connect(server.getSocketPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writer.close();
+        server.close();
+    }
+
+    /** Current path: Jackson text out of the subprocess, Jackson parse in the launcher. */
+    @Benchmark
+    public List<float[]> jsonLine() throws Exception {
+        String line = EmbeddingSubprocessMessage.MESSAGE_PREFIX + OBJECT_MAPPER.writeValueAsString(jsonResponse);
+        String json = line.substring(EmbeddingSubprocessMessage.MESSAGE_PREFIX.length());
+        EmbeddingSubprocessMessage.EmbedBatchResponse parsed =
+                (EmbeddingSubprocessMessage.EmbedBatchResponse) OBJECT_MAPPER.readValue(json, EmbeddingSubprocessMessage.class);
+        return parsed.embeddings();
+    }
+
+    /** Binary frame encode and decode, without the socket. */
+    @Benchmark
+    public float[][] binaryCodec() {
+        frameBuffer = VectorFrames.encode("bench", vectors, frameBuffer);
+        ByteBuffer payload = frameBuffer.duplicate().order(frameBuffer.order());
+        payload.getInt();
+        return VectorFrames.decode(payload.slice().order(frameBuffer.order())).vectors();
+    }
+
+    /** Binary frame through the Unix domain socket, including the reader thread hand-off. */
+    @Benchmark
+    public float[][] binarySocket() throws Exception {
+        if (!writer.tryWrite("bench", vectors)) {
+            throw new IllegalStateException("vector socket write failed");
+        }
+        return received.take().vectors();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(VectorTransportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -163,6 +163,15 @@ public interface OcrPipeline {
                     null, null, null, null, null);
         }
 
+        /** Reports completion with throughput over the processed pages. */
+        public static PipelineProgress completed(int total, int processedPages, long elapsedMs) {
+            double pagesPerMinute = processedPages * 60_000.0 / Math.max(1, elapsedMs);
+            return new PipelineProgress(total, total, "Completed", 100.0,
+                    String.format("Processing complete: %d pages in %dms (%.1f pages/min)",
+                            processedPages, elapsedMs, pagesPerMinute),
+                    null, null, null, null, null);
+        }
+
         /** Reports a sub-step within VLM page processing (Rendering, Preprocessing, Generating, Parsing). */
         public static PipelineProgress vlmStep(int page, int total, String step) {
             double progress = (page - 1.0) / total * 100;
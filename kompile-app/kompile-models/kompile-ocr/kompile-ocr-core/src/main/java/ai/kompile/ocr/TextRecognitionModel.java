@@ -44,6 +44,22 @@ public interface TextRecognitionModel extends OcrModel {
      */
     List<RecognizedText> recognizeBatch(INDArray regionImages);
 
+    /**
+     * Recognition for many regions of different sizes, e.g. all regions of a page.
+     * Models that can batch variable-width input should override this; the default
+     * recognizes one region at a time.
+     *
+     * @param regionImages Cropped regions, each as INDArray [1, C, H, W]
+     * @return Recognized text for each region, in input order
+     */
+    default List<RecognizedText> recognizeAll(List<INDArray> regionImages) {
+        List<RecognizedText> results = new java.util.ArrayList<>(regionImages.size());
+        for (INDArray regionImage : regionImages) {
+            results.add(recognize(regionImage));
+        }
+        return results;
+    }
+
     /**
      * Gets the character vocabulary for this model.
      *
@@ -172,6 +172,27 @@ public abstract class AbstractSameDiffOcrModel implements OcrModel {
         return model.output(inputs, model.outputs());
     }
 
+    /**
+     * Closes arrays a model allocated during inference; nulls, views and arrays that are
+     * already closed are skipped.
+     */
+    protected static void closeAll(INDArray... arrays) {
+        for (INDArray array : arrays) {
+            if (array != null && !array.isView() && !array.wasClosed()) {
+                array.close();
+            }
+        }
+    }
+
+    /**
+     * Closes every output returned by {@link #runInference}.
+     */
+    protected static void closeOutputs(Map<String, INDArray> outputs) {
+        if (outputs != null) {
+            closeAll(outputs.values().toArray(new INDArray[0]));
+        }
+    }
+
     /**
      * Preprocesses an image for model input.
      * Default implementation normalizes to [0,1] and applies ImageNet normalization.
@@ -182,7 +203,11 @@ public abstract class AbstractSameDiffOcrModel implements OcrModel {
 
         // Normalize to [0,1] if in [0,255]
         if (processed.maxNumber().floatValue() > 1.0f) {
-            processed = processed.div(255.0f);
+            INDArray scaled = processed.div(255.0f);
+            if (processed != image) {
+                processed.close();
+            }
+            processed = scaled;
         }
 
         // Apply channel-wise normalization
@@ -29,6 +29,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * DBNet (Differentiable Binarization Network) text detector.
@@ -75,6 +77,15 @@ public class DBNetDetector extends AbstractSameDiffOcrModel implements TextDetec
 
     @Override
     public List<DetectedRegion> detect(INDArray image) {
+        return detectBatch(image).get(0);
+    }
+
+    /**
+     * Detects text in a batch of same-sized images with a single forward pass.
+     * The probability map is split per image for post-processing.
+     */
+    @Override
+    public List<List<DetectedRegion>> detectBatch(INDArray images) {
         if (!isLoaded()) {
             try {
                 load();
@@ -84,12 +95,15 @@ public class DBNetDetector extends AbstractSameDiffOcrModel implements TextDetec
         }
 
         // Get original dimensions for coordinate mapping
-        long[] shape = image.shape();
+        long[] shape = images.shape();
+        int batchSize = (int) shape[0];
         int originalHeight = (int) shape[2];
         int originalWidth = (int) shape[3];
 
         // Preprocess image
-        INDArray preprocessed = preprocessImage(image, MEAN, STD);
+        INDArray preprocessed = preprocessImage(images, MEAN, STD);
+        INDArray resized = null;
+        Map<String, INDArray> outputs = null;
 
         // Resize if needed (maintain aspect ratio, max height 960)
         int targetHeight = Math.min(originalHeight, 960);
@@ -99,42 +113,42 @@ public class DBNetDetector extends AbstractSameDiffOcrModel implements TextDetec
         targetWidth = (targetWidth / 32) * 32;
         if (targetWidth == 0) targetWidth = 32;
 
-        preprocessed = resizeImage(preprocessed, targetHeight, targetWidth);
-
-        // Run inference
-        Map<String, INDArray> inputs = new HashMap<>();
-        inputs.put(getInputNames().isEmpty() ? "input" : getInputNames().get(0), preprocessed);
-
-        Map<String, INDArray> outputs = runInference(inputs);
-
-        // Get probability map (usually first output)
-        INDArray probMap = outputs.values().iterator().next();
-
-        // Post-process to get bounding boxes
-        List<DetectedRegion> regions = postProcess(probMap, originalHeight, originalWidth,
-                targetHeight, targetWidth);
-
-        // Clean up
-        preprocessed.close();
-
-        return regions;
-    }
-
-    @Override
-    public List<List<DetectedRegion>> detectBatch(INDArray images) {
-        List<List<DetectedRegion>> results = new ArrayList<>();
-        long batchSize = images.size(0);
-
-        for (int i = 0; i < batchSize; i++) {
-            INDArray single = images.get(org.nd4j.linalg.indexing.NDArrayIndex.point(i),
-                    org.nd4j.linalg.indexing.NDArrayIndex.all(),
-                    org.nd4j.linalg.indexing.NDArrayIndex.all(),
-                    org.nd4j.linalg.indexing.NDArrayIndex.all())
-                    .reshape(1, images.size(1), images.size(2), images.size(3));
-            results.add(detect(single));
+        try {
+            resized = resizeImage(preprocessed, targetHeight, targetWidth);
+
+            // Run inference
+            Map<String, INDArray> inputs = new HashMap<>();
+            inputs.put(getInputNames().isEmpty() ? "input" : getInputNames().get(0), resized);
+
+            outputs = runInference(inputs);
+
+            // Get probability map (usually first output)
+            INDArray probMap = outputs.values().iterator().next();
+
+            // Post-process each image's probability map to get bounding boxes
+            List<List<DetectedRegion>> results = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                INDArray imageProbMap = batchSize == 1 ? probMap : probMap.get(
+                                org.nd4j.linalg.indexing.NDArrayIndex.point(i),
+                                org.nd4j.linalg.indexing.NDArrayIndex.all(),
+                                org.nd4j.linalg.indexing.NDArrayIndex.all(),
+                                org.nd4j.linalg.indexing.NDArrayIndex.all())
+                        .reshape(1, probMap.size(1), probMap.size(2), probMap.size(3));
+                try {
+                    results.add(postProcess(imageProbMap, originalHeight, originalWidth,
+                            targetHeight, targetWidth));
+                } finally {
+                    if (imageProbMap != probMap) {
+                        closeAll(imageProbMap);
+                    }
+                }
+            }
+            return results;
+        } finally {
+            // Clean up; preprocessing and resizing return their input when there is nothing to do
+            closeOutputs(outputs);
+            closeAll(resized != preprocessed ? resized : null, preprocessed != images ? preprocessed : null);
         }
-
-        return results;
     }
 
     @Override
@@ -154,7 +168,12 @@ public class DBNetDetector extends AbstractSameDiffOcrModel implements TextDetec
 
         // Find connected components (simplified - use contour detection in real impl)
         // This is a placeholder for the actual connected component analysis
-        List<int[][]> contours = findContours(binary);
+        List<int[][]> contours;
+        try {
+            contours = findContours(binary);
+        } finally {
+            closeAll(binary);
+        }
 
         float scaleX = (float) origWidth / procWidth;
         float scaleY = (float) origHeight / procHeight;
@@ -271,8 +290,13 @@ public class DBNetDetector extends AbstractSameDiffOcrModel implements TextDetec
 
     /**
      * Applies Non-Maximum Suppression to remove overlapping detections.
+     *
+     * <p>Candidates are visited in confidence order as usual, but kept boxes are indexed
+     * by their top edge. A kept box can only overlap a candidate if its top lies within
+     * one tallest-box height above the candidate's bottom, so each candidate is compared
+     * against the kept boxes in its own band of text lines rather than all of them.</p>
      */
-    private List<DetectedRegion> applyNMS(List<DetectedRegion> regions, double threshold) {
+    static List<DetectedRegion> applyNMS(List<DetectedRegion> regions, double threshold) {
         if (regions.isEmpty()) {
             return regions;
         }
@@ -281,30 +305,40 @@ public class DBNetDetector extends AbstractSameDiffOcrModel implements TextDetec
         regions.sort((a, b) -> Double.compare(b.confidence(), a.confidence()));
 
         List<DetectedRegion> result = new ArrayList<>();
-        boolean[] suppressed = new boolean[regions.size()];
+        NavigableMap<Integer, List<BoundingBox>> keptByTop = new TreeMap<>();
+        int tallest = 0;
 
-        for (int i = 0; i < regions.size(); i++) {
-            if (suppressed[i]) continue;
-
-            result.add(regions.get(i));
+        for (DetectedRegion region : regions) {
+            BoundingBox box = region.bbox();
+            if (overlapsKept(box, keptByTop, tallest, threshold)) {
+                continue;
+            }
+            result.add(region);
+            keptByTop.computeIfAbsent(box.getY(), y -> new ArrayList<>()).add(box);
+            tallest = Math.max(tallest, box.getHeight());
+        }
 
-            for (int j = i + 1; j < regions.size(); j++) {
-                if (suppressed[j]) continue;
+        return result;
+    }
 
-                double iou = calculateIoU(regions.get(i).bbox(), regions.get(j).bbox());
-                if (iou > threshold) {
-                    suppressed[j] = true;
+    private static boolean overlapsKept(BoundingBox box, NavigableMap<Integer, List<BoundingBox>> keptByTop,
+                                        int tallest, double threshold) {
+        // Kept boxes whose top is in (box.top - tallest, box.bottom) can intersect vertically
+        for (List<BoundingBox> band : keptByTop.subMap(box.getY() - tallest, false,
+                box.getY() + box.getHeight(), false).values()) {
+            for (BoundingBox kept : band) {
+                if (calculateIoU(kept, box) > threshold) {
+                    return true;
                 }
             }
         }
-
-        return result;
+        return false;
     }
 
     /**
      * Calculates Intersection over Union for two bounding boxes.
      */
-    private double calculateIoU(BoundingBox a, BoundingBox b) {
+    private static double calculateIoU(BoundingBox a, BoundingBox b) {
         int x1 = Math.max(a.getX(), b.getX());
         int y1 = Math.max(a.getY(), b.getY());
         int x2 = Math.min(a.getX() + a.getWidth(), b.getX() + b.getWidth());
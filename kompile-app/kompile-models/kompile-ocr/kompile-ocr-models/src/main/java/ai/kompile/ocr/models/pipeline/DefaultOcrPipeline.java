@@ -49,13 +49,31 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
  * Default OCR pipeline implementation.
  * Combines detection, recognition, table extraction, and layout analysis.
+ *
+ * <p>PDFs run as a staged pipeline: pages are rendered on a pool (each worker with its
+ * own {@link PDDocument}, as PDFBox documents are not thread-safe), a detection thread
+ * runs up to {@link OcrPipelineConfig#getPageBatchSize()} same-sized pages per forward
+ * pass, and the calling thread recognizes regions in width-bucketed batches. Bounded
+ * queues between the stages keep at most a few rendered pages in memory.</p>
  */
 @Component
 @Qualifier("defaultOcrPipeline")
@@ -102,6 +120,22 @@ public class DefaultOcrPipeline implements OcrPipeline {
             List<TextDetectionModel.DetectedRegion> detectedRegions = detectionModel.detect(image);
             long detTime = System.currentTimeMillis() - detStartTime;
 
+            return recognizePage(image, detectedRegions, detTime, config, audit);
+
+        } catch (Exception e) {
+            logger.error("OCR processing failed: {}", e.getMessage(), e);
+            audit.complete();
+            return ParsedDocument.failed(config.getSourceId(), 1, e.getMessage());
+        }
+    }
+
+    /**
+     * Recognition, table extraction and result assembly for a page whose text regions
+     * are already detected.
+     */
+    private ParsedDocument recognizePage(INDArray image, List<TextDetectionModel.DetectedRegion> detectedRegions,
+                                         long detTime, OcrPipelineConfig config, AuditTrail audit) {
+        try {
             audit.addModelResult(ModelResult.success(
                     detectionModel.getModelId(),
                     OcrModelType.OCR_DETECTION,
@@ -113,18 +147,23 @@ public class DefaultOcrPipeline implements OcrPipeline {
                             .orElse(0.0)
             ));
 
-            // Step 2: Recognition
+            // Step 2: Recognition, batched across the page's regions
             long recStartTime = System.currentTimeMillis();
-            List<OcrRegion> ocrRegions = new ArrayList<>();
+            List<INDArray> crops = new ArrayList<>(detectedRegions.size());
+            List<TextRecognitionModel.RecognizedText> recognizedTexts;
+            try {
+                for (TextDetectionModel.DetectedRegion region : detectedRegions) {
+                    crops.add(cropRegion(image, region.bbox()));
+                }
+                recognizedTexts = recognitionModel.recognizeAll(crops);
+            } finally {
+                crops.forEach(INDArray::close);
+            }
 
+            List<OcrRegion> ocrRegions = new ArrayList<>();
             for (int i = 0; i < detectedRegions.size(); i++) {
                 TextDetectionModel.DetectedRegion region = detectedRegions.get(i);
-
-                // Crop region from image
-                INDArray cropped = cropRegion(image, region.bbox());
-
-                // Recognize text
-                TextRecognitionModel.RecognizedText recognized = recognitionModel.recognize(cropped);
+                TextRecognitionModel.RecognizedText recognized = recognizedTexts.get(i);
 
                 OcrRegion ocrRegion = OcrRegion.builder()
                         .index(i)
@@ -135,8 +174,6 @@ public class DefaultOcrPipeline implements OcrPipeline {
                         .build();
 
                 ocrRegions.add(ocrRegion);
-
-                cropped.close();
             }
 
             long recTime = System.currentTimeMillis() - recStartTime;
@@ -229,10 +266,21 @@ public class DefaultOcrPipeline implements OcrPipeline {
     public List<ParsedDocument> processPdf(File pdfFile, OcrPipelineConfig config,
                                            Consumer<PipelineProgress> progressCallback) {
         List<ParsedDocument> results = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
 
-        try (PDDocument document = Loader.loadPDF(pdfFile)) {
-            PDFRenderer renderer = new PDFRenderer(document);
-            int totalPages = document.getNumberOfPages();
+        // Bounded hand-offs between stages: rendering blocks once a detection batch is waiting,
+        // detection blocks once a batch of pages is waiting for recognition
+        int pageBatchSize = Math.max(1, config.getPageBatchSize());
+        BlockingQueue<RenderedPage> rendered = new ArrayBlockingQueue<>(pageBatchSize);
+        BlockingQueue<DetectedPage> detected = new ArrayBlockingQueue<>(pageBatchSize);
+        ExecutorService renderPool = null;
+        ExecutorService detectionExecutor = null;
+
+        try {
+            int totalPages;
+            try (PDDocument document = Loader.loadPDF(pdfFile)) {
+                totalPages = document.getNumberOfPages();
+            }
 
             if (progressCallback != null) {
                 progressCallback.accept(PipelineProgress.starting(totalPages));
@@ -245,53 +293,288 @@ public class DefaultOcrPipeline implements OcrPipeline {
                     pagesToProcess.add(i);
                 }
             }
+            List<Integer> pages = pagesToProcess;
+
+            // Update config with page-specific info
+            OcrPipelineConfig pageConfig = OcrPipelineConfig.builder()
+                    .detectionModelId(config.getDetectionModelId())
+                    .recognitionModelId(config.getRecognitionModelId())
+                    .tableModelId(config.getTableModelId())
+                    .layoutModelId(config.getLayoutModelId())
+                    .enableTableExtraction(config.isEnableTableExtraction())
+                    .enableLayoutAnalysis(config.isEnableLayoutAnalysis())
+                    .includeAuditTrail(config.isIncludeAuditTrail())
+                    .sourceId(pdfFile.getAbsolutePath())
+                    .collectionName(config.getCollectionName())
+                    .build();
 
-            for (int pageNum : pagesToProcess) {
-                if (progressCallback != null) {
-                    progressCallback.accept(PipelineProgress.processing(pageNum, totalPages, "OCR"));
-                }
+            ensureModelsLoaded(pageConfig);
 
-                // Render page to image (with fallback for corrupt font dictionaries)
-                BufferedImage pageImage = renderPageSafe(renderer, document, pageNum - 1, config.getPdfRenderDpi());
-
-                // Convert to INDArray
-                INDArray imageArray = bufferedImageToINDArray(pageImage);
-
-                // Update config with page-specific info
-                OcrPipelineConfig pageConfig = OcrPipelineConfig.builder()
-                        .detectionModelId(config.getDetectionModelId())
-                        .recognitionModelId(config.getRecognitionModelId())
-                        .tableModelId(config.getTableModelId())
-                        .layoutModelId(config.getLayoutModelId())
-                        .enableTableExtraction(config.isEnableTableExtraction())
-                        .enableLayoutAnalysis(config.isEnableLayoutAnalysis())
-                        .includeAuditTrail(config.isIncludeAuditTrail())
-                        .sourceId(pdfFile.getAbsolutePath())
-                        .collectionName(config.getCollectionName())
-                        .build();
+            // Stage 1: render pages on a pool
+            int renderWorkers = renderWorkers(config, pages.size());
+            renderPool = Executors.newFixedThreadPool(renderWorkers, stageThreads("ocr-render"));
+            AtomicInteger nextPage = new AtomicInteger();
+            for (int w = 0; w < renderWorkers; w++) {
+                renderPool.execute(() -> renderPages(pdfFile, pages, nextPage, config.getPdfRenderDpi(), rendered));
+            }
 
-                // Process page
-                ParsedDocument pageResult = processImage(imageArray, pageConfig);
-                pageResult.setPageNumber(pageNum);
+            // Stage 2: detect text regions, batching pages
+            detectionExecutor = Executors.newSingleThreadExecutor(stageThreads("ocr-detect"));
+            Future<?> detection = detectionExecutor.submit(() ->
+                    detectPages(pages.size(), pageBatchSize, pdfFile.getAbsolutePath(), rendered, detected));
+
+            // Stage 3: recognize regions on this thread as detected pages arrive
+            Map<Integer, ParsedDocument> byPage = new HashMap<>();
+            for (int done = 0; done < pages.size(); done++) {
+                DetectedPage page = nextDetectedPage(detected, detection);
+                ParsedDocument pageResult;
+                if (page.image() == null) {
+                    pageResult = ParsedDocument.failed(pdfFile.getAbsolutePath(), page.pageNumber(), page.error());
+                } else {
+                    try {
+                        pageResult = recognizePage(page.image(), page.regions(), page.detectionTimeMs(),
+                                pageConfig, page.audit());
+                    } finally {
+                        page.image().close();
+                    }
+                }
+                pageResult.setPageNumber(page.pageNumber());
                 pageResult.setTotalPages(totalPages);
+                byPage.put(page.pageNumber(), pageResult);
 
-                results.add(pageResult);
+                if (progressCallback != null) {
+                    progressCallback.accept(PipelineProgress.processing(page.pageNumber(), totalPages, "OCR"));
+                }
+            }
 
-                imageArray.close();
+            for (int pageNum : pages) {
+                results.add(byPage.get(pageNum));
             }
 
+            long elapsed = System.currentTimeMillis() - startTime;
+            logger.info("OCR processed {} pages of {} in {}ms ({} pages/min, {} render workers, page batch {})",
+                    pages.size(), pdfFile.getName(), elapsed,
+                    String.format("%.1f", pages.size() * 60_000.0 / Math.max(1, elapsed)),
+                    renderWorkers, pageBatchSize);
+
             if (progressCallback != null) {
-                progressCallback.accept(PipelineProgress.completed(totalPages));
+                progressCallback.accept(PipelineProgress.completed(totalPages, pages.size(), elapsed));
             }
 
         } catch (Exception e) {
             logger.error("Failed to process PDF: {}", e.getMessage(), e);
             results.add(ParsedDocument.failed(pdfFile.getAbsolutePath(), 0, e.getMessage()));
+        } finally {
+            stopStage(renderPool);
+            stopStage(detectionExecutor);
+            rendered.forEach(page -> closeQuietly(page.image()));
+            detected.forEach(page -> closeQuietly(page.image()));
         }
 
         return results;
     }
 
+    /**
+     * Render worker: claims pages from the shared cursor and renders them with its own
+     * document instance. Emits exactly one {@link RenderedPage} per claimed page, failed
+     * or not, so the downstream stages can count pages instead of waiting for a marker.
+     */
+    private void renderPages(File pdfFile, List<Integer> pages, AtomicInteger nextPage, float dpi,
+                             BlockingQueue<RenderedPage> rendered) {
+        PDDocument document = null;
+        String openError = null;
+        try {
+            document = Loader.loadPDF(pdfFile);
+        } catch (IOException e) {
+            openError = "Failed to open PDF: " + e.getMessage();
+        }
+
+        try {
+            PDFRenderer renderer = document != null ? new PDFRenderer(document) : null;
+            int index;
+            while ((index = nextPage.getAndIncrement()) < pages.size()) {
+                int pageNum = pages.get(index);
+                RenderedPage page;
+                if (renderer == null) {
+                    page = RenderedPage.failed(pageNum, openError);
+                } else {
+                    try {
+                        // Render page to image (with fallback for corrupt font dictionaries)
+                        BufferedImage pageImage = renderPageSafe(renderer, document, pageNum - 1, dpi);
+                        page = new RenderedPage(pageNum, bufferedImageToINDArray(pageImage), null);
+                    } catch (Exception e) {
+                        logger.warn("Failed to render page {}: {}", pageNum, e.getMessage());
+                        page = RenderedPage.failed(pageNum, e.getMessage());
+                    }
+                }
+
+                try {
+                    rendered.put(page);
+                } catch (InterruptedException e) {
+                    closeQuietly(page.image());
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        } finally {
+            if (document != null) {
+                try {
+                    document.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to close render document: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Detection stage: takes whatever rendered pages are ready, up to the page batch size,
+     * and runs detection on them together.
+     */
+    private void detectPages(int pageCount, int pageBatchSize, String sourceId,
+                             BlockingQueue<RenderedPage> rendered, BlockingQueue<DetectedPage> detected) {
+        try {
+            int received = 0;
+            while (received < pageCount) {
+                List<RenderedPage> batch = new ArrayList<>(pageBatchSize);
+                batch.add(rendered.take());
+                rendered.drainTo(batch, pageBatchSize - 1);
+                received += batch.size();
+
+                for (DetectedPage page : detectBatch(batch, sourceId)) {
+                    detected.put(page);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Detects text regions for a batch of rendered pages. Pages with the same tensor shape
+     * share one forward pass; a failed group fails only its own pages.
+     */
+    private List<DetectedPage> detectBatch(List<RenderedPage> batch, String sourceId) {
+        List<DetectedPage> pages = new ArrayList<>(batch.size());
+        Map<String, List<RenderedPage>> byShape = new LinkedHashMap<>();
+        for (RenderedPage page : batch) {
+            if (page.image() == null) {
+                pages.add(DetectedPage.failed(page.pageNumber(), page.error()));
+            } else {
+                byShape.computeIfAbsent(Arrays.toString(page.image().shape()), k -> new ArrayList<>()).add(page);
+            }
+        }
+
+        for (List<RenderedPage> group : byShape.values()) {
+            List<AuditTrail> audits = new ArrayList<>(group.size());
+            for (RenderedPage page : group) {
+                audits.add(AuditTrail.forPage(sourceId, page.pageNumber()));
+            }
+
+            long detStartTime = System.currentTimeMillis();
+            try {
+                List<List<TextDetectionModel.DetectedRegion>> regions;
+                if (group.size() == 1) {
+                    regions = List.of(detectionModel.detect(group.get(0).image()));
+                } else {
+                    INDArray stacked = Nd4j.concat(0, group.stream().map(RenderedPage::image).toArray(INDArray[]::new));
+                    try {
+                        regions = detectionModel.detectBatch(stacked);
+                    } finally {
+                        stacked.close();
+                    }
+                }
+                long detTime = (System.currentTimeMillis() - detStartTime) / group.size();
+
+                for (int i = 0; i < group.size(); i++) {
+                    RenderedPage page = group.get(i);
+                    pages.add(new DetectedPage(page.pageNumber(), page.image(), regions.get(i), detTime,
+                            audits.get(i), null));
+                }
+            } catch (Exception e) {
+                logger.warn("Detection failed for {} page(s): {}", group.size(), e.getMessage());
+                for (RenderedPage page : group) {
+                    closeQuietly(page.image());
+                    pages.add(DetectedPage.failed(page.pageNumber(), e.getMessage()));
+                }
+            }
+        }
+
+        return pages;
+    }
+
+    /**
+     * Takes the next detected page, failing instead of hanging if the detection stage died.
+     */
+    private static DetectedPage nextDetectedPage(BlockingQueue<DetectedPage> detected, Future<?> detection)
+            throws InterruptedException {
+        while (true) {
+            DetectedPage page = detected.poll(1, TimeUnit.SECONDS);
+            if (page != null) {
+                return page;
+            }
+            if (detection.isDone() && detected.isEmpty()) {
+                throw new IllegalStateException("OCR detection stage stopped before all pages were detected");
+            }
+        }
+    }
+
+    private static int renderWorkers(OcrPipelineConfig config, int pageCount) {
+        if (!config.isParallelProcessing()) {
+            return 1;
+        }
+        int workers = config.getParallelWorkers() > 0
+                ? config.getParallelWorkers()
+                : Math.min(4, Runtime.getRuntime().availableProcessors());
+        return Math.max(1, Math.min(workers, pageCount));
+    }
+
+    private static ThreadFactory stageThreads(String name) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static void stopStage(ExecutorService executor) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(INDArray array) {
+        if (array != null) {
+            array.close();
+        }
+    }
+
+    /**
+     * A rendered page, or the reason it could not be rendered.
+     */
+    private record RenderedPage(int pageNumber, INDArray image, String error) {
+        static RenderedPage failed(int pageNumber, String error) {
+            return new RenderedPage(pageNumber, null, error);
+        }
+    }
+
+    /**
+     * A page with its detected regions, or the reason it failed before recognition.
+     */
+    private record DetectedPage(int pageNumber, INDArray image, List<TextDetectionModel.DetectedRegion> regions,
+                                long detectionTimeMs, AuditTrail audit, String error) {
+        static DetectedPage failed(int pageNumber, String error) {
+            return new DetectedPage(pageNumber, null, null, 0, null, error);
+        }
+    }
+
     @Override
     public List<ParsedDocument> processPdf(InputStream pdfStream, String sourceId) {
         // Create temp file and delegate
@@ -425,7 +708,7 @@ public class DefaultOcrPipeline implements OcrPipeline {
     /**
      * Crops a region from an image.
      */
-    private INDArray cropRegion(INDArray image, BoundingBox bbox) {
+    INDArray cropRegion(INDArray image, BoundingBox bbox) {
         long[] shape = image.shape();
         int h = (int) shape[2];
         int w = (int) shape[3];
@@ -452,7 +735,7 @@ public class DefaultOcrPipeline implements OcrPipeline {
      * Converts a BufferedImage to INDArray.
      * Uses bulk pixel extraction to avoid per-pixel JNI overhead.
      */
-    private INDArray bufferedImageToINDArray(BufferedImage image) {
+    INDArray bufferedImageToINDArray(BufferedImage image) {
         int h = image.getHeight();
         int w = image.getWidth();
 
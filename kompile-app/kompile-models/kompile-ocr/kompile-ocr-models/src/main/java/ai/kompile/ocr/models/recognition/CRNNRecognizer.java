@@ -44,6 +44,9 @@ public class CRNNRecognizer extends AbstractSameDiffOcrModel implements TextReco
     private static final float[] MEAN = {0.5f, 0.5f, 0.5f};
     private static final float[] STD = {0.5f, 0.5f, 0.5f};
     private static final int INPUT_HEIGHT = 32;
+    // Regions are padded up to the next multiple of this width so similar widths share a batch
+    private static final int WIDTH_BUCKET = 32;
+    private static final int MAX_BATCH_SIZE = 32;
 
     private final KompileModelManager modelManager;
     private List<String> vocabulary;
@@ -59,7 +62,7 @@ public class CRNNRecognizer extends AbstractSameDiffOcrModel implements TextReco
                 .supportsBatch(true)
                 .supportsHandwriting(false)
                 .supportedLanguages(List.of("en"))
-                .maxBatchSize(32)
+                .maxBatchSize(MAX_BATCH_SIZE)
                 .inputHeight(INPUT_HEIGHT)
                 .inputWidth(-1)  // Variable width
                 .averageAccuracy(0.95)
@@ -127,51 +130,180 @@ public class CRNNRecognizer extends AbstractSameDiffOcrModel implements TextReco
         int originalWidth = (int) shape[3];
 
         // Resize to fixed height, keeping aspect ratio
-        float scale = (float) INPUT_HEIGHT / originalHeight;
-        int targetWidth = Math.round(originalWidth * scale);
-        // Make width divisible by 4 for CNN compatibility
-        targetWidth = Math.max(4, (targetWidth / 4) * 4);
+        int targetWidth = targetWidth(originalHeight, originalWidth);
 
         INDArray resized = resizeImage(regionImage, INPUT_HEIGHT, targetWidth);
-
-        // Preprocess
-        INDArray preprocessed = preprocessImage(resized, MEAN, STD);
-
-        // Run inference
-        Map<String, INDArray> inputs = new HashMap<>();
-        inputs.put(getInputNames().isEmpty() ? "input" : getInputNames().get(0), preprocessed);
-
-        Map<String, INDArray> outputs = runInference(inputs);
-
-        // Get logits (usually shape [1, T, num_classes])
-        INDArray logits = outputs.values().iterator().next();
-
-        // CTC decode
-        RecognizedText result = ctcDecode(logits);
-
-        // Cleanup
-        resized.close();
-        preprocessed.close();
-
-        return result;
+        INDArray preprocessed = null;
+        Map<String, INDArray> outputs = null;
+        try {
+            // Preprocess
+            preprocessed = preprocessImage(resized, MEAN, STD);
+
+            // Run inference
+            Map<String, INDArray> inputs = new HashMap<>();
+            inputs.put(getInputNames().isEmpty() ? "input" : getInputNames().get(0), preprocessed);
+
+            outputs = runInference(inputs);
+
+            // Get logits (usually shape [1, T, num_classes]) and CTC decode
+            return ctcDecode(outputs.values().iterator().next());
+        } finally {
+            // Resize and preprocessing return their input when there is nothing to do
+            closeOutputs(outputs);
+            closeAll(preprocessed != resized ? preprocessed : null, resized != regionImage ? resized : null);
+        }
     }
 
     @Override
     public List<RecognizedText> recognizeBatch(INDArray regionImages) {
-        List<RecognizedText> results = new ArrayList<>();
+        List<INDArray> regions = new ArrayList<>();
         long batchSize = regionImages.size(0);
 
         for (int i = 0; i < batchSize; i++) {
-            INDArray single = regionImages.get(
+            regions.add(regionImages.get(
                             org.nd4j.linalg.indexing.NDArrayIndex.point(i),
                             org.nd4j.linalg.indexing.NDArrayIndex.all(),
                             org.nd4j.linalg.indexing.NDArrayIndex.all(),
                             org.nd4j.linalg.indexing.NDArrayIndex.all())
-                    .reshape(1, regionImages.size(1), regionImages.size(2), regionImages.size(3));
-            results.add(recognize(single));
+                    .reshape(1, regionImages.size(1), regionImages.size(2), regionImages.size(3)));
+        }
+
+        try {
+            return recognizeAll(regions);
+        } finally {
+            closeAll(regions.toArray(new INDArray[0]));
+        }
+    }
+
+    /**
+     * Recognizes regions in batches grouped by width bucket.
+     *
+     * <p>Each region is resized to the model height and padded on the right up to its
+     * bucket width, so one forward pass covers up to {@value #MAX_BATCH_SIZE} regions of
+     * similar width. CTC decoding only reads the timesteps covering the unpadded part.</p>
+     */
+    @Override
+    public List<RecognizedText> recognizeAll(List<INDArray> regionImages) {
+        if (!isLoaded()) {
+            try {
+                load();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to load model: " + e.getMessage(), e);
+            }
+        }
+
+        int[] widths = new int[regionImages.size()];
+        for (int i = 0; i < regionImages.size(); i++) {
+            long[] shape = regionImages.get(i).shape();
+            widths[i] = targetWidth((int) shape[2], (int) shape[3]);
+        }
+
+        RecognizedText[] results = new RecognizedText[regionImages.size()];
+        for (Batch batch : planBatches(widths)) {
+            List<RecognizedText> texts = recognizeBucket(regionImages, widths, batch.indices(), batch.bucketWidth());
+            for (int b = 0; b < batch.indices().size(); b++) {
+                results[batch.indices().get(b)] = texts.get(b);
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Regions recognized together: indices into the input list, padded to {@code bucketWidth}.
+     */
+    record Batch(int bucketWidth, List<Integer> indices) {
+    }
+
+    /**
+     * Groups region indices by padded width, narrowest bucket first, in batches of at most
+     * {@value #MAX_BATCH_SIZE}. Indices keep their input order within a bucket.
+     */
+    static List<Batch> planBatches(int[] widths) {
+        Map<Integer, List<Integer>> buckets = new TreeMap<>();
+        for (int i = 0; i < widths.length; i++) {
+            int bucketWidth = ((widths[i] + WIDTH_BUCKET - 1) / WIDTH_BUCKET) * WIDTH_BUCKET;
+            buckets.computeIfAbsent(bucketWidth, w -> new ArrayList<>()).add(i);
+        }
+
+        List<Batch> batches = new ArrayList<>();
+        for (Map.Entry<Integer, List<Integer>> bucket : buckets.entrySet()) {
+            List<Integer> indices = bucket.getValue();
+            for (int start = 0; start < indices.size(); start += MAX_BATCH_SIZE) {
+                batches.add(new Batch(bucket.getKey(),
+                        indices.subList(start, Math.min(start + MAX_BATCH_SIZE, indices.size()))));
+            }
         }
+        return batches;
+    }
+
+    /**
+     * Runs one padded batch of same-bucket regions through the model.
+     *
+     * @return The recognized text of each region, in batch order
+     */
+    List<RecognizedText> recognizeBucket(List<INDArray> regionImages, int[] widths, List<Integer> batch,
+                                         int bucketWidth) {
+        long channels = regionImages.get(batch.get(0)).size(1);
+        INDArray input = Nd4j.zeros(org.nd4j.linalg.api.buffer.DataType.FLOAT,
+                batch.size(), channels, INPUT_HEIGHT, bucketWidth);
+        Map<String, INDArray> outputs = null;
+
+        try {
+            for (int b = 0; b < batch.size(); b++) {
+                int index = batch.get(b);
+                INDArray region = regionImages.get(index);
+                INDArray resized = resizeImage(region, INPUT_HEIGHT, widths[index]);
+                INDArray preprocessed = preprocessImage(resized, MEAN, STD);
+                input.get(
+                        org.nd4j.linalg.indexing.NDArrayIndex.interval(b, b + 1),
+                        org.nd4j.linalg.indexing.NDArrayIndex.all(),
+                        org.nd4j.linalg.indexing.NDArrayIndex.all(),
+                        org.nd4j.linalg.indexing.NDArrayIndex.interval(0, widths[index])
+                ).assign(preprocessed);
+                // Resize and preprocessing return their input when there is nothing to do
+                closeAll(preprocessed != resized && preprocessed != region ? preprocessed : null,
+                        resized != region ? resized : null);
+            }
+
+            Map<String, INDArray> inputs = new HashMap<>();
+            inputs.put(getInputNames().isEmpty() ? "input" : getInputNames().get(0), input);
+
+            outputs = runInference(inputs);
+
+            // Logits shape [B, T, num_classes]; decode each region over its own share of T
+            INDArray logits = outputs.values().iterator().next();
+            long timesteps = logits.size(1);
+            List<RecognizedText> texts = new ArrayList<>(batch.size());
+            for (int b = 0; b < batch.size(); b++) {
+                int index = batch.get(b);
+                long regionSteps = Math.max(1, Math.min(timesteps,
+                        (long) Math.ceil(timesteps * (double) widths[index] / bucketWidth)));
+                INDArray regionLogits = logits.get(
+                        org.nd4j.linalg.indexing.NDArrayIndex.point(b),
+                        org.nd4j.linalg.indexing.NDArrayIndex.interval(0, regionSteps),
+                        org.nd4j.linalg.indexing.NDArrayIndex.all());
+                try {
+                    texts.add(ctcDecode(regionLogits));
+                } finally {
+                    closeAll(regionLogits);
+                }
+            }
+            return texts;
+        } finally {
+            closeOutputs(outputs);
+            closeAll(input);
+        }
+    }
 
-        return results;
+    /**
+     * Width after resizing to the model height, keeping aspect ratio.
+     * Made divisible by 4 for CNN compatibility.
+     */
+    private static int targetWidth(int originalHeight, int originalWidth) {
+        float scale = (float) INPUT_HEIGHT / originalHeight;
+        int targetWidth = Math.round(originalWidth * scale);
+        return Math.max(4, (targetWidth / 4) * 4);
     }
 
     @Override
@@ -219,8 +351,10 @@ public class CRNNRecognizer extends AbstractSameDiffOcrModel implements TextReco
             INDArray softmax = Nd4j.nn().softmax(probs, 0);
 
             // Get best index
-            int bestIndex = Nd4j.argMax(softmax, 0).getInt(0);
+            INDArray argMax = Nd4j.argMax(softmax, 0);
+            int bestIndex = argMax.getInt(0);
             double bestProb = softmax.getDouble(bestIndex);
+            closeAll(argMax);
 
             // CTC decoding: skip blanks and repeated characters
             if (bestIndex != blankIndex && bestIndex != prevIndex) {
@@ -240,6 +374,7 @@ public class CRNNRecognizer extends AbstractSameDiffOcrModel implements TextReco
                 charCount++;
             }
 
+            closeAll(softmax);
             prevIndex = bestIndex;
         }
 
@@ -0,0 +1,123 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.ocr.models.detection;
+
+import ai.kompile.ocr.BoundingBox;
+import ai.kompile.ocr.TextDetectionModel.DetectedRegion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link DBNetDetector#applyNMS}: the banded version must keep exactly the
+ * regions the plain all-pairs greedy NMS keeps.
+ */
+class DBNetDetectorTest {
+
+    @Test
+    void bandedNmsMatchesAllPairsNmsOnRandomRegions() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 500; trial++) {
+            List<DetectedRegion> regions = randomRegions(random, 1 + random.nextInt(200));
+            double threshold = random.nextInt(10) / 10.0;
+
+            List<DetectedRegion> expected = allPairsNms(new ArrayList<>(regions), threshold);
+            List<DetectedRegion> actual = DBNetDetector.applyNMS(new ArrayList<>(regions), threshold);
+
+            assertEquals(expected, actual, "trial " + trial + ", threshold " + threshold);
+        }
+    }
+
+    @Test
+    void overlappingLowerConfidenceRegionIsSuppressed() {
+        DetectedRegion strong = region(10, 10, 100, 20, 0.9);
+        DetectedRegion weak = region(12, 11, 100, 20, 0.5);
+        DetectedRegion nextLine = region(10, 40, 100, 20, 0.4);
+
+        List<DetectedRegion> kept = DBNetDetector.applyNMS(new ArrayList<>(List.of(weak, nextLine, strong)), 0.3);
+
+        assertEquals(List.of(strong, nextLine), kept);
+    }
+
+    @Test
+    void emptyInputIsReturnedAsIs() {
+        assertTrue(DBNetDetector.applyNMS(new ArrayList<>(), 0.3).isEmpty());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * Regions clustered on a few text lines of mixed height, so both overlapping and
+     * vertically distant boxes are common.
+     */
+    private static List<DetectedRegion> randomRegions(Random random, int count) {
+        List<DetectedRegion> regions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int line = random.nextInt(20);
+            int x = random.nextInt(500);
+            int y = line * 25 + random.nextInt(10);
+            int width = 1 + random.nextInt(120);
+            int height = 1 + random.nextInt(random.nextInt(10) == 0 ? 200 : 30);
+            regions.add(region(x, y, width, height, random.nextInt(20) / 20.0));
+        }
+        return regions;
+    }
+
+    private static DetectedRegion region(int x, int y, int width, int height, double confidence) {
+        return new DetectedRegion(BoundingBox.of(x, y, width, height), confidence, null);
+    }
+
+    /**
+     * Greedy NMS comparing every candidate with every kept region.
+     */
+    private static List<DetectedRegion> allPairsNms(List<DetectedRegion> regions, double threshold) {
+        regions.sort((a, b) -> Double.compare(b.confidence(), a.confidence()));
+        List<DetectedRegion> kept = new ArrayList<>();
+        for (DetectedRegion region : regions) {
+            boolean suppressed = false;
+            for (DetectedRegion other : kept) {
+                if (iou(other.bbox(), region.bbox()) > threshold) {
+                    suppressed = true;
+                    break;
+                }
+            }
+            if (!suppressed) {
+                kept.add(region);
+            }
+        }
+        return kept;
+    }
+
+    private static double iou(BoundingBox a, BoundingBox b) {
+        int x1 = Math.max(a.getX(), b.getX());
+        int y1 = Math.max(a.getY(), b.getY());
+        int x2 = Math.min(a.getX() + a.getWidth(), b.getX() + b.getWidth());
+        int y2 = Math.min(a.getY() + a.getHeight(), b.getY() + b.getHeight());
+        if (x2 <= x1 || y2 <= y1) {
+            return 0.0;
+        }
+        double intersection = (double) (x2 - x1) * (y2 - y1);
+        double union = (double) a.getWidth() * a.getHeight() + (double) b.getWidth() * b.getHeight() - intersection;
+        return intersection / union;
+    }
+}
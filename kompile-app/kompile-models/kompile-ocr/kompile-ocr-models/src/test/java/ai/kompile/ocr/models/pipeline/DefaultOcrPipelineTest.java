@@ -0,0 +1,239 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.ocr.models.pipeline;
+
+import ai.kompile.ocr.BoundingBox;
+import ai.kompile.ocr.OcrPipelineConfig;
+import ai.kompile.ocr.TextDetectionModel;
+import ai.kompile.ocr.TextRecognitionModel;
+import ai.kompile.ocr.document.ParsedDocument;
+import ai.kompile.ocr.models.factory.OcrModelFactory;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the staged {@link DefaultOcrPipeline#processPdf}: pages rendered out of order by
+ * parallel workers come back in page order, and a failure in one stage fails only its page.
+ *
+ * <p>Pages are real PDF pages rendered by PDFBox. Each page is a different width so its image,
+ * and the region detected on it, identify the page; the tensors themselves are mocks.</p>
+ */
+class DefaultOcrPipelineTest {
+
+    private static final int PAGES = 8;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void pagesComeBackInPageOrder() throws Exception {
+        FakeImagePipeline pipeline = new FakeImagePipeline(-1, -1);
+
+        List<ParsedDocument> results = pipeline.processPdf(pdf(PAGES), config(), null);
+
+        assertEquals(PAGES, results.size());
+        for (int page = 1; page <= PAGES; page++) {
+            ParsedDocument result = results.get(page - 1);
+            assertTrue(result.isSuccess(), result.getErrorMessage());
+            assertEquals(page, result.getPageNumber());
+            assertEquals(PAGES, result.getTotalPages());
+            assertEquals("page " + page, result.getText());
+        }
+        pipeline.assertAllArraysClosed(PAGES);
+    }
+
+    @Test
+    void detectionFailureFailsOnlyItsPage() throws Exception {
+        FakeImagePipeline pipeline = new FakeImagePipeline(3, -1);
+
+        List<ParsedDocument> results = pipeline.processPdf(pdf(PAGES), config(), null);
+
+        assertEquals(PAGES, results.size());
+        for (int page = 1; page <= PAGES; page++) {
+            ParsedDocument result = results.get(page - 1);
+            assertEquals(page, result.getPageNumber());
+            if (page == 3) {
+                assertFalse(result.isSuccess());
+                assertEquals("detection failed on page 3", result.getErrorMessage());
+            } else {
+                assertTrue(result.isSuccess(), result.getErrorMessage());
+                assertEquals("page " + page, result.getText());
+            }
+        }
+        pipeline.assertAllArraysClosed(PAGES);
+    }
+
+    @Test
+    void recognitionFailureFailsOnlyItsPage() throws Exception {
+        FakeImagePipeline pipeline = new FakeImagePipeline(-1, 5);
+
+        List<ParsedDocument> results = pipeline.processPdf(pdf(PAGES), config(), null);
+
+        assertEquals(PAGES, results.size());
+        for (int page = 1; page <= PAGES; page++) {
+            ParsedDocument result = results.get(page - 1);
+            assertEquals(page, result.getPageNumber());
+            if (page == 5) {
+                assertFalse(result.isSuccess());
+                assertEquals("recognition failed on page 5", result.getErrorMessage());
+            } else {
+                assertTrue(result.isSuccess(), result.getErrorMessage());
+                assertEquals("page " + page, result.getText());
+            }
+        }
+        pipeline.assertAllArraysClosed(PAGES);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static OcrPipelineConfig config() {
+        // Every page has its own shape, so a batch of pages never needs a stacked tensor
+        return OcrPipelineConfig.builder()
+                .pdfRenderDpi(72)
+                .pageBatchSize(4)
+                .parallelProcessing(true)
+                .parallelWorkers(4)
+                .build();
+    }
+
+    /**
+     * A PDF whose page {@code n} is {@link #pageWidth(int)} points wide, so at 72 DPI
+     * its rendered image is that many pixels wide.
+     */
+    private File pdf(int pages) throws IOException {
+        File file = tempDir.resolve("pages.pdf").toFile();
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= pages; page++) {
+                document.addPage(new PDPage(new PDRectangle(pageWidth(page), 50)));
+            }
+            document.save(file);
+        }
+        return file;
+    }
+
+    private static int pageWidth(int page) {
+        return 100 + 10 * page;
+    }
+
+    private static int pageOf(INDArray image) {
+        return ((int) image.shape()[3] - 100) / 10;
+    }
+
+    private static INDArray array(long... shape) {
+        INDArray array = mock(INDArray.class);
+        when(array.shape()).thenReturn(shape);
+        return array;
+    }
+
+    /**
+     * Pipeline with mock tensors in place of ND4J conversion and cropping. Detection finds one
+     * region per page whose x coordinate is the page number, the crop of that region is as
+     * wide as the page number, and recognition reads the width back as the page's text.
+     */
+    private static final class FakeImagePipeline extends DefaultOcrPipeline {
+        private final List<INDArray> images = Collections.synchronizedList(new ArrayList<>());
+        private final List<INDArray> crops = Collections.synchronizedList(new ArrayList<>());
+
+        FakeImagePipeline(int failDetectionOnPage, int failRecognitionOnPage) {
+            super(modelFactory(failDetectionOnPage, failRecognitionOnPage));
+        }
+
+        @Override
+        INDArray bufferedImageToINDArray(BufferedImage image) {
+            try {
+                // Let render workers finish out of page order
+                Thread.sleep(ThreadLocalRandom.current().nextInt(20));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            INDArray array = array(1, 3, image.getHeight(), image.getWidth());
+            images.add(array);
+            return array;
+        }
+
+        @Override
+        INDArray cropRegion(INDArray image, BoundingBox bbox) {
+            INDArray crop = array(1, 3, bbox.getHeight(), bbox.getX());
+            crops.add(crop);
+            return crop;
+        }
+
+        void assertAllArraysClosed(int pages) {
+            assertEquals(pages, images.size());
+            images.forEach(image -> verify(image, atLeastOnce()).close());
+            crops.forEach(crop -> verify(crop, atLeastOnce()).close());
+        }
+
+        private static OcrModelFactory modelFactory(int failDetectionOnPage, int failRecognitionOnPage) {
+            TextDetectionModel detector = mock(TextDetectionModel.class);
+            when(detector.isLoaded()).thenReturn(true);
+            when(detector.getModelId()).thenReturn("fake-detector");
+            when(detector.detect(any())).thenAnswer(invocation -> {
+                int page = pageOf(invocation.getArgument(0));
+                if (page == failDetectionOnPage) {
+                    throw new IllegalStateException("detection failed on page " + page);
+                }
+                return List.of(TextDetectionModel.DetectedRegion.of(BoundingBox.of(page, 0, 10, 10), 0.9));
+            });
+
+            TextRecognitionModel recognizer = mock(TextRecognitionModel.class);
+            when(recognizer.isLoaded()).thenReturn(true);
+            when(recognizer.getModelId()).thenReturn("fake-recognizer");
+            when(recognizer.recognizeAll(anyList())).thenAnswer(invocation -> {
+                List<INDArray> regions = invocation.getArgument(0);
+                List<TextRecognitionModel.RecognizedText> texts = new ArrayList<>();
+                for (INDArray region : regions) {
+                    int page = (int) region.shape()[3];
+                    if (page == failRecognitionOnPage) {
+                        throw new IllegalStateException("recognition failed on page " + page);
+                    }
+                    texts.add(TextRecognitionModel.RecognizedText.of("page " + page, 0.9));
+                }
+                return texts;
+            });
+
+            OcrModelFactory factory = mock(OcrModelFactory.class);
+            when(factory.getDefaultDetectionModel()).thenReturn(Optional.of(detector));
+            when(factory.getDefaultRecognitionModel()).thenReturn(Optional.of(recognizer));
+            return factory;
+        }
+    }
+}
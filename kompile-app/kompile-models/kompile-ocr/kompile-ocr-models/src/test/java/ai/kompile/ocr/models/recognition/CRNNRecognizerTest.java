@@ -0,0 +1,142 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.ocr.models.recognition;
+
+import ai.kompile.ocr.TextRecognitionModel.RecognizedText;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the width-bucketed batching in {@link CRNNRecognizer#recognizeAll}: how regions
+ * are grouped and that results come back in input order.
+ */
+class CRNNRecognizerTest {
+
+    @Test
+    void planBatchesGroupsByPaddedWidthNarrowestFirst() {
+        List<CRNNRecognizer.Batch> batches = CRNNRecognizer.planBatches(new int[]{40, 12, 64, 36, 100});
+
+        assertEquals(List.of(
+                new CRNNRecognizer.Batch(32, List.of(1)),
+                new CRNNRecognizer.Batch(64, List.of(0, 2, 3)),
+                new CRNNRecognizer.Batch(128, List.of(4))
+        ), batches);
+    }
+
+    @Test
+    void planBatchesSplitsLargeBucketsKeepingInputOrder() {
+        int[] widths = new int[70];
+        Arrays.fill(widths, 20);
+
+        List<CRNNRecognizer.Batch> batches = CRNNRecognizer.planBatches(widths);
+
+        assertEquals(List.of(32, 32, 6), batches.stream().map(b -> b.indices().size()).toList());
+        List<Integer> flattened = new ArrayList<>();
+        batches.forEach(b -> flattened.addAll(b.indices()));
+        assertEquals(IntStream.range(0, 70).boxed().toList(), flattened);
+    }
+
+    @Test
+    void recognizeAllReturnsResultsInInputOrder() {
+        Random random = new Random(7);
+        List<INDArray> regions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            // Height 32 is the model height, so the target width is the region width rounded down to 4
+            regions.add(region(32, 4 + random.nextInt(300)));
+        }
+        RecordingRecognizer recognizer = new RecordingRecognizer();
+
+        List<RecognizedText> results = recognizer.recognizeAll(regions);
+
+        assertEquals(regions.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("region-" + i, results.get(i).text());
+        }
+        int recognized = 0;
+        for (RecordedBatch batch : recognizer.batches) {
+            assertTrue(batch.indices().size() <= 32);
+            for (int index : batch.indices()) {
+                int width = (int) regions.get(index).shape()[3] / 4 * 4;
+                assertTrue(width <= batch.bucketWidth() && width > batch.bucketWidth() - 32,
+                        "width " + width + " in bucket " + batch.bucketWidth());
+            }
+            recognized += batch.indices().size();
+        }
+        assertEquals(regions.size(), recognized);
+    }
+
+    @Test
+    void recognizeAllScalesWidthToTheModelHeight() {
+        RecordingRecognizer recognizer = new RecordingRecognizer();
+
+        // 64x200 becomes 32x100 before bucketing, 16x10 becomes 32x20
+        recognizer.recognizeAll(List.of(region(64, 200), region(16, 10)));
+
+        assertEquals(List.of(new RecordedBatch(32, List.of(1)), new RecordedBatch(128, List.of(0))),
+                recognizer.batches);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static INDArray region(int height, int width) {
+        INDArray region = mock(INDArray.class);
+        when(region.shape()).thenReturn(new long[]{1, 3, height, width});
+        return region;
+    }
+
+    record RecordedBatch(int bucketWidth, List<Integer> indices) {
+    }
+
+    /**
+     * Records each batch instead of running the model, answering with the region index.
+     */
+    private static final class RecordingRecognizer extends CRNNRecognizer {
+        private final List<RecordedBatch> batches = new ArrayList<>();
+
+        RecordingRecognizer() {
+            super(null);
+        }
+
+        @Override
+        public boolean isLoaded() {
+            return true;
+        }
+
+        @Override
+        List<RecognizedText> recognizeBucket(List<INDArray> regionImages, int[] widths, List<Integer> batch,
+                                             int bucketWidth) {
+            batches.add(new RecordedBatch(bucketWidth, List.copyOf(batch)));
+            List<RecognizedText> texts = new ArrayList<>(batch.size());
+            for (int index : batch) {
+                texts.add(RecognizedText.of("region-" + index, 1.0));
+            }
+            return texts;
+        }
+    }
+}
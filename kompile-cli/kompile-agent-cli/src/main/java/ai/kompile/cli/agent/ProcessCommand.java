@@ -85,6 +85,12 @@ public class ProcessCommand implements Callable<Integer> {
     @CommandLine.Option(names = {"--active-only"}, description = "Show only active runs")
     private boolean activeOnly;
 
+    @CommandLine.Option(names = {"--offset"}, defaultValue = "0", description = "Runs to skip when listing all runs")
+    private int offset;
+
+    @CommandLine.Option(names = {"--limit"}, defaultValue = "100", description = "Maximum runs to list")
+    private int limit;
+
     @CommandLine.Option(names = {"--url"}, description = "Application URL")
     private String url;
 
@@ -205,7 +211,7 @@ public class ProcessCommand implements Callable<Integer> {
                 if (activeOnly) {
                     System.out.println(client.getString("/api/process/run/active"));
                 } else {
-                    System.out.println(client.getString("/api/process/run/all"));
+                    System.out.println(client.getString("/api/process/run/all?offset=" + offset + "&limit=" + limit));
                 }
                 return 0;
             case "cancel":
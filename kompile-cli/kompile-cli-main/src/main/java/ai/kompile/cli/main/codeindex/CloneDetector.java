@@ -11,6 +11,7 @@
 package ai.kompile.cli.main.codeindex;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -19,6 +20,11 @@ import java.security.NoSuchAlgorithmException;
 import java.sql.*;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,6 +37,13 @@ import java.util.regex.Pattern;
  * Uses 128-hash MinHash signatures with 3-token shingles for Jaccard estimation,
  * plus 12-token sliding window fragment hashes for repeated patterns.</p>
  *
+ * <p>Candidate pairs come from locality-sensitive hashing: each signature is split
+ * into bands of rows, and only functions that share a whole band are compared.
+ * Band and row counts are derived from the similarity threshold (see
+ * {@link #lshBandsAndRows(double)}). Signatures and fragment hashes are persisted in
+ * {@code clone_signatures}, keyed by the file's indexed SHA-256, so a rerun only
+ * re-reads files that changed since the last run.</p>
+ *
  * <p>Inspired by soulforge's clone-detection.ts approach, adapted for Java.</p>
  */
 public class CloneDetector {
@@ -40,6 +53,10 @@ public class CloneDetector {
     private static final int FRAGMENT_WINDOW = 12;
     private static final int MIN_FRAGMENT_TOKENS = FRAGMENT_WINDOW + 4;
     private static final double DEFAULT_SIMILARITY_THRESHOLD = 0.8;
+    /** Minimum probability that a pair exactly at the threshold becomes an LSH candidate. */
+    private static final double LSH_TARGET_RECALL = 0.99;
+    /** LSH buckets larger than this are not expanded into candidate pairs. */
+    private static final int MAX_LSH_BUCKET = 1000;
 
     // Token regex: identifiers, numbers (hex/bin/oct/dec), strings, operators
     private static final Pattern TOKEN_RE = Pattern.compile(
@@ -176,6 +193,18 @@ public class CloneDetector {
                     computed_at    TEXT NOT NULL
                 )""");
 
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS clone_signatures (
+                    rel_path     TEXT NOT NULL,
+                    name         TEXT NOT NULL,
+                    start_line   INTEGER NOT NULL,
+                    end_line     INTEGER NOT NULL,
+                    file_sha256  TEXT NOT NULL,
+                    minhash      BLOB,
+                    fragments    BLOB,
+                    PRIMARY KEY (rel_path, name, start_line, end_line)
+                )""");
+
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_clones_file_a ON clones(file_a)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_clones_file_b ON clones(file_b)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_fragments_hash ON fragments(fragment_hash)");
@@ -194,78 +223,281 @@ public class CloneDetector {
             stmt.execute("DELETE FROM fragments");
         }
 
-        // Get all function/method entities
-        List<FunctionEntity> functions = getFunctions(conn);
+        // Get all function/method entities, grouped by file so each file is read once
+        Map<String, List<FunctionEntity>> functionsByFile = new LinkedHashMap<>();
+        for (FunctionEntity func : getFunctions(conn)) {
+            functionsByFile.computeIfAbsent(func.relPath(), k -> new ArrayList<>()).add(func);
+        }
+        Map<String, String> fileShas = getFileShas(conn);
+        Map<String, Map<FunctionKey, StoredSignature>> stored = loadStoredSignatures(conn);
 
-        // Compute MinHash for each function
-        List<FunctionSignature> signatures = new ArrayList<>();
-        for (FunctionEntity func : functions) {
-            Path filePath = rootDir.resolve(func.relPath());
-            if (!Files.exists(filePath)) continue;
+        int[] lsh = lshBandsAndRows(threshold);
+        int bands = lsh[0];
+        int rows = lsh[1];
 
-            String source = extractFunctionSource(filePath, func.startLine(), func.endLine());
-            if (source == null || source.isBlank()) continue;
+        int parallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                functionsByFile.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            // Compute (or reuse) MinHash signatures and band hashes per file in parallel
+            List<Callable<FileSignatures>> fileTasks = new ArrayList<>(functionsByFile.size());
+            for (Map.Entry<String, List<FunctionEntity>> entry : functionsByFile.entrySet()) {
+                String relPath = entry.getKey();
+                String sha = fileShas.get(relPath);
+                Map<FunctionKey, StoredSignature> cached = stored.get(relPath);
+                fileTasks.add(() -> signFile(rootDir, relPath, entry.getValue(), sha, cached, bands, rows));
+            }
+            List<FileSignatures> fileResults = invokeAll(pool, fileTasks);
 
-            List<String> tokens = tokenize(source);
-            if (tokens.size() < SHINGLE_K + 2) continue;
+            List<FunctionSignature> signatures = new ArrayList<>();
+            List<FileSignatures> recomputed = new ArrayList<>();
+            for (FileSignatures fs : fileResults) {
+                signatures.addAll(fs.signatures());
+                if (fs.recomputed()) recomputed.add(fs);
+            }
+            storeSignatures(conn, recomputed, functionsByFile.keySet());
+
+            // Find clone pairs among LSH candidates only
+            long[][] bandHashes = signatures.stream().map(FunctionSignature::bandHashes).toArray(long[][]::new);
+            long[] candidates = lshCandidates(pool, bandHashes, bands, MAX_LSH_BUCKET);
+            List<ClonePair> clonePairs = verifyCandidates(pool, signatures, candidates, threshold);
+
+            // Find repeated fragments
+            Map<Long, List<FragmentLocation>> fragmentMap = new HashMap<>();
+            for (FunctionSignature sig : signatures) {
+                long[] fragments = sig.fragmentHashes();
+                for (int offset = 0; offset < fragments.length; offset++) {
+                    int line = sig.entity().startLine() + estimateLineFromToken(offset);
+                    fragmentMap.computeIfAbsent(fragments[offset], k -> new ArrayList<>())
+                            .add(new FragmentLocation(sig.entity().relPath(), sig.entity().name(), line));
+                }
+            }
+
+            // Filter to fragments that appear 3+ times across different functions
+            List<FragmentCluster> clusters = new ArrayList<>();
+            for (Map.Entry<Long, List<FragmentLocation>> entry : fragmentMap.entrySet()) {
+                List<FragmentLocation> locs = entry.getValue();
+                // Deduplicate by function (same function can't be a "repeated pattern")
+                Set<String> uniqueFunctions = new HashSet<>();
+                List<FragmentLocation> uniqueLocs = new ArrayList<>();
+                for (FragmentLocation loc : locs) {
+                    String key = loc.filePath() + ":" + loc.functionName();
+                    if (uniqueFunctions.add(key)) {
+                        uniqueLocs.add(loc);
+                    }
+                }
+                if (uniqueLocs.size() >= 3) {
+                    clusters.add(new FragmentCluster(
+                            String.format("%016x", entry.getKey()), uniqueLocs.size(), uniqueLocs));
+                }
+            }
 
-            int[] minhash = computeMinHash(tokens);
-            if (minhash == null) continue;
+            // Store results
+            storeClones(conn, clonePairs);
+            storeFragments(conn, clusters);
 
-            List<FragmentHash> fragmentHashes = computeFragmentHashes(tokens);
-            signatures.add(new FunctionSignature(func, minhash, tokens, fragmentHashes));
+            long elapsed = System.currentTimeMillis() - start;
+            return new CloneReport(signatures.size(), clonePairs.size(), clusters.size(), elapsed);
+        } finally {
+            pool.shutdownNow();
         }
+    }
 
-        // Find clone pairs
-        List<ClonePair> clonePairs = new ArrayList<>();
-        for (int i = 0; i < signatures.size(); i++) {
-            for (int j = i + 1; j < signatures.size(); j++) {
-                double sim = jaccardSimilarity(signatures.get(i).minhash(), signatures.get(j).minhash());
-                if (sim >= threshold) {
-                    FunctionEntity a = signatures.get(i).entity();
-                    FunctionEntity b = signatures.get(j).entity();
-                    clonePairs.add(new ClonePair(
-                            a.relPath(), a.name(), a.startLine(), a.endLine(),
-                            b.relPath(), b.name(), b.startLine(), b.endLine(),
-                            sim));
+    /**
+     * Signs every function of one file. Stored signatures are reused when the file's
+     * indexed SHA-256 is unchanged and every function is present; otherwise the file is
+     * read once and all of its functions are re-signed.
+     */
+    private static FileSignatures signFile(Path rootDir, String relPath, List<FunctionEntity> functions,
+                                           String sha, Map<FunctionKey, StoredSignature> cached,
+                                           int bands, int rows) {
+        List<FunctionSignature> result = new ArrayList<>(functions.size());
+        if (sha != null && cached != null && cached.values().iterator().next().fileSha().equals(sha)
+                && cached.keySet().containsAll(functions.stream().map(FunctionKey::of).toList())) {
+            for (FunctionEntity func : functions) {
+                StoredSignature s = cached.get(FunctionKey.of(func));
+                if (s.minhash() != null) {
+                    result.add(new FunctionSignature(func, s.minhash(),
+                            bandHashes(s.minhash(), bands, rows), s.fragments()));
                 }
             }
+            return new FileSignatures(relPath, sha, result, List.of(), false);
         }
 
-        // Find repeated fragments
-        Map<String, List<FragmentLocation>> fragmentMap = new HashMap<>();
-        for (FunctionSignature sig : signatures) {
-            for (FragmentHash fh : sig.fragmentHashes()) {
-                int line = sig.entity().startLine() + estimateLineFromToken(sig.tokens(), fh.tokenOffset());
-                fragmentMap.computeIfAbsent(fh.hash(), k -> new ArrayList<>())
-                        .add(new FragmentLocation(sig.entity().relPath(), sig.entity().name(), line));
-            }
+        Path filePath = rootDir.resolve(relPath);
+        if (!Files.exists(filePath)) {
+            return new FileSignatures(relPath, sha, result, List.of(), false);
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(filePath);
+        } catch (IOException e) {
+            return new FileSignatures(relPath, sha, result, List.of(), false);
         }
 
-        // Filter to fragments that appear 3+ times across different functions
-        List<FragmentCluster> clusters = new ArrayList<>();
-        for (Map.Entry<String, List<FragmentLocation>> entry : fragmentMap.entrySet()) {
-            List<FragmentLocation> locs = entry.getValue();
-            // Deduplicate by function (same function can't be a "repeated pattern")
-            Set<String> uniqueFunctions = new HashSet<>();
-            List<FragmentLocation> uniqueLocs = new ArrayList<>();
-            for (FragmentLocation loc : locs) {
-                String key = loc.filePath() + ":" + loc.functionName();
-                if (uniqueFunctions.add(key)) {
-                    uniqueLocs.add(loc);
+        List<StoredSignature> toStore = new ArrayList<>(functions.size());
+        for (FunctionEntity func : functions) {
+            int[] minhash = null;
+            long[] fragments = new long[0];
+            String source = extractFunctionSource(lines, func.startLine(), func.endLine());
+            if (source != null && !source.isBlank()) {
+                List<String> tokens = tokenize(source);
+                minhash = computeMinHash(tokens);
+                if (minhash != null) {
+                    fragments = packFragmentHashes(computeFragmentHashes(tokens));
+                    result.add(new FunctionSignature(func, minhash, bandHashes(minhash, bands, rows), fragments));
                 }
             }
-            if (uniqueLocs.size() >= 3) {
-                clusters.add(new FragmentCluster(entry.getKey(), uniqueLocs.size(), uniqueLocs));
+            // Functions too short to sign are stored too, so they are not re-read next run
+            toStore.add(new StoredSignature(FunctionKey.of(func), sha, minhash, fragments));
+        }
+        return new FileSignatures(relPath, sha, result, toStore, sha != null);
+    }
+
+    // --- LSH ---
+
+    /**
+     * Picks the LSH banding for a similarity threshold: the largest row count
+     * {@code r} (fewest spurious candidates) with {@code b = NUM_HASHES / r} bands such
+     * that a pair with Jaccard similarity equal to {@code threshold} still collides in at
+     * least one band with probability {@code 1 - (1 - t^r)^b >= LSH_TARGET_RECALL}.
+     *
+     * @return {@code {bands, rows}}
+     */
+    static int[] lshBandsAndRows(double threshold) {
+        double t = Math.min(Math.max(threshold, 0.0), 1.0);
+        for (int rows = NUM_HASHES; rows > 1; rows--) {
+            int bands = NUM_HASHES / rows;
+            double recall = 1.0 - Math.pow(1.0 - Math.pow(t, rows), bands);
+            if (recall >= LSH_TARGET_RECALL) {
+                return new int[]{bands, rows};
+            }
+        }
+        return new int[]{NUM_HASHES, 1};
+    }
+
+    /**
+     * Hashes each band of {@code rows} consecutive MinHash values to a 64-bit key.
+     */
+    static long[] bandHashes(int[] minhash, int bands, int rows) {
+        long[] keys = new long[bands];
+        for (int b = 0; b < bands; b++) {
+            long h = 0xcbf29ce484222325L ^ b;
+            for (int r = b * rows; r < (b + 1) * rows; r++) {
+                h = (h ^ minhash[r]) * 0x100000001b3L;
+                h ^= h >>> 29;
             }
+            keys[b] = h;
         }
+        return keys;
+    }
 
-        // Store results
-        storeClones(conn, clonePairs);
-        storeFragments(conn, clusters);
+    /**
+     * Buckets signatures by band key (one task per band) and returns the distinct
+     * candidate pairs as sorted {@code (i << 32) | j} longs with {@code i < j}.
+     *
+     * <p>Each band's pairs are collected into a {@link LongHashSet} and merged into one
+     * set, so a pair that collides in many bands is held once rather than once per band.
+     * Buckets with more than {@code maxBucket} members are skipped: they come from
+     * boilerplate that shares a whole band (accessors, empty overrides) and would add
+     * a quadratic number of pairs to every band they occur in.</p>
+     *
+     * @param bandHashes the band keys of each signature, indexed like the signatures
+     */
+    static long[] lshCandidates(ExecutorService pool, long[][] bandHashes, int bands,
+                                int maxBucket) throws IOException {
+        if (bandHashes.length < 2) return new long[0];
+        List<Callable<LongHashSet>> bandTasks = new ArrayList<>(bands);
+        for (int b = 0; b < bands; b++) {
+            int band = b;
+            bandTasks.add(() -> {
+                Map<Long, List<Integer>> buckets = new HashMap<>();
+                for (int i = 0; i < bandHashes.length; i++) {
+                    buckets.computeIfAbsent(bandHashes[i][band], k -> new ArrayList<>(2)).add(i);
+                }
+                long pairCount = 0;
+                for (List<Integer> bucket : buckets.values()) {
+                    if (bucket.size() <= maxBucket) {
+                        pairCount += (long) bucket.size() * (bucket.size() - 1) / 2;
+                    }
+                }
+                LongHashSet pairs = new LongHashSet((int) Math.min(pairCount, Integer.MAX_VALUE));
+                for (List<Integer> bucket : buckets.values()) {
+                    if (bucket.size() < 2 || bucket.size() > maxBucket) continue;
+                    for (int x = 0; x < bucket.size(); x++) {
+                        for (int y = x + 1; y < bucket.size(); y++) {
+                            pairs.add(((long) bucket.get(x) << 32) | bucket.get(y));
+                        }
+                    }
+                }
+                return pairs;
+            });
+        }
+        List<LongHashSet> perBand = invokeAll(pool, bandTasks);
+        // Merge into the largest band's set, releasing each band once merged
+        int largest = 0;
+        for (int b = 1; b < perBand.size(); b++) {
+            if (perBand.get(b).size() > perBand.get(largest).size()) largest = b;
+        }
+        LongHashSet all = perBand.get(largest);
+        for (int b = 0; b < perBand.size(); b++) {
+            if (b != largest) all.addAll(perBand.get(b));
+            perBand.set(b, null);
+        }
+        return all.toSortedArray();
+    }
 
-        long elapsed = System.currentTimeMillis() - start;
-        return new CloneReport(signatures.size(), clonePairs.size(), clusters.size(), elapsed);
+    /**
+     * Computes the estimated Jaccard similarity of every candidate pair in parallel chunks
+     * and keeps those at or above the threshold, in candidate order.
+     */
+    private static List<ClonePair> verifyCandidates(ExecutorService pool, List<FunctionSignature> signatures,
+                                                    long[] candidates, double threshold) throws IOException {
+        int chunk = 8192;
+        List<Callable<List<ClonePair>>> tasks = new ArrayList<>();
+        for (int from = 0; from < candidates.length; from += chunk) {
+            int lo = from;
+            int hi = Math.min(candidates.length, from + chunk);
+            tasks.add(() -> {
+                List<ClonePair> pairs = new ArrayList<>();
+                for (int k = lo; k < hi; k++) {
+                    FunctionSignature sa = signatures.get((int) (candidates[k] >>> 32));
+                    FunctionSignature sb = signatures.get((int) candidates[k]);
+                    double sim = jaccardSimilarity(sa.minhash(), sb.minhash());
+                    if (sim >= threshold) {
+                        FunctionEntity a = sa.entity();
+                        FunctionEntity b = sb.entity();
+                        pairs.add(new ClonePair(
+                                a.relPath(), a.name(), a.startLine(), a.endLine(),
+                                b.relPath(), b.name(), b.startLine(), b.endLine(),
+                                sim));
+                    }
+                }
+                return pairs;
+            });
+        }
+        List<ClonePair> clonePairs = new ArrayList<>();
+        for (List<ClonePair> pairs : invokeAll(pool, tasks)) {
+            clonePairs.addAll(pairs);
+        }
+        return clonePairs;
+    }
+
+    private static <T> List<T> invokeAll(ExecutorService pool, List<Callable<T>> tasks) throws IOException {
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Clone detection interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            throw new IOException("Clone detection failed: " + cause.getMessage(), cause);
+        }
     }
 
     // --- Tokenization ---
@@ -340,28 +572,34 @@ public class CloneDetector {
         return results;
     }
 
+    /**
+     * Packs fragment hashes into their 64-bit values, indexed by token offset.
+     */
+    static long[] packFragmentHashes(List<FragmentHash> hashes) {
+        long[] packed = new long[hashes.size()];
+        for (FragmentHash fh : hashes) {
+            packed[fh.tokenOffset()] = Long.parseUnsignedLong(fh.hash(), 16);
+        }
+        return packed;
+    }
+
     // --- Helpers ---
 
-    private static String extractFunctionSource(Path file, int startLine, int endLine) {
-        try {
-            List<String> lines = Files.readAllLines(file);
-            if (startLine < 1 || startLine > lines.size()) return null;
-
-            // When start_line == end_line (common: indexer records declaration line only),
-            // scan forward from startLine to find the method body using brace matching.
-            int effectiveEnd = endLine;
-            if (endLine <= startLine) {
-                effectiveEnd = findMethodEnd(lines, startLine - 1);
-            }
+    private static String extractFunctionSource(List<String> lines, int startLine, int endLine) {
+        if (startLine < 1 || startLine > lines.size()) return null;
 
-            StringBuilder sb = new StringBuilder();
-            for (int i = startLine - 1; i < Math.min(effectiveEnd, lines.size()); i++) {
-                sb.append(lines.get(i)).append('\n');
-            }
-            return sb.toString();
-        } catch (IOException e) {
-            return null;
+        // When start_line == end_line (common: indexer records declaration line only),
+        // scan forward from startLine to find the method body using brace matching.
+        int effectiveEnd = endLine;
+        if (endLine <= startLine) {
+            effectiveEnd = findMethodEnd(lines, startLine - 1);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = startLine - 1; i < Math.min(effectiveEnd, lines.size()); i++) {
+            sb.append(lines.get(i)).append('\n');
         }
+        return sb.toString();
     }
 
     /**
@@ -387,7 +625,7 @@ public class CloneDetector {
         return Math.min(startIdx + 30, lines.size());
     }
 
-    private static int estimateLineFromToken(List<String> tokens, int tokenOffset) {
+    private static int estimateLineFromToken(int tokenOffset) {
         // Rough estimate: assume ~10 tokens per line
         return tokenOffset / 10;
     }
@@ -410,6 +648,108 @@ public class CloneDetector {
         return funcs;
     }
 
+    private static Map<String, String> getFileShas(Connection conn) throws SQLException {
+        Map<String, String> shas = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT rel_path, sha256 FROM file_status")) {
+            while (rs.next()) {
+                shas.put(rs.getString("rel_path"), rs.getString("sha256"));
+            }
+        }
+        return shas;
+    }
+
+    private static Map<String, Map<FunctionKey, StoredSignature>> loadStoredSignatures(Connection conn)
+            throws SQLException {
+        Map<String, Map<FunctionKey, StoredSignature>> byFile = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT rel_path, name, start_line, end_line, file_sha256, minhash, fragments " +
+                             "FROM clone_signatures")) {
+            while (rs.next()) {
+                FunctionKey key = new FunctionKey(rs.getString("name"),
+                        rs.getInt("start_line"), rs.getInt("end_line"));
+                byte[] minhash = rs.getBytes("minhash");
+                byte[] fragments = rs.getBytes("fragments");
+                byFile.computeIfAbsent(rs.getString("rel_path"), k -> new HashMap<>())
+                        .put(key, new StoredSignature(key, rs.getString("file_sha256"),
+                                minhash == null ? null : decodeInts(minhash),
+                                fragments == null ? new long[0] : decodeLongs(fragments)));
+            }
+        }
+        return byFile;
+    }
+
+    /**
+     * Replaces the stored signatures of re-signed files and drops those of files that
+     * no longer have any indexed functions.
+     */
+    private static void storeSignatures(Connection conn, List<FileSignatures> recomputed,
+                                        Set<String> currentFiles) throws SQLException {
+        List<String> stale = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DISTINCT rel_path FROM clone_signatures")) {
+            while (rs.next()) {
+                String relPath = rs.getString(1);
+                if (!currentFiles.contains(relPath)) stale.add(relPath);
+            }
+        }
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement delete = conn.prepareStatement("DELETE FROM clone_signatures WHERE rel_path = ?");
+             PreparedStatement insert = conn.prepareStatement(
+                     "INSERT OR REPLACE INTO clone_signatures " +
+                             "(rel_path, name, start_line, end_line, file_sha256, minhash, fragments) " +
+                             "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (String relPath : stale) {
+                delete.setString(1, relPath);
+                delete.addBatch();
+            }
+            for (FileSignatures fs : recomputed) {
+                delete.setString(1, fs.relPath());
+                delete.addBatch();
+                for (StoredSignature sig : fs.toStore()) {
+                    insert.setString(1, fs.relPath());
+                    insert.setString(2, sig.key().name());
+                    insert.setInt(3, sig.key().startLine());
+                    insert.setInt(4, sig.key().endLine());
+                    insert.setString(5, fs.fileSha());
+                    insert.setBytes(6, sig.minhash() == null ? null : encodeInts(sig.minhash()));
+                    insert.setBytes(7, encodeLongs(sig.fragments()));
+                    insert.addBatch();
+                }
+            }
+            delete.executeBatch();
+            insert.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    private static byte[] encodeInts(int[] values) {
+        ByteBuffer buf = ByteBuffer.allocate(values.length * Integer.BYTES);
+        buf.asIntBuffer().put(values);
+        return buf.array();
+    }
+
+    private static int[] decodeInts(byte[] bytes) {
+        int[] values = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(values);
+        return values;
+    }
+
+    private static byte[] encodeLongs(long[] values) {
+        ByteBuffer buf = ByteBuffer.allocate(values.length * Long.BYTES);
+        buf.asLongBuffer().put(values);
+        return buf.array();
+    }
+
+    private static long[] decodeLongs(byte[] bytes) {
+        long[] values = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(values);
+        return values;
+    }
+
     /**
      * Simple murmur-style hash for MinHash. Produces a deterministic
      * 32-bit hash varied by seed.
@@ -631,6 +971,14 @@ public class CloneDetector {
     // --- Internal records ---
 
     private record FunctionEntity(String relPath, String name, int startLine, int endLine) {}
-    private record FunctionSignature(FunctionEntity entity, int[] minhash, List<String> tokens, List<FragmentHash> fragmentHashes) {}
+    private record FunctionSignature(FunctionEntity entity, int[] minhash, long[] bandHashes, long[] fragmentHashes) {}
+    private record FunctionKey(String name, int startLine, int endLine) {
+        static FunctionKey of(FunctionEntity func) {
+            return new FunctionKey(func.name(), func.startLine(), func.endLine());
+        }
+    }
+    private record StoredSignature(FunctionKey key, String fileSha, int[] minhash, long[] fragments) {}
+    private record FileSignatures(String relPath, String fileSha, List<FunctionSignature> signatures,
+                                  List<StoredSignature> toStore, boolean recomputed) {}
     record FragmentHash(String hash, int tokenOffset) {}
 }
@@ -10,14 +10,11 @@
 
 package ai.kompile.cli.main.codeindex;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Path;
 import java.sql.*;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Analyzes git history to find files that frequently change together.
@@ -25,9 +22,15 @@ import java.util.stream.Collectors;
  * analysis — e.g., a test file that always changes with its implementation,
  * or a config file that accompanies schema changes.
  *
- * <p>Scans the last N commits (default 300), groups files per commit,
- * and builds pairwise co-occurrence counts. Files that co-change above
- * a threshold are stored as co-change edges.</p>
+ * <p>The first run scans the last N commits (default 300), groups files per
+ * commit, and builds pairwise co-occurrence counts. The ref tips it saw are
+ * recorded in the index DB; later runs stream only the commits added since
+ * then (still capped at N) and add them to the stored counts in place. Files
+ * that co-change above a threshold are stored as co-change edges.</p>
+ *
+ * <p>The same pass maintains per-file churn, recency and author aggregates
+ * ({@code git_file_signals}) for the indexed project, which {@link GitSignals}
+ * serves to the ranker.</p>
  *
  * <p>Results are used by:
  * <ul>
@@ -42,6 +45,13 @@ public class CoChangeAnalyzer {
     private static final int MAX_FILES_PER_COMMIT = 20; // Skip huge commits (merges, reformats)
     private static final int MIN_COCHANGE_COUNT = 2;    // Minimum co-occurrences to store
 
+    // git_history_state keys
+    private static final String STATE_TIPS = "cochange.tips";
+    private static final String STATE_TOTAL_COMMITS = "cochange.total_commits";
+
+    // Runs in one JVM (e.g. a GitSignals refresh and an explicit analyze) must not apply the same delta twice
+    private static final Object ANALYZE_LOCK = new Object();
+
     private CoChangeAnalyzer() {}
 
     /**
@@ -53,14 +63,26 @@ public class CoChangeAnalyzer {
      * @return analysis results
      */
     public static CoChangeReport analyze(Path indexDir, Path rootDir, int commitLimit) throws IOException {
-        try (IndexDatabase db = IndexDatabase.open(indexDir)) {
-            ensureTable(db);
-            return analyzeInternal(db, rootDir, commitLimit > 0 ? commitLimit : DEFAULT_COMMIT_LIMIT);
-        } catch (SQLException e) {
-            throw new IOException("Co-change analysis failed: " + e.getMessage(), e);
+        // commitLimit caps the commits read per run: the whole window on the first run,
+        // only new commits on later ones
+        synchronized (ANALYZE_LOCK) {
+            try (IndexDatabase db = IndexDatabase.open(indexDir)) {
+                ensureTable(db);
+                return analyzeInternal(db, rootDir, commitLimit > 0 ? commitLimit : DEFAULT_COMMIT_LIMIT);
+            } catch (SQLException e) {
+                throw new IOException("Co-change analysis failed: " + e.getMessage(), e);
+            }
         }
     }
 
+    /**
+     * Number of commits folded into the stored history so far; {@code git_file_signals.last_seq}
+     * numbers commits from 1 up to this value, oldest first.
+     */
+    static long totalCommits(Connection conn) throws SQLException {
+        return readLong(conn, STATE_TOTAL_COMMITS);
+    }
+
     /**
      * Get co-change partners for a specific file.
      */
@@ -133,6 +155,40 @@ public class CoChangeAnalyzer {
                     UNIQUE(file_a, file_b)
                 )""");
 
+            // Raw counts for every pair, keyed by (idA << 32 | idB) over cochange_files ids
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS cochange_files (
+                    id       INTEGER PRIMARY KEY,
+                    rel_path TEXT NOT NULL UNIQUE
+                )""");
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS cochange_counts (
+                    pair_key INTEGER PRIMARY KEY,
+                    count    INTEGER NOT NULL
+                )""");
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS git_file_signals (
+                    rel_path     TEXT PRIMARY KEY,
+                    commit_count INTEGER NOT NULL,
+                    last_seq     INTEGER NOT NULL,
+                    author_count INTEGER NOT NULL DEFAULT 0
+                )""");
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS git_file_authors (
+                    rel_path TEXT NOT NULL,
+                    author   TEXT NOT NULL,
+                    PRIMARY KEY (rel_path, author)
+                )""");
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS git_history_state (
+                    name  TEXT PRIMARY KEY,
+                    value TEXT NOT NULL
+                )""");
+
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_cochanges_a ON cochanges(file_a)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_cochanges_b ON cochanges(file_b)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_cochanges_count ON cochanges(count DESC)");
@@ -147,130 +203,266 @@ public class CoChangeAnalyzer {
         // Get indexed files for filtering
         Set<String> indexedFiles = db.getAllRelPaths();
 
-        // Parse git log
-        List<Set<String>> commits = parseGitLog(rootDir, commitLimit, indexedFiles);
+        // Snapshot the refs first; commits landing while we stream are picked up next run
+        List<String> tips = GitHistory.refTips(rootDir);
+        if (tips.isEmpty()) {
+            // Git not available or not a git repo: leave any stored history untouched
+            return report(conn, 0, start);
+        }
 
-        // Count pairwise co-occurrences
-        Map<String, Map<String, Integer>> pairCounts = new HashMap<>();
-        int commitsAnalyzed = 0;
+        List<String> processedTips = readTips(conn);
+        if (processedTips.isEmpty()) {
+            // First run (or results from a full-rescan version): rebuild from scratch
+            clearHistory(conn);
+        }
+        HistoryDelta delta = new HistoryDelta(loadFileIds(conn), readLong(conn, STATE_TOTAL_COMMITS));
+        boolean ok = GitHistory.stream(rootDir, tips, processedTips, commitLimit,
+                commit -> delta.accept(commit, indexedFiles));
+        if (ok) {
+            return apply(conn, delta, tips, start);
+        }
+        if (processedTips.isEmpty()) {
+            return report(conn, 0, start);
+        }
 
-        for (Set<String> commitFiles : commits) {
-            if (commitFiles.size() < 2 || commitFiles.size() > MAX_FILES_PER_COMMIT) continue;
-            commitsAnalyzed++;
+        // A recorded tip is gone (history rewritten or gc'd): start over from scratch
+        clearHistory(conn);
+        HistoryDelta rebuilt = new HistoryDelta(loadFileIds(conn), 0);
+        ok = GitHistory.stream(rootDir, tips, List.of(), commitLimit,
+                commit -> rebuilt.accept(commit, indexedFiles));
+        return ok ? apply(conn, rebuilt, tips, start) : report(conn, 0, start);
+    }
 
-            List<String> files = new ArrayList<>(commitFiles);
-            for (int i = 0; i < files.size(); i++) {
-                for (int j = i + 1; j < files.size(); j++) {
-                    String a = files.get(i);
-                    String b = files.get(j);
-                    // Canonical ordering
-                    if (a.compareTo(b) > 0) { String tmp = a; a = b; b = tmp; }
-                    pairCounts.computeIfAbsent(a, k -> new HashMap<>())
-                            .merge(b, 1, Integer::sum);
-                }
-            }
+    /**
+     * Per-run accumulator for the commits streamed since the last recorded tips.
+     * Pair deltas are kept in a primitive map keyed by interned file ids.
+     */
+    private static final class HistoryDelta {
+        final Map<String, Integer> fileIds;
+        final List<String> newFiles = new ArrayList<>();
+        final LongIntHashMap pairDeltas = new LongIntHashMap();
+        final Map<String, FileDelta> fileDeltas = new HashMap<>();
+        long seq;
+        int commitsAnalyzed;
+
+        HistoryDelta(Map<String, Integer> fileIds, long seq) {
+            this.fileIds = fileIds;
+            this.seq = seq;
         }
 
-        // Filter and store
-        List<CoChangePair> pairs = new ArrayList<>();
-        Set<String> involvedFiles = new HashSet<>();
-
-        for (Map.Entry<String, Map<String, Integer>> outer : pairCounts.entrySet()) {
-            String fileA = outer.getKey();
-            for (Map.Entry<String, Integer> inner : outer.getValue().entrySet()) {
-                String fileB = inner.getKey();
-                int count = inner.getValue();
-                if (count >= MIN_COCHANGE_COUNT) {
-                    // Confidence = normalized co-change strength
-                    // Scale: 2 co-changes = 1.0, 5+ = 2.5+ (capped)
-                    double confidence = Math.min(count * 0.5, 5.0);
-                    pairs.add(new CoChangePair(fileA, fileB, count, confidence));
-                    involvedFiles.add(fileA);
-                    involvedFiles.add(fileB);
+        void accept(GitHistory.Commit commit, Set<String> indexedFiles) {
+            seq++;
+            Set<String> touched = new TreeSet<>();
+            for (String file : commit.files()) {
+                // Only include files that are in the index
+                if (indexedFiles.contains(file)) touched.add(file);
+            }
+            for (String file : touched) {
+                FileDelta fd = fileDeltas.computeIfAbsent(file, k -> new FileDelta());
+                fd.commits++;
+                fd.lastSeq = seq;
+                fd.authors.add(commit.author());
+            }
+
+            if (touched.size() < 2 || touched.size() > MAX_FILES_PER_COMMIT) return;
+            commitsAnalyzed++;
+
+            int[] ids = new int[touched.size()];
+            int n = 0;
+            for (String file : touched) {
+                ids[n++] = fileIds.computeIfAbsent(file, k -> {
+                    newFiles.add(k);
+                    return fileIds.size() + 1;
+                });
+            }
+            // touched is sorted, so ids[i] belongs to the lexicographically smaller path of each pair
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    pairDeltas.addTo(((long) ids[i] << 32) | (ids[j] & 0xFFFFFFFFL), 1);
                 }
             }
         }
+    }
 
-        // Store in database
-        storePairs(conn, pairs);
-
-        long elapsed = System.currentTimeMillis() - start;
-        return new CoChangeReport(commitsAnalyzed, pairs.size(), involvedFiles.size(), elapsed);
+    private static final class FileDelta {
+        int commits;
+        long lastSeq;
+        final Set<String> authors = new HashSet<>();
     }
 
     /**
-     * Parse git log to extract per-commit file lists.
+     * Writes one run's deltas in a single transaction: raw pair counts and per-file
+     * aggregates are incremented in place, and the co-change edges of every touched
+     * pair are refreshed from its new total.
      */
-    private static List<Set<String>> parseGitLog(Path rootDir, int commitLimit, Set<String> indexedFiles)
-            throws IOException {
-        List<Set<String>> commits = new ArrayList<>();
-
+    private static CoChangeReport apply(Connection conn, HistoryDelta delta, List<String> tips, long start)
+            throws SQLException {
+        String now = Instant.now().toString();
+        conn.setAutoCommit(false);
         try {
-            ProcessBuilder pb = new ProcessBuilder(
-                    "git", "log", "--all", "--name-only", "--pretty=format:---COMMIT---",
-                    "--diff-filter=AMCR", "-" + commitLimit);
-            pb.directory(rootDir.toFile());
-            pb.redirectErrorStream(true);
-            Process proc = pb.start();
-
-            Set<String> currentCommit = new HashSet<>();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    line = line.trim();
-                    if (line.equals("---COMMIT---")) {
-                        if (!currentCommit.isEmpty()) {
-                            commits.add(currentCommit);
-                            currentCommit = new HashSet<>();
-                        }
-                    } else if (!line.isEmpty()) {
-                        // Only include files that are in the index
-                        if (indexedFiles.contains(line)) {
-                            currentCommit.add(line);
-                        }
-                    }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO cochange_files (id, rel_path) VALUES (?, ?)")) {
+                for (String file : delta.newFiles) {
+                    ps.setInt(1, delta.fileIds.get(file));
+                    ps.setString(2, file);
+                    ps.addBatch();
                 }
+                ps.executeBatch();
             }
-            // Don't forget the last commit
-            if (!currentCommit.isEmpty()) {
-                commits.add(currentCommit);
+
+            Map<Integer, String> pathsById = new HashMap<>();
+            delta.fileIds.forEach((path, id) -> pathsById.put(id, path));
+            long[] keys = new long[delta.pairDeltas.size()];
+            int[] counts = new int[keys.length];
+            int[] n = {0};
+            delta.pairDeltas.forEach((key, count) -> {
+                keys[n[0]] = key;
+                counts[n[0]++] = count;
+            });
+
+            try (PreparedStatement upsert = conn.prepareStatement(
+                         "INSERT INTO cochange_counts (pair_key, count) VALUES (?, ?) " +
+                                 "ON CONFLICT(pair_key) DO UPDATE SET count = count + excluded.count");
+                 PreparedStatement total = conn.prepareStatement(
+                         "SELECT count FROM cochange_counts WHERE pair_key = ?");
+                 PreparedStatement edge = conn.prepareStatement(
+                         "INSERT INTO cochanges (file_a, file_b, count, confidence, computed_at) " +
+                                 "VALUES (?, ?, ?, ?, ?) ON CONFLICT(file_a, file_b) DO UPDATE SET " +
+                                 "count = excluded.count, confidence = excluded.confidence, " +
+                                 "computed_at = excluded.computed_at")) {
+                for (int i = 0; i < keys.length; i++) {
+                    upsert.setLong(1, keys[i]);
+                    upsert.setInt(2, counts[i]);
+                    upsert.addBatch();
+                    if ((i + 1) % 500 == 0) upsert.executeBatch();
+                }
+                upsert.executeBatch();
+
+                for (long key : keys) {
+                    total.setLong(1, key);
+                    int count;
+                    try (ResultSet rs = total.executeQuery()) {
+                        count = rs.next() ? rs.getInt(1) : 0;
+                    }
+                    if (count >= MIN_COCHANGE_COUNT) {
+                        // Confidence = normalized co-change strength
+                        // Scale: 2 co-changes = 1.0, 5+ = 2.5+ (capped)
+                        edge.setString(1, pathsById.get((int) (key >>> 32)));
+                        edge.setString(2, pathsById.get((int) key));
+                        edge.setInt(3, count);
+                        edge.setDouble(4, Math.min(count * 0.5, 5.0));
+                        edge.setString(5, now);
+                        edge.addBatch();
+                    }
+                }
+                edge.executeBatch();
             }
 
-            if (!proc.waitFor(60, java.util.concurrent.TimeUnit.SECONDS)) {
-                proc.destroyForcibly();
+            try (PreparedStatement signals = conn.prepareStatement(
+                         "INSERT INTO git_file_signals (rel_path, commit_count, last_seq) VALUES (?, ?, ?) " +
+                                 "ON CONFLICT(rel_path) DO UPDATE SET " +
+                                 "commit_count = commit_count + excluded.commit_count, last_seq = excluded.last_seq");
+                 PreparedStatement authors = conn.prepareStatement(
+                         "INSERT OR IGNORE INTO git_file_authors (rel_path, author) VALUES (?, ?)");
+                 PreparedStatement authorCount = conn.prepareStatement(
+                         "UPDATE git_file_signals SET author_count = " +
+                                 "(SELECT COUNT(*) FROM git_file_authors WHERE rel_path = ?) WHERE rel_path = ?")) {
+                for (Map.Entry<String, FileDelta> e : delta.fileDeltas.entrySet()) {
+                    signals.setString(1, e.getKey());
+                    signals.setInt(2, e.getValue().commits);
+                    signals.setLong(3, e.getValue().lastSeq);
+                    signals.addBatch();
+                    for (String author : e.getValue().authors) {
+                        authors.setString(1, e.getKey());
+                        authors.setString(2, author);
+                        authors.addBatch();
+                    }
+                    authorCount.setString(1, e.getKey());
+                    authorCount.setString(2, e.getKey());
+                    authorCount.addBatch();
+                }
+                signals.executeBatch();
+                authors.executeBatch();
+                authorCount.executeBatch();
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        } catch (Exception e) {
-            // Git not available or not a git repo
-            return List.of();
+
+            writeState(conn, STATE_TIPS, String.join("\n", tips));
+            writeState(conn, STATE_TOTAL_COMMITS, Long.toString(delta.seq));
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
         }
 
-        return commits;
+        return report(conn, delta.commitsAnalyzed, start);
     }
 
-    private static void storePairs(Connection conn, List<CoChangePair> pairs) throws SQLException {
-        String now = Instant.now().toString();
-        conn.setAutoCommit(false);
+    private static CoChangeReport report(Connection conn, int commitsAnalyzed, long start) throws SQLException {
+        int pairs = 0;
+        int files = 0;
         try (Statement stmt = conn.createStatement()) {
-            stmt.execute("DELETE FROM cochanges");
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM cochanges")) {
+                if (rs.next()) pairs = rs.getInt(1);
+            }
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT COUNT(*) FROM (SELECT file_a FROM cochanges UNION SELECT file_b FROM cochanges)")) {
+                if (rs.next()) files = rs.getInt(1);
+            }
         }
-        try (PreparedStatement ps = conn.prepareStatement(
-                "INSERT INTO cochanges (file_a, file_b, count, confidence, computed_at) VALUES (?, ?, ?, ?, ?)")) {
-            int batch = 0;
-            for (CoChangePair pair : pairs) {
-                ps.setString(1, pair.fileA());
-                ps.setString(2, pair.fileB());
-                ps.setInt(3, pair.cochangeCount());
-                ps.setDouble(4, pair.confidence());
-                ps.setString(5, now);
-                ps.addBatch();
-                if (++batch % 500 == 0) ps.executeBatch();
+        long elapsed = System.currentTimeMillis() - start;
+        return new CoChangeReport(commitsAnalyzed, pairs, files, elapsed);
+    }
+
+    private static Map<String, Integer> loadFileIds(Connection conn) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, rel_path FROM cochange_files")) {
+            while (rs.next()) {
+                ids.put(rs.getString("rel_path"), rs.getInt("id"));
             }
-            ps.executeBatch();
         }
-        conn.commit();
-        conn.setAutoCommit(true);
+        return ids;
+    }
+
+    private static List<String> readTips(Connection conn) throws SQLException {
+        String value = readState(conn, STATE_TIPS);
+        return value == null || value.isEmpty() ? List.of() : List.of(value.split("\n"));
+    }
+
+    private static long readLong(Connection conn, String name) throws SQLException {
+        String value = readState(conn, name);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private static String readState(Connection conn, String name) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT value FROM git_history_state WHERE name = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void writeState(Connection conn, String name, String value) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT OR REPLACE INTO git_history_state (name, value) VALUES (?, ?)")) {
+            ps.setString(1, name);
+            ps.setString(2, value);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void clearHistory(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM cochanges");
+            stmt.execute("DELETE FROM cochange_counts");
+            stmt.execute("DELETE FROM cochange_files");
+            stmt.execute("DELETE FROM git_file_signals");
+            stmt.execute("DELETE FROM git_file_authors");
+            stmt.execute("DELETE FROM git_history_state");
+        }
     }
 
     // --- Queries ---
@@ -126,7 +126,7 @@ public class CodeRelevanceRanker {
             List<ScoredResult> scored = new ArrayList<>();
             for (Map<String, Object> entity : candidates) {
                 double score = scoreEntity(entity, queryTokens, weights,
-                        hop1Neighbors, hop2Neighbors, rootDir);
+                        hop1Neighbors, hop2Neighbors, rootDir, indexDir);
                 if (score > 0) {
                     scored.add(toScoredResult(entity, score, queryTokens, weights,
                             hop1Neighbors, hop2Neighbors, rootDir));
@@ -197,7 +197,8 @@ public class CodeRelevanceRanker {
                                        IntentClassifier.WeightProfile weights,
                                        Set<String> hop1Neighbors,
                                        Set<String> hop2Neighbors,
-                                       Path rootDir) {
+                                       Path rootDir,
+                                       Path indexDir) {
         String name = str(entity, "name");
         String fqn = str(entity, "fullyQualifiedName");
         String sig = str(entity, "signature");
@@ -249,13 +250,13 @@ public class CodeRelevanceRanker {
         double baseScore = exactScore + symbolScore + prefixScore + pathScore;
 
         // Apply git-based recency boost (real commit history, not indexer timestamp)
-        baseScore *= GitSignals.recencyMultiplier(filePath, rootDir, weights.recencyBoost());
+        baseScore *= GitSignals.recencyMultiplier(filePath, rootDir, indexDir, weights.recencyBoost());
 
         // Apply git churn boost — frequently modified files are more likely relevant
-        baseScore *= GitSignals.churnMultiplier(filePath, rootDir);
+        baseScore *= GitSignals.churnMultiplier(filePath, rootDir, indexDir);
 
         // Apply author diversity boost — files with many contributors are more central
-        baseScore *= GitSignals.authorMultiplier(filePath, rootDir);
+        baseScore *= GitSignals.authorMultiplier(filePath, rootDir, indexDir);
 
         // Apply graph boost
         if (fqn != null) {
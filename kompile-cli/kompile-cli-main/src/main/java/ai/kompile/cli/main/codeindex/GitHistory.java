@@ -0,0 +1,158 @@
+/*
+ * Copyright 2025 Kompile Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package ai.kompile.cli.main.codeindex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Streams commits out of {@code git log} for {@link CoChangeAnalyzer} and {@link GitSignals}.
+ *
+ * <p>Commits are parsed one at a time straight from the process output and handed to
+ * a consumer, oldest first, so callers never hold the whole history. For incremental
+ * runs, callers snapshot the ref tips ({@link #refTips(Path)}), stream
+ * {@code tips ^previousTips}, and record the snapshot as the last processed commits;
+ * the next run then sees exactly the commits that are new since, across all branches,
+ * even if refs moved while the previous run was streaming.</p>
+ */
+final class GitHistory {
+
+    private static final String COMMIT_MARKER = "\0";
+    private static final long GIT_TIMEOUT_SECONDS = 60;
+
+    private GitHistory() {}
+
+    /**
+     * One commit: its hash, author email, and the paths it added, modified, copied or renamed.
+     */
+    record Commit(String hash, String author, List<String> files) {}
+
+    /**
+     * Returns the commit each ref (and HEAD) currently points at, or an empty list if
+     * {@code rootDir} is not a git repository.
+     */
+    static List<String> refTips(Path rootDir) {
+        List<String> tips = new ArrayList<>();
+        try {
+            ProcessBuilder pb = new ProcessBuilder("git", "log", "--all", "--no-walk", "--format=%H");
+            pb.directory(rootDir.toFile());
+            pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+            Process proc = pb.start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(proc.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) tips.add(line.trim());
+                }
+            }
+            if (!proc.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                proc.destroyForcibly();
+                return List.of();
+            }
+            return proc.exitValue() == 0 ? tips : List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } catch (Exception e) {
+            // Git not available or not a git repo
+            return List.of();
+        }
+    }
+
+    /**
+     * Streams up to {@code limit} of the newest commits reachable from {@code tips} but
+     * not from {@code excludeTips}, oldest first.
+     *
+     * @return {@code false} if git failed (not a repository, or an excluded tip no longer
+     *         exists), in which case the consumer may have seen none or some commits
+     */
+    static boolean stream(Path rootDir, Collection<String> tips, Collection<String> excludeTips,
+                          int limit, Consumer<Commit> consumer) {
+        if (tips.isEmpty()) return true;
+        try {
+            // Revisions go through stdin so a repo with thousands of refs can't overflow argv
+            ProcessBuilder pb = new ProcessBuilder(
+                    "git", "log", "--stdin", "--reverse", "--name-only",
+                    "--format=%x00%H %ae", "--diff-filter=AMCR", "-" + limit);
+            pb.directory(rootDir.toFile());
+            pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+            Process proc = pb.start();
+
+            try (Writer stdin = new OutputStreamWriter(proc.getOutputStream(), StandardCharsets.UTF_8)) {
+                for (String tip : tips) {
+                    stdin.write(tip);
+                    stdin.write('\n');
+                }
+                for (String tip : excludeTips) {
+                    stdin.write('^');
+                    stdin.write(tip);
+                    stdin.write('\n');
+                }
+            }
+
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(proc.getInputStream(), StandardCharsets.UTF_8))) {
+                parse(reader, consumer);
+            }
+
+            if (!proc.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                proc.destroyForcibly();
+                return false;
+            }
+            return proc.exitValue() == 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            // Git not available or not a git repo
+            return false;
+        }
+    }
+
+    /**
+     * Parses {@code git log --name-only --format=%x00%H %ae} output. Each commit is a
+     * NUL-prefixed header line followed by a blank line and its file paths.
+     */
+    static void parse(BufferedReader reader, Consumer<Commit> consumer) throws IOException {
+        String hash = null;
+        String author = null;
+        List<String> files = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(COMMIT_MARKER)) {
+                if (hash != null) {
+                    consumer.accept(new Commit(hash, author, files));
+                    files = new ArrayList<>();
+                }
+                String header = line.substring(1);
+                int space = header.indexOf(' ');
+                hash = space < 0 ? header : header.substring(0, space);
+                author = space < 0 ? "" : header.substring(space + 1);
+                continue;
+            }
+            line = line.trim();
+            if (!line.isEmpty() && hash != null) {
+                files.add(line);
+            }
+        }
+        if (hash != null) {
+            consumer.accept(new Commit(hash, author, files));
+        }
+    }
+}
@@ -10,14 +10,17 @@
 
 package ai.kompile.cli.main.codeindex;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Computes per-file git signals for use in relevance ranking:
@@ -27,9 +30,12 @@ import java.util.*;
  *   <li><b>Authors</b> — number of distinct committers (proxy for centrality/importance)</li>
  * </ul>
  *
- * <p>All three signals are collected in a single {@code git log} pass and cached
- * per session. The ranker consults the cache via static methods — no separate DB
- * table is needed since the data is cheap to recompute at query time.</p>
+ * <p>The signals are the per-file aggregates {@link CoChangeAnalyzer} keeps in the
+ * index DB ({@code git_file_signals}), loaded once per index and served from memory.
+ * A new session starts from what earlier runs stored instead of re-reading history.
+ * Once the loaded copy is older than {@link #REFRESH_INTERVAL_MS}, a lookup schedules
+ * a background refresh, which streams only the commits added since the stored ref tips
+ * and reloads the table; lookups keep serving the previous copy until it finishes.</p>
  *
  * <p>Co-change boosting is also provided: given a set of candidate result files,
  * files that frequently co-change with other candidates get a mutual boost.</p>
@@ -37,6 +43,13 @@ import java.util.*;
 public class GitSignals {
 
     private static final int GIT_LOG_LIMIT = 500;
+    static final long REFRESH_INTERVAL_MS = 60_000;
+
+    private static final ExecutorService REFRESHER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "git-signals-refresh");
+        t.setDaemon(true);
+        return t;
+    });
 
     private GitSignals() {}
 
@@ -53,24 +66,25 @@ public class GitSignals {
 
     // --- Session cache ---
 
-    private static volatile Map<String, FileSignals> signalsCache = null;
-    private static volatile Path signalsCacheRoot = null;
+    private record Snapshot(Map<String, FileSignals> signals, long refreshedAt) {}
+
+    private static final Map<Path, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private static final Set<Path> refreshing = ConcurrentHashMap.newKeySet();
 
     /**
-     * Get git signals for a file, computing the cache on first call.
+     * Get git signals for a file from the stored aggregates of its project index.
      */
-    static FileSignals getSignals(String relPath, Path rootDir) {
-        if (relPath == null || rootDir == null) return FileSignals.EMPTY;
-        ensureCache(rootDir);
-        return signalsCache.getOrDefault(relPath, FileSignals.EMPTY);
+    static FileSignals getSignals(String relPath, Path rootDir, Path indexDir) {
+        if (relPath == null || rootDir == null || indexDir == null) return FileSignals.EMPTY;
+        return snapshot(rootDir, indexDir).signals().getOrDefault(relPath, FileSignals.EMPTY);
     }
 
     /**
      * Compute a git-recency multiplier for ranking.
      * Range: 1.0 (no data / old) to the specified maxBoost (most recent files).
      */
-    static double recencyMultiplier(String relPath, Path rootDir, double maxBoost) {
-        FileSignals sig = getSignals(relPath, rootDir);
+    static double recencyMultiplier(String relPath, Path rootDir, Path indexDir, double maxBoost) {
+        FileSignals sig = getSignals(relPath, rootDir, indexDir);
         if (sig.recency() <= 0) return 1.0;
         // Linear interpolation: 1.0 at recency=0 up to maxBoost at recency=1.0
         return 1.0 + sig.recency() * (maxBoost - 1.0);
@@ -81,8 +95,8 @@ public class GitSignals {
      * Files with more commits are hotter/more actively developed.
      * Range: 1.0 (0-1 commits) to 1.2 (high churn).
      */
-    static double churnMultiplier(String relPath, Path rootDir) {
-        FileSignals sig = getSignals(relPath, rootDir);
+    static double churnMultiplier(String relPath, Path rootDir, Path indexDir) {
+        FileSignals sig = getSignals(relPath, rootDir, indexDir);
         if (sig.commitCount() <= 1) return 1.0;
         // Log scale: diminishing returns above ~20 commits
         double normalized = Math.min(Math.log(sig.commitCount()) / Math.log(50), 1.0);
@@ -94,8 +108,8 @@ public class GitSignals {
      * Files with many authors are more broadly important.
      * Range: 1.0 (single author) to 1.1 (many authors).
      */
-    static double authorMultiplier(String relPath, Path rootDir) {
-        FileSignals sig = getSignals(relPath, rootDir);
+    static double authorMultiplier(String relPath, Path rootDir, Path indexDir) {
+        FileSignals sig = getSignals(relPath, rootDir, indexDir);
         if (sig.authorCount() <= 1) return 1.0;
         double normalized = Math.min((sig.authorCount() - 1.0) / 9.0, 1.0); // 2 authors=0.11, 10+=1.0
         return 1.0 + normalized * 0.1; // 1.0 to 1.1
@@ -158,115 +172,74 @@ public class GitSignals {
 
     // --- Cache management ---
 
-    private static void ensureCache(Path rootDir) {
-        if (signalsCache != null && rootDir.equals(signalsCacheRoot)) return;
-
-        synchronized (GitSignals.class) {
-            if (signalsCache != null && rootDir.equals(signalsCacheRoot)) return;
-
-            Map<String, FileSignals> cache = computeSignals(rootDir);
-            signalsCache = cache;
-            signalsCacheRoot = rootDir;
+    private static Snapshot snapshot(Path rootDir, Path indexDir) {
+        Snapshot snapshot = snapshots.get(indexDir);
+        if (snapshot == null) {
+            // Serve what earlier runs stored right away; the refresh below catches up on new commits
+            Snapshot loaded = new Snapshot(load(indexDir), 0);
+            snapshot = Objects.requireNonNullElse(snapshots.putIfAbsent(indexDir, loaded), loaded);
         }
+        if (System.currentTimeMillis() - snapshot.refreshedAt() >= REFRESH_INTERVAL_MS
+                && refreshing.add(indexDir)) {
+            try {
+                REFRESHER.execute(() -> {
+                    try {
+                        refresh(rootDir, indexDir);
+                    } finally {
+                        refreshing.remove(indexDir);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(indexDir);
+            }
+        }
+        return snapshot;
     }
 
     /**
-     * Invalidate the cache (e.g., after re-indexing).
-     */
-    static void invalidateCache() {
-        signalsCache = null;
-        signalsCacheRoot = null;
-    }
-
-    /**
-     * Parse git log in a single pass to extract recency, churn, and author count per file.
-     * Uses: git log --all --name-only --format='%ae' --diff-filter=AMCR -N
-     * Each commit block looks like:
-     *   author@email.com
-     *   (blank)
-     *   file1.java
-     *   file2.java
-     *   (blank or next commit)
+     * Folds the commits added since the stored ref tips into the index DB and reloads
+     * the aggregates. Runs on the refresh thread; package-private for tests.
      */
-    private static Map<String, FileSignals> computeSignals(Path rootDir) {
-        Map<String, Integer> commitCounts = new HashMap<>();
-        Map<String, Set<String>> authorSets = new HashMap<>();
-        Map<String, Integer> firstSeenOrder = new HashMap<>(); // lower = more recent
-        int commitOrdinal = 0;
-
+    static void refresh(Path rootDir, Path indexDir) {
         try {
-            ProcessBuilder pb = new ProcessBuilder(
-                    "git", "log", "--all", "--name-only", "--format=%ae",
-                    "--diff-filter=AMCR", "-" + GIT_LOG_LIMIT);
-            pb.directory(rootDir.toFile());
-            pb.redirectErrorStream(true);
-            Process proc = pb.start();
-
-            String currentAuthor = null;
-            boolean expectingFiles = false;
-
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    line = line.trim();
-
-                    if (line.isEmpty()) {
-                        if (currentAuthor != null) {
-                            expectingFiles = true;
-                        }
-                        continue;
-                    }
-
-                    if (line.contains("@") && !line.contains("/")) {
-                        // This is an author email line (new commit)
-                        if (currentAuthor != null) {
-                            commitOrdinal++;
-                        }
-                        currentAuthor = line;
-                        expectingFiles = false;
-                        continue;
-                    }
-
-                    // File name
-                    if (currentAuthor != null) {
-                        commitCounts.merge(line, 1, Integer::sum);
-                        authorSets.computeIfAbsent(line, k -> new HashSet<>()).add(currentAuthor);
-                        firstSeenOrder.putIfAbsent(line, commitOrdinal);
-                    }
-                }
-            }
-            // Count the last commit
-            if (currentAuthor != null) {
-                commitOrdinal++;
-            }
-
-            if (!proc.waitFor(60, java.util.concurrent.TimeUnit.SECONDS)) {
-                proc.destroyForcibly();
-            }
+            CoChangeAnalyzer.analyze(indexDir, rootDir, GIT_LOG_LIMIT);
+        } catch (Exception e) {
+            // Not a git repo or the DB is busy: keep the stored aggregates until the next refresh
+        }
+        snapshots.put(indexDir, new Snapshot(load(indexDir), System.currentTimeMillis()));
+    }
 
-            // Build FileSignals
-            int totalCommits = commitOrdinal;
+    private static Map<String, FileSignals> load(Path indexDir) {
+        if (!Files.exists(indexDir.resolve("index.db"))) return Map.of();
+        try (IndexDatabase db = IndexDatabase.open(indexDir)) {
+            CoChangeAnalyzer.ensureTable(db);
+            Connection conn = db.getConnection();
+            long totalCommits = CoChangeAnalyzer.totalCommits(conn);
             Map<String, FileSignals> results = new HashMap<>();
-
-            for (String file : commitCounts.keySet()) {
-                int commits = commitCounts.getOrDefault(file, 0);
-                int authors = authorSets.containsKey(file) ? authorSets.get(file).size() : 0;
-                int order = firstSeenOrder.getOrDefault(file, totalCommits);
-                // Recency: 0-based order where 0=most recent commit
-                // Normalize so that most-recent=1.0, oldest=0.0
-                double recency = totalCommits > 1
-                        ? 1.0 - ((double) order / (totalCommits - 1))
-                        : 1.0;
-                results.put(file, new FileSignals(recency, commits, authors));
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(
+                         "SELECT rel_path, commit_count, last_seq, author_count FROM git_file_signals")) {
+                while (rs.next()) {
+                    // Commits are numbered oldest first, so 0=most recent commit here
+                    // Normalize so that most-recent=1.0, oldest=0.0
+                    long order = totalCommits - rs.getLong("last_seq");
+                    double recency = totalCommits > 1
+                            ? Math.max(0.0, 1.0 - ((double) order / (totalCommits - 1)))
+                            : 1.0;
+                    results.put(rs.getString("rel_path"),
+                            new FileSignals(recency, rs.getInt("commit_count"), rs.getInt("author_count")));
+                }
             }
-
             return results;
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return Map.of();
         } catch (Exception e) {
             return Map.of();
         }
     }
+
+    /**
+     * Invalidate the cache (e.g., after re-indexing).
+     */
+    static void invalidateCache() {
+        snapshots.clear();
+    }
 }
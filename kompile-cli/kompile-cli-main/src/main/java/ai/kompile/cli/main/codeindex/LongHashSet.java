@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 Kompile Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package ai.kompile.cli.main.codeindex;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing set of primitive {@code long}s.
+ *
+ * <p>Used for clone-detection candidate pairs packed as {@code (i << 32) | j}, which
+ * every LSH band can produce again. A boxed {@code Set<Long>} costs around 50 bytes per
+ * pair; this costs 8 bytes per slot at a load factor of at most 0.5.</p>
+ */
+final class LongHashSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private int size;
+    // The EMPTY sentinel itself is stored out of band
+    private boolean hasEmptyKey;
+
+    LongHashSet() {
+        this(16);
+    }
+
+    LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, Math.min(expectedSize, MAX_CAPACITY / 2) * 2 - 1)) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int size() {
+        return size + (hasEmptyKey ? 1 : 0);
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    boolean contains(long key) {
+        if (key == EMPTY) return hasEmptyKey;
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) return true;
+            if (k == EMPTY) return false;
+        }
+    }
+
+    /**
+     * @return true if {@code key} was not already present
+     */
+    boolean add(long key) {
+        if (key == EMPTY) {
+            boolean added = !hasEmptyKey;
+            hasEmptyKey = true;
+            return added;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) return false;
+            if (k == EMPTY) break;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size * 2 > keys.length) {
+            if (keys.length == MAX_CAPACITY) {
+                throw new IllegalStateException("LongHashSet cannot hold more than " + size + " keys");
+            }
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    void addAll(LongHashSet other) {
+        if (other.hasEmptyKey) add(EMPTY);
+        for (long k : other.keys) {
+            if (k != EMPTY) add(k);
+        }
+    }
+
+    /**
+     * @return the keys in ascending order
+     */
+    long[] toSortedArray() {
+        long[] result = new long[size()];
+        int pos = 0;
+        if (hasEmptyKey) result[pos++] = EMPTY;
+        for (long k : keys) {
+            if (k != EMPTY) result[pos++] = k;
+        }
+        Arrays.parallelSort(result);
+        return result;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        for (long k : oldKeys) {
+            if (k == EMPTY) continue;
+            int slot = slot(k, mask);
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = k;
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        // Murmur3 fmix64 so packed (i, j) keys spread over the low bits
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2025 Kompile Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package ai.kompile.cli.main.codeindex;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> int} hash map over two primitive arrays.
+ *
+ * <p>Used for co-change pair counts, where the key packs two interned file ids
+ * ({@code (idA << 32) | idB}). A boxed {@code Map<String, Map<String, Integer>>}
+ * costs well over 100 bytes per pair; this costs 12 bytes per slot at a load
+ * factor of at most 0.5.</p>
+ */
+final class LongIntHashMap {
+
+    @FunctionalInterface
+    interface Visitor {
+        void accept(long key, int value);
+    }
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    // The EMPTY sentinel itself is stored out of band
+    private boolean hasEmptyKey;
+    private int emptyKeyValue;
+
+    LongIntHashMap() {
+        this(16);
+    }
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int size() {
+        return size + (hasEmptyKey ? 1 : 0);
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return the value for {@code key}, or 0 if absent
+     */
+    int get(long key) {
+        if (key == EMPTY) return hasEmptyKey ? emptyKeyValue : 0;
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == EMPTY) return 0;
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the value of {@code key} (inserting it at 0 if absent).
+     *
+     * @return the new value
+     */
+    int addTo(long key, int delta) {
+        if (key == EMPTY) {
+            hasEmptyKey = true;
+            return emptyKeyValue += delta;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                return values[slot] += delta;
+            }
+            if (k == EMPTY) break;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    void forEach(Visitor visitor) {
+        if (hasEmptyKey) visitor.accept(EMPTY, emptyKeyValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) visitor.accept(keys[i], values[i]);
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k == EMPTY) continue;
+            int slot = slot(k, mask);
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = k;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        // Murmur3 fmix64 so packed (idA, idB) keys spread over the low bits
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
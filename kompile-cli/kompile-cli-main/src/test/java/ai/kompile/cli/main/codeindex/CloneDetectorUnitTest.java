@@ -5,6 +5,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -296,4 +298,99 @@ class CloneDetectorUnitTest {
         }
         assertEquals(0.0, CloneDetector.jaccardSimilarity(sigA, sigB), 0.001);
     }
+
+    // =======================================================================
+    // LSH banding
+    // =======================================================================
+
+    @ParameterizedTest
+    @CsvSource({"0.5", "0.7", "0.8", "0.9", "0.95"})
+    void lshBandingMeetsRecallAtThreshold(double threshold) {
+        int[] lsh = CloneDetector.lshBandsAndRows(threshold);
+        int bands = lsh[0];
+        int rows = lsh[1];
+        assertTrue(bands * rows <= 128, "Bands must fit in the signature");
+        double recall = 1.0 - Math.pow(1.0 - Math.pow(threshold, rows), bands);
+        assertTrue(recall >= 0.99, "Pairs at the threshold should almost always collide");
+    }
+
+    @Test
+    void lshBandingUsesMoreRowsForHigherThreshold() {
+        assertTrue(CloneDetector.lshBandsAndRows(0.9)[1] > CloneDetector.lshBandsAndRows(0.5)[1]);
+    }
+
+    @Test
+    void identicalSignaturesShareEveryBand() {
+        int[] sig = CloneDetector.computeMinHash(CloneDetector.tokenize(
+                "public void foo(int x) { int y = x + 1; return y; }"));
+        int[] lsh = CloneDetector.lshBandsAndRows(0.8);
+        assertArrayEquals(CloneDetector.bandHashes(sig, lsh[0], lsh[1]),
+                CloneDetector.bandHashes(sig.clone(), lsh[0], lsh[1]));
+    }
+
+    @Test
+    void bandHashChangesWhenAnyRowInBandChanges() {
+        int[] sigA = new int[128];
+        for (int i = 0; i < 128; i++) sigA[i] = i * 31;
+        int[] sigB = sigA.clone();
+        sigB[5]++;
+        long[] a = CloneDetector.bandHashes(sigA, 16, 8);
+        long[] b = CloneDetector.bandHashes(sigB, 16, 8);
+        assertNotEquals(a[0], b[0], "Band containing the changed row should differ");
+        for (int band = 1; band < 16; band++) {
+            assertEquals(a[band], b[band]);
+        }
+    }
+
+    @Test
+    void packFragmentHashesPreservesHexValues() {
+        List<CloneDetector.FragmentHash> hashes = CloneDetector.computeFragmentHashes(CloneDetector.tokenize(
+                "public void process(String input) { int x = 0; for (int i = 0; i < 10; i++) { x += i; } return; }"));
+        long[] packed = CloneDetector.packFragmentHashes(hashes);
+        assertEquals(hashes.size(), packed.length);
+        for (CloneDetector.FragmentHash fh : hashes) {
+            assertEquals(fh.hash(), String.format("%016x", packed[fh.tokenOffset()]));
+        }
+    }
+
+    // =======================================================================
+    // LSH candidates
+    // =======================================================================
+
+    @Test
+    void lshCandidatesAreDistinctSortedPairs() throws Exception {
+        // 0 and 1 collide in both bands; 0, 1 and 2 share band 1; 3 collides with nothing
+        long[][] bandHashes = {{10, 20}, {10, 20}, {11, 20}, {12, 21}};
+
+        long[] candidates = lshCandidates(bandHashes, 1000);
+
+        assertArrayEquals(new long[]{pair(0, 1), pair(0, 2), pair(1, 2)}, candidates);
+    }
+
+    @Test
+    void lshCandidatesSkipOversizedBuckets() throws Exception {
+        // Band 0 puts all five signatures in one bucket; band 1 pairs only 3 and 4
+        long[][] bandHashes = {{7, 1}, {7, 2}, {7, 3}, {7, 4}, {7, 4}};
+
+        assertArrayEquals(new long[]{pair(3, 4)}, lshCandidates(bandHashes, 4));
+        assertEquals(10, lshCandidates(bandHashes, 5).length);
+    }
+
+    @Test
+    void lshCandidatesNeedTwoSignatures() throws Exception {
+        assertEquals(0, lshCandidates(new long[][]{{1, 2}}, 1000).length);
+    }
+
+    private static long[] lshCandidates(long[][] bandHashes, int maxBucket) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            return CloneDetector.lshCandidates(pool, bandHashes, bandHashes[0].length, maxBucket);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long pair(int i, int j) {
+        return ((long) i << 32) | j;
+    }
 }
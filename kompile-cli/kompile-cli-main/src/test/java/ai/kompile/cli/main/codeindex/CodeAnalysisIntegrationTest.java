@@ -655,6 +655,58 @@ class CodeAnalysisIntegrationTest {
         }
     }
 
+    @Test
+    void cochangeAnalyzeIsIncremental() throws Exception {
+        Path gitDir = Files.createTempDirectory("cochange-incremental-test");
+        String gitProjectId = "cochange-incr-" + System.nanoTime();
+        Path gitIndexDir = LocalCodeIndexer.getIndexDir(gitProjectId);
+        try {
+            exec(gitDir, "git", "init");
+            exec(gitDir, "git", "config", "user.email", "test@test.com");
+            exec(gitDir, "git", "config", "user.name", "Test");
+
+            Path srcDir = gitDir.resolve("src");
+            Files.createDirectories(srcDir);
+            for (int v = 1; v <= 2; v++) {
+                Files.writeString(srcDir.resolve("A.java"), "package src; public class A { int v = " + v + "; }");
+                Files.writeString(srcDir.resolve("B.java"), "package src; public class B { int v = " + v + "; }");
+                exec(gitDir, "git", "add", ".");
+                exec(gitDir, "git", "commit", "-m", "A and B v" + v);
+            }
+
+            LocalCodeIndexer indexer = new LocalCodeIndexer();
+            indexer.index(gitDir, gitProjectId, null, null, true, new PrintStream(new ByteArrayOutputStream()));
+
+            CoChangeAnalyzer.CoChangeReport first = CoChangeAnalyzer.analyze(gitIndexDir, gitDir, 100);
+            assertEquals(2, first.commitsAnalyzed());
+            assertEquals(2, CoChangeAnalyzer.getTopCoChanges(gitIndexDir, 10).get(0).cochangeCount());
+
+            // Nothing new: the second run must not re-count history
+            CoChangeAnalyzer.CoChangeReport second = CoChangeAnalyzer.analyze(gitIndexDir, gitDir, 100);
+            assertEquals(0, second.commitsAnalyzed());
+            assertEquals(2, CoChangeAnalyzer.getTopCoChanges(gitIndexDir, 10).get(0).cochangeCount());
+
+            // One new co-commit is added to the stored count in place
+            Files.writeString(srcDir.resolve("A.java"), "package src; public class A { int v = 3; }");
+            Files.writeString(srcDir.resolve("B.java"), "package src; public class B { int v = 3; }");
+            exec(gitDir, "git", "add", ".");
+            exec(gitDir, "git", "commit", "-m", "A and B v3");
+
+            CoChangeAnalyzer.CoChangeReport third = CoChangeAnalyzer.analyze(gitIndexDir, gitDir, 100);
+            assertEquals(1, third.commitsAnalyzed());
+            List<CoChangeAnalyzer.CoChangePair> pairs = CoChangeAnalyzer.getTopCoChanges(gitIndexDir, 10);
+            assertEquals(1, pairs.size());
+            assertEquals(3, pairs.get(0).cochangeCount());
+        } finally {
+            for (Path dir : List.of(gitDir, gitIndexDir)) {
+                if (!Files.exists(dir)) continue;
+                try (Stream<Path> walk = Files.walk(dir)) {
+                    walk.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(f -> f.delete());
+                }
+            }
+        }
+    }
+
     // =======================================================================
     // GitSignals tests
     // =======================================================================
@@ -663,7 +715,7 @@ class CodeAnalysisIntegrationTest {
     void gitSignalsReturnsEmptyForNonGitDir() {
         // tempDir is not a git repo, so all signals should be empty/default
         GitSignals.invalidateCache();
-        GitSignals.FileSignals sig = GitSignals.getSignals("com/app/model/Entity.java", tempDir);
+        GitSignals.FileSignals sig = GitSignals.getSignals("com/app/model/Entity.java", tempDir, indexDir);
         assertNotNull(sig);
         assertEquals(0.0, sig.recency());
         assertEquals(0, sig.commitCount());
@@ -673,7 +725,7 @@ class CodeAnalysisIntegrationTest {
     @Test
     void gitSignalsRecencyMultiplierDefaultsToOne() {
         GitSignals.invalidateCache();
-        double mult = GitSignals.recencyMultiplier("nonexistent.java", tempDir, 1.5);
+        double mult = GitSignals.recencyMultiplier("nonexistent.java", tempDir, indexDir, 1.5);
         assertEquals(1.0, mult, 0.001,
                 "No git data → recency multiplier should be 1.0");
     }
@@ -681,7 +733,7 @@ class CodeAnalysisIntegrationTest {
     @Test
     void gitSignalsChurnMultiplierDefaultsToOne() {
         GitSignals.invalidateCache();
-        double mult = GitSignals.churnMultiplier("nonexistent.java", tempDir);
+        double mult = GitSignals.churnMultiplier("nonexistent.java", tempDir, indexDir);
         assertEquals(1.0, mult, 0.001,
                 "No git data → churn multiplier should be 1.0");
     }
@@ -689,7 +741,7 @@ class CodeAnalysisIntegrationTest {
     @Test
     void gitSignalsAuthorMultiplierDefaultsToOne() {
         GitSignals.invalidateCache();
-        double mult = GitSignals.authorMultiplier("nonexistent.java", tempDir);
+        double mult = GitSignals.authorMultiplier("nonexistent.java", tempDir, indexDir);
         assertEquals(1.0, mult, 0.001,
                 "No git data → author multiplier should be 1.0");
     }
@@ -705,6 +757,7 @@ class CodeAnalysisIntegrationTest {
     void gitSignalsWithGitRepo() throws Exception {
         // Create a temp git repo with known commit history
         Path gitDir = Files.createTempDirectory("gitsignals-test");
+        Path gitIndexDir = LocalCodeIndexer.getIndexDir("gitsignals-" + System.nanoTime());
         try {
             exec(gitDir, "git", "init");
             exec(gitDir, "git", "config", "user.email", "alice@test.com");
@@ -729,10 +782,12 @@ class CodeAnalysisIntegrationTest {
             exec(gitDir, "git", "add", "Hot.java");
             exec(gitDir, "git", "commit", "-m", "bob updates Hot");
 
+            indexGitProject(gitDir, gitIndexDir);
             GitSignals.invalidateCache();
+            GitSignals.refresh(gitDir, gitIndexDir);
 
-            GitSignals.FileSignals hotSig = GitSignals.getSignals("Hot.java", gitDir);
-            GitSignals.FileSignals coldSig = GitSignals.getSignals("Cold.java", gitDir);
+            GitSignals.FileSignals hotSig = GitSignals.getSignals("Hot.java", gitDir, gitIndexDir);
+            GitSignals.FileSignals coldSig = GitSignals.getSignals("Cold.java", gitDir, gitIndexDir);
 
             // Hot.java: 6 commits, 2 authors, most recent commit
             assertTrue(hotSig.commitCount() >= 5,
@@ -747,19 +802,78 @@ class CodeAnalysisIntegrationTest {
             assertEquals(1, coldSig.authorCount());
 
             // Multipliers should reflect the difference
-            double hotChurn = GitSignals.churnMultiplier("Hot.java", gitDir);
-            double coldChurn = GitSignals.churnMultiplier("Cold.java", gitDir);
+            double hotChurn = GitSignals.churnMultiplier("Hot.java", gitDir, gitIndexDir);
+            double coldChurn = GitSignals.churnMultiplier("Cold.java", gitDir, gitIndexDir);
             assertTrue(hotChurn > coldChurn,
                     "Hot.java churn multiplier should exceed Cold.java's");
 
-            double hotAuthor = GitSignals.authorMultiplier("Hot.java", gitDir);
-            double coldAuthor = GitSignals.authorMultiplier("Cold.java", gitDir);
+            double hotAuthor = GitSignals.authorMultiplier("Hot.java", gitDir, gitIndexDir);
+            double coldAuthor = GitSignals.authorMultiplier("Cold.java", gitDir, gitIndexDir);
             assertTrue(hotAuthor > coldAuthor,
                     "Hot.java author multiplier should exceed Cold.java's");
         } finally {
-            try (java.util.stream.Stream<Path> walk = Files.walk(gitDir)) {
-                walk.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(f -> f.delete());
+            GitSignals.invalidateCache();
+            deleteRecursively(gitDir);
+            deleteRecursively(gitIndexDir);
+        }
+    }
+
+    @Test
+    void gitSignalsServeStoredHistoryAndFoldInNewCommits() throws Exception {
+        Path gitDir = Files.createTempDirectory("gitsignals-incremental-test");
+        Path gitIndexDir = LocalCodeIndexer.getIndexDir("gitsignals-incr-" + System.nanoTime());
+        try {
+            exec(gitDir, "git", "init");
+            exec(gitDir, "git", "config", "user.email", "alice@test.com");
+            exec(gitDir, "git", "config", "user.name", "Alice");
+            Files.writeString(gitDir.resolve("Hot.java"), "class Hot {}");
+            Files.writeString(gitDir.resolve("Cold.java"), "class Cold {}");
+            exec(gitDir, "git", "add", ".");
+            exec(gitDir, "git", "commit", "-m", "initial");
+            Files.writeString(gitDir.resolve("Hot.java"), "class Hot { int v = 2; }");
+            exec(gitDir, "git", "commit", "-am", "update Hot v2");
+
+            indexGitProject(gitDir, gitIndexDir);
+            GitSignals.invalidateCache();
+            GitSignals.refresh(gitDir, gitIndexDir);
+            assertEquals(2, GitSignals.getSignals("Hot.java", gitDir, gitIndexDir).commitCount());
+
+            // A new session is served from the stored aggregates, without git
+            Path hiddenGit = gitDir.resolve(".git-hidden");
+            Files.move(gitDir.resolve(".git"), hiddenGit);
+            GitSignals.invalidateCache();
+            GitSignals.refresh(gitDir, gitIndexDir);
+            GitSignals.FileSignals stored = GitSignals.getSignals("Hot.java", gitDir, gitIndexDir);
+            assertEquals(2, stored.commitCount());
+            assertEquals(1, stored.authorCount());
+            assertEquals(1, GitSignals.getSignals("Cold.java", gitDir, gitIndexDir).commitCount());
+            Files.move(hiddenGit, gitDir.resolve(".git"));
+
+            exec(gitDir, "git", "config", "user.email", "bob@test.com");
+            exec(gitDir, "git", "config", "user.name", "Bob");
+            Files.writeString(gitDir.resolve("Hot.java"), "class Hot { int v = 3; }");
+            exec(gitDir, "git", "commit", "-am", "bob updates Hot");
+
+            // The first lookup of a session serves the stored copy while a refresh runs in the background
+            GitSignals.invalidateCache();
+            assertEquals(2, GitSignals.getSignals("Hot.java", gitDir, gitIndexDir).commitCount());
+
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (GitSignals.getSignals("Hot.java", gitDir, gitIndexDir).commitCount() == 2
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
             }
+            GitSignals.FileSignals hot = GitSignals.getSignals("Hot.java", gitDir, gitIndexDir);
+            GitSignals.FileSignals cold = GitSignals.getSignals("Cold.java", gitDir, gitIndexDir);
+            assertEquals(3, hot.commitCount());
+            assertEquals(2, hot.authorCount());
+            assertEquals(1.0, hot.recency(), 1e-9);
+            assertEquals(1, cold.commitCount());
+            assertEquals(0.0, cold.recency(), 1e-9);
+        } finally {
+            GitSignals.invalidateCache();
+            deleteRecursively(gitDir);
+            deleteRecursively(gitIndexDir);
         }
     }
 
@@ -767,15 +881,15 @@ class CodeAnalysisIntegrationTest {
     void gitSignalsMultipliersInRange() {
         // Verify multiplier bounds hold regardless of input
         GitSignals.invalidateCache();
-        double recency = GitSignals.recencyMultiplier("any.java", tempDir, 2.0);
+        double recency = GitSignals.recencyMultiplier("any.java", tempDir, indexDir, 2.0);
         assertTrue(recency >= 1.0 && recency <= 2.0,
                 "Recency multiplier should be in [1.0, maxBoost]");
 
-        double churn = GitSignals.churnMultiplier("any.java", tempDir);
+        double churn = GitSignals.churnMultiplier("any.java", tempDir, indexDir);
         assertTrue(churn >= 1.0 && churn <= 1.2,
                 "Churn multiplier should be in [1.0, 1.2]");
 
-        double author = GitSignals.authorMultiplier("any.java", tempDir);
+        double author = GitSignals.authorMultiplier("any.java", tempDir, indexDir);
         assertTrue(author >= 1.0 && author <= 1.1,
                 "Author multiplier should be in [1.0, 1.1]");
     }
@@ -937,6 +1051,18 @@ class CodeAnalysisIntegrationTest {
     // Helpers
     // =======================================================================
 
+    private static void indexGitProject(Path gitDir, Path gitIndexDir) throws Exception {
+        new LocalCodeIndexer().index(gitDir, gitIndexDir.getFileName().toString(), null, null, true,
+                new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    private static void deleteRecursively(Path dir) throws Exception {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(f -> f.delete());
+        }
+    }
+
     private static void exec(Path dir, String... cmd) throws Exception {
         ProcessBuilder pb = new ProcessBuilder(cmd);
         pb.directory(dir.toFile());
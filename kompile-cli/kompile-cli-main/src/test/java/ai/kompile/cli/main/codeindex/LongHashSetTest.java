@@ -0,0 +1,52 @@
+package ai.kompile.cli.main.codeindex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LongHashSet}, the primitive set behind clone-detection candidate pairs.
+ */
+class LongHashSetTest {
+
+    @Test
+    void addReportsWhetherKeyWasNew() {
+        LongHashSet set = new LongHashSet();
+        long pair = (3L << 32) | 7L;
+        assertTrue(set.add(pair));
+        assertFalse(set.add(pair));
+        assertTrue(set.contains(pair));
+        assertFalse(set.contains(pair + 1));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void sentinelKeyIsSupported() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertFalse(set.add(Long.MIN_VALUE));
+        set.add(0L);
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertArrayEquals(new long[]{Long.MIN_VALUE, 0L}, set.toSortedArray());
+    }
+
+    @Test
+    void matchesTreeSetAcrossRehashesAndMerges() {
+        LongHashSet a = new LongHashSet(4);
+        LongHashSet b = new LongHashSet();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long key = ((long) random.nextInt(300) << 32) | random.nextInt(300);
+            expected.add(key);
+            (i % 2 == 0 ? a : b).add(key);
+        }
+        a.addAll(b);
+
+        assertEquals(expected.size(), a.size());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), a.toSortedArray());
+    }
+}
@@ -0,0 +1,59 @@
+package ai.kompile.cli.main.codeindex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LongIntHashMap}, the primitive map behind co-change pair counts.
+ */
+class LongIntHashMapTest {
+
+    @Test
+    void missingKeyReadsAsZero() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertEquals(0, map.get(42L));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void addToAccumulatesAndReturnsNewValue() {
+        LongIntHashMap map = new LongIntHashMap();
+        long pair = (3L << 32) | 7L;
+        assertEquals(1, map.addTo(pair, 1));
+        assertEquals(3, map.addTo(pair, 2));
+        assertEquals(3, map.get(pair));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void sentinelKeyIsSupported() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.addTo(Long.MIN_VALUE, 5);
+        map.addTo(0L, 1);
+        assertEquals(5, map.get(Long.MIN_VALUE));
+        assertEquals(1, map.get(0L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void matchesHashMapAcrossRehashes() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long key = ((long) random.nextInt(500) << 32) | random.nextInt(500);
+            int delta = 1 + random.nextInt(3);
+            assertEquals((int) expected.merge(key, delta, Integer::sum), map.addTo(key, delta));
+        }
+        assertEquals(expected.size(), map.size());
+
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+}
@@ -21,7 +21,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -217,4 +223,204 @@ class DefaultGuardrailServiceTest {
 
         assertTrue(result.isPassed());
     }
+
+    // ==================== Concurrent Evaluation Tests ====================
+
+    @Test
+    @DisplayName("Should run LLM-backed guardrails in parallel")
+    void testConcurrentLlmGuardrailsRunInParallel() {
+        properties.getConcurrency().setEnabled(true);
+        List<InputGuardrail> guardrails = List.of(
+                inputGuardrail("llm-a", 10, true, () -> sleepThenPass("llm-a", 300)),
+                inputGuardrail("llm-b", 20, true, () -> sleepThenPass("llm-b", 300)),
+                inputGuardrail("llm-c", 30, true, () -> sleepThenPass("llm-c", 300)));
+
+        try (DefaultGuardrailService service = new DefaultGuardrailService(guardrails, List.of(), properties)) {
+            long start = System.nanoTime();
+            GuardrailResult result = service.validateInput("input", GuardrailContext.empty());
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(result.isPassed());
+            assertTrue(elapsedMs < 800, "Expected parallel evaluation, took " + elapsedMs + " ms");
+        }
+    }
+
+    @Test
+    @DisplayName("Should cancel in-flight guardrails on the first block")
+    void testConcurrentBlockCancelsInFlight() throws Exception {
+        properties.getConcurrency().setEnabled(true);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        List<InputGuardrail> guardrails = List.of(
+                inputGuardrail("slow", 10, true, () -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return GuardrailResult.pass("slow");
+                }),
+                inputGuardrail("blocker", 20, true, () -> {
+                    sleep(50);
+                    return GuardrailResult.block("blocker", "unsafe", GuardrailCategory.CUSTOM);
+                }));
+        RecordingListener listener = new RecordingListener();
+
+        try (DefaultGuardrailService service = new DefaultGuardrailService(guardrails, List.of(), properties, listener)) {
+            long start = System.nanoTime();
+            GuardrailException e = assertThrows(GuardrailException.class,
+                    () -> service.validateInput("input", GuardrailContext.empty()));
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals("blocker", e.getGuardrailName());
+            assertTrue(elapsedMs < 2_000, "Block should not wait for slow guardrail, took " + elapsedMs + " ms");
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            assertTrue(listener.checks.contains("input:slow:cancelled"));
+            assertTrue(listener.checks.contains("input:blocker:blocked"));
+            assertEquals(List.of("input:blocked"), listener.validations);
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip a guardrail that exceeds its timeout")
+    void testConcurrentTimeoutSkipsGuardrail() {
+        properties.getConcurrency().setEnabled(true);
+        properties.getConcurrency().getTimeouts().put("hanging", 100L);
+        OutputGuardrail hanging = outputGuardrail("hanging", true, () -> sleepThenPass("hanging", 10_000));
+        OutputGuardrail warning = outputGuardrail("warning", true, () -> GuardrailResult.warn("warning", "minor"));
+        RecordingListener listener = new RecordingListener();
+
+        try (DefaultGuardrailService service = new DefaultGuardrailService(
+                List.of(), List.of(hanging, warning), properties, listener)) {
+            long start = System.nanoTime();
+            GuardrailResult result = service.validateOutput("output", "query", List.of(), GuardrailContext.empty());
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(result.isPassed());
+            assertTrue(elapsedMs < 2_000, "Timed out guardrail should be skipped, took " + elapsedMs + " ms");
+            assertTrue(listener.checks.contains("output:hanging:timeout"));
+            assertTrue(listener.checks.contains("output:warning:warned"));
+            assertEquals(List.of("output:passed"), listener.validations);
+        }
+    }
+
+    @Test
+    @DisplayName("Should block on cheap guardrails before starting LLM guardrails")
+    void testConcurrentCheapGuardrailsShortCircuit() {
+        properties.getConcurrency().setEnabled(true);
+        AtomicBoolean llmCalled = new AtomicBoolean();
+        List<InputGuardrail> guardrails = List.of(
+                inputGuardrail("llm", 10, true, () -> {
+                    llmCalled.set(true);
+                    return GuardrailResult.pass("llm");
+                }),
+                inputGuardrail("pattern", 30, false,
+                        () -> GuardrailResult.block("pattern", "matched", GuardrailCategory.PII)));
+
+        try (DefaultGuardrailService service = new DefaultGuardrailService(guardrails, List.of(), properties)) {
+            assertThrows(GuardrailException.class, () -> service.validateInput("input", GuardrailContext.empty()));
+            assertFalse(llmCalled.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report checks and validations in sequential mode")
+    void testSequentialReportsToListener() {
+        RecordingListener listener = new RecordingListener();
+        List<InputGuardrail> guardrails = List.of(
+                inputGuardrail("first", 10, false, () -> GuardrailResult.pass("first")),
+                inputGuardrail("failing", 20, false, () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        try (DefaultGuardrailService service = new DefaultGuardrailService(guardrails, List.of(), properties, listener)) {
+            assertTrue(service.validateInput("input", GuardrailContext.empty()).isPassed());
+            assertEquals(List.of("input:first:passed", "input:failing:error"), listener.checks);
+            assertEquals(List.of("input:passed"), listener.validations);
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    private static InputGuardrail inputGuardrail(String name, int priority, boolean llm,
+                                                 Supplier<GuardrailResult> behavior) {
+        return new InputGuardrail() {
+            @Override
+            public GuardrailResult validate(String input, GuardrailContext context) {
+                return behavior.get();
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public GuardrailCategory[] getCategories() {
+                return new GuardrailCategory[]{GuardrailCategory.CUSTOM};
+            }
+
+            @Override
+            public int getPriority() {
+                return priority;
+            }
+
+            @Override
+            public boolean requiresLlm() {
+                return llm;
+            }
+        };
+    }
+
+    private static OutputGuardrail outputGuardrail(String name, boolean llm, Supplier<GuardrailResult> behavior) {
+        return new OutputGuardrail() {
+            @Override
+            public GuardrailResult validate(String output, String originalQuery,
+                                            List<String> retrievedContext, GuardrailContext context) {
+                return behavior.get();
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public GuardrailCategory[] getCategories() {
+                return new GuardrailCategory[]{GuardrailCategory.CUSTOM};
+            }
+
+            @Override
+            public boolean requiresLlm() {
+                return llm;
+            }
+        };
+    }
+
+    private static GuardrailResult sleepThenPass(String name, long millis) {
+        sleep(millis);
+        return GuardrailResult.pass(name);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingListener implements GuardrailListener {
+        final List<String> checks = Collections.synchronizedList(new ArrayList<>());
+        final List<String> validations = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onCheck(String phase, String guardrailName, String outcome, long durationNanos) {
+            checks.add(phase + ":" + guardrailName + ":" + outcome);
+        }
+
+        @Override
+        public void onValidation(String phase, String outcome, long durationNanos) {
+            validations.add(phase + ":" + outcome);
+        }
+    }
 }
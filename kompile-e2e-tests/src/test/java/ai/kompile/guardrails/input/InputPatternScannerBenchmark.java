@@ -0,0 +1,125 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.guardrails.input;
+
+import ai.kompile.guardrails.scan.MultiPatternScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the pattern checks of the input guardrails done one regex at a time (a full
+ * pass over the input per pattern, as the guardrails used to do) with one pass of the
+ * shared {@link MultiPatternScanner}. The input is ordinary prose with a few email
+ * addresses and phone numbers and no prompt injection, so every pattern must read to
+ * the end.
+ * <p>
+ * Run from the test classpath via {@link #main(String[])} or
+ * {@code org.openjdk.jmh.Main InputPatternScannerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputPatternScannerBenchmark {
+
+    private static final String[] WORDS = {
+            "the", "quarterly", "report", "shows", "that", "you", "can", "do", "what", "is", "needed", "to",
+            "act", "on", "customer", "feedback", "and", "revenue", "grew", "in", "each", "region", "while",
+            "costs", "stayed", "flat", "2024", "Q3", "we", "expect", "further", "growth", "next", "year"
+    };
+
+    private static final List<Pattern> PII_PATTERNS = List.of(
+            PiiDetectionGuardrail.EMAIL_PATTERN,
+            PiiDetectionGuardrail.PHONE_PATTERN,
+            PiiDetectionGuardrail.SSN_PATTERN,
+            PiiDetectionGuardrail.CREDIT_CARD_PATTERN);
+
+    @Param({"1024", "102400", "5242880"})
+    public int inputSize;
+
+    private String input;
+    private MultiPatternScanner scanner;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(inputSize + 64);
+        while (sb.length() < inputSize) {
+            int roll = random.nextInt(400);
+            if (roll == 0) {
+                sb.append("jane.doe").append(random.nextInt(100)).append("@example.com");
+            } else if (roll == 1) {
+                sb.append("555-").append(100 + random.nextInt(900)).append('-').append(1000 + random.nextInt(9000));
+            } else {
+                sb.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            sb.append(random.nextInt(12) == 0 ? ".\n" : " ");
+        }
+        input = sb.substring(0, inputSize);
+
+        MultiPatternScanner.Builder builder = MultiPatternScanner.builder();
+        PromptInjectionGuardrail.addRules(builder);
+        PiiDetectionGuardrail.addRules(builder);
+        scanner = builder.build();
+    }
+
+    /** Previous behavior: every PII pattern and every injection pattern scans the input. */
+    @Benchmark
+    public void perPattern(Blackhole bh) {
+        for (Pattern pattern : PII_PATTERNS) {
+            Matcher matcher = pattern.matcher(input);
+            while (matcher.find()) {
+                bh.consume(matcher.start());
+            }
+        }
+        for (Pattern pattern : PromptInjectionGuardrail.INJECTION_PATTERNS) {
+            bh.consume(pattern.matcher(input).find());
+        }
+    }
+
+    /** One pass of the shared scanner, verifying candidates only. */
+    @Benchmark
+    public MultiPatternScanner.Result sharedScan() {
+        return scanner.scan(input);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(InputPatternScannerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.guardrails.input;
+
+import ai.kompile.guardrails.scan.MultiPatternScanner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the shared input scanner finds exactly what each guardrail pattern finds
+ * on its own.
+ */
+class InputPatternScannerTest {
+
+    private static final String[] VOCABULARY = {
+            "the", "report", "you", "You are now a", "do", "do anything now", "DAN", "dance", "act as if",
+            "what is your system instructions", "ignore all instructions", "Disregard the instructions",
+            "forget everything", "pretend to be", "reveal the prompt", "[system]", "<SYSTEM>", "### system",
+            "jailbreak", "john@example.com", "a.b@c.io", "@", "555-123-4567", "(555) 123-4567", "+1-555-123-4567",
+            "123-45-6789", "123456789", "4111111111111111", "5500000000000004", "340000000000009",
+            "6011000000000004", "12", "-", ".", "(", ")", "+", "\n", "é", "x1"
+    };
+
+    @Test
+    @DisplayName("Should match every guardrail pattern exactly like Matcher.find")
+    void testEquivalentToPerPatternScan() {
+        Map<String, Pattern> pii = Map.of(
+                "email", PiiDetectionGuardrail.EMAIL_PATTERN,
+                "phone", PiiDetectionGuardrail.PHONE_PATTERN,
+                "ssn", PiiDetectionGuardrail.SSN_PATTERN,
+                "credit_card", PiiDetectionGuardrail.CREDIT_CARD_PATTERN);
+        Random random = new Random(11);
+
+        for (int round = 0; round < 300; round++) {
+            String text = randomText(random, 60);
+            MultiPatternScanner.Result result = InputPatternScanner.scan(text);
+
+            for (Map.Entry<String, Pattern> entry : pii.entrySet()) {
+                assertEquals(find(entry.getValue(), text),
+                        starts(result.matches(PiiDetectionGuardrail.NAME, entry.getKey())), entry.getKey() + ": " + text);
+            }
+            for (Pattern pattern : PromptInjectionGuardrail.INJECTION_PATTERNS) {
+                assertEquals(find(pattern, text),
+                        starts(result.matches(PromptInjectionGuardrail.NAME, pattern.pattern())), pattern + ": " + text);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse the scan for the same input string")
+    void testReusesScanForSameInput() {
+        String input = "mail john@example.com";
+
+        assertSame(InputPatternScanner.scan(input), InputPatternScanner.scan(input));
+        assertNotSame(InputPatternScanner.scan(input), InputPatternScanner.scan(new String(input)));
+    }
+
+    static String randomText(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            if (random.nextInt(4) > 0) {
+                sb.append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<Integer> find(Pattern pattern, String text) {
+        List<Integer> starts = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            starts.add(matcher.start());
+        }
+        return starts;
+    }
+
+    private static List<Integer> starts(List<MultiPatternScanner.Match> matches) {
+        return matches.stream().map(MultiPatternScanner.Match::start).toList();
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ai.kompile.guardrails.output;
+
+import ai.kompile.core.guardrails.GuardrailAction;
+import ai.kompile.core.guardrails.GuardrailContext;
+import ai.kompile.core.guardrails.GuardrailResult;
+import ai.kompile.core.guardrails.OutputGuardrailStream;
+import ai.kompile.core.guardrails.StreamDecision;
+import ai.kompile.guardrails.GuardrailsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PiiOutputGuardrail.
+ */
+class PiiOutputGuardrailTest {
+
+    private GuardrailsProperties properties;
+    private PiiOutputGuardrail guardrail;
+    private GuardrailContext context;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GuardrailsProperties();
+        properties.getOutput().getPii().setEnabled(true);
+        guardrail = new PiiOutputGuardrail(properties);
+        context = GuardrailContext.builder().build();
+    }
+
+    // ==================== Full Response Tests ====================
+
+    @Test
+    @DisplayName("Should pass a response without PII")
+    void testCleanResponse() {
+        GuardrailResult result = guardrail.validate("The capital of France is Paris.", "query", List.of(), context);
+
+        assertTrue(result.isPassed());
+    }
+
+    @Test
+    @DisplayName("Should redact PII and report the modified content")
+    void testRedactsResponse() {
+        GuardrailResult result = guardrail.validate(
+                "Contact john.doe@example.com or 555-123-4567.", "query", List.of(), context);
+
+        assertFalse(result.isPassed());
+        assertEquals(GuardrailAction.MODIFY, result.getAction());
+        assertEquals(2, result.getViolations().size());
+        String modified = (String) result.getMetadata().get(GuardrailResult.METADATA_MODIFIED_CONTENT);
+        assertFalse(modified.contains("john.doe@example.com"));
+        assertFalse(modified.contains("555-123-4567"));
+        assertTrue(modified.startsWith("Contact "));
+        assertTrue(modified.endsWith("."));
+    }
+
+    @Test
+    @DisplayName("Should block the response when configured to")
+    void testBlocksResponse() {
+        properties.getOutput().getPii().setBlockOnDetection(true);
+
+        GuardrailResult result = guardrail.validate("SSN is 123-45-6789", "query", List.of(), context);
+
+        assertFalse(result.isPassed());
+        assertEquals(GuardrailAction.BLOCK, result.getAction());
+    }
+
+    // ==================== Streaming Tests ====================
+
+    @Test
+    @DisplayName("Should redact PII split across deltas")
+    void testRedactsAcrossDeltas() {
+        String streamed = stream("Mail me at jo", "hn.doe@exam", "ple.com today, or call 555-", "123-4567");
+
+        assertFalse(streamed.contains("john.doe@example.com"));
+        assertFalse(streamed.contains("555-123-4567"));
+        assertTrue(streamed.startsWith("Mail me at "));
+        assertTrue(streamed.contains(" today, or call "));
+        assertEquals(guardrailRedaction("Mail me at john.doe@example.com today, or call 555-123-4567"), streamed);
+    }
+
+    @Test
+    @DisplayName("Should release text that cannot be part of PII")
+    void testReleasesEarly() {
+        OutputGuardrailStream stream = guardrail.openStream("query", List.of(), context);
+
+        assertEquals("Hello, ", stream.accept("Hello, wor").text());
+        assertEquals("world! ", stream.accept("ld! ").text());
+        StreamDecision last = stream.finish();
+        assertEquals("", last.text());
+        assertTrue(last.result().isPassed());
+    }
+
+    @Test
+    @DisplayName("Should stop the stream before PII is released")
+    void testStopsBeforeRelease() {
+        properties.getOutput().getPii().setBlockOnDetection(true);
+        OutputGuardrailStream stream = guardrail.openStream("query", List.of(), context);
+
+        StringBuilder released = new StringBuilder();
+        StreamDecision decision = null;
+        for (String delta : List.of("Your SSN is 123-", "45-6789 and ", "more")) {
+            decision = stream.accept(delta);
+            if (decision.isStopped()) {
+                break;
+            }
+            released.append(decision.text());
+        }
+
+        assertNotNull(decision);
+        assertTrue(decision.isStopped());
+        assertEquals(GuardrailAction.BLOCK, decision.result().getAction());
+        assertFalse(released.toString().contains("6789"));
+    }
+
+    @Test
+    @DisplayName("Should finish with MODIFY when PII was redacted")
+    void testFinishReportsRedaction() {
+        OutputGuardrailStream stream = guardrail.openStream("query", List.of(), context);
+        stream.accept("Reach jane@example.org");
+
+        StreamDecision last = stream.finish();
+
+        assertFalse(last.isStopped());
+        assertEquals(GuardrailAction.MODIFY, last.result().getAction());
+        assertEquals(1, last.result().getViolations().size());
+        assertEquals("email", last.result().getViolations().get(0).getType());
+    }
+
+    @Test
+    @DisplayName("Should cap the held-back text")
+    void testHoldbackCap() {
+        OutputGuardrailStream stream = guardrail.openStream("query", List.of(), context);
+        String run = "a".repeat(PiiOutputGuardrail.MAX_HOLDBACK + 1);
+
+        assertEquals(run, stream.accept(run).text());
+    }
+
+    @Test
+    @DisplayName("Should only redact enabled PII types")
+    void testDisabledType() {
+        properties.getOutput().getPii().setDetectEmail(false);
+
+        String streamed = stream("Reach jane@example.org or 555-123-4567");
+
+        assertTrue(streamed.contains("jane@example.org"));
+        assertFalse(streamed.contains("555-123-4567"));
+    }
+
+    // ==================== Helpers ====================
+
+    private String stream(String... deltas) {
+        OutputGuardrailStream stream = guardrail.openStream("query", List.of(), context);
+        StringBuilder out = new StringBuilder();
+        for (String delta : deltas) {
+            StreamDecision decision = stream.accept(delta);
+            assertFalse(decision.isStopped());
+            out.append(decision.text());
+        }
+        out.append(stream.finish().text());
+        return out.toString();
+    }
+
+    private String guardrailRedaction(String output) {
+        GuardrailResult result = guardrail.validate(output, "query", List.of(), context);
+        return (String) result.getMetadata().get(GuardrailResult.METADATA_MODIFIED_CONTENT);
+    }
+}
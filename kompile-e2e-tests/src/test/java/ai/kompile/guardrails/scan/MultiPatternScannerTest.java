@@ -0,0 +1,131 @@
+/*
+ *   Copyright 2025 Kompile Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ai.kompile.guardrails.scan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MultiPatternScanner.
+ */
+class MultiPatternScannerTest {
+
+    private static final Pattern GREETING = Pattern.compile("hello\\s+(world|there)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TAG = Pattern.compile("<b>|\\[b\\]", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d{3}-\\d{4}\\b");
+    private static final Pattern HANDLE = Pattern.compile("@[a-z]{2,}");
+
+    private static final String DIGITS = "0123456789";
+
+    private MultiPatternScanner scanner() {
+        return MultiPatternScanner.builder()
+                .anchored("words", "greeting", GREETING, "hello")
+                .anchored("words", "tag", TAG, "<b>", "[b]")
+                .windowed("ids", "number", NUMBER, DIGITS + "-", DIGITS)
+                .windowed("ids", "handle", HANDLE, "abcdefghijklmnopqrstuvwxyz@", "@")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should attribute matches to their guardrail and rule")
+    void testAttributesMatches() {
+        String text = "HELLO there, call 555-1234 or ping @bob. [B]bold[/b]";
+
+        MultiPatternScanner.Result result = scanner().scan(text);
+
+        assertEquals(List.of("HELLO there"), texts(result.matches("words", "greeting"), text));
+        assertEquals(List.of("[B]"), texts(result.matches("words", "tag"), text));
+        assertEquals(List.of("555-1234"), texts(result.matches("ids", "number"), text));
+        assertEquals(List.of("@bob"), texts(result.matches("ids", "handle"), text));
+        assertEquals(2, result.matches("ids").size());
+        assertEquals(4, result.all().size());
+        assertTrue(result.matches("ids", "unknown").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should respect word boundaries outside the window")
+    void testBoundariesSeeOutsideWindow() {
+        String text = "x555-1234 555-1234y 555-1234";
+
+        MultiPatternScanner.Result result = scanner().scan(text);
+
+        assertEquals(List.of(text.lastIndexOf("555")), starts(result.matches("ids", "number")));
+    }
+
+    @Test
+    @DisplayName("Should report the same matches as Matcher.find over the whole text")
+    void testEquivalentToFind() {
+        String[] vocabulary = {"hello", "HELLO", "Hello", "world", "there", "<b>", "[b]", "<B>", "555-1234",
+                "12-3456", "123-4567", "@al", "@b", "a@bc", "x", " ", "  ", "\n", "-", "hellohello", "héllo"};
+        Random random = new Random(7);
+        MultiPatternScanner scanner = scanner();
+
+        for (int round = 0; round < 500; round++) {
+            StringBuilder sb = new StringBuilder();
+            int words = random.nextInt(40);
+            for (int i = 0; i < words; i++) {
+                sb.append(vocabulary[random.nextInt(vocabulary.length)]);
+                if (random.nextBoolean()) {
+                    sb.append(' ');
+                }
+            }
+            String text = sb.toString();
+            MultiPatternScanner.Result result = scanner.scan(text);
+
+            assertEquals(find(GREETING, text), result.matches("words", "greeting"), text);
+            assertEquals(find(TAG, text), result.matches("words", "tag"), text);
+            assertEquals(find(NUMBER, text), result.matches("ids", "number"), text);
+            assertEquals(find(HANDLE, text), result.matches("ids", "handle"), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject non-ASCII anchors")
+    void testRejectsNonAsciiAnchor() {
+        MultiPatternScanner.Builder builder = MultiPatternScanner.builder()
+                .anchored("g", "r", Pattern.compile("é"), "é");
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    private static List<MultiPatternScanner.Match> find(Pattern pattern, String text) {
+        String guardrail = pattern == GREETING || pattern == TAG ? "words" : "ids";
+        String rule = pattern == GREETING ? "greeting" : pattern == TAG ? "tag" : pattern == NUMBER ? "number" : "handle";
+        List<MultiPatternScanner.Match> matches = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            matches.add(new MultiPatternScanner.Match(guardrail, rule, matcher.start(), matcher.end()));
+        }
+        return matches;
+    }
+
+    private static List<String> texts(List<MultiPatternScanner.Match> matches, String text) {
+        return matches.stream().map(m -> m.text(text)).toList();
+    }
+
+    private static List<Integer> starts(List<MultiPatternScanner.Match> matches) {
+        return matches.stream().map(MultiPatternScanner.Match::start).toList();
+    }
+}
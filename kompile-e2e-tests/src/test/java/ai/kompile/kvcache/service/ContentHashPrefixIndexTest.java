@@ -96,7 +96,7 @@ class ContentHashPrefixIndexTest {
         @Test void matchMultipleContiguousBlocks() {
             var index = createIndex(4, 100);
             index.onBlockFilled(1, new int[]{10, 20, 30, 40});
-            index.onBlockFilled(2, new int[]{50, 60, 70, 80});
+            index.onBlockFilled(2, 1, new int[]{50, 60, 70, 80});
 
             var result = index.findCachedPrefix(new int[]{10, 20, 30, 40, 50, 60, 70, 80, 90});
             assertTrue(result.hasMatch());
@@ -138,6 +138,42 @@ class ContentHashPrefixIndexTest {
             var result = index.findCachedPrefix(new int[]{10, 20, 30, 40, 50, 60, 70, 80, 90, 100, 110, 120});
             assertEquals(4, result.matchedTokens()); // only first block matches
         }
+
+        @Test void sameBlockUnderDifferentContextDoesNotMatch() {
+            var index = createIndex(4, 100);
+            index.onBlockFilled(1, new int[]{1, 2, 3, 4});
+            index.onBlockFilled(2, 1, new int[]{50, 60, 70, 80});
+
+            // Second block has identical tokens but follows a different first block
+            var result = index.findCachedPrefix(new int[]{9, 9, 9, 9, 50, 60, 70, 80});
+            assertFalse(result.hasMatch());
+
+            // A root block never matches at a later offset
+            index.onBlockFilled(3, new int[]{9, 9, 9, 9});
+            result = index.findCachedPrefix(new int[]{9, 9, 9, 9, 50, 60, 70, 80});
+            assertEquals(4, result.matchedTokens());
+            assertArrayEquals(new int[]{3}, result.matchedBlockIds());
+        }
+
+        @Test void returnsLongestPrefixAcrossBranches() {
+            var index = createIndex(2, 100);
+            index.insert(new int[]{1, 2, 3, 4, 5, 6}, new int[]{10, 11, 12});
+            index.insert(new int[]{1, 2, 3, 4, 7, 8}, new int[]{20, 21, 22});
+
+            // Shared two-block prefix is stored once
+            assertEquals(4, index.size());
+
+            var result = index.findCachedPrefix(new int[]{1, 2, 3, 4, 7, 8, 9});
+            assertEquals(6, result.matchedTokens());
+            assertArrayEquals(new int[]{10, 11, 22}, result.matchedBlockIds());
+            assertArrayEquals(new int[]{9}, result.remainingTokens());
+        }
+
+        @Test void childOfUnknownParentIsNotIndexed() {
+            var index = createIndex(4, 100);
+            assertFalse(index.onBlockFilled(2, 1, new int[]{5, 6, 7, 8}));
+            assertEquals(0, index.size());
+        }
     }
 
     @Nested @DisplayName("Eviction")
@@ -151,6 +187,47 @@ class ContentHashPrefixIndexTest {
             // Adding a third should evict the first
             index.onBlockFilled(3, new int[]{9, 10, 11, 12});
             assertEquals(2, index.size());
+            assertFalse(index.findCachedPrefix(new int[]{1, 2, 3, 4}).hasMatch());
+        }
+
+        @Test void evictsLeastRecentlyUsedLeafFirst() {
+            var index = createIndex(2, 3);
+            index.insert(new int[]{1, 1, 2, 2}, new int[]{1, 2});
+            index.onBlockFilled(3, new int[]{3, 3});
+            index.findCachedPrefix(new int[]{1, 1, 2, 2}); // root 1 and leaf 2 are now newer than 3
+
+            index.onBlockFilled(4, new int[]{4, 4});
+            assertFalse(index.findCachedPrefix(new int[]{3, 3}).hasMatch());
+
+            // Leaf 2 goes before its parent even though the parent was touched first
+            index.onBlockFilled(5, new int[]{5, 5});
+            assertEquals(2, index.findCachedPrefix(new int[]{1, 1, 2, 2}).matchedTokens());
+        }
+
+        @Test void pinnedBlocksAreNotEvicted() {
+            var index = createIndex(4, 2);
+            index.onBlockFilled(1, new int[]{1, 2, 3, 4});
+            index.pinBlock(1);
+            index.onBlockFilled(2, new int[]{5, 6, 7, 8});
+
+            index.onBlockFilled(3, new int[]{9, 10, 11, 12});
+            assertTrue(index.findCachedPrefix(new int[]{1, 2, 3, 4}).hasMatch());
+            assertFalse(index.findCachedPrefix(new int[]{5, 6, 7, 8}).hasMatch());
+
+            index.pinBlock(3);
+            assertFalse(index.onBlockFilled(4, new int[]{13, 14, 15, 16}));
+            assertEquals(2, index.size());
+
+            index.unpinBlock(1);
+            assertTrue(index.onBlockFilled(4, new int[]{13, 14, 15, 16}));
+            assertFalse(index.findCachedPrefix(new int[]{1, 2, 3, 4}).hasMatch());
+        }
+
+        @Test void freeingParentDropsUnreachableChildren() {
+            var index = createIndex(4, 100);
+            index.insert(new int[]{1, 2, 3, 4, 5, 6, 7, 8}, new int[]{1, 2});
+            index.onBlockFreed(1);
+            assertEquals(0, index.size());
         }
     }
 
@@ -168,6 +245,8 @@ class ContentHashPrefixIndexTest {
             assertEquals(3L, stats.get("totalLookups"));
             assertEquals(2L, stats.get("totalHits"));
             assertEquals(2.0 / 3.0, (double) stats.get("hitRate"), 0.01);
+            assertEquals(8L, stats.get("totalReusedTokens"));
+            assertEquals(8.0 / 13.0, (double) stats.get("tokenHitRate"), 0.01);
         }
 
         @Test void tracksBlocksIndexed() {
@@ -0,0 +1,87 @@
+package ai.kompile.kvcache.service;
+
+import ai.kompile.kvcache.model.BlockPriority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PriorityEvictionPolicy} operations on the decode path: touching a
+ * block, picking the next victims, and the evict-then-reallocate cycle of a paged
+ * cache that is out of free blocks.
+ * <p>
+ * Run from the test classpath via {@link #main(String[])} or
+ * {@code org.openjdk.jmh.Main PriorityEvictionPolicyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityEvictionPolicyBenchmark {
+
+    private static final int[] TIERS = {
+            BlockPriority.EVICTABLE, BlockPriority.USER_CONTEXT,
+            BlockPriority.CACHED_PREFIX, BlockPriority.SYSTEM_PROMPT
+    };
+
+    @Param({"1000", "10000", "100000"})
+    public int numBlocks;
+
+    @Param({"8"})
+    public int blocksNeeded;
+
+    private PriorityEvictionPolicy policy;
+    private Random random;
+    private int nextBlockId;
+
+    @Setup
+    public void setUp() {
+        policy = new PriorityEvictionPolicy(BlockPriority.USER_CONTEXT);
+        random = new Random(42);
+        for (int i = 0; i < numBlocks; i++) {
+            policy.setPriority(i, TIERS[random.nextInt(TIERS.length)]);
+        }
+        nextBlockId = numBlocks;
+    }
+
+    @Benchmark
+    public void touchBlock() {
+        policy.touchBlock(random.nextInt(numBlocks));
+    }
+
+    @Benchmark
+    public void nextVictims(Blackhole bh) {
+        bh.consume(policy.getEvictionOrder(blocksNeeded));
+    }
+
+    @Benchmark
+    public void evictAndReallocate(Blackhole bh) {
+        for (int victim : policy.getEvictionOrder(blocksNeeded)) {
+            policy.removeBlock(victim);
+            policy.registerBlock(nextBlockId++);
+        }
+        bh.consume(policy.size());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(PriorityEvictionPolicyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -113,6 +113,31 @@ class PriorityEvictionPolicyTest {
             assertEquals(1, evictionOrder.size());
         }
 
+        @Test void leastRecentlyTouchedFirstWithinTier() {
+            var policy = new PriorityEvictionPolicy(BlockPriority.USER_CONTEXT);
+            policy.registerBlock(1);
+            policy.registerBlock(2);
+            policy.registerBlock(3);
+
+            policy.touchBlock(1);
+            assertEquals(List.of(2, 3, 1), policy.getFullEvictionOrder());
+
+            policy.removeBlock(3);
+            assertEquals(List.of(2, 1), policy.getFullEvictionOrder());
+        }
+
+        @Test void reprioritisedBlockMovesTier() {
+            var policy = new PriorityEvictionPolicy(BlockPriority.USER_CONTEXT);
+            policy.registerBlock(1);
+            policy.registerBlock(2);
+            policy.setPriority(3, BlockPriority.EVICTABLE);
+
+            policy.setPriority(3, BlockPriority.SYSTEM_PROMPT);
+            policy.setPriority(1, BlockPriority.EVICTABLE);
+            assertEquals(List.of(1, 2, 3), policy.getFullEvictionOrder());
+            assertEquals(1L, policy.getTierCounts().get("evictable"));
+        }
+
         @Test void requestZero() {
             var policy = new PriorityEvictionPolicy(BlockPriority.USER_CONTEXT);
             policy.setPriority(1, BlockPriority.EVICTABLE);